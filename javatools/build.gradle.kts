@@ -73,5 +73,9 @@ tasks {
 
     test {
         maxHeapSize = "1G"
+
+        // the core libraries for the tests that need them (the tests are skipped until the
+        // :xdk project has been built)
+        systemProperty("xvm.test.xdk", "${project(":xdk").buildDir}/xdk")
     }
 }
@@ -5,6 +5,8 @@ import java.io.File;
 
 import java.util.List;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.DirRepository;
 import org.xvm.asm.FileRepository;
@@ -154,6 +156,23 @@ public class Connector
         m_containerMain.invoke0(sMethodName, ahArg);
         }
 
+    /**
+     * Invoke a method with a single return value and specified arguments.
+     *
+     * @param sMethodName  the method name
+     * @param ahArg        arguments
+     *
+     * @return a future for the return value or null if the method doesn't exist
+     */
+    public CompletableFuture<ObjectHandle> invoke1(String sMethodName, ObjectHandle... ahArg)
+        {
+        if (!m_fStarted)
+            {
+            throw new IllegalStateException("The container has not been started");
+            }
+        return m_containerMain.invoke1(sMethodName, ahArg);
+        }
+
     /**
      * Wait for the container termination.
      */
@@ -1,18 +1,19 @@
 package org.xvm.asm;
 
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
-import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 
+import java.nio.ByteBuffer;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -44,6 +45,7 @@ import org.xvm.compiler.Constants;
 import org.xvm.compiler.Parser;
 import org.xvm.compiler.Source;
 
+import org.xvm.util.BufferDataInput;
 import org.xvm.util.Handy;
 import org.xvm.util.Hash;
 import org.xvm.util.ListMap;
@@ -835,7 +837,7 @@ public abstract class Component
      */
     protected void ensureChildren()
         {
-        if (m_abChildren != null)
+        if (m_bufChildren != null)
             {
             ensureChildrenComplex();
             }
@@ -847,37 +849,38 @@ public abstract class Component
      */
     private void ensureChildrenComplex()
         {
-        byte[] ab = m_abChildren;
-        if (ab != null)
+        ByteBuffer buf = m_bufChildren;
+        if (buf != null)
             {
             // sync on an object shared by all siblings
-            synchronized (ab)
+            synchronized (buf)
                 {
-                if (ab.length == 0)
+                if (buf.capacity() == 0)
                     {
                     // we've recursed from disassembleChildren() below, or the deserialization
                     // thread just released the empty array monitor introduced below
                     return;
                     }
 
-                if (m_abChildren != null)
+                if (m_bufChildren != null)
                     {
-                    assert ab == m_abChildren;
+                    assert buf == m_bufChildren;
 
-                    // create an empty array to serve as a marker indicating that we are in the
+                    // create an empty buffer to serve as a marker indicating that we are in the
                     // process of deserialization, so threads would be forced to block on this object
-                    byte[] empty = new byte[0];
+                    ByteBuffer empty = ByteBuffer.allocate(0);
                     synchronized (empty)
                         {
                         // mark all siblings as in active serialization; this blocks other threads
                         // until deserialization is complete
                         for (Iterator<Component> siblings = siblings(); siblings.hasNext(); )
                             {
-                            siblings.next().m_abChildren = empty;
+                            siblings.next().m_bufChildren = empty;
                             }
 
-                        // now read in the children
-                        DataInput in = new DataInputStream(new ByteArrayInputStream(ab));
+                        // now read in the children; the children of the children stay deferred
+                        // as slices of the same buffer
+                        DataInput in = new BufferDataInput(buf.duplicate());
                         try
                             {
                             // this may recurse, hence the complexity of the synchronization above
@@ -889,12 +892,19 @@ public abstract class Component
                                     "IOException occurred in " + getIdentityConstant() + " " + "during"
                                     + " deferred read of child components", e);
                             }
+                        catch (InternalError e)
+                            {
+                            // a fault reading a memory-mapped file that was truncated in place
+                            throw new IllegalStateException("The module file for "
+                                    + getIdentityConstant() + " was modified during deferred read"
+                                    + " of child components", e);
+                            }
                         finally
                             {
                             // mark the deserialization as complete
                             for (Iterator<Component> siblings = siblings(); siblings.hasNext(); )
                                 {
-                                siblings.next().m_abChildren = null;
+                                siblings.next().m_bufChildren = null;
                                 }
                             }
                         }
@@ -1014,11 +1024,11 @@ public abstract class Component
         {
         // the child can't have any of its own children; that "merge" functionality is simply
         // not supported by this operation
-        assert m_abChildren       == null;
+        assert m_bufChildren      == null;
         assert m_childByName      == null;
 
         // make sure that the various sibling-shared fields are configured
-        m_abChildren  = that.m_abChildren;
+        m_bufChildren = that.m_bufChildren;
         m_childByName = that.m_childByName;
         }
 
@@ -1876,15 +1886,26 @@ public abstract class Component
                 {
                 if (fLazy)
                     {
-                    // just read the bytes for the children and store it off for later
-                    byte[] ab = new byte[cb];
-                    in.readFully(ab);
+                    // just take the bytes for the children and store them off for later; when
+                    // reading from a buffer (e.g. a memory-mapped file), the bytes are not copied
+                    ByteBuffer buf;
+                    if (in instanceof BufferDataInput inBuf)
+                        {
+                        buf = inBuf.readSlice(cb);
+                        }
+                    else
+                        {
+                        byte[] ab = new byte[cb];
+                        in.readFully(ab);
+                        buf = ByteBuffer.wrap(ab);
+                        }
+
                     for (Component eachSibling = kid; eachSibling != null; eachSibling = eachSibling.getNextSibling())
                         {
-                        // note that every sibling has a copy of all the children; this is because
-                        // the byte[] serves as both the storage of those children and an indicator that
-                        // the deserialization of the children has been deferred
-                        eachSibling.m_abChildren = ab;
+                        // note that every sibling has a reference to all the children; this is
+                        // because the buffer serves as both the storage of those children and an
+                        // indicator that the deserialization of the children has been deferred
+                        eachSibling.m_bufChildren = buf;
                         }
                     }
                 else
@@ -2168,7 +2189,9 @@ public abstract class Component
                 ClassStructure clzContrib =
                         (ClassStructure) typeContrib.getSingleUnderlyingClass(true).getComponent();
 
-                if (m_FVisited != null && m_FVisited.booleanValue() == fAllowInto)
+                Map<Component, Boolean> mapVisited = s_tloVisited.get();
+                Boolean                 FVisited   = mapVisited.get(this);
+                if (FVisited != null && FVisited.booleanValue() == fAllowInto)
                     {
                     // recursive contribution
                     collector.getErrorListener().log(Severity.FATAL, Constants.VE_CYCLICAL_CONTRIBUTION,
@@ -2176,10 +2199,10 @@ public abstract class Component
                     return ResolutionResult.ERROR;
                     }
 
-                m_FVisited = fAllowInto;
+                mapVisited.put(this, fAllowInto);
                 ResolutionResult result =
                         clzContrib.resolveContributedName(sName, access, collector, fAllowInto);
-                m_FVisited = null;
+                mapVisited.remove(this);
 
                 if (result != ResolutionResult.UNKNOWN)
                     {
@@ -2227,7 +2250,7 @@ public abstract class Component
 
         that.m_sibling     = null;
         that.m_childByName = null;
-        that.m_abChildren  = null;
+        that.m_bufChildren = null;
 
         return that;
         }
@@ -3967,9 +3990,10 @@ public abstract class Component
     /**
      * This is a non-deserialized form of all of the children. When a Component is read from disk,
      * it can optionally lazily deserialize its children. This is possible because the "children"
-     * block is length-encoded.
+     * block is length-encoded. For a memory-mapped file, this is a slice of the mapping, so the
+     * deferred children do not occupy the heap.
      */
-    private volatile byte[] m_abChildren;
+    private volatile ByteBuffer m_bufChildren;
 
     /**
      * This holds all of the children of all of the siblings, except for methods (because they are
@@ -3989,7 +4013,9 @@ public abstract class Component
     private boolean m_fModified;
 
     /**
-     * Recursion check for {@link #resolveContributedName}. Not thread-safe.
+     * Recursion check for {@link #resolveContributedName}: the components being visited by the
+     * current thread, and whether the "into" contributions were allowed for them.
      */
-    private transient Boolean m_FVisited;
+    private static final ThreadLocal<Map<Component, Boolean>> s_tloVisited =
+            ThreadLocal.withInitial(IdentityHashMap::new);
     }
\ No newline at end of file
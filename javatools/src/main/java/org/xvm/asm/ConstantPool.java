@@ -3745,7 +3745,20 @@ public class ConstantPool
 
     public TypeInfo getNakedRefInfo(TypeConstant typeReferent)
         {
-        return f_mapRefTypes.computeIfAbsent(typeReferent, this::computeNakedRefInfo);
+        // the TypeInfo is not computed by the map itself, since building it may need to wait for
+        // a different thread that may in turn need the same map entry
+        TypeInfo info = f_mapRefTypes.get(typeReferent);
+        if (info == null)
+            {
+            info = computeNakedRefInfo(typeReferent);
+
+            TypeInfo infoPrev = f_mapRefTypes.putIfAbsent(typeReferent, info);
+            if (infoPrev != null)
+                {
+                info = infoPrev;
+                }
+            }
+        return info;
         }
 
     private TypeInfo computeNakedRefInfo(TypeConstant typeReferent)
@@ -71,6 +71,22 @@ public class DirRepository
         return info == null ? null : info.ensureModule();
         }
 
+    @Override
+    public String getModuleStamp(String sModule)
+        {
+        ensureCache();
+        ModuleInfo info = modulesByName.get(sModule);
+        return info == null
+                ? null
+                : info.file.getAbsolutePath() + '@' + info.timestamp + ':' + info.size;
+        }
+
+    @Override
+    public void refresh()
+        {
+        lastScan = 0;
+        }
+
     @Override
     public void storeModule(ModuleStructure module)
             throws IOException
@@ -13,6 +13,7 @@ import org.xvm.util.Severity;
 /**
  * Represents a list of errors collected from a process such as compilation, assembly, or the
  * verifier, with an option to abort the process should a maximum number of errors be exceeded.
+ * The errors could be logged concurrently (e.g. by a parallel compilation).
  */
 public class ErrorList
         implements ErrorListener
@@ -34,7 +35,7 @@ public class ErrorList
         }
 
     @Override
-    public boolean log(ErrorInfo err)
+    public synchronized boolean log(ErrorInfo err)
         {
         String uid = err.genUID();
         if (f_setUID.add(uid))
@@ -74,7 +75,7 @@ public class ErrorList
         }
 
     @Override
-    public boolean hasError(String sCode)
+    public synchronized boolean hasError(String sCode)
         {
         return f_list.stream().anyMatch(info -> info.getCode().equals(sCode));
         }
@@ -146,7 +147,7 @@ public class ErrorList
     /**
      * Clear the list of errors, resetting the error collection state.
      */
-    public void clear()
+    public synchronized void clear()
         {
         f_list.clear();
         m_cErrors  = 0;
@@ -247,12 +248,12 @@ public class ErrorList
     /**
      * The number of serious errors encountered.
      */
-    private int m_cErrors;
+    private volatile int m_cErrors;
 
     /**
      * The worst severity encountered.
      */
-    private Severity m_severity = Severity.NONE;
+    private volatile Severity m_severity = Severity.NONE;
 
     /**
      * The accumulated list of errors.
@@ -93,6 +93,21 @@ public class FileRepository
         return null;
         }
 
+    @Override
+    public String getModuleStamp(String sModule)
+        {
+        checkCache();
+        return !err && sModule.equals(name)
+                ? file.getAbsolutePath() + '@' + timestamp + ':' + size
+                : null;
+        }
+
+    @Override
+    public void refresh()
+        {
+        lastScan = 0;
+        }
+
     @Override
     public void storeModule(ModuleStructure module)
             throws IOException
@@ -13,6 +13,13 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 
+import java.nio.channels.FileChannel;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
 import java.time.Instant;
 
 import java.util.ArrayList;
@@ -27,6 +34,7 @@ import java.util.function.Consumer;
 import org.xvm.asm.constants.ModuleConstant;
 import org.xvm.asm.constants.TypeConstant;
 
+import org.xvm.util.BufferDataInput;
 import org.xvm.util.LinkedIterator;
 
 import static org.xvm.util.Handy.intToHexString;
@@ -91,7 +99,9 @@ public class FileStructure
         }
 
     /**
-     * Construct a file structure for an existing file.
+     * Construct a file structure for an existing file. Unless turned off by the "xvm.mmap" system
+     * property, the file is memory-mapped, and the deferred components (see {@code fLazy}) are kept
+     * as slices of the mapping instead of copies on the heap.
      *
      * @param file   the file that contains the existing FileStructure
      * @param fLazy  true to defer the module deserialization until necessary
@@ -101,7 +111,7 @@ public class FileStructure
     public FileStructure(File file, boolean fLazy)
             throws IOException
         {
-        this(toInputStream(file), true, fLazy);
+        this(openFile(file), true, fLazy);
 
         m_file = file;
         }
@@ -137,7 +147,7 @@ public class FileStructure
         m_fLazyDeser = fLazy;
         try
             {
-            disassemble(new DataInputStream(in));
+            disassemble(in instanceof DataInputStream inData ? inData : new DataInputStream(in));
             }
         finally
             {
@@ -238,25 +248,45 @@ public class FileStructure
     public void writeTo(File file)
             throws IOException
         {
-        FileOutputStream fos = new FileOutputStream(file);
-
+        // write to a temporary file first and then replace the file, so that the FileStructures
+        // that are still reading from a mapping of the old file content are not affected; note
+        // that the temporary file is created with the default permissions
+        File fileTemp = new File(file.getAbsoluteFile().getParentFile(), '.' + file.getName() + ".tmp");
         try
             {
-            BufferedOutputStream bos = new BufferedOutputStream(fos);
+            FileOutputStream fos = new FileOutputStream(fileTemp);
             try
                 {
-                writeTo(bos);
+                BufferedOutputStream bos = new BufferedOutputStream(fos);
+                try
+                    {
+                    writeTo(bos);
+                    }
+                finally
+                    {
+                    bos.flush();
+                    bos.close();
+                    }
                 }
             finally
                 {
-                bos.flush();
-                bos.close();
+                fos.flush();
+                fos.close();
+                }
+
+            try
+                {
+                Files.move(fileTemp.toPath(), file.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            catch (AtomicMoveNotSupportedException e)
+                {
+                Files.move(fileTemp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
                 }
             }
         finally
             {
-            fos.flush();
-            fos.close();
+            fileTemp.delete();
             }
         }
 
@@ -545,6 +575,25 @@ public class FileStructure
             }
         }
 
+    /**
+     * Synthesize the structures that are not persisted (e.g. the Const interface functions) for all
+     * the modules in this FileStructure. This is only necessary for a FileStructure that has been
+     * read from its persistent form and is used at run time as is, without being merged or linked.
+     */
+    public void synthesizeModules()
+        {
+        try (var ignore = ConstantPool.withPool(m_pool))
+            {
+            for (Component child : children())
+                {
+                if (child instanceof ModuleStructure module && !module.isFingerprint())
+                    {
+                    module.synthesizeChildren();
+                    }
+                }
+            }
+        }
+
     /**
      * Replace "fingerprint" modules with an actual ones.
      *
@@ -952,6 +1001,34 @@ public class FileStructure
         return false;
         }
 
+    /**
+     * Open the specified file for reading a FileStructure. The file is memory-mapped unless the
+     * mapping is turned off or the file cannot be mapped.
+     *
+     * @param file  the file to open
+     *
+     * @return an InputStream to the specified file
+     *
+     * @throws IOException  if the file cannot be opened
+     */
+    private static InputStream openFile(File file)
+            throws IOException
+        {
+        if (MAP_FILES && file.isFile() && file.length() <= Integer.MAX_VALUE)
+            {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+                {
+                // the mapping stays valid after the channel is closed, until it's garbage-collected
+                return new BufferDataInput(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+            catch (IOException | UnsupportedOperationException e)
+                {
+                // fall back to reading the file
+                }
+            }
+        return toInputStream(file);
+        }
+
 
     // ----- Component methods ---------------------------------------------------------------------
 
@@ -1237,6 +1314,14 @@ public class FileStructure
 
     // ----- fields --------------------------------------------------------------------------------
 
+    /**
+     * True to memory-map the files that FileStructures are read from; the "xvm.mmap" system property
+     * set to "false" turns the mapping off. It is off by default on Windows, where a mapped file
+     * cannot be replaced.
+     */
+    private static final boolean MAP_FILES = Boolean.parseBoolean(
+            System.getProperty("xvm.mmap", String.valueOf(File.separatorChar == '/')));
+
     /**
      * The file that the file structure was loaded from.
      */
@@ -4,9 +4,12 @@ package org.xvm.asm;
 import java.io.IOException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 
 /**
  * A repository that delegates to a chain of repositories. Reads occur from the repositories in the
@@ -124,6 +127,7 @@ public class LinkedRepository
                         // create a copy, allowing the compiler to mutate the repos[0] contents
                         FileStructure fileClone = new FileStructure(module, false);
                         repos[0].storeModule(module = fileClone.getModule());
+                        trackCopy(sModule, repo);
                         }
                     catch (IOException e)
                         {
@@ -152,6 +156,7 @@ public class LinkedRepository
                     try
                         {
                         repos[0].storeModule(module);
+                        trackCopy(sModule, repo);
                         }
                     catch (IOException e)
                         {
@@ -166,11 +171,61 @@ public class LinkedRepository
         return null;
         }
 
+    @Override
+    public String getModuleStamp(String sModule)
+        {
+        // the stamp comes from the same repository that loadModule() would load the module from;
+        // the read-through copies carry the stamps of their origins
+        for (int i = 0, c = repos.length; i < c; ++i)
+            {
+            ModuleRepository repo = repos[i];
+            if (repo.getModuleNames().contains(sModule))
+                {
+                return i == 0 && readThrough
+                        ? copyStamps.get(sModule)
+                        : repo.getModuleStamp(sModule);
+                }
+            }
+        return null;
+        }
+
+    @Override
+    public void refresh()
+        {
+        for (ModuleRepository repo : repos)
+            {
+            repo.refresh();
+            }
+        }
+
     @Override
     public void storeModule(ModuleStructure module)
             throws IOException
         {
         repos[0].storeModule(module);
+        copyStamps.remove(module.getIdentityConstant().getName());
+        }
+
+
+    // ----- internal ------------------------------------------------------------------------------
+
+    /**
+     * Remember the stamp of a module that has been copied to the first repository.
+     *
+     * @param sModule  the module name
+     * @param repo     the repository the module has been loaded from
+     */
+    private void trackCopy(String sModule, ModuleRepository repo)
+        {
+        String sStamp = repo.getModuleStamp(sModule);
+        if (sStamp == null)
+            {
+            copyStamps.remove(sModule);
+            }
+        else
+            {
+            copyStamps.put(sModule, sStamp);
+            }
         }
 
 
@@ -186,4 +241,10 @@ public class LinkedRepository
      * A value of true stores a copy of all read modules in the first repository.
      */
     private final boolean            readThrough;
+
+    /**
+     * The stamps of the modules that have been copied to the first repository (read-through), keyed
+     * by the module name.
+     */
+    private final Map<String, String> copyStamps = new ConcurrentHashMap<>();
     }
\ No newline at end of file
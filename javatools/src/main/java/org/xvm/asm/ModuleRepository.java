@@ -147,6 +147,30 @@ public interface ModuleRepository
         return module;
         }
 
+    /**
+     * Obtain a stamp that identifies the current content of the specified module without loading
+     * the module. The stamp changes whenever the module changes, which allows the information
+     * derived from the module to be cached across processes.
+     *
+     * @param sModule  a fully qualified module name
+     *
+     * @return the module stamp, or null if the module is unavailable or the repository is not able
+     *         to produce a stamp for it
+     */
+    default String getModuleStamp(String sModule)
+        {
+        return null;
+        }
+
+    /**
+     * Drop any throttling of the repository's change detection, so that the next access reflects
+     * the current state of the underlying storage. Used by long-lived processes that keep a
+     * repository across requests.
+     */
+    default void refresh()
+        {
+        }
+
     /**
      * Store the specified module in the repository.
      *
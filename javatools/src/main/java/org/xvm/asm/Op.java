@@ -1356,6 +1356,20 @@ public abstract class Op
         return iPCTo;
         }
 
+    /**
+     * Check whether the specified (not yet resolved) common type of a binary op is Int64; the
+     * result is meant to be cached by the op, since the type of an op never changes.
+     *
+     * @param frame  the current frame
+     * @param type   the common type of the op
+     *
+     * @return 1 if the type is Int64; -1 otherwise
+     */
+    protected static int checkInt64Type(Frame frame, TypeConstant type)
+        {
+        return type.resolveTypedefs().equals(frame.poolContext().typeInt64()) ? 1 : -1;
+        }
+
     /**
      * Convert a relative const id into an absolute one.
      */
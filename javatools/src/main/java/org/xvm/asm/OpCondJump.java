@@ -151,6 +151,14 @@ public abstract class OpCondJump
         {
         try
             {
+            if (isInt64Op() && frame.isInt64(m_nArg) && frame.isInt64(m_nArg2)
+                    && isInt64Type(frame))
+                {
+                return testInt64(frame.getInt64(m_nArg), frame.getInt64(m_nArg2))
+                        ? jump(frame, iPC + m_ofJmp, m_cExits)
+                        : iPC + 1;
+                }
+
             ObjectHandle[] ahArg      = frame.getArguments(new int[]{m_nArg, m_nArg2}, 2);
             TypeConstant   typeCommon = calculateCommonType(frame);
 
@@ -197,6 +205,41 @@ public abstract class OpCondJump
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * @return true iff this op has a primitive implementation for two Int64 values
+     */
+    protected boolean isInt64Op()
+        {
+        return false;
+        }
+
+    /**
+     * A primitive test of two Int64 values; must be overridden by all ops that return true from
+     * {@link #isInt64Op()}.
+     */
+    protected boolean testInt64(long l1, long l2)
+        {
+        throw new UnsupportedOperationException();
+        }
+
+    /**
+     * @return true iff the common type of this binary op is Int64
+     */
+    protected boolean isInt64Type(Frame frame)
+        {
+        int nInt64 = m_nInt64Type;
+        if (nInt64 == 0)
+            {
+            TypeConstant typeCommon = m_typeCommon;
+            if (typeCommon == null)
+                {
+                m_typeCommon = typeCommon = (TypeConstant) frame.getConstant(m_nType);
+                }
+            m_nInt64Type = nInt64 = checkInt64Type(frame, typeCommon);
+            }
+        return nInt64 > 0;
+        }
+
     @Override
     public void markReachable(Op[] aop)
         {
@@ -329,4 +372,7 @@ public abstract class OpCondJump
     // TODO: it should be injected by the verifier and removed from the serialization logic
     protected int m_nType;
     protected TypeConstant m_typeCommon;
+
+    // 1 if the common type is known to be Int64; -1 if it is known not to be; 0 if not yet known
+    transient protected int m_nInt64Type;
     }
@@ -141,6 +141,17 @@ public abstract class OpGeneral
         {
         try
             {
+            if (isInt64Op() && frame.isInt64(m_nTarget) && frame.isInt64(m_nArgValue))
+                {
+                if (frame.isNextRegister(m_nRetValue))
+                    {
+                    frame.introduceVarCopy(m_nRetValue, m_nTarget);
+                    }
+
+                return frame.assignInt64(m_nRetValue,
+                        completeInt64(frame.getInt64(m_nTarget), frame.getInt64(m_nArgValue)));
+                }
+
             ObjectHandle[] ahArg = frame.getArguments(new int[] {m_nTarget, m_nArgValue}, 2);
 
             if (frame.isNextRegister(m_nRetValue))
@@ -169,6 +180,23 @@ public abstract class OpGeneral
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * @return true iff this binary op has a primitive implementation for two Int64 values
+     */
+    protected boolean isInt64Op()
+        {
+        return false;
+        }
+
+    /**
+     * A primitive completion of a binary op for two Int64 values; must be overridden by all ops
+     * that return true from {@link #isInt64Op()}.
+     */
+    protected long completeInt64(long l1, long l2)
+        {
+        throw new UnsupportedOperationException();
+        }
+
     @Override
     public void resetSimulation()
         {
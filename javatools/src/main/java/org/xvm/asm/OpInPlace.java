@@ -127,6 +127,16 @@ public abstract class OpInPlace
                     }
                 else
                     {
+                    if (isInt64Op() && frame.isInt64(nTarget))
+                        {
+                        if (isAssignOp() && frame.isNextRegister(m_nRetValue))
+                            {
+                            frame.introduceVarCopy(m_nRetValue, nTarget);
+                            }
+
+                        return completeWithInt64(frame, frame.getInt64(nTarget));
+                        }
+
                     ObjectHandle hTarget = frame.getArgument(nTarget);
 
                     if (isAssignOp() && frame.isNextRegister(m_nRetValue))
@@ -169,6 +179,25 @@ public abstract class OpInPlace
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * @return true iff this op has a primitive implementation for an Int64 register
+     */
+    protected boolean isInt64Op()
+        {
+        return false;
+        }
+
+    /**
+     * A primitive completion for an Int64 register; must be overridden by all ops that return true
+     * from {@link #isInt64Op()}.
+     *
+     * @param lValue  the value of the target register
+     */
+    protected int completeWithInt64(Frame frame, long lValue)
+        {
+        throw new UnsupportedOperationException();
+        }
+
     protected int completeWithProperty(Frame frame, PropertyConstant idProp)
         {
         throw new UnsupportedOperationException();
@@ -91,6 +91,12 @@ public abstract class OpInPlaceAssign
                     }
                 else
                     {
+                    if (isInt64Op() && frame.isInt64(nTarget) && frame.isInt64(m_nArgValue))
+                        {
+                        return frame.assignInt64(nTarget,
+                                completeInt64(frame.getInt64(nTarget), frame.getInt64(m_nArgValue)));
+                        }
+
                     ObjectHandle hTarget = frame.getArgument(nTarget);
                     ObjectHandle hValue  = frame.getArgument(m_nArgValue);
 
@@ -132,6 +138,25 @@ public abstract class OpInPlaceAssign
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * @return true iff this op has a primitive implementation for two Int64 values
+     */
+    protected boolean isInt64Op()
+        {
+        return false;
+        }
+
+    /**
+     * A primitive completion for two Int64 values; must be overridden by all ops that return true
+     * from {@link #isInt64Op()}.
+     *
+     * @return the new value of the target register
+     */
+    protected long completeInt64(long lTarget, long lValue)
+        {
+        throw new UnsupportedOperationException();
+        }
+
     /**
      * The completion of processing.
      */
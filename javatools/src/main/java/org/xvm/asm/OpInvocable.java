@@ -14,9 +14,9 @@ import org.xvm.asm.constants.SignatureConstant;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.InlineCache;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.PropertyComposition;
-import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.TypeComposition;
 
 import org.xvm.runtime.template.xException;
@@ -126,19 +126,21 @@ public abstract class OpInvocable extends Op
         }
 
     // helper methods
-     protected CallChain getCallChain(Frame frame, ObjectHandle hTarget)
+    protected CallChain getCallChain(Frame frame, ObjectHandle hTarget)
         {
-        ServiceContext  context   = frame.f_context;
-        CallChain       chain     = (CallChain) context.getOpInfo(this, Category.Chain);
-        TypeComposition clazzPrev = (TypeComposition) context.getOpInfo(this, Category.Composition);
-        TypeComposition clazz     = hTarget.getComposition();
-
-        if (chain != null && clazz == clazzPrev)
+        CallChain chain = m_chainPrivate;
+        if (chain != null)
             {
             return chain;
             }
 
-        context.setOpInfo(this, Category.Composition, clazz);
+        TypeComposition clazz = hTarget.getComposition();
+
+        chain = f_cache.get(clazz);
+        if (chain != null)
+            {
+            return chain;
+            }
 
         MethodConstant  idMethod = (MethodConstant) frame.getConstant(m_nMethodId);
         MethodStructure method   = (MethodStructure) idMethod.getComponent();
@@ -147,10 +149,8 @@ public abstract class OpInvocable extends Op
 
         if (method != null && method.getAccess() == Access.PRIVATE)
             {
-            chain = new CallChain(method);
-
-            context.setOpInfo(this, Category.Chain, chain);
-            return chain;
+            // the chain for a private method doesn't depend on the target's composition
+            return m_chainPrivate = new CallChain(method);
             }
 
         PropertyConstant idProp = clazz instanceof PropertyComposition
@@ -192,7 +192,7 @@ public abstract class OpInvocable extends Op
                 "\" on " + hTarget.getType().getValueString()));
             }
 
-        context.setOpInfo(this, Category.Chain, chain);
+        f_cache.put(clazz, chain);
         return chain;
         }
 
@@ -344,6 +344,13 @@ public abstract class OpInvocable extends Op
     protected Argument       m_argReturn;  // optional
     protected Argument[]     m_aArgReturn; // optional
 
-    // categories for cached info
-    enum Category {Chain, Composition}
+    /**
+     * The inline cache of the call chains keyed by the target's composition.
+     */
+    private final transient InlineCache f_cache = new InlineCache(this);
+
+    /**
+     * The cached chain for a private method.
+     */
+    private transient CallChain m_chainPrivate;
     }
\ No newline at end of file
@@ -206,10 +206,13 @@ public class DynamicFormalConstant
         {
         super.assemble(out);
 
-        assert !m_reg.isUnknown();
+        // the register is only known at compile time; a deserialized constant has just the index
+        // and the id
+        int nReg = getRegisterIndex();
+        assert nReg < Register.UNKNOWN;
 
-        out.writeShort(m_reg.getIndex());
-        out.writeShort(m_reg.getId());
+        out.writeShort(nReg);
+        out.writeShort(m_reg == null ? m_nRegId : m_reg.getId());
         writePackedLong(out, m_typeReg.getPosition());
         writePackedLong(out, m_constFormal.getPosition());
         }
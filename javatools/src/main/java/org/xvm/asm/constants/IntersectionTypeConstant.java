@@ -581,7 +581,7 @@ public class IntersectionTypeConstant
     protected ListMap<String, ChildInfo> mergeChildren(TypeInfo info1, TypeInfo info2, ErrorListener errs)
         {
         ListMap<String, ChildInfo> map1 = info1 == null ? ListMap.EMPTY : info1.getChildInfosByName();
-        ListMap<String, ChildInfo> map2 = info1 == null ? ListMap.EMPTY : info2.getChildInfosByName();
+        ListMap<String, ChildInfo> map2 = info2 == null ? ListMap.EMPTY : info2.getChildInfosByName();
 
         if (map1.isEmpty())
             {
@@ -145,9 +145,11 @@ public class RegisterConstant
         {
         super.assemble(out);
 
-        assert !m_reg.isUnknown();
+        // the register is only known at compile time; a deserialized constant has just the index
+        int nReg = getRegisterIndex();
+        assert nReg < Register.UNKNOWN;
 
-        writePackedLong(out, m_reg.getIndex());
+        writePackedLong(out, nReg);
         }
 
     @Override
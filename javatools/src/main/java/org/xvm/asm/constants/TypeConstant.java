@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.HashMap;
@@ -23,6 +24,7 @@ import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.xvm.asm.Annotation;
 import org.xvm.asm.ClassStructure;
@@ -1580,12 +1582,102 @@ public abstract class TypeConstant
      */
     public TypeInfo ensureTypeInfo(ErrorListener errs)
         {
-        TypeInfo info = getTypeInfo();
-        if (isComplete(info) && isUpToDate(info))
+        TypeInfo info = getCompleteTypeInfo();
+        return info == null
+                ? ensureTypeInfoClaimed(errs, false)
+                : info;
+        }
+
+    /**
+     * Obtain the TypeInfo on behalf of {@link #ensureTypeInfo(ErrorListener)} or
+     * {@link #ensureTypeInfoInternal(ErrorListener)}, building it on the current thread.
+     * <p/>
+     * The TypeInfo is built by one thread at a time: if a different thread is building it, wait
+     * for that thread and use its result. A thread keeps the TypeInfos that it has claimed until
+     * its outermost call to this method returns, since until then, they may still be incomplete.
+     *
+     * @param errs       the error list to log to
+     * @param fInternal  true for {@link #ensureTypeInfoInternal(ErrorListener)}
+     */
+    private TypeInfo ensureTypeInfoClaimed(ErrorListener errs, boolean fInternal)
+        {
+        List<TypeConstant> listClaimed = s_tloClaimed.get();
+        boolean            fOutermost  = listClaimed == null;
+        if (fOutermost)
+            {
+            s_tloClaimed.set(listClaimed = new ArrayList<>());
+            }
+
+        try
+            {
+            while (true)
+                {
+                TypeInfo info = getCompleteTypeInfo();
+                if (info != null)
+                    {
+                    return info;
+                    }
+
+                switch (claimTypeInfo())
+                    {
+                    case CLAIMED:
+                        listClaimed.add(this);
+                        return fInternal
+                                ? ensureTypeInfoInternalImpl(errs, true)
+                                : ensureTypeInfoImpl(errs);
+
+                    case WAITED:
+                        break;
+
+                    case RECURSIVE:
+                        {
+                        // a place-holder left by a different (waiting) thread does not signify
+                        // the recursion on this thread; it has to be rebuilt by this thread, just
+                        // like a left-over from a deferred build
+                        Set<TypeConstant> setBorrowed = s_tloBorrowed.get();
+                        boolean           fBorrow     = m_threadBuilder != Thread.currentThread()
+                                                     && setBorrowed.add(this);
+                        try
+                            {
+                            return fInternal
+                                    ? ensureTypeInfoInternalImpl(errs, fBorrow)
+                                    : ensureTypeInfoImpl(errs);
+                            }
+                        finally
+                            {
+                            if (fBorrow)
+                                {
+                                setBorrowed.remove(this);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        finally
+            {
+            if (fOutermost)
+                {
+                s_tloClaimed.remove();
+                listClaimed.forEach(TypeConstant::releaseTypeInfo);
+                }
+            }
+        }
+
+    /**
+     * The {@link #ensureTypeInfo(ErrorListener)} implementation.
+     */
+    private TypeInfo ensureTypeInfoImpl(ErrorListener errs)
+        {
+        // a tentative TypeInfo of a different thread (that waits for this one) is not used; it
+        // gets rebuilt instead
+        TypeInfo info = getCompleteTypeInfo();
+        if (info != null)
             {
             return info;
             }
 
+        info = getTypeInfo();
         ConstantPool pool = getConstantPool();
         if (info == null)
             {
@@ -1639,7 +1731,10 @@ public abstract class TypeConstant
 
         errs = errs.branch(null);
 
-        Set<TypeConstant> setInvalidate = null;
+        // until it is known whether the TypeInfo has any errors, no other thread may use it
+        boolean            fTentative    = beginTentative();
+        List<TypeConstant> listTentative = null;
+        Set<TypeConstant>  setInvalidate = null;
         try
             {
             // build the TypeInfo for this type
@@ -1703,6 +1798,15 @@ public abstract class TypeConstant
                                         setInvalidate = new HashSet<>();
                                         }
                                     setInvalidate.add(typeDeferred);
+
+                                    if (typeDeferred.beginTentative())
+                                        {
+                                        if (listTentative == null)
+                                            {
+                                            listTentative = new ArrayList<>();
+                                            }
+                                        listTentative.add(typeDeferred);
+                                        }
                                     }
                                 errsTemp.merge();
                                 }
@@ -1724,6 +1828,16 @@ public abstract class TypeConstant
                         }
                     }
                 }
+
+            if (errs.hasSeriousErrors())
+                {
+                // we need to return what we've got, but don't cache it
+                invalidateTypeInfo();
+                if (setInvalidate != null)
+                    {
+                    setInvalidate.forEach(TypeConstant::invalidateTypeInfo);
+                    }
+                }
             }
         catch (Exception | Error e)
             {
@@ -1731,14 +1845,15 @@ public abstract class TypeConstant
             takeDeferredTypeInfo();
             throw e;
             }
-
-        if (errs.hasSeriousErrors())
+        finally
             {
-            // we need to return what we've got, but don't cache it
-            invalidateTypeInfo();
-            if (setInvalidate != null)
+            if (fTentative)
+                {
+                endTentative();
+                }
+            if (listTentative != null)
                 {
-                setInvalidate.forEach(TypeConstant::invalidateTypeInfo);
+                listTentative.forEach(TypeConstant::endTentative);
                 }
             }
         errs.merge();
@@ -1754,21 +1869,34 @@ public abstract class TypeConstant
      *         build the TypeInfo at this point due to recursion
      */
     protected TypeInfo ensureTypeInfoInternal(ErrorListener errs)
+        {
+        TypeInfo info = getCompleteTypeInfo();
+        return info == null
+                ? ensureTypeInfoClaimed(errs, true)
+                : info;
+        }
+
+    /**
+     * The {@link #ensureTypeInfoInternal(ErrorListener)} implementation.
+     *
+     * @param errs    the error list to log to
+     * @param fOwner  true iff this call has claimed the building of the TypeInfo (or does it for
+     *                an owner that waits for this thread), in which case any place-holder is a
+     *                left-over from a build that has been deferred (or is stuck in the owner)
+     */
+    private TypeInfo ensureTypeInfoInternalImpl(ErrorListener errs, boolean fOwner)
         {
         TypeInfo info = getTypeInfo();
-        if (info != null && info.isPlaceHolder())
-            {
-            // the TypeInfo is already being built, so we're in the catch-22 situation; note that it
-            // is even more complicated, because it could be being built by a different thread, so
-            // always add it to the deferred list _on this thread_ so that we will force the rebuild
-            // of the TypeInfo if necessary (imagine that the other thread is super slow, so we need
-            // to preemptively duplicate its work on this thread, so we don't have to "wait" for
-            // the other thread)
+        if (info != null && info.isPlaceHolder() && !fOwner)
+            {
+            // the TypeInfo is already being built by this thread (or by a thread that waits for
+            // this thread), so we're in the catch-22 situation; add it to the deferred list so
+            // that we will force the rebuild of the TypeInfo if necessary
             addDeferredTypeInfo(this);
             return null;
             }
 
-        if (info == null || !isUpToDate(info))
+        if (info == null || info.isPlaceHolder() || !isUpToDate(info))
             {
             setTypeInfo(getConstantPool().infoPlaceholder());
             info = buildTypeInfo(errs);
@@ -1786,6 +1914,138 @@ public abstract class TypeConstant
         return info;
         }
 
+    /**
+     * Claim the building of this type's TypeInfo for the current thread. If a different thread
+     * owns the building, wait for that thread to release it, unless that thread (directly or via
+     * other threads) waits for the current thread, since waiting would then never end.
+     *
+     * @return {@link Claim#CLAIMED} if the current thread has become the owner, and must
+     *         eventually call {@link #releaseTypeInfo()}; {@link Claim#WAITED} if a different
+     *         thread has been waited for; {@link Claim#RECURSIVE} if the building is already owned by this thread
+     *         or by a thread that waits for this thread
+     */
+    private Claim claimTypeInfo()
+        {
+        Thread threadThis = Thread.currentThread();
+        Thread threadOwner;
+        do
+            {
+            if (s_threadBuilder.compareAndSet(this, null, threadThis))
+                {
+                return Claim.CLAIMED;
+                }
+            threadOwner = m_threadBuilder;
+            }
+        while (threadOwner == null);
+
+        if (threadOwner == threadThis)
+            {
+            return Claim.RECURSIVE;
+            }
+
+        synchronized (s_mapWaiting)
+            {
+            // follow the chain of the waiting threads; since the chain is only extended while
+            // holding this monitor, no thread can join a cycle, but an owner that has just been
+            // released may make the chain look longer than it is, hence the limit
+            Thread thread = threadOwner;
+            for (int i = 0, c = s_mapWaiting.size(); thread != null; i++)
+                {
+                if (thread == threadThis || i > c)
+                    {
+                    return Claim.RECURSIVE;
+                    }
+
+                TypeConstant typeAwaited = s_mapWaiting.get(thread);
+                thread = typeAwaited == null ? null : typeAwaited.m_threadBuilder;
+                }
+            s_mapWaiting.put(threadThis, this);
+            }
+
+        try
+            {
+            synchronized (this)
+                {
+                while (m_threadBuilder == threadOwner)
+                    {
+                    wait();
+                    }
+                }
+            }
+        catch (InterruptedException e)
+            {
+            // build the TypeInfo on this thread instead
+            threadThis.interrupt();
+            return Claim.RECURSIVE;
+            }
+        finally
+            {
+            synchronized (s_mapWaiting)
+                {
+                s_mapWaiting.remove(threadThis);
+                }
+            }
+        return Claim.WAITED;
+        }
+
+    /**
+     * Release the building of this type's TypeInfo claimed by {@link #claimTypeInfo()}, and wake
+     * up the threads waiting for it.
+     */
+    private void releaseTypeInfo()
+        {
+        synchronized (this)
+            {
+            m_threadBuilder = null;
+            notifyAll();
+            }
+        }
+
+    /**
+     * Mark the TypeInfo that the current thread is about to publish for this type as tentative:
+     * until {@link #endTentative()} is called, the TypeInfo may still turn out to be erroneous and
+     * get invalidated, so it must not be used by any other thread.
+     *
+     * @return true iff the mark has been placed by this call, in which case the caller must
+     *         eventually call {@link #endTentative()}
+     */
+    private boolean beginTentative()
+        {
+        if (s_threadTentative.compareAndSet(this, null, Thread.currentThread()))
+            {
+            m_cTentative++;
+            return true;
+            }
+        return false;
+        }
+
+    /**
+     * Remove the mark placed by {@link #beginTentative()}.
+     */
+    private void endTentative()
+        {
+        m_cTentative++;
+        m_threadTentative = null;
+        }
+
+    /**
+     * Obtain the TypeInfo associated with this type if it is complete and up-to-date, and is not
+     * tentative for a different thread (see {@link #beginTentative()}).
+     *
+     * @return the complete TypeInfo, or null
+     */
+    private TypeInfo getCompleteTypeInfo()
+        {
+        int      cTentative = m_cTentative;
+        TypeInfo info       = getTypeInfo();
+        return isComplete(info) && isUpToDate(info) &&
+                ((cTentative & 1) == 0
+                    ? cTentative == m_cTentative
+                    : m_threadTentative == Thread.currentThread())
+                ? info
+                : null;
+        }
+
     /**
      * Obtain the TypeInfo associated with this type.
      *
@@ -1941,7 +2201,7 @@ public abstract class TypeConstant
     /**
      * Actual buildTypeInfo implementation.
      */
-    private synchronized TypeInfo buildTypeInfoImpl(ErrorListener errs)
+    private TypeInfo buildTypeInfoImpl(ErrorListener errs)
         {
         // the raw type-info has to be built as either ":private" or ":struct", so delegate the
         // building for ":public" to ":private", and then strip out the non-accessible members
@@ -6307,30 +6567,49 @@ public abstract class TypeConstant
      */
     public boolean consumesFormalType(String sTypeName, Access access)
         {
-        Map<String, Usage> mapUsage = ensureConsumesMap();
+        return ensureUsage(ensureConsumesMap(), sTypeName,
+                () -> checkConsumption(sTypeName, access, Collections.EMPTY_LIST));
+        }
 
-        // WARNING: thread-unsafe
+    /**
+     * Obtain the cached usage of the specified formal type, calculating it if necessary.
+     *
+     * @param mapUsage   the usage cache ("consumes" or "produces")
+     * @param sTypeName  the formal type name
+     * @param supplier   the usage calculation
+     *
+     * @return true iff the usage is {@link Usage#YES}
+     */
+    private boolean ensureUsage(Map<String, Usage> mapUsage, String sTypeName, Supplier<Usage> supplier)
+        {
         Usage usage = mapUsage.get(sTypeName);
         if (usage == null)
             {
-            mapUsage.put(sTypeName, Usage.IN_PROGRESS);
+            // the calculations in progress are tracked per thread, so that a concurrent calculation
+            // of the same usage is not mistaken for a recursion
+            Map<Map<String, Usage>, Set<String>> mapInProgress = s_tloUsageInProgress.get();
+            Set<String> setInProgress = mapInProgress.computeIfAbsent(mapUsage, m -> new HashSet<>());
+            if (!setInProgress.add(sTypeName))
+                {
+                // we are in recursion; the answer is "no"
+                return false;
+                }
+
             try
                 {
-                usage = checkConsumption(sTypeName, access, Collections.EMPTY_LIST);
+                usage = supplier.get();
                 }
-            catch (RuntimeException | Error e)
+            finally
                 {
-                mapUsage.remove(sTypeName);
-                throw e;
+                setInProgress.remove(sTypeName);
+                if (setInProgress.isEmpty())
+                    {
+                    mapInProgress.remove(mapUsage);
+                    }
                 }
 
             mapUsage.put(sTypeName, usage);
             }
-        else if (usage == Usage.IN_PROGRESS)
-            {
-            // we are in recursion; the answer is "no"
-            mapUsage.put(sTypeName, usage = Usage.NO);
-            }
 
         return usage == Usage.YES;
         }
@@ -6361,32 +6640,8 @@ public abstract class TypeConstant
     */
     public boolean producesFormalType(String sTypeName, Access access)
         {
-        Map<String, Usage> mapUsage = ensureProducesMap();
-
-        // WARNING: thread-unsafe
-        Usage usage = mapUsage.get(sTypeName);
-        if (usage == null)
-            {
-            mapUsage.put(sTypeName, Usage.IN_PROGRESS);
-            try
-                {
-                usage = checkProduction(sTypeName, access, Collections.EMPTY_LIST);
-                }
-            catch (RuntimeException | Error e)
-                {
-                mapUsage.remove(sTypeName);
-                throw e;
-                }
-
-            mapUsage.put(sTypeName, usage);
-            }
-        else if (usage == Usage.IN_PROGRESS)
-            {
-            // we are in recursion; the answer is "no"
-            mapUsage.put(sTypeName, usage = Usage.NO);
-            }
-
-        return usage == Usage.YES;
+        return ensureUsage(ensureProducesMap(), sTypeName,
+                () -> checkProduction(sTypeName, access, Collections.EMPTY_LIST));
         }
 
     /**
@@ -7136,6 +7391,18 @@ public abstract class TypeConstant
         return !containsFormalType(true);
         }
 
+    @Override
+    protected Constant adoptedBy(ConstantPool pool)
+        {
+        TypeConstant that = (TypeConstant) super.adoptedBy(pool);
+
+        // the TypeInfo that this type may be building is not being built for the clone
+        that.m_threadBuilder   = null;
+        that.m_threadTentative = null;
+        that.m_cTentative      = 0;
+        return that;
+        }
+
     @Override
     protected abstract int compareDetails(Constant that);
 
@@ -7233,7 +7500,8 @@ public abstract class TypeConstant
         if (mapRelations == null)
             {
             s_tloInProgress.compareAndSet(this, null, new TransientThreadLocal<>());
-            mapRelations = m_mapRelations = new ConcurrentHashMap<>();
+            s_mapRelations.compareAndSet(this, null, new ConcurrentHashMap<>());
+            mapRelations = m_mapRelations;
             }
         return mapRelations;
         }
@@ -7243,7 +7511,8 @@ public abstract class TypeConstant
         Map<String, Usage> mapConsumes = m_mapConsumes;
         if (mapConsumes == null)
             {
-            mapConsumes = m_mapConsumes = new HashMap<>();
+            s_mapConsumes.compareAndSet(this, null, new ConcurrentHashMap<>());
+            mapConsumes = m_mapConsumes;
             }
         return mapConsumes;
         }
@@ -7253,7 +7522,8 @@ public abstract class TypeConstant
         Map<String, Usage> mapProduces = m_mapProduces;
         if (mapProduces == null)
             {
-            mapProduces = m_mapProduces = new HashMap<>();
+            s_mapProduces.compareAndSet(this, null, new ConcurrentHashMap<>());
+            mapProduces = m_mapProduces;
             }
         return mapProduces;
         }
@@ -7373,6 +7643,19 @@ public abstract class TypeConstant
         return atype;
         }
 
+    /**
+     * Create an updater for a field of a generic type.
+     *
+     * @param clz     the raw class of the field
+     * @param sField  the field name
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> AtomicReferenceFieldUpdater<TypeConstant, V> newUpdater(Class<?> clz, String sField)
+        {
+        return (AtomicReferenceFieldUpdater<TypeConstant, V>)
+                AtomicReferenceFieldUpdater.newUpdater(TypeConstant.class, clz, sField);
+        }
+
 
     // ----- inner class: Origin -------------------------------------------------------------------
 
@@ -7435,7 +7718,7 @@ public abstract class TypeConstant
      */
     public enum Usage
         {
-        IN_PROGRESS, YES, NO;
+        YES, NO;
 
         public static Usage valueOf(boolean f)
             {
@@ -7451,6 +7734,14 @@ public abstract class TypeConstant
         CLASS, IFACE, FORMAL, OTHER
         }
 
+    /**
+     * The outcomes of an attempt to claim the building of a TypeInfo.
+     */
+    private enum Claim
+        {
+        CLAIMED, WAITED, RECURSIVE
+        }
+
 
     // ----- fields --------------------------------------------------------------------------------
 
@@ -7472,6 +7763,42 @@ public abstract class TypeConstant
             AtomicReferenceFieldUpdater.newUpdater(TypeConstant.class, TypeInfo.class, "m_typeinfo");
     private transient final AtomicInteger m_cRecursiveDepth = new AtomicInteger();
 
+    /**
+     * The thread that is building the TypeInfo, if any.
+     */
+    private transient volatile Thread m_threadBuilder;
+    private static final AtomicReferenceFieldUpdater<TypeConstant, Thread> s_threadBuilder =
+            AtomicReferenceFieldUpdater.newUpdater(TypeConstant.class, Thread.class, "m_threadBuilder");
+
+    /**
+     * The thread that may still invalidate the TypeInfo that it has published, if any, and the
+     * number of times that it has been set or cleared (odd while it is set); only modified by that
+     * thread.
+     */
+    private transient volatile Thread m_threadTentative;
+    private static final AtomicReferenceFieldUpdater<TypeConstant, Thread> s_threadTentative =
+            AtomicReferenceFieldUpdater.newUpdater(TypeConstant.class, Thread.class, "m_threadTentative");
+    private transient volatile int m_cTentative;
+
+    /**
+     * The types whose TypeInfo building is owned by the current thread; present only while the
+     * thread is in {@link #ensureTypeInfoClaimed(ErrorListener, boolean)}.
+     */
+    private static final ThreadLocal<List<TypeConstant>> s_tloClaimed = new ThreadLocal<>();
+
+    /**
+     * The types whose TypeInfo building is owned by a different thread, but is being done by the
+     * current thread, since the owner waits for it.
+     */
+    private static final ThreadLocal<Set<TypeConstant>> s_tloBorrowed =
+            ThreadLocal.withInitial(HashSet::new);
+
+    /**
+     * The types whose TypeInfo the threads are waiting for, keyed by the waiting threads; guarded
+     * by its own monitor.
+     */
+    private static final Map<Thread, TypeConstant> s_mapWaiting = new HashMap<>();
+
     /**
      * The last time that we checked the invalidations from the ConstantPool, we cached the number
      * of invalidations that had been done up to that point in time. This is that number. This gives
@@ -7487,23 +7814,36 @@ public abstract class TypeConstant
      * A cache of "isA" responses.
      */
     private transient volatile Map<TypeConstant, Relation> m_mapRelations;
+    private static final AtomicReferenceFieldUpdater<TypeConstant, Map<TypeConstant, Relation>> s_mapRelations =
+            newUpdater(Map.class, "m_mapRelations");
 
     /**
      * The set of "isA() in progress" types.
      */
     private transient volatile TransientThreadLocal<Set<TypeConstant>> m_tloInProgress;
-    private static final AtomicReferenceFieldUpdater<TypeConstant, TransientThreadLocal> s_tloInProgress =
-            AtomicReferenceFieldUpdater.newUpdater(TypeConstant.class, TransientThreadLocal.class, "m_tloInProgress");
+    private static final AtomicReferenceFieldUpdater<TypeConstant, TransientThreadLocal<Set<TypeConstant>>> s_tloInProgress =
+            newUpdater(TransientThreadLocal.class, "m_tloInProgress");
 
     /**
      * A cache of "consumes" responses.
      */
-    private transient Map<String, Usage> m_mapConsumes;
+    private transient volatile Map<String, Usage> m_mapConsumes;
+    private static final AtomicReferenceFieldUpdater<TypeConstant, Map<String, Usage>> s_mapConsumes =
+            newUpdater(Map.class, "m_mapConsumes");
 
     /**
      * A cache of "produces" responses.
      */
-    private transient Map<String, Usage> m_mapProduces;
+    private transient volatile Map<String, Usage> m_mapProduces;
+    private static final AtomicReferenceFieldUpdater<TypeConstant, Map<String, Usage>> s_mapProduces =
+            newUpdater(Map.class, "m_mapProduces");
+
+    /**
+     * The "consumes" and "produces" calculations in progress on the current thread, keyed by the
+     * usage caches.
+     */
+    private static final ThreadLocal<Map<Map<String, Usage>, Set<String>>> s_tloUsageInProgress =
+            ThreadLocal.withInitial(IdentityHashMap::new);
 
     /**
      * Cached TypeHandle.
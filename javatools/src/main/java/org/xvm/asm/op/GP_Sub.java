@@ -52,4 +52,16 @@ public class GP_Sub
         {
         return hTarget.getOpSupport().invokeSub(frame, hTarget, hArg, m_nRetValue);
         }
+
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected long completeInt64(long l1, long l2)
+        {
+        return l1 - l2;
+        }
     }
@@ -57,6 +57,18 @@ public class IP_And
         return hTarget.getOpSupport().invokeAnd(frame, hTarget, hValue, m_nTarget);
         }
 
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected long completeInt64(long lTarget, long lValue)
+        {
+        return lTarget & lValue;
+        }
+
     @Override
     protected int completeWithVar(Frame frame, RefHandle hTarget, ObjectHandle hValue)
         {
@@ -62,6 +62,18 @@ public class IP_Dec
         return hTarget.getOpSupport().invokePrev(frame, hTarget, m_nTarget);
         }
 
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected int completeWithInt64(Frame frame, long lValue)
+        {
+        return frame.assignInt64(m_nTarget, lValue - 1);
+        }
+
     @Override
     protected int completeWithVar(Frame frame, RefHandle hTarget)
         {
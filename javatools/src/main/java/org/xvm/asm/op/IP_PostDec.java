@@ -73,6 +73,21 @@ public class IP_PostDec
             }
         }
 
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected int completeWithInt64(Frame frame, long lValue)
+        {
+        int iResult = frame.assignInt64(m_nTarget, lValue - 1);
+        return iResult == R_NEXT
+                ? frame.assignInt64(m_nRetValue, lValue)
+                : iResult;
+        }
+
     @Override
     protected int completeWithVar(Frame frame, RefHandle hTarget)
         {
@@ -77,4 +77,16 @@ public class IsEq
         {
         return type.callEquals(frame, hValue1, hValue2, m_nRetValue);
         }
+
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected boolean testInt64(long l1, long l2)
+        {
+        return l1 == l2;
+        }
     }
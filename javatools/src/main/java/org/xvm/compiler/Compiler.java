@@ -1,6 +1,8 @@
 package org.xvm.compiler;
 
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.ErrorList;
 import org.xvm.asm.ErrorListener;
@@ -109,6 +111,16 @@ public class Compiler
         return m_errs.isAbortDesired();
         }
 
+    /**
+     * Allow the code generation for the classes of the module to be performed concurrently.
+     *
+     * @param pool  the pool to generate the code on, or null to generate it on the calling thread
+     */
+    public void setForkJoinPool(ForkJoinPool pool)
+        {
+        m_poolFork = pool;
+        }
+
 
     // ----- public API ----------------------------------------------------------------------------
 
@@ -313,6 +325,7 @@ public class Compiler
                 // first time through: resolve starting from the module, and recurse down
                 setStage(Stage.Emitting);
                 m_mgr = new StageMgr(m_stmtModule, Stage.Emitted, m_errs);
+                m_mgr.setForkJoinPool(m_poolFork);
                 }
 
             if (fLastAttempt)
@@ -443,6 +456,11 @@ public class Compiler
      */
     private StageMgr m_mgr;
 
+    /**
+     * The pool to generate the code on, or null to generate it on the calling thread.
+     */
+    private ForkJoinPool m_poolFork;
+
 
     // ----- inner class: Stage enumeration --------------------------------------------------------
 
@@ -5,10 +5,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
 import java.util.function.Predicate;
 
 import org.xvm.asm.Component;
+import org.xvm.asm.ConstantPool;
 import org.xvm.asm.ErrorListener;
+import org.xvm.asm.ModuleStructure;
+import org.xvm.asm.PackageStructure;
 
 import org.xvm.asm.constants.IdentityConstant;
 
@@ -61,6 +69,19 @@ public class StageMgr
         m_errs        = errs == null ? ErrorListener.BLACKHOLE : errs;
         }
 
+    /**
+     * Construct a Stage Manager for a subtree forked by the specified Stage Manager.
+     *
+     * @param mgrParent  the Stage Manager that forks the subtree
+     */
+    private StageMgr(StageMgr mgrParent)
+        {
+        m_target       = mgrParent.m_target;
+        m_errs         = mgrParent.m_errs;
+        m_fLastAttempt = mgrParent.m_fLastAttempt;
+        m_poolFork     = mgrParent.m_poolFork;
+        }
+
     /**
      * @return true iff the stage manager has completed the processing of the nodes to achieve the
      *         target stage
@@ -161,6 +182,18 @@ public class StageMgr
         m_fLastAttempt = true;
         }
 
+    /**
+     * Allow the class-level subtrees of modules and packages to be processed concurrently when
+     * emitting the code. Each subtree is processed by its own Stage Manager, and the nodes that
+     * requested a revisit are collected back by this manager.
+     *
+     * @param pool  the pool to process the subtrees on, or null to process them sequentially
+     */
+    public void setForkJoinPool(ForkJoinPool pool)
+        {
+        m_poolFork = pool;
+        }
+
     /**
      * @return this Stage Manager's error list
      */
@@ -364,14 +397,32 @@ public class StageMgr
             // mark this as having visited its children
             m_nFlags = (byte) (m_nFlags | VISITED_KIDS);
 
+            boolean       fFork     = m_poolFork != null && isForkPoint(node);
+            List<AstNode> listForks = null;
             while (iter.hasNext())
                 {
                 AstNode nodeChild = iter.next();
                 if (exclude == null || !exclude.test(nodeChild))
                     {
-                    fDone &= processInternal(nodeChild);
+                    if (fFork && nodeChild instanceof TypeCompositionStatement)
+                        {
+                        if (listForks == null)
+                            {
+                            listForks = new ArrayList<>();
+                            }
+                        listForks.add(nodeChild);
+                        }
+                    else
+                        {
+                        fDone &= processInternal(nodeChild);
+                        }
                     }
                 }
+
+            if (listForks != null)
+                {
+                fDone &= processForks(listForks);
+                }
             }
         finally
             {
@@ -380,6 +431,90 @@ public class StageMgr
         return fDone;
         }
 
+    /**
+     * @return true iff the children of the specified node are the class-level subtrees that could
+     *         be processed concurrently
+     */
+    private boolean isForkPoint(AstNode node)
+        {
+        if (m_target == Stage.Emitted && node instanceof StatementBlock
+                && node.getParent() instanceof TypeCompositionStatement stmt)
+            {
+            Component component = stmt.getComponent();
+            return component instanceof ModuleStructure
+                || component instanceof PackageStructure pkg && !pkg.isModuleImport();
+            }
+        return false;
+        }
+
+    /**
+     * Process the specified nodes concurrently, each by its own Stage Manager.
+     *
+     * @param listNodes  the nodes to process
+     *
+     * @return true iff the processing of all the nodes completed without an explicit indication of
+     *         incompleteness
+     */
+    private boolean processForks(List<AstNode> listNodes)
+        {
+        ConstantPool            pool      = ConstantPool.getCurrentPool();
+        int                     cNodes    = listNodes.size();
+        List<StageMgr>          listMgrs  = new ArrayList<>(cNodes);
+        List<Callable<Boolean>> listTasks = new ArrayList<>(cNodes);
+        for (AstNode node : listNodes)
+            {
+            StageMgr mgr = new StageMgr(this);
+            listMgrs.add(mgr);
+            listTasks.add(() ->
+                {
+                try (var ignore = ConstantPool.withPool(pool))
+                    {
+                    return mgr.processInternal(node);
+                    }
+                });
+            }
+
+        boolean fDone = true;
+        try
+            {
+            List<Future<Boolean>> listResults = m_poolFork.invokeAll(listTasks);
+            for (int i = 0; i < cNodes; i++)
+                {
+                fDone &= listResults.get(i).get();
+
+                // collect the nodes to revisit in the same order as the sequential processing would
+                List<AstNode> listRevisit = listMgrs.get(i).m_listRevisit;
+                if (listRevisit != null)
+                    {
+                    if (m_listRevisit == null)
+                        {
+                        m_listRevisit = new ArrayList<>();
+                        }
+                    m_listRevisit.addAll(listRevisit);
+                    }
+                }
+            }
+        catch (ExecutionException e)
+            {
+            Throwable eCause = e.getCause();
+            if (eCause instanceof RuntimeException eRuntime)
+                {
+                throw eRuntime;
+                }
+            if (eCause instanceof Error eError)
+                {
+                throw eError;
+                }
+            throw new IllegalStateException(eCause);
+            }
+        catch (InterruptedException e)
+            {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+            }
+        return fDone;
+        }
+
     /**
      * @return true once processChildren() has been invoked
      */
@@ -507,6 +642,11 @@ public class StageMgr
      */
     private ChildIterator m_iterKids;
 
+    /**
+     * The pool to process the class-level subtrees on, or null to process them sequentially.
+     */
+    private ForkJoinPool m_poolFork;
+
     private static final int QUEUED_SELF  = 0x1;
     private static final int VISITED_KIDS = 0x2;
     private static final int DEFER_KIDS   = 0x4;
@@ -378,6 +378,19 @@ public abstract class ClassTemplate
         {
         ObjectHandle hStruct = createStruct(frame, clazz);
 
+        ContainerHeap heap = frame.f_context.f_container.getHeap();
+        if (heap != null && hStruct instanceof GenericHandle hGeneric)
+            {
+            // the struct and all other views of the object share the field array, so the array's
+            // lifetime is the object's lifetime
+            ObjectHandle[] ahField = hGeneric.getFields();
+            if (ahField != null && !heap.register(ahField, ahField.length))
+                {
+                return frame.raiseException(xException.outOfMemory(frame,
+                        "Container memory limit exceeded: " + heap.getHardLimit()));
+                }
+            }
+
         if (hParent != null)
             {
             // strictly speaking a static child doesn't need to hold the parent's ref,
@@ -63,9 +63,14 @@ public abstract class Container
         f_heap     = new ConstHeap(this);
         f_idModule = idModule;
 
-        // don't register the native container
-        if (containerParent != null)
+        if (containerParent == null)
             {
+            // the native container uses the root queue and is not registered
+            f_queueSchedule = runtime.getRootQueue();
+            }
+        else
+            {
+            f_queueSchedule = runtime.createQueue(idModule.getName(), containerParent.f_queueSchedule);
             f_runtime.registerContainer(this);
             }
         }
@@ -147,14 +152,11 @@ public abstract class Container
      */
     public void schedule(ServiceContext service)
         {
-        // TODO: add a container level fair scheduling queue and submit the service there. The
-        // container should then follow a similar pattern and push processing of its fair scheduling
-        // queue to its parent container which eventually pushes to the runtime. Thus, there is a
-        // hierarchy of fairness. For now though we just skip over all of this and push the
-        // processing directly to the top level runtime.
+        // the service is submitted to the container's fair share queue, which pushes itself to the
+        // parent container's queue and eventually to the runtime, forming a hierarchy of fairness
 
         f_pendingWorkCount.incrementAndGet();
-        f_runtime.submitService(() ->
+        f_runtime.submitService(f_queueSchedule, () ->
             {
             try
                 {
@@ -173,6 +175,65 @@ public abstract class Container
             });
         }
 
+    /**
+     * @return the relative scheduling weight of this container among its siblings
+     */
+    public int getSchedulingWeight()
+        {
+        return f_queueSchedule.getWeight();
+        }
+
+    /**
+     * Specify the relative scheduling weight of this container among its siblings. A container
+     * with the weight N is allowed to run up to N service quanta before yielding to its siblings.
+     *
+     * @param nWeight  a positive weight
+     */
+    public void setSchedulingWeight(int nWeight)
+        {
+        f_queueSchedule.setWeight(nWeight);
+        }
+
+    /**
+     * @return the maximum number of services of this container (including nested containers) that
+     *         could be executing concurrently; zero means "unlimited"
+     */
+    public int getSchedulingQuota()
+        {
+        return f_queueSchedule.getQuota();
+        }
+
+    /**
+     * Specify the maximum number of services of this container (including nested containers) that
+     * could be executing concurrently.
+     *
+     * @param cQuota  the quota; zero means "unlimited"
+     */
+    public void setSchedulingQuota(int cQuota)
+        {
+        f_queueSchedule.setQuota(cQuota);
+        }
+
+    /**
+     * @return the heap that accounts for the memory allocated by this container's code or null if
+     *         the memory is not tracked
+     */
+    public ContainerHeap getHeap()
+        {
+        return m_heap;
+        }
+
+    /**
+     * Specify the heap that accounts for the memory allocated by this container's code. Only the
+     * objects allocated after this call are accounted for.
+     *
+     * @param heap  the heap or null to stop tracking the memory
+     */
+    public void setHeap(ContainerHeap heap)
+        {
+        m_heap = heap;
+        }
+
     /**
      * Terminate the specified ServiceContext.
      *
@@ -193,20 +254,76 @@ public abstract class Container
     public <R> CompletableFuture<R> scheduleIO(Callable<R> task)
         {
         CompletableFuture<R> cf = new CompletableFuture<>();
+        long ldtSubmit = System.nanoTime();
+
+        f_cIOPending.incrementAndGet();
         f_runtime.submitIO(() ->
             {
+            long ldtStart = System.nanoTime();
             try
                 {
-                cf.complete(task.call());
+                R result = task.call();
+                recordIO(ldtSubmit, ldtStart);
+                cf.complete(result);
                 }
             catch (Throwable e)
                 {
+                recordIO(ldtSubmit, ldtStart);
                 cf.completeExceptionally(e);
                 }
             });
         return cf;
         }
 
+    /**
+     * @return the number of IO tasks that have been scheduled, but not yet completed
+     */
+    public long getIOPendingCount()
+        {
+        return f_cIOPending.get();
+        }
+
+    /**
+     * @return the number of completed IO tasks
+     */
+    public long getIOCompletedCount()
+        {
+        return f_cIOCompleted.get();
+        }
+
+    /**
+     * @return a human-readable summary of the IO activity for this container
+     */
+    public String reportIO()
+        {
+        long cCompleted = f_cIOCompleted.get();
+        long cDivisor   = Math.max(cCompleted, 1);
+
+        return this
+            + ": pending="    + f_cIOPending.get()
+            + ", completed="  + cCompleted
+            + ", avgWaitUs="  + f_cIOWaitNanos.get()  / cDivisor / 1000
+            + ", avgTotalUs=" + f_cIOTotalNanos.get() / cDivisor / 1000
+            + ", maxTotalUs=" + f_cIOMaxNanos.get()   / 1000;
+        }
+
+    /**
+     * Update the IO statistics upon a completion of an IO task.
+     *
+     * @param ldtSubmit  the time (in nanos) the task was submitted
+     * @param ldtStart   the time (in nanos) the task was started by the IO executor
+     */
+    private void recordIO(long ldtSubmit, long ldtStart)
+        {
+        long cTotal = System.nanoTime() - ldtSubmit;
+
+        f_cIOPending   .decrementAndGet();
+        f_cIOCompleted .incrementAndGet();
+        f_cIOWaitNanos .addAndGet(ldtStart - ldtSubmit);
+        f_cIOTotalNanos.addAndGet(cTotal);
+        f_cIOMaxNanos  .accumulateAndGet(cTotal, Math::max);
+        }
+
     /**
      * Find a module method to call.
      *
@@ -746,6 +863,16 @@ public abstract class Container
      */
     protected final ModuleConstant f_idModule;
 
+    /**
+     * The fair share scheduling queue for this container's services.
+     */
+    protected final FairShareQueue f_queueSchedule;
+
+    /**
+     * The memory accounting heap (optional).
+     */
+    protected volatile ContainerHeap m_heap;
+
     /**
      * The service context for the container itself.
      */
@@ -763,6 +890,31 @@ public abstract class Container
      */
     private final AtomicLong f_pendingWorkCount = new AtomicLong();
 
+    /**
+     * The number of IO tasks that have been scheduled, but not yet completed (the IO queue depth).
+     */
+    private final AtomicLong f_cIOPending = new AtomicLong();
+
+    /**
+     * The number of completed IO tasks.
+     */
+    private final AtomicLong f_cIOCompleted = new AtomicLong();
+
+    /**
+     * The total time (in nanos) the completed IO tasks spent in the IO queue.
+     */
+    private final AtomicLong f_cIOWaitNanos = new AtomicLong();
+
+    /**
+     * The total time (in nanos) between the submission and the completion of the IO tasks.
+     */
+    private final AtomicLong f_cIOTotalNanos = new AtomicLong();
+
+    /**
+     * The longest time (in nanos) between the submission and the completion of an IO task.
+     */
+    private final AtomicLong f_cIOMaxNanos = new AtomicLong();
+
     /**
      * Set of services that were started by this container (stored as a Map with no values).
      */
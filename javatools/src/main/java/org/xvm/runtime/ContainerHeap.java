@@ -0,0 +1,434 @@
+package org.xvm.runtime;
+
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.xvm.runtime.gc.GcSpace;
+import org.xvm.runtime.gc.LongArrayObjectManager;
+import org.xvm.runtime.gc.MarkAndSweepGcSpace;
+
+import org.xvm.util.LongMuterator;
+import org.xvm.util.ShallowSizeOf;
+
+
+/**
+ * The memory accounting for a Container. Every object allocated by the container's code is
+ * registered with the container's {@link GcSpace}, which allocates a record of the same shape as
+ * the object's state. The object itself still lives on the Java heap; the space's roots are the
+ * records of the objects that are still reachable from the Java side, so once the Java collector
+ * clears an object, the next collection of the space reclaims the corresponding record.
+ * <p>
+ * The heap has two limits: crossing the "soft" limit causes the space to be collected as long as
+ * there are any records to reclaim; an allocation that would cross the "hard" limit fails, which
+ * is reported to the container's code as an OutOfMemory exception. The allocating thread never
+ * waits for the Java collector; instead, a failed allocation asks the Java collector to run on the
+ * specified executor, and the subsequent allocations see the memory it has reclaimed.
+ * <p>
+ * All the methods are thread safe; the objects could be allocated by any service of the
+ * container.
+ */
+public class ContainerHeap
+    {
+    /**
+     * Construct a ContainerHeap.
+     *
+     * @param cbLimitSoft  the byte size to try to stay within
+     * @param cbLimitHard  the maximum allowable byte size
+     * @param executor     the executor to reclaim the memory on when the hard limit is reached
+     */
+    public ContainerHeap(long cbLimitSoft, long cbLimitHard, Executor executor)
+        {
+        if (cbLimitSoft <= 0 || cbLimitHard < cbLimitSoft)
+            {
+            throw new IllegalArgumentException("soft=" + cbLimitSoft + ", hard=" + cbLimitHard);
+            }
+
+        f_cbLimitSoft = cbLimitSoft;
+        f_cbLimitHard = cbLimitHard;
+        f_executor    = executor;
+        f_space       = new MarkAndSweepGcSpace<>(LongArrayObjectManager.INSTANCE, pWeak -> {});
+        f_space.addRoot(this::liveAddresses);
+        }
+
+
+    // ----- accessors -----------------------------------------------------------------------------
+
+    /**
+     * @return the soft limit in bytes
+     */
+    public long getSoftLimit()
+        {
+        return f_cbLimitSoft;
+        }
+
+    /**
+     * @return the hard limit in bytes
+     */
+    public long getHardLimit()
+        {
+        return f_cbLimitHard;
+        }
+
+    /**
+     * @return the number of bytes held by the objects that are still reachable
+     */
+    public synchronized long getAllocatedBytes()
+        {
+        expunge();
+        return m_cbLive;
+        }
+
+    /**
+     * @return the number of bytes held by the space, including the records of the objects that
+     *         have not been reclaimed yet
+     */
+    public synchronized long getReservedBytes()
+        {
+        return f_space.getByteCount();
+        }
+
+    /**
+     * @return the number of the space collections
+     */
+    public synchronized long getCollectionCount()
+        {
+        return m_cCollections;
+        }
+
+    /**
+     * Specify the action to take when an allocation fails due to the hard limit. The action is
+     * executed on the allocating thread while holding the heap's monitor, so it must not block.
+     *
+     * @param listener  the action or null
+     */
+    public void setLimitListener(Runnable listener)
+        {
+        m_listener = listener;
+        }
+
+
+    // ----- operations ----------------------------------------------------------------------------
+
+    /**
+     * Account for a newly allocated object.
+     *
+     * @param o        the object
+     * @param cFields  the number of fields the object holds
+     *
+     * @return false iff the allocation would exceed the hard limit; in that case the object is
+     *         not registered
+     */
+    public synchronized boolean register(Object o, int cFields)
+        {
+        cFields = Math.min(cFields, MAX_FIELDS);
+
+        long cb = ShallowSizeOf.arrayOf(long.class, cFields + 1);
+        if (f_space.getByteCount() + cb > f_cbLimitSoft)
+            {
+            collect();
+
+            if (f_space.getByteCount() + cb > f_cbLimitHard)
+                {
+                // fail fast; the memory held by the objects that are no longer reachable is
+                // reclaimed in the background
+                requestReclaim();
+
+                if (!m_fExceeded)
+                    {
+                    m_fExceeded = true;
+
+                    Runnable listener = m_listener;
+                    if (listener != null)
+                        {
+                        listener.run();
+                        }
+                    }
+                return false;
+                }
+            }
+
+        if (m_fExceeded && f_space.getByteCount() + cb <= f_cbLimitSoft)
+            {
+            m_fExceeded = false;
+            }
+
+        long  pRecord = f_space.allocate(cFields);
+        Entry entry   = new Entry(o, pRecord, cb, f_queue);
+        f_setLive.add(entry);
+        m_cbLive         += cb;
+        m_cbSinceReclaim += cb;
+        return true;
+        }
+
+    /**
+     * Reclaim the records of all the objects that have been collected by the Java collector.
+     */
+    public synchronized void gc()
+        {
+        expunge();
+        f_space.gc();
+        m_cCollections++;
+        }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * Collect the space if there is anything to reclaim.
+     */
+    private void collect()
+        {
+        if (expunge())
+            {
+            f_space.gc();
+            m_cCollections++;
+            }
+        }
+
+    /**
+     * Ask the Java collector to clear the unreachable objects on the executor thread, unless it
+     * has been asked recently.
+     */
+    private void requestReclaim()
+        {
+        if (m_fReclaimPending)
+            {
+            return;
+            }
+
+        // only ask the Java collector if enough has been allocated since the last time (so there
+        // is likely to be something to reclaim) or if it has not been asked for a while; this
+        // prevents hammering the Java collector when the container is simply over its limit.
+        // However, a failed attempt allows for one immediate retry, since the failure (reported
+        // as an OutOfMemory exception) is likely to release the memory held by the failed code
+        long    ldtNow = System.currentTimeMillis();
+        boolean fRetry = false;
+        if (m_cbSinceReclaim < f_cbLimitHard / 4 && ldtNow - m_ldtLastReclaim < RECLAIM_INTERVAL)
+            {
+            if (!m_fRetry)
+                {
+                return;
+                }
+            fRetry = true;
+            }
+        m_ldtLastReclaim  = ldtNow;
+        m_cbSinceReclaim  = 0;
+        m_fRetry          = false;
+        m_fReclaimPending = true;
+
+        boolean fRetryFinal = fRetry;
+        try
+            {
+            f_executor.execute(() -> reclaim(fRetryFinal));
+            }
+        catch (RejectedExecutionException e)
+            {
+            m_fReclaimPending = false;
+            }
+        }
+
+    /**
+     * Run the Java collector and wait for a short while for the cleared objects to be reported,
+     * collecting the space as they are. This method is called on the executor thread.
+     *
+     * @param fRetry  true iff this is a retry of a failed attempt
+     */
+    private void reclaim(boolean fRetry)
+        {
+        System.gc();
+        try
+            {
+            for (long cSleep = 1; cSleep <= 64; cSleep <<= 1)
+                {
+                synchronized (this)
+                    {
+                    collect();
+                    if (f_space.getByteCount() <= f_cbLimitSoft)
+                        {
+                        return;
+                        }
+                    }
+                Thread.sleep(cSleep);
+                }
+
+            synchronized (this)
+                {
+                collect();
+                m_fRetry = !fRetry && f_space.getByteCount() > f_cbLimitSoft;
+                }
+            }
+        catch (InterruptedException e)
+            {
+            Thread.currentThread().interrupt();
+            }
+        finally
+            {
+            synchronized (this)
+                {
+                m_fReclaimPending = false;
+                }
+            }
+        }
+
+    /**
+     * Remove the entries for the objects that have been collected by the Java collector.
+     *
+     * @return true iff any entries have been removed
+     */
+    private boolean expunge()
+        {
+        boolean      fRemoved = false;
+        Reference<?> ref;
+        while ((ref = f_queue.poll()) != null)
+            {
+            Entry entry = (Entry) ref;
+            if (f_setLive.remove(entry))
+                {
+                m_cbLive -= entry.f_cb;
+                fRemoved  = true;
+                }
+            }
+        return fRemoved;
+        }
+
+    /**
+     * @return an iterator over the addresses of the records for all the reachable objects
+     */
+    private LongMuterator liveAddresses()
+        {
+        Iterator<Entry> iter = f_setLive.iterator();
+        return new LongMuterator()
+            {
+            @Override
+            public boolean hasNext()
+                {
+                return iter.hasNext();
+                }
+
+            @Override
+            public long nextLong()
+                {
+                return iter.next().f_pRecord;
+                }
+
+            @Override
+            public void set(long value)
+                {
+                throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+
+    // ----- inner class: Entry --------------------------------------------------------------------
+
+    /**
+     * A weak reference to an object that keeps the address of the object's record.
+     */
+    private static class Entry
+            extends WeakReference<Object>
+        {
+        Entry(Object o, long pRecord, long cb, ReferenceQueue<Object> queue)
+            {
+            super(o, queue);
+
+            f_pRecord = pRecord;
+            f_cb      = cb;
+            }
+
+        final long f_pRecord;
+        final long f_cb;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The maximum number of fields a record could hold.
+     */
+    private static final int MAX_FIELDS = 1023;
+
+    /**
+     * The minimum interval (in milliseconds) between the requests to the Java collector.
+     */
+    private static final long RECLAIM_INTERVAL = 1000;
+
+    /**
+     * The soft limit.
+     */
+    private final long f_cbLimitSoft;
+
+    /**
+     * The hard limit.
+     */
+    private final long f_cbLimitHard;
+
+    /**
+     * The executor to reclaim the memory on.
+     */
+    private final Executor f_executor;
+
+    /**
+     * The space that holds the records.
+     */
+    private final GcSpace f_space;
+
+    /**
+     * The entries for the objects that have not been collected by the Java collector.
+     */
+    private final Set<Entry> f_setLive = new HashSet<>();
+
+    /**
+     * The queue of the entries for the collected objects.
+     */
+    private final ReferenceQueue<Object> f_queue = new ReferenceQueue<>();
+
+    /**
+     * The number of bytes held by the objects that are still reachable.
+     */
+    private long m_cbLive;
+
+    /**
+     * The number of the space collections.
+     */
+    private long m_cCollections;
+
+    /**
+     * The last time the Java collector has been asked to run.
+     */
+    private long m_ldtLastReclaim;
+
+    /**
+     * The number of bytes registered since the Java collector has been asked to run.
+     */
+    private long m_cbSinceReclaim;
+
+    /**
+     * True iff the last attempt to reclaim the memory has failed and could be retried.
+     */
+    private boolean m_fRetry;
+
+    /**
+     * True iff the memory is being reclaimed on the executor thread.
+     */
+    private boolean m_fReclaimPending;
+
+    /**
+     * True iff the hard limit has been exceeded (and the listener has been notified).
+     */
+    private boolean m_fExceeded;
+
+    /**
+     * The action to take when the hard limit is exceeded.
+     */
+    private volatile Runnable m_listener;
+    }
@@ -1867,7 +1867,7 @@ public class DebugConsole
             String  sVar = info == null ? "" : info.getName();
             if (!sVar.isEmpty())
                 {
-                addVar(0, sVar, sVar, frame.f_ahVar[i], listVars, mapExpand);
+                addVar(0, sVar, sVar, frame.getRegister(i), listVars, mapExpand);
                 }
             }
 
@@ -0,0 +1,361 @@
+package org.xvm.runtime;
+
+
+import java.util.ArrayDeque;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A node in the hierarchy of fair scheduling queues. Every Container owns a queue; the queue holds
+ * the pending tasks of the container's services as well as the queues of the nested containers
+ * that have pending work. A queue only appears in its parent's ready list while it has something
+ * to run, so the processing of the fair share hierarchy is pushed up from the nested containers
+ * to the main container and eventually to the runtime's {@link WorkStealingScheduler}.
+ * <p>
+ * Each entry in the ready list is served in a round-robin fashion; a child queue is allowed to
+ * run up to its "weight" number of tasks before it is moved to the tail of the parent's list. In
+ * addition, a child queue could have a "quota" - a limit on the number of the tasks taken from
+ * that queue (and any of its descendants) that may execute concurrently.
+ * <p>
+ * All state changes are done while holding the queue's monitor. The locks are always taken in the
+ * parent-to-child order by {@link #poll()}, while {@link #add} releases the child's lock before
+ * enlisting the child with its parent.
+ */
+public class FairShareQueue
+    {
+    /**
+     * Construct a FairShareQueue.
+     *
+     * @param sName      the queue name (used for debugging only)
+     * @param parent     the parent queue or null for the root queue
+     * @param scheduler  the scheduler that executes the tasks
+     */
+    public FairShareQueue(String sName, FairShareQueue parent, WorkStealingScheduler scheduler)
+        {
+        f_sName     = sName;
+        f_parent    = parent;
+        f_scheduler = scheduler;
+        }
+
+
+    // ----- accessors -----------------------------------------------------------------------------
+
+    /**
+     * @return the parent queue or null if this is the root queue
+     */
+    public FairShareQueue getParent()
+        {
+        return f_parent;
+        }
+
+    /**
+     * @return the relative weight of this queue among its siblings
+     */
+    public int getWeight()
+        {
+        return m_nWeight;
+        }
+
+    /**
+     * Specify the relative weight of this queue; a queue with the weight N is allowed to execute
+     * up to N tasks before yielding to its siblings.
+     *
+     * @param nWeight  a positive weight
+     */
+    public void setWeight(int nWeight)
+        {
+        if (nWeight <= 0)
+            {
+            throw new IllegalArgumentException("weight=" + nWeight);
+            }
+        m_nWeight = nWeight;
+        }
+
+    /**
+     * @return the maximum number of concurrently executing tasks for this queue (including all
+     *         descendant queues); zero means "unlimited"
+     */
+    public int getQuota()
+        {
+        return m_cQuota;
+        }
+
+    /**
+     * Specify the maximum number of concurrently executing tasks for this queue.
+     *
+     * @param cQuota  the quota; zero means "unlimited"
+     */
+    public void setQuota(int cQuota)
+        {
+        if (cQuota < 0)
+            {
+            throw new IllegalArgumentException("quota=" + cQuota);
+            }
+        m_cQuota = cQuota;
+
+        // a quota increase may allow more work to proceed
+        f_scheduler.signalWork();
+        }
+
+    /**
+     * @return the number of tasks taken from this queue (or its descendants) that have not yet
+     *         completed
+     */
+    public int getActiveCount()
+        {
+        return f_cActive.get();
+        }
+
+    /**
+     * @return the total number of tasks executed from this queue (or its descendants)
+     */
+    public long getExecutedCount()
+        {
+        return f_cExecuted.get();
+        }
+
+
+    // ----- queue operations ----------------------------------------------------------------------
+
+    /**
+     * Add a task to this queue.
+     *
+     * @param task  the task to execute
+     */
+    public void add(Runnable task)
+        {
+        offer(new Task(this, task));
+        f_scheduler.signalWork();
+        }
+
+    /**
+     * Add a ready entry (a task or a child queue) to this queue and, if necessary, enlist this
+     * queue with its parent.
+     */
+    private void offer(Object oEntry)
+        {
+        boolean fEnlist;
+        synchronized (this)
+            {
+            if (oEntry instanceof FairShareQueue child)
+                {
+                child.m_cCredit = child.m_nWeight;
+                }
+            f_dequeReady.addLast(oEntry);
+
+            fEnlist     = f_parent != null && !m_fEnlisted;
+            m_fEnlisted = true;
+            }
+
+        if (fEnlist)
+            {
+            f_parent.offer(this);
+            }
+        }
+
+    /**
+     * Take the next task to execute from this queue or any of its descendants.
+     *
+     * @return the next task or null if there is nothing that can be executed now
+     */
+    public Runnable poll()
+        {
+        Runnable task = take();
+        return task == BLOCKED ? null : task;
+        }
+
+    /**
+     * Take the next task to execute from this queue or any of its descendants.
+     *
+     * @return the next task; {@link #BLOCKED} if there are pending tasks, but none of them can be
+     *         executed now due to the quotas; null if this queue has been drained and de-listed
+     *         from its parent
+     */
+    private synchronized Runnable take()
+        {
+        ArrayDeque<Object> deque = f_dequeReady;
+        for (int cTries = deque.size(); cTries > 0; cTries--)
+            {
+            Object oEntry = deque.peekFirst();
+            if (oEntry instanceof Task task)
+                {
+                deque.pollFirst();
+                onTaken();
+                return task;
+                }
+
+            FairShareQueue child = (FairShareQueue) oEntry;
+            Runnable       task  = child.isOverQuota() ? BLOCKED : child.take();
+            if (task == null)
+                {
+                // the child has been drained and de-listed itself
+                deque.pollFirst();
+                continue;
+                }
+
+            if (task == BLOCKED)
+                {
+                // let the siblings proceed
+                deque.addLast(deque.pollFirst());
+                continue;
+                }
+
+            if (--child.m_cCredit <= 0)
+                {
+                // the child has used up its share; move it to the tail
+                child.m_cCredit = child.m_nWeight;
+                deque.addLast(deque.pollFirst());
+                }
+            onTaken();
+            return task;
+            }
+
+        if (deque.isEmpty())
+            {
+            m_fEnlisted = false;
+            return null;
+            }
+        return BLOCKED;
+        }
+
+    /**
+     * @return true iff the quota doesn't allow any more tasks from this queue to execute
+     */
+    private boolean isOverQuota()
+        {
+        int cQuota = m_cQuota;
+        return cQuota > 0 && f_cActive.get() >= cQuota;
+        }
+
+    /**
+     * Account for a task that was taken out of this queue (or a descendant queue).
+     */
+    private void onTaken()
+        {
+        f_cActive.incrementAndGet();
+        }
+
+    /**
+     * Account for a completed task that was taken out of this queue (or a descendant queue).
+     *
+     * @return true iff any queue in the chain has a quota
+     */
+    private boolean onCompleted()
+        {
+        boolean fQuota = false;
+        for (FairShareQueue queue = this; queue != null; queue = queue.f_parent)
+            {
+            queue.f_cActive.decrementAndGet();
+            queue.f_cExecuted.incrementAndGet();
+            fQuota |= queue.m_cQuota > 0;
+            }
+        return fQuota;
+        }
+
+
+    // ----- Object methods ------------------------------------------------------------------------
+
+    @Override
+    public String toString()
+        {
+        return "FairShareQueue(" + f_sName + ", weight=" + m_nWeight + ", quota=" + m_cQuota
+                + ", active=" + f_cActive.get() + ", executed=" + f_cExecuted.get() + ')';
+        }
+
+
+    // ----- inner class: Task ---------------------------------------------------------------------
+
+    /**
+     * A task wrapper that keeps track of the queue it came from.
+     */
+    private static class Task
+            implements Runnable
+        {
+        Task(FairShareQueue queue, Runnable task)
+            {
+            f_queue = queue;
+            f_task  = task;
+            }
+
+        @Override
+        public void run()
+            {
+            try
+                {
+                f_task.run();
+                }
+            finally
+                {
+                if (f_queue.onCompleted())
+                    {
+                    // a quota slot has been freed; there may be work that is now eligible to run
+                    f_queue.f_scheduler.signalWork();
+                    }
+                }
+            }
+
+        private final FairShareQueue f_queue;
+        private final Runnable       f_task;
+        }
+
+
+    // ----- data fields ---------------------------------------------------------------------------
+
+    /**
+     * A marker returned by {@link #take()} when there is pending work that cannot proceed yet.
+     */
+    private static final Runnable BLOCKED = () -> {};
+
+    /**
+     * The queue name.
+     */
+    private final String f_sName;
+
+    /**
+     * The parent queue.
+     */
+    private final FairShareQueue f_parent;
+
+    /**
+     * The scheduler.
+     */
+    private final WorkStealingScheduler f_scheduler;
+
+    /**
+     * The ready entries: either tasks or child queues (guarded by "this").
+     */
+    private final ArrayDeque<Object> f_dequeReady = new ArrayDeque<>();
+
+    /**
+     * True iff this queue is present in the parent's ready list (guarded by "this").
+     */
+    private boolean m_fEnlisted;
+
+    /**
+     * The number of tasks this queue can still run before yielding to its siblings (guarded by
+     * the parent's monitor).
+     */
+    private int m_cCredit;
+
+    /**
+     * The relative weight.
+     */
+    private volatile int m_nWeight = 1;
+
+    /**
+     * The concurrency quota; zero means "unlimited".
+     */
+    private volatile int m_cQuota;
+
+    /**
+     * The number of taken, but not yet completed tasks.
+     */
+    private final AtomicInteger f_cActive = new AtomicInteger();
+
+    /**
+     * The number of completed tasks.
+     */
+    private final AtomicLong f_cExecuted = new AtomicLong();
+    }
@@ -65,6 +65,7 @@ public class Fiber
                 // but stagger it a bit to have the callee to time-out first
                 // TODO: what if it's already timed out or below the staggered amount?
                 m_ldtTimeout = ldtTimeoutFiber - 20;
+                context.registerTimeout(this, m_ldtTimeout);
                 }
             else
                 {
@@ -73,6 +74,7 @@ public class Fiber
                 if (cTimeoutMillis > 0)
                     {
                     m_ldtTimeout = System.currentTimeMillis() + cTimeoutMillis;
+                    context.registerTimeout(this, m_ldtTimeout);
                     }
                 }
             f_nDepth = fiberCaller.f_nDepth + 1;
@@ -98,6 +100,10 @@ public class Fiber
 
         m_hTimeout   = hTimeout;
         m_ldtTimeout = cDelayMillis <= 0 ? 0 : System.currentTimeMillis() + cDelayMillis;
+        if (m_ldtTimeout > 0)
+            {
+            f_context.registerTimeout(this, m_ldtTimeout);
+            }
         }
 
     /**
@@ -22,6 +22,7 @@ import org.xvm.asm.Parameter;
 import org.xvm.asm.constants.ClassConstant;
 import org.xvm.asm.constants.FormalConstant;
 import org.xvm.asm.constants.IdentityConstant;
+import org.xvm.asm.constants.IntConstant;
 import org.xvm.asm.constants.MethodConstant;
 import org.xvm.asm.constants.ModuleConstant;
 import org.xvm.asm.constants.PropertyConstant;
@@ -33,6 +34,7 @@ import org.xvm.asm.constants.TypeParameterConstant;
 import org.xvm.runtime.ObjectHandle.DeferredCallHandle;
 import org.xvm.runtime.ObjectHandle.DeferredSingletonHandle;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.ObjectHandle.NativeFutureHandle;
 import org.xvm.runtime.ServiceContext.Synchronicity;
 
@@ -47,6 +49,8 @@ import org.xvm.runtime.template.annotations.xFutureVar.FutureTupleHandle;
 import org.xvm.runtime.template.collections.xTuple;
 import org.xvm.runtime.template.collections.xTuple.TupleHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 import org.xvm.runtime.template.reflect.xRef.RefHandle;
 
 import org.xvm.runtime.template._native.reflect.xRTFunction;
@@ -98,6 +102,9 @@ public class Frame
     private ObjectHandle            m_hStackTop;    // the top of the local stack
     private Deque<ObjectHandle>     m_stack;        // a remainder of the stack
 
+    private long[]                  m_alPrim;       // unboxed Int64 values (lazily allocated)
+    private boolean[]               m_afPrim;       // at index i, true iff register i is unboxed
+
     public DebugConsole.DebugStash  m_debug;        // a field that the debugger can stash stuff in
 
     public static final int VAR_MASK        = 0x1;
@@ -111,6 +118,13 @@ public class Frame
     public static final int RESOLVED_TYPE   = 0x4;
     public static final int FUTURE_HANDLE   = 0x8;
 
+    /**
+     * Set the "xvm.primitiveRegisters" system property to "false" to turn off the unboxed Int64
+     * registers.
+     */
+    public static final boolean PRIMITIVE_REGISTERS =
+            !"false".equalsIgnoreCase(System.getProperty("xvm.primitiveRegisters"));
+
     /**
      * Construct a frame.
      *
@@ -678,6 +692,8 @@ public class Frame
                 f_ahVar[i] = null;
                 }
             }
+
+        clearPrimitives(iVarFrom, iVarTo);
         }
 
     // clear the var info for all scopes above the specified one
@@ -698,6 +714,8 @@ public class Frame
                 f_ahVar[i] = null;
                 }
             }
+
+        clearPrimitives(iVarFrom, iVarTo);
         }
 
     // return "private:this"
@@ -1520,6 +1538,11 @@ public class Frame
             ObjectHandle hValue = f_ahVar[iArg];
             if (hValue == null)
                 {
+                if (isUnboxed(iArg))
+                    {
+                    return boxRegister(iArg);
+                    }
+
                 // there is a possibility this method introduced a default value at the subclass
                 // that didn't exist at the base class
                 int cDefault = f_function.getDefaultParamCount();
@@ -1601,7 +1624,7 @@ public class Frame
             throws ExceptionHandle.WrapperException
         {
         ObjectHandle hValue = iArg >= 0
-                ? f_ahVar[iArg]
+                ? getRegister(iArg)
                 : iArg <= Op.CONSTANT_OFFSET
                         ? getConstHandle(iArg)
                         : getPredefinedArgument(iArg);
@@ -1784,7 +1807,7 @@ public class Frame
      */
     public boolean isAssigned(int nVar)
         {
-        return f_ahVar[nVar] != null;
+        return f_ahVar[nVar] != null || isUnboxed(nVar);
         }
 
     /**
@@ -1952,6 +1975,134 @@ public class Frame
         }
 
 
+    // ----- primitive registers -------------------------------------------------------------------
+
+    /*
+     * The arithmetic and comparison ops on Int64 values avoid allocating a handle for every result
+     * by keeping the value of a local variable "unboxed" in a parallel long[] register file. An
+     * unboxed register has a null handle in f_ahVar; the handle is only materialized when the value
+     * escapes via the generic getArgument() path (a call, a field store, a return, a capture, etc.)
+     * Any handle stored into f_ahVar takes precedence over the unboxed value.
+     */
+
+    /**
+     * @return the content of the specified register; an unboxed value is boxed first
+     */
+    public ObjectHandle getRegister(int nVar)
+        {
+        ObjectHandle hValue = f_ahVar[nVar];
+        return hValue == null && isUnboxed(nVar)
+                ? boxRegister(nVar)
+                : hValue;
+        }
+
+    /**
+     * @return true iff the specified argument is an Int64 register or constant, whose value can be
+     *         obtained using {@link #getInt64}
+     */
+    public boolean isInt64(int nArg)
+        {
+        if (nArg >= 0)
+            {
+            ObjectHandle hValue = f_ahVar[nArg];
+            return hValue == null
+                    ? isUnboxed(nArg)
+                    : hValue.getComposition() == xInt64.INSTANCE.getCanonicalClass();
+            }
+
+        return nArg <= Op.CONSTANT_OFFSET
+                && getConstant(nArg) instanceof IntConstant constInt
+                && constInt.getFormat() == Constant.Format.Int64;
+        }
+
+    /**
+     * @return the value of the specified Int64 register or constant (see {@link #isInt64})
+     */
+    public long getInt64(int nArg)
+        {
+        if (nArg >= 0)
+            {
+            ObjectHandle hValue = f_ahVar[nArg];
+            if (hValue != null)
+                {
+                return ((JavaLong) hValue).getValue();
+                }
+            if (isUnboxed(nArg))
+                {
+                return m_alPrim[nArg];
+                }
+            throw new IllegalStateException("Unassigned Int64 register " + nArg + ": " + this);
+            }
+
+        return ((IntConstant) getConstant(nArg)).getValue().getLong();
+        }
+
+    /**
+     * Assign the specified Int64 value to a register, keeping it unboxed if possible.
+     *
+     * @param nVar    the register to assign (could be a negative "pseudo" register)
+     * @param lValue  the value to assign
+     *
+     * @return R_NEXT, R_CALL or R_EXCEPTION
+     */
+    public int assignInt64(int nVar, long lValue)
+        {
+        if (nVar >= 0 && PRIMITIVE_REGISTERS)
+            {
+            VarInfo info = getVarInfo(nVar);
+            if (info != null && info.isStandardVar() && !info.isFutureVar() && info.getRef() == null)
+                {
+                long[] alPrim = m_alPrim;
+                if (alPrim == null)
+                    {
+                    int cVars = f_ahVar.length;
+                    m_alPrim  = alPrim = new long[cVars];
+                    m_afPrim  = new boolean[cVars];
+                    }
+
+                alPrim[nVar]   = lValue;
+                m_afPrim[nVar] = true;
+                f_ahVar[nVar]  = null;
+                return Op.R_NEXT;
+                }
+            }
+
+        return assignValue(nVar, xInt64.makeHandle(lValue));
+        }
+
+    /**
+     * @return true iff the specified register holds an unboxed value
+     */
+    private boolean isUnboxed(int nVar)
+        {
+        boolean[] afPrim = m_afPrim;
+        return afPrim != null && afPrim[nVar];
+        }
+
+    /**
+     * Materialize the handle for an unboxed register.
+     *
+     * @return the Int64 handle
+     */
+    private ObjectHandle boxRegister(int nVar)
+        {
+        m_afPrim[nVar] = false;
+        return f_ahVar[nVar] = xInt64.makeHandle(m_alPrim[nVar]);
+        }
+
+    /**
+     * Discard the unboxed values for the specified range of registers.
+     */
+    private void clearPrimitives(int iVarFrom, int iVarTo)
+        {
+        boolean[] afPrim = m_afPrim;
+        if (afPrim != null && iVarFrom <= iVarTo)
+            {
+            Arrays.fill(afPrim, iVarFrom, iVarTo + 1, false);
+            }
+        }
+
+
     // ----- GenericTypeResolver interface ---------------------------------------------------------
 
     public GenericTypeResolver getGenericsResolver(boolean fDynamic)
@@ -0,0 +1,345 @@
+package org.xvm.runtime;
+
+
+import java.lang.ref.WeakReference;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * A polymorphic inline cache for a call site, which maps the target's {@link TypeComposition} to
+ * the corresponding {@link CallChain}.
+ * <p>
+ * The cache starts as "uninitialized", becomes "monomorphic" after the first resolution and then
+ * "polymorphic" holding up to {@link #MAX_ENTRIES} compositions. Once the call site sees more
+ * compositions than that, it becomes "megamorphic" and only remembers the last seen composition,
+ * which still pays off for the call sites that see long runs of the same composition (e.g. a loop
+ * over a homogeneous collection); all other lookups rely on the composition's own chain caches.
+ * <p>
+ * The cache entries are immutable and published via a volatile field, so the cache could be
+ * shared by all the services and threads that execute the op. To avoid holding on to the
+ * compositions (and the containers they belong to), the entries only keep weak references.
+ * <p>
+ * The hit/miss counters are only maintained if the "xvm.stats.inlineCache" system property is
+ * set; the counters are not synchronized, so they should be treated as an approximation. If the
+ * property value is "print", the statistics for the most frequently used call sites are printed
+ * out when the JVM shuts down.
+ */
+public class InlineCache
+    {
+    /**
+     * Construct an InlineCache.
+     *
+     * @param site  the call site (used for the statistics report only)
+     */
+    public InlineCache(Object site)
+        {
+        this(site, COLLECT_STATS);
+        }
+
+    /**
+     * Construct an InlineCache.
+     *
+     * @param site    the call site (used for the statistics report only)
+     * @param fStats  true iff the hit/miss counters should be maintained
+     */
+    InlineCache(Object site, boolean fStats)
+        {
+        f_fStats = fStats;
+        if (fStats)
+            {
+            f_refSite = new WeakReference<>(site);
+            ALL_CACHES.add(new WeakReference<>(this));
+            }
+        else
+            {
+            f_refSite = null;
+            }
+        }
+
+
+    // ----- cache operations ----------------------------------------------------------------------
+
+    /**
+     * Find a cached CallChain for the specified composition.
+     *
+     * @param clz  the target composition
+     *
+     * @return the cached chain or null if the composition is not in the cache
+     */
+    public CallChain get(TypeComposition clz)
+        {
+        Entry[] aEntry = m_aEntry;
+        for (int i = 0, c = aEntry.length; i < c; i++)
+            {
+            Entry entry = aEntry[i];
+            if (entry.f_refClz.get() == clz)
+                {
+                CallChain chain = entry.f_refChain.get();
+                if (chain != null)
+                    {
+                    if (f_fStats)
+                        {
+                        m_cHits++;
+                        }
+                    return chain;
+                    }
+                }
+            }
+
+        if (f_fStats)
+            {
+            m_cMisses++;
+            }
+        return null;
+        }
+
+    /**
+     * Add the specified CallChain to the cache.
+     *
+     * @param clz    the target composition
+     * @param chain  the corresponding chain
+     */
+    public void put(TypeComposition clz, CallChain chain)
+        {
+        if (m_fMegamorphic)
+            {
+            // only keep the last seen composition
+            m_aEntry = new Entry[] {new Entry(clz, chain)};
+            return;
+            }
+
+        Entry[] aOld = m_aEntry;
+
+        // purge the entries for the compositions that have been collected
+        int     cOld = aOld.length;
+        Entry[] aNew = new Entry[cOld + 1];
+        int     cNew = 0;
+        for (int i = 0; i < cOld; i++)
+            {
+            Entry entry = aOld[i];
+            TypeComposition clzOld = entry.f_refClz.get();
+            if (clzOld != null && clzOld != clz && entry.f_refChain.get() != null)
+                {
+                aNew[cNew++] = entry;
+                }
+            }
+
+        if (cNew >= MAX_ENTRIES)
+            {
+            // a lost update is benign here; it would just cost an extra resolution
+            m_fMegamorphic = true;
+            m_aEntry       = new Entry[] {new Entry(clz, chain)};
+            return;
+            }
+
+        aNew[cNew++] = new Entry(clz, chain);
+        if (cNew < aNew.length)
+            {
+            Entry[] aTrim = new Entry[cNew];
+            System.arraycopy(aNew, 0, aTrim, 0, cNew);
+            aNew = aTrim;
+            }
+        m_aEntry = aNew;
+        }
+
+    /**
+     * @return true iff this cache has become megamorphic
+     */
+    public boolean isMegamorphic()
+        {
+        return m_fMegamorphic;
+        }
+
+    /**
+     * @return the number of cached compositions (at most one if the cache is megamorphic)
+     */
+    public int size()
+        {
+        return m_aEntry.length;
+        }
+
+    /**
+     * @return the number of hits (zero if the statistics are not collected)
+     */
+    public long getHitCount()
+        {
+        return m_cHits;
+        }
+
+    /**
+     * @return the number of misses (zero if the statistics are not collected)
+     */
+    public long getMissCount()
+        {
+        return m_cMisses;
+        }
+
+    /**
+     * @return a human-readable state of the cache
+     */
+    public String getState()
+        {
+        Entry[] aEntry = m_aEntry;
+        return m_fMegamorphic ? "megamorphic"
+             : switch (aEntry.length)
+                {
+                case 0  -> "uninitialized";
+                case 1  -> "monomorphic";
+                default -> "polymorphic(" + aEntry.length + ')';
+                };
+        }
+
+    @Override
+    public String toString()
+        {
+        long cHits   = m_cHits;
+        long cTotal  = cHits + m_cMisses;
+        Object site  = f_refSite == null ? null : f_refSite.get();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(getState());
+        if (cTotal > 0)
+            {
+            sb.append(", hits=")
+              .append(cHits)
+              .append('/')
+              .append(cTotal)
+              .append(String.format(" (%.1f%%)", 100.0 * cHits / cTotal));
+            }
+        if (site != null)
+            {
+            sb.append(": ")
+              .append(site);
+            }
+        return sb.toString();
+        }
+
+
+    // ----- statistics ----------------------------------------------------------------------------
+
+    /**
+     * Produce a report for the most frequently used call sites.
+     *
+     * @param cMax  the maximum number of call sites to report
+     *
+     * @return the report
+     */
+    public static String report(int cMax)
+        {
+        List<InlineCache> listCaches = new ArrayList<>();
+        for (WeakReference<InlineCache> ref : ALL_CACHES)
+            {
+            InlineCache cache = ref.get();
+            if (cache == null)
+                {
+                ALL_CACHES.remove(ref);
+                }
+            else if (cache.m_cHits + cache.m_cMisses > 0)
+                {
+                listCaches.add(cache);
+                }
+            }
+
+        listCaches.sort(Comparator.comparingLong(
+                (InlineCache cache) -> cache.m_cHits + cache.m_cMisses).reversed());
+
+        StringBuilder sb = new StringBuilder("Inline cache statistics:");
+        for (int i = 0, c = Math.min(cMax, listCaches.size()); i < c; i++)
+            {
+            sb.append("\n  ")
+              .append(listCaches.get(i));
+            }
+        return sb.toString();
+        }
+
+
+    // ----- inner class: Entry --------------------------------------------------------------------
+
+    /**
+     * An immutable cache entry.
+     */
+    private static class Entry
+        {
+        Entry(TypeComposition clz, CallChain chain)
+            {
+            f_refClz   = new WeakReference<>(clz);
+            f_refChain = new WeakReference<>(chain);
+            }
+
+        final WeakReference<TypeComposition> f_refClz;
+        final WeakReference<CallChain>       f_refChain;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The maximum number of compositions a polymorphic cache holds.
+     */
+    public static final int MAX_ENTRIES = 4;
+
+    /**
+     * The statistics collection mode (null if the statistics are not collected).
+     */
+    private static final String STATS = System.getProperty("xvm.stats.inlineCache");
+
+    /**
+     * True iff the statistics should be collected.
+     */
+    private static final boolean COLLECT_STATS = STATS != null;
+
+    /**
+     * All the caches that collect the statistics.
+     */
+    private static final ConcurrentLinkedQueue<WeakReference<InlineCache>> ALL_CACHES =
+            new ConcurrentLinkedQueue<>();
+
+    /**
+     * The initial state.
+     */
+    private static final Entry[] EMPTY = new Entry[0];
+
+    static
+        {
+        if ("print".equals(STATS))
+            {
+            java.lang.Runtime.getRuntime().addShutdownHook(
+                    new Thread(() -> System.err.println(report(100))));
+            }
+        }
+
+    /**
+     * True iff the hit/miss counters are maintained.
+     */
+    private final boolean f_fStats;
+
+    /**
+     * The call site (only used for statistics).
+     */
+    private final WeakReference<Object> f_refSite;
+
+    /**
+     * The current cache entries.
+     */
+    private volatile Entry[] m_aEntry = EMPTY;
+
+    /**
+     * True iff the call site has seen more than {@link #MAX_ENTRIES} compositions.
+     */
+    private volatile boolean m_fMegamorphic;
+
+    /**
+     * The hit counter.
+     */
+    private long m_cHits;
+
+    /**
+     * The miss counter.
+     */
+    private long m_cMisses;
+    }
@@ -1,6 +1,8 @@
 package org.xvm.runtime;
 
 
+import java.util.concurrent.CompletableFuture;
+
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.Op;
 
@@ -49,13 +51,41 @@ public class MainContainer
 
     public void invoke0(String sMethodName, ObjectHandle... ahArg)
         {
+        invoke(sMethodName, ahArg, 0);
+        }
+
+    /**
+     * Invoke a module method with a single return value.
+     *
+     * @param sMethodName  the method name
+     * @param ahArg        the arguments
+     *
+     * @return a future for the return value or null if the method is missing
+     */
+    public CompletableFuture<ObjectHandle> invoke1(String sMethodName, ObjectHandle... ahArg)
+        {
+        return invoke(sMethodName, ahArg, 1);
+        }
+
+    /**
+     * Invoke a module method.
+     *
+     * @param sMethodName  the method name
+     * @param ahArg        the arguments
+     * @param cReturns     the number of return values (zero or one)
+     *
+     * @return a future for the return value or null if the method is missing
+     */
+    protected CompletableFuture<ObjectHandle> invoke(String sMethodName, ObjectHandle[] ahArg,
+                                                     int cReturns)
+        {
         try (var ignore = ConstantPool.withPool(f_idModule.getConstantPool()))
             {
             MethodConstant idMethod = findModuleMethod(sMethodName, ahArg);
             if (idMethod == null)
                 {
                 System.err.println("Missing: " +  sMethodName + " method for " + f_idModule.getValueString());
-                return;
+                return null;
                 }
 
             TypeConstant    typeModule = f_idModule.getType();
@@ -69,11 +99,13 @@ public class MainContainer
 
                 return Op.isDeferred(hModule)
                         ? hModule.proceed(frame, frameCaller ->
-                            chain.invoke(frameCaller, frameCaller.popStack(), ahArg, Op.A_IGNORE))
-                        : chain.invoke(frame, hModule, ahArg, Op.A_IGNORE);
+                            chain.invoke(frameCaller, frameCaller.popStack(), ahArg, iReturn))
+                        : chain.invoke(frame, hModule, ahArg, iReturn);
                 });
 
-            m_contextMain.callLater(hInstantiateModuleAndRun, Utils.OBJECTS_NONE);
+            return cReturns == 0
+                    ? m_contextMain.callLater(hInstantiateModuleAndRun, Utils.OBJECTS_NONE)
+                    : m_contextMain.postRequest(null, hInstantiateModuleAndRun, Utils.OBJECTS_NONE, 1);
             }
         catch (Exception e)
             {
@@ -107,21 +107,27 @@ public class NativeContainer
 
     private ConstantPool loadNativeTemplates()
         {
-        ModuleStructure moduleRoot   = f_repository.loadModule(ECSTASY_MODULE);
-        ModuleStructure moduleTurtle = f_repository.loadModule(TURTLE_MODULE);
-        ModuleStructure moduleNative = f_repository.loadModule(NATIVE_MODULE);
+        String sRoot = xObject.class.getProtectionDomain().getCodeSource().getLocation().getFile();
+        sRoot = URLDecoder.decode(sRoot, StandardCharsets.UTF_8);
 
-        if (moduleRoot == null || moduleTurtle == null || moduleNative == null)
+        File           fileSnapshot = NativeSnapshot.getSnapshotFile(sRoot);
+        NativeSnapshot snapshot     = fileSnapshot == null
+                ? null
+                : NativeSnapshot.load(fileSnapshot, sRoot, f_repository);
+
+        if (snapshot == null)
             {
-            throw new IllegalStateException("Native libraries are missing");
-            }
+            FileStructure      fileAssembled = assembleRoot();
+            Map<String, Class> mapScanned    = scanNativeTemplates(sRoot);
 
-        // "root" is a merge of "native" module into the "system"
-        FileStructure fileRoot = new FileStructure(moduleRoot, true);
-        fileRoot.merge(moduleTurtle, true, false);
-        fileRoot.merge(moduleNative, true, false);
+            // proceed with the stored copy, which is exactly what the subsequent runs will load
+            snapshot = fileSnapshot == null
+                    ? new NativeSnapshot(fileAssembled, mapScanned)
+                    : NativeSnapshot.store(fileSnapshot, sRoot, f_repository, fileAssembled, mapScanned);
+            }
 
-        fileRoot.linkModules(f_repository, true);
+        FileStructure      fileRoot           = snapshot.getRoot();
+        Map<String, Class> mapTemplateClasses = snapshot.getTemplateClasses();
 
         // obtain the cloned modules that belong to the merged container
         m_moduleSystem = (ModuleStructure) fileRoot.getChild(ECSTASY_MODULE);
@@ -137,20 +143,6 @@ public class NativeContainer
             pool.setNakedRefType(clzNakedRef.getFormalType());
             }
 
-        String sRoot = xObject.class.getProtectionDomain().getCodeSource().getLocation().getFile();
-        sRoot = URLDecoder.decode(sRoot, StandardCharsets.UTF_8);
-
-        Map<String, Class> mapTemplateClasses = new HashMap<>();
-        if (sRoot.endsWith(".jar"))
-            {
-            scanNativeJarDirectory(sRoot, "org/xvm/runtime/template", mapTemplateClasses);
-            }
-        else
-            {
-            File dirTemplates = new File(sRoot, "org/xvm/runtime/template");
-            scanNativeDirectory(dirTemplates, "", mapTemplateClasses);
-            }
-
         // we need a number of INSTANCE static variables to be set up right away
         // (they are used by the ClassTemplate constructor)
         storeNativeTemplate(new xObject (this, getClassStructure("Object"),  true));
@@ -217,6 +209,53 @@ public class NativeContainer
         return pool;
         }
 
+    /**
+     * Load the core modules and merge them into a single "root" FileStructure.
+     *
+     * @return the merged and linked root FileStructure
+     */
+    private FileStructure assembleRoot()
+        {
+        ModuleStructure moduleRoot   = f_repository.loadModule(ECSTASY_MODULE);
+        ModuleStructure moduleTurtle = f_repository.loadModule(TURTLE_MODULE);
+        ModuleStructure moduleNative = f_repository.loadModule(NATIVE_MODULE);
+
+        if (moduleRoot == null || moduleTurtle == null || moduleNative == null)
+            {
+            throw new IllegalStateException("Native libraries are missing");
+            }
+
+        // "root" is a merge of "native" module into the "system"
+        FileStructure fileRoot = new FileStructure(moduleRoot, true);
+        fileRoot.merge(moduleTurtle, true, false);
+        fileRoot.merge(moduleNative, true, false);
+
+        fileRoot.linkModules(f_repository, true);
+        return fileRoot;
+        }
+
+    /**
+     * Find all the native template classes.
+     *
+     * @param sRoot  the location of the runtime classes (a jar or a directory)
+     *
+     * @return the native template classes keyed by the component names
+     */
+    private Map<String, Class> scanNativeTemplates(String sRoot)
+        {
+        Map<String, Class> mapTemplateClasses = new HashMap<>();
+        if (sRoot.endsWith(".jar"))
+            {
+            scanNativeJarDirectory(sRoot, "org/xvm/runtime/template", mapTemplateClasses);
+            }
+        else
+            {
+            File dirTemplates = new File(sRoot, "org/xvm/runtime/template");
+            scanNativeDirectory(dirTemplates, "", mapTemplateClasses);
+            }
+        return mapTemplateClasses;
+        }
+
     private void scanNativeJarDirectory(String sJarFile, String sPackage, Map<String, Class> mapTemplateClasses)
         {
         try (JarFile jf = new JarFile(sJarFile))
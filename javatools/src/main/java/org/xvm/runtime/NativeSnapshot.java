@@ -0,0 +1,267 @@
+package org.xvm.runtime;
+
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.xvm.asm.Constants;
+import org.xvm.asm.FileStructure;
+import org.xvm.asm.ModuleRepository;
+
+
+/**
+ * A start-up snapshot of the {@link NativeContainer}: the merged and linked FileStructure of the
+ * core modules together with the registry of the native template classes.
+ * <p>
+ * Assembling the root FileStructure (loading, cloning and merging the core modules and the modules
+ * they depend on) dominates the start-up time of the native container, while reading the same
+ * structure back from a snapshot takes a single disassembly pass. The snapshot is keyed by the
+ * {@link ModuleRepository#getModuleStamp stamps} of all the modules it contains and by the stamp of
+ * the runtime jar; it is ignored and re-created as soon as any of them changes.
+ * <p>
+ * The snapshot location is specified by the "xvm.snapshot" system property: a directory to keep
+ * the snapshots in, or "false" to turn the snapshots off; the default is "~/.xtclang/snapshot".
+ * The snapshots are only used when the runtime is loaded from a jar.
+ */
+public class NativeSnapshot
+    {
+    /**
+     * Construct a snapshot.
+     *
+     * @param fileRoot      the merged and linked FileStructure of the core modules
+     * @param mapTemplates  the native template classes keyed by the component names
+     */
+    public NativeSnapshot(FileStructure fileRoot, Map<String, Class> mapTemplates)
+        {
+        f_fileRoot     = fileRoot;
+        f_mapTemplates = mapTemplates;
+        }
+
+    /**
+     * @return the merged and linked FileStructure of the core modules
+     */
+    public FileStructure getRoot()
+        {
+        return f_fileRoot;
+        }
+
+    /**
+     * @return the native template classes keyed by the component names
+     */
+    public Map<String, Class> getTemplateClasses()
+        {
+        return f_mapTemplates;
+        }
+
+
+    // ----- snapshot operations -------------------------------------------------------------------
+
+    /**
+     * Determine the snapshot file for the runtime loaded from the specified location.
+     *
+     * @param sRuntime  the location of the runtime classes (a jar or a directory)
+     *
+     * @return the snapshot file, or null if the snapshots are turned off or not supported for
+     *         this runtime
+     */
+    public static File getSnapshotFile(String sRuntime)
+        {
+        String sDir = System.getProperty("xvm.snapshot", "");
+        if (sDir.equals("false") || !sRuntime.endsWith(".jar"))
+            {
+            return null;
+            }
+
+        File dir = sDir.isEmpty()
+                ? new File(System.getProperty("user.home"), ".xtclang/snapshot")
+                : new File(sDir);
+
+        // the runtimes from different locations don't share the snapshots
+        File fileJar = new File(sRuntime).getAbsoluteFile();
+        return new File(dir, "native-" + Integer.toHexString(fileJar.getPath().hashCode()) + ".snapshot");
+        }
+
+    /**
+     * Load the snapshot, if it exists and is up-to-date.
+     *
+     * @param fileSnapshot  the snapshot file
+     * @param sRuntime      the location of the runtime jar
+     * @param repository    the repository the core modules come from
+     *
+     * @return the snapshot or null if there is no usable snapshot
+     */
+    public static NativeSnapshot load(File fileSnapshot, String sRuntime, ModuleRepository repository)
+        {
+        if (!fileSnapshot.isFile())
+            {
+            return null;
+            }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(fileSnapshot))))
+            {
+            if (in.readInt() != MAGIC || in.readInt() != Constants.VERSION_MAJOR_CUR
+                                      || in.readInt() != Constants.VERSION_MINOR_CUR
+                    || !in.readUTF().equals(stampOf(new File(sRuntime))))
+                {
+                return null;
+                }
+
+            for (int i = 0, c = in.readInt(); i < c; i++)
+                {
+                String sModule = in.readUTF();
+                String sStamp  = in.readUTF();
+                if (!sStamp.equals(repository.getModuleStamp(sModule)))
+                    {
+                    return null;
+                    }
+                }
+
+            Map<String, Class> mapTemplates = new LinkedHashMap<>();
+            for (int i = 0, c = in.readInt(); i < c; i++)
+                {
+                String sName  = in.readUTF();
+                String sClass = in.readUTF();
+                mapTemplates.put(sName, Class.forName(sClass));
+                }
+
+            FileStructure fileRoot = new FileStructure(in, false, false);
+            fileRoot.synthesizeModules();
+            fileRoot.markLinked();
+            return new NativeSnapshot(fileRoot, mapTemplates);
+            }
+        catch (IOException | ReflectiveOperationException | RuntimeException e)
+            {
+            // a corrupted or incompatible snapshot is simply re-created
+            return null;
+            }
+        }
+
+    /**
+     * Store a snapshot of the specified root FileStructure. Note, that writing a FileStructure
+     * re-registers its constants, so the caller should proceed with the structure from the returned
+     * snapshot, which is exactly what subsequent runs will load.
+     *
+     * @param fileSnapshot  the snapshot file
+     * @param sRuntime      the location of the runtime jar
+     * @param repository    the repository the core modules come from
+     * @param fileRoot      the merged and linked FileStructure of the core modules
+     * @param mapTemplates  the native template classes keyed by the component names
+     *
+     * @return the stored snapshot or, if the snapshot could not be stored, a snapshot of the
+     *         specified FileStructure
+     */
+    public static NativeSnapshot store(File fileSnapshot, String sRuntime, ModuleRepository repository,
+                                       FileStructure fileRoot, Map<String, Class> mapTemplates)
+        {
+        TreeSet<String> setModules = new TreeSet<>(fileRoot.moduleNames());
+        setModules.add(fileRoot.getModuleName());
+
+        try
+            {
+            ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+            DataOutputStream      out      = new DataOutputStream(outBytes);
+
+            out.writeInt(MAGIC);
+            out.writeInt(Constants.VERSION_MAJOR_CUR);
+            out.writeInt(Constants.VERSION_MINOR_CUR);
+            out.writeUTF(stampOf(new File(sRuntime)));
+
+            out.writeInt(setModules.size());
+            for (String sModule : setModules)
+                {
+                String sStamp = repository.getModuleStamp(sModule);
+                if (sStamp == null)
+                    {
+                    // the module content cannot be tracked; don't snapshot it
+                    return new NativeSnapshot(fileRoot, mapTemplates);
+                    }
+                out.writeUTF(sModule);
+                out.writeUTF(sStamp);
+                }
+
+            out.writeInt(mapTemplates.size());
+            for (Map.Entry<String, Class> entry : mapTemplates.entrySet())
+                {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue().getName());
+                }
+
+            int ofRoot = out.size();
+            fileRoot.writeTo((DataOutput) out);
+            out.flush();
+
+            byte[] ab = outBytes.toByteArray();
+
+            // write to a temporary file first, so that concurrent runs never see a partial snapshot
+            File fileDir = fileSnapshot.getParentFile();
+            if (fileDir != null && !fileDir.isDirectory() && !fileDir.mkdirs())
+                {
+                return new NativeSnapshot(fileRoot, mapTemplates);
+                }
+
+            File fileTemp = File.createTempFile("native", ".tmp", fileDir);
+            try
+                {
+                Files.write(fileTemp.toPath(), ab);
+                Files.move(fileTemp.toPath(), fileSnapshot.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            finally
+                {
+                fileTemp.delete();
+                }
+
+            FileStructure fileCopy = new FileStructure(
+                    new ByteArrayInputStream(ab, ofRoot, ab.length - ofRoot), true, false);
+            fileCopy.synthesizeModules();
+            fileCopy.markLinked();
+            return new NativeSnapshot(fileCopy, mapTemplates);
+            }
+        catch (IOException | RuntimeException e)
+            {
+            return new NativeSnapshot(fileRoot, mapTemplates);
+            }
+        }
+
+    /**
+     * @return the stamp of the specified file
+     */
+    private static String stampOf(File file)
+        {
+        file = file.getAbsoluteFile();
+        return file.getPath() + '@' + file.lastModified() + ':' + file.length();
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The snapshot file format identifier.
+     */
+    private static final int MAGIC = 0x58564D53; // "XVMS"
+
+    /**
+     * The merged and linked FileStructure of the core modules.
+     */
+    private final FileStructure f_fileRoot;
+
+    /**
+     * The native template classes keyed by the component names.
+     */
+    private final Map<String, Class> f_mapTemplates;
+    }
@@ -2,12 +2,15 @@ package org.xvm.runtime;
 
 
 import org.xvm.util.concurrent.ConcurrentLinkedBlockingQueue;
+import org.xvm.util.concurrent.TimerWheel;
 
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -37,27 +40,111 @@ public class Runtime
             return thread;
             };
 
-        // TODO: replace with a fair scheduling based ExecutorService
-        f_executorXVM = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.SECONDS,
-                new ConcurrentLinkedBlockingQueue<>(), factoryXVM);
+        // the XVM services are never blocked, so the scheduler stays sized to the cores regardless
+        // of the thread mode
+        f_schedulerXVM = new WorkStealingScheduler(parallelism, factoryXVM);
 
-        ThreadGroup groupIO = new ThreadGroup("IO");
-        ThreadFactory factoryIO = r ->
+        ExecutorService executorIO = VIRTUAL_THREADS ? createVirtualExecutor("IOWorker") : null;
+        if (executorIO == null)
             {
-            Thread thread = new Thread(groupIO, r);
-            thread.setDaemon(true);
-            thread.setName("IOWorker@" + thread.hashCode());
-            return thread;
-            };
+            ThreadGroup groupIO = new ThreadGroup("IO");
+            ThreadFactory factoryIO = r ->
+                {
+                Thread thread = new Thread(groupIO, r);
+                thread.setDaemon(true);
+                thread.setName("IOWorker@" + thread.hashCode());
+                return thread;
+                };
 
-        f_executorIO = new ThreadPoolExecutor(parallelism, 1024, 0, TimeUnit.SECONDS,
-                new ConcurrentLinkedBlockingQueue<>(), factoryIO);
+            // the IO queue is unbounded, so the pool never grows past its core size; make the core
+            // size the actual limit and let the idle threads go away
+            int cThreadsIO = Integer.parseInt(System.getProperty("xvm.io.threads", "0"));
+            if (cThreadsIO <= 0)
+                {
+                cThreadsIO = Math.max(parallelism, DEFAULT_IO_THREADS);
+                }
+
+            ThreadPoolExecutor executorPool = new ThreadPoolExecutor(cThreadsIO, cThreadsIO,
+                    60, TimeUnit.SECONDS, new ConcurrentLinkedBlockingQueue<>(), factoryIO);
+            executorPool.allowCoreThreadTimeOut(true);
+            executorIO = executorPool;
+            }
+        f_executorIO = executorIO;
+
+        if ("print".equals(System.getProperty("xvm.stats.io")))
+            {
+            java.lang.Runtime.getRuntime().addShutdownHook(
+                    new Thread(() -> System.err.println(reportIO())));
+            }
         }
 
     public void start()
         {
         }
 
+    /**
+     * Create an executor for the tasks that may block for a long time, such as the HTTP exchanges.
+     * In the "virtual" thread mode every task runs on its own virtual thread; otherwise the tasks
+     * run on a cached pool of daemon platform threads.
+     *
+     * @param sName  the name prefix for the threads
+     *
+     * @return a new executor
+     */
+    public static ExecutorService createBlockingExecutor(String sName)
+        {
+        ExecutorService executor = VIRTUAL_THREADS ? createVirtualExecutor(sName) : null;
+        if (executor == null)
+            {
+            ThreadGroup   group   = new ThreadGroup(sName);
+            ThreadFactory factory = r ->
+                {
+                Thread thread = new Thread(group, r);
+                thread.setDaemon(true);
+                thread.setName(sName + "@" + thread.hashCode());
+                return thread;
+                };
+            executor = Executors.newCachedThreadPool(factory);
+            }
+        return executor;
+        }
+
+    /**
+     * Create an executor that starts a new virtual thread for every task. Since the runtime is
+     * compiled for Java 17, the virtual thread API is accessed reflectively.
+     *
+     * @param sName  the name prefix for the threads
+     *
+     * @return a new executor or null if the virtual threads are not supported by this JVM
+     */
+    private static ExecutorService createVirtualExecutor(String sName)
+        {
+        try
+            {
+            Class<?> clzBuilder = Class.forName("java.lang.Thread$Builder");
+            Object   builder    = Thread.class.getMethod("ofVirtual").invoke(null);
+
+            builder = clzBuilder.getMethod("name", String.class, long.class)
+                                .invoke(builder, sName + "@", 0L);
+
+            ThreadFactory factory = (ThreadFactory) clzBuilder.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+            }
+        catch (ReflectiveOperationException | RuntimeException e)
+            {
+            // Java 17 (no such methods) or Java 19-20 without "--enable-preview"
+            if (!s_fVirtualWarned)
+                {
+                s_fVirtualWarned = true;
+                System.err.println("Virtual threads are not supported by this JVM; " +
+                        "using platform threads instead");
+                }
+            return null;
+            }
+        }
+
     /**
      * Register the specified container (used only for debugging)
      */
@@ -80,14 +167,36 @@ public class Runtime
             }
         }
 
+    /**
+     * @return the root of the fair share scheduling hierarchy
+     */
+    public FairShareQueue getRootQueue()
+        {
+        return f_schedulerXVM.getRootQueue();
+        }
+
+    /**
+     * Create a fair share scheduling queue for a container.
+     *
+     * @param sName        the queue name
+     * @param queueParent  the parent container's queue
+     *
+     * @return a new FairShareQueue
+     */
+    public FairShareQueue createQueue(String sName, FairShareQueue queueParent)
+        {
+        return new FairShareQueue(sName, queueParent, f_schedulerXVM);
+        }
+
     /**
      * Submit ServiceContext work for eventual processing by the runtime.
      *
-     * @param task the task to process
+     * @param queue  the container's fair share queue
+     * @param task   the task to process
      */
-    protected void submitService(Runnable task)
+    protected void submitService(FairShareQueue queue, Runnable task)
         {
-        f_executorXVM.submit(task);
+        queue.add(task);
         m_lastXvmSubmitNanos = System.nanoTime();
         }
 
@@ -111,15 +220,46 @@ public class Runtime
 
     public void shutdownXVM()
         {
-        f_executorIO .shutdown();
-        f_executorXVM.shutdown();
+        f_executorIO  .shutdown();
+        f_schedulerXVM.shutdown();
+        f_timerWheel  .shutdown();
+        }
+
+    /**
+     * Produce a report of the IO activity for all the known containers.
+     *
+     * @return the report
+     */
+    public String reportIO()
+        {
+        StringBuilder sb = new StringBuilder("IO statistics (");
+        if (f_executorIO instanceof ThreadPoolExecutor executorPool)
+            {
+            sb.append(executorPool.getLargestPoolSize())
+              .append(" of ")
+              .append(executorPool.getMaximumPoolSize())
+              .append(" threads used):");
+            }
+        else
+            {
+            sb.append("virtual threads):");
+            }
+        for (Container container : containers())
+            {
+            if (container.getIOCompletedCount() + container.getIOPendingCount() > 0)
+                {
+                sb.append("\n  ")
+                  .append(container.reportIO());
+                }
+            }
+        return sb.toString();
         }
 
     public boolean isIdle()
         {
         // TODO: very naive; replace
         return m_lastXvmSubmitNanos < System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10)
-            && f_executorXVM.getActiveCount() == 0;
+            && f_schedulerXVM.getActiveCount() == 0;
         }
 
     public boolean isDebuggerActive()
@@ -136,14 +276,33 @@ public class Runtime
     // ----- constants and fields ------------------------------------------------------------------
 
     /**
-     * The executor for XVM services.
+     * The default maximum number of IO threads (unless the "xvm.io.threads" property is specified).
+     */
+    public static final int DEFAULT_IO_THREADS = 64;
+
+    /**
+     * The thread mode specified by the "xvm.threads" property: "platform" (the default) or
+     * "virtual". In the "virtual" mode the IO tasks and the HTTP exchanges run on virtual threads
+     * (if supported by the JVM), while the XVM services still run on the platform threads of the
+     * scheduler.
+     */
+    public static final boolean VIRTUAL_THREADS =
+            "virtual".equals(System.getProperty("xvm.threads", "platform"));
+
+    /**
+     * The scheduler for XVM services.
+     */
+    public final WorkStealingScheduler f_schedulerXVM;
+
+    /**
+     * The executor for IO tasks.
      */
-    public final ThreadPoolExecutor f_executorXVM;
+    public final ExecutorService f_executorIO;
 
     /**
-     * The executor for XVM services.
+     * The timer wheel for service wake-ups.
      */
-    public final ThreadPoolExecutor f_executorIO;
+    public final TimerWheel f_timerWheel = new TimerWheel("ecstasy:TimerWheel");
 
     /**
      * The set of containers (stored as a Map with no values); used only for debugging.
@@ -164,4 +323,9 @@ public class Runtime
      * The "debugger is active" flag.
      */
     private boolean m_fDebugger;
+
+    /**
+     * Set to true after the "virtual threads are not supported" warning has been printed.
+     */
+    private static volatile boolean s_fVirtualWarned;
     }
\ No newline at end of file
@@ -11,9 +11,9 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
-import java.util.TimerTask;
 import java.util.WeakHashMap;
 
 import java.util.concurrent.CompletableFuture;
@@ -64,7 +64,7 @@ import org.xvm.runtime.template.text.xString.StringHandle;
 import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
 import org.xvm.runtime.template._native.reflect.xRTFunction.NativeFunctionHandle;
 
-import org.xvm.runtime.template._native.temporal.xLocalClock;
+import org.xvm.util.concurrent.TimerWheel;
 
 
 /**
@@ -469,30 +469,60 @@ public class ServiceContext
         // doesn't represent new work then the scheduled task will be a no-op and just come back here
         // to release again, and is thus safe.
 
+        // the timeout heap is only accessible while the lock is held, so the nearest timeout must be
+        // computed before releasing it
+        long ldtTimeout = f_heapTimeouts.isEmpty() ? Long.MAX_VALUE : nextTimeout();
+
         long lLockPreState = m_lLockScheduling; // read lock state prior to isContended check
         if (isContended() || !SCHEDULING_LOCK_HANDLE.compareAndSet(this, lLockPreState, 0L))
             {
             // we've detected service or lock contention, reschedule
             f_container.schedule(this);
             }
-        else if (!f_setFibers.isEmpty())
+        else if (ldtTimeout != Long.MAX_VALUE)
             {
             // make sure to wake up for the nearest timeout
-            long ldtTimeout = Long.MAX_VALUE;
-            for (Fiber fiber : f_setFibers)
-                {
-                long ldtTimeoutFiber = fiber.getTimeoutStamp();
-                if (ldtTimeoutFiber > 0)
-                    {
-                    ldtTimeout = Math.min(ldtTimeout, ldtTimeoutFiber);
-                    }
-                }
+            f_wakeUpScheduler.schedule(ldtTimeout);
+            }
+        }
 
-            if (ldtTimeout != Long.MAX_VALUE)
+    /**
+     * Register the timeout stamp for the specified fiber. This method must be called every time the
+     * fiber's timeout stamp is set to a positive value; the entries that don't match the fiber's
+     * current timeout stamp are discarded lazily.
+     *
+     * @param fiber       the fiber
+     * @param ldtTimeout  the fiber's timeout stamp
+     */
+    protected void registerTimeout(Fiber fiber, long ldtTimeout)
+        {
+        PriorityQueue<FiberTimeout> heap = f_heapTimeouts;
+        if (heap.size() > 2 * f_setFibers.size() + 16)
+            {
+            // too many stale entries have accumulated (e.g. the fibers have been completed or their
+            // timeouts have been changed); get rid of them
+            heap.removeIf(timeout -> !timeout.isActive());
+            }
+        heap.add(new FiberTimeout(fiber, ldtTimeout));
+        }
+
+    /**
+     * @return the nearest timeout stamp among this service's fibers or Long.MAX_VALUE if none of
+     *         the fibers has a timeout
+     */
+    private long nextTimeout()
+        {
+        PriorityQueue<FiberTimeout> heap = f_heapTimeouts;
+        FiberTimeout                timeout;
+        while ((timeout = heap.peek()) != null)
+            {
+            if (timeout.isActive())
                 {
-                f_wakeUpScheduler.schedule(ldtTimeout);
+                return timeout.f_ldtTimeout;
                 }
+            heap.poll();
             }
+        return Long.MAX_VALUE;
         }
 
     /**
@@ -2110,24 +2140,48 @@ public class ServiceContext
 
                 if (ldtNow < f_ldtScheduled)
                     {
-                    m_taskCurrent.cancel();
+                    m_timerCurrent.cancel();
                     }
                 }
 
+            // the timer wheel thread must not execute the service in-line
             f_ldtScheduled = ldtWakeUp;
-            m_taskCurrent  = new TimerTask()
-                {
-                public void run()
-                    {
-                    ensureScheduled(false);
-                    }
-                };
+            m_timerCurrent = f_container.f_runtime.f_timerWheel.schedule(
+                    () -> ensureScheduled(true), Math.max(1, ldtWakeUp - ldtNow));
+            }
 
-            xLocalClock.TIMER.schedule(m_taskCurrent, Math.max(1, ldtWakeUp - ldtNow));
+        private long             f_ldtScheduled; // when
+        private TimerWheel.Timer m_timerCurrent; // what
+        }
+
+    /**
+     * An entry in the heap of the fiber timeouts.
+     */
+    private class FiberTimeout
+            implements Comparable<FiberTimeout>
+        {
+        FiberTimeout(Fiber fiber, long ldtTimeout)
+            {
+            f_fiber      = fiber;
+            f_ldtTimeout = ldtTimeout;
             }
 
-        private long      f_ldtScheduled; // when
-        private TimerTask m_taskCurrent;  // what
+        /**
+         * @return true iff the fiber is still alive and its timeout has not changed
+         */
+        boolean isActive()
+            {
+            return f_fiber.getTimeoutStamp() == f_ldtTimeout && f_setFibers.contains(f_fiber);
+            }
+
+        @Override
+        public int compareTo(FiberTimeout that)
+            {
+            return Long.compare(this.f_ldtTimeout, that.f_ldtTimeout);
+            }
+
+        private final Fiber f_fiber;
+        private final long  f_ldtTimeout;
         }
 
 
@@ -2213,6 +2267,12 @@ public class ServiceContext
      */
     private final Set<Fiber> f_setFibers = new ConcurrentSkipListSet<>();
 
+    /**
+     * The heap of the fiber timeouts; it may contain stale entries. It is only accessed by the
+     * thread that holds the scheduling lock.
+     */
+    private final PriorityQueue<FiberTimeout> f_heapTimeouts = new PriorityQueue<>();
+
     /**
      * The queue of suspended fibers.
      */
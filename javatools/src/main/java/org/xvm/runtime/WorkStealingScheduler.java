@@ -0,0 +1,329 @@
+package org.xvm.runtime;
+
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * The scheduler for the XVM services. It consists of a fixed number of worker threads, each of
+ * which owns a deque of tasks. A worker takes the tasks from its own deque first; when the deque
+ * is empty, it claims a small batch of tasks from the root {@link FairShareQueue}, which selects
+ * the tasks according to the container hierarchy weights and quotas. A worker that cannot find
+ * any work in the fair share hierarchy steals the tasks from the tail of other workers' deques
+ * before parking itself.
+ */
+public class WorkStealingScheduler
+    {
+    /**
+     * Construct the scheduler.
+     *
+     * @param cWorkers  the number of worker threads
+     * @param factory   the thread factory
+     */
+    public WorkStealingScheduler(int cWorkers, ThreadFactory factory)
+        {
+        f_queueRoot = new FairShareQueue("Runtime", null, this);
+
+        Worker[] aWorker = new Worker[cWorkers];
+        for (int i = 0; i < cWorkers; i++)
+            {
+            Worker worker = new Worker(i);
+            worker.m_thread = factory.newThread(worker);
+            aWorker[i] = worker;
+            }
+        f_aWorker = aWorker;
+
+        for (Worker worker : aWorker)
+            {
+            worker.m_thread.start();
+            }
+        }
+
+
+    // ----- public API ----------------------------------------------------------------------------
+
+    /**
+     * @return the root of the fair share queue hierarchy
+     */
+    public FairShareQueue getRootQueue()
+        {
+        return f_queueRoot;
+        }
+
+    /**
+     * @return the number of worker threads
+     */
+    public int getWorkerCount()
+        {
+        return f_aWorker.length;
+        }
+
+    /**
+     * @return the number of workers that are currently executing tasks
+     */
+    public int getActiveCount()
+        {
+        return f_cActive.get();
+        }
+
+    /**
+     * @return the number of tasks that were stolen from other workers' deques
+     */
+    public long getStolenCount()
+        {
+        long cStolen = 0;
+        for (Worker worker : f_aWorker)
+            {
+            cStolen += worker.m_cStolen;
+            }
+        return cStolen;
+        }
+
+    /**
+     * Notify the scheduler that new work may be available.
+     */
+    public void signalWork()
+        {
+        Worker worker = f_dequeIdle.pollFirst();
+        if (worker != null)
+            {
+            LockSupport.unpark(worker.m_thread);
+            }
+        }
+
+    /**
+     * Stop all the workers. The tasks that have not been started are discarded.
+     */
+    public void shutdown()
+        {
+        m_fShutdown = true;
+        for (Worker worker : f_aWorker)
+            {
+            LockSupport.unpark(worker.m_thread);
+            }
+        }
+
+    /**
+     * @return true iff the scheduler has been shut down
+     */
+    public boolean isShutdown()
+        {
+        return m_fShutdown;
+        }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * Claim a batch of tasks from the fair share hierarchy into the worker's deque.
+     *
+     * @return the first claimed task or null if nothing is available
+     */
+    private Runnable claim(Worker worker)
+        {
+        FairShareQueue queue = f_queueRoot;
+        Runnable       task  = queue.poll();
+        if (task != null)
+            {
+            ConcurrentLinkedDeque<Runnable> deque = worker.f_deque;
+            for (int i = 1; i < CLAIM_BATCH; i++)
+                {
+                Runnable taskNext = queue.poll();
+                if (taskNext == null)
+                    {
+                    break;
+                    }
+                deque.addLast(taskNext);
+                }
+
+            if (!deque.isEmpty())
+                {
+                // let an idle worker steal some of the claimed tasks
+                signalWork();
+                }
+            }
+        return task;
+        }
+
+    /**
+     * Steal a task from the tail of some other worker's deque.
+     *
+     * @return a stolen task or null if all other deques are empty
+     */
+    private Runnable steal(Worker worker)
+        {
+        Worker[] aWorker = f_aWorker;
+        int      cWorkers = aWorker.length;
+        int      iStart   = ThreadLocalRandom.current().nextInt(cWorkers);
+        for (int i = 0; i < cWorkers; i++)
+            {
+            Worker victim = aWorker[(iStart + i) % cWorkers];
+            if (victim != worker)
+                {
+                Runnable task = victim.f_deque.pollLast();
+                if (task != null)
+                    {
+                    worker.m_cStolen++;
+                    return task;
+                    }
+                }
+            }
+        return null;
+        }
+
+    /**
+     * @return the next task for the specified worker or null if none is available
+     */
+    private Runnable findWork(Worker worker)
+        {
+        Runnable task = worker.f_deque.pollFirst();
+        if (task == null)
+            {
+            task = claim(worker);
+            if (task == null)
+                {
+                task = steal(worker);
+                }
+            }
+        return task;
+        }
+
+    /**
+     * Park the specified worker until more work becomes available.
+     *
+     * @return the next task or null if none is available
+     */
+    private Runnable awaitWork(Worker worker)
+        {
+        ConcurrentLinkedDeque<Worker> dequeIdle = f_dequeIdle;
+
+        // register as idle before the final check to avoid missing a signal
+        dequeIdle.addFirst(worker);
+
+        Runnable task = findWork(worker);
+        if (task == null && !m_fShutdown)
+            {
+            LockSupport.parkNanos(this, PARK_NANOS);
+            }
+
+        dequeIdle.remove(worker);
+        return task;
+        }
+
+
+    // ----- inner class: Worker -------------------------------------------------------------------
+
+    /**
+     * A worker.
+     */
+    private class Worker
+            implements Runnable
+        {
+        Worker(int nId)
+            {
+            f_nId = nId;
+            }
+
+        @Override
+        public void run()
+            {
+            while (!m_fShutdown)
+                {
+                Runnable task = findWork(this);
+                if (task == null)
+                    {
+                    task = awaitWork(this);
+                    if (task == null)
+                        {
+                        continue;
+                        }
+                    }
+
+                f_cActive.incrementAndGet();
+                try
+                    {
+                    task.run();
+                    }
+                catch (Throwable e)
+                    {
+                    e.printStackTrace();
+                    }
+                finally
+                    {
+                    f_cActive.decrementAndGet();
+                    }
+                }
+            }
+
+        @Override
+        public String toString()
+            {
+            return "Worker#" + f_nId + " (deque=" + f_deque.size() + ", stolen=" + m_cStolen + ')';
+            }
+
+        /**
+         * The worker id.
+         */
+        private final int f_nId;
+
+        /**
+         * The worker's task deque; the owner takes from the head, the thieves from the tail.
+         */
+        private final ConcurrentLinkedDeque<Runnable> f_deque = new ConcurrentLinkedDeque<>();
+
+        /**
+         * The worker's thread.
+         */
+        private Thread m_thread;
+
+        /**
+         * The number of tasks this worker has stolen (written only by the worker).
+         */
+        private volatile long m_cStolen;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The maximum number of tasks a worker claims from the fair share hierarchy at once.
+     */
+    private static final int CLAIM_BATCH = 4;
+
+    /**
+     * The maximum time an idle worker is parked for before re-checking for work.
+     */
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * The root fair share queue.
+     */
+    private final FairShareQueue f_queueRoot;
+
+    /**
+     * The workers.
+     */
+    private final Worker[] f_aWorker;
+
+    /**
+     * The idle workers.
+     */
+    private final ConcurrentLinkedDeque<Worker> f_dequeIdle = new ConcurrentLinkedDeque<>();
+
+    /**
+     * The number of workers currently executing tasks.
+     */
+    private final AtomicInteger f_cActive = new AtomicInteger();
+
+    /**
+     * The shutdown flag.
+     */
+    private volatile boolean m_fShutdown;
+    }
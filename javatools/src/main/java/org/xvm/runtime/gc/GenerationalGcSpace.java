@@ -0,0 +1,1163 @@
+package org.xvm.runtime.gc;
+
+
+import org.xvm.util.LongMuterator;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A generational collector with an incremental old generation.
+ * <p>
+ * Objects are allocated in a nursery which is reclaimed by frequent "minor" collections. The roots of a minor collection
+ * are the {@link #addRoot roots} of the space plus the old objects on the "dirty" cards of a card table; a card covers
+ * {@link #CARD_SIZE} slots and is dirtied when a reference to a young object is stored into an old one. Objects which
+ * survive {@link #TENURE_AGE} minor collections are promoted to the old generation.
+ * <p>
+ * The old generation is reclaimed by a "snapshot-at-the-beginning" incremental mark followed by an incremental sweep.
+ * Each increment is bounded by a time budget (see {@link #collect(long)}), so a cycle is spread across many short
+ * pauses; while marking, {@link #setField} shades the overwritten reference and objects are allocated already marked,
+ * so nothing that was reachable when the cycle started could be missed. The root scan that starts a cycle is an
+ * increment of its own, and is the only one not bounded by the budget.
+ * <p>
+ * As with the {@link MarkAndSweepGcSpace}, objects are allocated on the java heap but tracked via the {@link GcSpace},
+ * and the space is not thread safe; the pause times of each kind of collection are available as {@link PauseHistogram
+ * histograms}.
+ */
+public class GenerationalGcSpace<V>
+        implements GcSpace
+    {
+    /**
+     * Construct a {@link GenerationalGcSpace}.
+     *
+     * @param accessor        the accessor of accessing the contents of an object
+     * @param clearedListener a function to invoke with a pointer to a weak-ref once it's been cleared
+     */
+    public GenerationalGcSpace(ObjectManager<V> accessor, LongConsumer clearedListener)
+        {
+        this(accessor, clearedListener, Long.MAX_VALUE, Long.MAX_VALUE);
+        }
+
+    /**
+     * Construct a {@link GenerationalGcSpace} with limits.
+     *
+     * @param accessor        the accessor of accessing the contents of an object
+     * @param clearedListener a function to invoke with a pointer to a weak-ref once it's been cleared
+     * @param cbLimitSoft     the byte size to try to stay within
+     * @param cbLimitHard     the maximum allowable byte size
+     */
+    public GenerationalGcSpace(ObjectManager<V> accessor,
+                               LongConsumer clearedListener,
+                               long cbLimitSoft,
+                               long cbLimitHard)
+        {
+        this(accessor, clearedListener, cbLimitSoft, cbLimitHard,
+             Math.max(1, Math.min(DEFAULT_NURSERY_SIZE, cbLimitSoft / 4)), DEFAULT_STEP_NANOS);
+        }
+
+    /**
+     * Construct a {@link GenerationalGcSpace} with limits and tuning parameters.
+     *
+     * @param accessor        the accessor of accessing the contents of an object
+     * @param clearedListener a function to invoke with a pointer to a weak-ref once it's been cleared
+     * @param cbLimitSoft     the byte size to try to stay within
+     * @param cbLimitHard     the maximum allowable byte size
+     * @param cbNursery       the byte size of the young generation that triggers a minor collection
+     * @param cNanosStep      the time budget of an incremental step performed as part of an allocation
+     */
+    public GenerationalGcSpace(ObjectManager<V> accessor,
+                               LongConsumer clearedListener,
+                               long cbLimitSoft,
+                               long cbLimitHard,
+                               long cbNursery,
+                               long cNanosStep)
+        {
+        if (cbNursery <= 0 || cNanosStep <= 0)
+            {
+            throw new IllegalArgumentException("nursery=" + cbNursery + ", step=" + cNanosStep);
+            }
+
+        f_accessor = accessor;
+        f_clearedListener = clearedListener;
+        f_cbLimitSoft = cbLimitSoft;
+        f_cbLimitHard = cbLimitHard;
+        f_cbNursery = cbNursery;
+        f_cNanosStep = cNanosStep;
+        m_cbMajorThreshold = cbNursery * 4;
+
+        for (int i = 0; i < m_anFreeSlots.length; ++i)
+            {
+            m_anFreeSlots[i] = m_anFreeSlots.length - 1 - i;
+            }
+        m_nTopFree = m_anFreeSlots.length - 1;
+        }
+
+
+    // ----- GcSpace interface ---------------------------------------------------------------------
+
+    @Override
+    public long allocate(int cFields)
+            throws OutOfMemoryError
+        {
+        if (cFields < 0 || cFields > (FIELD_COUNT_MASK >> FIELD_COUNT_SHIFT))
+            {
+            throw new IllegalArgumentException();
+            }
+
+        if (m_cBytes > f_cbLimitSoft)
+            {
+            gc();
+            if (m_cBytes > f_cbLimitHard)
+                {
+                throw new OutOfMemoryError("hard limit exceeded");
+                }
+            }
+        else if (m_cbYoung > f_cbNursery || m_nTopFree < 0)
+            {
+            gcMinor();
+
+            // pace the old generation collection with the allocations
+            collect(f_cNanosStep);
+            }
+
+        if (m_nTopFree < 0)
+            {
+            grow();
+            }
+
+        V o = f_accessor.allocate(cFields);
+        long lHeader = YOUNG_MASK | ((long) cFields << FIELD_COUNT_SHIFT);
+        if (m_fAllocationMarker)
+            {
+            // allocate "black"; during an old generation cycle that makes the object reachable by definition
+            lHeader |= MARKER_MASK;
+            }
+        f_accessor.setHeader(o, lHeader);
+
+        long cb = f_accessor.getByteSize(o);
+        m_cBytes += cb;
+        m_cbYoung += cb;
+
+        int nSlot = m_anFreeSlots[m_nTopFree--];
+        m_aObjects[nSlot] = o;
+        f_stackYoung.push(nSlot);
+        return address(nSlot);
+        }
+
+    @Override
+    public long allocateWeak(int cFields)
+            throws OutOfMemoryError
+        {
+        if (cFields == 0)
+            {
+            throw new IllegalArgumentException("weak-refs must have at least one field");
+            }
+
+        long address = allocate(cFields);
+        getAndSetHeaderBit(ensure(address), WEAK_MASK, true);
+        f_bsWeak.set(slot(address));
+        return address;
+        }
+
+    @Override
+    public boolean isValid(long address)
+        {
+        return get(address) != null;
+        }
+
+    @Override
+    public long getField(long address, int index)
+            throws SegFault
+        {
+        V o = ensure(address);
+        long pField = f_accessor.getField(o, index);
+        if (m_nPhase == PHASE_MARK && index == WEAK_REFERENT_FIELD && getHeaderBit(o, WEAK_MASK))
+            {
+            // the referent is not traced through the weak-ref, but now it could be stored anywhere
+            shade(pField);
+            }
+        return pField;
+        }
+
+    @Override
+    public void setField(long address, int index, long handle)
+            throws SegFault
+        {
+        V o = ensure(address);
+        if (m_nPhase == PHASE_MARK)
+            {
+            // snapshot-at-the-beginning barrier: the overwritten reference was reachable when the cycle started
+            shade(f_accessor.getField(o, index));
+            }
+
+        f_accessor.setField(o, index, handle);
+
+        if (!getHeaderBit(o, YOUNG_MASK) && isYoung(handle))
+            {
+            dirtyCard(slot(address));
+            }
+        }
+
+    @Override
+    public void addRoot(Supplier<? extends LongMuterator> root)
+        {
+        f_setRoots.add(root);
+        }
+
+    @Override
+    public void removeRoot(Supplier<? extends LongMuterator> root)
+        {
+        f_setRoots.remove(root);
+        }
+
+    @Override
+    public long getByteCount()
+        {
+        return m_cBytes;
+        }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This is a full, stop-the-world collection: any old generation cycle in progress is completed, a new one is run
+     * start to finish, and then the young generation is collected.
+     */
+    @Override
+    public void gc()
+        {
+        long ldtStart = System.nanoTime();
+
+        if (m_nPhase != PHASE_IDLE)
+            {
+            // the current cycle cannot reclaim anything that became garbage after it started
+            advance(Long.MAX_VALUE, false);
+            }
+        startCycle();
+        advance(Long.MAX_VALUE, false);
+        collectYoung();
+
+        f_histFull.record(System.nanoTime() - ldtStart);
+        }
+
+
+    // ----- collection ----------------------------------------------------------------------------
+
+    /**
+     * Collect the young generation.
+     */
+    public void gcMinor()
+        {
+        long ldtStart = System.nanoTime();
+        collectYoung();
+        f_histMinor.record(System.nanoTime() - ldtStart);
+        }
+
+    /**
+     * Perform an increment of the old generation collection, starting a new cycle if the old generation has grown
+     * sufficiently since the last one.
+     * <p>
+     * This is intended to be called with the remainder of a scheduling quantum, e.g. when a service has no more work
+     * to do; the allocations also perform increments (of the {@code cNanosStep} budget) after each minor collection.
+     *
+     * @param cNanos the time budget in nanoseconds
+     * @return {@code true} if there is no more old generation work to be done, {@code false} if the cycle is still in
+     *         progress
+     */
+    public boolean collect(long cNanos)
+        {
+        return collect(cNanos, false);
+        }
+
+    /**
+     * Perform an increment of the old generation collection.
+     *
+     * @param cNanos the time budget in nanoseconds
+     * @param fStart {@code true} to start a new cycle if none is in progress, regardless of the old generation size
+     * @return {@code true} if there is no more old generation work to be done, {@code false} if the cycle is still in
+     *         progress
+     */
+    public boolean collect(long cNanos, boolean fStart)
+        {
+        if (m_nPhase == PHASE_IDLE && !fStart && m_cBytes - m_cbYoung <= m_cbMajorThreshold)
+            {
+            return true;
+            }
+
+        long ldtStart = System.nanoTime();
+        long ldtStop = cNanos >= Long.MAX_VALUE - ldtStart ? Long.MAX_VALUE : ldtStart + cNanos;
+        boolean fDone = advance(ldtStop, fStart);
+        f_histIncremental.record(System.nanoTime() - ldtStart);
+        return fDone;
+        }
+
+    /**
+     * @return {@code true} iff an old generation cycle is in progress
+     */
+    public boolean isCollecting()
+        {
+        return m_nPhase != PHASE_IDLE;
+        }
+
+    /**
+     * @return the amount of memory consumed by the young generation
+     */
+    public long getYoungByteCount()
+        {
+        return m_cbYoung;
+        }
+
+    /**
+     * @return the number of completed old generation cycles
+     */
+    public long getCycleCount()
+        {
+        return m_cCycles;
+        }
+
+    /**
+     * @return the pause times of the minor collections
+     */
+    public PauseHistogram getMinorPauses()
+        {
+        return f_histMinor;
+        }
+
+    /**
+     * @return the pause times of the old generation increments
+     */
+    public PauseHistogram getIncrementalPauses()
+        {
+        return f_histIncremental;
+        }
+
+    /**
+     * @return the pause times of the full collections
+     */
+    public PauseHistogram getFullPauses()
+        {
+        return f_histFull;
+        }
+
+
+    // ----- young generation ----------------------------------------------------------------------
+
+    /**
+     * Collect the young generation: mark the young objects reachable from the roots and the dirty cards, clear the
+     * weak-refs to the unreachable ones, free them, and promote the survivors that are old enough.
+     */
+    private void collectYoung()
+        {
+        for (var root : f_setRoots)
+            {
+            for (var liter = root.get(); liter.hasNext(); )
+                {
+                markYoung(liter.next());
+                }
+            }
+
+        byte[] abCards = m_abCards;
+        for (int iCard = 0; iCard < abCards.length; ++iCard)
+            {
+            if (abCards[iCard] != 0)
+                {
+                scanCard(iCard, true);
+                }
+            }
+
+        IntStack stackMark = f_stackMark;
+        while (!stackMark.isEmpty())
+            {
+            V o = m_aObjects[stackMark.pop()];
+            for (int i = getHeaderBit(o, WEAK_MASK) ? 1 : 0, c = getFieldCount(o); i < c; ++i)
+                {
+                markYoung(f_accessor.getField(o, i));
+                }
+            }
+
+        // clear the young weak-refs to unreachable young objects while the marks are still in place; the old
+        // weak-refs are on dirty cards, so they have kept their young referents alive
+        IntStack stackYoung = f_stackYoung;
+        IntStack stackNotify = null;
+        for (int i = 0, c = stackYoung.size(); i < c; ++i)
+            {
+            int nSlot = stackYoung.get(i);
+            V o = m_aObjects[nSlot];
+            if ((f_accessor.getHeader(o) & (MINOR_MASK | WEAK_MASK)) == (MINOR_MASK | WEAK_MASK))
+                {
+                long pReferent = f_accessor.getField(o, WEAK_REFERENT_FIELD);
+                if (isYoung(pReferent) && !getHeaderBit(get(pReferent), MINOR_MASK))
+                    {
+                    stackNotify = clearWeak(o, nSlot, stackNotify);
+                    }
+                }
+            }
+
+        // free the unreachable, age the survivors and promote the tenured ones
+        int cKeep = 0;
+        for (int i = 0, c = stackYoung.size(); i < c; ++i)
+            {
+            int nSlot = stackYoung.get(i);
+            V o = m_aObjects[nSlot];
+            long lHeader = f_accessor.getHeader(o);
+            if ((lHeader & MINOR_MASK) == 0)
+                {
+                free(nSlot, o);
+                continue;
+                }
+
+            long nAge = ((lHeader & AGE_MASK) >>> AGE_SHIFT) + 1;
+            if (nAge >= TENURE_AGE)
+                {
+                f_accessor.setHeader(o, lHeader & ~(MINOR_MASK | YOUNG_MASK | AGE_MASK));
+                m_cbYoung -= f_accessor.getByteSize(o);
+                if (hasYoungField(o))
+                    {
+                    dirtyCard(nSlot);
+                    }
+                }
+            else
+                {
+                f_accessor.setHeader(o, (lHeader & ~(MINOR_MASK | AGE_MASK)) | (nAge << AGE_SHIFT));
+                stackYoung.set(cKeep++, nSlot);
+                }
+            }
+        stackYoung.truncate(cKeep);
+
+        // clean the cards that no longer refer to the young generation
+        for (int iCard = 0; iCard < abCards.length; ++iCard)
+            {
+            if (abCards[iCard] != 0 && !scanCard(iCard, false))
+                {
+                abCards[iCard] = 0;
+                }
+            }
+
+        notifyCleared(stackNotify);
+        }
+
+    /**
+     * Mark a young object as reachable by the current minor collection.
+     *
+     * @param address the object address
+     */
+    private void markYoung(long address)
+        {
+        if (isYoung(address) && !getAndSetHeaderBit(m_aObjects[slot(address)], MINOR_MASK, true))
+            {
+            f_stackMark.push(slot(address));
+            }
+        }
+
+    /**
+     * Scan the old objects on a given card for references to young objects.
+     *
+     * @param iCard the card index
+     * @param fMark {@code true} to mark the referenced young objects
+     * @return {@code true} if any of the objects refers to a young object
+     */
+    private boolean scanCard(int iCard, boolean fMark)
+        {
+        V[] aObjects = m_aObjects;
+        boolean fYoung = false;
+        for (int nSlot = iCard << CARD_SHIFT, nEnd = Math.min(nSlot + CARD_SIZE, aObjects.length); nSlot < nEnd; ++nSlot)
+            {
+            V o = aObjects[nSlot];
+            if (o != null && !getHeaderBit(o, YOUNG_MASK))
+                {
+                // note: the referents of old weak-refs are treated as strong until the old generation collects them
+                for (int i = 0, c = getFieldCount(o); i < c; ++i)
+                    {
+                    long address = f_accessor.getField(o, i);
+                    if (isYoung(address))
+                        {
+                        if (!fMark)
+                            {
+                            return true;
+                            }
+                        fYoung = true;
+                        markYoung(address);
+                        }
+                    }
+                }
+            }
+        return fYoung;
+        }
+
+    /**
+     * @param o the object
+     * @return {@code true} if any of the object's fields refers to a young object
+     */
+    private boolean hasYoungField(V o)
+        {
+        for (int i = 0, c = getFieldCount(o); i < c; ++i)
+            {
+            if (isYoung(f_accessor.getField(o, i)))
+                {
+                return true;
+                }
+            }
+        return false;
+        }
+
+    /**
+     * Mark the card holding the specified slot as dirty.
+     *
+     * @param nSlot the slot
+     */
+    private void dirtyCard(int nSlot)
+        {
+        m_abCards[nSlot >>> CARD_SHIFT] = 1;
+        }
+
+
+    // ----- old generation ------------------------------------------------------------------------
+
+    /**
+     * Advance the old generation cycle until it is either done or the deadline has passed.
+     *
+     * @param ldtStop the {@link System#nanoTime} deadline
+     * @param fForce  {@code true} to start a new cycle regardless of the old generation size
+     * @return {@code true} if the cycle is done (or there was nothing to do)
+     */
+    private boolean advance(long ldtStop, boolean fForce)
+        {
+        switch (m_nPhase)
+            {
+            case PHASE_IDLE:
+                if (!fForce && m_cBytes - m_cbYoung <= m_cbMajorThreshold)
+                    {
+                    return true;
+                    }
+                // the root scan is an increment on its own
+                startCycle();
+                return false;
+
+            case PHASE_MARK:
+                if (!mark(ldtStop))
+                    {
+                    return false;
+                    }
+                finishMark();
+                // fall through
+
+            case PHASE_SWEEP:
+                return sweep(ldtStop);
+
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * Start an old generation cycle by shading everything directly reachable from the roots.
+     */
+    private void startCycle()
+        {
+        // flip the meaning of the marker; everything allocated from now on is reachable in this cycle
+        m_fAllocationMarker = !m_fAllocationMarker;
+        m_nPhase = PHASE_MARK;
+
+        for (var root : f_setRoots)
+            {
+            for (var liter = root.get(); liter.hasNext(); )
+                {
+                shade(liter.next());
+                }
+            }
+        }
+
+    /**
+     * Mark an object as reachable by the current cycle, and queue it for its fields to be traced.
+     *
+     * @param address the object address
+     */
+    private void shade(long address)
+        {
+        V o = get(address);
+        if (o != null && getAndSetHeaderBit(o, MARKER_MASK, m_fAllocationMarker) != m_fAllocationMarker)
+            {
+            f_stackGray.push(slot(address));
+            }
+        }
+
+    /**
+     * Trace the queued objects until there are none left or the deadline has passed.
+     *
+     * @param ldtStop the {@link System#nanoTime} deadline
+     * @return {@code true} iff the marking is complete
+     */
+    private boolean mark(long ldtStop)
+        {
+        IntStack stackGray = f_stackGray;
+        for (int cWork = 1; !stackGray.isEmpty(); ++cWork)
+            {
+            if ((cWork & WORK_CHECK_MASK) == 0 && System.nanoTime() >= ldtStop)
+                {
+                return false;
+                }
+
+            // the slot could have been freed by a minor collection since (in which case the object was garbage), or
+            // even reused for a new object, which is already marked, so tracing it is merely conservative
+            V o = m_aObjects[stackGray.pop()];
+            if (o != null)
+                {
+                for (int i = getHeaderBit(o, WEAK_MASK) ? 1 : 0, c = getFieldCount(o); i < c; ++i)
+                    {
+                    shade(f_accessor.getField(o, i));
+                    }
+                }
+            }
+        return true;
+        }
+
+    /**
+     * Complete the marking by clearing the weak-refs to the unmarked objects. This must be done before any object is
+     * swept, as a swept slot could be reused by an (already marked) new object.
+     */
+    private void finishMark()
+        {
+        boolean fReachable = m_fAllocationMarker;
+        IntStack stackNotify = null;
+        for (int nSlot = f_bsWeak.nextSetBit(0); nSlot >= 0; nSlot = f_bsWeak.nextSetBit(nSlot + 1))
+            {
+            V o = m_aObjects[nSlot];
+            if (getHeaderBit(o, MARKER_MASK) == fReachable)
+                {
+                long pReferent = f_accessor.getField(o, WEAK_REFERENT_FIELD);
+                if (isLocal(pReferent))
+                    {
+                    V referent = get(pReferent);
+                    if (referent == null || getHeaderBit(referent, MARKER_MASK) != fReachable)
+                        {
+                        stackNotify = clearWeak(o, nSlot, stackNotify);
+                        }
+                    }
+                }
+            }
+
+        m_nPhase = PHASE_SWEEP;
+        m_iSweep = 0;
+        notifyCleared(stackNotify);
+        }
+
+    /**
+     * Free the unmarked old objects until all the slots have been swept or the deadline has passed. The young
+     * objects are left to the minor collections.
+     *
+     * @param ldtStop the {@link System#nanoTime} deadline
+     * @return {@code true} iff the cycle is complete
+     */
+    private boolean sweep(long ldtStop)
+        {
+        V[] aObjects = m_aObjects;
+        boolean fReachable = m_fAllocationMarker;
+        for (int i = m_iSweep, c = aObjects.length, cWork = 1; i < c; ++i, ++cWork)
+            {
+            if ((cWork & WORK_CHECK_MASK) == 0 && System.nanoTime() >= ldtStop)
+                {
+                m_iSweep = i;
+                return false;
+                }
+
+            V o = aObjects[i];
+            if (o != null)
+                {
+                long lHeader = f_accessor.getHeader(o);
+                if ((lHeader & YOUNG_MASK) == 0 && ((lHeader & MARKER_MASK) != 0) != fReachable)
+                    {
+                    free(i, o);
+                    }
+                }
+            }
+
+        long cbOld = m_cBytes - m_cbYoung;
+        long cbThreshold = Math.max(f_cbNursery * 4, cbOld * 2);
+        if (f_cbLimitSoft != Long.MAX_VALUE)
+            {
+            // don't wait for the soft limit to force a full collection
+            cbThreshold = Math.min(cbThreshold, Math.max(cbOld, f_cbLimitSoft / 2));
+            }
+        m_cbMajorThreshold = cbThreshold;
+        m_nPhase = PHASE_IDLE;
+        ++m_cCycles;
+        return true;
+        }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * Clear a weak-ref, and queue it for the notification if it has a notifier.
+     *
+     * @param weak        the weak-ref
+     * @param nSlot       the weak-ref's slot
+     * @param stackNotify the weak-refs to notify, or {@code null}
+     * @return the weak-refs to notify, or {@code null}
+     */
+    private IntStack clearWeak(V weak, int nSlot, IntStack stackNotify)
+        {
+        f_accessor.setField(weak, WEAK_REFERENT_FIELD, NULL);
+        if (getFieldCount(weak) > WEAK_NOTIFIER_FIELD && f_accessor.getField(weak, WEAK_NOTIFIER_FIELD) != NULL)
+            {
+            if (stackNotify == null)
+                {
+                stackNotify = new IntStack();
+                }
+            stackNotify.push(nSlot);
+            }
+        return stackNotify;
+        }
+
+    /**
+     * Notify the listener of the cleared weak-refs.
+     *
+     * @param stackNotify the weak-refs to notify, or {@code null}
+     */
+    private void notifyCleared(IntStack stackNotify)
+        {
+        if (stackNotify != null)
+            {
+            for (int i = 0, c = stackNotify.size(); i < c; ++i)
+                {
+                f_clearedListener.accept(address(stackNotify.get(i)));
+                }
+            }
+        }
+
+    /**
+     * Free an object.
+     *
+     * @param nSlot the object's slot
+     * @param o     the object
+     */
+    private void free(int nSlot, V o)
+        {
+        long cb = f_accessor.getByteSize(o);
+        m_cBytes -= cb;
+        if (getHeaderBit(o, YOUNG_MASK))
+            {
+            m_cbYoung -= cb;
+            }
+        if (getHeaderBit(o, WEAK_MASK))
+            {
+            f_bsWeak.clear(nSlot);
+            }
+
+        m_aObjects[nSlot] = null;
+        m_anFreeSlots[++m_nTopFree] = nSlot;
+        f_accessor.free(o);
+        }
+
+    /**
+     * Expand the size of this space.
+     */
+    private void grow()
+            throws OutOfMemoryError
+        {
+        int capOld = m_aObjects.length;
+        if (capOld == MAX_CAPACITY)
+            {
+            throw new OutOfMemoryError("address space exhausted");
+            }
+        int capNew = (int) Math.min((long) capOld * 2, MAX_CAPACITY);
+
+        int[] anFreeSlotsNew = new int[capNew];
+        for (int i = 0, c = capNew - capOld; i < c; ++i)
+            {
+            // hand out the lower slots first to keep the live objects (and dirty cards) dense
+            anFreeSlotsNew[i] = capNew - 1 - i;
+            }
+
+        m_nTopFree = capNew - capOld - 1;
+        m_anFreeSlots = anFreeSlotsNew;
+        m_aObjects = Arrays.copyOf(m_aObjects, capNew);
+        m_abCards = Arrays.copyOf(m_abCards, (capNew + CARD_SIZE - 1) >>> CARD_SHIFT);
+        }
+
+    /**
+     * Return the object at a given address.
+     *
+     * @param address the address of the object
+     * @return the object, or {@code null} if the address does not map to an object in this space
+     */
+    private V get(long address)
+        {
+        if (!isLocal(address))
+            {
+            return null;
+            }
+
+        int slot = slot(address);
+        return slot < m_aObjects.length ? m_aObjects[slot] : null;
+        }
+
+    /**
+     * Tests if the address is valid and if so return the storage object.
+     *
+     * @param address the address of the object
+     * @return the object
+     * @throws SegFault if the address is invalid
+     */
+    private V ensure(long address)
+            throws SegFault
+        {
+        if (address == NULL)
+            {
+            throw new NullPointerException();
+            }
+
+        V o = get(address);
+        if (o == null)
+            {
+            throw new SegFault();
+            }
+        return o;
+        }
+
+    /**
+     * @param address the address
+     * @return {@code true} if the address maps to a young object in this space
+     */
+    private boolean isYoung(long address)
+        {
+        V o = get(address);
+        return o != null && getHeaderBit(o, YOUNG_MASK);
+        }
+
+    /**
+     * Return the address of a slot.
+     *
+     * @param slot the slot
+     * @return the address
+     */
+    private long address(int slot)
+        {
+        return (((long) slot) << 32) | 1L;
+        }
+
+    /**
+     * Return the slot for a given address.
+     *
+     * @param address the address
+     * @return the slot
+     */
+    private int slot(long address)
+        {
+        return (int) (address >>> 32);
+        }
+
+    /**
+     * Return {@code true} if the address represents a local address.
+     *
+     * @param address the address
+     * @return {@code true} if the address represents a local address
+     */
+    private boolean isLocal(long address)
+        {
+        return (address & 1) == 1;
+        }
+
+    /**
+     * Get a single bit from the header.
+     *
+     * @param o    the object to query
+     * @param mask the header mask to check against
+     * @return the bit value
+     */
+    private boolean getHeaderBit(V o, long mask)
+        {
+        return (f_accessor.getHeader(o) & mask) != 0;
+        }
+
+    /**
+     * Get and set the header bit for the given mask.
+     *
+     * @param o     the object
+     * @param mask  the header mask
+     * @param value the updated bit value
+     * @return the old bit value
+     */
+    private boolean getAndSetHeaderBit(V o, long mask, boolean value)
+        {
+        long header = f_accessor.getHeader(o);
+        f_accessor.setHeader(o, value ? header | mask : header & ~mask);
+        return (header & mask) != 0;
+        }
+
+    /**
+     * Return the number of fields contained in the object.
+     *
+     * @param o the object
+     * @return the field count
+     */
+    private int getFieldCount(V o)
+        {
+        return (int) ((f_accessor.getHeader(o) & FIELD_COUNT_MASK) >>> FIELD_COUNT_SHIFT);
+        }
+
+
+    // ----- inner class: IntStack -----------------------------------------------------------------
+
+    /**
+     * A growable stack of slots.
+     */
+    private static class IntStack
+        {
+        void push(int n)
+            {
+            if (m_c == m_an.length)
+                {
+                m_an = Arrays.copyOf(m_an, m_c * 2);
+                }
+            m_an[m_c++] = n;
+            }
+
+        int pop()
+            {
+            return m_an[--m_c];
+            }
+
+        int get(int i)
+            {
+            return m_an[i];
+            }
+
+        void set(int i, int n)
+            {
+            m_an[i] = n;
+            }
+
+        int size()
+            {
+            return m_c;
+            }
+
+        boolean isEmpty()
+            {
+            return m_c == 0;
+            }
+
+        void truncate(int c)
+            {
+            m_c = c;
+            }
+
+        private int[] m_an = new int[64];
+        private int   m_c;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The bit-mask in the header used to mark the object as being reachable by the old generation cycle.
+     */
+    static final long MARKER_MASK = 0x1;
+
+    /**
+     * The bit-mask in the header used to indicate if the object represents a "weak" ref which requires special
+     * handling.
+     */
+    static final long WEAK_MASK = 0x2;
+
+    /**
+     * The bit-mask in the header encoding the field count.
+     */
+    static final long FIELD_COUNT_MASK = 0xFFC;
+
+    /**
+     * The right shift of the post masked {@link #FIELD_COUNT_MASK} to obtain the field count.
+     */
+    static final int FIELD_COUNT_SHIFT = 2;
+
+    /**
+     * The bit-mask in the header indicating that the object belongs to the young generation.
+     */
+    static final long YOUNG_MASK = 0x1000;
+
+    /**
+     * The bit-mask in the header used to mark the object as being reachable by the current minor collection.
+     */
+    static final long MINOR_MASK = 0x2000;
+
+    /**
+     * The bit-mask in the header encoding the number of minor collections a young object has survived.
+     */
+    static final long AGE_MASK = 0xC000;
+
+    /**
+     * The right shift of the post masked {@link #AGE_MASK} to obtain the age.
+     */
+    static final int AGE_SHIFT = 14;
+
+    /**
+     * The number of minor collections an object has to survive to be promoted.
+     */
+    static final int TENURE_AGE = 2;
+
+    /**
+     * The log2 of the number of slots covered by a card.
+     */
+    static final int CARD_SHIFT = 6;
+
+    /**
+     * The number of slots covered by a card.
+     */
+    static final int CARD_SIZE = 1 << CARD_SHIFT;
+
+    /**
+     * The number of units of work (traced objects or swept slots) between the deadline checks, minus one.
+     */
+    static final int WORK_CHECK_MASK = 0x3F;
+
+    /**
+     * The default size of the young generation.
+     */
+    static final long DEFAULT_NURSERY_SIZE = 4L * 1024 * 1024;
+
+    /**
+     * The default time budget for an allocation-paced increment.
+     */
+    static final long DEFAULT_STEP_NANOS = 500_000;
+
+    /**
+     * The maximum number of slots.
+     */
+    static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * The old generation cycle phases.
+     */
+    static final int PHASE_IDLE = 0, PHASE_MARK = 1, PHASE_SWEEP = 2;
+
+    /**
+     * The means by which we access an objects storage.
+     */
+    final ObjectManager<V> f_accessor;
+
+    /**
+     * The listener to notify when weak-refs become clearable
+     */
+    final LongConsumer f_clearedListener;
+
+    /**
+     * The size in bytes we will try to stay below.
+     */
+    final long f_cbLimitSoft;
+
+    /**
+     * The maximum size (in bytes) we can grow to.
+     */
+    final long f_cbLimitHard;
+
+    /**
+     * The size of the young generation that triggers a minor collection.
+     */
+    final long f_cbNursery;
+
+    /**
+     * The time budget of an allocation-paced increment.
+     */
+    final long f_cNanosStep;
+
+    /**
+     * The amount of memory retained by this {@link GenerationalGcSpace}.
+     */
+    long m_cBytes;
+
+    /**
+     * The amount of memory retained by the young generation.
+     */
+    long m_cbYoung;
+
+    /**
+     * The old generation size that triggers a new cycle.
+     */
+    long m_cbMajorThreshold;
+
+    /**
+     * The index of the top element in {@link #m_anFreeSlots} that represents a free slot in {@link #m_aObjects}.
+     */
+    int m_nTopFree;
+
+    /**
+     * The slots available in {@link #m_aObjects}
+     */
+    int[] m_anFreeSlots = new int[1024];
+
+    /**
+     * References to our objects, based on their {@link #slot(long)} address.
+     */
+    @SuppressWarnings("unchecked")
+    V[] m_aObjects = (V[]) new Object[m_anFreeSlots.length];
+
+    /**
+     * The card table; a non-zero entry indicates that an old object in the card may refer to a young one.
+     */
+    byte[] m_abCards = new byte[m_aObjects.length >>> CARD_SHIFT];
+
+    /**
+     * The slots of the young objects.
+     */
+    final IntStack f_stackYoung = new IntStack();
+
+    /**
+     * The slots of the young objects to be traced by the current minor collection.
+     */
+    final IntStack f_stackMark = new IntStack();
+
+    /**
+     * The slots of the objects to be traced by the current old generation cycle.
+     */
+    final IntStack f_stackGray = new IntStack();
+
+    /**
+     * The slots of the weak-refs.
+     */
+    final BitSet f_bsWeak = new BitSet();
+
+    /**
+     * The "gc" roots for this space.
+     */
+    final Set<Supplier<? extends LongMuterator>> f_setRoots = new HashSet<>();
+
+    /**
+     * The marker to set on newly allocated objects; during an old generation cycle it is also the marker of the
+     * reachable objects.
+     */
+    boolean m_fAllocationMarker;
+
+    /**
+     * The current phase of the old generation cycle.
+     */
+    int m_nPhase = PHASE_IDLE;
+
+    /**
+     * The next slot to sweep.
+     */
+    int m_iSweep;
+
+    /**
+     * The number of completed old generation cycles.
+     */
+    long m_cCycles;
+
+    /**
+     * The pause times of the minor collections.
+     */
+    final PauseHistogram f_histMinor = new PauseHistogram();
+
+    /**
+     * The pause times of the old generation increments.
+     */
+    final PauseHistogram f_histIncremental = new PauseHistogram();
+
+    /**
+     * The pause times of the full collections.
+     */
+    final PauseHistogram f_histFull = new PauseHistogram();
+    }
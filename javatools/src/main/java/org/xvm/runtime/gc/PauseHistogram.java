@@ -0,0 +1,155 @@
+package org.xvm.runtime.gc;
+
+
+/**
+ * A histogram of pause times.
+ * <p>
+ * The pauses are counted in buckets whose upper bounds are powers of two nanoseconds, so any reported percentile is
+ * within a factor of two of the actual value; the count, total and maximum are exact.
+ */
+public class PauseHistogram
+    {
+    /**
+     * Record a pause.
+     *
+     * @param cNanos the pause duration in nanoseconds
+     */
+    public void record(long cNanos)
+        {
+        if (cNanos < 0)
+            {
+            cNanos = 0;
+            }
+
+        ++m_anBuckets[bucket(cNanos)];
+        ++m_cPauses;
+        m_cNanosTotal += cNanos;
+        m_cNanosMax = Math.max(m_cNanosMax, cNanos);
+        }
+
+    /**
+     * @return the number of recorded pauses
+     */
+    public long getCount()
+        {
+        return m_cPauses;
+        }
+
+    /**
+     * @return the sum of all recorded pauses in nanoseconds
+     */
+    public long getTotalNanos()
+        {
+        return m_cNanosTotal;
+        }
+
+    /**
+     * @return the longest recorded pause in nanoseconds
+     */
+    public long getMaxNanos()
+        {
+        return m_cNanosMax;
+        }
+
+    /**
+     * Return the (approximate) pause duration which the specified percentage of the pauses did not exceed.
+     *
+     * @param dPercentile the percentile in the range {@code [0, 100]}
+     * @return the upper bound of the pause duration in nanoseconds, or zero if nothing has been recorded
+     */
+    public long getPercentileNanos(double dPercentile)
+        {
+        if (dPercentile < 0 || dPercentile > 100)
+            {
+            throw new IllegalArgumentException("percentile=" + dPercentile);
+            }
+
+        long cPauses = m_cPauses;
+        if (cPauses == 0)
+            {
+            return 0;
+            }
+
+        long cRank = Math.max(1, (long) Math.ceil(cPauses * dPercentile / 100));
+        long cSeen = 0;
+        for (int i = 0; i < BUCKETS; ++i)
+            {
+            cSeen += m_anBuckets[i];
+            if (cSeen >= cRank)
+                {
+                return Math.min(upperBound(i), m_cNanosMax);
+                }
+            }
+        return m_cNanosMax;
+        }
+
+    /**
+     * Discard all the recorded pauses.
+     */
+    public void reset()
+        {
+        m_anBuckets = new long[BUCKETS];
+        m_cPauses = 0;
+        m_cNanosTotal = 0;
+        m_cNanosMax = 0;
+        }
+
+    @Override
+    public String toString()
+        {
+        long cPauses = m_cPauses;
+        return "count=" + cPauses +
+               ", mean=" + (cPauses == 0 ? 0 : m_cNanosTotal / cPauses / 1000) + "us" +
+               ", p50=" + getPercentileNanos(50) / 1000 + "us" +
+               ", p99=" + getPercentileNanos(99) / 1000 + "us" +
+               ", max=" + m_cNanosMax / 1000 + "us";
+        }
+
+    /**
+     * Return the bucket for a given pause duration.
+     *
+     * @param cNanos the pause duration
+     * @return the bucket index
+     */
+    private static int bucket(long cNanos)
+        {
+        // bucket i holds the durations in (2^(i-1), 2^i]
+        return cNanos <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(cNanos - 1);
+        }
+
+    /**
+     * Return the largest pause duration that could be counted in a given bucket.
+     *
+     * @param iBucket the bucket index
+     * @return the upper bound
+     */
+    private static long upperBound(int iBucket)
+        {
+        return iBucket >= 63 ? Long.MAX_VALUE : 1L << iBucket;
+        }
+
+    /**
+     * The number of buckets.
+     */
+    private static final int BUCKETS = 64;
+
+    /**
+     * The pause counts per bucket.
+     */
+    private long[] m_anBuckets = new long[BUCKETS];
+
+    /**
+     * The number of recorded pauses.
+     */
+    private long m_cPauses;
+
+    /**
+     * The sum of the recorded pauses.
+     */
+    private long m_cNanosTotal;
+
+    /**
+     * The longest recorded pause.
+     */
+    private long m_cNanosMax;
+    }
@@ -0,0 +1,22 @@
+package org.xvm.runtime.template._native.collections.arrays;
+
+import org.xvm.runtime.template._native.collections.arrays.xRTDelegate.DelegateHandle;
+
+/**
+ * A ClassTemplate implementation that knows how to copy a range of elements directly between two
+ * underlying storages.
+ */
+public interface BulkCopy
+    {
+    /**
+     * Copy the elements in the specified range of the source delegate into the target delegate.
+     *
+     * @param hTarget   the delegate to copy to
+     * @param ofTarget  the offset of the first element in the target
+     * @param hSource   the source delegate (could be the same as the target)
+     * @param ofSource  the offset of the first element in the source
+     * @param cSize     the number of elements
+     */
+    void copyImpl(DelegateHandle hTarget, long ofTarget,
+                  DelegateHandle hSource, long ofSource, long cSize);
+    }
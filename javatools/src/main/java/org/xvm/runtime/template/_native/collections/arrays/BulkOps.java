@@ -0,0 +1,42 @@
+package org.xvm.runtime.template._native.collections.arrays;
+
+import org.xvm.runtime.ObjectHandle;
+
+import org.xvm.runtime.template._native.collections.arrays.xRTDelegate.DelegateHandle;
+
+/**
+ * A ClassTemplate implementation that, in addition to reading, knows how to modify a range of
+ * elements directly in the underlying storage.
+ */
+public interface BulkOps
+        extends BulkView
+    {
+    /**
+     * Replace all the elements in the specified range with the specified value.
+     *
+     * @param hTarget  the delegate
+     * @param ofStart  the offset of the first element
+     * @param cSize    the number of elements
+     * @param hValue   the value
+     */
+    void fillImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue);
+
+    /**
+     * Sort the elements in the specified range according to their natural order.
+     *
+     * @param hTarget  the delegate
+     * @param ofStart  the offset of the first element
+     * @param cSize    the number of elements
+     */
+    void sortImpl(DelegateHandle hTarget, long ofStart, long cSize);
+
+    /**
+     * Append the elements in the specified range of the source delegate to the target delegate.
+     *
+     * @param hTarget  the delegate to append to
+     * @param hSource  the source delegate (could be the same as the target)
+     * @param ofStart  the offset of the first element in the source
+     * @param cSize    the number of elements
+     */
+    void appendImpl(DelegateHandle hTarget, DelegateHandle hSource, long ofStart, long cSize);
+    }
@@ -0,0 +1,66 @@
+package org.xvm.runtime.template._native.collections.arrays;
+
+import org.xvm.runtime.ObjectHandle;
+
+import org.xvm.runtime.template._native.collections.arrays.xRTDelegate.DelegateHandle;
+
+/**
+ * A ClassTemplate implementation that knows how to read a range of elements directly from the
+ * underlying storage, without creating a handle for each element. The delegate handles passed to
+ * these methods always belong to the template, and the ranges are always within the storage.
+ */
+public interface BulkView
+    {
+    /**
+     * Find the first element in the specified range that is equal to the specified value.
+     *
+     * @param hTarget  the delegate
+     * @param ofStart  the offset of the first element
+     * @param cSize    the number of elements
+     * @param hValue   the value to look for
+     *
+     * @return the index of the element relative to the range start, or -1 if there is none
+     */
+    long indexOfImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue);
+
+    /**
+     * Check whether the elements in the specified ranges of two delegates are equal.
+     *
+     * @param hTarget1  the first delegate
+     * @param ofStart1  the offset of the first element in the first delegate
+     * @param hTarget2  the second delegate
+     * @param ofStart2  the offset of the first element in the second delegate
+     * @param cSize     the number of elements
+     *
+     * @return true iff the elements are equal
+     */
+    boolean equalsImpl(DelegateHandle hTarget1, long ofStart1,
+                       DelegateHandle hTarget2, long ofStart2, long cSize);
+
+    /**
+     * Compare the elements in the specified ranges of two delegates lexicographically.
+     *
+     * @param hTarget1  the first delegate
+     * @param ofStart1  the offset of the first element in the first delegate
+     * @param cSize1    the number of elements in the first range
+     * @param hTarget2  the second delegate
+     * @param ofStart2  the offset of the first element in the second delegate
+     * @param cSize2    the number of elements in the second range
+     *
+     * @return a negative integer, zero, or a positive integer as the first range is less than,
+     *         equal to, or greater than the second one
+     */
+    int compareImpl(DelegateHandle hTarget1, long ofStart1, long cSize1,
+                    DelegateHandle hTarget2, long ofStart2, long cSize2);
+
+    /**
+     * Compute the hash code of the elements in the specified range.
+     *
+     * @param hTarget  the delegate
+     * @param ofStart  the offset of the first element
+     * @param cSize    the number of elements
+     *
+     * @return the sum of the hash codes of the elements
+     */
+    long hashCodeImpl(DelegateHandle hTarget, long ofStart, long cSize);
+    }
@@ -16,6 +16,7 @@ import org.xvm.runtime.template.collections.xArray.Mutability;
 import org.xvm.runtime.template.numbers.xBit;
 
 import org.xvm.runtime.template._native.collections.arrays.ByteBasedDelegate.ByteArrayHandle;
+import org.xvm.runtime.template._native.collections.arrays.xRTMappedDelegate.MappedHandle;
 import org.xvm.runtime.template._native.collections.arrays.xRTSlicingDelegate.SliceHandle;
 
 
@@ -44,6 +45,11 @@ public abstract class ByteBasedBitView
                 {
                 hSource = hView.unwrapSource();
                 }
+            else if (hSource instanceof MappedHandle hMapped)
+                {
+                // the bit views operate directly on the bytes
+                hSource = xRTMappedDelegate.INSTANCE.copyToHeap(hMapped);
+                }
 
             DelegateHandle hView = hSource instanceof ByteArrayHandle hBytes
                     ? new ViewHandle(clzView, hBytes, hBytes.getBitCount(), mutability)
@@ -56,6 +62,10 @@ public abstract class ByteBasedBitView
             {
             hSource = hView.unwrapSource();
             }
+        else if (hSource instanceof MappedHandle hMapped)
+            {
+            hSource = xRTMappedDelegate.INSTANCE.copyToHeap(hMapped);
+            }
 
         return hSource instanceof ByteArrayHandle hBytes
                     ? new ViewHandle(clzView, hBytes, hBytes.getBitCount(), mutability)
@@ -27,7 +27,7 @@ import org.xvm.runtime.template.numbers.xInt64;
  */
 public abstract class ByteBasedDelegate
         extends xRTDelegate
-        implements ByteView
+        implements ByteView, BulkCopy
     {
     public ByteBasedDelegate(Container container, ClassStructure structure)
         {
@@ -196,6 +196,17 @@ public abstract class ByteBasedDelegate
         }
 
 
+    // ----- BulkCopy implementation ---------------------------------------------------------------
+
+    @Override
+    public void copyImpl(DelegateHandle hTarget, long ofTarget,
+                         DelegateHandle hSource, long ofSource, long cSize)
+        {
+        System.arraycopy(((ByteArrayHandle) hSource).m_abValue, (int) ofSource,
+                         ((ByteArrayHandle) hTarget).m_abValue, (int) ofTarget, (int) cSize);
+        }
+
+
     // ----- ByteView implementation ---------------------------------------------------------------
 
     @Override
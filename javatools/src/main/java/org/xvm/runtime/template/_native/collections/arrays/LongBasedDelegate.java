@@ -29,7 +29,7 @@ import org.xvm.util.Handy;
  */
 public abstract class LongBasedDelegate
         extends xRTDelegate
-        implements BitView
+        implements BitView, BulkOps
     {
     protected LongBasedDelegate(Container container, ClassStructure structure,
                                 int nBitsPerValue, boolean fSigned)
@@ -240,6 +240,128 @@ public abstract class LongBasedDelegate
     protected abstract ObjectHandle makeElementHandle(long lValue);
 
 
+    // ----- BulkOps implementation ----------------------------------------------------------------
+
+    @Override
+    public long indexOfImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue)
+        {
+        long[] alValue = ((LongArrayHandle) hTarget).m_alValue;
+        long   lValue  = ((JavaLong) hValue).getValue();
+
+        for (long i = 0; i < cSize; i++)
+            {
+            if (getValue(alValue, ofStart + i) == lValue)
+                {
+                return i;
+                }
+            }
+        return -1;
+        }
+
+    @Override
+    public void fillImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue)
+        {
+        long[] alValue = ((LongArrayHandle) hTarget).m_alValue;
+        long   lValue  = ((JavaLong) hValue).getValue();
+
+        for (long i = ofStart, iEnd = ofStart + cSize; i < iEnd; i++)
+            {
+            setValue(alValue, i, lValue);
+            }
+        }
+
+    @Override
+    public void sortImpl(DelegateHandle hTarget, long ofStart, long cSize)
+        {
+        long[] alValue = ((LongArrayHandle) hTarget).m_alValue;
+        long[] alSort  = new long[(int) cSize];
+
+        // the unpacked values are either sign-extended or non-negative, so the natural order of
+        // the element type is the same as the order of the longs
+        for (int i = 0; i < cSize; i++)
+            {
+            alSort[i] = getValue(alValue, ofStart + i);
+            }
+        Arrays.sort(alSort);
+        for (int i = 0; i < cSize; i++)
+            {
+            setValue(alValue, ofStart + i, alSort[i]);
+            }
+        }
+
+    @Override
+    public boolean equalsImpl(DelegateHandle hTarget1, long ofStart1,
+                              DelegateHandle hTarget2, long ofStart2, long cSize)
+        {
+        long[] alValue1 = ((LongArrayHandle) hTarget1).m_alValue;
+        long[] alValue2 = ((LongArrayHandle) hTarget2).m_alValue;
+
+        for (long i = 0; i < cSize; i++)
+            {
+            if (getValue(alValue1, ofStart1 + i) != getValue(alValue2, ofStart2 + i))
+                {
+                return false;
+                }
+            }
+        return true;
+        }
+
+    @Override
+    public int compareImpl(DelegateHandle hTarget1, long ofStart1, long cSize1,
+                           DelegateHandle hTarget2, long ofStart2, long cSize2)
+        {
+        long[] alValue1 = ((LongArrayHandle) hTarget1).m_alValue;
+        long[] alValue2 = ((LongArrayHandle) hTarget2).m_alValue;
+
+        for (long i = 0, c = Math.min(cSize1, cSize2); i < c; i++)
+            {
+            int nOrder = Long.compare(getValue(alValue1, ofStart1 + i),
+                                      getValue(alValue2, ofStart2 + i));
+            if (nOrder != 0)
+                {
+                return nOrder;
+                }
+            }
+        return Long.compare(cSize1, cSize2);
+        }
+
+    @Override
+    public long hashCodeImpl(DelegateHandle hTarget, long ofStart, long cSize)
+        {
+        // the hash code of an integer value is the value itself
+        long[] alValue = ((LongArrayHandle) hTarget).m_alValue;
+        long   lHash   = 0;
+
+        for (long i = ofStart, iEnd = ofStart + cSize; i < iEnd; i++)
+            {
+            lHash += getValue(alValue, i);
+            }
+        return lHash;
+        }
+
+    @Override
+    public void appendImpl(DelegateHandle hTarget, DelegateHandle hSource, long ofStart, long cSize)
+        {
+        LongArrayHandle hDelegate = (LongArrayHandle) hTarget;
+        long            cOld      = hDelegate.m_cSize;
+        long            cNew      = cOld + cSize;
+
+        if (storage(cNew) > hDelegate.m_alValue.length)
+            {
+            hDelegate.m_alValue = grow(hDelegate.m_alValue, storage(cNew));
+            }
+        hDelegate.m_cSize = cNew;
+
+        // the source array is read after the growth, in case it is the same delegate
+        long[] alSource = ((LongArrayHandle) hSource).m_alValue;
+        long[] alTarget = hDelegate.m_alValue;
+        for (long i = 0; i < cSize; i++)
+            {
+            setValue(alTarget, cOld + i, getValue(alSource, ofStart + i));
+            }
+        }
+
+
     // ----- BitView implementation ----------------------------------------------------------------
 
     @Override
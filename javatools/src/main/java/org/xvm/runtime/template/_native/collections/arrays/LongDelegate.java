@@ -190,6 +190,115 @@ public abstract class LongDelegate
         }
 
 
+    // ----- BulkOps implementation ----------------------------------------------------------------
+
+    @Override
+    public long indexOfImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue)
+        {
+        long[] alValue = ((LongArrayHandle) hTarget).m_alValue;
+        long   lValue  = ((JavaLong) hValue).getValue();
+        int    of      = (int) ofStart;
+
+        for (int i = 0, c = (int) cSize; i < c; i++)
+            {
+            if (alValue[of + i] == lValue)
+                {
+                return i;
+                }
+            }
+        return -1;
+        }
+
+    @Override
+    public void fillImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue)
+        {
+        Arrays.fill(((LongArrayHandle) hTarget).m_alValue, (int) ofStart, (int) (ofStart + cSize),
+                ((JavaLong) hValue).getValue());
+        }
+
+    @Override
+    public void sortImpl(DelegateHandle hTarget, long ofStart, long cSize)
+        {
+        long[] alValue = ((LongArrayHandle) hTarget).m_alValue;
+        int    ofFrom  = (int) ofStart;
+        int    ofTo    = (int) (ofStart + cSize);
+
+        if (f_fSigned)
+            {
+            Arrays.sort(alValue, ofFrom, ofTo);
+            }
+        else
+            {
+            // flipping the sign bit maps the unsigned order onto the signed one
+            for (int i = ofFrom; i < ofTo; i++)
+                {
+                alValue[i] ^= Long.MIN_VALUE;
+                }
+            Arrays.sort(alValue, ofFrom, ofTo);
+            for (int i = ofFrom; i < ofTo; i++)
+                {
+                alValue[i] ^= Long.MIN_VALUE;
+                }
+            }
+        }
+
+    @Override
+    public boolean equalsImpl(DelegateHandle hTarget1, long ofStart1,
+                              DelegateHandle hTarget2, long ofStart2, long cSize)
+        {
+        return Arrays.equals(
+                ((LongArrayHandle) hTarget1).m_alValue, (int) ofStart1, (int) (ofStart1 + cSize),
+                ((LongArrayHandle) hTarget2).m_alValue, (int) ofStart2, (int) (ofStart2 + cSize));
+        }
+
+    @Override
+    public int compareImpl(DelegateHandle hTarget1, long ofStart1, long cSize1,
+                           DelegateHandle hTarget2, long ofStart2, long cSize2)
+        {
+        long[] alValue1 = ((LongArrayHandle) hTarget1).m_alValue;
+        long[] alValue2 = ((LongArrayHandle) hTarget2).m_alValue;
+        int    ofFrom1  = (int) ofStart1;
+        int    ofFrom2  = (int) ofStart2;
+        int    ofTo1    = (int) (ofStart1 + cSize1);
+        int    ofTo2    = (int) (ofStart2 + cSize2);
+
+        return f_fSigned
+                ? Arrays.compare(alValue1, ofFrom1, ofTo1, alValue2, ofFrom2, ofTo2)
+                : Arrays.compareUnsigned(alValue1, ofFrom1, ofTo1, alValue2, ofFrom2, ofTo2);
+        }
+
+    @Override
+    public long hashCodeImpl(DelegateHandle hTarget, long ofStart, long cSize)
+        {
+        long[] alValue = ((LongArrayHandle) hTarget).m_alValue;
+        long   lHash   = 0;
+
+        for (int i = (int) ofStart, iEnd = (int) (ofStart + cSize); i < iEnd; i++)
+            {
+            lHash += alValue[i];
+            }
+        return lHash;
+        }
+
+    @Override
+    public void appendImpl(DelegateHandle hTarget, DelegateHandle hSource, long ofStart, long cSize)
+        {
+        LongArrayHandle hDelegate = (LongArrayHandle) hTarget;
+        int             cOld      = (int) hDelegate.m_cSize;
+        int             cNew      = cOld + (int) cSize;
+
+        if (cNew > hDelegate.m_alValue.length)
+            {
+            hDelegate.m_alValue = grow(hDelegate.m_alValue, cNew);
+            }
+        hDelegate.m_cSize = cNew;
+
+        // the source array is read after the growth, in case it is the same delegate
+        System.arraycopy(((LongArrayHandle) hSource).m_alValue, (int) ofStart,
+                hDelegate.m_alValue, cOld, (int) cSize);
+        }
+
+
     // ----- helper methods ------------------------------------------------------------------------
 
     @Override
@@ -30,6 +30,7 @@ import org.xvm.runtime.template.text.xChar;
  */
 public class xRTCharDelegate
         extends xRTDelegate
+        implements BulkOps
     {
     public static xRTCharDelegate INSTANCE;
 
@@ -262,6 +263,89 @@ public class xRTCharDelegate
         }
 
 
+    // ----- BulkOps implementation ----------------------------------------------------------------
+
+    @Override
+    public long indexOfImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue)
+        {
+        char[] achValue = ((CharArrayHandle) hTarget).m_achValue;
+        char   chValue  = (char) ((JavaLong) hValue).getValue();
+        int    of       = (int) ofStart;
+
+        for (int i = 0, c = (int) cSize; i < c; i++)
+            {
+            if (achValue[of + i] == chValue)
+                {
+                return i;
+                }
+            }
+        return -1;
+        }
+
+    @Override
+    public void fillImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue)
+        {
+        Arrays.fill(((CharArrayHandle) hTarget).m_achValue, (int) ofStart, (int) (ofStart + cSize),
+                (char) ((JavaLong) hValue).getValue());
+        }
+
+    @Override
+    public void sortImpl(DelegateHandle hTarget, long ofStart, long cSize)
+        {
+        Arrays.sort(((CharArrayHandle) hTarget).m_achValue, (int) ofStart, (int) (ofStart + cSize));
+        }
+
+    @Override
+    public boolean equalsImpl(DelegateHandle hTarget1, long ofStart1,
+                              DelegateHandle hTarget2, long ofStart2, long cSize)
+        {
+        return Arrays.equals(
+                ((CharArrayHandle) hTarget1).m_achValue, (int) ofStart1, (int) (ofStart1 + cSize),
+                ((CharArrayHandle) hTarget2).m_achValue, (int) ofStart2, (int) (ofStart2 + cSize));
+        }
+
+    @Override
+    public int compareImpl(DelegateHandle hTarget1, long ofStart1, long cSize1,
+                           DelegateHandle hTarget2, long ofStart2, long cSize2)
+        {
+        return Arrays.compare(
+                ((CharArrayHandle) hTarget1).m_achValue, (int) ofStart1, (int) (ofStart1 + cSize1),
+                ((CharArrayHandle) hTarget2).m_achValue, (int) ofStart2, (int) (ofStart2 + cSize2));
+        }
+
+    @Override
+    public long hashCodeImpl(DelegateHandle hTarget, long ofStart, long cSize)
+        {
+        // the hash code of a Char is its codepoint (see xChar.buildHashCode)
+        char[] achValue = ((CharArrayHandle) hTarget).m_achValue;
+        long   lHash    = 0;
+
+        for (int i = (int) ofStart, iEnd = (int) (ofStart + cSize); i < iEnd; i++)
+            {
+            lHash += achValue[i];
+            }
+        return lHash;
+        }
+
+    @Override
+    public void appendImpl(DelegateHandle hTarget, DelegateHandle hSource, long ofStart, long cSize)
+        {
+        CharArrayHandle hDelegate = (CharArrayHandle) hTarget;
+        int             cOld      = (int) hDelegate.m_cSize;
+        int             cNew      = cOld + (int) cSize;
+
+        if (cNew > hDelegate.m_achValue.length)
+            {
+            hDelegate.m_achValue = grow(hDelegate.m_achValue, cNew);
+            }
+        hDelegate.m_cSize = cNew;
+
+        // the source array is read after the growth, in case it is the same delegate
+        System.arraycopy(((CharArrayHandle) hSource).m_achValue, (int) ofStart,
+                hDelegate.m_achValue, cOld, (int) cSize);
+        }
+
+
     // ----- helper methods ------------------------------------------------------------------------
 
     public static char[] getChars(CharArrayHandle hChars, int ofStart, int cChars, boolean fReverse)
@@ -27,6 +27,7 @@ import org.xvm.runtime.template.IndexSupport;
 import org.xvm.runtime.template.xBoolean;
 import org.xvm.runtime.template.xEnum.EnumHandle;
 import org.xvm.runtime.template.xException;
+import org.xvm.runtime.template.xOrdered;
 
 import org.xvm.runtime.template.collections.xArray;
 import org.xvm.runtime.template.collections.xArray.Mutability;
@@ -34,6 +35,8 @@ import org.xvm.runtime.template.collections.xArray.Mutability;
 import org.xvm.runtime.template.numbers.xInt64;
 import org.xvm.runtime.template.xNullable;
 
+import org.xvm.runtime.template._native.collections.arrays.xRTSlicingDelegate.SliceHandle;
+
 
 /**
  * The native RTDelegate<Object> implementation.
@@ -124,6 +127,15 @@ public class xRTDelegate
             markNativeMethod("delete", INT, THIS);
             markNativeMethod("reify", null, null);
 
+            markNativeMethod("findElement", null, null);
+            markNativeMethod("fillElements", null, BOOLEAN);
+            markNativeMethod("sortElements", VOID, BOOLEAN);
+            markNativeMethod("equalElements", null, null);
+            markNativeMethod("compareElements", null, null);
+            markNativeMethod("hashElements", VOID, null);
+            markNativeMethod("appendElements", null, BOOLEAN);
+            markNativeMethod("replaceElements", null, BOOLEAN);
+
             invalidateTypeInfo();
             }
         }
@@ -255,6 +267,15 @@ public class xRTDelegate
                         : Mutability.values()[((EnumHandle) hArg).getOrdinal()];
                 return frame.assignValue(iReturn, createCopy(hDelegate, mutability));
                 }
+
+            case "equalElements":   // the Boolean part only
+            case "compareElements": // the Boolean part only
+                return frame.assignValue(iReturn, xBoolean.makeHandle(
+                        getBulkStore((DelegateHandle) hTarget, (DelegateHandle) hArg) != null));
+
+            case "appendElements":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(
+                        appendElements((DelegateHandle) hTarget, (DelegateHandle) hArg)));
             }
 
         return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
@@ -271,11 +292,110 @@ public class xRTDelegate
 
             case "setElement":
                 return assignArrayValue(frame, hTarget, ((JavaLong) ahArg[0]).getValue(), ahArg[1]);
+
+            case "findElement": // the Boolean part only
+            case "hashElements": // the Boolean part only
+                return frame.assignValue(iReturn, xBoolean.makeHandle(
+                        getBulkStore((DelegateHandle) hTarget) != null));
+
+            case "fillElements":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(
+                        fillElements((DelegateHandle) hTarget, ahArg[0],
+                            ((JavaLong) ahArg[1]).getValue(), ((JavaLong) ahArg[2]).getValue())));
+
+            case "sortElements":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(
+                        sortElements((DelegateHandle) hTarget)));
+
+            case "replaceElements":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(
+                        replaceElements((DelegateHandle) hTarget,
+                            ((JavaLong) ahArg[0]).getValue(), (DelegateHandle) ahArg[1])));
             }
 
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
         }
 
+    @Override
+    public int invokeNativeNN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                              ObjectHandle[] ahArg, int[] aiReturn)
+        {
+        DelegateHandle hDelegate = (DelegateHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "findElement": // conditional Int findElement(Element value, Int startAt)
+                {
+                DelegateHandle hStore = getBulkStore(hDelegate);
+                if (hStore == null)
+                    {
+                    return frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                    }
+
+                long ofStart = Math.max(((JavaLong) ahArg[1]).getValue(), 0);
+                long cSize   = hDelegate.m_cSize;
+                long lIndex  = -1;
+                if (ofStart < cSize)
+                    {
+                    lIndex = ((BulkView) hStore.getTemplate()).indexOfImpl(hStore,
+                                getBulkOffset(hDelegate) + ofStart, cSize - ofStart, ahArg[0]);
+                    if (lIndex >= 0)
+                        {
+                        lIndex += ofStart;
+                        }
+                    }
+                return frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(lIndex));
+                }
+
+            case "equalElements": // conditional Boolean equalElements(ArrayDelegate that)
+                {
+                DelegateHandle hThat  = (DelegateHandle) ahArg[0];
+                DelegateHandle hStore = getBulkStore(hDelegate, hThat);
+                if (hStore == null)
+                    {
+                    return frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                    }
+
+                long    cSize  = hDelegate.m_cSize;
+                boolean fEqual = cSize == hThat.m_cSize &&
+                    ((BulkView) hStore.getTemplate()).equalsImpl(
+                        hStore, getBulkOffset(hDelegate),
+                        getBulkStore(hThat), getBulkOffset(hThat), cSize);
+                return frame.assignValues(aiReturn, xBoolean.TRUE, xBoolean.makeHandle(fEqual));
+                }
+
+            case "compareElements": // conditional Ordered compareElements(ArrayDelegate that)
+                {
+                DelegateHandle hThat  = (DelegateHandle) ahArg[0];
+                DelegateHandle hStore = getBulkStore(hDelegate, hThat);
+                if (hStore == null)
+                    {
+                    return frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                    }
+
+                int nOrder = ((BulkView) hStore.getTemplate()).compareImpl(
+                        hStore, getBulkOffset(hDelegate), hDelegate.m_cSize,
+                        getBulkStore(hThat), getBulkOffset(hThat), hThat.m_cSize);
+                return frame.assignValues(aiReturn, xBoolean.TRUE, xOrdered.makeHandle(nOrder));
+                }
+
+            case "hashElements": // conditional Int64 hashElements()
+                {
+                DelegateHandle hStore = getBulkStore(hDelegate);
+                if (hStore == null)
+                    {
+                    return frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                    }
+
+                long lHash = ((BulkView) hStore.getTemplate()).hashCodeImpl(
+                        hStore, getBulkOffset(hDelegate), hDelegate.m_cSize);
+                return frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(lHash));
+                }
+            }
+
+        return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
+        }
+
     @Override
     public int callEquals(Frame frame, TypeComposition clazz,
                           ObjectHandle hValue1, ObjectHandle hValue2, int iReturn)
@@ -516,6 +636,100 @@ public class xRTDelegate
         return hDelegate;
         }
 
+    /**
+     * "fillElements(Element value, Int from, Int count)" implementation.
+     *
+     * @return true iff the elements have been filled
+     */
+    protected boolean fillElements(DelegateHandle hTarget, ObjectHandle hValue, long ofStart,
+                                   long cFill)
+        {
+        DelegateHandle hStore = getBulkStore(hTarget);
+        if (hStore == null || !(hStore.getTemplate() instanceof BulkOps ops) ||
+                !isInPlace(hTarget) || !isInPlace(hStore) ||
+                ofStart < 0 || cFill < 0 || ofStart + cFill > hTarget.m_cSize)
+            {
+            return false;
+            }
+
+        ops.fillImpl(hStore, getBulkOffset(hTarget) + ofStart, cFill, hValue);
+        return true;
+        }
+
+    /**
+     * "sortElements()" implementation.
+     *
+     * @return true iff the elements have been sorted
+     */
+    protected boolean sortElements(DelegateHandle hTarget)
+        {
+        DelegateHandle hStore = getBulkStore(hTarget);
+        if (hStore == null || !(hStore.getTemplate() instanceof BulkOps ops) ||
+                !isInPlace(hTarget) || !isInPlace(hStore))
+            {
+            return false;
+            }
+
+        ops.sortImpl(hStore, getBulkOffset(hTarget), hTarget.m_cSize);
+        return true;
+        }
+
+    /**
+     * "appendElements(ArrayDelegate that)" implementation.
+     *
+     * @return true iff the elements have been appended
+     */
+    protected boolean appendElements(DelegateHandle hTarget, DelegateHandle hThat)
+        {
+        if (hTarget.getMutability() != Mutability.Mutable || getBulkStore(hTarget) != hTarget ||
+                !(hTarget.getTemplate() instanceof BulkOps ops))
+            {
+            return false;
+            }
+
+        DelegateHandle hStore = getBulkStore(hThat);
+        if (hStore == null || hStore.getTemplate() != hTarget.getTemplate())
+            {
+            return false;
+            }
+
+        long cAppend = hThat.m_cSize;
+        if (cAppend > 0)
+            {
+            ops.appendImpl(hTarget, hStore, getBulkOffset(hThat), cAppend);
+            }
+        return true;
+        }
+
+    /**
+     * "replaceElements(Int index, ArrayDelegate that)" implementation.
+     *
+     * @return true iff the elements have been replaced
+     */
+    protected boolean replaceElements(DelegateHandle hTarget, long lIndex, DelegateHandle hThat)
+        {
+        long cCopy = hThat.m_cSize;
+        if (!isInPlace(hTarget) || lIndex < 0 || lIndex + cCopy > hTarget.m_cSize)
+            {
+            return false;
+            }
+
+        DelegateHandle hStore  = getCopyStore(hTarget);
+        DelegateHandle hSource = getCopyStore(hThat);
+        if (hStore == null || hSource == null || !isInPlace(hStore) ||
+                hStore.getTemplate() != hSource.getTemplate())
+            {
+            return false;
+            }
+
+        if (cCopy > 0)
+            {
+            ((BulkCopy) hStore.getTemplate()).copyImpl(
+                    hStore, getBulkOffset(hTarget) + lIndex, hSource, getBulkOffset(hThat), cCopy);
+            }
+        return true;
+        }
+
     /**
      * Create a copy of the specified array for the specified mutability
      *
@@ -749,6 +963,91 @@ public class xRTDelegate
         }
 
 
+    // ----- bulk operations -----------------------------------------------------------------------
+
+    /**
+     * Find the delegate that holds the elements of the specified delegate, if they could be
+     * processed by the bulk operations.
+     *
+     * @return the delegate whose template is a {@link BulkView} (which is either the specified
+     *         delegate or the source of a slice), or null
+     */
+    protected static DelegateHandle getBulkStore(DelegateHandle hDelegate)
+        {
+        DelegateHandle hStore = getStore(hDelegate);
+        return hStore != null && hStore.getTemplate() instanceof BulkView
+                ? hStore
+                : null;
+        }
+
+    /**
+     * Find the delegate that holds the elements of the specified delegate, if they could be
+     * copied by the {@link BulkCopy} operation.
+     *
+     * @return the delegate whose template is a {@link BulkCopy}, or null
+     */
+    protected static DelegateHandle getCopyStore(DelegateHandle hDelegate)
+        {
+        DelegateHandle hStore = getStore(hDelegate);
+        return hStore != null && hStore.getTemplate() instanceof BulkCopy
+                ? hStore
+                : null;
+        }
+
+    /**
+     * @return the delegate that holds the elements of the specified delegate (which is either the
+     *         specified delegate or the source of a forward slice), or null if the bulk operations
+     *         are off or cannot be applied
+     */
+    private static DelegateHandle getStore(DelegateHandle hDelegate)
+        {
+        DelegateHandle hStore = hDelegate;
+        if (hDelegate instanceof SliceHandle hSlice)
+            {
+            hStore = hSlice.f_hSource;
+            if (hSlice.f_fReverse || hSlice.f_ofStart + hSlice.m_cSize > hStore.m_cSize)
+                {
+                return null;
+                }
+            }
+
+        return BULK_OPS ? hStore : null;
+        }
+
+    /**
+     * Find the delegate that holds the elements of the specified delegate, if they could be
+     * processed by the bulk operations together with the elements of another delegate.
+     *
+     * @return the delegate that holds the elements of the first delegate, or null
+     */
+    protected static DelegateHandle getBulkStore(DelegateHandle hDelegate1, DelegateHandle hDelegate2)
+        {
+        DelegateHandle hStore1 = getBulkStore(hDelegate1);
+        DelegateHandle hStore2 = getBulkStore(hDelegate2);
+
+        return hStore1 != null && hStore2 != null && hStore1.getTemplate() == hStore2.getTemplate()
+                ? hStore1
+                : null;
+        }
+
+    /**
+     * @return the offset of the specified delegate's elements within its bulk store
+     */
+    protected static long getBulkOffset(DelegateHandle hDelegate)
+        {
+        return hDelegate instanceof SliceHandle hSlice ? hSlice.f_ofStart : 0;
+        }
+
+    /**
+     * @return true iff the elements of the specified delegate could be replaced in place
+     */
+    private static boolean isInPlace(DelegateHandle hDelegate)
+        {
+        Mutability mutability = hDelegate.getMutability();
+        return mutability == Mutability.Fixed || mutability == Mutability.Mutable;
+        }
+
+
     // ----- helper methods ------------------------------------------------------------------------
 
     public static xRTDelegate getArrayTemplate(TypeConstant typeParam)
@@ -996,5 +1295,12 @@ public class xRTDelegate
 
     protected static final String[] ELEMENT_TYPE = new String[] {"Element"};
 
+    /**
+     * True iff the delegates that support the bulk operations use them. The bulk operations could
+     * be turned off by "-Dxvm.arrayBulkOps=false" to measure their effect.
+     */
+    public static final boolean BULK_OPS =
+            !"false".equalsIgnoreCase(System.getProperty("xvm.arrayBulkOps"));
+
     private static Map<TypeConstant, xRTDelegate> DELEGATES;
     }
\ No newline at end of file
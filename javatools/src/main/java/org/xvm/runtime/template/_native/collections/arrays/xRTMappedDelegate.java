@@ -0,0 +1,242 @@
+package org.xvm.runtime.template._native.collections.arrays;
+
+
+import java.nio.ByteBuffer;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.ConstantPool;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.Container;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.collections.xArray.Mutability;
+
+import org.xvm.runtime.template.numbers.xUInt8;
+
+import org.xvm.runtime.template._native.collections.arrays.ByteBasedDelegate.ByteArrayHandle;
+
+
+/**
+ * The native RTMappedDelegate implementation: a read-only ArrayDelegate<Byte> that is backed by a
+ * {@link ByteBuffer}, which is usually a memory-mapped region of a file. The bytes are never
+ * copied to the heap, unless a copy of the array is requested.
+ */
+public class xRTMappedDelegate
+        extends xRTView
+        implements ByteView, BulkView
+    {
+    public static xRTMappedDelegate INSTANCE;
+
+    public xRTMappedDelegate(Container container, ClassStructure structure, boolean fInstance)
+        {
+        super(container, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        }
+
+    @Override
+    public TypeConstant getCanonicalType()
+        {
+        ConstantPool pool = pool();
+        return pool.ensureParameterizedTypeConstant(
+                getInceptionClassConstant().getType(), pool.typeByte());
+        }
+
+    /**
+     * Create a read-only ArrayDelegate<Byte> for the content of the specified buffer.
+     *
+     * @param buffer  the buffer holding the bytes; its position must be zero
+     *
+     * @return the delegate handle
+     */
+    public MappedHandle makeHandle(ByteBuffer buffer)
+        {
+        return new MappedHandle(getCanonicalClass(), buffer.asReadOnlyBuffer());
+        }
+
+    /**
+     * Copy the content of the specified delegate into a heap-based ArrayDelegate<Byte>. This is
+     * used by the views that need direct access to a byte array (e.g. the bit views).
+     *
+     * @param hDelegate  the mapped delegate handle
+     *
+     * @return the heap-based delegate handle
+     */
+    public ByteArrayHandle copyToHeap(MappedHandle hDelegate)
+        {
+        return (ByteArrayHandle) createCopyImpl(hDelegate, Mutability.Constant, 0,
+                hDelegate.m_cSize, false);
+        }
+
+
+    // ----- RTDelegate API ------------------------------------------------------------------------
+
+    @Override
+    protected DelegateHandle createCopyImpl(DelegateHandle hTarget, Mutability mutability,
+                                            long ofStart, long cSize, boolean fReverse)
+        {
+        byte[] ab = getBytes(hTarget, ofStart, cSize, fReverse);
+
+        return xRTUInt8Delegate.INSTANCE.makeHandle(ab, cSize, mutability);
+        }
+
+    @Override
+    protected int extractArrayValueImpl(Frame frame, DelegateHandle hTarget, long lIndex, int iReturn)
+        {
+        return frame.assignValue(iReturn,
+                xUInt8.INSTANCE.makeJavaLong(extractByte(hTarget, lIndex) & 0xFF));
+        }
+
+    @Override
+    protected int assignArrayValueImpl(Frame frame, DelegateHandle hTarget, long lIndex,
+                                       ObjectHandle hValue)
+        {
+        return frame.raiseException(xException.readOnly(frame, hTarget.getMutability()));
+        }
+
+    @Override
+    public int callEquals(Frame frame, TypeComposition clazz,
+                          ObjectHandle hValue1, ObjectHandle hValue2, int iReturn)
+        {
+        return frame.assignValue(iReturn, xBoolean.makeHandle(compareIdentity(hValue1, hValue2)));
+        }
+
+    @Override
+    public boolean compareIdentity(ObjectHandle hValue1, ObjectHandle hValue2)
+        {
+        MappedHandle h1 = (MappedHandle) hValue1;
+        MappedHandle h2 = (MappedHandle) hValue2;
+
+        return h1 == h2 || h1.f_buffer.equals(h2.f_buffer);
+        }
+
+
+    // ----- BulkView implementation ---------------------------------------------------------------
+
+    @Override
+    public long indexOfImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue)
+        {
+        ByteBuffer buffer = ((MappedHandle) hTarget).f_buffer;
+        byte       bValue = (byte) ((JavaLong) hValue).getValue();
+        int        of     = (int) ofStart;
+
+        for (int i = 0, c = (int) cSize; i < c; i++)
+            {
+            if (buffer.get(of + i) == bValue)
+                {
+                return i;
+                }
+            }
+        return -1;
+        }
+
+    @Override
+    public boolean equalsImpl(DelegateHandle hTarget1, long ofStart1,
+                              DelegateHandle hTarget2, long ofStart2, long cSize)
+        {
+        return compareImpl(hTarget1, ofStart1, cSize, hTarget2, ofStart2, cSize) == 0;
+        }
+
+    @Override
+    public int compareImpl(DelegateHandle hTarget1, long ofStart1, long cSize1,
+                           DelegateHandle hTarget2, long ofStart2, long cSize2)
+        {
+        // ByteBuffer comparison is signed, but the Byte type is unsigned
+        ByteBuffer buffer1 = ((MappedHandle) hTarget1).f_buffer;
+        ByteBuffer buffer2 = ((MappedHandle) hTarget2).f_buffer;
+        int        of1     = (int) ofStart1;
+        int        of2     = (int) ofStart2;
+
+        for (int i = 0, c = (int) Math.min(cSize1, cSize2); i < c; i++)
+            {
+            int nOrder = Integer.compare(buffer1.get(of1 + i) & 0xFF, buffer2.get(of2 + i) & 0xFF);
+            if (nOrder != 0)
+                {
+                return nOrder;
+                }
+            }
+        return Long.compare(cSize1, cSize2);
+        }
+
+    @Override
+    public long hashCodeImpl(DelegateHandle hTarget, long ofStart, long cSize)
+        {
+        ByteBuffer buffer = ((MappedHandle) hTarget).f_buffer;
+        long       lHash  = 0;
+
+        for (int i = (int) ofStart, iEnd = (int) (ofStart + cSize); i < iEnd; i++)
+            {
+            lHash += buffer.get(i) & 0xFF;
+            }
+        return lHash;
+        }
+
+
+    // ----- ByteView implementation ---------------------------------------------------------------
+
+    @Override
+    public byte[] getBytes(DelegateHandle hDelegate, long ofStart, long cBytes, boolean fReverse)
+        {
+        byte[] ab = new byte[(int) cBytes];
+
+        ((MappedHandle) hDelegate).f_buffer.get((int) ofStart, ab);
+        return fReverse ? ByteBasedDelegate.reverseBytes(ab, ab.length) : ab;
+        }
+
+    @Override
+    public byte extractByte(DelegateHandle hDelegate, long of)
+        {
+        return ((MappedHandle) hDelegate).f_buffer.get((int) of);
+        }
+
+    @Override
+    public void assignByte(DelegateHandle hDelegate, long of, byte bValue)
+        {
+        throw new UnsupportedOperationException("read-only");
+        }
+
+
+    // ----- handle --------------------------------------------------------------------------------
+
+    /**
+     * The handle for a read-only delegate backed by a ByteBuffer.
+     */
+    public static class MappedHandle
+            extends DelegateHandle
+        {
+        protected MappedHandle(TypeComposition clazz, ByteBuffer buffer)
+            {
+            super(clazz, Mutability.Constant);
+
+            f_buffer = buffer;
+            m_cSize  = buffer.limit();
+            }
+
+        @Override
+        public String toString()
+            {
+            return super.toString() + ", size=" + m_cSize;
+            }
+
+        /**
+         * The (read-only) buffer holding the bytes.
+         */
+        protected final ByteBuffer f_buffer;
+        }
+    }
@@ -31,6 +31,7 @@ import org.xvm.runtime.template.text.xString.StringHandle;
  */
 public class xRTStringDelegate
         extends xRTDelegate
+        implements BulkOps
     {
     public static xRTStringDelegate INSTANCE;
 
@@ -231,6 +232,89 @@ public class xRTStringDelegate
         }
 
 
+    // ----- BulkOps implementation ----------------------------------------------------------------
+
+    @Override
+    public long indexOfImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue)
+        {
+        String[] asValue = ((StringArrayHandle) hTarget).m_asValue;
+        String   sValue  = ((StringHandle) hValue).getStringValue();
+        int      of      = (int) ofStart;
+
+        for (int i = 0, c = (int) cSize; i < c; i++)
+            {
+            if (sValue.equals(asValue[of + i]))
+                {
+                return i;
+                }
+            }
+        return -1;
+        }
+
+    @Override
+    public void fillImpl(DelegateHandle hTarget, long ofStart, long cSize, ObjectHandle hValue)
+        {
+        Arrays.fill(((StringArrayHandle) hTarget).m_asValue, (int) ofStart, (int) (ofStart + cSize),
+                ((StringHandle) hValue).getStringValue());
+        }
+
+    @Override
+    public void sortImpl(DelegateHandle hTarget, long ofStart, long cSize)
+        {
+        // the natural order of Strings is the order of their chars, just like in Java
+        Arrays.sort(((StringArrayHandle) hTarget).m_asValue, (int) ofStart, (int) (ofStart + cSize));
+        }
+
+    @Override
+    public boolean equalsImpl(DelegateHandle hTarget1, long ofStart1,
+                              DelegateHandle hTarget2, long ofStart2, long cSize)
+        {
+        return Arrays.equals(
+                ((StringArrayHandle) hTarget1).m_asValue, (int) ofStart1, (int) (ofStart1 + cSize),
+                ((StringArrayHandle) hTarget2).m_asValue, (int) ofStart2, (int) (ofStart2 + cSize));
+        }
+
+    @Override
+    public int compareImpl(DelegateHandle hTarget1, long ofStart1, long cSize1,
+                           DelegateHandle hTarget2, long ofStart2, long cSize2)
+        {
+        return Arrays.compare(
+                ((StringArrayHandle) hTarget1).m_asValue, (int) ofStart1, (int) (ofStart1 + cSize1),
+                ((StringArrayHandle) hTarget2).m_asValue, (int) ofStart2, (int) (ofStart2 + cSize2));
+        }
+
+    @Override
+    public long hashCodeImpl(DelegateHandle hTarget, long ofStart, long cSize)
+        {
+        String[] asValue = ((StringArrayHandle) hTarget).m_asValue;
+        long     lHash   = 0;
+
+        for (int i = (int) ofStart, iEnd = (int) (ofStart + cSize); i < iEnd; i++)
+            {
+            lHash += xString.calcHashCode(asValue[i]);
+            }
+        return lHash;
+        }
+
+    @Override
+    public void appendImpl(DelegateHandle hTarget, DelegateHandle hSource, long ofStart, long cSize)
+        {
+        StringArrayHandle hDelegate = (StringArrayHandle) hTarget;
+        int               cOld      = (int) hDelegate.m_cSize;
+        int               cNew      = cOld + (int) cSize;
+
+        if (cNew > hDelegate.m_asValue.length)
+            {
+            hDelegate.m_asValue = grow(hDelegate.m_asValue, cNew);
+            }
+        hDelegate.m_cSize = cNew;
+
+        // the source array is read after the growth, in case it is the same delegate
+        System.arraycopy(((StringArrayHandle) hSource).m_asValue, (int) ofStart,
+                hDelegate.m_asValue, cOld, (int) cSize);
+        }
+
+
     // ----- helper methods ------------------------------------------------------------------------
 
     /**
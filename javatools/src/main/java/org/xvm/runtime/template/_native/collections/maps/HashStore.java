@@ -0,0 +1,470 @@
+package org.xvm.runtime.template._native.collections.maps;
+
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.xvm.asm.ConstantPool;
+
+import org.xvm.runtime.ObjectHandle;
+
+
+/**
+ * An insertion-ordered open addressing hash table of ObjectHandle keys and values that backs the
+ * native RTHashMap. The keys must be "natively equal" handles (see
+ * {@link ObjectHandle#isNativeEqual()}), for which the Java {@code hashCode()} and
+ * {@code equals()} are consistent with the Ecstasy ones.
+ * <p>
+ * The entries are held in the dense arrays in the order of their insertion, and the hash index
+ * refers to the dense positions using the linear probing. A removed entry leaves a hole in the
+ * dense arrays until the next rehash. Every entry is stamped with an ever-increasing sequence
+ * number, which allows an iterator to find its place after the entries have been moved.
+ */
+public class HashStore
+    {
+    /**
+     * Construct an empty HashStore.
+     *
+     * @param cCapacity  the number of entries to reserve the space for
+     */
+    public HashStore(int cCapacity)
+        {
+        allocate(Math.max(cCapacity, MIN_CAPACITY));
+        }
+
+
+    // ----- accessors -----------------------------------------------------------------------------
+
+    /**
+     * @return the number of entries
+     */
+    public int size()
+        {
+        return m_cSize;
+        }
+
+    /**
+     * @return the value for the specified key or null if the key is not present
+     */
+    public ObjectHandle get(ObjectHandle hKey)
+        {
+        int iPos = m_aiIndex[probe(hKey, hash(hKey))] - 1;
+        return iPos < 0 ? null : m_ahValue[iPos];
+        }
+
+    /**
+     * @return true iff the specified key is present
+     */
+    public boolean contains(ObjectHandle hKey)
+        {
+        return m_aiIndex[probe(hKey, hash(hKey))] != 0;
+        }
+
+    /**
+     * Find the live entry that follows the specified one in the insertion order.
+     *
+     * @param iPos  the dense position of the previous entry, or -1 to start from the beginning
+     * @param lSeq  the sequence number of the previous entry, or -1 to start from the beginning
+     *
+     * @return the dense position of the next entry or -1 if there are no more entries
+     */
+    public int next(int iPos, long lSeq)
+        {
+        int    cUsed = m_cUsed;
+        long[] alSeq = m_alSeq;
+
+        // unless the entries have been moved, the previous entry is still at the same position;
+        // otherwise, the sequence numbers are ordered, so the binary search finds the next one
+        int i;
+        if (iPos >= 0 && iPos < cUsed && alSeq[iPos] == lSeq)
+            {
+            i = iPos + 1;
+            }
+        else
+            {
+            i = Arrays.binarySearch(alSeq, 0, cUsed, lSeq);
+            i = i >= 0 ? i + 1 : -(i + 1);
+            }
+
+        ObjectHandle[] ahKey = m_ahKey;
+        while (i < cUsed && ahKey[i] == null)
+            {
+            i++;
+            }
+        return i < cUsed ? i : -1;
+        }
+
+    /**
+     * @return the key at the specified dense position
+     */
+    public ObjectHandle getKey(int iPos)
+        {
+        return m_ahKey[iPos];
+        }
+
+    /**
+     * @return the sequence number of the entry at the specified dense position
+     */
+    public long getSequence(int iPos)
+        {
+        return m_alSeq[iPos];
+        }
+
+    /**
+     * Get the value of the entry that used to be at the specified dense position.
+     *
+     * @param iPos  the dense position of the entry, as returned by {@link #next}
+     * @param lSeq  the sequence number of the entry
+     * @param hKey  the key of the entry
+     *
+     * @return the value or null if the key is not present anymore
+     */
+    public ObjectHandle getValue(int iPos, long lSeq, ObjectHandle hKey)
+        {
+        return iPos >= 0 && iPos < m_cUsed && m_alSeq[iPos] == lSeq && m_ahKey[iPos] != null
+                ? m_ahValue[iPos]
+                : get(hKey);
+        }
+
+
+    // ----- mutators ------------------------------------------------------------------------------
+
+    /**
+     * Associate the specified value with the specified key.
+     *
+     * @return true iff a new entry has been added
+     */
+    public boolean put(ObjectHandle hKey, ObjectHandle hValue)
+        {
+        return put(hKey, hValue, hash(hKey), true);
+        }
+
+    /**
+     * Associate the specified value with the specified key unless the key is already present.
+     *
+     * @return true iff a new entry has been added
+     */
+    public boolean putIfAbsent(ObjectHandle hKey, ObjectHandle hValue)
+        {
+        return put(hKey, hValue, hash(hKey), false);
+        }
+
+    /**
+     * Put all the entries of the specified store into this store.
+     */
+    public void putAll(HashStore that)
+        {
+        ensureCapacity(m_cSize + that.m_cSize);
+
+        ObjectHandle[] ahKey   = that.m_ahKey;
+        ObjectHandle[] ahValue = that.m_ahValue;
+        int[]          anHash  = that.m_anHash;
+        for (int i = 0, c = that.m_cUsed; i < c; i++)
+            {
+            ObjectHandle hKey = ahKey[i];
+            if (hKey != null)
+                {
+                put(hKey, ahValue[i], anHash[i], true);
+                }
+            }
+        }
+
+    /**
+     * Remove the entry for the specified key.
+     *
+     * @return true iff the entry has been removed
+     */
+    public boolean remove(ObjectHandle hKey)
+        {
+        int iSlot = probe(hKey, hash(hKey));
+        int iPos  = m_aiIndex[iSlot] - 1;
+        if (iPos < 0)
+            {
+            return false;
+            }
+
+        unlink(iSlot);
+        m_ahKey  [iPos] = null;
+        m_ahValue[iPos] = null;
+
+        int cSize     = --m_cSize;
+        int cCapacity = m_ahKey.length;
+        if (cCapacity > MIN_CAPACITY && cSize < cCapacity >>> 3)
+            {
+            rehash(Math.max(cSize << 1, MIN_CAPACITY));
+            }
+        return true;
+        }
+
+    /**
+     * Remove all the entries.
+     */
+    public void clear()
+        {
+        // the sequence numbers keep growing, so the active iterators remain consistent
+        allocate(MIN_CAPACITY);
+        m_cUsed = 0;
+        m_cSize = 0;
+        }
+
+    /**
+     * Make sure that the store can hold the specified number of entries without rehashing.
+     */
+    public void ensureCapacity(int cCapacity)
+        {
+        if (cCapacity > m_ahKey.length - m_cUsed + m_cSize)
+            {
+            rehash(cCapacity);
+            }
+        }
+
+
+    // ----- ObjectHandle support ------------------------------------------------------------------
+
+    /**
+     * Make all the values immutable (the keys are always immutable).
+     *
+     * @return true iff all the values have been made immutable
+     */
+    public boolean makeImmutable()
+        {
+        ObjectHandle[] ahValue = m_ahValue;
+        for (int i = 0, c = m_cUsed; i < c; i++)
+            {
+            ObjectHandle hValue = ahValue[i];
+            if (hValue != null && !hValue.isService() && !hValue.makeImmutable())
+                {
+                return false;
+                }
+            }
+        return true;
+        }
+
+    /**
+     * @return true iff all the keys and values are shared with the specified pool
+     *
+     * @see ObjectHandle#isShared(ConstantPool, Map)
+     */
+    public boolean isShared(ConstantPool poolThat, Map<ObjectHandle, Boolean> mapVisited)
+        {
+        ObjectHandle[] ahKey   = m_ahKey;
+        ObjectHandle[] ahValue = m_ahValue;
+        for (int i = 0, c = m_cUsed; i < c; i++)
+            {
+            ObjectHandle hKey = ahKey[i];
+            if (hKey != null && (!hKey.isShared(poolThat, mapVisited) ||
+                                 !ahValue[i].isShared(poolThat, mapVisited)))
+                {
+                return false;
+                }
+            }
+        return true;
+        }
+
+
+    // ----- internal ------------------------------------------------------------------------------
+
+    /**
+     * Compute the spread hash for the specified key.
+     */
+    private static int hash(ObjectHandle hKey)
+        {
+        int n = hKey.hashCode() * 0x9E3779B9;
+        return n ^ (n >>> 16);
+        }
+
+    /**
+     * Find the index slot for the specified key.
+     *
+     * @return the slot that refers to the entry for the key, or the empty slot that the key would
+     *         be placed into
+     */
+    private int probe(ObjectHandle hKey, int nHash)
+        {
+        int[]          aiIndex = m_aiIndex;
+        int[]          anHash  = m_anHash;
+        ObjectHandle[] ahKey   = m_ahKey;
+        int            nMask   = aiIndex.length - 1;
+        for (int iSlot = nHash & nMask; ; iSlot = (iSlot + 1) & nMask)
+            {
+            int iPos = aiIndex[iSlot] - 1;
+            if (iPos < 0 || anHash[iPos] == nHash && hKey.equals(ahKey[iPos]))
+                {
+                return iSlot;
+                }
+            }
+        }
+
+    /**
+     * Put the entry for the specified key.
+     *
+     * @param fReplace  true if the value of an existing entry should be replaced
+     *
+     * @return true iff a new entry has been added
+     */
+    private boolean put(ObjectHandle hKey, ObjectHandle hValue, int nHash, boolean fReplace)
+        {
+        int iSlot = probe(hKey, nHash);
+        int iPos  = m_aiIndex[iSlot] - 1;
+        if (iPos >= 0)
+            {
+            if (fReplace)
+                {
+                m_ahValue[iPos] = hValue;
+                }
+            return false;
+            }
+
+        iPos = m_cUsed;
+        if (iPos == m_ahKey.length)
+            {
+            // reclaim the removed entries' space if there are enough of them; otherwise grow
+            int cCapacity = m_ahKey.length;
+            rehash(m_cSize < cCapacity - (cCapacity >>> 2) ? cCapacity : cCapacity << 1);
+
+            iSlot = probe(hKey, nHash);
+            iPos  = m_cUsed;
+            }
+
+        m_ahKey  [iPos] = hKey;
+        m_ahValue[iPos] = hValue;
+        m_anHash [iPos] = nHash;
+        m_alSeq  [iPos] = m_lSeqNext++;
+        m_aiIndex[iSlot] = iPos + 1;
+        m_cUsed = iPos + 1;
+        m_cSize++;
+        return true;
+        }
+
+    /**
+     * Clear the specified index slot, shifting back the subsequent entries of the probe sequence.
+     */
+    private void unlink(int iSlot)
+        {
+        int[] aiIndex = m_aiIndex;
+        int[] anHash  = m_anHash;
+        int   nMask   = aiIndex.length - 1;
+        int   iHole   = iSlot;
+        for (int i = (iHole + 1) & nMask; ; i = (i + 1) & nMask)
+            {
+            int iPos = aiIndex[i] - 1;
+            if (iPos < 0)
+                {
+                break;
+                }
+
+            // the entry can fill the hole unless its home slot is between the hole and the entry
+            int iHome = anHash[iPos] & nMask;
+            if (((i - iHome) & nMask) >= ((i - iHole) & nMask))
+                {
+                aiIndex[iHole] = aiIndex[i];
+                iHole = i;
+                }
+            }
+        aiIndex[iHole] = 0;
+        }
+
+    /**
+     * Move all the live entries into new arrays of the specified capacity, preserving their order.
+     */
+    private void rehash(int cCapacity)
+        {
+        ObjectHandle[] ahKey   = m_ahKey;
+        ObjectHandle[] ahValue = m_ahValue;
+        int[]          anHash  = m_anHash;
+        long[]         alSeq   = m_alSeq;
+        int            cUsed   = m_cUsed;
+
+        allocate(Math.max(cCapacity, m_cSize));
+
+        ObjectHandle[] ahKeyNew   = m_ahKey;
+        ObjectHandle[] ahValueNew = m_ahValue;
+        int[]          anHashNew  = m_anHash;
+        long[]         alSeqNew   = m_alSeq;
+        int[]          aiIndex    = m_aiIndex;
+        int            nMask      = aiIndex.length - 1;
+        int            iPos       = 0;
+        for (int i = 0; i < cUsed; i++)
+            {
+            ObjectHandle hKey = ahKey[i];
+            if (hKey != null)
+                {
+                int nHash = anHash[i];
+                ahKeyNew  [iPos] = hKey;
+                ahValueNew[iPos] = ahValue[i];
+                anHashNew [iPos] = nHash;
+                alSeqNew  [iPos] = alSeq[i];
+
+                int iSlot = nHash & nMask;
+                while (aiIndex[iSlot] != 0)
+                    {
+                    iSlot = (iSlot + 1) & nMask;
+                    }
+                aiIndex[iSlot] = ++iPos;
+                }
+            }
+        m_cUsed = iPos;
+        }
+
+    /**
+     * Allocate the arrays for the specified capacity.
+     */
+    private void allocate(int cCapacity)
+        {
+        m_ahKey   = new ObjectHandle[cCapacity];
+        m_ahValue = new ObjectHandle[cCapacity];
+        m_anHash  = new int[cCapacity];
+        m_alSeq   = new long[cCapacity];
+
+        // keep the index at most half full
+        m_aiIndex = new int[Integer.highestOneBit((cCapacity << 1) - 1) << 1];
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The smallest capacity of the store.
+     */
+    private static final int MIN_CAPACITY = 8;
+
+    /**
+     * The keys in the order of insertion; null for the removed entries.
+     */
+    private ObjectHandle[] m_ahKey;
+
+    /**
+     * The values, parallel to the keys.
+     */
+    private ObjectHandle[] m_ahValue;
+
+    /**
+     * The spread hashes of the keys, parallel to the keys.
+     */
+    private int[] m_anHash;
+
+    /**
+     * The sequence numbers of the entries, parallel to the keys; always ascending.
+     */
+    private long[] m_alSeq;
+
+    /**
+     * The hash index: the dense position of an entry plus one, or zero for an empty slot.
+     */
+    private int[] m_aiIndex;
+
+    /**
+     * The number of used dense positions, including the removed entries.
+     */
+    private int m_cUsed;
+
+    /**
+     * The number of live entries.
+     */
+    private int m_cSize;
+
+    /**
+     * The sequence number of the next added entry.
+     */
+    private long m_lSeqNext;
+    }
@@ -0,0 +1,397 @@
+package org.xvm.runtime.template._native.collections.maps;
+
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Constants.Access;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Container;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * The native RTHashMap<Key, Value> implementation: a HashMap whose entries are held by a Java
+ * {@link HashStore}. The runtime substitutes it for the HashMap of the keys that are natively
+ * hashable (see {@link org.xvm.runtime.template.collections.xHashMap}).
+ */
+public class xRTHashMap
+        extends ClassTemplate
+    {
+    public static xRTHashMap INSTANCE;
+
+    public xRTHashMap(Container container, ClassStructure structure, boolean fInstance)
+        {
+        super(container, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        ConstantPool pool = pool();
+        TypeConstant typeInt = pool.typeInt64();
+
+        CONSTRUCT_CAPACITY = getStructure().findMethod("construct", m ->
+                m.getParamCount() == 1 && m.getParam(0).getType().equals(typeInt));
+        CONSTRUCT_MAP      = getStructure().findMethod("construct", m ->
+                m.getParamCount() == 1 && !m.getParam(0).getType().equals(typeInt) &&
+                !m.getParam(0).getType().isAutoNarrowing());
+
+        markNativeProperty("size");
+        markNativeProperty("empty");
+
+        markNativeMethod("contains", null, BOOLEAN);
+        markNativeMethod("get", null, null);
+        markNativeMethod("put", null, THIS);
+        markNativeMethod("putIfAbsent", null, null);
+        markNativeMethod("remove", new String[] {"Key"}, THIS);
+        markNativeMethod("clear", VOID, THIS);
+
+        markNativeMethod("reserve", INT, VOID);
+        markNativeMethod("putAllFrom", null, BOOLEAN);
+        markNativeMethod("nextEntry", null, null);
+        markNativeMethod("entryValue", null, null);
+
+        invalidateTypeInfo();
+        }
+
+    /**
+     * Find the RTHashMap constructor that corresponds to the specified HashMap constructor.
+     *
+     * @param constructor  the HashMap constructor
+     *
+     * @return the RTHashMap constructor that takes the same arguments, or null if the HashMap
+     *         constructor has no native equivalent
+     */
+    public MethodStructure getConstructor(MethodStructure constructor)
+        {
+        switch (constructor.getParamCount())
+            {
+            case 1:
+                // construct(Int initCapacity = 0), construct(Map<Key, Value> that) or
+                // construct(HashMap that)
+                return constructor.getParam(0).getType().equals(pool().typeInt64())
+                        ? CONSTRUCT_CAPACITY
+                        : CONSTRUCT_MAP;
+
+            default:
+                // construct(Hasher<Key> hasher, Int initCapacity = 0) takes an arbitrary hasher
+                return null;
+            }
+        }
+
+    @Override
+    public ObjectHandle createStruct(Frame frame, TypeComposition clazz)
+        {
+        assert clazz.getTemplate() == this;
+
+        return new MapHandle(clazz.ensureAccess(Access.STRUCT), new HashStore(0));
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        HashStore store = ((MapHandle) hTarget).f_store;
+
+        switch (sPropName)
+            {
+            case "size":
+                return frame.assignValue(iReturn, xInt64.makeHandle(store.size()));
+
+            case "empty":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(store.size() == 0));
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method,
+                             ObjectHandle hTarget, ObjectHandle hArg, int iReturn)
+        {
+        HashStore store = ((MapHandle) hTarget).f_store;
+
+        switch (method.getName())
+            {
+            case "contains":
+            case "get":      // conditional Value get(Key key), the Boolean part only
+                return frame.assignValue(iReturn, xBoolean.makeHandle(store.contains(hArg)));
+
+            case "remove":
+                {
+                if (!hTarget.isMutable())
+                    {
+                    return raiseImmutable(frame);
+                    }
+                store.remove(hArg);
+                return frame.assignValue(iReturn, hTarget);
+                }
+
+            case "reserve":
+                {
+                if (!hTarget.isMutable())
+                    {
+                    return raiseImmutable(frame);
+                    }
+                store.ensureCapacity((int) Math.min(((JavaLong) hArg).getValue(), MAX_RESERVE));
+                return Op.R_NEXT;
+                }
+
+            case "putAllFrom":
+                {
+                if (!(hArg instanceof MapHandle hThat))
+                    {
+                    return frame.assignValue(iReturn, xBoolean.FALSE);
+                    }
+                if (!hTarget.isMutable())
+                    {
+                    return raiseImmutable(frame);
+                    }
+                if (hThat.f_store != store)
+                    {
+                    store.putAll(hThat.f_store);
+                    }
+                return frame.assignValue(iReturn, xBoolean.TRUE);
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        HashStore store = ((MapHandle) hTarget).f_store;
+
+        switch (method.getName())
+            {
+            case "put":
+                {
+                if (!hTarget.isMutable())
+                    {
+                    return raiseImmutable(frame);
+                    }
+                store.put(ahArg[0], ahArg[1]);
+                return frame.assignValue(iReturn, hTarget);
+                }
+
+            case "putIfAbsent": // the Boolean part only
+                {
+                if (!hTarget.isMutable())
+                    {
+                    return raiseImmutable(frame);
+                    }
+                return frame.assignValue(iReturn,
+                        xBoolean.makeHandle(store.putIfAbsent(ahArg[0], ahArg[1])));
+                }
+
+            case "clear":
+                {
+                if (!hTarget.isMutable())
+                    {
+                    return raiseImmutable(frame);
+                    }
+                store.clear();
+                return frame.assignValue(iReturn, hTarget);
+                }
+
+            case "nextEntry": // the Boolean part only
+                {
+                int iPos = store.next((int) ((JavaLong) ahArg[0]).getValue(),
+                                            ((JavaLong) ahArg[1]).getValue());
+                return frame.assignValue(iReturn, xBoolean.makeHandle(iPos >= 0));
+                }
+
+            case "entryValue": // the Boolean part only
+                {
+                ObjectHandle hValue = store.getValue((int) ((JavaLong) ahArg[0]).getValue(),
+                        ((JavaLong) ahArg[1]).getValue(), ahArg[2]);
+                return frame.assignValue(iReturn, xBoolean.makeHandle(hValue != null));
+                }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeNN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                              ObjectHandle[] ahArg, int[] aiReturn)
+        {
+        HashStore store = ((MapHandle) hTarget).f_store;
+
+        switch (method.getName())
+            {
+            case "get":
+                {
+                ObjectHandle hValue = store.get(ahArg[0]);
+                return hValue == null
+                        ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
+                        : frame.assignValues(aiReturn, xBoolean.TRUE, hValue);
+                }
+
+            case "putIfAbsent":
+                {
+                if (!hTarget.isMutable())
+                    {
+                    return raiseImmutable(frame);
+                    }
+                return store.putIfAbsent(ahArg[0], ahArg[1])
+                        ? frame.assignValues(aiReturn, xBoolean.TRUE, hTarget)
+                        : frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                }
+
+            case "nextEntry":
+                {
+                int iPos = store.next((int) ((JavaLong) ahArg[0]).getValue(),
+                                            ((JavaLong) ahArg[1]).getValue());
+                return iPos < 0
+                        ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
+                        : frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(iPos),
+                                xInt64.makeHandle(store.getSequence(iPos)), store.getKey(iPos));
+                }
+
+            case "entryValue":
+                {
+                ObjectHandle hValue = store.getValue((int) ((JavaLong) ahArg[0]).getValue(),
+                        ((JavaLong) ahArg[1]).getValue(), ahArg[2]);
+                return hValue == null
+                        ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
+                        : frame.assignValues(aiReturn, xBoolean.TRUE, hValue);
+                }
+            }
+
+        return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
+        }
+
+
+    /**
+     * Raise the exception for an attempt to modify an immutable map.
+     */
+    private int raiseImmutable(Frame frame)
+        {
+        return frame.raiseException(xException.readOnly(frame, "Immutable map"));
+        }
+
+
+    // ----- handle --------------------------------------------------------------------------------
+
+    /**
+     * The RTHashMap handle. All the views of the map (e.g. the struct and the public one) share the
+     * same HashStore.
+     */
+    public static class MapHandle
+            extends GenericHandle
+        {
+        protected MapHandle(TypeComposition clazz, HashStore store)
+            {
+            super(clazz);
+
+            f_store = store;
+            }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * The native map reports the type of the HashMap that it has been substituted for, so
+         * that the substitution cannot be observed via reflection.
+         */
+        @Override
+        public TypeConstant getType()
+            {
+            TypeConstant type = getComposition().getType();
+            if (type.isAccessSpecified())
+                {
+                // the struct and the non-public views of the map are only seen by its own code
+                return super.getType();
+                }
+
+            TypeConstant typeMap = m_typeHashMap;
+            if (typeMap == null)
+                {
+                ConstantPool pool = type.getConstantPool();
+                m_typeHashMap = typeMap = pool.ensureParameterizedTypeConstant(
+                        pool.ensureEcstasyTypeConstant("collections.HashMap"),
+                        type.getParamType(0), type.getParamType(1));
+                }
+            return isMutable() ? typeMap : typeMap.freeze();
+            }
+
+        @Override
+        public boolean makeImmutable()
+            {
+            if (isMutable())
+                {
+                if (!super.makeImmutable())
+                    {
+                    return false;
+                    }
+
+                if (!f_store.makeImmutable())
+                    {
+                    // the content could not be made immutable
+                    m_fMutable = true;
+                    return false;
+                    }
+                }
+            return true;
+            }
+
+        @Override
+        public boolean isShared(ConstantPool poolThat, Map<ObjectHandle, Boolean> mapVisited)
+            {
+            if (mapVisited == null)
+                {
+                mapVisited = new IdentityHashMap<>();
+                }
+            else if (mapVisited.containsKey(this))
+                {
+                return true;
+                }
+
+            return super.isShared(poolThat, mapVisited) && f_store.isShared(poolThat, mapVisited);
+            }
+
+        /**
+         * The map's entries.
+         */
+        protected final HashStore f_store;
+
+        /**
+         * The cached HashMap type reported for this map.
+         */
+        private TypeConstant m_typeHashMap;
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The largest capacity a map could reserve up front.
+     */
+    private static final long MAX_RESERVE = 1 << 24;
+
+    private static MethodStructure CONSTRUCT_CAPACITY;
+    private static MethodStructure CONSTRUCT_MAP;
+    }
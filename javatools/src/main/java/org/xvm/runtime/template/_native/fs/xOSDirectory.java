@@ -1,7 +1,6 @@
 package org.xvm.runtime.template._native.fs;
 
 
-import java.io.File;
 import java.io.IOException;
 
 import java.nio.file.FileVisitResult;
@@ -93,45 +92,55 @@ public class xOSDirectory
             case "deleteRecursively":
                 {
                 Path pathDir = hNode.f_path;
-                File file    = pathDir.toFile();
-                if (!file.isDirectory())
-                    {
-                    return frame.assignValue(iReturn, xBoolean.FALSE);
-                    }
 
-                try
-                    {
-                    Files.walkFileTree(pathDir,
-                        new SimpleFileVisitor<>()
-                            {
-                            @Override
-                            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
-                                    throws IOException
-                               {
-                               Files.delete(file);
-                               return FileVisitResult.CONTINUE;
-                               }
-
-                           @Override
-                           public FileVisitResult postVisitDirectory(Path dir, IOException exc)
-                                    throws IOException
-                               {
-                               Files.delete(dir);
-                               return FileVisitResult.CONTINUE;
-                               }
-                        });
-                    return frame.assignValue(iReturn, xBoolean.TRUE);
-                    }
-                catch (IOException e)
-                    {
-                    return raisePathException(frame, e, hNode.f_path);
-                    }
+                return performIO(frame, pathDir,
+                    () -> deleteRecursively(pathDir),
+                    (frameCaller, fDeleted) ->
+                        frameCaller.assignValue(iReturn, xBoolean.makeHandle(fDeleted)));
                 }
             }
 
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
         }
 
+    /**
+     * Delete the specified directory and everything it contains. This method blocks and must be
+     * called on the IO executor.
+     *
+     * @param pathDir  the directory path
+     *
+     * @return false if the path is not a directory; true otherwise
+     */
+    private static boolean deleteRecursively(Path pathDir)
+            throws IOException
+        {
+        if (!Files.isDirectory(pathDir))
+            {
+            return false;
+            }
+
+        Files.walkFileTree(pathDir,
+            new SimpleFileVisitor<>()
+                {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                        throws IOException
+                    {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                    }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc)
+                        throws IOException
+                    {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                    }
+                });
+        return true;
+        }
+
     /**
      * Construct a new {@link NodeHandle} representing the specified directory.
      *
@@ -3,7 +3,6 @@ package org.xvm.runtime.template._native.fs;
 
 import com.sun.nio.file.ExtendedOpenOption;
 
-import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 
@@ -18,9 +17,6 @@ import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
-import java.util.concurrent.Callable;
-import java.util.concurrent.CompletableFuture;
-
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constants;
 import org.xvm.asm.MethodStructure;
@@ -44,6 +40,9 @@ import org.xvm.runtime.template.collections.xArray.ArrayHandle;
 import org.xvm.runtime.template.collections.xArray.Mutability;
 import org.xvm.runtime.template.collections.xByteArray;
 
+import org.xvm.runtime.template._native.collections.arrays.xRTDelegate.DelegateHandle;
+import org.xvm.runtime.template._native.collections.arrays.xRTMappedDelegate;
+
 import org.xvm.util.Handy;
 
 
@@ -71,6 +70,7 @@ public class xOSFile
         markNativeProperty("contents");
 
         markNativeMethod("readImpl", null, BYTES);
+        markNativeMethod("mapImpl", null, BYTES);
         markNativeMethod("appendImpl", null, VOID);
         markNativeMethod("truncateImpl", null, VOID);
         markNativeMethod("open", null, null);
@@ -117,6 +117,7 @@ public class xOSFile
         switch (method.getName())
             {
             case "readImpl":
+            case "mapImpl":
                 {
                 GenericHandle hRange = (GenericHandle) hArg;
 
@@ -142,9 +143,14 @@ public class xOSFile
                     --ixUpper;
                     }
 
-                return ixUpper > ixLower
+                if (ixUpper < ixLower)
+                    {
+                    return frame.assignValue(iReturn, xArray.ensureEmptyByteArray());
+                    }
+
+                return method.getName().equals("readImpl")
                         ? invokeReadImpl(frame, hFile, ixLower, ixUpper, iReturn)
-                        : frame.assignValue(iReturn, xArray.ensureEmptyByteArray());
+                        : invokeMapImpl(frame, hFile, ixLower, ixUpper, iReturn);
                 }
 
             case "appendImpl":
@@ -206,24 +212,10 @@ public class xOSFile
         Path path = hFile.f_path;
 
         // TODO how to limit the consumption? Need to ask the container...
-        Callable<byte[]> task = () ->
-                Handy.readFileBytes(path.toFile());
-
-        CompletableFuture<byte[]> cfRead = frame.f_context.f_container.scheduleIO(task);
-        Frame.Continuation continuation = frameCaller ->
-            {
-            try
-                {
-                return frameCaller.assignValue(iReturn,
-                    xArray.makeByteArrayHandle(cfRead.get(), Mutability.Constant));
-                }
-            catch (Throwable e)
-                {
-                return raisePathException(frameCaller, e, path);
-                }
-            };
-
-        return frame.waitForIO(cfRead, continuation);
+        return performIO(frame, path,
+            () -> Handy.readFileBytes(path.toFile()),
+            (frameCaller, ab) -> frameCaller.assignValue(iReturn,
+                    xArray.makeByteArrayHandle(ab, Mutability.Constant)));
         }
 
     /**
@@ -234,31 +226,16 @@ public class xOSFile
         Path   path = hFile.f_path;
         byte[] ab   = xByteArray.getBytes(hValue);
 
-        Callable<Void> task = () ->
-            {
-            try (FileOutputStream out = new FileOutputStream(path.toFile()))
-                {
-                out.write(ab);
-                return null;
-                }
-            };
-
-        CompletableFuture cfWrite = frame.f_context.f_container.scheduleIO(task);
-
-        Frame.Continuation continuation = frameCaller ->
-            {
-            try
+        return performIO(frame, path,
+            () ->
                 {
-                cfWrite.get();
-                return Op.R_NEXT;
-                }
-            catch (Throwable e)
-                {
-                return raisePathException(frameCaller, e, path);
-                }
-            };
-
-        return frame.waitForIO(cfWrite, continuation);
+                try (FileOutputStream out = new FileOutputStream(path.toFile()))
+                    {
+                    out.write(ab);
+                    return null;
+                    }
+                },
+            (frameCaller, _void) -> Op.R_NEXT);
         }
 
     /**
@@ -266,49 +243,72 @@ public class xOSFile
      */
     private int invokeReadImpl(Frame frame, NodeHandle hFile, long ixFrom, long ixTo, int iReturn)
         {
-        Path path  = hFile.f_path;
-        long cSize = path.toFile().length();
-        if (ixTo >= cSize)
-            {
-            return frame.raiseException(xException.outOfBounds(frame, ixTo, cSize));
-            }
+        Path path = hFile.f_path;
 
         // TODO how to limit the consumption? Need to ask the container...
-        int        cCapacity = (int) (ixTo - ixFrom + 1);
-        ByteBuffer buffer    = ByteBuffer.allocate(cCapacity);
-
-        Callable<Integer> task = () ->
-            {
-            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        return performIO(frame, path,
+            () ->
                 {
-                return channel.read(buffer, ixFrom);
-                }
-            };
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+                    {
+                    long cSize = channel.size();
+                    if (ixTo >= cSize)
+                        {
+                        throw new OutOfBoundsIOException(ixTo, cSize);
+                        }
 
-        CompletableFuture<Integer> cfRead = frame.f_context.f_container.scheduleIO(task);
+                    int        cCapacity = (int) (ixTo - ixFrom + 1);
+                    ByteBuffer buffer    = ByteBuffer.allocate(cCapacity);
 
-        Frame.Continuation continuation = frameCaller ->
+                    while (buffer.hasRemaining())
+                        {
+                        if (channel.read(buffer, ixFrom + buffer.position()) < 0)
+                            {
+                            throw new IOException("Read failed");
+                            }
+                        }
+                    return buffer.array();
+                    }
+                },
+            (frameCaller, ab) -> frameCaller.assignValue(iReturn,
+                    xArray.makeByteArrayHandle(ab, Mutability.Constant)));
+        }
+
+    /**
+     * Implementation for: "immutable Byte[] mapImpl(Range<Int> range)".
+     *
+     * The file region is mapped into memory, and the returned array is a read-only view of it; the
+     * mapping stays valid after the file channel is closed and is released by the garbage collector
+     * together with the array.
+     */
+    private int invokeMapImpl(Frame frame, NodeHandle hFile, long ixFrom, long ixTo, int iReturn)
+        {
+        Path path = hFile.f_path;
+        long cMap = ixTo - ixFrom + 1;
+        if (cMap > Integer.MAX_VALUE)
             {
-            try
+            return frame.raiseException(xException.outOfBounds(frame, cMap, Integer.MAX_VALUE));
+            }
+
+        return performIO(frame, path,
+            () ->
                 {
-                if (cfRead.get() == cCapacity)
-                    {
-                    return frameCaller.assignValue(iReturn,
-                        xArray.makeByteArrayHandle(buffer.array(), Mutability.Constant));
-                    }
-                else
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
                     {
-                    return frameCaller.raiseException(
-                            xException.ioException(frameCaller, "Read failed"));
+                    long cSize = channel.size();
+                    if (ixTo >= cSize)
+                        {
+                        throw new OutOfBoundsIOException(ixTo, cSize);
+                        }
+                    return channel.map(FileChannel.MapMode.READ_ONLY, ixFrom, cMap);
                     }
-                }
-            catch (Throwable e)
+                },
+            (frameCaller, buffer) ->
                 {
-                return raisePathException(frameCaller, e, path);
-                }
-            };
-
-        return frame.waitForIO(cfRead, continuation);
+                DelegateHandle hDelegate = xRTMappedDelegate.INSTANCE.makeHandle(buffer);
+                return frameCaller.assignValue(iReturn,
+                        xArray.makeByteArrayHandle(hDelegate, Mutability.Constant));
+                });
         }
 
     /**
@@ -317,45 +317,23 @@ public class xOSFile
     private int invokeTruncateImpl(Frame frame, NodeHandle hFile, JavaLong hNewSize)
         {
         Path path = hFile.f_path;
-        File file = path.toFile();
-        long cOld = file.length();
         long cNew = hNewSize.getValue();
 
-        if (cNew > cOld || cNew < 0)
-            {
-            return frame.raiseException(xException.outOfBounds(frame, cNew, cOld));
-            }
-
-        Callable<Void> task = () ->
-            {
-            try (FileChannel channel = cNew == 0
-                    ? FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
-                    : FileChannel.open(path, StandardOpenOption.WRITE))
+        return performIO(frame, path,
+            () ->
                 {
-                if (cNew > 0)
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE))
                     {
+                    long cOld = channel.size();
+                    if (cNew > cOld || cNew < 0)
+                        {
+                        throw new OutOfBoundsIOException(cNew, cOld);
+                        }
                     channel.truncate(cNew);
+                    return null;
                     }
-                return null;
-                }
-            };
-
-        CompletableFuture cfTruncate = frame.f_context.f_container.scheduleIO(task);
-
-        Frame.Continuation continuation = frameCaller ->
-            {
-            try
-                {
-                cfTruncate.get();
-                return Op.R_NEXT;
-                }
-            catch (Throwable e)
-                {
-                return raisePathException(frameCaller, e, path);
-                }
-            };
-
-        return frame.waitForIO(cfTruncate, continuation);
+                },
+            (frameCaller, _void) -> Op.R_NEXT);
         }
 
     /**
@@ -366,31 +344,16 @@ public class xOSFile
         Path   path = hFile.f_path;
         byte[] ab   = xByteArray.getBytes(hContents);
 
-        Callable<Void> task = () ->
-            {
-            try (FileOutputStream out = new FileOutputStream(path.toFile(), /*append*/ true))
-                {
-                out.write(ab);
-                return null;
-                }
-            };
-
-        CompletableFuture cfAppend = frame.f_context.f_container.scheduleIO(task);
-
-        Frame.Continuation continuation = frameCaller ->
-            {
-            try
-                {
-                cfAppend.get();
-                return Op.R_NEXT;
-                }
-            catch (Throwable e)
+        return performIO(frame, path,
+            () ->
                 {
-                return raisePathException(frameCaller, e, path);
-                }
-            };
-
-        return frame.waitForIO(cfAppend, continuation);
+                try (FileOutputStream out = new FileOutputStream(path.toFile(), /*append*/ true))
+                    {
+                    out.write(ab);
+                    return null;
+                    }
+                },
+            (frameCaller, _void) -> Op.R_NEXT);
         }
 
     /**
@@ -502,7 +465,7 @@ public class xOSFile
                             listOpt.add(StandardOpenOption.APPEND);
                             break;
                         case Exclusive:
-                            aOpenOpt[i] = ExtendedOpenOption.NOSHARE_WRITE;
+                            listOpt.add(ExtendedOpenOption.NOSHARE_WRITE);
                             break;
                         case SyncData:
                             listOpt.add(StandardOpenOption.DSYNC);
@@ -516,16 +479,18 @@ public class xOSFile
                 }
             }
 
-        Path path = hFile.f_path;
-        try
-            {
-            FileChannel channel = FileChannel.open(path, aOpenOpt);
-            return xOSFileChannel.INSTANCE.createHandle(frame, channel, path, iReturn);
-            }
-        catch (IOException e)
-            {
-            return raisePathException(frame, e, path);
-            }
+        List<OpenOption> listOpt = List.of(aOpenOpt);
+        boolean          fWrite  = listOpt.contains(StandardOpenOption.WRITE) ||
+                                   listOpt.contains(StandardOpenOption.APPEND);
+        boolean          fRead   = listOpt.contains(StandardOpenOption.READ) || !fWrite;
+
+        Path         path = hFile.f_path;
+        OpenOption[] aOpt = aOpenOpt;
+
+        return performIO(frame, path,
+            () -> FileChannel.open(path, aOpt),
+            (frameCaller, channel) -> xOSFileChannel.INSTANCE.createHandle(
+                    frameCaller, channel, path, fRead, fWrite, iReturn));
         }
 
 
@@ -7,6 +7,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import org.xvm.asm.ClassStructure;
@@ -64,65 +66,46 @@ public class xOSFileNode
                 return frame.assignValue(iReturn, xString.makeHandle(hNode.f_path.toString()));
 
             case "exists":
-                return frame.assignValue(iReturn, xBoolean.makeHandle(hNode.f_path.toFile().exists()));
+                return performIO(frame, hNode.f_path,
+                    () -> Files.exists(hNode.f_path),
+                    (frameCaller, fExists) ->
+                        frameCaller.assignValue(iReturn, xBoolean.makeHandle(fExists)));
 
             case "readable":
-                return frame.assignValue(iReturn, xBoolean.makeHandle(hNode.f_path.toFile().canRead()));
+                return performIO(frame, hNode.f_path,
+                    () -> Files.isReadable(hNode.f_path),
+                    (frameCaller, fReadable) ->
+                        frameCaller.assignValue(iReturn, xBoolean.makeHandle(fReadable)));
 
             case "writable":
-                return frame.assignValue(iReturn, xBoolean.makeHandle(hNode.f_path.toFile().canWrite()));
+                return performIO(frame, hNode.f_path,
+                    () -> Files.isWritable(hNode.f_path),
+                    (frameCaller, fWritable) ->
+                        frameCaller.assignValue(iReturn, xBoolean.makeHandle(fWritable)));
 
             case "createdMillis":
-                {
-                try
-                    {
-                    BasicFileAttributes attr = Files.readAttributes(hNode.f_path, BasicFileAttributes.class);
-                    return frame.assignValue(iReturn, xInt64.makeHandle(attr.creationTime().toMillis()));
-                    }
-                catch (IOException e)
-                    {
-                    return raisePathException(frame, e, hNode.f_path);
-                    }
-                }
+                return performIO(frame, hNode.f_path,
+                    () -> readAttributes(hNode.f_path),
+                    (frameCaller, attr) -> frameCaller.assignValue(iReturn,
+                        xInt64.makeHandle(attr.creationTime().toMillis())));
 
             case "accessedMillis":
-                {
-                try
-                    {
-                    BasicFileAttributes attr = Files.readAttributes(hNode.f_path, BasicFileAttributes.class);
-                    return frame.assignValue(iReturn, xInt64.makeHandle(attr.lastAccessTime().toMillis()));
-                    }
-                catch (IOException e)
-                    {
-                    return raisePathException(frame, e, hNode.f_path);
-                    }
-                }
+                return performIO(frame, hNode.f_path,
+                    () -> readAttributes(hNode.f_path),
+                    (frameCaller, attr) -> frameCaller.assignValue(iReturn,
+                        xInt64.makeHandle(attr.lastAccessTime().toMillis())));
 
             case "modifiedMillis":
-                {
-                try
-                    {
-                    BasicFileAttributes attr = Files.readAttributes(hNode.f_path, BasicFileAttributes.class);
-                    return frame.assignValue(iReturn, xInt64.makeHandle(attr.lastModifiedTime().toMillis()));
-                    }
-                catch (IOException e)
-                    {
-                    return raisePathException(frame, e, hNode.f_path);
-                    }
-                }
+                return performIO(frame, hNode.f_path,
+                    () -> readAttributes(hNode.f_path),
+                    (frameCaller, attr) -> frameCaller.assignValue(iReturn,
+                        xInt64.makeHandle(attr.lastModifiedTime().toMillis())));
 
             case "size":
-                {
-                try
-                    {
-                    BasicFileAttributes attr = Files.readAttributes(hNode.f_path, BasicFileAttributes.class);
-                    return frame.assignValue(iReturn, xInt64.makeHandle(attr.size()));
-                    }
-                catch (IOException e)
-                    {
-                    return raisePathException(frame, e, hNode.f_path);
-                    }
-                }
+                return performIO(frame, hNode.f_path,
+                    () -> readAttributes(hNode.f_path),
+                    (frameCaller, attr) -> frameCaller.assignValue(iReturn,
+                        xInt64.makeHandle(attr.size())));
             }
 
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
@@ -149,6 +132,49 @@ public class xOSFileNode
 
     // ----- helper methods ------------------------------------------------------------------------
 
+    /**
+     * Perform the specified (blocking) file system operation on the container's IO executor and
+     * proceed with the result on the calling fiber once the operation completes. The service
+     * thread is released while the operation is in progress.
+     *
+     * @param frame         the current frame
+     * @param path          the path the operation is for (used to report exceptions)
+     * @param task          the blocking operation
+     * @param continuation  the continuation to call with the operation result
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    public static <R> int performIO(Frame frame, Path path, Callable<R> task,
+                                    IOContinuation<R> continuation)
+        {
+        CompletableFuture<R> cf = frame.f_context.f_container.scheduleIO(task);
+
+        Frame.Continuation continuationIO = frameCaller ->
+            {
+            R result;
+            try
+                {
+                result = cf.get();
+                }
+            catch (Throwable e)
+                {
+                return raisePathException(frameCaller, e, path);
+                }
+            return continuation.proceed(frameCaller, result);
+            };
+
+        return frame.waitForIO(cf, continuationIO);
+        }
+
+    /**
+     * Read the basic attributes of the specified path.
+     */
+    protected static BasicFileAttributes readAttributes(Path path)
+            throws IOException
+        {
+        return Files.readAttributes(path, BasicFileAttributes.class);
+        }
+
     public static int raisePathException(Frame frame, Throwable e, Path path)
         {
         if (e instanceof ExecutionException ee)
@@ -165,6 +191,11 @@ public class xOSFileNode
 
     public static int raisePathException(Frame frame, IOException e, Path path)
         {
+        if (e instanceof OutOfBoundsIOException eOOB)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, eOOB.f_lIndex, eOOB.f_cSize));
+            }
+
         // TODO: how to get the natural Path efficiently from path?
         // TODO: consider translating IOExceptions into corresponding natural exceptions
 
@@ -178,6 +209,46 @@ public class xOSFileNode
         }
 
 
+    /**
+     * A continuation that is called on the fiber that initiated an IO operation.
+     */
+    @FunctionalInterface
+    public interface IOContinuation<R>
+        {
+        /**
+         * Proceed with the result of the IO operation.
+         *
+         * @param frameCaller  the frame that initiated the operation
+         * @param result       the operation result
+         *
+         * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+         */
+        int proceed(Frame frameCaller, R result);
+        }
+
+
+    /**
+     * An exception thrown by an IO task to report an index that is out of the file bounds; it is
+     * raised as a natural OutOfBounds exception on the fiber that initiated the task.
+     */
+    protected static class OutOfBoundsIOException
+            extends IOException
+        {
+        protected OutOfBoundsIOException(long lIndex, long cSize)
+            {
+            super("Index " + lIndex + " out of bounds for size " + cSize);
+
+            f_lIndex = lIndex;
+            f_cSize  = cSize;
+            }
+
+        protected final long f_lIndex;
+        protected final long f_cSize;
+
+        private static final long serialVersionUID = 1L;
+        }
+
+
     // ----- ObjectHandle --------------------------------------------------------------------------
 
     public static class NodeHandle
@@ -3,7 +3,6 @@ package org.xvm.runtime.template._native.fs;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.IOException;
 
 import java.nio.file.AccessDeniedException;
 import java.nio.file.FileAlreadyExistsException;
@@ -12,6 +11,10 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.MethodStructure;
 import org.xvm.asm.Op;
@@ -73,13 +76,19 @@ public class xOSFileStore
         switch (sPropName)
             {
             case "capacity":
-                return frame.assignValue(iReturn, xInt64.makeHandle(ROOT.getTotalSpace()));
+                return xOSFileNode.performIO(frame, ROOT.toPath(),
+                    ROOT::getTotalSpace,
+                    (frameCaller, cb) -> frameCaller.assignValue(iReturn, xInt64.makeHandle(cb)));
 
             case "bytesFree":
-                return frame.assignValue(iReturn, xInt64.makeHandle(ROOT.getFreeSpace()));
+                return xOSFileNode.performIO(frame, ROOT.toPath(),
+                    ROOT::getFreeSpace,
+                    (frameCaller, cb) -> frameCaller.assignValue(iReturn, xInt64.makeHandle(cb)));
 
             case "bytesUsed":
-                return frame.assignValue(iReturn, xInt64.makeHandle(ROOT.getTotalSpace() - ROOT.getFreeSpace()));
+                return xOSFileNode.performIO(frame, ROOT.toPath(),
+                    () -> ROOT.getTotalSpace() - ROOT.getFreeSpace(),
+                    (frameCaller, cb) -> frameCaller.assignValue(iReturn, xInt64.makeHandle(cb)));
             }
 
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
@@ -124,44 +133,65 @@ public class xOSFileStore
                 String       sDest = ((StringHandle) ahArg[3]).getStringValue();
                 boolean      fMove = ((xBoolean.BooleanHandle) ahArg[4]).get();
 
-                Path    pathSrc = Paths.get(sSrc);
-                boolean fDir    = Files.isDirectory(pathSrc);
-                if (Files.notExists(pathSrc))
-                    {
-                    return frame.raiseException(xException.fileNotFoundException(frame, "Could not find file or directory: " + sSrc, hSrc));
-                    }
-
+                Path pathSrc  = Paths.get(sSrc);
                 Path pathDest = Paths.get(sDest);
-                if (Files.exists(pathDest) && !Files.isDirectory(pathDest))
-                    {
-                    return frame.raiseException(xException.fileAlreadyExistsException(frame, "Could not overwrite file or directory: " + sDest, hDest));
-                    }
 
-                Path pathResult;
-                try
+                // the task returns true iff the source is a directory
+                Callable<Boolean> task = () ->
                     {
-                    pathResult = fMove
-                            ? Files.move(pathSrc, pathDest)
-                            : Files.copy(pathSrc, pathDest);
-                    }
-                catch (NoSuchFileException | FileNotFoundException e)
+                    boolean fDir = Files.isDirectory(pathSrc);
+                    if (Files.notExists(pathSrc))
+                        {
+                        throw new NoSuchFileException("Could not find file or directory: " + sSrc);
+                        }
+
+                    if (Files.exists(pathDest) && !Files.isDirectory(pathDest))
+                        {
+                        throw new FileAlreadyExistsException("Could not overwrite file or directory: " + sDest);
+                        }
+
+                    if (fMove)
+                        {
+                        Files.move(pathSrc, pathDest);
+                        }
+                    else
+                        {
+                        Files.copy(pathSrc, pathDest);
+                        }
+                    return fDir;
+                    };
+
+                CompletableFuture<Boolean> cfCopy = frame.f_context.f_container.scheduleIO(task);
+
+                Frame.Continuation continuation = frameCaller ->
                     {
-                    return frame.raiseException(xException.fileNotFoundException(frame, e.getMessage(), hSrc));
-                    }
-                catch (FileAlreadyExistsException e)
-                    {
-                    return frame.raiseException(xException.fileAlreadyExistsException(frame, e.getMessage(), hDest));
-                    }
-                catch (SecurityException | AccessDeniedException e)
-                    {
-                    return frame.raiseException(xException.accessDeniedException(frame, e.getMessage(), hDest));
-                    }
-                catch (IOException e)
-                    {
-                    return frame.raiseException(xException.ioException(frame, e.getMessage()));
-                    }
-
-                return xOSFileNode.createHandle(frame, hTarget, pathResult, fDir, iReturn);
+                    boolean fDir;
+                    try
+                        {
+                        fDir = cfCopy.get();
+                        }
+                    catch (Throwable e)
+                        {
+                        Throwable eCause = e instanceof ExecutionException ? e.getCause() : e;
+                        if (eCause instanceof NoSuchFileException || eCause instanceof FileNotFoundException)
+                            {
+                            return frameCaller.raiseException(xException.fileNotFoundException(frameCaller, eCause.getMessage(), hSrc));
+                            }
+                        if (eCause instanceof FileAlreadyExistsException)
+                            {
+                            return frameCaller.raiseException(xException.fileAlreadyExistsException(frameCaller, eCause.getMessage(), hDest));
+                            }
+                        if (eCause instanceof SecurityException || eCause instanceof AccessDeniedException)
+                            {
+                            return frameCaller.raiseException(xException.accessDeniedException(frameCaller, eCause.getMessage(), hDest));
+                            }
+                        return frameCaller.raiseException(xException.ioException(frameCaller, eCause.getMessage()));
+                        }
+
+                    return xOSFileNode.createHandle(frameCaller, hTarget, pathDest, fDir, iReturn);
+                    };
+
+                return frame.waitForIO(cfCopy, continuation);
                 }
             }
 
@@ -0,0 +1,507 @@
+package org.xvm.runtime.template._native.fs;
+
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.FileChannel;
+
+import java.nio.file.Path;
+
+import java.util.Arrays;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.Container;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.ServiceContext;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+import org.xvm.runtime.template.xService;
+
+import org.xvm.runtime.template.collections.xArray;
+import org.xvm.runtime.template.collections.xArray.ArrayHandle;
+import org.xvm.runtime.template.collections.xArray.Mutability;
+import org.xvm.runtime.template.collections.xByteArray;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * Native OSRawChannel implementation: the RawChannel that reads and writes a file via a Java
+ * {@link FileChannel}.
+ */
+public class xOSRawChannel
+        extends xService
+    {
+    public static xOSRawChannel INSTANCE;
+
+    public xOSRawChannel(Container container, ClassStructure structure, boolean fInstance)
+        {
+        super(container, structure, false);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        markNativeProperty("readable");
+        markNativeProperty("eof");
+        markNativeProperty("writable");
+        markNativeProperty("fixedBufferSize");
+        markNativeProperty("totalBuffers");
+        markNativeProperty("totalBytes");
+        markNativeProperty("consumedBuffers");
+        markNativeProperty("consumedBytes");
+        markNativeProperty("size");
+        markNativeProperty("position");
+        markNativeProperty("closed");
+
+        markNativeMethod("take", VOID, null);
+        markNativeMethod("submit", null, INT);
+        markNativeMethod("allocate", null, null);
+        markNativeMethod("flush", VOID, VOID);
+        markNativeMethod("close", VOID, VOID);
+
+        invalidateTypeInfo();
+        }
+
+    /**
+     * Create a raw channel handle for the specified file channel.
+     *
+     * @param context  the service context of the channel
+     * @param channel  the Java file channel
+     * @param path     the file path
+     * @param fRead    true iff the channel has been opened for reading
+     * @param fWrite   true iff the channel has been opened for writing
+     *
+     * @return the raw channel handle
+     */
+    public RawChannelHandle createHandle(ServiceContext context, FileChannel channel, Path path,
+                                         boolean fRead, boolean fWrite)
+        {
+        return new RawChannelHandle(getCanonicalClass(context.f_container), context, channel, path,
+                fRead, fWrite);
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        RawChannelHandle hChannel = (RawChannelHandle) hTarget;
+        FileChannel      channel  = hChannel.f_channel;
+
+        switch (sPropName)
+            {
+            case "readable":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(
+                        hChannel.f_fRead && channel.isOpen()));
+
+            case "writable":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(
+                        hChannel.f_fWrite && channel.isOpen()));
+
+            case "closed":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(!channel.isOpen()));
+
+            case "fixedBufferSize":
+                return frame.assignValue(iReturn, xInt64.makeHandle(BUFFER_SIZE));
+
+            case "totalBuffers":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hChannel.m_cBuffers));
+
+            case "totalBytes":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hChannel.m_cBuffers * BUFFER_SIZE));
+
+            case "consumedBuffers":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hChannel.m_cTaken));
+
+            case "consumedBytes":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hChannel.m_cbTaken));
+
+            case "eof":
+            case "size":
+            case "position":
+                {
+                if (!channel.isOpen())
+                    {
+                    return raiseClosed(frame);
+                    }
+
+                try
+                    {
+                    ObjectHandle hValue = switch (sPropName)
+                        {
+                        case "eof"      -> xBoolean.makeHandle(channel.position() >= channel.size());
+                        case "size"     -> xInt64.makeHandle(channel.size());
+                        default         -> xInt64.makeHandle(channel.position());
+                        };
+                    return frame.assignValue(iReturn, hValue);
+                    }
+                catch (IOException e)
+                    {
+                    return xOSFileNode.raisePathException(frame, e, hChannel.f_path);
+                    }
+                }
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNativeSet(Frame frame, ObjectHandle hTarget, String sPropName,
+                               ObjectHandle hValue)
+        {
+        RawChannelHandle hChannel = (RawChannelHandle) hTarget;
+
+        switch (sPropName)
+            {
+            case "size":
+                return setSize(frame, hChannel, ((JavaLong) hValue).getValue());
+
+            case "position":
+                {
+                if (!hChannel.f_channel.isOpen())
+                    {
+                    return raiseClosed(frame);
+                    }
+
+                try
+                    {
+                    hChannel.f_channel.position(((JavaLong) hValue).getValue());
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return xOSFileNode.raisePathException(frame, e, hChannel.f_path);
+                    }
+                }
+            }
+
+        return super.invokeNativeSet(frame, hTarget, sPropName, hValue);
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        RawChannelHandle hChannel = (RawChannelHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "allocate":
+                {
+                if (!hChannel.f_channel.isOpen())
+                    {
+                    return frame.assignValue(iReturn, xInt64.makeHandle(-2));
+                    }
+
+                hChannel.m_cBuffers++;
+                return frame.assignValue(iReturn,
+                        xArray.makeByteArrayHandle(new byte[BUFFER_SIZE], Mutability.Fixed));
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        RawChannelHandle hChannel = (RawChannelHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "take":
+                return invokeTake(frame, hChannel, iReturn);
+
+            case "submit":
+                return invokeSubmit(frame, hChannel, (ArrayHandle) ahArg[0],
+                        ((JavaLong) ahArg[1]).getValue(), ((JavaLong) ahArg[2]).getValue(), iReturn);
+
+            case "flush":
+                return invokeFlush(frame, hChannel);
+
+            case "close":
+                {
+                try
+                    {
+                    hChannel.f_channel.close();
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return xOSFileNode.raisePathException(frame, e, hChannel.f_path);
+                    }
+                }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+
+    // ----- method implementations ----------------------------------------------------------------
+
+    /**
+     * Implementation for: {@code Byte[]|Int take()}.
+     *
+     * Read up to {@link #BUFFER_SIZE} bytes at the current position.
+     */
+    private int invokeTake(Frame frame, RawChannelHandle hChannel, int iReturn)
+        {
+        FileChannel channel = hChannel.f_channel;
+        if (!channel.isOpen())
+            {
+            return frame.assignValue(iReturn, xInt64.makeHandle(-3));
+            }
+
+        if (!hChannel.f_fRead)
+            {
+            return frame.assignValue(iReturn, xInt64.makeHandle(-2));
+            }
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        Callable<Integer> task = () -> channel.read(buffer);
+
+        CompletableFuture<Integer> cfRead = frame.f_context.f_container.scheduleIO(task);
+
+        Frame.Continuation continuation = frameCaller ->
+            {
+            try
+                {
+                int cb = cfRead.get();
+                if (cb < 0)
+                    {
+                    return frameCaller.assignValue(iReturn, xInt64.makeHandle(-1));
+                    }
+
+                hChannel.m_cTaken++;
+                hChannel.m_cbTaken += cb;
+
+                byte[] ab = cb == BUFFER_SIZE ? buffer.array() : Arrays.copyOf(buffer.array(), cb);
+                return frameCaller.assignValue(iReturn,
+                        xArray.makeByteArrayHandle(ab, Mutability.Constant));
+                }
+            catch (Throwable e)
+                {
+                return xOSFileNode.raisePathException(frameCaller, e, hChannel.f_path);
+                }
+            };
+
+        return frame.waitForIO(cfRead, continuation);
+        }
+
+    /**
+     * Implementation for: {@code Int submit(Byte[] buffer, Int start, Int end)}.
+     *
+     * Write the specified bytes at the current position (or at the end of the file, if the
+     * channel was opened to append).
+     */
+    private int invokeSubmit(Frame frame, RawChannelHandle hChannel, ArrayHandle hBuffer,
+                             long ofStart, long ofEnd, int iReturn)
+        {
+        FileChannel channel = hChannel.f_channel;
+        if (!channel.isOpen() || !hChannel.f_fWrite)
+            {
+            return frame.assignValue(iReturn, xInt64.makeHandle(-1));
+            }
+
+        byte[] ab = xByteArray.getBytes(hBuffer);
+        if (ofStart < 0 || ofStart > ofEnd || ofEnd > ab.length)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, ofEnd, ab.length));
+            }
+
+        ByteBuffer buffer = ByteBuffer.wrap(ab, (int) ofStart, (int) (ofEnd - ofStart));
+
+        Callable<Void> task = () ->
+            {
+            while (buffer.hasRemaining())
+                {
+                channel.write(buffer);
+                }
+            return null;
+            };
+
+        CompletableFuture<Void> cfWrite = frame.f_context.f_container.scheduleIO(task);
+
+        Frame.Continuation continuation = frameCaller ->
+            {
+            try
+                {
+                cfWrite.get();
+                return frameCaller.assignValue(iReturn, xInt64.makeHandle(0));
+                }
+            catch (Throwable e)
+                {
+                return xOSFileNode.raisePathException(frameCaller, e, hChannel.f_path);
+                }
+            };
+
+        return frame.waitForIO(cfWrite, continuation);
+        }
+
+    /**
+     * Implementation for: {@code void flush()}.
+     */
+    private int invokeFlush(Frame frame, RawChannelHandle hChannel)
+        {
+        FileChannel channel = hChannel.f_channel;
+        if (!channel.isOpen())
+            {
+            return raiseClosed(frame);
+            }
+
+        Callable<Void> task = () ->
+            {
+            channel.force(true);
+            return null;
+            };
+
+        CompletableFuture<Void> cfFlush = frame.f_context.f_container.scheduleIO(task);
+
+        Frame.Continuation continuation = frameCaller ->
+            {
+            try
+                {
+                cfFlush.get();
+                return Op.R_NEXT;
+                }
+            catch (Throwable e)
+                {
+                return xOSFileNode.raisePathException(frameCaller, e, hChannel.f_path);
+                }
+            };
+
+        return frame.waitForIO(cfFlush, continuation);
+        }
+
+    /**
+     * Implementation for: {@code void size.set(Int newSize)}.
+     *
+     * Truncate the file, or extend it with zero bytes; the position is not changed.
+     */
+    private int setSize(Frame frame, RawChannelHandle hChannel, long cNew)
+        {
+        FileChannel channel = hChannel.f_channel;
+        if (!channel.isOpen())
+            {
+            return raiseClosed(frame);
+            }
+
+        if (!hChannel.f_fWrite)
+            {
+            return frame.raiseException(xException.readOnly(frame, "Channel is not writable"));
+            }
+
+        if (cNew < 0)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, cNew, 0));
+            }
+
+        Callable<Void> task = () ->
+            {
+            long cOld = channel.size();
+            if (cNew < cOld)
+                {
+                channel.truncate(cNew);
+                }
+            else if (cNew > cOld)
+                {
+                channel.write(ByteBuffer.allocate(1), cNew - 1);
+                }
+            return null;
+            };
+
+        CompletableFuture<Void> cfResize = frame.f_context.f_container.scheduleIO(task);
+
+        Frame.Continuation continuation = frameCaller ->
+            {
+            try
+                {
+                cfResize.get();
+                return Op.R_NEXT;
+                }
+            catch (Throwable e)
+                {
+                return xOSFileNode.raisePathException(frameCaller, e, hChannel.f_path);
+                }
+            };
+
+        return frame.waitForIO(cfResize, continuation);
+        }
+
+    /**
+     * Raise the exception for an operation on a closed channel.
+     */
+    private int raiseClosed(Frame frame)
+        {
+        return frame.raiseException(xException.ioException(frame, "Channel closed"));
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * The handle class.
+     */
+    public static class RawChannelHandle
+            extends ServiceHandle
+        {
+        public final FileChannel f_channel;
+        public final Path        f_path;
+        public final boolean     f_fRead;
+        public final boolean     f_fWrite;
+
+        protected RawChannelHandle(TypeComposition clazz, ServiceContext context,
+                                   FileChannel channel, Path path, boolean fRead, boolean fWrite)
+            {
+            super(clazz, context);
+
+            f_channel = channel;
+            f_path    = path;
+            f_fRead   = fRead;
+            f_fWrite  = fWrite;
+            }
+
+        @Override
+        public String toString()
+            {
+            return super.toString() + " " + f_path;
+            }
+
+        /**
+         * The number of buffers allocated by the channel.
+         */
+        protected long m_cBuffers;
+
+        /**
+         * The number of buffers (and the total number of bytes in them) read by the channel.
+         */
+        protected long m_cTaken;
+        protected long m_cbTaken;
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The size of the buffers read from and allocated by the channel.
+     */
+    public static final int BUFFER_SIZE = 64 * 1024;
+    }
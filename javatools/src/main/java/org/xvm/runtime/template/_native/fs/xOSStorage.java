@@ -132,13 +132,12 @@ public class xOSStorage
                 {
                 StringHandle hPathString = (StringHandle) hArg;
 
-                Path     path   = Paths.get(hPathString.getStringValue());
-                String[] asName = path.toFile().list();
-                int      cNames = asName == null ? 0 : asName.length;
-
-                return cNames == 0
-                         ? frame.assignValue(iReturn, xString.ensureEmptyArray())
-                         : frame.assignValue(iReturn, xString.makeArrayHandle(asName));
+                Path path = Paths.get(hPathString.getStringValue());
+                return xOSFileNode.performIO(frame, path,
+                    () -> path.toFile().list(),
+                    (frameCaller, asName) -> asName == null || asName.length == 0
+                         ? frameCaller.assignValue(iReturn, xString.ensureEmptyArray())
+                         : frameCaller.assignValue(iReturn, xString.makeArrayHandle(asName)));
                 }
 
             case "createFile":  // (pathString)
@@ -146,20 +145,11 @@ public class xOSStorage
                 StringHandle hPathString = (StringHandle) hArg;
 
                 Path path = Paths.get(hPathString.getStringValue());
-                if (Files.exists(path) && !Files.isDirectory(path))
-                    {
-                    return frame.assignValue(iReturn, xBoolean.FALSE);
-                    }
-
-                try
-                    {
-                    return frame.assignValue(iReturn,
-                        xBoolean.makeHandle(path.toFile().createNewFile()));
-                    }
-                catch (IOException e)
-                    {
-                    return raisePathException(frame, e, path.toString());
-                    }
+                return xOSFileNode.performIO(frame, path,
+                    () -> (!Files.exists(path) || Files.isDirectory(path)) &&
+                            path.toFile().createNewFile(),
+                    (frameCaller, fCreated) ->
+                        frameCaller.assignValue(iReturn, xBoolean.makeHandle(fCreated)));
                 }
 
             case "createDir":  // (pathString)
@@ -167,13 +157,10 @@ public class xOSStorage
                 StringHandle hPathString = (StringHandle) hArg;
 
                 Path path = Paths.get(hPathString.getStringValue());
-                if (Files.exists(path) && Files.isDirectory(path))
-                    {
-                    return frame.assignValue(iReturn, xBoolean.FALSE);
-                    }
-
-                return frame.assignValue(iReturn,
-                    xBoolean.makeHandle(path.toFile().mkdirs()));
+                return xOSFileNode.performIO(frame, path,
+                    () -> !Files.isDirectory(path) && path.toFile().mkdirs(),
+                    (frameCaller, fCreated) ->
+                        frameCaller.assignValue(iReturn, xBoolean.makeHandle(fCreated)));
                 }
 
             case "delete":  // (pathString)
@@ -181,13 +168,10 @@ public class xOSStorage
                 StringHandle hPathString = (StringHandle) hArg;
 
                 Path path = Paths.get(hPathString.getStringValue());
-                if (!Files.exists(path))
-                    {
-                    return frame.assignValue(iReturn, xBoolean.FALSE);
-                    }
-
-                return frame.assignValue(iReturn,
-                    xBoolean.makeHandle(path.toFile().delete()));
+                return xOSFileNode.performIO(frame, path,
+                    () -> Files.exists(path) && path.toFile().delete(),
+                    (frameCaller, fDeleted) ->
+                        frameCaller.assignValue(iReturn, xBoolean.makeHandle(fDeleted)));
                 }
 
             case "watch":  // (pathStringDir)
@@ -246,21 +230,24 @@ public class xOSStorage
                 ObjectHandle hStore      = ahArg[0];
                 StringHandle hPathString = (StringHandle) ahArg[1];
 
+                Path path;
                 try
                     {
-                    Path path = Paths.get(hPathString.getStringValue());
-                    if (Files.exists(path))
-                        {
-                        return Utils.assignConditionalResult(frame,
-                            xOSFileNode.createHandle(frame, hStore, path, Files.isDirectory(path), Op.A_STACK),
-                            aiReturn);
-                        }
-                    return frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                    path = Paths.get(hPathString.getStringValue());
                     }
                 catch (Exception e)
                     {
                     return frame.raiseException(xException.ioException(frame, e.getMessage()));
                     }
+
+                // the task returns null if the node doesn't exist, or true iff it's a directory
+                return xOSFileNode.performIO(frame, path,
+                    () -> Files.exists(path) ? Files.isDirectory(path) : null,
+                    (frameCaller, fDir) -> fDir == null
+                        ? frameCaller.assignValue(aiReturn[0], xBoolean.FALSE)
+                        : Utils.assignConditionalResult(frameCaller,
+                            xOSFileNode.createHandle(frameCaller, hStore, path, fDir, Op.A_STACK),
+                            aiReturn));
                 }
             }
         return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
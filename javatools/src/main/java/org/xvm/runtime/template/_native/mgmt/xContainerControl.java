@@ -12,18 +12,26 @@ import org.xvm.asm.constants.TypeConstant;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.Container;
+import org.xvm.runtime.ContainerHeap;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.NestedContainer;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.Utils;
+import org.xvm.runtime.WeakCallback;
 
+import org.xvm.runtime.ObjectHandle.JavaLong;
+
+import org.xvm.runtime.template.xException;
 import org.xvm.runtime.template.xNullable;
 import org.xvm.runtime.template.xService.ServiceHandle;
 
 import org.xvm.runtime.template.collections.xTuple;
 import org.xvm.runtime.template.collections.xTuple.TupleHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 import org.xvm.runtime.template.text.xString.StringHandle;
 
 import org.xvm.runtime.template._native.xRTServiceControl;
@@ -66,9 +74,12 @@ public class xContainerControl
 
         markNativeProperty("mainService");
         markNativeProperty("innerTypeSystem");
+        markNativeProperty("bytesReserved");
+        markNativeProperty("bytesAllocated");
 
-        markNativeMethod("invoke", null, null);
-        markNativeMethod("kill",   VOID, VOID);
+        markNativeMethod("invoke",      null, null);
+        markNativeMethod("limitMemory", null, VOID);
+        markNativeMethod("kill",        VOID, VOID);
 
         invalidateTypeInfo();
         }
@@ -87,6 +98,20 @@ public class xContainerControl
 
             case "innerTypeSystem":
                 return getPropertyTypeSystem(frame, container, iReturn);
+
+            case "bytesReserved":
+                {
+                ContainerHeap heap = container.getHeap();
+                return frame.assignValue(iReturn,
+                        xInt64.makeHandle(heap == null ? 0 : heap.getReservedBytes()));
+                }
+
+            case "bytesAllocated":
+                {
+                ContainerHeap heap = container.getHeap();
+                return frame.assignValue(iReturn,
+                        xInt64.makeHandle(heap == null ? 0 : heap.getAllocatedBytes()));
+                }
             }
 
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
@@ -102,6 +127,13 @@ public class xContainerControl
                 return invokeInvoke(frame, (ControlHandle) hTarget,
                         (StringHandle) ahArg[0], (TupleHandle) ahArg[1], ahArg[2], iReturn);
 
+            case "limitMemory":
+                return invokeLimitMemory(frame, (ControlHandle) hTarget,
+                        ((JavaLong) ahArg[0]).getValue(), (FunctionHandle) ahArg[1], iReturn);
+
+            case "gc":
+                return invokeGc(frame, (ControlHandle) hTarget, iReturn);
+
             case "kill":
                 return invokeKill(frame, (ControlHandle) hTarget, iReturn);
             }
@@ -157,6 +189,58 @@ public class xContainerControl
             }
         }
 
+    /**
+     * Native implementation: "void limitMemory(Int max, function void() maxRamExceeded)".
+     * <p>
+     * The objects allocated by the container's code are accounted for by a {@link ContainerHeap}
+     * with the hard limit of "max" bytes; an allocation beyond that limit raises an OutOfMemory
+     * exception within the container and the "maxRamExceeded" function is called on the caller's
+     * service. The failed allocation doesn't wait for the memory to be reclaimed; the Java
+     * collector is asked to run on the IO executor instead. Note, that this implementation doesn't
+     * pause the container.
+     */
+    protected int invokeLimitMemory(Frame frame, ControlHandle hCtrl, long cbMax,
+                                    FunctionHandle hExceeded, int iReturn)
+        {
+        if (cbMax <= 0)
+            {
+            return frame.raiseException(xException.illegalArgument(frame, "max=" + cbMax));
+            }
+
+        ContainerHeap heap     = new ContainerHeap(cbMax - cbMax / 4, cbMax,
+                                        frame.f_context.f_container.f_runtime.f_executorIO);
+        WeakCallback  callback = new WeakCallback(frame.f_context, hExceeded);
+
+        heap.setLimitListener(() ->
+            {
+            ServiceContext context = callback.get();
+            if (context != null)
+                {
+                context.callLater(callback.getFunction(), Utils.OBJECTS_NONE);
+                }
+            });
+
+        hCtrl.f_container.setHeap(heap);
+
+        // Note: the caller is async; we must return the Tuple()
+        return frame.assignValue(iReturn, xTuple.H_VOID);
+        }
+
+    /**
+     * Native implementation: "void gc()".
+     */
+    protected int invokeGc(Frame frame, ControlHandle hCtrl, int iReturn)
+        {
+        ContainerHeap heap = hCtrl.f_container.getHeap();
+        if (heap != null)
+            {
+            heap.gc();
+            }
+
+        // Note: the caller is async; we must return the Tuple()
+        return frame.assignValue(iReturn, xTuple.H_VOID);
+        }
+
     /**
      * Native implementation: "void kill()".
      */
@@ -0,0 +1,327 @@
+package org.xvm.runtime.template._native.net;
+
+
+import java.io.IOException;
+
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+import java.util.Iterator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * The selector shared by all the native sockets.
+ * <p>
+ * The socket operations are performed by the service threads in the non-blocking mode. Only when
+ * an operation cannot proceed, the service asks the selector to {@link #await await} the socket
+ * readiness and parks the fiber via {@link org.xvm.runtime.Frame#waitForIO}. The selector thread
+ * never reads or writes any data: it simply completes the future, which reschedules the fiber,
+ * and the fiber then repeats the operation on its own service thread.
+ */
+public class SocketSelector
+    {
+    /**
+     * Construct the selector and start its thread.
+     */
+    private SocketSelector()
+            throws IOException
+        {
+        f_selector = Selector.open();
+
+        Thread thread = new Thread(this::run, "SocketSelector");
+        thread.setDaemon(true);
+        thread.start();
+        }
+
+    /**
+     * @return the shared selector
+     */
+    public static synchronized SocketSelector getInstance()
+            throws IOException
+        {
+        SocketSelector selector = s_instance;
+        if (selector == null)
+            {
+            selector = s_instance = new SocketSelector();
+            }
+        return selector;
+        }
+
+
+    // ----- public API ----------------------------------------------------------------------------
+
+    /**
+     * Wait for the registered channel to become ready for the specified operation.
+     *
+     * @param reg  the channel registration
+     * @param nOp  one of the {@link SelectionKey} operations
+     *
+     * @return a future that is completed (on the selector thread) when the channel is ready, or
+     *         completed exceptionally if the channel is closed before that
+     */
+    public CompletableFuture<Void> await(Registration reg, int nOp)
+        {
+        CompletableFuture<Void> cf = new CompletableFuture<>();
+
+        synchronized (reg)
+            {
+            if (nOp == SelectionKey.OP_READ || nOp == SelectionKey.OP_ACCEPT)
+                {
+                assert reg.m_cfIn == null;
+                reg.m_cfIn  = cf;
+                reg.m_nOpIn = nOp;
+                }
+            else
+                {
+                assert reg.m_cfOut == null;
+                reg.m_cfOut  = cf;
+                reg.m_nOpOut = nOp;
+                }
+            }
+
+        f_queueChanged.add(reg);
+        f_selector.wakeup();
+        return cf;
+        }
+
+    /**
+     * Close the registered channel, failing any pending operations.
+     *
+     * @param reg  the channel registration
+     */
+    public void close(Registration reg)
+            throws IOException
+        {
+        try
+            {
+            reg.f_channel.close();
+            }
+        finally
+            {
+            reg.fail(new AsynchronousCloseException());
+
+            // the socket is only released by the next select() call
+            f_selector.wakeup();
+            }
+        }
+
+
+    // ----- selector loop -------------------------------------------------------------------------
+
+    /**
+     * The selector thread loop.
+     */
+    private void run()
+        {
+        Selector selector = f_selector;
+        while (true)
+            {
+            try
+                {
+                selector.select();
+
+                for (Iterator<SelectionKey> iter = selector.selectedKeys().iterator(); iter.hasNext(); )
+                    {
+                    SelectionKey key = iter.next();
+                    iter.remove();
+
+                    Registration reg = (Registration) key.attachment();
+                    if (key.isValid())
+                        {
+                        reg.ready(key.readyOps());
+                        update(reg);
+                        }
+                    else
+                        {
+                        reg.fail(new ClosedChannelException());
+                        }
+                    }
+
+                Registration reg;
+                while ((reg = f_queueChanged.poll()) != null)
+                    {
+                    update(reg);
+                    }
+                }
+            catch (ClosedSelectorException e)
+                {
+                return;
+                }
+            catch (IOException e)
+                {
+                // an unexpected selector failure; log it and keep going, since all the sockets
+                // depend on this thread
+                e.printStackTrace();
+                }
+            }
+        }
+
+    /**
+     * Bring the selector's interest in the registered channel in sync with the pending operations.
+     * Called on the selector thread only.
+     */
+    private void update(Registration reg)
+        {
+        int nOps = reg.getInterestOps();
+
+        SelectableChannel channel = reg.f_channel;
+        SelectionKey      key     = reg.m_key;
+        try
+            {
+            if (key == null)
+                {
+                if (nOps != 0)
+                    {
+                    reg.m_key = channel.register(f_selector, nOps, reg);
+                    }
+                }
+            else if (key.interestOps() != nOps)
+                {
+                key.interestOps(nOps);
+                }
+            }
+        catch (ClosedChannelException | CancelledKeyException e)
+            {
+            reg.fail(e);
+            }
+        }
+
+
+    // ----- Registration --------------------------------------------------------------------------
+
+    /**
+     * The state of a non-blocking channel with respect to the selector: at most one pending input
+     * operation (read or accept) and at most one pending output operation (write or connect).
+     */
+    public static class Registration
+        {
+        /**
+         * Construct a registration for the specified channel, which must be in the non-blocking
+         * mode.
+         */
+        public Registration(SelectableChannel channel)
+            {
+            assert !channel.isBlocking();
+
+            f_channel = channel;
+            }
+
+        /**
+         * @return the interest set for the pending operations
+         */
+        protected synchronized int getInterestOps()
+            {
+            return m_nOpIn | m_nOpOut;
+            }
+
+        /**
+         * Complete the futures for the operations the channel is ready for.
+         */
+        protected void ready(int nReady)
+            {
+            CompletableFuture<Void> cfIn  = null;
+            CompletableFuture<Void> cfOut = null;
+
+            synchronized (this)
+                {
+                if ((nReady & m_nOpIn) != 0)
+                    {
+                    cfIn    = m_cfIn;
+                    m_cfIn  = null;
+                    m_nOpIn = 0;
+                    }
+                if ((nReady & m_nOpOut) != 0)
+                    {
+                    cfOut    = m_cfOut;
+                    m_cfOut  = null;
+                    m_nOpOut = 0;
+                    }
+                }
+
+            if (cfIn != null)
+                {
+                cfIn.complete(null);
+                }
+            if (cfOut != null)
+                {
+                cfOut.complete(null);
+                }
+            }
+
+        /**
+         * Fail all the pending operations.
+         */
+        protected void fail(Throwable e)
+            {
+            CompletableFuture<Void> cfIn;
+            CompletableFuture<Void> cfOut;
+
+            synchronized (this)
+                {
+                cfIn     = m_cfIn;
+                cfOut    = m_cfOut;
+                m_cfIn   = null;
+                m_cfOut  = null;
+                m_nOpIn  = 0;
+                m_nOpOut = 0;
+                }
+
+            if (cfIn != null)
+                {
+                cfIn.completeExceptionally(e);
+                }
+            if (cfOut != null)
+                {
+                cfOut.completeExceptionally(e);
+                }
+            }
+
+        /**
+         * The channel.
+         */
+        public final SelectableChannel f_channel;
+
+        /**
+         * The selection key (accessed by the selector thread only).
+         */
+        private SelectionKey m_key;
+
+        /**
+         * The pending input operation and its future.
+         */
+        private int                     m_nOpIn;
+        private CompletableFuture<Void> m_cfIn;
+
+        /**
+         * The pending output operation and its future.
+         */
+        private int                     m_nOpOut;
+        private CompletableFuture<Void> m_cfOut;
+        }
+
+
+    // ----- constants and data fields -------------------------------------------------------------
+
+    /**
+     * The shared instance.
+     */
+    private static SocketSelector s_instance;
+
+    /**
+     * The underlying selector.
+     */
+    private final Selector f_selector;
+
+    /**
+     * The registrations whose pending operations have changed.
+     */
+    private final ConcurrentLinkedQueue<Registration> f_queueChanged = new ConcurrentLinkedQueue<>();
+    }
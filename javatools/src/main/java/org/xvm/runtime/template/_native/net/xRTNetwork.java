@@ -1,9 +1,23 @@
 package org.xvm.runtime.template._native.net;
 
 
+import java.io.IOException;
+
+import java.net.BindException;
+import java.net.ConnectException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
+import java.net.NoRouteToHostException;
 import java.net.SocketException;
+import java.net.StandardSocketOptions;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.MethodStructure;
@@ -17,6 +31,7 @@ import org.xvm.runtime.Container;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.Utils;
 
 import org.xvm.runtime.template.xBoolean;
 import org.xvm.runtime.template.xBoolean.BooleanHandle;
@@ -31,6 +46,8 @@ import org.xvm.runtime.template.collections.xByteArray;
 
 import org.xvm.runtime.template.text.xString;
 
+import org.xvm.runtime.template._native.net.SocketSelector.Registration;
+
 /**
  * Native implementation of a "Network" service.
  */
@@ -201,7 +218,6 @@ public class xRTNetwork
 
             case "nativeConnect":   // conditional Socket nativeConnect(Byte[] remoteAddressBytes,
                                     // UInt16 remotePort, Byte[] localAddressBytes, UInt16 localPort)
-                // TODO conditional ServerSocket nativeListen(Byte[] localAddressBytes, UInt16 localPort)
                 {
                 byte[] abRemoteIP  = xByteArray.getBytes((ArrayHandle) ahArg[0]);
                 int    nRemotePort = (int) ((JavaLong) ahArg[1]).getValue();
@@ -209,8 +225,14 @@ public class xRTNetwork
                 int    nLocalPort  = (int) ((JavaLong) ahArg[3]).getValue();
                 try
                     {
-                    // TODO
-                    return frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                    InetSocketAddress addrRemote = new InetSocketAddress(
+                            InetAddress.getByAddress(abRemoteIP), nRemotePort);
+                    InetSocketAddress addrLocal  = abLocalIP.length == 0 && nLocalPort == 0
+                            ? null
+                            : new InetSocketAddress(abLocalIP.length == 0
+                                    ? null
+                                    : InetAddress.getByAddress(abLocalIP), nLocalPort);
+                    return connect(frame, addrRemote, addrLocal, aiReturn);
                     }
                 catch (Exception e)
                     {
@@ -224,15 +246,16 @@ public class xRTNetwork
                 int    nLocalPort = (int) ((JavaLong) ahArg[1]).getValue();
                 try
                     {
-                    // TODO
-                    return frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                    InetSocketAddress addrLocal = new InetSocketAddress(abLocalIP.length == 0
+                            ? null
+                            : InetAddress.getByAddress(abLocalIP), nLocalPort);
+                    return listen(frame, addrLocal, aiReturn);
                     }
                 catch (Exception e)
                     {
                     return frame.raiseException(xException.makeHandle(frame, e.getMessage()));
                     }
                 }
-
             }
 
         return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
@@ -249,6 +272,119 @@ public class xRTNetwork
         return ((BooleanHandle) hNetwork.getField(frame, "secure")).get();
         }
 
+    /**
+     * Implementation of "conditional Socket nativeConnect(...)" method. The connection is
+     * established in the non-blocking mode; the fiber waits for the {@link SocketSelector} to
+     * report the completion.
+     *
+     * @return one of Op.R_NEXT, Op.R_CALL or Op.R_EXCEPTION values
+     */
+    protected int connect(Frame frame, InetSocketAddress addrRemote, InetSocketAddress addrLocal,
+                          int[] aiReturn)
+        {
+        SocketChannel channel = null;
+        Registration  reg;
+        try
+            {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            if (addrLocal != null)
+                {
+                channel.bind(addrLocal);
+                }
+
+            if (channel.connect(addrRemote))
+                {
+                return Utils.assignConditionalResult(frame,
+                        xRTSocket.INSTANCE.createHandle(frame, channel, Op.A_STACK), aiReturn);
+                }
+            reg = new Registration(channel);
+            }
+        catch (IOException e)
+            {
+            return connectFailed(frame, channel, e, aiReturn);
+            }
+
+        SocketChannel           channelPending = channel;
+        CompletableFuture<Void> cfReady        =
+                xRTRawSocketChannel.awaitReady(reg, SelectionKey.OP_CONNECT);
+
+        Frame.Continuation continuation = frameCaller ->
+            {
+            try
+                {
+                cfReady.get();
+                channelPending.finishConnect();
+                }
+            catch (Throwable e)
+                {
+                return connectFailed(frameCaller, channelPending,
+                        e instanceof ExecutionException ? e.getCause() : e, aiReturn);
+                }
+            return Utils.assignConditionalResult(frameCaller,
+                    xRTSocket.INSTANCE.createHandle(frameCaller, channelPending, Op.A_STACK), aiReturn);
+            };
+
+        return frame.waitForIO(cfReady, continuation);
+        }
+
+    /**
+     * Clean up after a failed connection attempt. A refused or unreachable connection results in
+     * a conditional False; any other failure raises an IOException.
+     */
+    private int connectFailed(Frame frame, SocketChannel channel, Throwable e, int[] aiReturn)
+        {
+        if (channel != null)
+            {
+            try
+                {
+                channel.close();
+                }
+            catch (IOException ignore) {}
+            }
+
+        return e instanceof ConnectException || e instanceof NoRouteToHostException
+                ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
+                : xRTRawSocketChannel.raiseIOException(frame, e);
+        }
+
+    /**
+     * Implementation of "conditional ServerSocket nativeListen(...)" method. An address that
+     * cannot be bound to results in a conditional False.
+     *
+     * @return one of Op.R_NEXT, Op.R_CALL or Op.R_EXCEPTION values
+     */
+    protected int listen(Frame frame, InetSocketAddress addrLocal, int[] aiReturn)
+        {
+        ServerSocketChannel channel = null;
+        try
+            {
+            channel = ServerSocketChannel.open();
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.bind(addrLocal, BACKLOG);
+            channel.configureBlocking(false);
+            }
+        catch (IOException e)
+            {
+            if (channel != null)
+                {
+                try
+                    {
+                    channel.close();
+                    }
+                catch (IOException ignore) {}
+                }
+
+            return e instanceof BindException
+                    ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
+                    : xRTRawSocketChannel.raiseIOException(frame, e);
+            }
+
+        return Utils.assignConditionalResult(frame,
+                xRTServerSocket.INSTANCE.createHandle(frame, channel, Op.A_STACK), aiReturn);
+        }
+
     /**
      * Implementation of "NameService instantiateNameService()" method;
      *
@@ -283,6 +419,11 @@ public class xRTNetwork
 
     // ----- constants and fields ------------------------------------------------------------------
 
+    /**
+     * The maximum number of pending connections for a listening socket.
+     */
+    private static final int BACKLOG = 1024;
+
     /**
      * Cached canonical type.
      */
@@ -0,0 +1,177 @@
+package org.xvm.runtime.template._native.net;
+
+
+import java.io.IOException;
+
+import java.net.StandardSocketOptions;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.Container;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ServiceContext;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xService;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+import org.xvm.runtime.template._native.net.SocketSelector.Registration;
+import org.xvm.runtime.template._native.net.xRTRawSocketChannel.SocketHandle;
+
+
+/**
+ * Native RTRawServerSocket implementation: accepts the connections on a non-blocking Java
+ * {@link ServerSocketChannel}.
+ */
+public class xRTRawServerSocket
+        extends xService
+    {
+    public static xRTRawServerSocket INSTANCE;
+
+    public xRTRawServerSocket(Container container, ClassStructure structure, boolean fInstance)
+        {
+        super(container, structure, false);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        markNativeProperty("closed");
+
+        markNativeMethod("accept", VOID, null);
+        markNativeMethod("close", VOID, VOID);
+
+        invalidateTypeInfo();
+        }
+
+    /**
+     * Create a raw server socket handle.
+     *
+     * @param context  the service context of the server socket
+     * @param reg      the selector registration of a bound non-blocking server socket channel
+     *
+     * @return the raw server socket handle
+     */
+    public SocketHandle createHandle(ServiceContext context, Registration reg)
+        {
+        return new SocketHandle(getCanonicalClass(context.f_container), context, reg);
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        SocketHandle hSocket = (SocketHandle) hTarget;
+
+        switch (sPropName)
+            {
+            case "closed":
+                return frame.assignValue(iReturn,
+                        xBoolean.makeHandle(!hSocket.f_reg.f_channel.isOpen()));
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        SocketHandle hSocket = (SocketHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "accept":
+                return invokeAccept(frame, hSocket, iReturn);
+
+            case "close":
+                {
+                try
+                    {
+                    SocketSelector.getInstance().close(hSocket.f_reg);
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return xRTRawSocketChannel.raiseIOException(frame, e);
+                    }
+                }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+
+    // ----- method implementations ----------------------------------------------------------------
+
+    /**
+     * Implementation for: {@code Socket|Int accept()}.
+     *
+     * Accept a pending connection; if there is none, wait for the selector to report one.
+     */
+    private int invokeAccept(Frame frame, SocketHandle hSocket, int iReturn)
+        {
+        ServerSocketChannel channelServer = (ServerSocketChannel) hSocket.f_reg.f_channel;
+        if (!channelServer.isOpen())
+            {
+            return frame.assignValue(iReturn, xInt64.makeHandle(-3));
+            }
+
+        SocketChannel channel;
+        try
+            {
+            channel = channelServer.accept();
+            if (channel != null)
+                {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                }
+            }
+        catch (IOException e)
+            {
+            return channelServer.isOpen()
+                    ? xRTRawSocketChannel.raiseIOException(frame, e)
+                    : frame.assignValue(iReturn, xInt64.makeHandle(-3));
+            }
+
+        if (channel != null)
+            {
+            return xRTSocket.INSTANCE.createHandle(frame, channel, iReturn);
+            }
+
+        CompletableFuture<Void> cfReady =
+                xRTRawSocketChannel.awaitReady(hSocket.f_reg, SelectionKey.OP_ACCEPT);
+
+        Frame.Continuation continuation = frameCaller ->
+            {
+            try
+                {
+                cfReady.get();
+                }
+            catch (Throwable e)
+                {
+                if (channelServer.isOpen())
+                    {
+                    return xRTRawSocketChannel.raiseIOException(frameCaller, e);
+                    }
+                }
+            return invokeAccept(frameCaller, hSocket, iReturn);
+            };
+
+        return frame.waitForIO(cfReady, continuation);
+        }
+    }
@@ -0,0 +1,486 @@
+package org.xvm.runtime.template._native.net;
+
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.Container;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.ServiceContext;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+import org.xvm.runtime.template.xService;
+
+import org.xvm.runtime.template.collections.xArray;
+import org.xvm.runtime.template.collections.xArray.ArrayHandle;
+import org.xvm.runtime.template.collections.xArray.Mutability;
+import org.xvm.runtime.template.collections.xByteArray;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+import org.xvm.runtime.template._native.net.SocketSelector.Registration;
+
+
+/**
+ * Native RTRawSocketChannel implementation: the RawChannel that reads from and writes to a
+ * connected TCP socket via a non-blocking Java {@link SocketChannel}.
+ * <p>
+ * The reads and writes are attempted directly on the service thread; only if the socket is not
+ * ready, the fiber waits for the {@link SocketSelector} to report the readiness and then retries.
+ */
+public class xRTRawSocketChannel
+        extends xService
+    {
+    public static xRTRawSocketChannel INSTANCE;
+
+    public xRTRawSocketChannel(Container container, ClassStructure structure, boolean fInstance)
+        {
+        super(container, structure, false);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        markNativeProperty("readable");
+        markNativeProperty("eof");
+        markNativeProperty("writable");
+        markNativeProperty("fixedBufferSize");
+        markNativeProperty("totalBuffers");
+        markNativeProperty("totalBytes");
+        markNativeProperty("consumedBuffers");
+        markNativeProperty("consumedBytes");
+        markNativeProperty("closed");
+
+        markNativeMethod("take", VOID, null);
+        markNativeMethod("submit", null, INT);
+        markNativeMethod("allocate", null, null);
+        markNativeMethod("shutdownInput", VOID, VOID);
+        markNativeMethod("shutdownOutput", VOID, VOID);
+        markNativeMethod("close", VOID, VOID);
+
+        invalidateTypeInfo();
+        }
+
+    /**
+     * Create a raw channel handle for the specified socket channel.
+     *
+     * @param context  the service context of the channel
+     * @param reg      the selector registration of a connected non-blocking socket channel
+     *
+     * @return the raw channel handle
+     */
+    public RawSocketHandle createHandle(ServiceContext context, Registration reg)
+        {
+        return new RawSocketHandle(getCanonicalClass(context.f_container), context, reg);
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        RawSocketHandle hSocket = (RawSocketHandle) hTarget;
+        SocketChannel   channel = hSocket.getChannel();
+
+        switch (sPropName)
+            {
+            case "readable":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(channel.isOpen()
+                        && !hSocket.m_fInputShutdown && !hSocket.m_fEOF));
+
+            case "eof":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(hSocket.m_fEOF));
+
+            case "writable":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(channel.isOpen()
+                        && !hSocket.m_fOutputShutdown));
+
+            case "closed":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(!channel.isOpen()));
+
+            case "fixedBufferSize":
+                return frame.assignValue(iReturn, xInt64.makeHandle(BUFFER_SIZE));
+
+            case "totalBuffers":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hSocket.m_cBuffers));
+
+            case "totalBytes":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hSocket.m_cBuffers * BUFFER_SIZE));
+
+            case "consumedBuffers":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hSocket.m_cTaken));
+
+            case "consumedBytes":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hSocket.m_cbTaken));
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        RawSocketHandle hSocket = (RawSocketHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "allocate":
+                {
+                if (!hSocket.getChannel().isOpen())
+                    {
+                    return frame.assignValue(iReturn, xInt64.makeHandle(-2));
+                    }
+
+                hSocket.m_cBuffers++;
+                return frame.assignValue(iReturn,
+                        xArray.makeByteArrayHandle(new byte[BUFFER_SIZE], Mutability.Fixed));
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        RawSocketHandle hSocket = (RawSocketHandle) hTarget;
+        SocketChannel   channel = hSocket.getChannel();
+
+        switch (method.getName())
+            {
+            case "take":
+                return invokeTake(frame, hSocket, iReturn);
+
+            case "submit":
+                {
+                if (!channel.isOpen() || hSocket.m_fOutputShutdown)
+                    {
+                    return frame.assignValue(iReturn, xInt64.makeHandle(-1));
+                    }
+
+                byte[] ab      = xByteArray.getBytes((ArrayHandle) ahArg[0]);
+                long   ofStart = ((JavaLong) ahArg[1]).getValue();
+                long   ofEnd   = ((JavaLong) ahArg[2]).getValue();
+                if (ofStart < 0 || ofStart > ofEnd || ofEnd > ab.length)
+                    {
+                    return frame.raiseException(xException.outOfBounds(frame, ofEnd, ab.length));
+                    }
+
+                return invokeSubmit(frame, hSocket,
+                        ByteBuffer.wrap(ab, (int) ofStart, (int) (ofEnd - ofStart)), iReturn);
+                }
+
+            case "shutdownInput":
+            case "shutdownOutput":
+                {
+                if (!channel.isOpen())
+                    {
+                    return Op.R_NEXT;
+                    }
+
+                try
+                    {
+                    if (method.getName().equals("shutdownInput"))
+                        {
+                        hSocket.m_fInputShutdown = true;
+                        channel.shutdownInput();
+                        }
+                    else
+                        {
+                        hSocket.m_fOutputShutdown = true;
+                        channel.shutdownOutput();
+                        }
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+                }
+
+            case "close":
+                {
+                try
+                    {
+                    SocketSelector.getInstance().close(hSocket.f_reg);
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+                }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+
+    // ----- method implementations ----------------------------------------------------------------
+
+    /**
+     * Implementation for: {@code Byte[]|Int take()}.
+     *
+     * Read whatever is available on the socket, up to {@link #BUFFER_SIZE} bytes; if nothing is,
+     * wait for the socket to become readable.
+     */
+    private int invokeTake(Frame frame, RawSocketHandle hSocket, int iReturn)
+        {
+        SocketChannel channel = hSocket.getChannel();
+        if (!channel.isOpen())
+            {
+            return frame.assignValue(iReturn, xInt64.makeHandle(-3));
+            }
+
+        if (hSocket.m_fInputShutdown)
+            {
+            return frame.assignValue(iReturn, xInt64.makeHandle(-2));
+            }
+
+        if (hSocket.m_fEOF)
+            {
+            return frame.assignValue(iReturn, xInt64.makeHandle(-1));
+            }
+
+        ByteBuffer buffer = hSocket.ensureReadBuffer();
+        int        cb;
+        try
+            {
+            buffer.clear();
+            cb = channel.read(buffer);
+            }
+        catch (IOException e)
+            {
+            return channel.isOpen()
+                    ? raiseIOException(frame, e)
+                    : frame.assignValue(iReturn, xInt64.makeHandle(-3));
+            }
+
+        if (cb > 0)
+            {
+            byte[] ab = new byte[cb];
+            buffer.flip().get(ab);
+
+            hSocket.m_cTaken++;
+            hSocket.m_cbTaken += cb;
+            return frame.assignValue(iReturn, xArray.makeByteArrayHandle(ab, Mutability.Constant));
+            }
+
+        if (cb < 0)
+            {
+            hSocket.m_fEOF = true;
+            return frame.assignValue(iReturn, xInt64.makeHandle(-1));
+            }
+
+        CompletableFuture<Void> cfReady = awaitReady(hSocket.f_reg, SelectionKey.OP_READ);
+
+        Frame.Continuation continuation = frameCaller ->
+            {
+            try
+                {
+                cfReady.get();
+                }
+            catch (Throwable e)
+                {
+                if (channel.isOpen())
+                    {
+                    return raiseIOException(frameCaller, e);
+                    }
+                }
+            return invokeTake(frameCaller, hSocket, iReturn);
+            };
+
+        return frame.waitForIO(cfReady, continuation);
+        }
+
+    /**
+     * Implementation for: {@code Int submit(Byte[] buffer, Int start, Int end)}.
+     *
+     * Write as much as the socket accepts; if anything is left, wait for the socket to become
+     * writable and continue.
+     */
+    private int invokeSubmit(Frame frame, RawSocketHandle hSocket, ByteBuffer buffer, int iReturn)
+        {
+        SocketChannel channel = hSocket.getChannel();
+        try
+            {
+            while (buffer.hasRemaining())
+                {
+                if (channel.write(buffer) == 0)
+                    {
+                    // the socket send buffer is full
+                    break;
+                    }
+                }
+            }
+        catch (IOException e)
+            {
+            return channel.isOpen()
+                    ? raiseIOException(frame, e)
+                    : frame.assignValue(iReturn, xInt64.makeHandle(-1));
+            }
+
+        if (!buffer.hasRemaining())
+            {
+            return frame.assignValue(iReturn, xInt64.makeHandle(0));
+            }
+
+        CompletableFuture<Void> cfReady = awaitReady(hSocket.f_reg, SelectionKey.OP_WRITE);
+
+        Frame.Continuation continuation = frameCaller ->
+            {
+            try
+                {
+                cfReady.get();
+                }
+            catch (Throwable e)
+                {
+                return channel.isOpen()
+                        ? raiseIOException(frameCaller, e)
+                        : frameCaller.assignValue(iReturn, xInt64.makeHandle(-1));
+                }
+            return invokeSubmit(frameCaller, hSocket, buffer, iReturn);
+            };
+
+        return frame.waitForIO(cfReady, continuation);
+        }
+
+    /**
+     * Ask the selector to notify the fiber when the channel is ready for the specified operation.
+     */
+    static CompletableFuture<Void> awaitReady(Registration reg, int nOp)
+        {
+        try
+            {
+            return SocketSelector.getInstance().await(reg, nOp);
+            }
+        catch (IOException e)
+            {
+            return CompletableFuture.failedFuture(e);
+            }
+        }
+
+    /**
+     * Raise a natural IOException for the specified Java exception.
+     */
+    static int raiseIOException(Frame frame, Throwable e)
+        {
+        if (e instanceof ExecutionException && e.getCause() != null)
+            {
+            e = e.getCause();
+            }
+        return frame.raiseException(xException.ioException(frame, String.valueOf(e.getMessage())));
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * The base class for the handles of the services that own a selectable channel.
+     */
+    public static class SocketHandle
+            extends ServiceHandle
+        {
+        protected SocketHandle(TypeComposition clazz, ServiceContext context, Registration reg)
+            {
+            super(clazz, context);
+
+            f_reg = reg;
+            }
+
+        @Override
+        public String toString()
+            {
+            return super.toString() + " " + f_reg.f_channel;
+            }
+
+        /**
+         * The selector registration for the channel.
+         */
+        public final Registration f_reg;
+        }
+
+    /**
+     * The handle class.
+     */
+    public static class RawSocketHandle
+            extends SocketHandle
+        {
+        protected RawSocketHandle(TypeComposition clazz, ServiceContext context, Registration reg)
+            {
+            super(clazz, context, reg);
+            }
+
+        /**
+         * @return the socket channel
+         */
+        public SocketChannel getChannel()
+            {
+            return (SocketChannel) f_reg.f_channel;
+            }
+
+        /**
+         * @return the buffer to read the socket data into
+         */
+        protected ByteBuffer ensureReadBuffer()
+            {
+            ByteBuffer buffer = m_bufRead;
+            if (buffer == null)
+                {
+                buffer = m_bufRead = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                }
+            return buffer;
+            }
+
+        /**
+         * The buffer the data is read into; the bytes are then copied into an exact-size array.
+         */
+        private ByteBuffer m_bufRead;
+
+        /**
+         * The input and output state.
+         */
+        protected boolean m_fEOF;
+        protected boolean m_fInputShutdown;
+        protected boolean m_fOutputShutdown;
+
+        /**
+         * The number of buffers allocated by the channel.
+         */
+        protected long m_cBuffers;
+
+        /**
+         * The number of buffers (and the total number of bytes in them) read by the channel.
+         */
+        protected long m_cTaken;
+        protected long m_cbTaken;
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The maximum size of the buffers read from and allocated by the channel.
+     */
+    public static final int BUFFER_SIZE = 64 * 1024;
+    }
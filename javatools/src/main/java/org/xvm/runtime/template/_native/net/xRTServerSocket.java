@@ -0,0 +1,91 @@
+package org.xvm.runtime.template._native.net;
+
+
+import java.io.IOException;
+
+import java.net.InetSocketAddress;
+
+import java.nio.channels.ServerSocketChannel;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.Container;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ServiceContext;
+
+import org.xvm.runtime.template.xService;
+
+import org.xvm.runtime.template.numbers.xUInt16;
+
+import org.xvm.runtime.template._native.net.SocketSelector.Registration;
+
+
+/**
+ * Native RTServerSocket implementation. The server socket itself is implemented in Ecstasy on top
+ * of an {@link xRTRawServerSocket RTRawServerSocket}; this template only knows how to create it.
+ */
+public class xRTServerSocket
+        extends xService
+    {
+    public static xRTServerSocket INSTANCE;
+
+    public xRTServerSocket(Container container, ClassStructure structure, boolean fInstance)
+        {
+        super(container, structure, false);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        s_constructor = getStructure().findMethod("construct", 3);
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * Construct a new RTServerSocket service for the specified bound server socket channel.
+     *
+     * @param frame    the current frame
+     * @param channel  the bound non-blocking server socket channel
+     * @param iReturn  the register id to place the created handle into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    public int createHandle(Frame frame, ServerSocketChannel channel, int iReturn)
+        {
+        InetSocketAddress addrLocal;
+        try
+            {
+            addrLocal = (InetSocketAddress) channel.getLocalAddress();
+            }
+        catch (IOException e)
+            {
+            return xRTRawSocketChannel.raiseIOException(frame, e);
+            }
+
+        Container      container = frame.f_context.f_container;
+        ServiceContext context   = container.createServiceContext("ServerSocket@" + addrLocal);
+        ObjectHandle[] ahArg     = new ObjectHandle[s_constructor.getMaxVars()];
+
+        ahArg[0] = xRTSocket.makeAddressHandle(addrLocal);
+        ahArg[1] = xUInt16.INSTANCE.makeJavaLong(addrLocal.getPort());
+        ahArg[2] = xRTRawServerSocket.INSTANCE.createHandle(context, new Registration(channel));
+
+        return context.sendConstructRequest(frame, getCanonicalClass(container), s_constructor,
+                null, ahArg, iReturn);
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    private static MethodStructure s_constructor;
+    }
@@ -0,0 +1,109 @@
+package org.xvm.runtime.template._native.net;
+
+
+import java.io.IOException;
+
+import java.net.InetSocketAddress;
+
+import java.nio.channels.SocketChannel;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.Container;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ServiceContext;
+
+import org.xvm.runtime.template.xService;
+
+import org.xvm.runtime.template.collections.xArray;
+import org.xvm.runtime.template.collections.xArray.Mutability;
+
+import org.xvm.runtime.template.numbers.xUInt16;
+
+import org.xvm.runtime.template._native.net.SocketSelector.Registration;
+
+
+/**
+ * Native RTSocket implementation. The socket itself is implemented in Ecstasy on top of an
+ * {@link xRTRawSocketChannel RTRawSocketChannel}; this template only knows how to create it.
+ */
+public class xRTSocket
+        extends xService
+    {
+    public static xRTSocket INSTANCE;
+
+    public xRTSocket(Container container, ClassStructure structure, boolean fInstance)
+        {
+        super(container, structure, false);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        s_constructor = getStructure().findMethod("construct", 5);
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * Construct a new RTSocket service for the specified connected socket channel.
+     *
+     * The socket and its underlying raw channel share the same service context, so the buffers
+     * they pass to each other never cross a service boundary.
+     *
+     * @param frame    the current frame
+     * @param channel  the connected non-blocking socket channel
+     * @param iReturn  the register id to place the created handle into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    public int createHandle(Frame frame, SocketChannel channel, int iReturn)
+        {
+        InetSocketAddress addrLocal;
+        InetSocketAddress addrRemote;
+        try
+            {
+            addrLocal  = (InetSocketAddress) channel.getLocalAddress();
+            addrRemote = (InetSocketAddress) channel.getRemoteAddress();
+            }
+        catch (IOException e)
+            {
+            return xRTRawSocketChannel.raiseIOException(frame, e);
+            }
+
+        Container      container = frame.f_context.f_container;
+        ServiceContext context   = container.createServiceContext("Socket@" + addrRemote);
+        ObjectHandle[] ahArg     = new ObjectHandle[s_constructor.getMaxVars()];
+
+        ahArg[0] = makeAddressHandle(addrLocal);
+        ahArg[1] = xUInt16.INSTANCE.makeJavaLong(addrLocal.getPort());
+        ahArg[2] = makeAddressHandle(addrRemote);
+        ahArg[3] = xUInt16.INSTANCE.makeJavaLong(addrRemote.getPort());
+        ahArg[4] = xRTRawSocketChannel.INSTANCE.createHandle(context, new Registration(channel));
+
+        return context.sendConstructRequest(frame, getCanonicalClass(container), s_constructor,
+                null, ahArg, iReturn);
+        }
+
+    /**
+     * @return the handle for the bytes of the specified socket address' IP address
+     */
+    static ObjectHandle makeAddressHandle(InetSocketAddress addr)
+        {
+        return xArray.makeByteArrayHandle(addr.getAddress().getAddress(), Mutability.Constant);
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    private static MethodStructure s_constructor;
+    }
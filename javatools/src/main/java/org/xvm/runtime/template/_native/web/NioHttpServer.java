@@ -0,0 +1,1838 @@
+package org.xvm.runtime.template._native.web;
+
+
+import java.io.IOException;
+
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.nio.charset.StandardCharsets;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import java.time.format.DateTimeFormatter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import java.util.function.Consumer;
+
+
+/**
+ * A non-blocking HTTP/1.1 server.
+ * <p>
+ * A single selector thread accepts the connections, parses the requests and writes the responses.
+ * A request is passed to the handler on the selector thread as soon as it has been fully received,
+ * so the handler must not block; the {@link xRTServer} handler simply posts the request to the
+ * natural Handler service's queue. The request bodies are read straight into the arrays that later
+ * back the Ecstasy {@code Byte[]} handles, and the response bodies are written straight from them.
+ * <p>
+ * The requests with chunked bodies or with bodies larger than {@link #STREAM_THRESHOLD} are
+ * dispatched as soon as their heads are parsed; their bodies are then streamed to the handler, and
+ * the reading is paused while more than {@link #MAX_INPUT_BUFFER} bytes are waiting to be consumed.
+ * Similarly, a streamed response body is buffered up to {@link #MAX_OUTPUT_BUFFER} bytes before the
+ * writer is asked to wait.
+ * <p>
+ * The connections are kept alive according to the HTTP/1.0 and HTTP/1.1 rules and the requests
+ * could be pipelined: up to {@link #MAX_PIPELINED} requests are parsed ahead and dispatched, and
+ * their responses, which could be sent in any order and from any thread, are written in the order
+ * of the requests.
+ */
+public class NioHttpServer
+    {
+    /**
+     * Construct the server bound to the specified address; the server doesn't accept any
+     * connections until it's {@link #start started}.
+     *
+     * @param addr  the address to bind to
+     */
+    public NioHttpServer(InetSocketAddress addr)
+            throws IOException
+        {
+        Selector            selector = Selector.open();
+        ServerSocketChannel channel  = ServerSocketChannel.open();
+        try
+            {
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.bind(addr, BACKLOG);
+            channel.configureBlocking(false);
+            }
+        catch (IOException e)
+            {
+            channel.close();
+            selector.close();
+            throw e;
+            }
+
+        f_selector      = selector;
+        f_channelServer = channel;
+        }
+
+
+    // ----- public API ----------------------------------------------------------------------------
+
+    /**
+     * @return the address the server is bound to
+     */
+    public InetSocketAddress getAddress()
+        {
+        return (InetSocketAddress) f_channelServer.socket().getLocalSocketAddress();
+        }
+
+    /**
+     * Start the server or replace the handler of a started server.
+     *
+     * @param handler  the request handler, which is called on the selector thread
+     */
+    public synchronized void start(Consumer<ServerRequest> handler)
+        {
+        if (m_fStopped)
+            {
+            throw new IllegalStateException("stopped");
+            }
+
+        m_handler = handler;
+        if (m_thread == null)
+            {
+            Thread thread = new Thread(this::run, "NioHttpServer@" + getAddress().getPort());
+            thread.setDaemon(true);
+            m_thread = thread;
+            thread.start();
+            }
+        }
+
+    /**
+     * Stop the server, closing all the connections.
+     */
+    public synchronized void stop()
+        {
+        m_fStopped = true;
+        if (m_thread == null)
+            {
+            closeQuietly();
+            }
+        else
+            {
+            f_selector.wakeup();
+            }
+        }
+
+
+    // ----- selector loop -------------------------------------------------------------------------
+
+    /**
+     * The selector thread loop.
+     */
+    private void run()
+        {
+        try
+            {
+            f_channelServer.register(f_selector, SelectionKey.OP_ACCEPT);
+
+            long ldtSweep = System.currentTimeMillis();
+            while (!m_fStopped)
+                {
+                f_selector.select(SELECT_TIMEOUT);
+
+                for (Iterator<SelectionKey> iter = f_selector.selectedKeys().iterator(); iter.hasNext(); )
+                    {
+                    SelectionKey key = iter.next();
+                    iter.remove();
+
+                    if (!key.isValid())
+                        {
+                        continue;
+                        }
+
+                    if (key.isAcceptable())
+                        {
+                        accept();
+                        }
+                    else
+                        {
+                        Connection conn = (Connection) key.attachment();
+                        if (key.isWritable())
+                            {
+                            conn.flush();
+                            }
+                        if (key.isValid() && key.isReadable())
+                            {
+                            conn.read();
+                            }
+                        }
+                    }
+
+                // write the responses that have been sent since
+                Connection conn;
+                while ((conn = f_queueReady.poll()) != null)
+                    {
+                    conn.flush();
+                    }
+
+                long ldtNow = System.currentTimeMillis();
+                if (ldtNow - ldtSweep >= SELECT_TIMEOUT)
+                    {
+                    closeIdle(ldtNow);
+                    ldtSweep = ldtNow;
+                    }
+                }
+            }
+        catch (IOException e)
+            {
+            e.printStackTrace();
+            }
+        finally
+            {
+            closeQuietly();
+            }
+        }
+
+    /**
+     * Accept all pending connections.
+     */
+    private void accept()
+            throws IOException
+        {
+        SocketChannel channel;
+        while ((channel = f_channelServer.accept()) != null)
+            {
+            try
+                {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+                SelectionKey key = channel.register(f_selector, SelectionKey.OP_READ);
+                key.attach(new Connection(channel, key));
+                }
+            catch (IOException e)
+                {
+                channel.close();
+                }
+            }
+        }
+
+    /**
+     * Close the connections that have been idle for too long.
+     */
+    private void closeIdle(long ldtNow)
+        {
+        for (SelectionKey key : f_selector.keys())
+            {
+            if (key.attachment() instanceof Connection conn &&
+                    conn.f_dequeRequests.isEmpty() && ldtNow - conn.m_ldtActive > IDLE_TIMEOUT)
+                {
+                conn.close();
+                }
+            }
+        }
+
+    /**
+     * Close all the connections, the server channel and the selector.
+     */
+    private void closeQuietly()
+        {
+        if (f_selector.isOpen())
+            {
+            for (SelectionKey key : f_selector.keys())
+                {
+                if (key.attachment() instanceof Connection conn)
+                    {
+                    conn.close();
+                    }
+                }
+            }
+
+        try
+            {
+            f_channelServer.close();
+            }
+        catch (IOException ignore) {}
+
+        try
+            {
+            f_selector.close();
+            }
+        catch (IOException ignore) {}
+        }
+
+
+    // ----- inner class: Connection ---------------------------------------------------------------
+
+    /**
+     * The state of a client connection; all the methods except {@link #wakeup} are called on the
+     * selector thread.
+     */
+    private class Connection
+        {
+        Connection(SocketChannel channel, SelectionKey key)
+                throws IOException
+            {
+            f_channel    = channel;
+            f_key        = key;
+            f_addrRemote = (InetSocketAddress) channel.getRemoteAddress();
+            f_addrLocal  = (InetSocketAddress) channel.getLocalAddress();
+            m_ldtActive  = System.currentTimeMillis();
+            }
+
+        /**
+         * Read whatever is available and process it.
+         */
+        void read()
+            {
+            if (m_fReadPaused)
+                {
+                // the key was selected before the reading got paused
+                return;
+                }
+
+            ByteBuffer buf = m_bufRead;
+            int        cb;
+            try
+                {
+                if (m_nState == STATE_BODY && buf.position() == 0 && !m_request.m_fStreaming)
+                    {
+                    // nothing is buffered; read straight into the body
+                    int cbRead = (int) Math.min(m_cbRemain, Integer.MAX_VALUE);
+                    ensureBody(Math.min(cbRead, READ_BUFFER_SIZE));
+
+                    cb = f_channel.read(ByteBuffer.wrap(m_abBody, m_ofBody,
+                            Math.min(cbRead, m_abBody.length - m_ofBody)));
+                    if (cb > 0)
+                        {
+                        m_ofBody   += cb;
+                        m_cbRemain -= cb;
+                        if (m_cbRemain == 0)
+                            {
+                            completeRequest();
+                            }
+                        }
+                    }
+                else
+                    {
+                    if (!buf.hasRemaining())
+                        {
+                        // only a request head could fill the buffer up
+                        if (buf.capacity() >= MAX_HEAD_SIZE)
+                            {
+                            reject(431);
+                            return;
+                            }
+                        m_bufRead = buf = ByteBuffer.allocate(buf.capacity() * 2).put(buf.flip());
+                        }
+
+                    cb = f_channel.read(buf);
+                    if (cb > 0)
+                        {
+                        process();
+                        }
+                    }
+                }
+            catch (IOException e)
+                {
+                close();
+                return;
+                }
+
+            if (cb > 0)
+                {
+                m_ldtActive = System.currentTimeMillis();
+                }
+            else if (cb < 0)
+                {
+                m_fInputClosed = true;
+                if (f_dequeRequests.isEmpty())
+                    {
+                    close();
+                    }
+                else
+                    {
+                    pauseReading();
+                    }
+                }
+            }
+
+        /**
+         * Parse as many requests as possible from the read buffer.
+         */
+        void process()
+            {
+            ByteBuffer buf = m_bufRead.flip();
+            try
+                {
+                while (!m_fReadPaused && buf.hasRemaining() && parse(buf))
+                    {
+                    }
+                }
+            catch (BadRequest e)
+                {
+                buf.clear();
+                reject(e.f_nStatus);
+                return;
+                }
+            buf.compact();
+            }
+
+        /**
+         * Advance the parser state.
+         *
+         * @return false iff more data is needed to proceed
+         */
+        private boolean parse(ByteBuffer buf)
+                throws BadRequest
+            {
+            switch (m_nState)
+                {
+                case STATE_HEAD:
+                    {
+                    int ofEnd = indexOf(buf, HEAD_END);
+                    if (ofEnd < 0)
+                        {
+                        if (buf.remaining() >= MAX_HEAD_SIZE)
+                            {
+                            throw new BadRequest(431);
+                            }
+                        return false;
+                        }
+
+                    String sHead = new String(buf.array(), buf.position(), ofEnd - buf.position(),
+                                              StandardCharsets.ISO_8859_1);
+                    buf.position(ofEnd + HEAD_END.length);
+                    parseHead(sHead);
+                    return true;
+                    }
+
+                case STATE_BODY:
+                    {
+                    int cb = (int) Math.min(buf.remaining(), m_cbRemain);
+                    receive(buf, cb);
+                    m_cbRemain -= cb;
+                    if (m_cbRemain == 0)
+                        {
+                        completeRequest();
+                        }
+                    return true;
+                    }
+
+                case STATE_CHUNK_SIZE:
+                    {
+                    String sLine = readLine(buf);
+                    if (sLine == null)
+                        {
+                        return false;
+                        }
+
+                    int ofExt = sLine.indexOf(';');
+                    if (ofExt >= 0)
+                        {
+                        sLine = sLine.substring(0, ofExt);
+                        }
+
+                    long cbChunk;
+                    try
+                        {
+                        cbChunk = Long.parseLong(sLine.trim(), 16);
+                        }
+                    catch (NumberFormatException e)
+                        {
+                        throw new BadRequest(400);
+                        }
+                    if (cbChunk < 0)
+                        {
+                        throw new BadRequest(400);
+                        }
+                    if (!m_request.m_fStreaming && cbChunk > MAX_BODY_SIZE - m_ofBody)
+                        {
+                        throw new BadRequest(413);
+                        }
+
+                    m_cbRemain = cbChunk;
+                    m_nState   = cbChunk == 0 ? STATE_TRAILER : STATE_CHUNK_DATA;
+                    return true;
+                    }
+
+                case STATE_CHUNK_DATA:
+                    {
+                    int cb = (int) Math.min(buf.remaining(), m_cbRemain);
+                    receive(buf, cb);
+                    m_cbRemain -= cb;
+                    if (m_cbRemain == 0)
+                        {
+                        m_nState = STATE_CHUNK_END;
+                        }
+                    return true;
+                    }
+
+                case STATE_CHUNK_END:
+                    {
+                    String sLine = readLine(buf);
+                    if (sLine == null)
+                        {
+                        return false;
+                        }
+                    if (!sLine.isEmpty())
+                        {
+                        throw new BadRequest(400);
+                        }
+                    m_nState = STATE_CHUNK_SIZE;
+                    return true;
+                    }
+
+                case STATE_TRAILER:
+                    {
+                    // the trailer fields are ignored
+                    String sLine = readLine(buf);
+                    if (sLine == null)
+                        {
+                        return false;
+                        }
+                    if (sLine.isEmpty())
+                        {
+                        completeRequest();
+                        }
+                    return true;
+                    }
+
+                default:
+                    throw new IllegalStateException();
+                }
+            }
+
+        /**
+         * Parse the request line and the headers and prepare for reading the body.
+         */
+        private void parseHead(String sHead)
+                throws BadRequest
+            {
+            // tolerate the empty lines preceding the request line
+            int of = 0;
+            while (sHead.startsWith("\r\n", of))
+                {
+                of += 2;
+                }
+
+            String[] asLine = sHead.substring(of).split("\r\n");
+            String[] asPart = asLine[0].split(" ");
+            if (asPart.length != 3 || asPart[0].isEmpty() || asPart[1].isEmpty() ||
+                    !asPart[2].startsWith("HTTP/1."))
+                {
+                throw new BadRequest(400);
+                }
+
+            Map<String, List<String>> mapHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 1, c = asLine.length; i < c; i++)
+                {
+                String sLine   = asLine[i];
+                int    ofColon = sLine.indexOf(':');
+                if (ofColon <= 0 || sLine.charAt(0) == ' ' || sLine.charAt(0) == '\t')
+                    {
+                    // the obsolete line folding is not supported
+                    throw new BadRequest(400);
+                    }
+
+                String sName  = sLine.substring(0, ofColon).trim();
+                String sValue = sLine.substring(ofColon + 1).trim();
+                mapHeaders.computeIfAbsent(sName, s -> new ArrayList<>()).add(sValue);
+                }
+
+            boolean fHttp10    = asPart[2].equals("HTTP/1.0");
+            String  sConnect   = headerValue(mapHeaders, "Connection");
+            boolean fKeepAlive = fHttp10
+                    ? sConnect != null && sConnect.equalsIgnoreCase("keep-alive")
+                    : sConnect == null || !sConnect.equalsIgnoreCase("close");
+
+            Request request = new Request(this, asPart[0], asPart[1], asPart[2], mapHeaders,
+                                          fHttp10, !fKeepAlive);
+
+            m_request = request;
+            m_abBody  = null;
+            m_ofBody  = 0;
+
+            String sEncoding = headerValue(mapHeaders, "Transfer-Encoding");
+            String sLength   = headerValue(mapHeaders, "Content-Length");
+            if (sEncoding != null)
+                {
+                if (sLength != null || !sEncoding.toLowerCase().endsWith("chunked"))
+                    {
+                    throw new BadRequest(400);
+                    }
+                m_nState = STATE_CHUNK_SIZE;
+
+                request.m_fStreaming = true;
+                dispatch(request);
+                }
+            else if (sLength != null)
+                {
+                long cbBody;
+                try
+                    {
+                    cbBody = Long.parseLong(sLength);
+                    }
+                catch (NumberFormatException e)
+                    {
+                    throw new BadRequest(400);
+                    }
+                if (cbBody < 0)
+                    {
+                    throw new BadRequest(400);
+                    }
+
+                if (cbBody == 0)
+                    {
+                    completeRequest();
+                    return;
+                    }
+                m_cbRemain = cbBody;
+                m_nState   = STATE_BODY;
+
+                if (cbBody > STREAM_THRESHOLD)
+                    {
+                    request.m_fStreaming = true;
+                    dispatch(request);
+                    }
+                }
+            else
+                {
+                completeRequest();
+                return;
+                }
+
+            String sExpect = headerValue(mapHeaders, "Expect");
+            if (sExpect != null && sExpect.equalsIgnoreCase("100-continue") &&
+                    f_dequeRequests.isEmpty() && m_bufInterim == null)
+                {
+                m_bufInterim = ByteBuffer.wrap(CONTINUE);
+                flush();
+                }
+            }
+
+        /**
+         * Move the specified number of body bytes from the buffer to the current request.
+         */
+        private void receive(ByteBuffer buf, int cb)
+            {
+            Request request = m_request;
+            if (request.m_fStreaming)
+                {
+                byte[] ab = new byte[cb];
+                buf.get(ab);
+                if (request.offerInput(ab))
+                    {
+                    // too much is buffered already; wait for the handler to catch up
+                    pauseReading();
+                    }
+                }
+            else
+                {
+                ensureBody(cb);
+                buf.get(m_abBody, m_ofBody, cb);
+                m_ofBody += cb;
+                }
+            }
+
+        /**
+         * Make sure the body array can hold the specified number of additional bytes.
+         */
+        private void ensureBody(int cbAdd)
+            {
+            byte[] ab = m_abBody;
+            int    of = m_ofBody;
+            if (ab == null || of + cbAdd > ab.length)
+                {
+                // grow geometrically, but never beyond the declared length
+                long cbNew = Math.max(ab == null ? READ_BUFFER_SIZE : ab.length * 2L, of + (long) cbAdd);
+                if (m_nState == STATE_BODY)
+                    {
+                    cbNew = Math.min(cbNew, of + m_cbRemain);
+                    }
+                cbNew    = Math.min(cbNew, MAX_BODY_SIZE);
+                m_abBody = ab == null ? new byte[(int) cbNew] : Arrays.copyOf(ab, (int) cbNew);
+                }
+            }
+
+        /**
+         * The current request has been fully received; dispatch it, unless it has been already
+         * dispatched with a streaming body.
+         */
+        private void completeRequest()
+            {
+            Request request = m_request;
+            byte[]  abBody  = m_abBody;
+            int     cbBody  = m_ofBody;
+
+            m_request  = null;
+            m_abBody   = null;
+            m_ofBody   = 0;
+            m_nState   = STATE_HEAD;
+
+            if (request.m_fStreaming)
+                {
+                request.endInput();
+                }
+            else
+                {
+                request.m_abBody = abBody == null
+                        ? EMPTY
+                        : abBody.length == cbBody ? abBody : Arrays.copyOf(abBody, cbBody);
+                dispatch(request);
+                }
+
+            if (request.m_fClose)
+                {
+                // no more requests are accepted on this connection
+                m_fInputClosed = true;
+                pauseReading();
+                }
+            else if (f_dequeRequests.size() >= MAX_PIPELINED)
+                {
+                pauseReading();
+                }
+            }
+
+        /**
+         * Pass the request to the handler.
+         */
+        private void dispatch(Request request)
+            {
+            f_dequeRequests.add(request);
+            try
+                {
+                m_handler.accept(request);
+                }
+            catch (Throwable e)
+                {
+                e.printStackTrace();
+                request.sendError(500);
+                }
+            }
+
+        /**
+         * Respond to an invalid request and stop reading.
+         */
+        private void reject(int nStatus)
+            {
+            Request request = new Request(this, "GET", "/", "HTTP/1.1",
+                                          new TreeMap<>(String.CASE_INSENSITIVE_ORDER), false, true);
+            m_nState       = STATE_HEAD;
+            m_fInputClosed = true;
+            pauseReading();
+
+            f_dequeRequests.add(request);
+            request.sendError(nStatus);
+            }
+
+        /**
+         * Schedule a {@link #flush} on the selector thread; called on any thread when a response
+         * has been sent or the handler has consumed the buffered request body.
+         */
+        void wakeup()
+            {
+            f_queueReady.add(this);
+            f_selector.wakeup();
+            }
+
+        /**
+         * Write as many of the responses as possible, in the order of the requests.
+         */
+        void flush()
+            {
+            if (m_fClosed)
+                {
+                return;
+                }
+
+            try
+                {
+                ByteBuffer bufInterim = m_bufInterim;
+                if (bufInterim != null)
+                    {
+                    f_channel.write(bufInterim);
+                    if (bufInterim.hasRemaining())
+                        {
+                        setInterest(SelectionKey.OP_WRITE, true);
+                        return;
+                        }
+                    m_bufInterim = null;
+                    }
+
+                Request request;
+                while ((request = f_dequeRequests.peek()) != null)
+                    {
+                    int nResult = request.writeTo(f_channel);
+                    if (nResult == WRITE_BLOCKED)
+                        {
+                        setInterest(SelectionKey.OP_WRITE, true);
+                        return;
+                        }
+                    if (nResult == WRITE_PENDING)
+                        {
+                        break;
+                        }
+
+                    f_dequeRequests.poll();
+                    m_ldtActive = System.currentTimeMillis();
+
+                    if (request.m_fClose)
+                        {
+                        close();
+                        return;
+                        }
+
+                    if (request == m_request)
+                        {
+                        // the request has been responded to before its body was fully read;
+                        // the rest of the body is of no interest to anyone
+                        request.discardInput();
+                        }
+                    }
+
+                setInterest(SelectionKey.OP_WRITE, false);
+
+                if (f_dequeRequests.isEmpty() && m_fInputClosed)
+                    {
+                    close();
+                    }
+                else if (m_fReadPaused && !m_fInputClosed && f_dequeRequests.size() < MAX_PIPELINED &&
+                        (m_request == null || !m_request.isInputPaused()))
+                    {
+                    // resume reading; first process whatever has been buffered already
+                    m_fReadPaused = false;
+                    setInterest(SelectionKey.OP_READ, true);
+                    process();
+                    }
+                }
+            catch (IOException e)
+                {
+                close();
+                }
+            }
+
+        /**
+         * Stop reading from the connection.
+         */
+        private void pauseReading()
+            {
+            m_fReadPaused = true;
+            setInterest(SelectionKey.OP_READ, false);
+            }
+
+        /**
+         * Turn the specified interest on or off.
+         */
+        private void setInterest(int nOp, boolean fOn)
+            {
+            if (f_key.isValid())
+                {
+                int nOps = f_key.interestOps();
+                f_key.interestOps(fOn ? nOps | nOp : nOps & ~nOp);
+                }
+            }
+
+        /**
+         * Close the connection; any outstanding responses are discarded.
+         */
+        void close()
+            {
+            if (!m_fClosed)
+                {
+                m_fClosed = true;
+                f_key.cancel();
+                try
+                    {
+                    f_channel.close();
+                    }
+                catch (IOException ignore) {}
+
+                for (Request request : f_dequeRequests)
+                    {
+                    request.abort();
+                    }
+                if (m_request != null)
+                    {
+                    m_request.abort();
+                    }
+                }
+            }
+
+        final SocketChannel     f_channel;
+        final SelectionKey      f_key;
+        final InetSocketAddress f_addrRemote;
+        final InetSocketAddress f_addrLocal;
+
+        /**
+         * The requests that have been dispatched, but whose responses have not been written yet.
+         */
+        final ArrayDeque<Request> f_dequeRequests = new ArrayDeque<>();
+
+        /**
+         * The read buffer; it's always in the "fill" mode between the calls.
+         */
+        ByteBuffer m_bufRead = ByteBuffer.allocate(READ_BUFFER_SIZE);
+
+        /**
+         * An interim ("100 Continue") response to be written before any other.
+         */
+        ByteBuffer m_bufInterim;
+
+        int     m_nState = STATE_HEAD;
+        Request m_request;
+        byte[]  m_abBody;
+        int     m_ofBody;
+        long    m_cbRemain;
+
+        boolean m_fReadPaused;
+        boolean m_fInputClosed;
+        boolean m_fClosed;
+        long    m_ldtActive;
+        }
+
+
+    // ----- inner class: Request ------------------------------------------------------------------
+
+    /**
+     * A request received by the server.
+     */
+    protected static class Request
+            implements ServerRequest
+        {
+        Request(Connection conn, String sMethod, String sUri, String sProtocol,
+                Map<String, List<String>> mapHeaders, boolean fHttp10, boolean fClose)
+            {
+            f_conn       = conn;
+            f_sMethod    = sMethod;
+            f_sUri       = sUri;
+            f_sProtocol  = sProtocol;
+            f_mapHeaders = mapHeaders;
+            f_fHttp10    = fHttp10;
+            m_fClose     = fClose;
+            }
+
+        @Override
+        public InetSocketAddress getRemoteAddress()
+            {
+            return f_conn.f_addrRemote;
+            }
+
+        @Override
+        public InetSocketAddress getLocalAddress()
+            {
+            return f_conn.f_addrLocal;
+            }
+
+        @Override
+        public String getMethod()
+            {
+            return f_sMethod;
+            }
+
+        @Override
+        public String getUri()
+            {
+            return f_sUri;
+            }
+
+        @Override
+        public String getProtocol()
+            {
+            return f_sProtocol;
+            }
+
+        @Override
+        public boolean isTls()
+            {
+            return false;
+            }
+
+        @Override
+        public String[] getHeaderNames()
+            {
+            return f_mapHeaders.keySet().toArray(new String[0]);
+            }
+
+        @Override
+        public List<String> getHeaderValues(String sName)
+            {
+            return f_mapHeaders.get(sName);
+            }
+
+        @Override
+        public CompletableFuture<byte[]> getBody()
+            {
+            boolean fResume;
+            CompletableFuture<byte[]> cf;
+            synchronized (this)
+                {
+                IOException e = checkRead();
+                if (e != null)
+                    {
+                    return CompletableFuture.failedFuture(e);
+                    }
+
+                if (!m_fStreaming)
+                    {
+                    byte[] ab = m_abBody;
+                    int    of = m_ofRead;
+                    m_ofRead  = ab.length;
+                    return CompletableFuture.completedFuture(
+                            of == 0 ? ab : Arrays.copyOfRange(ab, of, ab.length));
+                    }
+
+                if (m_fInputDone || m_fDiscard)
+                    {
+                    return CompletableFuture.completedFuture(drainInput());
+                    }
+
+                // collect the rest of the body regardless of its size
+                m_cfBody       = cf = new CompletableFuture<>();
+                fResume        = m_fInputPaused;
+                m_fInputPaused = false;
+                }
+
+            if (fResume)
+                {
+                f_conn.wakeup();
+                }
+            return cf;
+            }
+
+        @Override
+        public CompletableFuture<byte[]> readBodyChunk(int cbMax)
+            {
+            boolean fResume;
+            CompletableFuture<byte[]> cf;
+            synchronized (this)
+                {
+                IOException e = checkRead();
+                if (e != null)
+                    {
+                    return CompletableFuture.failedFuture(e);
+                    }
+
+                if (!m_fStreaming)
+                    {
+                    byte[] ab = m_abBody;
+                    int    of = m_ofRead;
+                    int    cb = Math.min(ab.length - of, cbMax);
+                    m_ofRead += cb;
+                    return CompletableFuture.completedFuture(
+                            cb == 0            ? null :
+                            cb == ab.length    ? ab   : Arrays.copyOfRange(ab, of, of + cb));
+                    }
+
+                byte[] ab = pollInput(cbMax);
+                if (ab != null || m_fInputDone || m_fDiscard)
+                    {
+                    cf = CompletableFuture.completedFuture(ab);
+                    }
+                else
+                    {
+                    m_cfRead    = cf = new CompletableFuture<>();
+                    m_cbReadMax = cbMax;
+                    }
+
+                fResume = m_fInputPaused && m_cbInput <= MAX_INPUT_BUFFER / 2;
+                if (fResume)
+                    {
+                    m_fInputPaused = false;
+                    }
+                }
+
+            if (fResume)
+                {
+                f_conn.wakeup();
+                }
+            return cf;
+            }
+
+        @Override
+        public void send(int nStatus, String[] asName, String[] asValue, byte[] abBody)
+                throws IOException
+            {
+            synchronized (this)
+                {
+                queueOutput(buildHead(nStatus, asName, asValue, abBody.length));
+                if (!m_fNoBody && abBody.length > 0)
+                    {
+                    queueOutput(ByteBuffer.wrap(abBody));
+                    }
+                m_fOutputDone = true;
+                }
+            f_conn.wakeup();
+            }
+
+        @Override
+        public void sendHeaders(int nStatus, String[] asName, String[] asValue, long cbBody)
+                throws IOException
+            {
+            synchronized (this)
+                {
+                queueOutput(buildHead(nStatus, asName, asValue, cbBody));
+                }
+            f_conn.wakeup();
+            }
+
+        @Override
+        public CompletableFuture<Void> writeBodyChunk(byte[] abChunk)
+            {
+            CompletableFuture<Void> cf;
+            synchronized (this)
+                {
+                if (!m_fSent || m_fOutputDone || m_fAborted)
+                    {
+                    return CompletableFuture.failedFuture(new IOException(
+                            !m_fSent     ? "The response headers have not been sent" :
+                            m_fAborted   ? "The connection has been closed"
+                                         : "The response has already been completed"));
+                    }
+
+                int cb = abChunk.length;
+                if (cb == 0)
+                    {
+                    m_fOutputDone = true;
+                    if (m_cbOutputRemain > 0)
+                        {
+                        // the client would wait for the missing part forever
+                        m_fClose = true;
+                        cf = CompletableFuture.failedFuture(
+                                new IOException("The body is shorter than its declared length"));
+                        }
+                    else
+                        {
+                        if (m_fChunked && !m_fNoBody)
+                            {
+                            queueOutput(ByteBuffer.wrap(LAST_CHUNK));
+                            }
+                        cf = CompletableFuture.completedFuture(null);
+                        }
+                    }
+                else if (m_fNoBody)
+                    {
+                    cf = CompletableFuture.completedFuture(null);
+                    }
+                else
+                    {
+                    if (m_cbOutputRemain >= 0)
+                        {
+                        if (cb > m_cbOutputRemain)
+                            {
+                            return CompletableFuture.failedFuture(
+                                    new IOException("The body exceeds its declared length"));
+                            }
+                        m_cbOutputRemain -= cb;
+                        }
+
+                    if (m_fChunked)
+                        {
+                        queueOutput(ByteBuffer.wrap((Integer.toHexString(cb) + "\r\n")
+                                .getBytes(StandardCharsets.ISO_8859_1)));
+                        queueOutput(ByteBuffer.wrap(abChunk));
+                        queueOutput(ByteBuffer.wrap(CRLF));
+                        }
+                    else
+                        {
+                        queueOutput(ByteBuffer.wrap(abChunk));
+                        }
+
+                    cf = m_cbOutput < MAX_OUTPUT_BUFFER
+                            ? CompletableFuture.completedFuture(null)
+                            : (m_cfWrite = new CompletableFuture<>());
+                    }
+                }
+            f_conn.wakeup();
+            return cf;
+            }
+
+        @Override
+        public void sendError(int nStatus)
+            {
+            try
+                {
+                send(nStatus, NO_STRINGS, NO_STRINGS, EMPTY);
+                }
+            catch (IOException ignore) {}
+            }
+
+        @Override
+        public String toString()
+            {
+            return f_sMethod + ' ' + f_sUri + ' ' + f_sProtocol;
+            }
+
+
+        // ----- request body ----------------------------------------------------------------------
+
+        /**
+         * Add a part of the streamed body; called on the selector thread.
+         *
+         * @return true iff the reading should be paused until the handler consumes enough of the
+         *         buffered body
+         */
+        boolean offerInput(byte[] ab)
+            {
+            CompletableFuture<byte[]> cfRead  = null;
+            CompletableFuture<byte[]> cfBody  = null;
+            byte[]                    abChunk = null;
+            boolean                   fPause  = false;
+            synchronized (this)
+                {
+                if (m_fDiscard || m_fAborted)
+                    {
+                    return false;
+                    }
+
+                m_dequeInput.add(ab);
+                m_cbInput += ab.length;
+
+                if (m_cfRead != null)
+                    {
+                    cfRead   = m_cfRead;
+                    abChunk  = pollInput(m_cbReadMax);
+                    m_cfRead = null;
+                    }
+                else if (m_cfBody != null)
+                    {
+                    if (m_cbInput > MAX_BODY_SIZE)
+                        {
+                        cfBody   = m_cfBody;
+                        m_cfBody = null;
+                        discardInput();
+                        }
+                    }
+                else if (m_cbInput >= MAX_INPUT_BUFFER)
+                    {
+                    m_fInputPaused = fPause = true;
+                    }
+                }
+
+            if (cfRead != null)
+                {
+                cfRead.complete(abChunk);
+                }
+            if (cfBody != null)
+                {
+                cfBody.completeExceptionally(new IOException("The body is too large"));
+                }
+            return fPause;
+            }
+
+        /**
+         * The streamed body has been fully received; called on the selector thread.
+         */
+        void endInput()
+            {
+            CompletableFuture<byte[]> cfRead;
+            CompletableFuture<byte[]> cfBody;
+            byte[]                    abBody = null;
+            synchronized (this)
+                {
+                m_fInputDone = true;
+
+                cfRead   = m_cfRead;
+                cfBody   = m_cfBody;
+                m_cfRead = null;
+                m_cfBody = null;
+                if (cfBody != null)
+                    {
+                    abBody = drainInput();
+                    }
+                }
+
+            if (cfRead != null)
+                {
+                // a read could only be pending if nothing is buffered
+                cfRead.complete(null);
+                }
+            if (cfBody != null)
+                {
+                cfBody.complete(abBody);
+                }
+            }
+
+        /**
+         * Drop the rest of the body; called on the selector thread.
+         */
+        void discardInput()
+            {
+            CompletableFuture<byte[]> cfRead;
+            CompletableFuture<byte[]> cfBody;
+            synchronized (this)
+                {
+                m_fDiscard     = true;
+                m_fInputPaused = false;
+                m_dequeInput.clear();
+                m_cbInput      = 0;
+
+                cfRead   = m_cfRead;
+                cfBody   = m_cfBody;
+                m_cfRead = null;
+                m_cfBody = null;
+                }
+
+            if (cfRead != null)
+                {
+                cfRead.complete(null);
+                }
+            if (cfBody != null)
+                {
+                cfBody.complete(EMPTY);
+                }
+            }
+
+        /**
+         * @return true iff the reading has been paused because too much of the body is buffered
+         */
+        synchronized boolean isInputPaused()
+            {
+            return m_fInputPaused;
+            }
+
+        /**
+         * @return an exception if the body cannot be read at the moment; null otherwise
+         */
+        private IOException checkRead()
+            {
+            return m_fAborted
+                    ? new IOException("The connection has been closed")
+                    : m_cfRead != null || m_cfBody != null
+                        ? new IOException("A body read is already pending")
+                        : null;
+            }
+
+        /**
+         * @return the next buffered chunk of at most the specified size or null if nothing is
+         *         buffered
+         */
+        private byte[] pollInput(int cbMax)
+            {
+            byte[] ab = m_dequeInput.poll();
+            if (ab != null)
+                {
+                if (ab.length > cbMax)
+                    {
+                    m_dequeInput.addFirst(Arrays.copyOfRange(ab, cbMax, ab.length));
+                    ab = Arrays.copyOf(ab, cbMax);
+                    }
+                m_cbInput -= ab.length;
+                }
+            return ab;
+            }
+
+        /**
+         * @return all the buffered chunks as a single array
+         */
+        private byte[] drainInput()
+            {
+            ArrayDeque<byte[]> deque = m_dequeInput;
+            byte[] ab;
+            if (deque.size() == 1)
+                {
+                ab = deque.poll();
+                }
+            else
+                {
+                ab = new byte[(int) m_cbInput];
+                for (int of = 0; !deque.isEmpty(); )
+                    {
+                    byte[] abChunk = deque.poll();
+                    System.arraycopy(abChunk, 0, ab, of, abChunk.length);
+                    of += abChunk.length;
+                    }
+                }
+            m_cbInput = 0;
+            return ab == null ? EMPTY : ab;
+            }
+
+
+        // ----- response --------------------------------------------------------------------------
+
+        /**
+         * Build the response head and compute the response framing.
+         *
+         * @param cbBody  the body length or -1 if it's not known
+         */
+        private ByteBuffer buildHead(int nStatus, String[] asName, String[] asValue, long cbBody)
+                throws IOException
+            {
+            if (m_fSent)
+                {
+                throw new IOException("The response has already been sent");
+                }
+            if (m_fAborted)
+                {
+                throw new IOException("The connection has been closed");
+                }
+
+            boolean       fClose = m_fClose;
+            StringBuilder sb     = new StringBuilder(256);
+
+            sb.append("HTTP/1.1 ").append(nStatus).append(' ').append(reasonPhrase(nStatus)).append("\r\n");
+            for (int i = 0, c = asName.length; i < c; i++)
+                {
+                String sName  = asName[i];
+                String sValue = asValue[i];
+                if (!isValidHeader(sName) || !isValidHeader(sValue))
+                    {
+                    throw new IOException("Invalid header: " + sName);
+                    }
+
+                // the framing headers are computed by the server
+                if (sName.equalsIgnoreCase("Content-Length") ||
+                    sName.equalsIgnoreCase("Transfer-Encoding"))
+                    {
+                    continue;
+                    }
+
+                if (sName.equalsIgnoreCase("Connection"))
+                    {
+                    fClose |= sValue.equalsIgnoreCase("close");
+                    continue;
+                    }
+
+                sb.append(sName).append(": ").append(sValue).append("\r\n");
+                }
+
+            sb.append("Date: ").append(DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    ZonedDateTime.now(ZoneOffset.UTC))).append("\r\n");
+
+            boolean fBody = nStatus >= 200 && nStatus != 204 && nStatus != 304;
+            if (fBody)
+                {
+                if (cbBody >= 0)
+                    {
+                    sb.append("Content-Length: ").append(cbBody).append("\r\n");
+                    }
+                else if (f_fHttp10)
+                    {
+                    // the end of the body is indicated by closing the connection
+                    fClose = true;
+                    }
+                else
+                    {
+                    sb.append("Transfer-Encoding: chunked\r\n");
+                    m_fChunked = true;
+                    }
+                }
+
+            if (fClose)
+                {
+                sb.append("Connection: close\r\n");
+                }
+            else if (f_fHttp10)
+                {
+                sb.append("Connection: keep-alive\r\n");
+                }
+            sb.append("\r\n");
+
+            m_fSent          = true;
+            m_fClose         = fClose;
+            m_fNoBody        = !fBody || f_sMethod.equals("HEAD");
+            m_cbOutputRemain = fBody ? cbBody : -1;
+            return ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+            }
+
+        /**
+         * Add a buffer to the response output.
+         */
+        private void queueOutput(ByteBuffer buf)
+            {
+            m_dequeOutput.add(buf);
+            m_cbOutput += buf.remaining();
+            }
+
+        /**
+         * Write as much of the response as possible; called on the selector thread.
+         *
+         * @return one of {@link #WRITE_DONE}, {@link #WRITE_PENDING} or {@link #WRITE_BLOCKED}
+         */
+        int writeTo(SocketChannel channel)
+                throws IOException
+            {
+            CompletableFuture<Void> cfWrite = null;
+            int                     nResult;
+            synchronized (this)
+                {
+                ArrayDeque<ByteBuffer> deque = m_dequeOutput;
+                if (!deque.isEmpty())
+                    {
+                    m_cbOutput -= channel.write(deque.toArray(NO_BUFFERS));
+                    while (!deque.isEmpty() && !deque.peek().hasRemaining())
+                        {
+                        deque.poll();
+                        }
+                    }
+
+                nResult = !deque.isEmpty() ? WRITE_BLOCKED
+                        : m_fOutputDone    ? WRITE_DONE
+                                           : WRITE_PENDING;
+
+                if (m_cfWrite != null && m_cbOutput <= MAX_OUTPUT_BUFFER / 2)
+                    {
+                    cfWrite   = m_cfWrite;
+                    m_cfWrite = null;
+                    }
+                }
+
+            if (cfWrite != null)
+                {
+                cfWrite.complete(null);
+                }
+            return nResult;
+            }
+
+        /**
+         * The connection has been closed; fail all the outstanding operations.
+         */
+        void abort()
+            {
+            CompletableFuture<byte[]> cfRead;
+            CompletableFuture<byte[]> cfBody;
+            CompletableFuture<Void>   cfWrite;
+            synchronized (this)
+                {
+                if (m_fAborted)
+                    {
+                    return;
+                    }
+                m_fAborted = true;
+                m_dequeInput.clear();
+                m_dequeOutput.clear();
+
+                cfRead    = m_cfRead;
+                cfBody    = m_cfBody;
+                cfWrite   = m_cfWrite;
+                m_cfRead  = null;
+                m_cfBody  = null;
+                m_cfWrite = null;
+                }
+
+            IOException e = new IOException("The connection has been closed");
+            if (cfRead != null)
+                {
+                cfRead.completeExceptionally(e);
+                }
+            if (cfBody != null)
+                {
+                cfBody.completeExceptionally(e);
+                }
+            if (cfWrite != null)
+                {
+                cfWrite.completeExceptionally(e);
+                }
+            }
+
+        /**
+         * @return true iff the string could be used as a header name or value
+         */
+        private static boolean isValidHeader(String s)
+            {
+            return s.indexOf('\r') < 0 && s.indexOf('\n') < 0;
+            }
+
+        private final Connection                f_conn;
+        private final String                    f_sMethod;
+        private final String                    f_sUri;
+        private final String                    f_sProtocol;
+        private final Map<String, List<String>> f_mapHeaders;
+        private final boolean                   f_fHttp10;
+
+        /**
+         * True iff the body is streamed; assigned before the request is dispatched.
+         */
+        private boolean m_fStreaming;
+
+        /**
+         * The request body if it's not streamed; assigned before the request is dispatched.
+         */
+        private byte[] m_abBody;
+
+        /**
+         * The number of the body bytes that have been read by the handler.
+         */
+        private int m_ofRead;
+
+        /**
+         * The streamed body chunks that have been received, but not read by the handler yet.
+         */
+        private final ArrayDeque<byte[]> m_dequeInput = new ArrayDeque<>();
+
+        /**
+         * The number of bytes in {@link #m_dequeInput}.
+         */
+        private long m_cbInput;
+
+        /**
+         * The pending {@link #readBodyChunk} future and its maximum size.
+         */
+        private CompletableFuture<byte[]> m_cfRead;
+        private int                       m_cbReadMax;
+
+        /**
+         * The pending {@link #getBody} future.
+         */
+        private CompletableFuture<byte[]> m_cfBody;
+
+        /**
+         * The state of the streamed body.
+         */
+        private boolean m_fInputPaused;
+        private boolean m_fInputDone;
+        private boolean m_fDiscard;
+
+        /**
+         * True iff the connection is to be closed after the response.
+         */
+        private boolean m_fClose;
+
+        /**
+         * True iff the response head has been sent.
+         */
+        private boolean m_fSent;
+
+        /**
+         * The response framing: no body is to be written, the chunked transfer encoding is used,
+         * or the number of the body bytes yet to be written for a declared length (otherwise -1).
+         */
+        private boolean m_fNoBody;
+        private boolean m_fChunked;
+        private long    m_cbOutputRemain = -1;
+
+        /**
+         * The response buffers; added on the sending thread, written on the selector thread.
+         */
+        private final ArrayDeque<ByteBuffer> m_dequeOutput = new ArrayDeque<>();
+
+        /**
+         * The number of bytes in {@link #m_dequeOutput}.
+         */
+        private long m_cbOutput;
+
+        /**
+         * True iff the entire response has been queued.
+         */
+        private boolean m_fOutputDone;
+
+        /**
+         * The pending {@link #writeBodyChunk} future.
+         */
+        private CompletableFuture<Void> m_cfWrite;
+
+        /**
+         * True iff the connection has been closed.
+         */
+        private boolean m_fAborted;
+        }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * Thrown by the parser to reject a request.
+     */
+    private static class BadRequest
+            extends Exception
+        {
+        BadRequest(int nStatus)
+            {
+            super(null, null, false, false);
+            f_nStatus = nStatus;
+            }
+
+        final int f_nStatus;
+
+        private static final long serialVersionUID = 1L;
+        }
+
+    /**
+     * @return the first value of the specified header or null
+     */
+    private static String headerValue(Map<String, List<String>> mapHeaders, String sName)
+        {
+        List<String> list = mapHeaders.get(sName);
+        return list == null ? null : list.get(0);
+        }
+
+    /**
+     * @return the absolute index of the first occurrence of the pattern in the buffer's remaining
+     *         bytes, or -1
+     */
+    private static int indexOf(ByteBuffer buf, byte[] abPattern)
+        {
+        byte[] ab  = buf.array();
+        int    cb  = abPattern.length;
+        byte   b0  = abPattern[0];
+        for (int of = buf.position(), ofLast = buf.limit() - cb; of <= ofLast; of++)
+            {
+            if (ab[of] == b0 && Arrays.equals(ab, of, of + cb, abPattern, 0, cb))
+                {
+                return of;
+                }
+            }
+        return -1;
+        }
+
+    /**
+     * Read a CRLF terminated line from the buffer.
+     *
+     * @return the line (without the terminator) or null if the buffer doesn't contain a full line
+     */
+    private static String readLine(ByteBuffer buf)
+            throws BadRequest
+        {
+        int ofEnd = indexOf(buf, CRLF);
+        if (ofEnd < 0)
+            {
+            if (buf.remaining() > MAX_LINE_SIZE)
+                {
+                throw new BadRequest(400);
+                }
+            return null;
+            }
+
+        String sLine = new String(buf.array(), buf.position(), ofEnd - buf.position(),
+                                  StandardCharsets.ISO_8859_1);
+        buf.position(ofEnd + CRLF.length);
+        return sLine;
+        }
+
+    /**
+     * @return the reason phrase for the specified status code
+     */
+    private static String reasonPhrase(int nStatus)
+        {
+        return switch (nStatus)
+            {
+            case 100 -> "Continue";
+            case 200 -> "OK";
+            case 201 -> "Created";
+            case 202 -> "Accepted";
+            case 204 -> "No Content";
+            case 206 -> "Partial Content";
+            case 301 -> "Moved Permanently";
+            case 302 -> "Found";
+            case 303 -> "See Other";
+            case 304 -> "Not Modified";
+            case 307 -> "Temporary Redirect";
+            case 308 -> "Permanent Redirect";
+            case 400 -> "Bad Request";
+            case 401 -> "Unauthorized";
+            case 403 -> "Forbidden";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 409 -> "Conflict";
+            case 410 -> "Gone";
+            case 413 -> "Content Too Large";
+            case 415 -> "Unsupported Media Type";
+            case 429 -> "Too Many Requests";
+            case 431 -> "Request Header Fields Too Large";
+            case 500 -> "Internal Server Error";
+            case 501 -> "Not Implemented";
+            case 503 -> "Service Unavailable";
+            default  -> "";
+            };
+        }
+
+
+    // ----- constants and data fields -------------------------------------------------------------
+
+    private static final int STATE_HEAD       = 0;
+    private static final int STATE_BODY       = 1;
+    private static final int STATE_CHUNK_SIZE = 2;
+    private static final int STATE_CHUNK_DATA = 3;
+    private static final int STATE_CHUNK_END  = 4;
+    private static final int STATE_TRAILER    = 5;
+
+    private static final int WRITE_DONE    = 0;
+    private static final int WRITE_PENDING = 1;
+    private static final int WRITE_BLOCKED = 2;
+
+    private static final byte[]       EMPTY      = new byte[0];
+    private static final String[]     NO_STRINGS = new String[0];
+    private static final ByteBuffer[] NO_BUFFERS = new ByteBuffer[0];
+    private static final byte[]       CRLF       = {'\r', '\n'};
+    private static final byte[]       HEAD_END   = {'\r', '\n', '\r', '\n'};
+    private static final byte[]       LAST_CHUNK = {'0', '\r', '\n', '\r', '\n'};
+    private static final byte[]   CONTINUE   =
+            "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    /**
+     * The server socket backlog.
+     */
+    private static final int BACKLOG = 1024;
+
+    /**
+     * The initial size of the read buffer.
+     */
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * The maximum size of the request line and headers.
+     */
+    private static final int MAX_HEAD_SIZE = 64 * 1024;
+
+    /**
+     * The maximum size of a chunk size or trailer line.
+     */
+    private static final int MAX_LINE_SIZE = 8 * 1024;
+
+    /**
+     * The maximum size of a request body that is read into a single array.
+     */
+    private static final int MAX_BODY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The size of a request body above which the body is streamed.
+     */
+    private static final int STREAM_THRESHOLD = 64 * 1024;
+
+    /**
+     * The maximum number of bytes of a streamed request body buffered for the handler.
+     */
+    private static final int MAX_INPUT_BUFFER = 256 * 1024;
+
+    /**
+     * The maximum number of bytes of a streamed response body buffered for the client.
+     */
+    private static final int MAX_OUTPUT_BUFFER = 256 * 1024;
+
+    /**
+     * The maximum number of requests on a connection awaiting their responses.
+     */
+    private static final int MAX_PIPELINED = 16;
+
+    /**
+     * The selector timeout, which is also the frequency of the idle connection checks.
+     */
+    private static final long SELECT_TIMEOUT = 1000;
+
+    /**
+     * The time (in milliseconds) after which an idle connection is closed.
+     */
+    private static final long IDLE_TIMEOUT = 60_000;
+
+    private final Selector            f_selector;
+    private final ServerSocketChannel f_channelServer;
+
+    /**
+     * The connections that have responses to write.
+     */
+    private final ConcurrentLinkedQueue<Connection> f_queueReady = new ConcurrentLinkedQueue<>();
+
+    private volatile Consumer<ServerRequest> m_handler;
+    private volatile boolean                 m_fStopped;
+    private Thread                           m_thread;
+    }
@@ -0,0 +1,116 @@
+package org.xvm.runtime.template._native.web;
+
+
+import java.io.IOException;
+
+import java.net.InetSocketAddress;
+
+import java.util.List;
+
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * The native state of an http request received by one of the {@link xRTServer} backends.
+ */
+public interface ServerRequest
+    {
+    /**
+     * @return the address of the client that sent the request
+     */
+    InetSocketAddress getRemoteAddress();
+
+    /**
+     * @return the address the request was received on
+     */
+    InetSocketAddress getLocalAddress();
+
+    /**
+     * @return the request method (e.g. "GET")
+     */
+    String getMethod();
+
+    /**
+     * @return the request URI as it was specified by the request line
+     */
+    String getUri();
+
+    /**
+     * @return the request protocol (e.g. "HTTP/1.1")
+     */
+    String getProtocol();
+
+    /**
+     * @return true iff the request was received over a TLS connection
+     */
+    boolean isTls();
+
+    /**
+     * @return the names of all the request headers
+     */
+    String[] getHeaderNames();
+
+    /**
+     * @param sName  the case-insensitive header name
+     *
+     * @return the values for the specified header or null if there are none
+     */
+    List<String> getHeaderValues(String sName);
+
+    /**
+     * Obtain the remaining (not yet read) part of the request body. The body is read by a
+     * separate thread, so the returned future may complete after the call returns.
+     *
+     * @return a future for the body bytes (an empty array if there is no body)
+     */
+    CompletableFuture<byte[]> getBody();
+
+    /**
+     * Read the next part of the request body. At most one read could be outstanding at any time.
+     *
+     * @param cbMax  the maximum number of bytes to read
+     *
+     * @return a future for the next chunk of the body or for null once the body has been read
+     */
+    CompletableFuture<byte[]> readBodyChunk(int cbMax);
+
+    /**
+     * Send the response for this request.
+     *
+     * @param nStatus   the status code
+     * @param asName    the response header names
+     * @param asValue   the response header values
+     * @param abBody    the response body (must not be modified after this call)
+     */
+    void send(int nStatus, String[] asName, String[] asValue, byte[] abBody)
+            throws IOException;
+
+    /**
+     * Send the response status and headers; the body is then streamed by the
+     * {@link #writeBodyChunk} calls.
+     *
+     * @param nStatus   the status code
+     * @param asName    the response header names
+     * @param asValue   the response header values
+     * @param cbBody    the body length or -1 if it's not known, in which case the chunked transfer
+     *                  encoding is used
+     */
+    void sendHeaders(int nStatus, String[] asName, String[] asValue, long cbBody)
+            throws IOException;
+
+    /**
+     * Write the next part of the response body; an empty chunk completes the response.
+     *
+     * @param abChunk  the body chunk (must not be modified after this call)
+     *
+     * @return a future that completes when the server is ready to accept more of the body
+     */
+    CompletableFuture<Void> writeBodyChunk(byte[] abChunk);
+
+    /**
+     * Send a response without headers or body; any failure is ignored.
+     *
+     * @param nStatus  the status code
+     */
+    void sendError(int nStatus);
+    }
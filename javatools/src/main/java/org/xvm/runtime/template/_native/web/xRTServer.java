@@ -10,6 +10,7 @@ import com.sun.net.httpserver.HttpsParameters;
 import com.sun.net.httpserver.HttpsServer;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 
 import java.net.InetSocketAddress;
@@ -24,10 +25,12 @@ import java.security.cert.X509Certificate;
 
 import java.util.List;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+
+import java.util.function.Consumer;
 
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.SSLContext;
@@ -46,7 +49,9 @@ import org.xvm.asm.constants.TypeConstant;
 import org.xvm.runtime.Container;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.DeferredCallHandle;
 import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.Runtime;
 import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.TypeComposition;
 import org.xvm.runtime.Utils;
@@ -76,7 +81,9 @@ import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
 
 
 /**
- * Native implementation of the RTServer.x service that uses native Java {@link HttpServer}.
+ * Native implementation of the RTServer.x service. The plain text requests are served either by the
+ * native Java {@link HttpServer} or by the non-blocking {@link NioHttpServer}, depending on the
+ * {@link #ensureServer injection options}; the TLS requests are always served by the {@link HttpsServer}.
  */
 public class xRTServer
         extends xService
@@ -99,6 +106,8 @@ public class xRTServer
         markNativeMethod("configureImpl", null, VOID);
         markNativeMethod("start"       , null, VOID);
         markNativeMethod("send"        , null, VOID);
+        markNativeMethod("sendHeaders" , null, VOID);
+        markNativeMethod("writeBodyChunk", null, VOID);
         markNativeMethod("close"       , null, VOID);
 
         markNativeMethod("getClientAddressBytes",  null, null);
@@ -111,6 +120,7 @@ public class xRTServer
         markNativeMethod("getHeaderNames",         null, null);
         markNativeMethod("getHeaderValuesForName", null, null);
         markNativeMethod("getBodyBytes",           null, null);
+        markNativeMethod("readBodyChunk",          null, null);
         markNativeMethod("containsNestedBodies",   null, null);
 
         invalidateTypeInfo();
@@ -128,12 +138,23 @@ public class xRTServer
         }
 
     /**
-     * Injection support method.
+     * Injection support method. The options, if specified, name the backend for the plain text
+     * requests: "nio" or "jdk"; the default is specified by the "xvm.http.backend" system property.
      */
     public ObjectHandle ensureServer(Frame frame, ObjectHandle hOpts)
         {
+        String sBackend = hOpts instanceof StringHandle hS
+                ? hS.getStringValue()
+                : System.getProperty("xvm.http.backend", BACKEND_JDK);
+        if (!sBackend.equals(BACKEND_JDK) && !sBackend.equals(BACKEND_NIO))
+            {
+            return new DeferredCallHandle(xException.illegalArgument(frame,
+                    "Unknown HttpServer backend: " + sBackend));
+            }
+
         ServiceContext context  = f_container.createServiceContext("HttpServer");
-        ServiceHandle  hService = new HttpServerHandle(getCanonicalClass(f_container), context);
+        ServiceHandle  hService = new HttpServerHandle(getCanonicalClass(f_container), context,
+                                        sBackend.equals(BACKEND_NIO));
 
         context.setService(hService);
         return hService;
@@ -206,6 +227,24 @@ public class xRTServer
                         : xRTFunction.makeAsyncNativeHandle(method).
                                 call1(frame, hService, ahArg, iReturn);
                 }
+
+            case "sendHeaders":
+                {
+                HttpServerHandle hService = (HttpServerHandle) hTarget;
+                return frame.f_context == hService.f_context
+                        ? invokeSendHeaders(frame, ahArg)
+                        : xRTFunction.makeAsyncNativeHandle(method).
+                                call1(frame, hService, ahArg, iReturn);
+                }
+
+            case "writeBodyChunk":
+                {
+                HttpServerHandle hService = (HttpServerHandle) hTarget;
+                return frame.f_context == hService.f_context
+                        ? invokeWriteBodyChunk(frame, (HttpContextHandle) ahArg[0], (ArrayHandle) ahArg[1])
+                        : xRTFunction.makeAsyncNativeHandle(method).
+                                call1(frame, hService, ahArg, iReturn);
+                }
             }
 
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
@@ -224,6 +263,10 @@ public class xRTServer
             case "getBodyBytes":
                 return invokeGetBody(frame, (HttpContextHandle) ahArg[0], aiReturn);
 
+            case "readBodyChunk":
+                return invokeReadBodyChunk(frame, (HttpContextHandle) ahArg[0],
+                        (int) Math.min(((JavaLong) ahArg[1]).getValue(), MAX_CHUNK_SIZE), aiReturn);
+
             case "containsNestedBodies":
                 return invokeContainsBodies(frame, (HttpContextHandle) ahArg[0], aiReturn);
             }
@@ -240,7 +283,7 @@ public class xRTServer
      */
     private int invokeConfigure(Frame frame, HttpServerHandle hServer, ObjectHandle[] ahArg)
         {
-        if (hServer.getHttpServer() != null)
+        if (hServer.isConfigured())
             {
             return frame.raiseException(xException.illegalState(frame, "Server is already configured"));
             }
@@ -253,9 +296,12 @@ public class xRTServer
 
         try
             {
-            HttpServer  httpServer  = createHttpServer (new InetSocketAddress(sBindAddr, nHttpPort));
-            HttpsServer httpsServer = createHttpsServer(new InetSocketAddress(sBindAddr, nHttpsPort),
-                                                            hKeystore, sTlsKey);
+            InetSocketAddress addrHttp    = new InetSocketAddress(sBindAddr, nHttpPort);
+            Object            httpServer  = hServer.f_fNio
+                    ? new NioHttpServer(addrHttp)
+                    : createHttpServer(addrHttp);
+            HttpsServer       httpsServer = createHttpsServer(new InetSocketAddress(sBindAddr, nHttpsPort),
+                                                hKeystore, sTlsKey);
             hServer.configure(httpServer, httpsServer);
             return Op.R_NEXT;
             }
@@ -330,36 +376,32 @@ public class xRTServer
      */
     private int invokeStart(Frame frame, HttpServerHandle hServer, ServiceHandle hHandler)
         {
-        HttpServer  httpServer  = hServer.getHttpServer();
-        HttpsServer httpsServer = hServer.getHttpsServer();
+        HttpServer    httpServer  = hServer.getHttpServer();
+        NioHttpServer nioServer   = hServer.getNioServer();
+        HttpsServer   httpsServer = hServer.getHttpsServer();
 
-        if (httpServer == null)
+        if (!hServer.isConfigured())
             {
             return frame.raiseException(xException.illegalState(frame, "Server is not configured"));
             }
 
         if (hServer.getRequestHandler() == null)
             {
-            // this is a very first call; set up the thread pool
-            String        sName   = "HttpHandler";
-            ThreadGroup   group   = new ThreadGroup(sName);
-            ThreadFactory factory = r ->
-                {
-                Thread thread = new Thread(group, r);
-                thread.setDaemon(true);
-                thread.setName(sName + "@" + thread.hashCode());
-                return thread;
-                };
-
+            // this is a very first call; set up the thread pool (virtual threads in the "virtual"
+            // thread mode)
+            //
             // We don't actually rely on any scaling here; all requests go to a single natural
             // Handler service instance that needs to demultiplex it as quick as possible
             // (see HttpHandler.x in xenia.xtclang.org module).
             // If necessary, we can change the start() method to take an array of handlers and
             // demultiplex it earlier by the native code
-            Executor executor = Executors.newCachedThreadPool(factory);
+            Executor executor = Runtime.createBlockingExecutor("HttpHandler");
 
-            httpServer.setExecutor(executor);
-            httpServer.start();
+            if (httpServer != null)
+                {
+                httpServer.setExecutor(executor);
+                httpServer.start();
+                }
 
             httpsServer.setExecutor(executor);
             httpsServer.start();
@@ -369,7 +411,10 @@ public class xRTServer
             }
         else
             {
-            httpServer .removeContext("/");
+            if (httpServer != null)
+                {
+                httpServer.removeContext("/");
+                }
             httpsServer.removeContext("/");
             }
 
@@ -379,7 +424,16 @@ public class xRTServer
         FunctionHandle  hFunction  = xRTFunction.makeInternalHandle(frame, method).bindTarget(frame, hHandler);
 
         RequestHandler handler = new RequestHandler(hHandler.f_context, hFunction);
-        httpServer .createContext("/", handler);
+        if (httpServer == null)
+            {
+            // the NIO server calls the handler on its selector thread, which posts the request
+            // straight into the Handler service's queue
+            nioServer.start(handler);
+            }
+        else
+            {
+            httpServer.createContext("/", handler);
+            }
         httpsServer.createContext("/", handler);
 
         hServer.setRequestHandler(handler);
@@ -391,7 +445,7 @@ public class xRTServer
      */
     private int invokeGetClientAddress(Frame frame, HttpContextHandle hCtx, int iResult)
         {
-        InetSocketAddress addr = hCtx.f_exchange.getRemoteAddress();
+        InetSocketAddress addr = hCtx.f_request.getRemoteAddress();
         byte[]            ab   = addr.getAddress().getAddress();
 
         return frame.assignValue(iResult, xByteArray.makeByteArrayHandle(ab, Mutability.Constant));
@@ -402,7 +456,7 @@ public class xRTServer
      */
     private int invokeGetClientPort(Frame frame, HttpContextHandle hCtx, int iResult)
         {
-        InetSocketAddress addr = hCtx.f_exchange.getRemoteAddress();
+        InetSocketAddress addr = hCtx.f_request.getRemoteAddress();
 
         return frame.assignValue(iResult, xUInt16.INSTANCE.makeJavaLong(addr.getPort()));
         }
@@ -412,7 +466,7 @@ public class xRTServer
      */
     private int invokeGetServerAddress(Frame frame, HttpContextHandle hCtx, int iResult)
         {
-        InetSocketAddress addr = hCtx.f_exchange.getLocalAddress();
+        InetSocketAddress addr = hCtx.f_request.getLocalAddress();
         byte[]            ab   = addr.getAddress().getAddress();
 
         return frame.assignValue(iResult, xByteArray.makeByteArrayHandle(ab, Mutability.Constant));
@@ -423,7 +477,7 @@ public class xRTServer
      */
     private int invokeGetServerPort(Frame frame, HttpContextHandle hCtx, int iResult)
         {
-        InetSocketAddress addr = hCtx.f_exchange.getLocalAddress();
+        InetSocketAddress addr = hCtx.f_request.getLocalAddress();
 
         return frame.assignValue(iResult, xUInt16.INSTANCE.makeJavaLong(addr.getPort()));
         }
@@ -433,7 +487,7 @@ public class xRTServer
      */
     private int invokeGetMethod(Frame frame, HttpContextHandle hCtx, int iResult)
         {
-        String sMethod = hCtx.f_exchange.getRequestMethod();
+        String sMethod = hCtx.f_request.getMethod();
 
         return frame.assignValue(iResult, xString.makeHandle(sMethod));
         }
@@ -443,7 +497,7 @@ public class xRTServer
      */
     private int invokeGetUri(Frame frame, HttpContextHandle hCtx, int iResult)
         {
-        String sUri = hCtx.f_exchange.getRequestURI().toASCIIString();
+        String sUri = hCtx.f_request.getUri();
 
         return frame.assignValue(iResult, xString.makeHandle(sUri));
         }
@@ -453,7 +507,7 @@ public class xRTServer
      */
     private int invokeGetProtocol(Frame frame, HttpContextHandle hCtx, int iResult)
         {
-        String sProtocol = hCtx.f_exchange.getProtocol();
+        String sProtocol = hCtx.f_request.getProtocol();
 
         return frame.assignValue(iResult, xString.makeHandle(sProtocol));
         }
@@ -463,10 +517,8 @@ public class xRTServer
      */
     private int invokeGetHeaderNames(Frame frame, HttpContextHandle hCtx, int iResult)
         {
-        Headers headers = hCtx.f_exchange.getRequestHeaders();
-
         return frame.assignValue(iResult,
-                xString.makeArrayHandle(headers.keySet().toArray(Utils.NO_NAMES)));
+                xString.makeArrayHandle(hCtx.f_request.getHeaderNames()));
         }
 
     /**
@@ -475,10 +527,7 @@ public class xRTServer
     private int invokeGetHeaderValues(Frame frame, HttpContextHandle hCtx,
                                       StringHandle hName, int[] aiResult)
         {
-        Headers headers = hCtx.f_exchange.getRequestHeaders();
-        String  sName   = hName.getStringValue();
-
-        List<String> listValues = headers.get(sName);
+        List<String> listValues = hCtx.f_request.getHeaderValues(hName.getStringValue());
         if (listValues == null)
             {
             return frame.assignValue(aiResult[0], xBoolean.FALSE);
@@ -493,19 +542,63 @@ public class xRTServer
      */
     private int invokeGetBody(Frame frame, HttpContextHandle hCtx, int[] aiResult)
         {
-        try
+        CompletableFuture<byte[]> cfBody = hCtx.f_request.getBody();
+
+        Frame.Continuation continuation = frameCaller ->
             {
-            byte[] ab = hCtx.f_exchange.getRequestBody().readAllBytes();
+            try
+                {
+                byte[] ab = cfBody.get();
 
-            return ab.length == 0
-                ? frame.assignValue(aiResult[0], xBoolean.FALSE)
-                : frame.assignValues(aiResult, xBoolean.TRUE,
-                    xByteArray.makeByteArrayHandle(ab, Mutability.Constant));
-            }
-        catch (IOException e)
+                return ab.length == 0
+                    ? frameCaller.assignValue(aiResult[0], xBoolean.FALSE)
+                    : frameCaller.assignValues(aiResult, xBoolean.TRUE,
+                        xByteArray.makeByteArrayHandle(ab, Mutability.Constant));
+                }
+            catch (Throwable e)
+                {
+                return frameCaller.assignValue(aiResult[0], xBoolean.FALSE);
+                }
+            };
+
+        return cfBody.isDone()
+                ? continuation.proceed(frame)
+                : frame.waitForIO(cfBody, continuation);
+        }
+
+    /**
+     * Implementation of "conditional Byte[] readBodyChunk(RequestContext context, Int maxSize)"
+     * method.
+     */
+    private int invokeReadBodyChunk(Frame frame, HttpContextHandle hCtx, int cbMax, int[] aiResult)
+        {
+        if (cbMax <= 0)
             {
-            return frame.assignValue(aiResult[0], xBoolean.FALSE);
+            return frame.raiseException(xException.illegalArgument(frame, "Invalid size: " + cbMax));
             }
+
+        CompletableFuture<byte[]> cfChunk = hCtx.f_request.readBodyChunk(cbMax);
+
+        Frame.Continuation continuation = frameCaller ->
+            {
+            try
+                {
+                byte[] ab = cfChunk.get();
+
+                return ab == null
+                    ? frameCaller.assignValue(aiResult[0], xBoolean.FALSE)
+                    : frameCaller.assignValues(aiResult, xBoolean.TRUE,
+                        xByteArray.makeByteArrayHandle(ab, Mutability.Constant));
+                }
+            catch (Throwable e)
+                {
+                return raiseIOException(frameCaller, e);
+                }
+            };
+
+        return cfChunk.isDone()
+                ? continuation.proceed(frame)
+                : frame.waitForIO(cfChunk, continuation);
         }
 
     /**
@@ -523,26 +616,38 @@ public class xRTServer
      */
     private int invokeClose(HttpServerHandle hServer)
         {
-        HttpServer httpServer  = hServer.getHttpServer();
-        HttpServer httpsServer = hServer.getHttpsServer();
-        if (hServer != null)
+        HttpServer    httpServer  = hServer.getHttpServer();
+        NioHttpServer nioServer   = hServer.getNioServer();
+        HttpServer    httpsServer = hServer.getHttpsServer();
+        if (hServer.isConfigured())
             {
-            if (httpServer.getExecutor() == null)
+            if (nioServer != null)
+                {
+                nioServer.stop();
+                }
+
+            if (httpsServer.getExecutor() == null)
                 {
                 // we need to compensate for a bug in com.sun.net.httpserver.HttpServer that doesn't
                 // properly close the server socket that hasn't been established
-                httpServer.start();
-                httpServer.stop(0);
+                if (httpServer != null)
+                    {
+                    httpServer.start();
+                    httpServer.stop(0);
+                    }
                 httpsServer.start();
                 httpsServer.stop(0);
                 }
             else
                 {
-                httpServer.removeContext("/");
-                httpServer.stop(0);
+                if (httpServer != null)
+                    {
+                    httpServer.removeContext("/");
+                    httpServer.stop(0);
+                    }
                 httpsServer.removeContext("/");
                 httpsServer.stop(0);
-                ((ExecutorService) httpServer.getExecutor()).shutdown();
+                ((ExecutorService) httpsServer.getExecutor()).shutdown();
                 hServer.f_context.f_container.getServiceContext().unregisterNotification();
                 }
             hServer.setRequestHandler(null);
@@ -556,52 +661,112 @@ public class xRTServer
      */
     private int invokeSend(Frame frame, ObjectHandle[] ahArg)
         {
-        HttpExchange      exchange      = ((HttpContextHandle) ahArg[0]).f_exchange;
-        long              nStatus       = ((JavaLong) ahArg[1]).getValue();
-        StringArrayHandle hHeaderNames  = (StringArrayHandle) ((ArrayHandle) ahArg[2]).m_hDelegate;
-        StringArrayHandle hHeaderValues = (StringArrayHandle) ((ArrayHandle) ahArg[3]).m_hDelegate;
-        ArrayHandle       hBody         = (ArrayHandle) ahArg[4];
-        byte[]            abBody        = xByteArray.getBytes(hBody);
-        int               cbBody        = abBody.length;
+        ServerRequest request = ((HttpContextHandle) ahArg[0]).f_request;
+        long          nStatus = ((JavaLong) ahArg[1]).getValue();
+        String[]      asName  = toStrings((ArrayHandle) ahArg[2]);
+        String[]      asValue = toStrings((ArrayHandle) ahArg[3]);
+
+        // note: a constant body array is not copied
+        byte[]        abBody  = xByteArray.getBytes((ArrayHandle) ahArg[4]);
 
         try
             {
-            Headers headers = exchange.getResponseHeaders();
-            for (long i = 0, c = hHeaderNames.m_cSize; i < c; i++)
-                {
-                headers.add(hHeaderNames.get(i), hHeaderValues.get(i));
-                }
+            request.send((int) nStatus, asName, asValue, abBody);
+            }
+        catch (Throwable e)
+            {
+            return raiseIOException(frame, e);
+            }
+        return Op.R_NEXT;
+        }
+
+    /**
+     * Implementation of "void sendHeaders(RequestContext context, Int status, String[] headerNames,
+     *                    String[] headerValues, Int contentLength)" method.
+     */
+    private int invokeSendHeaders(Frame frame, ObjectHandle[] ahArg)
+        {
+        ServerRequest request = ((HttpContextHandle) ahArg[0]).f_request;
+        long          nStatus = ((JavaLong) ahArg[1]).getValue();
+        String[]      asName  = toStrings((ArrayHandle) ahArg[2]);
+        String[]      asValue = toStrings((ArrayHandle) ahArg[3]);
+        long          cbBody  = ((JavaLong) ahArg[4]).getValue();
 
-            exchange.sendResponseHeaders((int) nStatus, cbBody > 0 ? cbBody : -1);
+        try
+            {
+            request.sendHeaders((int) nStatus, asName, asValue, Math.max(cbBody, -1));
             }
-        catch (IOException e)
+        catch (Throwable e)
             {
-            return frame.raiseException(xException.ioException(frame, e.getMessage()));
+            return raiseIOException(frame, e);
             }
+        return Op.R_NEXT;
+        }
+
+    /**
+     * Implementation of "void writeBodyChunk(RequestContext context, Byte[] chunk)" method.
+     */
+    private int invokeWriteBodyChunk(Frame frame, HttpContextHandle hCtx, ArrayHandle hChunk)
+        {
+        // note: a constant chunk array is not copied
+        CompletableFuture<Void> cfWrite = hCtx.f_request.writeBodyChunk(xByteArray.getBytes(hChunk));
 
-        if (cbBody > 0)
+        Frame.Continuation continuation = frameCaller ->
             {
-            try (OutputStream out = exchange.getResponseBody())
+            try
                 {
-                out.write(abBody);
+                cfWrite.get();
+                return Op.R_NEXT;
                 }
             catch (Throwable e)
                 {
-                return frame.raiseException(xException.ioException(frame, e.getMessage()));
+                return raiseIOException(frameCaller, e);
                 }
+            };
+
+        return cfWrite.isDone()
+                ? continuation.proceed(frame)
+                : frame.waitForIO(cfWrite, continuation);
+        }
+
+
+    // ----- helper methods ------------------------------------------------------------------------
+
+    /**
+     * @return the content of the specified String array
+     */
+    private static String[] toStrings(ArrayHandle hArray)
+        {
+        StringArrayHandle hStrings = (StringArrayHandle) hArray.m_hDelegate;
+        int               cStrings = (int) hStrings.m_cSize;
+        String[]          as       = new String[cStrings];
+
+        for (int i = 0; i < cStrings; i++)
+            {
+            as[i] = hStrings.get(i);
             }
-        return Op.R_NEXT;
+        return as;
         }
 
+    /**
+     * Raise an IOException for the specified failure.
+     */
+    private static int raiseIOException(Frame frame, Throwable e)
+        {
+        if (e instanceof ExecutionException && e.getCause() != null)
+            {
+            e = e.getCause();
+            }
+        return frame.raiseException(xException.ioException(frame, e.getMessage()));
+        }
 
-    // ----- helper classes ------------------------------------------------------------------------
 
     /**
-     * The {@link HttpHandler} that handles all request from the Java {@link HttpServer} and calls
-     * the natural HttpServer.Handler "handle()" method.
+     * The handler for all requests from the Java {@link HttpServer} and the {@link NioHttpServer}
+     * that calls the natural HttpServer.Handler "handle()" method.
      */
     protected static class RequestHandler
-            implements HttpHandler
+            implements HttpHandler, Consumer<ServerRequest>
         {
         public RequestHandler(ServiceContext context, FunctionHandle hFunction)
             {
@@ -611,44 +776,194 @@ public class xRTServer
 
         @Override
         public void handle(HttpExchange exchange)
+            {
+            accept(new ExchangeRequest(exchange));
+            }
+
+        @Override
+        public void accept(ServerRequest request)
             {
             try (var ignore = ConstantPool.withPool(f_context.f_pool))
                 {
                 // call the Handler handle method
-                ObjectHandle[] hArgs = createArguments(exchange);
+                ObjectHandle[] hArgs = createArguments(request);
                 f_context.postRequest(null, f_hFunction, hArgs, 0).handle((response, err) ->
                     {
                     // process the response (or error) from calling the Handler handle method
                     // TODO: this should be sent to the natural "unhandledException" handler
                     if (err != null)
                         {
-                        sendError(exchange, err);
+                        sendError(request, err);
                         }
                     return null;
                     });
                 }
             catch (Throwable t)
                 {
-                sendError(exchange, t);
+                sendError(request, t);
                 }
             }
 
-        private ObjectHandle[] createArguments(HttpExchange exchange)
+        private ObjectHandle[] createArguments(ServerRequest request)
             {
-            HttpContextHandle hContext = new HttpContextHandle(exchange);
-            StringHandle      hURI     = xString.makeHandle(exchange.getRequestURI().toASCIIString());
-            StringHandle      hMethod  = xString.makeHandle(exchange.getRequestMethod());
-            BooleanHandle     hTls     = xBoolean.makeHandle(exchange instanceof HttpsExchange);
+            HttpContextHandle hContext = new HttpContextHandle(request);
+            StringHandle      hURI     = xString.makeHandle(request.getUri());
+            StringHandle      hMethod  = xString.makeHandle(request.getMethod());
+            BooleanHandle     hTls     = xBoolean.makeHandle(request.isTls());
 
             return new ObjectHandle[]{hContext, hURI, hMethod, hTls};
             }
 
-        private void sendError(HttpExchange exchange, Throwable t)
+        private void sendError(ServerRequest request, Throwable t)
             {
             t.printStackTrace();
+            request.sendError(500);
+            }
+
+        private final ServiceContext f_context;
+        private final FunctionHandle f_hFunction;
+        }
+
+    /**
+     * The {@link ServerRequest} for an {@link HttpExchange} of the Java {@link HttpServer}.
+     */
+    protected static class ExchangeRequest
+            implements ServerRequest
+        {
+        public ExchangeRequest(HttpExchange exchange)
+            {
+            f_exchange = exchange;
+            }
+
+        @Override
+        public InetSocketAddress getRemoteAddress()
+            {
+            return f_exchange.getRemoteAddress();
+            }
+
+        @Override
+        public InetSocketAddress getLocalAddress()
+            {
+            return f_exchange.getLocalAddress();
+            }
+
+        @Override
+        public String getMethod()
+            {
+            return f_exchange.getRequestMethod();
+            }
+
+        @Override
+        public String getUri()
+            {
+            return f_exchange.getRequestURI().toASCIIString();
+            }
+
+        @Override
+        public String getProtocol()
+            {
+            return f_exchange.getProtocol();
+            }
+
+        @Override
+        public boolean isTls()
+            {
+            return f_exchange instanceof HttpsExchange;
+            }
+
+        @Override
+        public String[] getHeaderNames()
+            {
+            return f_exchange.getRequestHeaders().keySet().toArray(Utils.NO_NAMES);
+            }
+
+        @Override
+        public List<String> getHeaderValues(String sName)
+            {
+            return f_exchange.getRequestHeaders().get(sName);
+            }
+
+        @Override
+        public CompletableFuture<byte[]> getBody()
+            {
+            return runBlocking(() -> f_exchange.getRequestBody().readAllBytes());
+            }
+
+        @Override
+        public CompletableFuture<byte[]> readBodyChunk(int cbMax)
+            {
+            return runBlocking(() ->
+                {
+                InputStream in = f_exchange.getRequestBody();
+                byte[]      ab = in.readNBytes(Math.min(cbMax, Math.max(in.available(), MIN_READ_SIZE)));
+                return ab.length == 0 ? null : ab;
+                });
+            }
+
+        @Override
+        public void send(int nStatus, String[] asName, String[] asValue, byte[] abBody)
+                throws IOException
+            {
+            HttpExchange exchange = f_exchange;
+            Headers      headers  = exchange.getResponseHeaders();
+            int          cbBody   = abBody.length;
+
+            for (int i = 0, c = asName.length; i < c; i++)
+                {
+                headers.add(asName[i], asValue[i]);
+                }
+
+            exchange.sendResponseHeaders(nStatus, cbBody > 0 ? cbBody : -1);
+
+            if (cbBody > 0)
+                {
+                try (OutputStream out = exchange.getResponseBody())
+                    {
+                    out.write(abBody);
+                    }
+                }
+            }
+
+        @Override
+        public void sendHeaders(int nStatus, String[] asName, String[] asValue, long cbBody)
+                throws IOException
+            {
+            HttpExchange exchange = f_exchange;
+            Headers      headers  = exchange.getResponseHeaders();
+
+            for (int i = 0, c = asName.length; i < c; i++)
+                {
+                headers.add(asName[i], asValue[i]);
+                }
+
+            // the JDK server uses zero to indicate the chunked encoding and -1 for no body
+            exchange.sendResponseHeaders(nStatus, cbBody < 0 ? 0 : cbBody == 0 ? -1 : cbBody);
+            }
+
+        @Override
+        public CompletableFuture<Void> writeBodyChunk(byte[] abChunk)
+            {
+            return runBlocking(() ->
+                {
+                OutputStream out = f_exchange.getResponseBody();
+                if (abChunk.length == 0)
+                    {
+                    out.close();
+                    }
+                else
+                    {
+                    out.write(abChunk);
+                    }
+                return null;
+                });
+            }
+
+        @Override
+        public void sendError(int nStatus)
+            {
             try
                 {
-                exchange.sendResponseHeaders(500, -1);
+                f_exchange.sendResponseHeaders(nStatus, -1);
                 }
             catch (IOException e)
                 {
@@ -656,8 +971,53 @@ public class xRTServer
                 }
             }
 
-        private final ServiceContext f_context;
-        private final FunctionHandle f_hFunction;
+        /**
+         * The JDK server only supports the blocking body I/O; run the specified operation on the
+         * server's exchange executor, so that a slow client doesn't block the service thread.
+         *
+         * @param io  the blocking operation
+         *
+         * @return the future that is completed by the operation
+         */
+        private <T> CompletableFuture<T> runBlocking(BlockingIO<T> io)
+            {
+            CompletableFuture<T> cf = new CompletableFuture<>();
+            try
+                {
+                f_exchange.getHttpContext().getServer().getExecutor().execute(() ->
+                    {
+                    try
+                        {
+                        cf.complete(io.run());
+                        }
+                    catch (Throwable e)
+                        {
+                        cf.completeExceptionally(e);
+                        }
+                    });
+                }
+            catch (RuntimeException e)
+                {
+                // e.g. the executor has been shut down
+                cf.completeExceptionally(e);
+                }
+            return cf;
+            }
+
+        /**
+         * A blocking I/O operation on the exchange.
+         */
+        @FunctionalInterface
+        private interface BlockingIO<T>
+            {
+            T run()
+                    throws IOException;
+            }
+
+        /**
+         * The wrapped {@link HttpExchange}.
+         */
+        private final HttpExchange f_exchange;
         }
 
     /**
@@ -748,18 +1108,25 @@ public class xRTServer
     protected static class HttpServerHandle
             extends ServiceHandle
         {
-        protected HttpServerHandle(TypeComposition clazz, ServiceContext context)
+        protected HttpServerHandle(TypeComposition clazz, ServiceContext context, boolean fNio)
             {
             super(clazz, context);
+
+            f_fNio = fNio;
             }
 
+        /**
+         * True iff the plain text requests are served by the {@link NioHttpServer}.
+         */
+        protected final boolean f_fNio;
+
         /**
          * The underlying native state needs to be kept in an array, so cloning the handle would
          * not splinter the state.
          */
         private final Object[] f_aoNative = new Object[3];
 
-        protected void configure(HttpServer httpServer, HttpsServer httpsServer)
+        protected void configure(Object httpServer, HttpsServer httpsServer)
             {
             f_aoNative[0] = httpServer;
             f_aoNative[1] = httpsServer;
@@ -769,17 +1136,35 @@ public class xRTServer
         public String toString()
             {
             return "HttpServer" +
-                    (getHttpServer() == null
-                        ? ""
-                        : "@" + getHttpServer().getAddress().getHostString());
+                    (isConfigured()
+                        ? "@" + getHttpsServer().getAddress().getHostString()
+                        : "");
+            }
+
+        /**
+         * @return true iff the server has been configured
+         */
+        protected boolean isConfigured()
+            {
+            return f_aoNative[0] != null;
             }
 
         /**
-         * @return underlying {@link HttpServer}.
+         * @return underlying {@link HttpServer} or null if the plain text requests are served by
+         *         the {@link NioHttpServer}
          */
         protected HttpServer getHttpServer()
             {
-            return (HttpServer) f_aoNative[0];
+            return f_aoNative[0] instanceof HttpServer server ? server : null;
+            }
+
+        /**
+         * @return underlying {@link NioHttpServer} or null if the plain text requests are served
+         *         by the {@link HttpServer}
+         */
+        protected NioHttpServer getNioServer()
+            {
+            return f_aoNative[0] instanceof NioHttpServer server ? server : null;
             }
 
         /**
@@ -808,28 +1193,44 @@ public class xRTServer
         }
 
     /**
-     * Native handle holding the HttpExchange reference.
+     * Native handle holding the ServerRequest reference.
      */
     protected static class HttpContextHandle
                 extends ObjectHandle
         {
-        public HttpContextHandle(HttpExchange exchange)
+        public HttpContextHandle(ServerRequest request)
             {
             super(xObject.INSTANCE.getCanonicalClass());
 
-            f_exchange = exchange;
+            f_request  = request;
             m_fMutable = false;
             }
 
         /**
-         * The wrapped {@link HttpExchange}.
+         * The wrapped {@link ServerRequest}.
          */
-        public final HttpExchange f_exchange;
+        public final ServerRequest f_request;
         }
 
 
     // ----- data fields and constants -------------------------------------------------------------
 
+    /**
+     * The backend names.
+     */
+    private static final String BACKEND_JDK = "jdk";
+    private static final String BACKEND_NIO = "nio";
+
+    /**
+     * The maximum size of a body chunk.
+     */
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * The minimum size of a blocking body read.
+     */
+    private static final int MIN_READ_SIZE = 8 * 1024;
+
     /**
      * Cached canonical type.
      */
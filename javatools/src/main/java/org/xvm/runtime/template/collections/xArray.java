@@ -708,6 +708,14 @@ public class xArray
         return new ArrayHandle(BYTE_ARRAY_CLZ, hDelegate, mutability);
         }
 
+    /**
+     * @return a Byte array handle for the specified delegate, which must hold Byte values
+     */
+    public static ArrayHandle makeByteArrayHandle(DelegateHandle hDelegate, Mutability mutability)
+        {
+        return new ArrayHandle(BYTE_ARRAY_CLZ, hDelegate, mutability);
+        }
+
     /**
      * @return the handle for an empty immutable array of Bytes.
      */
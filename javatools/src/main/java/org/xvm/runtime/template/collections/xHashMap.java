@@ -0,0 +1,116 @@
+package org.xvm.runtime.template.collections;
+
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Component.Format;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.MethodStructure;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Container;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template._native.collections.maps.xRTHashMap;
+
+
+/**
+ * Native HashMap support: a HashMap of the keys that are hashed and compared natively (String,
+ * Char, Boolean, the fixed-size Int and UInt types and the Enum types) is constructed as a native
+ * RTHashMap. The sub-classes of HashMap and the HashMaps with other keys are not affected.
+ * <p>
+ * Since HashSet is backed by a HashMap, the HashSets of such elements are native as well.
+ */
+public class xHashMap
+        extends ClassTemplate
+    {
+    public static xHashMap INSTANCE;
+
+    public xHashMap(Container container, ClassStructure structure, boolean fInstance)
+        {
+        super(container, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        ConstantPool      pool     = pool();
+        Set<TypeConstant> setTypes = new HashSet<>();
+
+        setTypes.add(pool.typeString());
+        setTypes.add(pool.typeChar());
+        setTypes.add(pool.typeBoolean());
+
+        setTypes.add(pool.typeInt8());
+        setTypes.add(pool.typeInt16());
+        setTypes.add(pool.typeInt32());
+        setTypes.add(pool.typeInt64());
+
+        setTypes.add(pool.typeUInt8());
+        setTypes.add(pool.typeUInt16());
+        setTypes.add(pool.typeUInt32());
+        setTypes.add(pool.typeUInt64());
+
+        NATIVE_KEYS = setTypes;
+        }
+
+    @Override
+    public int construct(Frame frame, MethodStructure constructor, TypeComposition clazz,
+                         ObjectHandle hParent, ObjectHandle[] ahVar, int iReturn)
+        {
+        xRTHashMap   templateNative = xRTHashMap.INSTANCE;
+        TypeConstant typeMap        = clazz.getType();
+        if (NATIVE_MAPS && templateNative != null && !typeMap.isAnnotated() &&
+                typeMap.getParamsCount() == 2 && isNativeKey(typeMap.getParamType(0)))
+            {
+            MethodStructure constructorNative = templateNative.getConstructor(constructor);
+            if (constructorNative != null)
+                {
+                TypeComposition clzNative = templateNative.ensureParameterizedClass(
+                        frame.f_context.f_container, typeMap.getParamType(0), typeMap.getParamType(1));
+
+                return templateNative.construct(frame, constructorNative, clzNative, hParent,
+                        Utils.ensureSize(ahVar, constructorNative.getMaxVars()), iReturn);
+                }
+            }
+
+        return super.construct(frame, constructor, clazz, hParent, ahVar, iReturn);
+        }
+
+    /**
+     * @return true iff the specified key type is hashed and compared natively
+     */
+    private static boolean isNativeKey(TypeConstant typeKey)
+        {
+        return NATIVE_KEYS.contains(typeKey) ||
+                typeKey.isExplicitClassIdentity(true) &&
+                typeKey.getExplicitClassFormat() == Format.ENUM;
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * True iff the HashMaps of the natively hashed keys are native. The native maps could be
+     * turned off by "-Dxvm.nativeHashMap=false" to measure their effect.
+     */
+    public static final boolean NATIVE_MAPS =
+            !"false".equalsIgnoreCase(System.getProperty("xvm.nativeHashMap"));
+
+    /**
+     * The key types (other than Enums) that are hashed and compared natively.
+     */
+    private static Set<TypeConstant> NATIVE_KEYS;
+    }
@@ -9,6 +9,7 @@ import org.xvm.asm.Op;
 import org.xvm.asm.constants.IntConstant;
 import org.xvm.asm.constants.TypeConstant;
 
+import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.ClassTemplate;
 import org.xvm.runtime.Container;
 import org.xvm.runtime.Frame;
@@ -86,6 +87,21 @@ public abstract class xConstrainedInteger
         markNativeMethod("shiftAllRight", INT, THIS);
 
         invalidateTypeInfo();
+
+        if (CACHE_HANDLES)
+            {
+            long lMin = Math.max(f_cMinValue, CACHE_MIN);
+            long lMax = Math.min(f_cMaxValue, CACHE_MAX);
+
+            ClassComposition clz     = getCanonicalClass();
+            JavaLong[]       ahCache = new JavaLong[(int) (lMax - lMin + 1)];
+            for (int i = 0, c = ahCache.length; i < c; ++i)
+                {
+                ahCache[i] = new JavaLong(clz, lMin + i);
+                }
+            m_lCacheBase = lMin;
+            m_ahCache    = ahCache;
+            }
         }
 
     /**
@@ -104,7 +120,7 @@ public abstract class xConstrainedInteger
         {
         if (constant instanceof IntConstant constInt)
             {
-            return frame.pushStack(new JavaLong(getCanonicalClass(), constInt.getValue().getLong()));
+            return frame.pushStack(makeJavaLong(constInt.getValue().getLong()));
             }
 
         return super.createConstHandle(frame, constant);
@@ -695,7 +711,8 @@ public abstract class xConstrainedInteger
         }
 
     /**
-     * Create a JavaLong handle for the type represented by this template.
+     * Create a JavaLong handle for the type represented by this template. The handles for the
+     * values in the [{@link #CACHE_MIN}, {@link #CACHE_MAX}] range are canonical.
      *
      * @param lValue  the underlying long value
      *
@@ -711,6 +728,16 @@ public abstract class xConstrainedInteger
                 lValue -= (f_lValueMask + 1);
                 }
             }
+
+        JavaLong[] ahCache = m_ahCache;
+        if (ahCache != null)
+            {
+            long lIndex = lValue - m_lCacheBase;
+            if (lIndex >= 0 && lIndex < ahCache.length)
+                {
+                return ahCache[(int) lIndex];
+                }
+            }
         return new JavaLong(getCanonicalClass(), lValue);
         }
 
@@ -886,4 +913,31 @@ public abstract class xConstrainedInteger
 
     protected final boolean f_fChecked;
     protected final boolean f_fSigned;
+
+    /**
+     * The canonical handles for the small values (null if the handles are not cached).
+     */
+    private JavaLong[] m_ahCache;
+
+    /**
+     * The value of the first cached handle.
+     */
+    private long m_lCacheBase;
+
+    /**
+     * The smallest value with a canonical handle.
+     */
+    public static final long CACHE_MIN = -128;
+
+    /**
+     * The largest value with a canonical handle.
+     */
+    public static final long CACHE_MAX = 1023;
+
+    /**
+     * True iff the handles for the values in the [CACHE_MIN, CACHE_MAX] range are canonical. The
+     * cache could be turned off by "-Dxvm.handleCache=false" to measure its effect.
+     */
+    public static final boolean CACHE_HANDLES =
+            !"false".equalsIgnoreCase(System.getProperty("xvm.handleCache"));
     }
\ No newline at end of file
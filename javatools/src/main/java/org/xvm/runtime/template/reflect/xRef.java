@@ -425,7 +425,7 @@ public class xRef
                 int   nVar     = hRef.m_iVar;
                 assert frameRef != null && nVar >= 0;
 
-                hValue = frameRef.f_ahVar[nVar];
+                hValue = frameRef.getRegister(nVar);
                 return hValue == null
                         ? frame.raiseException(xException.unassignedReference(frame))
                         : frame.assignValue(iReturn, hValue);
@@ -950,7 +950,7 @@ public class xRef
                     return m_hReferent != null;
 
                 default: // assertion m_frame != null && m_iVar >= 0
-                    return m_frame.f_ahVar[m_iVar] != null;
+                    return m_frame.isAssigned(m_iVar);
                 }
             }
 
@@ -966,7 +966,7 @@ public class xRef
             {
             assert m_frame != null && m_iVar >= 0;
 
-            ObjectHandle hValue = m_frame.f_ahVar[m_iVar];
+            ObjectHandle hValue = m_frame.getRegister(m_iVar);
             m_frame = null;
             m_iVar  = REF_REFERENT;
             setReferent(hValue);
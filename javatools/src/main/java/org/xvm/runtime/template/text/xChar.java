@@ -27,6 +27,8 @@ import org.xvm.runtime.template.xOrdered;
 import org.xvm.runtime.template.collections.xArray.ArrayHandle;
 import org.xvm.runtime.template.collections.xByteArray;
 
+import org.xvm.runtime.template.numbers.xConstrainedInteger;
+import org.xvm.runtime.template.numbers.xInt64;
 import org.xvm.runtime.template.numbers.xUInt32;
 
 import org.xvm.runtime.template.text.xString.StringHandle;
@@ -82,7 +84,7 @@ public class xChar
         {
         if (constant instanceof CharConstant constChar)
             {
-            return frame.pushStack(new JavaLong(getCanonicalClass(), constChar.getValue()));
+            return frame.pushStack(makeHandle(constChar.getValue()));
             }
 
         return super.createConstHandle(frame, constant);
@@ -201,17 +203,29 @@ public class xChar
         return ((JavaLong) hValue1).getValue() == ((JavaLong) hValue2).getValue();
         }
 
+    @Override
+    protected int buildHashCode(Frame frame, TypeComposition clazz, ObjectHandle hTarget, int iReturn)
+        {
+        return frame.assignValue(iReturn, xInt64.makeHandle(((JavaLong) hTarget).getValue()));
+        }
+
     // ----- helpers -------------------------------------------------------------------------------
 
     public static JavaLong makeHandle(long chValue)
         {
         assert chValue >= 0 & chValue <= 0x10FFFF;
-        if (chValue < 128)
+        JavaLong[] cache = INSTANCE.cache;
+        if (chValue < cache.length)
             {
-            return INSTANCE.cache[(int)chValue];
+            return cache[(int)chValue];
             }
         return new JavaLong(INSTANCE.getCanonicalClass(), chValue);
         }
 
-    private final JavaLong[] cache = new JavaLong[128];
+    /**
+     * The canonical handles for the ASCII characters, or, unless the handle caches are turned off,
+     * for all the characters up to {@link xConstrainedInteger#CACHE_MAX}.
+     */
+    private final JavaLong[] cache = new JavaLong[xConstrainedInteger.CACHE_HANDLES
+            ? (int) xConstrainedInteger.CACHE_MAX + 1 : 128];
     }
\ No newline at end of file
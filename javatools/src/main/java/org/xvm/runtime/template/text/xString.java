@@ -531,6 +531,21 @@ public class xString
             }
         }
 
+    /**
+     * Calculate the hash code of the specified Java string, which is the same as the hash code of
+     * a {@link StringHandle} holding the same chars (see {@link StringHandle#calcHashCode}).
+     */
+    public static int calcHashCode(String sValue)
+        {
+        int cch  = sValue.length();
+        int hash = 982_451_653;
+        for (int of = 0, cchStep = cch <= 0x40 ? 1 : (cch >>> 6) + 1; of < cch; of += cchStep)
+            {
+            hash = hash * 31 + sValue.charAt(of);
+            }
+        return hash;
+        }
+
     public static StringHandle makeHandle(String sValue)
         {
         return makeHandle(sValue.toCharArray());
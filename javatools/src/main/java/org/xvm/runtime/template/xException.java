@@ -50,6 +50,7 @@ public class xException
             s_clzIllegalState               = f_container.getTemplate("IllegalState"                 ).getCanonicalClass();
             s_clzInvalidType                = f_container.getTemplate("reflect.InvalidType"          ).getCanonicalClass();
             s_clzOutOfBounds                = f_container.getTemplate("OutOfBounds"                  ).getCanonicalClass();
+            s_clzOutOfMemory                = f_container.getTemplate("OutOfMemory"                  ).getCanonicalClass();
             s_clzReadOnly                   = f_container.getTemplate("ReadOnly"                     ).getCanonicalClass();
             s_clzSizeLimited                = f_container.getTemplate("collections.SizeLimited"      ).getCanonicalClass();
             s_clzTimedOut                   = f_container.getTemplate("TimedOut"                     ).getCanonicalClass();
@@ -169,6 +170,11 @@ public class xException
         return makeHandle(frame, s_clzOutOfBounds, sMsg);
         }
 
+    public static ExceptionHandle outOfMemory(Frame frame, String sMsg)
+        {
+        return makeHandle(frame, s_clzOutOfMemory, sMsg);
+        }
+
     public static ExceptionHandle readOnly(Frame frame, xArray.Mutability mutability)
         {
         String sMsg = switch (mutability)
@@ -314,6 +320,7 @@ public class xException
     private static ClassComposition s_clzIllegalState;
     private static ClassComposition s_clzInvalidType;
     private static ClassComposition s_clzOutOfBounds;
+    private static ClassComposition s_clzOutOfMemory;
     private static ClassComposition s_clzReadOnly;
     private static ClassComposition s_clzSizeLimited;
     private static ClassComposition s_clzTimedOut;
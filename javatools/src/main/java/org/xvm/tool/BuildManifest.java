@@ -0,0 +1,368 @@
+package org.xvm.tool;
+
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.xvm.asm.Constants;
+
+import static org.xvm.util.Handy.byteArrayToHexString;
+
+
+/**
+ * The record of a module compilation, stored next to the compiled module: the source files that
+ * the module was compiled from (with the type that each of them declares) and the stamps of the
+ * modules that it was compiled against.
+ * <p>
+ * The manifest allows the compiler to decide whether a module is up to date without parsing its
+ * sources. A source file is considered unchanged if its size and timestamp match the manifest, or
+ * if its content digest does; touching a file does not cause the module to be recompiled, while
+ * any change to a module it depends on does.
+ */
+public class BuildManifest
+    {
+    /**
+     * Construct an empty manifest.
+     *
+     * @param sModule  the fully qualified name of the compiled module
+     */
+    public BuildManifest(String sModule)
+        {
+        f_sModule = sModule;
+        }
+
+    /**
+     * @return the fully qualified name of the compiled module
+     */
+    public String getModuleName()
+        {
+        return f_sModule;
+        }
+
+    /**
+     * Record a source file of the module.
+     *
+     * @param sPath  the path of the file relative to the module's source directory
+     * @param file   the source file
+     * @param sType  the name of the type declared by the file
+     *
+     * @throws IOException  if the file cannot be read
+     */
+    public void addSource(String sPath, File file, String sType)
+            throws IOException
+        {
+        f_mapSources.put(sPath, new SourceInfo(file.length(), file.lastModified(), digestOf(file),
+                sType == null ? "" : sType));
+        }
+
+    /**
+     * @param sPath  a path relative to the module's source directory
+     *
+     * @return the name of the type declared by the specified source file, or null if the file is
+     *         not a source file of the module
+     */
+    public String getDeclaredType(String sPath)
+        {
+        SourceInfo info = f_mapSources.get(sPath);
+        return info == null || info.f_sType.isEmpty() ? null : info.f_sType;
+        }
+
+    /**
+     * Record a module that the module was compiled against.
+     *
+     * @param sModule  the fully qualified module name
+     * @param sStamp   the {@link org.xvm.asm.ModuleRepository#getModuleStamp stamp} of the
+     *                 module, or null if the module cannot be tracked
+     */
+    public void addDependency(String sModule, String sStamp)
+        {
+        f_mapDependencies.put(sModule, sStamp == null ? "" : sStamp);
+        }
+
+    /**
+     * @return the stamps of the modules that the module was compiled against, keyed by the module
+     *         names; an empty stamp indicates a module that cannot be tracked
+     */
+    public Map<String, String> getDependencies()
+        {
+        return Collections.unmodifiableMap(f_mapDependencies);
+        }
+
+    /**
+     * Compare the recorded source files to the current ones.
+     *
+     * @param mapFiles  the current source files keyed by the paths relative to the module's source
+     *                  directory
+     *
+     * @return the paths of the source files that have been added, removed or changed since the
+     *         module was compiled
+     */
+    public List<String> findChangedSources(Map<String, File> mapFiles)
+        {
+        List<String> listChanged = new ArrayList<>();
+        for (Map.Entry<String, File> entry : mapFiles.entrySet())
+            {
+            String     sPath = entry.getKey();
+            File       file  = entry.getValue();
+            SourceInfo info  = f_mapSources.get(sPath);
+            if (info == null || !info.matches(file))
+                {
+                listChanged.add(sPath);
+                }
+            }
+
+        for (String sPath : f_mapSources.keySet())
+            {
+            if (!mapFiles.containsKey(sPath))
+                {
+                listChanged.add(sPath);
+                }
+            }
+        return listChanged;
+        }
+
+
+    // ----- persistence ---------------------------------------------------------------------------
+
+    /**
+     * Determine the manifest file for the specified module. The manifest is stored next to the
+     * compiled module, and is named after the module source file, so that it can be found without
+     * parsing the source.
+     *
+     * @param fileModuleLocation  the location of the compiled module (directory or file)
+     * @param fileSource          the module source file
+     *
+     * @return the manifest file
+     */
+    public static File getManifestFile(File fileModuleLocation, File fileSource)
+        {
+        File dir = fileModuleLocation.getAbsoluteFile();
+        if (!dir.isDirectory())
+            {
+            dir = dir.getParentFile();
+            }
+
+        String sName = fileSource.getName();
+        if (sName.endsWith(".x"))
+            {
+            sName = sName.substring(0, sName.length() - 2);
+            }
+        return new File(dir, '.' + sName + ".deps");
+        }
+
+    /**
+     * Load the manifest from the specified file.
+     *
+     * @param file  the manifest file
+     *
+     * @return the manifest, or null if the file does not exist or is not a valid manifest
+     */
+    public static BuildManifest load(File file)
+        {
+        if (!file.isFile())
+            {
+            return null;
+            }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file))))
+            {
+            if (in.readInt() != MAGIC || in.readInt() != Constants.VERSION_MAJOR_CUR
+                                      || in.readInt() != Constants.VERSION_MINOR_CUR)
+                {
+                return null;
+                }
+
+            BuildManifest manifest = new BuildManifest(in.readUTF());
+            for (int i = 0, c = in.readInt(); i < c; i++)
+                {
+                String sPath = in.readUTF();
+                manifest.f_mapSources.put(sPath, new SourceInfo(in.readLong(), in.readLong(),
+                        in.readUTF(), in.readUTF()));
+                }
+
+            for (int i = 0, c = in.readInt(); i < c; i++)
+                {
+                String sModule = in.readUTF();
+                manifest.f_mapDependencies.put(sModule, in.readUTF());
+                }
+            return manifest;
+            }
+        catch (IOException | RuntimeException e)
+            {
+            // a corrupted or incompatible manifest is the same as none
+            return null;
+            }
+        }
+
+    /**
+     * Store the manifest to the specified file.
+     *
+     * @param file  the manifest file
+     *
+     * @throws IOException  if the manifest cannot be written
+     */
+    public void store(File file)
+            throws IOException
+        {
+        ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        DataOutputStream      out      = new DataOutputStream(outBytes);
+
+        out.writeInt(MAGIC);
+        out.writeInt(Constants.VERSION_MAJOR_CUR);
+        out.writeInt(Constants.VERSION_MINOR_CUR);
+        out.writeUTF(f_sModule);
+
+        out.writeInt(f_mapSources.size());
+        for (Map.Entry<String, SourceInfo> entry : f_mapSources.entrySet())
+            {
+            SourceInfo info = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeLong(info.f_cb);
+            out.writeLong(info.f_ldtModified);
+            out.writeUTF(info.f_sDigest);
+            out.writeUTF(info.f_sType);
+            }
+
+        out.writeInt(f_mapDependencies.size());
+        for (Map.Entry<String, String> entry : f_mapDependencies.entrySet())
+            {
+            out.writeUTF(entry.getKey());
+            out.writeUTF(entry.getValue());
+            }
+        out.flush();
+
+        // write to a temporary file first, so that an interrupted compilation never leaves a
+        // partial manifest behind
+        Path path     = file.toPath();
+        Path pathTemp = path.resolveSibling(file.getName() + ".tmp");
+        Files.write(pathTemp, outBytes.toByteArray());
+        try
+            {
+            Files.move(pathTemp, path, StandardCopyOption.ATOMIC_MOVE);
+            }
+        catch (AtomicMoveNotSupportedException e)
+            {
+            Files.move(pathTemp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+    /**
+     * Compute the content digest of the specified file.
+     *
+     * @param file  the file
+     *
+     * @return the digest as a hex string
+     *
+     * @throws IOException  if the file cannot be read
+     */
+    public static String digestOf(File file)
+            throws IOException
+        {
+        try
+            {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return byteArrayToHexString(digest.digest(Files.readAllBytes(file.toPath())));
+            }
+        catch (NoSuchAlgorithmException e)
+            {
+            throw new IllegalStateException(e);
+            }
+        }
+
+
+    // ----- SourceInfo ----------------------------------------------------------------------------
+
+    /**
+     * The recorded state of a source file.
+     */
+    private static class SourceInfo
+        {
+        /**
+         * @param cb           the file size
+         * @param ldtModified  the file timestamp
+         * @param sDigest      the content digest
+         * @param sType        the name of the type declared by the file, or an empty string
+         */
+        SourceInfo(long cb, long ldtModified, String sDigest, String sType)
+            {
+            f_cb          = cb;
+            f_ldtModified = ldtModified;
+            f_sDigest     = sDigest;
+            f_sType       = sType;
+            }
+
+        /**
+         * @return true iff the specified file has the recorded content
+         */
+        boolean matches(File file)
+            {
+            if (file.length() != f_cb)
+                {
+                return false;
+                }
+
+            if (file.lastModified() == f_ldtModified)
+                {
+                return true;
+                }
+
+            // the file has been touched; compare the content
+            try
+                {
+                return digestOf(file).equals(f_sDigest);
+                }
+            catch (IOException e)
+                {
+                return false;
+                }
+            }
+
+        final long   f_cb;
+        final long   f_ldtModified;
+        final String f_sDigest;
+        final String f_sType;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The manifest file format identifier.
+     */
+    private static final int MAGIC = 0x58564D44; // "XVMD"
+
+    /**
+     * The fully qualified name of the compiled module.
+     */
+    private final String f_sModule;
+
+    /**
+     * The recorded source files keyed by the paths relative to the module's source directory.
+     */
+    private final Map<String, SourceInfo> f_mapSources = new TreeMap<>();
+
+    /**
+     * The stamps of the modules the module was compiled against, keyed by the module names.
+     */
+    private final Map<String, String> f_mapDependencies = new TreeMap<>();
+    }
@@ -4,9 +4,21 @@ package org.xvm.tool;
 import java.io.File;
 import java.io.IOException;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import java.util.function.Predicate;
 
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.ConstantPool;
@@ -69,7 +81,10 @@ import org.xvm.util.Severity;
  *
  * <p/>Other command line options:
  * <ul>
- * <li>{@code -rebuild} - force rebuild, even if the build appears to be up-to-date</li>
+ * <li>{@code -rebuild} - force rebuild, even if the build appears to be up-to-date; a module is
+ *     up-to-date if none of its source files has changed since it was compiled, and none of the
+ *     modules it was compiled against has changed either, as recorded by the
+ *     {@link BuildManifest} next to the compiled module</li>
  * <li>{@code -qualify} - use fully qualified module names as the basis for output file names</li>
  * <li>{@code -nosrc} - (not implemented) do not include source code in the compiled module</li>
  * <li>{@code -nodbg} - (not implemented) do not include debugging information in the compiled module</li>
@@ -77,7 +92,13 @@ import org.xvm.util.Severity;
  * <li>{@code -strict} - convert warnings to errors</li>
  * <li>{@code -nowarn} - suppress warnings</li>
  * <li>{@code -verbose} - provide information about the work being done by the compilation process</li>
+ * <li>{@code -threads <n>} - compile on the specified number of threads (0 for the number of
+ *     processors); the modules that do not depend on each other are compiled concurrently, and so
+ *     is the code generation for the classes within each module</li>
  * </ul>
+ *
+ * <p/>Setting the "xvm.daemon" system property to "true" runs the compilation in a long-lived
+ * {@link CompilerDaemon} that keeps the library modules loaded across compilations.
  */
 public class Compiler
         extends Launcher
@@ -89,6 +110,19 @@ public class Compiler
      */
     public static void main(String[] asArg)
         {
+        if (CompilerDaemon.isEnabled())
+            {
+            Integer nStatus = CompilerDaemon.compile(asArg);
+            if (nStatus != null)
+                {
+                if (nStatus != 0)
+                    {
+                    System.exit(nStatus);
+                    }
+                return;
+                }
+            }
+
         new Compiler(asArg).run();
         }
 
@@ -126,38 +160,34 @@ public class Compiler
         boolean fRebuild   = options().isForcedRebuild();
         log(Severity.INFO, "Output-path=" + fileOutput + ", force-rebuild=" + fRebuild);
 
-        Map<File, Node> mapTargets     = new ListMap<>(cTargets);
-        int             cSystemModules = 0;
-        for (File fileModule : listTargets)
-            {
-            log(Severity.INFO, "Loading and parsing sources for module: " + fileModule);
-            Node node = loadSourceTree(fileModule, Stage.Linked);
+        // repository setup
+        log(Severity.INFO, "Creating and pre-populating library and build repositories");
+        ModuleRepository repoLib = configureLibraryRepo(options().getModulePath());
+        checkErrors();
 
-            // short-circuit the compilation of any up-to-date modules
-            if (fRebuild || !moduleUpToDate(node, fileOutput))
-                {
-                mapTargets.put(fileModule, node);
-                if (isSystemModule(node))
-                    {
-                    ++cSystemModules;
-                    }
-                }
-            }
+        ModuleRepository repoOutput = configureResultRepo(fileOutput);
+        checkErrors();
 
+        // short-circuit the compilation of any up-to-date modules
+        Map<File, Node> mapTargets = selectOutOfDateModules(listTargets, fileOutput, fRebuild,
+                                                             repoLib, repoOutput);
         if (mapTargets.isEmpty())
             {
             log(Severity.INFO, "All modules are up to date; terminating compiler");
             return;
             }
 
-        Node[] allNodes = mapTargets.values().toArray(new Node[0]);
+        Node[] allNodes       = mapTargets.values().toArray(new Node[0]);
+        int    cSystemModules = 0;
+        for (Node node : allNodes)
+            {
+            if (isSystemModule(node))
+                {
+                ++cSystemModules;
+                }
+            }
         flushAndCheckErrors(allNodes);
 
-        // repository setup
-        log(Severity.INFO, "Creating and pre-populating library and build repositories");
-        ModuleRepository repoLib = configureLibraryRepo(options().getModulePath());
-        checkErrors();
-
         if (cSystemModules == 0)
             {
             log(Severity.INFO, "Pre-loading and linking system libraries");
@@ -165,9 +195,6 @@ public class Compiler
             }
         checkErrors();
 
-        ModuleRepository repoOutput = configureResultRepo(fileOutput);
-        checkErrors();
-
         // the code below could be extracted if necessary: compile(allNodes, repoLib, repoOutput);
         log(Severity.INFO, "Creating empty modules and populating namespaces");
         Map<String, org.xvm.compiler.Compiler> mapCompilers = populateNamespace(allNodes, repoLib);
@@ -178,27 +205,268 @@ public class Compiler
         linkModules(compilers, repoLib);
         flushAndCheckErrors(allNodes);
 
-        resolveNames(compilers);
-        flushAndCheckErrors(allNodes);
+        int cThreads = options().getThreadCount();
+        if (cThreads > 1)
+            {
+            log(Severity.INFO, "Compiling on " + cThreads + " threads");
+            m_poolFork = new ForkJoinPool(cThreads);
+            for (var compiler : compilers)
+                {
+                compiler.setForkJoinPool(m_poolFork);
+                }
+            }
 
-        injectNativeTurtle(repoLib);
-        checkErrors();
+        try
+            {
+            resolveNames(compilers);
+            flushAndCheckErrors(allNodes);
 
-        log(Severity.INFO, "Validating expressions");
-        validateExpressions(compilers);
-        flushAndCheckErrors(allNodes);
+            injectNativeTurtle(repoLib);
+            checkErrors();
 
-        log(Severity.INFO, "Generating code");
-        generateCode(compilers);
-        flushAndCheckErrors(allNodes);
+            log(Severity.INFO, "Validating expressions");
+            validateExpressions(compilers);
+            flushAndCheckErrors(allNodes);
+
+            log(Severity.INFO, "Generating code");
+            generateCode(compilers);
+            flushAndCheckErrors(allNodes);
+            }
+        finally
+            {
+            if (m_poolFork != null)
+                {
+                m_poolFork.shutdown();
+                m_poolFork = null;
+                }
+            }
 
         log(Severity.INFO, "Storing results of compilation");
         emitModules(allNodes, repoOutput);
         flushAndCheckErrors(allNodes);
 
+        storeManifests(mapTargets, fileOutput, repoLib, repoOutput);
+
         log(Severity.INFO, "Finished; terminating compiler");
         }
 
+    /**
+     * Load the sources of the specified modules and select the modules that need to be compiled:
+     * the modules that are not {@link #isUpToDate up to date} and the modules that depend on them.
+     * Only the sources of the selected modules are parsed.
+     *
+     * @param listTargets  the module source files
+     * @param fileOutput   the location of the compiled modules (directory or file)
+     * @param fRebuild     true to select all the modules
+     * @param repoLib      the library repository
+     * @param repoOutput   the repository of the compiled modules
+     *
+     * @return the source trees of the modules to compile keyed by the module source files
+     */
+    protected Map<File, Node> selectOutOfDateModules(List<File> listTargets, File fileOutput,
+            boolean fRebuild, ModuleRepository repoLib, ModuleRepository repoOutput)
+        {
+        Map<File, Node>          mapNodes    = new HashMap<>();
+        Map<File, BuildManifest> mapCurrent  = new ListMap<>();
+        Set<File>                setSkip     = new HashSet<>();
+        Set<String>              setCompiled = new HashSet<>();
+        for (File fileModule : listTargets)
+            {
+            log(Severity.INFO, "Loading sources for module: " + fileModule);
+            Node node = loadSourceTree(fileModule, Stage.Init);
+            mapNodes.put(fileModule, node);
+
+            BuildManifest manifest = fRebuild
+                    ? null
+                    : BuildManifest.load(BuildManifest.getManifestFile(fileOutput, fileModule));
+            if (manifest != null && isUpToDate(node, manifest,
+                    findModuleFile(manifest.getModuleName(), fileOutput), repoLib, repoOutput))
+                {
+                mapCurrent.put(fileModule, manifest);
+                continue;
+                }
+
+            log(Severity.INFO, "Parsing sources for module: " + fileModule);
+            advanceSourceTree(node, Stage.Linked);
+
+            // a module compiled without a manifest can only be checked by the timestamps
+            if (manifest == null && !fRebuild && moduleUpToDate(node, fileOutput))
+                {
+                setSkip.add(fileModule);
+                continue;
+                }
+            setCompiled.add(node.name());
+            }
+
+        // the up-to-date modules that depend on the modules being compiled need to be compiled
+        // as well
+        for (boolean fChanged = !setCompiled.isEmpty(); fChanged; )
+            {
+            fChanged = false;
+            for (Iterator<Map.Entry<File, BuildManifest>> iter = mapCurrent.entrySet().iterator();
+                    iter.hasNext(); )
+                {
+                Map.Entry<File, BuildManifest> entry    = iter.next();
+                BuildManifest                  manifest = entry.getValue();
+                if (!Collections.disjoint(manifest.getDependencies().keySet(), setCompiled))
+                    {
+                    log(Severity.INFO, "Module " + manifest.getModuleName()
+                            + " depends on a module being compiled");
+
+                    Node node = mapNodes.get(entry.getKey());
+                    advanceSourceTree(node, Stage.Linked);
+                    setCompiled.add(node.name());
+                    iter.remove();
+                    fChanged = true;
+                    }
+                }
+            }
+        setSkip.addAll(mapCurrent.keySet());
+
+        Map<File, Node> mapTargets = new ListMap<>(listTargets.size());
+        for (File fileModule : listTargets)
+            {
+            if (!setSkip.contains(fileModule))
+                {
+                mapTargets.put(fileModule, mapNodes.get(fileModule));
+                }
+            }
+        return mapTargets;
+        }
+
+    /**
+     * Determine if the compiled module is up to date vis-a-vis its sources and the modules it was
+     * compiled against, according to the build manifest of its previous compilation.
+     *
+     * @param nodeSourceTree  the source code, which has not been parsed yet
+     * @param manifest        the build manifest of the compiled module
+     * @param fileCompiled    the compiled module file
+     * @param repoLib         the library repository
+     * @param repoOutput      the repository of the compiled modules
+     *
+     * @return true iff the compiled module is up to date
+     */
+    protected boolean isUpToDate(Node nodeSourceTree, BuildManifest manifest, File fileCompiled,
+                                 ModuleRepository repoLib, ModuleRepository repoOutput)
+        {
+        if (!fileCompiled.isFile())
+            {
+            return false;
+            }
+
+        String            sModule  = manifest.getModuleName();
+        Map<String, File> mapFiles = new HashMap<>();
+        for (Map.Entry<String, FileNode> entry : collectSourceNodes(nodeSourceTree).entrySet())
+            {
+            mapFiles.put(entry.getKey(), entry.getValue().file());
+            }
+
+        List<String> listChanged = manifest.findChangedSources(mapFiles);
+        if (!listChanged.isEmpty())
+            {
+            StringBuilder sb = new StringBuilder("Module ").append(sModule)
+                    .append(" has changed sources:");
+            for (String sPath : listChanged)
+                {
+                String sType = manifest.getDeclaredType(sPath);
+                sb.append("\n  ").append(sPath);
+                if (sType != null)
+                    {
+                    sb.append(" (").append(sType).append(')');
+                    }
+                }
+            log(Severity.INFO, sb.toString());
+            return false;
+            }
+
+        for (Map.Entry<String, String> entry : manifest.getDependencies().entrySet())
+            {
+            String sDep   = entry.getKey();
+            String sStamp = getModuleStamp(sDep, repoLib, repoOutput);
+            if (sStamp == null || !sStamp.equals(entry.getValue()))
+                {
+                log(Severity.INFO, "Module " + sModule + " depends on changed module " + sDep);
+                return false;
+                }
+            }
+
+        if (!resourcesUpToDate(nodeSourceTree, fileCompiled))
+            {
+            log(Severity.INFO, "Module " + sModule + " has changed resources");
+            return false;
+            }
+
+        log(Severity.INFO, "Module " + sModule + " is up to date");
+        return true;
+        }
+
+    /**
+     * Store the build manifests for the compiled modules.
+     *
+     * @param mapTargets  the source trees of the compiled modules keyed by the module source files
+     * @param fileOutput  the location of the compiled modules (directory or file)
+     * @param repoLib     the library repository
+     * @param repoOutput  the repository of the compiled modules
+     */
+    protected void storeManifests(Map<File, Node> mapTargets, File fileOutput,
+                                  ModuleRepository repoLib, ModuleRepository repoOutput)
+        {
+        Set<String> setCompiled = new HashSet<>();
+        for (Node node : mapTargets.values())
+            {
+            setCompiled.add(node.name());
+            }
+
+        for (Map.Entry<File, Node> entryTarget : mapTargets.entrySet())
+            {
+            Node            node     = entryTarget.getValue();
+            ModuleStructure module   = (ModuleStructure) node.type().getComponent();
+            String          sModule  = node.name();
+            BuildManifest   manifest = new BuildManifest(sModule);
+            try
+                {
+                for (Map.Entry<String, FileNode> entry : collectSourceNodes(node).entrySet())
+                    {
+                    FileNode nodeFile = entry.getValue();
+                    manifest.addSource(entry.getKey(), nodeFile.file(), nodeFile.name());
+                    }
+
+                for (String sDep : module.getFileStructure().moduleNames())
+                    {
+                    if (!sDep.equals(sModule))
+                        {
+                        manifest.addDependency(sDep, setCompiled.contains(sDep)
+                                ? repoOutput.getModuleStamp(sDep)
+                                : getModuleStamp(sDep, repoLib, repoOutput));
+                        }
+                    }
+
+                manifest.store(BuildManifest.getManifestFile(fileOutput, entryTarget.getKey()));
+                }
+            catch (IOException e)
+                {
+                log(Severity.WARNING, "Unable to store the build manifest for module "
+                        + sModule + ": " + e);
+                }
+            }
+        }
+
+    /**
+     * Obtain the stamp of a module as it would be used by the compilation.
+     *
+     * @param sModule     the module name
+     * @param repoLib     the library repository
+     * @param repoOutput  the repository of the compiled modules
+     *
+     * @return the module stamp or null if the module cannot be tracked
+     */
+    private static String getModuleStamp(String sModule, ModuleRepository repoLib,
+                                         ModuleRepository repoOutput)
+        {
+        String sStamp = repoLib.getModuleStamp(sModule);
+        return sStamp == null ? repoOutput.getModuleStamp(sModule) : sStamp;
+        }
+
     /**
      * The compiler depends on the NakedRef type from the prototype module being available to each
      * ConstantPool in the modules being compiled. This method injects that turtle.
@@ -302,17 +570,9 @@ public class Compiler
         int cTriesLeft = 0x3F;
         do
             {
-            boolean fDone = true;
-            for (var compiler : compilers)
-                {
-                fDone &= compiler.resolveNames(cTriesLeft == 1);
-
-                if (compiler.isAbortDesired())
-                    {
-                    return;
-                    }
-                }
-            if (fDone)
+            boolean fLastAttempt = cTriesLeft == 1;
+            if (processPass(compilers, compiler -> compiler.resolveNames(fLastAttempt))
+                    || isAbortDesired(compilers))
                 {
                 return;
                 }
@@ -336,17 +596,9 @@ public class Compiler
         int cTriesLeft = 0x3F;
         do
             {
-            boolean fDone = true;
-            for (var compiler : compilers)
-                {
-                fDone &= compiler.validateExpressions(cTriesLeft == 1);
-
-                if (compiler.isAbortDesired())
-                    {
-                    return;
-                    }
-                }
-            if (fDone)
+            boolean fLastAttempt = cTriesLeft == 1;
+            if (processPass(compilers, compiler -> compiler.validateExpressions(fLastAttempt))
+                    || isAbortDesired(compilers))
                 {
                 return;
                 }
@@ -370,39 +622,213 @@ public class Compiler
         int cTriesLeft = 0x3F;
         do
             {
-            boolean fDone = true;
+            boolean fLastAttempt = cTriesLeft == 1;
+            if (processPass(compilers, compiler -> generateCode(compiler, fLastAttempt))
+                    || isAbortDesired(compilers))
+                {
+                return;
+                }
+            }
+        while (--cTriesLeft > 0);
+
+        // something couldn't get resolved; must be a bug in the compiler
+        for (var compiler : compilers)
+            {
+            compiler.logRemainingDeferredAsErrors();
+            }
+        }
+
+    /**
+     * Generate the code for one module.
+     *
+     * @param compiler      the module compiler
+     * @param fLastAttempt  true iff this is the last attempt to generate the code
+     *
+     * @return true iff the pass is complete
+     */
+    private boolean generateCode(org.xvm.compiler.Compiler compiler, boolean fLastAttempt)
+        {
+        try
+            {
+            return compiler.generateCode(fLastAttempt);
+            }
+        catch (RuntimeException e)
+            {
+            // the modules could be compiled concurrently
+            synchronized (this)
+                {
+                System.err.println("Failed to generate code for " + compiler);
+                e.printStackTrace();
+
+                log(Severity.ERROR, "Failed to generate code for " + compiler
+                        + " due to exception: " + e);
+                }
+            return true;
+            }
+        }
+
+    /**
+     * Run one pass of a compilation phase for each module. If the compilation runs on multiple
+     * threads, the modules that don't depend on each other are processed concurrently.
+     *
+     * @param compilers  a module compiler for each module
+     * @param pass       the pass to run for a module; returns true iff the phase is complete for
+     *                   that module
+     *
+     * @return true iff the phase is complete for all the modules; false if the phase needs another
+     *         pass or the compilation should be aborted
+     */
+    protected boolean processPass(org.xvm.compiler.Compiler[] compilers,
+                                  Predicate<org.xvm.compiler.Compiler> pass)
+        {
+        ForkJoinPool pool  = m_poolFork;
+        boolean      fDone = true;
+        if (pool == null)
+            {
             for (var compiler : compilers)
                 {
-                try
+                fDone &= pass.test(compiler);
+
+                if (compiler.isAbortDesired())
                     {
-                    fDone &= compiler.generateCode(cTriesLeft == 1);
+                    return false;
+                    }
+                }
+            return fDone;
+            }
 
-                    if (compiler.isAbortDesired())
+        for (org.xvm.compiler.Compiler[] group : groupByDependencies(compilers))
+            {
+            if (group.length == 1)
+                {
+                fDone &= pass.test(group[0]);
+                }
+            else
+                {
+                List<Callable<Boolean>> listTasks = new ArrayList<>(group.length);
+                for (var compiler : group)
+                    {
+                    listTasks.add(() -> pass.test(compiler));
+                    }
+
+                try
+                    {
+                    for (Future<Boolean> result : pool.invokeAll(listTasks))
                         {
-                        return;
+                        fDone &= result.get();
                         }
                     }
-                catch (RuntimeException e)
+                catch (ExecutionException e)
+                    {
+                    Throwable eCause = e.getCause();
+                    if (eCause instanceof RuntimeException eRuntime)
+                        {
+                        throw eRuntime;
+                        }
+                    if (eCause instanceof Error eError)
+                        {
+                        throw eError;
+                        }
+                    throw new IllegalStateException(eCause);
+                    }
+                catch (InterruptedException e)
+                    {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                    }
+                }
+
+            if (isAbortDesired(group))
+                {
+                return false;
+                }
+            }
+        return fDone;
+        }
+
+    /**
+     * Group the module compilers by the dependencies between the modules: the modules in each group
+     * depend only on the modules in the preceding groups, so the modules in the same group can be
+     * processed concurrently. The modules with circular dependencies are placed into separate
+     * groups in their original order.
+     *
+     * @param compilers  a module compiler for each module
+     *
+     * @return the groups of module compilers in the order of processing
+     */
+    protected List<org.xvm.compiler.Compiler[]> groupByDependencies(org.xvm.compiler.Compiler[] compilers)
+        {
+        int                  cModules = compilers.length;
+        Map<String, Integer> mapIndex = new HashMap<>();
+        for (int i = 0; i < cModules; i++)
+            {
+            mapIndex.put(compilers[i].getFileStructure().getModuleName(), i);
+            }
+
+        List<org.xvm.compiler.Compiler[]> listGroups = new ArrayList<>();
+        boolean[]                         afDone     = new boolean[cModules];
+        int                               cDone      = 0;
+        while (cDone < cModules)
+            {
+            List<Integer> listGroup = new ArrayList<>();
+            NextModule:
+            for (int i = 0; i < cModules; i++)
+                {
+                if (afDone[i])
+                    {
+                    continue;
+                    }
+
+                for (String sDep : compilers[i].getFileStructure().moduleNames())
                     {
-                    System.err.println("Failed to generate code for " + compiler);
-                    e.printStackTrace();
+                    Integer IDep = mapIndex.get(sDep);
+                    if (IDep != null && IDep != i && !afDone[IDep])
+                        {
+                        continue NextModule;
+                        }
+                    }
+                listGroup.add(i);
+                }
 
-                    log(Severity.ERROR, "Failed to generate code for " + compiler
-                            + " due to exception: " + e);
+            if (listGroup.isEmpty())
+                {
+                // circular dependencies
+                for (int i = 0; i < cModules; i++)
+                    {
+                    if (!afDone[i])
+                        {
+                        listGroups.add(new org.xvm.compiler.Compiler[] {compilers[i]});
+                        }
                     }
+                break;
                 }
-            if (fDone)
+
+            org.xvm.compiler.Compiler[] group = new org.xvm.compiler.Compiler[listGroup.size()];
+            for (int i = 0, c = group.length; i < c; i++)
                 {
-                return;
+                int iModule = listGroup.get(i);
+                group[i]        = compilers[iModule];
+                afDone[iModule] = true;
                 }
+            listGroups.add(group);
+            cDone += group.length;
             }
-        while (--cTriesLeft > 0);
+        return listGroups;
+        }
 
-        // something couldn't get resolved; must be a bug in the compiler
+    /**
+     * @return true iff any of the specified compilers has decided to abort the process
+     */
+    private static boolean isAbortDesired(org.xvm.compiler.Compiler[] compilers)
+        {
         for (var compiler : compilers)
             {
-            compiler.logRemainingDeferredAsErrors();
+            if (compiler.isAbortDesired())
+                {
+                return true;
+                }
             }
+        return false;
         }
 
     /**
@@ -558,6 +984,8 @@ public class Compiler
             addOption("o",       Form.File,   false, "File or directory to write output to");
             addOption("qualify", Form.Name,   false, "Use full module name for the output file name");
             addOption("version", Form.String, false, "Use full module name for the output file name");
+            addOption("threads", Form.Int,    false, "Number of compilation threads (0 for the number"
+                                                 + " of processors; default 1)");
             addOption(Trailing,  Form.File,   true , "Source file name(s) and/or module location(s) to"
                                                  + " compile");
             }
@@ -602,6 +1030,19 @@ public class Compiler
             return sVersion == null ? null : new Version(sVersion);
             }
 
+        /**
+         * @return the number of threads to compile on
+         */
+        public int getThreadCount()
+            {
+            Integer IThreads = (Integer) values().get("threads");
+            return IThreads == null
+                    ? 1
+                    : IThreads <= 0
+                        ? Runtime.getRuntime().availableProcessors()
+                        : IThreads;
+            }
+
         /**
          * @return true if "fully qualified module name in output file name" option is set
          */
@@ -690,4 +1131,9 @@ public class Compiler
     // ----- fields --------------------------------------------------------------------------------
 
     protected Strictness strictLevel = Strictness.Normal;
+
+    /**
+     * The pool to compile on, or null to compile on the calling thread.
+     */
+    protected ForkJoinPool m_poolFork;
     }
\ No newline at end of file
@@ -0,0 +1,757 @@
+package org.xvm.tool;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import java.lang.management.ManagementFactory;
+
+import java.net.StandardProtocolFamily;
+import java.net.URISyntaxException;
+import java.net.UnixDomainSocketAddress;
+
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.security.CodeSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.TimeUnit;
+
+import org.xvm.asm.ModuleRepository;
+
+import org.xvm.tool.Launcher.Form;
+import org.xvm.tool.Launcher.Options;
+
+
+/**
+ * A long-lived compiler process that keeps the library modules loaded across compilations. Every
+ * standalone compilation starts a new JVM, which has to load the {@code ecstasy.xtc} and the other
+ * library modules, and then to rebuild the TypeInfos of all the core types it uses; the daemon
+ * keeps the library repositories (and with them the loaded modules and their TypeInfos) warm, so
+ * that a repeated compilation only pays for the modules being compiled.
+ *
+ * <p/>The compiler uses the daemon when the "xvm.daemon" system property is set to "true", starting
+ * it on demand:
+ *
+ * <p/>{@code  java -Dxvm.daemon=true -jar javatools.jar xtc -L ~/xdk/lib MyModule.x}
+ *
+ * <p/>The daemon listens on a Unix domain socket in the "xvm.daemon.dir" directory (by default,
+ * "~/.xtclang/daemon"), which is specific to the javatools build it runs, and terminates after it
+ * has been idle for "xvm.daemon.idle" minutes (by default, 60). It processes one compilation at a
+ * time; the output of the compilation is relayed to the client, which exits with the compiler's
+ * status. The daemon can be stopped explicitly:
+ *
+ * <p/>{@code  java -cp javatools.jar org.xvm.tool.CompilerDaemon -stop}
+ */
+public class CompilerDaemon
+    {
+    /**
+     * Entry point from the OS: run the daemon, or stop the running one using the "-stop" argument.
+     *
+     * @param asArg  command line arguments
+     */
+    public static void main(String[] asArg)
+            throws IOException
+        {
+        if (asArg.length > 0 && asArg[0].equals("-stop"))
+            {
+            Launcher.out(stop() ? "Compiler daemon stopped" : "Compiler daemon is not running");
+            return;
+            }
+
+        new CompilerDaemon().serve();
+        }
+
+
+    // ----- client --------------------------------------------------------------------------------
+
+    /**
+     * @return true iff the compiler should use the daemon
+     */
+    public static boolean isEnabled()
+        {
+        return Boolean.getBoolean("xvm.daemon");
+        }
+
+    /**
+     * Compile using the daemon, starting the daemon if it is not running.
+     *
+     * @param asArg  the compiler's command line arguments
+     *
+     * @return the compiler's exit status, or null if the compilation has to be done locally
+     */
+    public static Integer compile(String[] asArg)
+        {
+        List<String> listArgs = absolutizeArgs(asArg);
+        if (listArgs == null)
+            {
+            return null;
+            }
+
+        SocketChannel channelRunning = connect();
+        SocketChannel channel        = channelRunning == null ? spawn() : channelRunning;
+        if (channel == null)
+            {
+            return null;
+            }
+
+        try (channel)
+            {
+            try
+                {
+                sendRequest(channel, CMD_COMPILE, listArgs);
+                }
+            catch (IOException e)
+                {
+                // nothing has been done yet
+                return null;
+                }
+
+            return receiveResponse(channel);
+            }
+        catch (IOException e)
+            {
+            Launcher.err("Lost connection to the compiler daemon: " + e.getMessage());
+            return -1;
+            }
+        }
+
+    /**
+     * Stop the running daemon.
+     *
+     * @return true iff the daemon was running
+     */
+    public static boolean stop()
+        {
+        SocketChannel channel = connect();
+        if (channel == null)
+            {
+            return false;
+            }
+
+        try (channel)
+            {
+            sendRequest(channel, CMD_STOP, List.of());
+            receiveResponse(channel);
+            }
+        catch (IOException ignore) {}
+        return true;
+        }
+
+    /**
+     * Make the file arguments independent of the current directory, which the daemon does not
+     * share with the client. The output location defaults to the current directory, so it's made
+     * explicit.
+     *
+     * @param asArg  the compiler's command line arguments
+     *
+     * @return the arguments to send to the daemon, or null if the compilation has to be done
+     *         locally
+     */
+    protected static List<String> absolutizeArgs(String[] asArg)
+        {
+        Options      opts     = new Compiler(asArg).options();
+        List<String> listArgs = new ArrayList<>();
+        boolean      fOutput  = false;
+        boolean      fTarget  = false;
+        for (int i = 0, c = asArg.length; i < c; ++i)
+            {
+            String sArg = asArg[i];
+            if (sArg.startsWith("-"))
+                {
+                int    ofEq  = sArg.indexOf('=');
+                String sName = sArg.substring(1, ofEq >= 0 ? ofEq : sArg.length());
+                Form   form  = opts.formOf(sName);
+                if (form == null || form == Form.Name)
+                    {
+                    // the parser reports anything it does not understand
+                    listArgs.add(sArg);
+                    continue;
+                    }
+
+                String sVal;
+                if (ofEq >= 0)
+                    {
+                    sVal = sArg.substring(ofEq + 1);
+                    }
+                else if (i + 1 < c)
+                    {
+                    sVal = asArg[++i];
+                    }
+                else
+                    {
+                    listArgs.add(sArg);
+                    continue;
+                    }
+
+                if (form == Form.File || form == Form.Repo)
+                    {
+                    StringBuilder sb = new StringBuilder();
+                    for (String sPath : sVal.split(File.pathSeparator))
+                        {
+                        if (isWildcard(sPath))
+                            {
+                            return null;
+                            }
+                        if (!sb.isEmpty())
+                            {
+                            sb.append(File.pathSeparatorChar);
+                            }
+                        sb.append(absolutize(sPath));
+                        }
+                    sVal = sb.toString();
+                    }
+
+                fOutput |= sName.equals("o");
+                listArgs.add("-" + sName);
+                listArgs.add(sVal);
+                }
+            else
+                {
+                if (isWildcard(sArg))
+                    {
+                    return null;
+                    }
+                listArgs.add(absolutize(sArg));
+                fTarget = true;
+                }
+            }
+
+        if (!fTarget)
+            {
+            // the module is located from the current directory
+            return null;
+            }
+
+        if (!fOutput)
+            {
+            listArgs.add(0, "-o");
+            listArgs.add(1, new File(".").getAbsoluteFile().getParent());
+            }
+        return listArgs;
+        }
+
+    /**
+     * @return true iff the specified path is expanded relative to the current directory
+     */
+    private static boolean isWildcard(String sPath)
+        {
+        return sPath.indexOf('*') >= 0 || sPath.indexOf('?') >= 0;
+        }
+
+    /**
+     * @return the absolute form of the specified path
+     */
+    private static String absolutize(String sPath)
+        {
+        return sPath.isEmpty() || sPath.startsWith("~" + File.separator)
+                ? sPath
+                : new File(sPath).getAbsolutePath();
+        }
+
+    /**
+     * @return a connection to the running daemon, or null if there is none
+     */
+    private static SocketChannel connect()
+        {
+        Path path = getSocketPath();
+        if (!Files.exists(path))
+            {
+            return null;
+            }
+
+        SocketChannel channel = null;
+        try
+            {
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(UnixDomainSocketAddress.of(path));
+            return channel;
+            }
+        catch (IOException | UnsupportedOperationException e)
+            {
+            if (channel != null)
+                {
+                try
+                    {
+                    channel.close();
+                    }
+                catch (IOException ignore) {}
+                }
+            return null;
+            }
+        }
+
+    /**
+     * Start the daemon process and wait for it to accept connections.
+     *
+     * @return a connection to the new daemon, or null if it could not be started
+     */
+    private static SocketChannel spawn()
+        {
+        List<String> listCmd = new ArrayList<>();
+        listCmd.add(ProcessHandle.current().info().command().orElse(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java"));
+        for (String sArg : ManagementFactory.getRuntimeMXBean().getInputArguments())
+            {
+            // the memory, assertion and property settings apply to the daemon as well
+            if (sArg.startsWith("-Xm") || sArg.startsWith("-Xss") || sArg.startsWith("-D")
+                    || sArg.equals("-ea") || sArg.equals("-enableassertions"))
+                {
+                listCmd.add(sArg);
+                }
+            }
+        listCmd.add("-cp");
+        listCmd.add(System.getProperty("java.class.path"));
+        listCmd.add(CompilerDaemon.class.getName());
+
+        Process process;
+        try
+            {
+            Path path = getSocketPath();
+            Files.createDirectories(path.getParent());
+
+            File fileLog = path.resolveSibling(path.getFileName().toString()
+                                .replace(".sock", ".log")).toFile();
+            process = new ProcessBuilder(listCmd)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(fileLog))
+                    .start();
+            process.getOutputStream().close();
+            }
+        catch (IOException e)
+            {
+            return null;
+            }
+
+        long ldtGiveUp = System.currentTimeMillis() + SPAWN_TIMEOUT_MILLIS;
+        while (process.isAlive() && System.currentTimeMillis() < ldtGiveUp)
+            {
+            SocketChannel channel = connect();
+            if (channel != null)
+                {
+                return channel;
+                }
+
+            try
+                {
+                Thread.sleep(50);
+                }
+            catch (InterruptedException e)
+                {
+                break;
+                }
+            }
+
+        // the daemon may have lost the race to another one
+        return connect();
+        }
+
+    /**
+     * Send a request to the daemon.
+     */
+    private static void sendRequest(SocketChannel channel, String sCmd, List<String> listArgs)
+            throws IOException
+        {
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel)));
+        out.writeInt(MAGIC);
+        out.writeUTF(sCmd);
+        out.writeInt(listArgs.size());
+        for (String sArg : listArgs)
+            {
+            out.writeUTF(sArg);
+            }
+        out.flush();
+        }
+
+    /**
+     * Relay the daemon's output until the request completes.
+     *
+     * @return the exit status
+     */
+    private static int receiveResponse(SocketChannel channel)
+            throws IOException
+        {
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel)));
+        while (true)
+            {
+            int nKind = in.readByte();
+            int n     = in.readInt();
+            switch (nKind)
+                {
+                case FRAME_EXIT:
+                    System.out.flush();
+                    System.err.flush();
+                    return n;
+
+                case FRAME_OUT:
+                case FRAME_ERR:
+                    byte[] ab = new byte[n];
+                    in.readFully(ab);
+
+                    PrintStream out = nKind == FRAME_OUT ? System.out : System.err;
+                    out.write(ab, 0, n);
+                    out.flush();
+                    break;
+
+                default:
+                    throw new IOException("Invalid frame: " + nKind);
+                }
+            }
+        }
+
+    /**
+     * @return the socket path of the daemon for this javatools build
+     */
+    private static Path getSocketPath()
+        {
+        String sDir = System.getProperty("xvm.daemon.dir");
+        Path   dir  = sDir == null || sDir.isEmpty()
+                ? Path.of(System.getProperty("user.home"), ".xtclang", "daemon")
+                : Path.of(sDir);
+
+        // a rebuilt javatools gets a new daemon; the old one eventually times out
+        String     sBuild = "";
+        CodeSource source = CompilerDaemon.class.getProtectionDomain().getCodeSource();
+        if (source != null)
+            {
+            try
+                {
+                File file = new File(source.getLocation().toURI());
+                sBuild = file.getAbsolutePath() + '@' + file.lastModified();
+                }
+            catch (URISyntaxException | IllegalArgumentException ignore) {}
+            }
+        return dir.resolve("xtc-" + Integer.toHexString(sBuild.hashCode()) + ".sock");
+        }
+
+
+    // ----- server --------------------------------------------------------------------------------
+
+    /**
+     * Accept and process the requests until the daemon is stopped or times out.
+     */
+    public void serve()
+            throws IOException
+        {
+        Path path = getSocketPath();
+        Files.createDirectories(path.getParent());
+
+        SocketChannel channelOther = connect();
+        if (channelOther != null)
+            {
+            channelOther.close();
+            log("Another daemon is already listening on " + path);
+            return;
+            }
+
+        // the socket file of a daemon that did not exit cleanly
+        Files.deleteIfExists(path);
+
+        long cIdleMillis = TimeUnit.MINUTES.toMillis(Long.getLong("xvm.daemon.idle", 60));
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+             Selector            selector = Selector.open())
+            {
+            server.bind(UnixDomainSocketAddress.of(path));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            log("Listening on " + path);
+
+            while (!m_fStop)
+                {
+                if (selector.select(cIdleMillis) == 0)
+                    {
+                    log("Idle timeout");
+                    break;
+                    }
+                selector.selectedKeys().clear();
+
+                SocketChannel channel = server.accept();
+                if (channel != null)
+                    {
+                    try (channel)
+                        {
+                        channel.configureBlocking(true);
+                        handle(channel);
+                        }
+                    catch (IOException e)
+                        {
+                        log("Request failed: " + e);
+                        }
+                    }
+                }
+            }
+        finally
+            {
+            Files.deleteIfExists(path);
+            log("Stopped");
+            }
+        }
+
+    /**
+     * Process a single request.
+     */
+    private void handle(SocketChannel channel)
+            throws IOException
+        {
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(channel)));
+        String[] asArg;
+        String   sCmd;
+        try
+            {
+            if (in.readInt() != MAGIC)
+                {
+                throw new IOException("Invalid request");
+                }
+            sCmd  = in.readUTF();
+            asArg = new String[in.readInt()];
+            for (int i = 0, c = asArg.length; i < c; ++i)
+                {
+                asArg[i] = in.readUTF();
+                }
+            }
+        catch (EOFException e)
+            {
+            // a connection check
+            return;
+            }
+
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel)));
+        int nStatus = 0;
+        switch (sCmd)
+            {
+            case CMD_COMPILE:
+                {
+                long        ldtStart = System.currentTimeMillis();
+                PrintStream outOrig  = System.out;
+                PrintStream errOrig  = System.err;
+                PrintStream outFrame = new PrintStream(new FrameStream(out, FRAME_OUT), true);
+                PrintStream errFrame = new PrintStream(new FrameStream(out, FRAME_ERR), true);
+                System.setOut(outFrame);
+                System.setErr(errFrame);
+                try
+                    {
+                    nStatus = runCompiler(asArg);
+                    }
+                finally
+                    {
+                    outFrame.flush();
+                    errFrame.flush();
+                    System.setOut(outOrig);
+                    System.setErr(errOrig);
+                    }
+                log("Compiled " + String.join(" ", asArg) + " in "
+                        + (System.currentTimeMillis() - ldtStart) + "ms; status=" + nStatus);
+                break;
+                }
+
+            case CMD_STOP:
+                m_fStop = true;
+                break;
+
+            default:
+                nStatus = -1;
+                break;
+            }
+
+        synchronized (out)
+            {
+            out.writeByte(FRAME_EXIT);
+            out.writeInt(nStatus);
+            out.flush();
+            }
+        }
+
+    /**
+     * Run the compiler.
+     *
+     * @return the exit status
+     */
+    private int runCompiler(String[] asArg)
+        {
+        try
+            {
+            new DaemonCompiler(asArg).run();
+            return 0;
+            }
+        catch (Abort e)
+            {
+            return e.f_fError ? -1 : 0;
+            }
+        catch (RuntimeException e)
+            {
+            // the cached modules may have been left in an inconsistent state
+            e.printStackTrace();
+            f_mapRepos.clear();
+            return -1;
+            }
+        catch (Error e)
+            {
+            e.printStackTrace();
+            f_mapRepos.clear();
+            m_fStop = true;
+            return -1;
+            }
+        }
+
+    /**
+     * Log a message to the daemon's log.
+     */
+    private static void log(String sMsg)
+        {
+        System.out.println(java.time.LocalDateTime.now() + " " + sMsg);
+        }
+
+
+    // ----- DaemonCompiler ------------------------------------------------------------------------
+
+    /**
+     * The compiler that uses the daemon's library repositories, and reports its termination by
+     * an exception instead of exiting the process.
+     */
+    private class DaemonCompiler
+            extends Compiler
+        {
+        DaemonCompiler(String[] asArg)
+            {
+            super(asArg);
+            }
+
+        @Override
+        protected void abort(boolean fError)
+            {
+            throw new Abort(fError);
+            }
+
+        @Override
+        protected ModuleRepository makeLibraryRepo(File file)
+            {
+            ModuleRepository repo = f_mapRepos.get(file.getAbsoluteFile());
+            if (repo == null)
+                {
+                repo = super.makeLibraryRepo(file);
+                f_mapRepos.put(file.getAbsoluteFile(), repo);
+                }
+            else
+                {
+                // the modules may have been rebuilt since the last request
+                repo.refresh();
+                }
+            return repo;
+            }
+        }
+
+
+    // ----- Abort ---------------------------------------------------------------------------------
+
+    /**
+     * The termination of a compilation.
+     */
+    private static class Abort
+            extends RuntimeException
+        {
+        Abort(boolean fError)
+            {
+            super(null, null, false, false);
+            f_fError = fError;
+            }
+
+        final boolean f_fError;
+
+        private static final long serialVersionUID = 1L;
+        }
+
+
+    // ----- FrameStream ---------------------------------------------------------------------------
+
+    /**
+     * The stream that relays the output of a compilation to the client.
+     */
+    private static class FrameStream
+            extends OutputStream
+        {
+        FrameStream(DataOutputStream out, int nKind)
+            {
+            f_out   = out;
+            f_nKind = nKind;
+            }
+
+        @Override
+        public void write(int b)
+                throws IOException
+            {
+            write(new byte[] {(byte) b}, 0, 1);
+            }
+
+        @Override
+        public void write(byte[] ab, int of, int cb)
+                throws IOException
+            {
+            if (cb > 0)
+                {
+                // the output and error streams share the connection
+                synchronized (f_out)
+                    {
+                    f_out.writeByte(f_nKind);
+                    f_out.writeInt(cb);
+                    f_out.write(ab, of, cb);
+                    f_out.flush();
+                    }
+                }
+            }
+
+        private final DataOutputStream f_out;
+        private final int              f_nKind;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The request identifier.
+     */
+    private static final int MAGIC = 0x58564D43; // "XVMC"
+
+    private static final String CMD_COMPILE = "compile";
+    private static final String CMD_STOP    = "stop";
+
+    private static final int FRAME_EXIT = 0;
+    private static final int FRAME_OUT  = 1;
+    private static final int FRAME_ERR  = 2;
+
+    /**
+     * The time to wait for a new daemon to start listening.
+     */
+    private static final long SPAWN_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * The library repositories keyed by their locations.
+     */
+    private final Map<File, ModuleRepository> f_mapRepos = new HashMap<>();
+
+    /**
+     * True once the daemon has been asked to stop.
+     */
+    private volatile boolean m_fStop;
+    }
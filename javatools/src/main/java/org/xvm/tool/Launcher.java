@@ -1186,14 +1186,25 @@ public abstract class Launcher
         repos[0] = makeBuildRepo();
         for (int i = 0, c = path.size(); i < c; ++i)
             {
-            File file = path.get(i);
-            repos[i + 1] = file.isDirectory()
-                ? new DirRepository(file, true)
-                : new FileRepository(file, true);
+            repos[i + 1] = makeLibraryRepo(path.get(i));
             }
         return new LinkedRepository(true, repos);
         }
 
+    /**
+     * Factory method for a read-only repository of the library modules.
+     *
+     * @param file  a module directory or file
+     *
+     * @return a new DirRepository or FileRepository
+     */
+    protected ModuleRepository makeLibraryRepo(File file)
+        {
+        return file.isDirectory()
+            ? new DirRepository(file, true)
+            : new FileRepository(file, true);
+        }
+
     /**
      * Factory method for a BuildRepository.
      *
@@ -1958,56 +1969,92 @@ public abstract class Launcher
      */
     protected boolean moduleUpToDate(Node nodeSourceTree, File fileModuleLocation)
         {
-        String sModule   = nodeSourceTree.name();
-        File   fileModule = fileModuleLocation.isDirectory()
-                ? new File(fileModuleLocation, sModule + ".xtc")
-                : fileModuleLocation;
-
+        File fileModule = findModuleFile(nodeSourceTree.name(), fileModuleLocation);
         if (fileModule.isFile() && fileModule.exists())
             {
-            long ldtModule = fileModule.lastModified();
-            if (nodeSourceTree.lastModified() >= ldtModule)
+            if (nodeSourceTree.lastModified() >= fileModule.lastModified())
                 {
                 return false;
                 }
 
-            File dirParent = nodeSourceTree.file().getParentFile();
-            try
+            return resourcesUpToDate(nodeSourceTree, fileModule);
+            }
+        return false;
+        }
+
+    /**
+     * Determine the location of the compiled module file.
+     *
+     * @param sModule             the module name, qualified or not
+     * @param fileModuleLocation  the location of the compiled module (directory or file)
+     *
+     * @return the compiled module file, which may not exist
+     */
+    protected File findModuleFile(String sModule, File fileModuleLocation)
+        {
+        if (fileModuleLocation.isDirectory())
+            {
+            // the module repositories name the module files using the unqualified module names
+            int ofDot = sModule.indexOf('.');
+            if (ofDot > 0)
                 {
-                FileStructure       struct      = new FileStructure(fileModule);
-                Set<FSNodeConstant> setChecked  = new HashSet<>();
-                Set<FSNodeConstant> setDeferred = new HashSet<>();
-                for (Iterator<? extends XvmStructure> it = struct.getConstantPool().getContained();
-                        it.hasNext(); )
+                sModule = sModule.substring(0, ofDot);
+                }
+            return new File(fileModuleLocation, sModule + ".xtc");
+            }
+        return fileModuleLocation;
+        }
+
+    /**
+     * Determine if the resources (files and directories) embedded into the compiled module are up
+     * to date vis-a-vis the resources in the source tree.
+     *
+     * @param nodeSourceTree  the source code
+     * @param fileModule      the compiled module file
+     *
+     * @return true iff none of the embedded resources has been changed or removed
+     */
+    protected boolean resourcesUpToDate(Node nodeSourceTree, File fileModule)
+        {
+        long ldtModule = fileModule.lastModified();
+        File dirParent = nodeSourceTree.file().getParentFile();
+        try
+            {
+            FileStructure       struct      = new FileStructure(fileModule);
+            Set<FSNodeConstant> setChecked  = new HashSet<>();
+            Set<FSNodeConstant> setDeferred = new HashSet<>();
+            for (Iterator<? extends XvmStructure> it = struct.getConstantPool().getContained();
+                    it.hasNext(); )
+                {
+                if (it.next() instanceof FSNodeConstant constNode)
                     {
-                    if (it.next() instanceof FSNodeConstant constNode)
+                    switch (constNode.getFormat())
                         {
-                        switch (constNode.getFormat())
-                            {
-                            case FSDir:
-                                if (!dirUpToDate(dirParent, constNode, ldtModule, setChecked, setDeferred))
-                                    {
-                                    return false;
-                                    }
-                                break;
+                        case FSDir:
+                            if (!dirUpToDate(dirParent, constNode, ldtModule, setChecked, setDeferred))
+                                {
+                                return false;
+                                }
+                            break;
 
-                            case FSFile, FSLink:
-                                if (!fileUpToDate(dirParent, constNode, ldtModule, setChecked, setDeferred))
-                                    {
-                                    return false;
-                                    }
-                                break;
-                            }
+                        case FSFile, FSLink:
+                            if (!fileUpToDate(dirParent, constNode, ldtModule, setChecked, setDeferred))
+                                {
+                                return false;
+                                }
+                            break;
                         }
                     }
-
-                // non-empty deferred set indicates that some resources were removed;
-                // we need to force recompilation to report on that
-                return setDeferred.isEmpty();
                 }
-            catch (Exception ignore) {}
+
+            // non-empty deferred set indicates that some resources were removed;
+            // we need to force recompilation to report on that
+            return setDeferred.isEmpty();
+            }
+        catch (Exception e)
+            {
+            return false;
             }
-        return false;
         }
 
     /**
@@ -2111,7 +2158,7 @@ public abstract class Launcher
      * {@link #findModule(File)}, produce a source tree of the desired processing stage.
      *
      * @param fileModule  a file as returned from {@link #findModule(File)}
-     * @param desired    the desired stage of processing: Parsed, Named, or Linked
+     * @param desired    the desired stage of processing: Init, Parsed, Named, or Linked
      *
      * @return the root {@link Node} of the tree
      */
@@ -2122,6 +2169,21 @@ public abstract class Launcher
         nodeModule.logErrors();
         checkErrors();
 
+        advanceSourceTree(nodeModule, desired);
+        return nodeModule;
+        }
+
+    /**
+     * Bring a source tree produced by {@link #loadSourceTree} at the Init stage to the desired
+     * processing stage.
+     *
+     * @param nodeModule  the root node of the tree
+     * @param desired     the desired stage of processing: Parsed, Named, or Linked
+     */
+    protected void advanceSourceTree(Node nodeModule, Stage desired)
+        {
+        assert nodeModule.stage() == Stage.Init;
+
         if (desired.compareTo(Stage.Parsed) >= 0)
             {
             nodeModule.parse();
@@ -2142,8 +2204,57 @@ public abstract class Launcher
             nodeModule.logErrors();
             checkErrors();
             }
+        }
 
-        return nodeModule;
+    /**
+     * Collect the source files of a module.
+     *
+     * @param nodeModule  the root node of the module's source tree
+     *
+     * @return the nodes of the source files keyed by the file paths relative to the directory that
+     *         contains the module source
+     */
+    protected Map<String, FileNode> collectSourceNodes(Node nodeModule)
+        {
+        Map<String, FileNode> mapNodes = new ListMap<>();
+        collectSourceNodes(nodeModule.file().getAbsoluteFile().getParentFile().toPath(),
+                nodeModule, mapNodes);
+        return mapNodes;
+        }
+
+    /**
+     * Collect the source files under the specified node.
+     *
+     * @param pathRoot  the directory that contains the module source
+     * @param node      the node to collect the source files of
+     * @param mapNodes  the map to collect the source files into
+     */
+    private void collectSourceNodes(Path pathRoot, Node node, Map<String, FileNode> mapNodes)
+        {
+        if (node instanceof DirNode nodeDir)
+            {
+            Node nodeSrc = nodeDir.sourceNode();
+            if (nodeSrc != null)
+                {
+                collectSourceNodes(pathRoot, nodeSrc, mapNodes);
+                }
+
+            for (FileNode nodeClz : nodeDir.classNodes().values())
+                {
+                collectSourceNodes(pathRoot, nodeClz, mapNodes);
+                }
+
+            for (DirNode nodePkg : nodeDir.packageNodes())
+                {
+                collectSourceNodes(pathRoot, nodePkg, mapNodes);
+                }
+            }
+        else if (node.file() != null)
+            {
+            // the synthetic package nodes have no file
+            Path path = pathRoot.relativize(node.file().getAbsoluteFile().toPath());
+            mapNodes.put(path.toString().replace(File.separatorChar, '/'), (FileNode) node);
+            }
         }
 
     /**
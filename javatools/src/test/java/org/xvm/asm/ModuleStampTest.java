@@ -0,0 +1,79 @@
+package org.xvm.asm;
+
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import org.xvm.compiler.BuildRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the module stamps provided by the module repositories.
+ */
+public class ModuleStampTest
+    {
+    @Test
+    public void shouldTrackModuleFiles()
+            throws IOException
+        {
+        Path dir        = Files.createTempDirectory("stamp");
+        File fileModule = writeModule(dir, "test.example.org");
+
+        DirRepository repoDir = new DirRepository(dir.toFile(), true);
+        String        sStamp  = repoDir.getModuleStamp("test.example.org");
+        assertNotNull(sStamp);
+        assertNull(repoDir.getModuleStamp("missing.example.org"));
+
+        FileRepository repoFile = new FileRepository(fileModule, true);
+        assertEquals(sStamp, repoFile.getModuleStamp("test.example.org"));
+
+        // a changed module file produces a different stamp
+        assertTrue(fileModule.setLastModified(fileModule.lastModified() - 10_000));
+        assertNotEquals(sStamp, new DirRepository(dir.toFile(), true).getModuleStamp("test.example.org"));
+        }
+
+    @Test
+    public void shouldKeepStampsOfReadThroughCopies()
+            throws IOException
+        {
+        Path dir = Files.createTempDirectory("stamp");
+        writeModule(dir, "test.example.org");
+
+        DirRepository    repoDir    = new DirRepository(dir.toFile(), true);
+        BuildRepository  repoBuild  = new BuildRepository();
+        LinkedRepository repoLinked = new LinkedRepository(true, repoBuild, repoDir);
+
+        String sStamp = repoDir.getModuleStamp("test.example.org");
+        assertEquals(sStamp, repoLinked.getModuleStamp("test.example.org"));
+
+        // loading the module copies it to the build repository, but keeps the original stamp
+        ModuleStructure module = repoLinked.loadModule("test.example.org");
+        assertNotNull(repoBuild.loadModule("test.example.org"));
+        assertEquals(sStamp, repoLinked.getModuleStamp("test.example.org"));
+
+        // a module stored directly has no stamp
+        repoLinked.storeModule(module);
+        assertNull(repoLinked.getModuleStamp("test.example.org"));
+        }
+
+    private static File writeModule(Path dir, String sModule)
+            throws IOException
+        {
+        File file = dir.resolve(sModule.substring(0, sModule.indexOf('.')) + ".xtc").toFile();
+        new FileStructure(sModule).writeTo(file);
+        file.deleteOnExit();
+        dir.toFile().deleteOnExit();
+        return file;
+        }
+    }
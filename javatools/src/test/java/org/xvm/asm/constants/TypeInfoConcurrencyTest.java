@@ -0,0 +1,414 @@
+package org.xvm.asm.constants;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Component;
+import org.xvm.asm.Component.SimpleCollector;
+import org.xvm.asm.ComponentResolver.ResolutionResult;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.Constants;
+import org.xvm.asm.Constants.Access;
+import org.xvm.asm.DirRepository;
+import org.xvm.asm.ErrorList;
+import org.xvm.asm.FileRepository;
+import org.xvm.asm.FileStructure;
+import org.xvm.asm.LinkedRepository;
+import org.xvm.asm.ModuleRepository;
+import org.xvm.asm.ModuleStructure;
+
+import org.xvm.tool.Compiler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+
+/**
+ * Tests of building the TypeInfos (and compiling the modules) on multiple threads; the results
+ * must be the same as the ones produced by a single thread.
+ * <p/>
+ * The tests need the compiled core libraries, which are looked up in the XDK directory specified
+ * by the "xvm.test.xdk" system property; the tests are skipped if the libraries are not there.
+ */
+public class TypeInfoConcurrencyTest
+    {
+    /**
+     * Build the TypeInfos for all the classes of the core library on many threads, each of which
+     * goes through the classes in a different order, so the threads keep running into each other,
+     * both waiting for the TypeInfos claimed by other threads and running into the cycles of such
+     * waits.
+     */
+    @Test
+    public void testConcurrentTypeInfos()
+            throws Exception
+        {
+        Map<String, String> mapExpected = buildTypeInfos(1);
+        assertFalse(mapExpected.isEmpty());
+
+        for (int iRun = 0; iRun < RUNS; iRun++)
+            {
+            assertEquals(mapExpected, buildTypeInfos(THREADS));
+            }
+        }
+
+    /**
+     * Resolve the names via the contributions of all the classes of the core library on many
+     * threads; the recursion check of the name resolution must not see the other threads.
+     */
+    @Test
+    public void testConcurrentNameResolution()
+            throws Exception
+        {
+        Map<String, String> mapExpected = resolveNames(1);
+        assertFalse(mapExpected.isEmpty());
+
+        for (int iRun = 0; iRun < RUNS; iRun++)
+            {
+            assertEquals(mapExpected, resolveNames(THREADS));
+            }
+        }
+
+    /**
+     * Compile the modules with and without the "-threads" option; apart from the timestamps, the
+     * results must be identical.
+     */
+    @Test
+    public void testCompilerThreads()
+            throws IOException
+        {
+        File dirXdk = getXdk();
+        Path dirSrc = Files.createTempDirectory("threads");
+        Files.writeString(dirSrc.resolve("base.x"), """
+                module base.example.org
+                    {
+                    interface Shape
+                        {
+                        @RO Int area;
+                        }
+
+                    const Rect(Int width, Int height)
+                            implements Shape
+                        {
+                        @Override
+                        Int area.get()
+                            {
+                            return width * height;
+                            }
+                        }
+                    }
+                """);
+        Files.writeString(dirSrc.resolve("left.x"), """
+                module left.example.org
+                    {
+                    package base import base.example.org;
+
+                    import base.Rect;
+
+                    Int[] areas(Rect[] rects)
+                        {
+                        return rects.map(r -> r.area).toArray();
+                        }
+                    }
+                """);
+        Files.writeString(dirSrc.resolve("right.x"), """
+                module right.example.org
+                    {
+                    package base import base.example.org;
+
+                    import base.Shape;
+
+                    class Squares(Int squareCount)
+                            implements Iterable<Shape>
+                        {
+                        @Override
+                        Int size.get()
+                            {
+                            return squareCount;
+                            }
+
+                        @Override
+                        Iterator<Shape> iterator()
+                            {
+                            return new Iterator()
+                                {
+                                Int current = 0;
+
+                                @Override
+                                conditional Shape next()
+                                    {
+                                    if (current < squareCount)
+                                        {
+                                        ++current;
+                                        return True, new base.Rect(current, current);
+                                        }
+                                    return False;
+                                    }
+                                };
+                            }
+                        }
+                    }
+                """);
+
+        String[] asModule = {"base", "left", "right"};
+        byte[][] abSeq    = compile(dirXdk, dirSrc, "1", asModule);
+        byte[][] abPar    = compile(dirXdk, dirSrc, "4", asModule);
+        for (int i = 0, c = asModule.length; i < c; i++)
+            {
+            assertArrayEquals(abSeq[i], abPar[i]);
+            }
+        }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * @return the XDK directory; skip the test if the core libraries are not there
+     */
+    private static File getXdk()
+        {
+        String sXdk = System.getProperty("xvm.test.xdk");
+        File   dir  = sXdk == null ? null : new File(sXdk);
+        assumeTrue(dir != null && new File(dir, LIB_ECSTASY).isFile()
+                               && new File(dir, LIB_TURTLE).isFile(),
+                "the core libraries are not available in \"" + sXdk + '"');
+        return dir;
+        }
+
+    /**
+     * @return a newly loaded and linked FileStructure for the core library
+     */
+    private static FileStructure loadCore()
+            throws IOException
+        {
+        File             dirXdk = getXdk();
+        ModuleRepository repo   = new LinkedRepository(
+                new DirRepository(new File(dirXdk, LIB_ECSTASY).getParentFile(), true),
+                new FileRepository(new File(dirXdk, LIB_TURTLE), true));
+
+        FileStructure file = new FileStructure(repo.loadModule(Constants.ECSTASY_MODULE), true);
+        file.merge(repo.loadModule(Constants.TURTLE_MODULE), true, false);
+
+        ModuleStructure moduleTurtle = (ModuleStructure) file.getChild(Constants.TURTLE_MODULE);
+        file.getConstantPool().setNakedRefType(
+                ((ClassStructure) moduleTurtle.getChild("NakedRef")).getFormalType());
+
+        String sMissing = file.linkModules(repo, true);
+        assertTrue(sMissing == null, sMissing);
+        return file;
+        }
+
+    /**
+     * @return all the classes of the specified component (including the component itself)
+     */
+    private static List<ClassStructure> collectClasses(Component component, List<ClassStructure> list)
+        {
+        if (component instanceof ClassStructure clz)
+            {
+            list.add(clz);
+            }
+        for (Component child : component.children())
+            {
+            collectClasses(child, list);
+            }
+        return list;
+        }
+
+    /**
+     * Build the TypeInfos for the formal and canonical types of all the core library classes.
+     *
+     * @return a map of the type descriptions keyed by the types
+     */
+    private static Map<String, String> buildTypeInfos(int cThreads)
+            throws Exception
+        {
+        FileStructure      file      = loadCore();
+        List<TypeConstant> listTypes = new ArrayList<>();
+        for (ClassStructure clz : collectClasses(file.getChild(Constants.ECSTASY_MODULE), new ArrayList<>()))
+            {
+            listTypes.add(clz.getFormalType());
+            listTypes.add(clz.getCanonicalType());
+            }
+
+        return runConcurrently(file.getConstantPool(), cThreads, listTypes, type ->
+            {
+            ErrorList errs = new ErrorList(10);
+            TypeInfo  info = type.ensureTypeInfo(errs);
+            return errs.hasSeriousErrors()
+                    ? "errors: " + errs.getErrors()
+                    : info.getProgress() + ", properties=" + info.getProperties().size()
+                                         + ", methods="    + info.getMethods().size()
+                                         + ", children="   + info.getChildInfosByName().size();
+            }, TypeConstant::getValueString);
+        }
+
+    /**
+     * Resolve a number of names for all the core library classes.
+     *
+     * @return a map of the resolution results keyed by the class and the name
+     */
+    private static Map<String, String> resolveNames(int cThreads)
+            throws Exception
+        {
+        FileStructure        file      = loadCore();
+        List<ClassStructure> listClass = collectClasses(file.getChild(Constants.ECSTASY_MODULE), new ArrayList<>());
+        List<String[]>       listNames = new ArrayList<>();
+        for (ClassStructure clz : listClass)
+            {
+            for (String sName : NAMES)
+                {
+                listNames.add(new String[] {clz.getIdentityConstant().getValueString(), sName});
+                }
+            }
+
+        Map<String, ClassStructure> mapClass = new TreeMap<>();
+        listClass.forEach(clz -> mapClass.put(clz.getIdentityConstant().getValueString(), clz));
+
+        return runConcurrently(file.getConstantPool(), cThreads, listNames, asName ->
+            {
+            ErrorList        errs      = new ErrorList(10);
+            SimpleCollector  collector = new SimpleCollector(errs);
+            ResolutionResult result    = mapClass.get(asName[0]).resolveName(asName[1], Access.PRIVATE, collector);
+            return result + (result == ResolutionResult.RESOLVED
+                    ? " " + collector.getResolvedConstant().getValueString()
+                    : "") + (errs.getErrors().isEmpty() ? "" : " " + errs.getErrors());
+            }, asName -> asName[0] + ' ' + asName[1]);
+        }
+
+    /**
+     * Apply the specified function to all the items on the specified number of threads, each of
+     * which goes through the items in a different order.
+     *
+     * @return a map of the results keyed by the item keys
+     */
+    private static <T> Map<String, String> runConcurrently(ConstantPool pool, int cThreads, List<T> list,
+                                                           Function<T, String> fn, Function<T, String> fnKey)
+            throws Exception
+        {
+        Map<String, String> mapResult = new ConcurrentHashMap<>();
+        List<Throwable>     listError = Collections.synchronizedList(new ArrayList<>());
+        CyclicBarrier       barrier   = new CyclicBarrier(cThreads);
+        Thread[]            aThread   = new Thread[cThreads];
+        for (int i = 0; i < cThreads; i++)
+            {
+            List<T> listShuffled = new ArrayList<>(list);
+            Collections.shuffle(listShuffled, new Random(i));
+
+            aThread[i] = new Thread(() ->
+                {
+                try (var ignore = ConstantPool.withPool(pool))
+                    {
+                    barrier.await();
+                    for (T item : listShuffled)
+                        {
+                        String sKey    = fnKey.apply(item);
+                        String sResult = fn.apply(item);
+                        String sPrev   = mapResult.putIfAbsent(sKey, sResult);
+                        if (sPrev != null && !sPrev.equals(sResult))
+                            {
+                            throw new IllegalStateException("Different results for " + sKey
+                                    + ": " + sPrev + " and " + sResult);
+                            }
+                        }
+                    }
+                catch (Throwable e)
+                    {
+                    listError.add(e);
+                    }
+                }, "TypeInfoConcurrencyTest-" + i);
+            aThread[i].start();
+            }
+
+        for (Thread thread : aThread)
+            {
+            thread.join();
+            }
+
+        if (!listError.isEmpty())
+            {
+            Exception e = new IllegalStateException(listError.size() + " thread(s) failed");
+            listError.forEach(e::addSuppressed);
+            throw e;
+            }
+        return new TreeMap<>(mapResult);
+        }
+
+    /**
+     * Compile the specified modules.
+     *
+     * @return the compiled modules, with the timestamps removed
+     */
+    private static byte[][] compile(File dirXdk, Path dirSrc, String sThreads, String[] asModule)
+            throws IOException
+        {
+        Path         dirOut  = Files.createTempDirectory("threads");
+        List<String> listArg = new ArrayList<>(List.of(
+                "-threads", sThreads,
+                "-L", new File(dirXdk, LIB_ECSTASY).getPath(),
+                "-L", new File(dirXdk, LIB_TURTLE).getPath(),
+                "-L", dirOut.toString(),
+                "-o", dirOut.toString()));
+        for (String sModule : asModule)
+            {
+            listArg.add(dirSrc.resolve(sModule + ".x").toString());
+            }
+
+        new Compiler(listArg.toArray(new String[0]))
+            {
+            @Override
+            protected void abort(boolean fError)
+                {
+                throw new IllegalStateException("Compilation failed: " + listArg);
+                }
+            }.run();
+
+        byte[][] ab = new byte[asModule.length][];
+        for (int i = 0, c = asModule.length; i < c; i++)
+            {
+            FileStructure file = new FileStructure(dirOut.resolve(asModule[i] + ".xtc").toFile());
+            file.getModule().setTimestamp(null);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            file.writeTo(out);
+            ab[i] = out.toByteArray();
+            }
+        return ab;
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    private static final String LIB_ECSTASY = "lib/ecstasy.xtc";
+    private static final String LIB_TURTLE  = "javatools/javatools_turtle.xtc";
+
+    /**
+     * The names to resolve: type parameters, properties and methods found via the contributions,
+     * and a name that is not found anywhere, so all the contributions are visited.
+     */
+    private static final String[] NAMES = {"Element", "Key", "Value", "size", "toString", "NoSuchName"};
+
+    private static final int THREADS = 16;
+    private static final int RUNS    = 2;
+    }
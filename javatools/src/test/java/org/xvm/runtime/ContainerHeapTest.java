@@ -0,0 +1,144 @@
+package org.xvm.runtime;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link ContainerHeap}.
+ */
+public class ContainerHeapTest
+    {
+    @Test
+    public void testAccounting()
+        {
+        ContainerHeap heap = new ContainerHeap(1 << 20, 1 << 20, EXECUTOR);
+        List<Object>  list = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++)
+            {
+            Object o = new Object();
+            assertTrue(heap.register(o, 3));
+            list.add(o);
+            }
+
+        long cb = heap.getAllocatedBytes();
+        assertTrue(cb >= 10_000 * 4 * 8);
+        assertEquals(cb, heap.getReservedBytes());
+        }
+
+    @Test
+    public void testHardLimit()
+        {
+        ContainerHeap heap      = new ContainerHeap(32 << 10, 64 << 10, EXECUTOR);
+        AtomicInteger cExceeded = new AtomicInteger();
+        List<Object>  list      = new ArrayList<>();
+
+        heap.setLimitListener(cExceeded::incrementAndGet);
+
+        int cAllocated = 0;
+        while (true)
+            {
+            Object o = new Object();
+            if (!heap.register(o, 4))
+                {
+                break;
+                }
+            list.add(o);
+            cAllocated++;
+            }
+
+        assertTrue(cAllocated > 0);
+        assertTrue(heap.getReservedBytes() <= heap.getHardLimit());
+        assertFalse(heap.register(new Object(), 4));
+        assertEquals(1, cExceeded.get());
+
+        // release everything; the heap must recover
+        list.clear();
+        assertTrue(awaitRegister(heap));
+        heap.gc();
+        assertTrue(heap.getAllocatedBytes() < heap.getSoftLimit());
+        }
+
+    @Test
+    public void testGarbage()
+        {
+        ContainerHeap heap = new ContainerHeap(32 << 10, 64 << 10, EXECUTOR);
+
+        // a steady stream of garbage that is many times the hard limit; a failed allocation is
+        // retried once the memory has been reclaimed in the background
+        int cFailed = 0;
+        for (int i = 0; i < 20_000; i++)
+            {
+            if (!heap.register(new Object(), 4))
+                {
+                cFailed++;
+                assertTrue(awaitRegister(heap));
+                }
+            }
+        assertTrue(cFailed < 100, "failed=" + cFailed);
+        assertTrue(heap.getCollectionCount() > 0);
+        }
+
+    @Test
+    public void testFailFast()
+        {
+        // an executor that holds on to the tasks, so nothing is reclaimed until they are run
+        List<Runnable> listTasks = new ArrayList<>();
+        ContainerHeap  heap      = new ContainerHeap(32 << 10, 64 << 10, listTasks::add);
+
+        while (heap.register(new Object(), 4))
+            {
+            }
+
+        // the allocating thread didn't wait; the reclaim has been handed to the executor once
+        assertEquals(1, listTasks.size());
+        assertFalse(heap.register(new Object(), 4));
+        assertEquals(1, listTasks.size());
+
+        // once the reclaim runs, the next allocation sees the result
+        listTasks.remove(0).run();
+        assertTrue(heap.register(new Object(), 4));
+        }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * Keep trying to register an object for up to a few seconds.
+     *
+     * @return true iff the object has been registered
+     */
+    private static boolean awaitRegister(ContainerHeap heap)
+        {
+        for (int i = 0; i < 500; i++)
+            {
+            if (heap.register(new Object(), 4))
+                {
+                return true;
+                }
+            try
+                {
+                Thread.sleep(10);
+                }
+            catch (InterruptedException e)
+                {
+                return false;
+                }
+            }
+        return false;
+        }
+
+    private static final Executor EXECUTOR = ForkJoinPool.commonPool();
+    }
@@ -0,0 +1,167 @@
+package org.xvm.runtime;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link FairShareQueue} and {@link WorkStealingScheduler}.
+ */
+public class FairShareQueueTest
+    {
+    /**
+     * @return a scheduler without any workers, so the queues could be polled deterministically
+     */
+    static WorkStealingScheduler makeIdleScheduler()
+        {
+        return new WorkStealingScheduler(0, Executors.defaultThreadFactory());
+        }
+
+    @Test
+    public void testWeights()
+        {
+        WorkStealingScheduler scheduler = makeIdleScheduler();
+        FairShareQueue        root      = scheduler.getRootQueue();
+        FairShareQueue        queueA    = new FairShareQueue("A", root, scheduler);
+        FairShareQueue        queueB    = new FairShareQueue("B", root, scheduler);
+
+        queueA.setWeight(3);
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 6; i++)
+            {
+            queueA.add(() -> sb.append('A'));
+            }
+        for (int i = 0; i < 6; i++)
+            {
+            queueB.add(() -> sb.append('B'));
+            }
+
+        Runnable task;
+        while ((task = root.poll()) != null)
+            {
+            task.run();
+            }
+
+        assertEquals("AAABAAABBBBB", sb.toString());
+        assertEquals(6, queueA.getExecutedCount());
+        assertEquals(12, root.getExecutedCount());
+        }
+
+    @Test
+    public void testNested()
+        {
+        WorkStealingScheduler scheduler = makeIdleScheduler();
+        FairShareQueue        root      = scheduler.getRootQueue();
+        FairShareQueue        queueMain = new FairShareQueue("main", root, scheduler);
+        FairShareQueue        queueSub1 = new FairShareQueue("sub1", queueMain, scheduler);
+        FairShareQueue        queueSub2 = new FairShareQueue("sub2", queueMain, scheduler);
+
+        // a chatty container must not starve its sibling
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            {
+            queueSub1.add(() -> list.add("sub1"));
+            }
+        queueSub2.add(() -> list.add("sub2"));
+
+        for (int i = 0; i < 2; i++)
+            {
+            root.poll().run();
+            }
+        assertTrue(list.contains("sub2"));
+        }
+
+    @Test
+    public void testQuota()
+        {
+        WorkStealingScheduler scheduler = makeIdleScheduler();
+        FairShareQueue        root      = scheduler.getRootQueue();
+        FairShareQueue        queueA    = new FairShareQueue("A", root, scheduler);
+
+        queueA.setQuota(1);
+
+        AtomicInteger counter = new AtomicInteger();
+        queueA.add(counter::incrementAndGet);
+        queueA.add(counter::incrementAndGet);
+
+        Runnable task1 = root.poll();
+        assertNull(root.poll());
+        assertEquals(1, queueA.getActiveCount());
+
+        task1.run();
+        assertEquals(0, queueA.getActiveCount());
+
+        Runnable task2 = root.poll();
+        task2.run();
+        assertEquals(2, counter.get());
+        assertNull(root.poll());
+        }
+
+    @Test
+    public void testNestedQuota()
+        {
+        WorkStealingScheduler scheduler = makeIdleScheduler();
+        FairShareQueue        root      = scheduler.getRootQueue();
+        FairShareQueue        queueMain = new FairShareQueue("main", root, scheduler);
+        FairShareQueue        queueSub  = new FairShareQueue("sub", queueMain, scheduler);
+
+        queueSub.setQuota(1);
+
+        AtomicInteger counter = new AtomicInteger();
+        queueSub.add(counter::incrementAndGet);
+        queueSub.add(counter::incrementAndGet);
+
+        Runnable task1 = root.poll();
+        assertNull(root.poll());
+
+        // the blocked queue must stay in the hierarchy
+        task1.run();
+        root.poll().run();
+        assertEquals(2, counter.get());
+        assertNull(root.poll());
+        }
+
+    @Test
+    public void testScheduler()
+            throws InterruptedException
+        {
+        WorkStealingScheduler scheduler = new WorkStealingScheduler(4, r ->
+            {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            return thread;
+            });
+
+        FairShareQueue root = scheduler.getRootQueue();
+        FairShareQueue[] aQueue = new FairShareQueue[8];
+        for (int i = 0; i < aQueue.length; i++)
+            {
+            aQueue[i] = new FairShareQueue("q" + i, root, scheduler);
+            aQueue[i].setQuota(2);
+            }
+
+        int            cTasks = 10_000;
+        CountDownLatch latch  = new CountDownLatch(cTasks);
+        for (int i = 0; i < cTasks; i++)
+            {
+            aQueue[i % aQueue.length].add(latch::countDown);
+            }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        scheduler.shutdown();
+        }
+    }
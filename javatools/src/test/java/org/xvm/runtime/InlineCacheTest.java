@@ -0,0 +1,117 @@
+package org.xvm.runtime;
+
+
+import java.lang.reflect.Proxy;
+
+import org.xvm.asm.constants.MethodBody;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link InlineCache}.
+ */
+public class InlineCacheTest
+    {
+    /**
+     * @return a stand-in composition; the cache only compares the compositions by identity
+     */
+    static TypeComposition makeComposition(String sName)
+        {
+        return (TypeComposition) Proxy.newProxyInstance(TypeComposition.class.getClassLoader(),
+                new Class<?>[] {TypeComposition.class},
+                (proxy, method, aArg) -> switch (method.getName())
+                    {
+                    case "toString" -> sName;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals"   -> proxy == aArg[0];
+                    default         -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+    @Test
+    public void testTransitions()
+        {
+        InlineCache cache = new InlineCache("site", true);
+        assertEquals("uninitialized", cache.getState());
+        assertEquals(0, cache.size());
+
+        int               cClz   = InlineCache.MAX_ENTRIES + 2;
+        TypeComposition[] aClz   = new TypeComposition[cClz];
+        CallChain[]       aChain = new CallChain[cClz];
+        for (int i = 0; i < cClz; i++)
+            {
+            aClz[i]   = makeComposition("C" + i);
+            aChain[i] = new CallChain((MethodBody[]) null);
+            }
+
+        cache.put(aClz[0], aChain[0]);
+        assertEquals("monomorphic", cache.getState());
+        assertSame(aChain[0], cache.get(aClz[0]));
+
+        // re-putting the same composition replaces the entry rather than adding one
+        cache.put(aClz[0], aChain[0]);
+        assertEquals(1, cache.size());
+
+        for (int i = 1; i < InlineCache.MAX_ENTRIES; i++)
+            {
+            cache.put(aClz[i], aChain[i]);
+            assertEquals("polymorphic(" + (i + 1) + ')', cache.getState());
+            }
+        for (int i = 0; i < InlineCache.MAX_ENTRIES; i++)
+            {
+            assertSame(aChain[i], cache.get(aClz[i]));
+            }
+        assertFalse(cache.isMegamorphic());
+
+        TypeComposition clzMega = aClz[InlineCache.MAX_ENTRIES];
+        cache.put(clzMega, aChain[InlineCache.MAX_ENTRIES]);
+        assertTrue(cache.isMegamorphic());
+        assertEquals("megamorphic", cache.getState());
+        assertEquals(1, cache.size());
+
+        // the megamorphic cache still serves the last seen composition
+        assertSame(aChain[InlineCache.MAX_ENTRIES], cache.get(clzMega));
+        assertNull(cache.get(aClz[0]));
+
+        TypeComposition clzLast = aClz[cClz - 1];
+        cache.put(clzLast, aChain[cClz - 1]);
+        assertTrue(cache.isMegamorphic());
+        assertEquals(1, cache.size());
+        assertSame(aChain[cClz - 1], cache.get(clzLast));
+        assertNull(cache.get(clzMega));
+        }
+
+    @Test
+    public void testCounters()
+        {
+        InlineCache     cache = new InlineCache("site", true);
+        TypeComposition clzA  = makeComposition("A");
+        TypeComposition clzB  = makeComposition("B");
+        CallChain       chain = new CallChain((MethodBody[]) null);
+
+        assertNull(cache.get(clzA));
+        cache.put(clzA, chain);
+        assertSame(chain, cache.get(clzA));
+        assertSame(chain, cache.get(clzA));
+        assertNull(cache.get(clzB));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertTrue(cache.toString().startsWith("monomorphic, hits=2/4 (50.0%): site"),
+                cache.toString());
+
+        InlineCache cacheQuiet = new InlineCache("site", false);
+        cacheQuiet.put(clzA, chain);
+        assertSame(chain, cacheQuiet.get(clzA));
+        assertNull(cacheQuiet.get(clzB));
+        assertEquals(0, cacheQuiet.getHitCount());
+        assertEquals(0, cacheQuiet.getMissCount());
+        }
+    }
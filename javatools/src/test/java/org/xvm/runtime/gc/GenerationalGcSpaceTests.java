@@ -0,0 +1,236 @@
+package org.xvm.runtime.gc;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the {@link GenerationalGcSpace}; in addition to its own tests, it runs all the {@link MarkAndSweepGcSpace}
+ * tests against the generational space.
+ */
+public class GenerationalGcSpaceTests
+        extends MarkAndSweepGcSpaceTests
+    {
+    @Override
+    GcSpace makeSpace(LongConsumer cleared, long capacity)
+        {
+        return new GenerationalGcSpace<>(LongArrayObjectManager.INSTANCE, cleared, capacity, capacity);
+        }
+
+    GenerationalGcSpace<long[]> makeGenerationalSpace(LongConsumer cleared)
+        {
+        return makeGenerationalSpace(cleared, 64 * 1024);
+        }
+
+    GenerationalGcSpace<long[]> makeGenerationalSpace(LongConsumer cleared, long cbNursery)
+        {
+        return new GenerationalGcSpace<>(LongArrayObjectManager.INSTANCE, cleared,
+                Long.MAX_VALUE, Long.MAX_VALUE, cbNursery, 100_000);
+        }
+
+    @Test
+    public void shouldCollectYoungGarbageInMinorGc()
+        {
+        GenerationalGcSpace<long[]> space = makeGenerationalSpace(l -> {});
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+
+        long p1 = space.allocate(1);
+        long p2 = space.allocate(1);
+        root.retained.add(p1);
+        space.setField(p1, 0, p2);
+
+        long pGarbage = space.allocate(4);
+        space.gcMinor();
+
+        assertTrue(space.isValid(p1));
+        assertTrue(space.isValid(p2));
+        assertFalse(space.isValid(pGarbage));
+        assertEquals(1, space.getMinorPauses().getCount());
+        assertEquals(0, space.getFullPauses().getCount());
+        }
+
+    @Test
+    public void shouldKeepYoungObjectsReachableFromOldOnes()
+        {
+        GenerationalGcSpace<long[]> space = makeGenerationalSpace(l -> {});
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+
+        long pOld = space.allocate(2);
+        root.retained.add(pOld);
+        for (int i = 0; i < GenerationalGcSpace.TENURE_AGE; ++i)
+            {
+            space.gcMinor();
+            }
+        long cbOld = space.getByteCount() - space.getYoungByteCount();
+        assertEquals(space.getByteCount(), cbOld);
+
+        // the only reference to the young object is from the old one; the card must keep it alive
+        long pYoung = space.allocate(1);
+        space.setField(pOld, 1, pYoung);
+        space.gcMinor();
+        space.gcMinor();
+        assertTrue(space.isValid(pYoung));
+
+        // now both are old; drop the reference and verify that a full gc collects the promoted object
+        space.setField(pOld, 1, GcSpace.NULL);
+        space.gcMinor();
+        assertTrue(space.isValid(pYoung));
+        space.gc();
+        assertFalse(space.isValid(pYoung));
+        assertEquals(cbOld, space.getByteCount());
+        }
+
+    @Test
+    public void shouldMarkIncrementally()
+        {
+        // a nursery large enough to avoid any collections while the list is built
+        GenerationalGcSpace<long[]> space = makeGenerationalSpace(l -> {}, 64 * 1024 * 1024);
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+
+        // build a long list and promote it
+        long pHead = space.allocate(1);
+        root.retained.add(pHead);
+        long pLast = pHead;
+        List<Long> listNodes = new ArrayList<>();
+        for (int i = 0; i < 100_000; ++i)
+            {
+            long p = space.allocate(1);
+            space.setField(pLast, 0, p);
+            listNodes.add(p);
+            pLast = p;
+            }
+        for (int i = 0; i < GenerationalGcSpace.TENURE_AGE; ++i)
+            {
+            space.gcMinor();
+            }
+
+        // detach the second half of the list and hold it from a separate root
+        long pMiddle = listNodes.get(listNodes.size() / 2);
+        long pTail = space.getField(pMiddle, 0);
+        space.setField(pMiddle, 0, GcSpace.NULL);
+        long pDetached = space.allocate(1);
+        root.retained.add(pDetached);
+        space.setField(pDetached, 0, pTail);
+
+        assertFalse(space.isCollecting());
+        int cSteps = 0;
+        while (!space.collect(1, true))
+            {
+            if (cSteps++ == 0)
+                {
+                // move the tail back to the list, which may have already been traced; only the barrier on the
+                // overwritten reference could keep the tail alive
+                space.setField(pMiddle, 0, pTail);
+                space.setField(pDetached, 0, GcSpace.NULL);
+                root.retained.remove(pDetached);
+                }
+            }
+        assertTrue(cSteps > 1);
+        assertEquals(1, space.getCycleCount());
+        assertTrue(space.getIncrementalPauses().getCount() > 1);
+
+        for (long p : listNodes)
+            {
+            assertTrue(space.isValid(p));
+            }
+        }
+
+    @Test
+    public void shouldResurrectWeakReferentWhileMarking()
+        {
+        List<Long> cleared = new ArrayList<>();
+        GenerationalGcSpace<long[]> space = makeGenerationalSpace(cleared::add);
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+
+        long pHolder = space.allocate(1);
+        long pWeak = space.allocateWeak(2);
+        long pReferent = space.allocate(0);
+        space.setField(pWeak, 0, pReferent);
+        space.setField(pWeak, 1, space.allocate(0));
+        space.setField(pHolder, 0, pReferent);
+        root.retained.add(pHolder);
+        root.retained.add(pWeak);
+        space.gc();
+        assertTrue(cleared.isEmpty());
+
+        // make the referent only weakly reachable, then get it while marking and store it strongly again
+        space.setField(pHolder, 0, GcSpace.NULL);
+        assertFalse(space.collect(0, true));
+        space.setField(pHolder, 0, space.getField(pWeak, 0));
+        while (!space.collect(Long.MAX_VALUE))
+            {
+            }
+
+        assertTrue(space.isValid(pReferent));
+        assertEquals(pReferent, space.getField(pWeak, 0));
+        assertTrue(cleared.isEmpty());
+
+        // drop it again
+        space.setField(pHolder, 0, GcSpace.NULL);
+        space.gc();
+        assertFalse(space.isValid(pReferent));
+        assertEquals(GcSpace.NULL, space.getField(pWeak, 0));
+        assertEquals(List.of(pWeak), cleared);
+        }
+
+    @Test
+    public void shouldRecordPauses()
+        {
+        GenerationalGcSpace<long[]> space = makeGenerationalSpace(l -> {});
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+
+        long pLast = space.allocate(1);
+        root.retained.add(pLast);
+        for (int i = 0; i < 200_000; ++i)
+            {
+            long p = space.allocate(1);
+            if (i % 4 == 0)
+                {
+                space.setField(pLast, 0, p);
+                pLast = p;
+                }
+            }
+
+        PauseHistogram hist = space.getMinorPauses();
+        assertTrue(hist.getCount() > 10);
+        assertTrue(space.getCycleCount() > 0);
+        assertTrue(hist.getPercentileNanos(50) <= hist.getPercentileNanos(99));
+        assertTrue(hist.getPercentileNanos(99) <= hist.getMaxNanos());
+        assertTrue(hist.getTotalNanos() >= hist.getMaxNanos());
+        assertEquals(0, space.getFullPauses().getCount());
+        }
+
+    @Test
+    public void shouldComputePercentiles()
+        {
+        PauseHistogram hist = new PauseHistogram();
+        assertEquals(0, hist.getPercentileNanos(99));
+
+        for (int i = 1; i <= 100; ++i)
+            {
+            hist.record(i * 1000L);
+            }
+        assertEquals(100, hist.getCount());
+        assertEquals(100_000, hist.getMaxNanos());
+        assertEquals(5050 * 1000L, hist.getTotalNanos());
+
+        long p50 = hist.getPercentileNanos(50);
+        assertTrue(p50 >= 50_000 && p50 <= 100_000, "p50=" + p50);
+        assertEquals(100_000, hist.getPercentileNanos(100));
+
+        hist.reset();
+        assertEquals(0, hist.getCount());
+        }
+    }
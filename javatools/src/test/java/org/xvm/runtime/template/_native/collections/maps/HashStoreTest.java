@@ -0,0 +1,168 @@
+package org.xvm.runtime.template._native.collections.maps;
+
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link HashStore}.
+ */
+public class HashStoreTest
+    {
+    @Test
+    public void testBasic()
+        {
+        HashStore store = new HashStore(0);
+        for (int i = 0; i < 1000; i++)
+            {
+            assertTrue(store.put(key(i), key(-i)));
+            }
+        assertEquals(1000, store.size());
+        assertFalse(store.put(key(7), key(70)));
+        assertFalse(store.putIfAbsent(key(7), key(700)));
+        assertEquals(key(70), store.get(key(7)));
+        assertNull(store.get(key(1000)));
+
+        for (int i = 0; i < 1000; i += 2)
+            {
+            assertTrue(store.remove(key(i)));
+            }
+        assertFalse(store.remove(key(0)));
+        assertEquals(500, store.size());
+        assertTrue(store.contains(key(1)));
+        assertFalse(store.contains(key(2)));
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(-1, store.next(-1, -1));
+        }
+
+    @Test
+    public void testCollisions()
+        {
+        // keys with the same Java hash code exercise the probing and the removal shifts
+        Map<Long, Long> mapRef = new LinkedHashMap<>();
+        HashStore       store  = new HashStore(0);
+        Random          rnd    = new Random(42);
+        for (int i = 0; i < 100_000; i++)
+            {
+            long lKey = ((long) rnd.nextInt(64) << 32) | rnd.nextInt(64);
+            if (rnd.nextInt(3) == 0)
+                {
+                assertEquals(mapRef.remove(lKey) != null, store.remove(key(lKey)));
+                }
+            else
+                {
+                boolean fNew = !mapRef.containsKey(lKey);
+                mapRef.put(lKey, (long) i);
+                assertEquals(fNew, store.put(key(lKey), key(i)));
+                }
+            }
+        assertContents(mapRef, store);
+        }
+
+    @Test
+    public void testIterationOrder()
+        {
+        Map<Long, Long> mapRef = new LinkedHashMap<>();
+        HashStore       store  = new HashStore(0);
+        for (long l = 0; l < 100; l++)
+            {
+            mapRef.put(l, l);
+            store.put(key(l), key(l));
+            }
+
+        // remove most of the entries and add some new ones, which forces the entries to move
+        for (long l = 0; l < 100; l++)
+            {
+            if (l % 10 != 0)
+                {
+                mapRef.remove(l);
+                store.remove(key(l));
+                }
+            }
+        for (long l = 100; l < 120; l++)
+            {
+            mapRef.put(l, l);
+            store.put(key(l), key(l));
+            }
+        assertContents(mapRef, store);
+        }
+
+    @Test
+    public void testStableIterator()
+        {
+        HashStore store = new HashStore(0);
+        for (long l = 0; l < 1000; l++)
+            {
+            store.put(key(l), key(l));
+            }
+
+        // iterate while removing the returned and the following entries; the removals shrink and
+        // rehash the store, but the iterator must neither skip nor repeat the remaining entries
+        List<Long> listSeen = new ArrayList<>();
+        int        iPos     = -1;
+        long       lSeq     = -1;
+        while ((iPos = store.next(iPos, lSeq)) >= 0)
+            {
+            lSeq = store.getSequence(iPos);
+
+            long lKey = ((JavaLong) store.getKey(iPos)).getValue();
+            listSeen.add(lKey);
+            assertSame(store.get(key(lKey)), store.getValue(iPos, lSeq, key(lKey)));
+
+            store.remove(key(lKey));
+            store.remove(key(lKey + 1));
+            if (lKey == 500)
+                {
+                store.put(key(5000), key(5000));
+                }
+            }
+
+        assertEquals(501, listSeen.size());
+        for (int i = 0; i < 500; i++)
+            {
+            assertEquals(i * 2L, listSeen.get(i).longValue());
+            }
+        assertEquals(5000L, listSeen.get(500).longValue());
+        assertEquals(0, store.size());
+        }
+
+    private static void assertContents(Map<Long, Long> mapRef, HashStore store)
+        {
+        assertEquals(mapRef.size(), store.size());
+
+        int  iPos = -1;
+        long lSeq = -1;
+        for (Map.Entry<Long, Long> entry : mapRef.entrySet())
+            {
+            iPos = store.next(iPos, lSeq);
+            assertTrue(iPos >= 0);
+            lSeq = store.getSequence(iPos);
+
+            assertEquals(key(entry.getKey()), store.getKey(iPos));
+            assertEquals(key(entry.getValue()), store.get(key(entry.getKey())));
+            }
+        assertEquals(-1, store.next(iPos, lSeq));
+        }
+
+    private static ObjectHandle key(long l)
+        {
+        return new JavaLong(null, l);
+        }
+    }
@@ -0,0 +1,95 @@
+package org.xvm.runtime.template._native.net;
+
+
+import java.io.IOException;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.xvm.runtime.template._native.net.SocketSelector.Registration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link SocketSelector} using loopback socket channels.
+ */
+public class SocketSelectorTest
+    {
+    @Test
+    public void shouldSignalAcceptAndRead()
+            throws Exception
+        {
+        SocketSelector selector = SocketSelector.getInstance();
+
+        try (ServerSocketChannel channelServer = listen();
+             SocketChannel       channelClient = SocketChannel.open(channelServer.getLocalAddress()))
+            {
+            Registration regServer = new Registration(channelServer);
+
+            CompletableFuture<Void> cfAccept = selector.await(regServer, SelectionKey.OP_ACCEPT);
+            cfAccept.get(10, TimeUnit.SECONDS);
+
+            SocketChannel channel = channelServer.accept();
+            channel.configureBlocking(false);
+
+            Registration regSocket = new Registration(channel);
+            ByteBuffer   buffer    = ByteBuffer.allocate(16);
+            assertEquals(0, channel.read(buffer));
+
+            CompletableFuture<Void> cfRead = selector.await(regSocket, SelectionKey.OP_READ);
+            assertFalse(cfRead.isDone());
+
+            channelClient.write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+            cfRead.get(10, TimeUnit.SECONDS);
+
+            assertEquals(3, channel.read(buffer));
+            selector.close(regSocket);
+            }
+        }
+
+    @Test
+    public void shouldFailPendingOperationsOnClose()
+            throws Exception
+        {
+        SocketSelector selector = SocketSelector.getInstance();
+
+        try (ServerSocketChannel channelServer = listen())
+            {
+            Registration regServer = new Registration(channelServer);
+
+            CompletableFuture<Void> cfAccept = selector.await(regServer, SelectionKey.OP_ACCEPT);
+            selector.close(regServer);
+
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> cfAccept.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof AsynchronousCloseException);
+            assertFalse(channelServer.isOpen());
+            }
+        }
+
+    private static ServerSocketChannel listen()
+            throws IOException
+        {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        channel.configureBlocking(false);
+        return channel;
+        }
+    }
@@ -0,0 +1,338 @@
+package org.xvm.runtime.template._native.web;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link NioHttpServer} using a raw socket client.
+ */
+public class NioHttpServerTest
+    {
+    @Test
+    public void shouldKeepConnectionAlive()
+            throws IOException
+        {
+        NioHttpServer server = start(request -> send(request, 200, request.getMethod() + " " + request.getUri()));
+
+        try (Socket socket = connect(server))
+            {
+            for (int i = 0; i < 3; i++)
+                {
+                write(socket, "GET /path/" + i + " HTTP/1.1\r\nHost: test\r\n\r\n");
+                assertEquals("GET /path/" + i, readResponse(socket, 200));
+                }
+            }
+        finally
+            {
+            server.stop();
+            }
+        }
+
+    @Test
+    public void shouldRespondToPipelinedRequestsInOrder()
+            throws IOException
+        {
+        // hold the responses and send them in reverse order
+        List<ServerRequest> listRequests = new ArrayList<>();
+        NioHttpServer server = start(request ->
+            {
+            synchronized (listRequests)
+                {
+                listRequests.add(request);
+                if (listRequests.size() == 3)
+                    {
+                    for (int i = 2; i >= 0; i--)
+                        {
+                        ServerRequest r = listRequests.get(i);
+                        send(r, 200, r.getUri());
+                        }
+                    }
+                }
+            });
+
+        try (Socket socket = connect(server))
+            {
+            write(socket, "GET /a HTTP/1.1\r\n\r\nGET /b HTTP/1.1\r\n\r\nGET /c HTTP/1.1\r\n\r\n");
+            assertEquals("/a", readResponse(socket, 200));
+            assertEquals("/b", readResponse(socket, 200));
+            assertEquals("/c", readResponse(socket, 200));
+            }
+        finally
+            {
+            server.stop();
+            }
+        }
+
+    @Test
+    public void shouldReadBodies()
+            throws IOException
+        {
+        NioHttpServer server = start(request ->
+            request.getBody().thenAccept(ab ->
+                send(request, 200, request.getHeaderValues("content-type").get(0) + ":"
+                        + new String(ab, StandardCharsets.UTF_8))));
+
+        try (Socket socket = connect(server))
+            {
+            write(socket, "POST / HTTP/1.1\r\nContent-Type: text/plain\r\nContent-Length: 5\r\n\r\nhello");
+            assertEquals("text/plain:hello", readResponse(socket, 200));
+
+            write(socket, "POST / HTTP/1.1\r\nContent-Type: text/plain\r\nTransfer-Encoding: chunked\r\n\r\n"
+                    + "3\r\nabc\r\n4;ext=1\r\ndefg\r\n0\r\nX-Trailer: 1\r\n\r\n");
+            assertEquals("text/plain:abcdefg", readResponse(socket, 200));
+            }
+        finally
+            {
+            server.stop();
+            }
+        }
+
+    @Test
+    public void shouldStreamRequestBody()
+            throws IOException
+        {
+        // a body above the streaming threshold; the handler reads it in small chunks
+        int  cbBody = 1024 * 1024;
+        long lSum   = 0;
+        for (int i = 0; i < cbBody; i++)
+            {
+            lSum += (byte) i;
+            }
+
+        NioHttpServer server = start(request -> readChunks(request, 0, 0));
+        try (Socket socket = connect(server))
+            {
+            byte[] ab = new byte[cbBody];
+            for (int i = 0; i < cbBody; i++)
+                {
+                ab[i] = (byte) i;
+                }
+            write(socket, "PUT /upload HTTP/1.1\r\nContent-Length: " + cbBody + "\r\n\r\n");
+            socket.getOutputStream().write(ab);
+
+            assertEquals(cbBody + ":" + lSum, readResponse(socket, 200));
+
+            // the connection is still usable
+            write(socket, "PUT /upload HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n2\r\n\1\2\r\n0\r\n\r\n");
+            assertEquals("2:3", readResponse(socket, 200));
+            }
+        finally
+            {
+            server.stop();
+            }
+        }
+
+    @Test
+    public void shouldStreamResponseBody()
+            throws IOException
+        {
+        NioHttpServer server = start(request ->
+            {
+            try
+                {
+                boolean fKnown = request.getUri().equals("/known");
+                request.sendHeaders(200, new String[0], new String[0], fKnown ? 6 : -1);
+                request.writeBodyChunk("abc".getBytes(StandardCharsets.UTF_8))
+                       .thenCompose(v -> request.writeBodyChunk("def".getBytes(StandardCharsets.UTF_8)))
+                       .thenCompose(v -> request.writeBodyChunk(new byte[0]));
+                }
+            catch (IOException e)
+                {
+                request.sendError(500);
+                }
+            });
+
+        try (Socket socket = connect(server))
+            {
+            write(socket, "GET /chunked HTTP/1.1\r\n\r\n");
+            assertEquals("abcdef", readResponse(socket, 200));
+
+            write(socket, "GET /known HTTP/1.1\r\n\r\n");
+            assertEquals("abcdef", readResponse(socket, 200));
+            }
+        finally
+            {
+            server.stop();
+            }
+        }
+
+    @Test
+    public void shouldRejectBadRequest()
+            throws IOException
+        {
+        NioHttpServer server = start(request -> send(request, 200, "unexpected"));
+
+        try (Socket socket = connect(server))
+            {
+            write(socket, "NOT A REQUEST\r\n\r\n");
+            assertEquals("", readResponse(socket, 400));
+            }
+        finally
+            {
+            server.stop();
+            }
+        }
+
+    @Test
+    public void shouldCloseWhenAsked()
+            throws IOException
+        {
+        NioHttpServer server = start(request -> send(request, 200, "bye"));
+
+        try (Socket socket = connect(server))
+            {
+            write(socket, "GET / HTTP/1.1\r\nConnection: close\r\n\r\n");
+            assertEquals("bye", readResponse(socket, 200));
+            assertEquals(-1, socket.getInputStream().read());
+            }
+        finally
+            {
+            server.stop();
+            }
+        }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    private static NioHttpServer start(Consumer<ServerRequest> handler)
+            throws IOException
+        {
+        NioHttpServer server = new NioHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start(handler);
+        return server;
+        }
+
+    private static Socket connect(NioHttpServer server)
+            throws IOException
+        {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getAddress().getPort());
+        socket.setSoTimeout(10_000);
+        return socket;
+        }
+
+    private static void send(ServerRequest request, int nStatus, String sBody)
+        {
+        try
+            {
+            request.send(nStatus, new String[] {"Content-Type"}, new String[] {"text/plain"},
+                    sBody.getBytes(StandardCharsets.UTF_8));
+            }
+        catch (IOException e)
+            {
+            throw new RuntimeException(e);
+            }
+        }
+
+    /**
+     * Read the request body chunk by chunk and respond with its size and the sum of its bytes.
+     */
+    private static void readChunks(ServerRequest request, long cb, long lSum)
+        {
+        request.readBodyChunk(4096).thenAccept(ab ->
+            {
+            if (ab == null)
+                {
+                send(request, 200, cb + ":" + lSum);
+                }
+            else
+                {
+                long lSumNew = lSum;
+                for (byte b : ab)
+                    {
+                    lSumNew += b;
+                    }
+                readChunks(request, cb + ab.length, lSumNew);
+                }
+            });
+        }
+
+    private static void write(Socket socket, String s)
+            throws IOException
+        {
+        OutputStream out = socket.getOutputStream();
+        out.write(s.getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+        }
+
+    /**
+     * Read a single response with a Content-Length or a chunked body, verify the status and return
+     * the body.
+     */
+    private static String readResponse(Socket socket, int nStatus)
+            throws IOException
+        {
+        InputStream in     = socket.getInputStream();
+        String      sLine  = readLine(in);
+        assertTrue(sLine.startsWith("HTTP/1.1 " + nStatus + " "), sLine);
+
+        int     cbBody   = -1;
+        boolean fChunked = false;
+        while (!(sLine = readLine(in)).isEmpty())
+            {
+            int    of    = sLine.indexOf(':');
+            String sName = sLine.substring(0, of);
+            if (sName.equalsIgnoreCase("Content-Length"))
+                {
+                cbBody = Integer.parseInt(sLine.substring(of + 1).trim());
+                }
+            else if (sName.equalsIgnoreCase("Transfer-Encoding"))
+                {
+                fChunked = true;
+                }
+            }
+
+        if (fChunked)
+            {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int cbChunk;
+            while ((cbChunk = Integer.parseInt(readLine(in), 16)) > 0)
+                {
+                out.write(in.readNBytes(cbChunk));
+                assertEquals("", readLine(in));
+                }
+            assertEquals("", readLine(in));
+            return out.toString(StandardCharsets.UTF_8);
+            }
+        assertTrue(cbBody >= 0, "no Content-Length");
+
+        byte[] ab = in.readNBytes(cbBody);
+        assertEquals(cbBody, ab.length);
+        return new String(ab, StandardCharsets.UTF_8);
+        }
+
+    private static String readLine(InputStream in)
+            throws IOException
+        {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n')
+            {
+            assertTrue(b >= 0, "unexpected end of stream");
+            if (b != '\r')
+                {
+                out.write(b);
+                }
+            }
+        return out.toString(StandardCharsets.ISO_8859_1);
+        }
+    }
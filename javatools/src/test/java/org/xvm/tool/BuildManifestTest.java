@@ -0,0 +1,92 @@
+package org.xvm.tool;
+
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the BuildManifest.
+ */
+public class BuildManifestTest
+    {
+    @Test
+    public void shouldRoundTrip()
+            throws IOException
+        {
+        Path dir  = Files.createTempDirectory("manifest");
+        File file = writeSource(dir, "Test.x", "module Test {}");
+
+        BuildManifest manifest = new BuildManifest("Test.example.org");
+        manifest.addSource("Test.x", file, "Test.example.org");
+        manifest.addDependency("ecstasy.xtclang.org", "ecstasy.xtc@1:2");
+        manifest.addDependency("untracked.example.org", null);
+
+        File fileManifest = BuildManifest.getManifestFile(dir.toFile(), file);
+        fileManifest.deleteOnExit();
+        assertEquals(".Test.deps", fileManifest.getName());
+        manifest.store(fileManifest);
+
+        BuildManifest manifestLoaded = BuildManifest.load(fileManifest);
+        assertNotNull(manifestLoaded);
+        assertEquals("Test.example.org", manifestLoaded.getModuleName());
+        assertEquals("Test.example.org", manifestLoaded.getDeclaredType("Test.x"));
+        assertEquals(Map.of("ecstasy.xtclang.org", "ecstasy.xtc@1:2", "untracked.example.org", ""),
+                manifestLoaded.getDependencies());
+        assertTrue(manifestLoaded.findChangedSources(Map.of("Test.x", file)).isEmpty());
+
+        // not a manifest
+        assertNull(BuildManifest.load(file));
+        }
+
+    @Test
+    public void shouldDetectChangedSources()
+            throws IOException
+        {
+        Path dir   = Files.createTempDirectory("manifest");
+        File fileA = writeSource(dir, "A.x", "class A {}");
+        File fileB = writeSource(dir, "B.x", "class B {}");
+        File fileC = writeSource(dir, "C.x", "class C {}");
+
+        BuildManifest manifest = new BuildManifest("Test.example.org");
+        manifest.addSource("A.x", fileA, "A");
+        manifest.addSource("B.x", fileB, "B");
+
+        // touching a file does not change it
+        assertTrue(fileA.setLastModified(fileA.lastModified() - 10_000));
+        assertTrue(manifest.findChangedSources(Map.of("A.x", fileA, "B.x", fileB)).isEmpty());
+
+        // a changed content of the same size does
+        long ldtB = fileB.lastModified();
+        Files.writeString(fileB.toPath(), "class X {}");
+        assertTrue(fileB.setLastModified(ldtB + 10_000));
+        assertEquals(List.of("B.x"),
+                manifest.findChangedSources(Map.of("A.x", fileA, "B.x", fileB)));
+
+        // and so do the added and removed files
+        assertEquals(List.of("C.x", "B.x"),
+                manifest.findChangedSources(Map.of("A.x", fileA, "C.x", fileC)));
+        }
+
+    private static File writeSource(Path dir, String sName, String sCode)
+            throws IOException
+        {
+        File file = Files.writeString(dir.resolve(sName), sCode).toFile();
+        file.deleteOnExit();
+        dir.toFile().deleteOnExit();
+        return file;
+        }
+    }
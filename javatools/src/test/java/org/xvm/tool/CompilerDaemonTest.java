@@ -0,0 +1,46 @@
+package org.xvm.tool;
+
+
+import java.io.File;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+
+/**
+ * Tests of the CompilerDaemon.
+ */
+public class CompilerDaemonTest
+    {
+    @Test
+    public void shouldAbsolutizeArgs()
+        {
+        String sCwd  = new File(".").getAbsoluteFile().getParent();
+        String sLibs = "lib" + File.pathSeparator + "/xdk/lib";
+
+        List<String> listArgs = CompilerDaemon.absolutizeArgs(new String[]
+                {"-verbose", "-L", sLibs, "-version=0.4.3", "-o=build", "src/App.x"});
+        assertEquals(List.of("-verbose",
+                             "-L", new File(sCwd, "lib").getPath() + File.pathSeparator
+                                    + new File("/xdk/lib").getAbsolutePath(),
+                             "-version", "0.4.3",
+                             "-o", new File(sCwd, "build").getPath(),
+                             new File(sCwd, "src/App.x").getPath()), listArgs);
+
+        // the output location defaults to the current directory
+        assertEquals(List.of("-o", sCwd, new File(sCwd, "App.x").getPath()),
+                CompilerDaemon.absolutizeArgs(new String[] {"App.x"}));
+        }
+
+    @Test
+    public void shouldCompileLocally()
+        {
+        // no module to compile, or the wildcards that are expanded in the current directory
+        assertNull(CompilerDaemon.absolutizeArgs(new String[] {"-L", "lib"}));
+        assertNull(CompilerDaemon.absolutizeArgs(new String[] {"src/*.x"}));
+        }
+    }
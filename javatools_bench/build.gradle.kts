@@ -0,0 +1,83 @@
+/*
+ * Build file for the JMH benchmarks of the Java interpreter hot paths.
+ *
+ * This project is only built on request:
+ *
+ *     gradle :javatools_bench:jmh
+ *
+ * A subset of the benchmarks could be selected using a regular expression, e.g.:
+ *
+ *     gradle :javatools_bench:jmh -Pbench=serviceRoundTrip
+ *
+ * A JMH profiler could be added as well, e.g. to measure the allocation rate:
+ *
+ *     gradle :javatools_bench:jmh -Pbench=HandleCache -Pprof=gc
+ *
+ * The results are written in the JSON format to "build/results/jmh/results-<commit>.json", so
+ * they could be tracked per commit.
+ */
+
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.1"
+}
+
+val xdk          = project(":xdk")
+val javatools    = project(":javatools")
+val javatoolsJar = "${javatools.buildDir}/libs/javatools.jar"
+val xdkDir       = "${xdk.buildDir}/xdk"
+val benchLib     = "$buildDir/xtc"
+
+dependencies {
+    jmh("org.xtclang.xvm:javatools:")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+val commit = providers.exec {
+    commandLine("git", "rev-parse", "--short", "HEAD")
+    isIgnoreExitValue = true
+}.standardOutput.asText.map { it.trim().ifEmpty { "unknown" } }
+
+val compileBench = tasks.register<JavaExec>("compileBench") {
+    group       = "Build"
+    description = "Compile the Ecstasy modules used by the benchmarks"
+
+    dependsOn(xdk.tasks["build"])
+
+    jvmArgs("-Xms1024m", "-Xmx1024m", "-ea")
+
+    classpath(javatoolsJar)
+    args("-o", benchLib,
+         "-L", "$xdkDir/lib",
+         "-L", "$xdkDir/javatools/javatools_turtle.xtc",
+         "-L", "$xdkDir/javatools/javatools_bridge.xtc",
+         "src/main/x/Bench.x")
+    mainClass.set("org.xvm.tool.Compiler")
+}
+
+jmh {
+    if (project.hasProperty("bench")) {
+        includes.set(listOf(project.property("bench").toString()))
+    }
+
+    if (project.hasProperty("prof")) {
+        profilers.set(listOf(project.property("prof").toString()))
+    }
+
+    jvmArgsAppend.set(listOf(
+        "-Dxvm.bench.xdk=$xdkDir",
+        "-Dxvm.bench.modules=$benchLib"))
+
+    resultFormat.set("JSON")
+    resultsFile.set(commit.map { file("$buildDir/results/jmh/results-$it.json") })
+}
+
+tasks {
+    named("jmh") {
+        dependsOn(compileBench)
+    }
+}
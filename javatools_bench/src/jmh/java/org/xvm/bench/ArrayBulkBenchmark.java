@@ -0,0 +1,58 @@
+package org.xvm.bench;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.xvm.runtime.ObjectHandle;
+
+
+/**
+ * Benchmarks of the array bulk operations. The same loop runs with the bulk operations of the
+ * native array delegates turned on and off (the "xvm.arrayBulkOps" system property):
+ * <pre>
+ *     gradle :javatools_bench:jmh -Pbench=ArrayBulk
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ArrayBulkBenchmark
+    {
+    /**
+     * The array operations performed by the delegates' bulk operations.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.arrayBulkOps=true"})
+    public ObjectHandle bulkOps(XvmState state)
+        {
+        return state.call("arrayBulk", ITERATIONS);
+        }
+
+    /**
+     * The array operations performed one element at a time.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.arrayBulkOps=false"})
+    public ObjectHandle elementOps(XvmState state)
+        {
+        return state.call("arrayBulk", ITERATIONS);
+        }
+
+    /**
+     * The number of iterations per benchmark invocation; every iteration processes a few hundred
+     * elements.
+     */
+    public static final int ITERATIONS = 1_000;
+    }
@@ -0,0 +1,55 @@
+package org.xvm.bench;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.xvm.runtime.ObjectHandle;
+
+
+/**
+ * Benchmarks of the canonical small Int and Char handles. The same loop runs with the handle
+ * caches turned on and off (the "xvm.handleCache" system property); the allocation rate is
+ * reported by the JMH "gc" profiler:
+ * <pre>
+ *     gradle :javatools_bench:jmh -Pbench=HandleCache -Pprof=gc
+ * </pre>
+ * The "gc.alloc.rate.norm" metric is the number of bytes allocated per loop iteration. (The
+ * property is passed via "jvmArgsPrepend", since the build overrides the "jvmArgsAppend".)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HandleCacheBenchmark
+    {
+    /**
+     * The arithmetic ops with the canonical handles for the small values.
+     */
+    @Benchmark
+    @OperationsPerInvocation(InterpreterBenchmark.ITERATIONS)
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.handleCache=true"})
+    public ObjectHandle cached(XvmState state)
+        {
+        return state.call("smallValues", InterpreterBenchmark.ITERATIONS);
+        }
+
+    /**
+     * The arithmetic ops allocating a new handle for every Int value.
+     */
+    @Benchmark
+    @OperationsPerInvocation(InterpreterBenchmark.ITERATIONS)
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.handleCache=false"})
+    public ObjectHandle uncached(XvmState state)
+        {
+        return state.call("smallValues", InterpreterBenchmark.ITERATIONS);
+        }
+    }
@@ -0,0 +1,52 @@
+package org.xvm.bench;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.xvm.runtime.ObjectHandle;
+
+
+/**
+ * Benchmarks of the native HashMap. The same loop runs with the native HashMap turned on and off
+ * (the "xvm.nativeHashMap" system property):
+ * <pre>
+ *     gradle :javatools_bench:jmh -Pbench=HashMap
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HashMapBenchmark
+    {
+    /**
+     * The HashMap operations backed by the native hash table.
+     */
+    @Benchmark
+    @OperationsPerInvocation(InterpreterBenchmark.ITERATIONS)
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.nativeHashMap=true"})
+    public ObjectHandle nativeMap(XvmState state)
+        {
+        return state.call("hashMaps", InterpreterBenchmark.ITERATIONS);
+        }
+
+    /**
+     * The HashMap operations implemented in Ecstasy.
+     */
+    @Benchmark
+    @OperationsPerInvocation(InterpreterBenchmark.ITERATIONS)
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.nativeHashMap=false"})
+    public ObjectHandle ecstasyMap(XvmState state)
+        {
+        return state.call("hashMaps", InterpreterBenchmark.ITERATIONS);
+        }
+    }
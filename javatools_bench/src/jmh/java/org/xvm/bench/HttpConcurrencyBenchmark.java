@@ -0,0 +1,282 @@
+package org.xvm.bench;
+
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.xvm.runtime.Runtime;
+
+
+/**
+ * Benchmarks of the HTTP exchange executor under a large number of concurrent connections. Every
+ * invocation opens the specified number of connections at once to a Java HttpServer that uses the
+ * same executor as the XVM HttpServer ({@link Runtime#createBlockingExecutor}); the exchange handler
+ * blocks for a few milliseconds to simulate a blocking back end. The same wave runs with the
+ * platform and the virtual thread modes (the "xvm.threads" system property):
+ * <pre>
+ *     gradle :javatools_bench:jmh -Pbench=HttpConcurrency
+ * </pre>
+ * Besides the JMH score (the time it takes to complete a wave), every iteration prints the peak
+ * number of platform threads, the heap use and the peak resident memory of the JVM, and the p50/p99
+ * latencies of the individual requests. The virtual mode requires Java 21; the open file limit
+ * ({@code ulimit -n}) has to exceed twice the number of connections.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class HttpConcurrencyBenchmark
+    {
+    /**
+     * The exchanges executed on a cached pool of platform threads.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.threads=platform"})
+    public int platformThreads(HttpState state)
+            throws IOException
+        {
+        return state.wave();
+        }
+
+    /**
+     * The exchanges executed on virtual threads.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.threads=virtual"})
+    public int virtualThreads(HttpState state)
+            throws IOException
+        {
+        return state.wave();
+        }
+
+
+    // ----- HttpState -----------------------------------------------------------------------------
+
+    /**
+     * The HTTP server and the client statistics.
+     */
+    @State(Scope.Benchmark)
+    public static class HttpState
+        {
+        /**
+         * The number of concurrent connections per wave.
+         */
+        @Param("10000")
+        public int connections;
+
+        /**
+         * The time (in milliseconds) the exchange handler blocks for.
+         */
+        @Param("10")
+        public int blockMillis;
+
+        @Setup(Level.Trial)
+        public void setup()
+                throws IOException
+            {
+            byte[] abBody = "ok".getBytes(StandardCharsets.US_ASCII);
+
+            m_server = HttpServer.create(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), connections);
+            m_server.createContext("/", exchange ->
+                {
+                try
+                    {
+                    Thread.sleep(blockMillis);
+                    }
+                catch (InterruptedException ignore) {}
+
+                exchange.sendResponseHeaders(200, abBody.length);
+                try (OutputStream out = exchange.getResponseBody())
+                    {
+                    out.write(abBody);
+                    }
+                });
+
+            m_executor = Runtime.createBlockingExecutor("HttpHandler");
+            m_server.setExecutor(m_executor);
+            m_server.start();
+
+            m_addr    = m_server.getAddress();
+            m_request = ByteBuffer.wrap(("GET / HTTP/1.1\r\nHost: localhost\r\n" +
+                        "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            }
+
+        @TearDown(Level.Trial)
+        public void tearDown()
+            {
+            m_server.stop(0);
+            m_executor.shutdownNow();
+            }
+
+        @Setup(Level.Iteration)
+        public void resetStats()
+            {
+            ThreadMXBean beanThreads = ManagementFactory.getThreadMXBean();
+            beanThreads.resetPeakThreadCount();
+
+            m_cThreadsBase = beanThreads.getThreadCount();
+            m_alLatency    = new long[connections];
+            m_cCompleted   = 0;
+            }
+
+        @TearDown(Level.Iteration)
+        public void reportStats()
+            {
+            long[] alLatency = Arrays.copyOf(m_alLatency, m_cCompleted);
+            Arrays.sort(alLatency);
+
+            int     cPeak  = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+            long    cbHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            String  sRss   = readPeakRss();
+            boolean fEmpty = alLatency.length == 0;
+
+            System.out.printf("%n  %s threads: %d completed, peak threads +%d, heap %dMB, %s," +
+                              " p50 %.1fms, p99 %.1fms%n",
+                    m_executor instanceof ThreadPoolExecutor ? "platform" : "virtual",
+                    m_cCompleted, cPeak - m_cThreadsBase, cbHeap >> 20, sRss,
+                    fEmpty ? 0.0 : alLatency[alLatency.length / 2] / 1e6,
+                    fEmpty ? 0.0 : alLatency[alLatency.length * 99 / 100] / 1e6);
+            }
+
+        /**
+         * Open all the connections at once, send a request on each of them and wait for all the
+         * responses.
+         *
+         * @return the number of completed requests
+         */
+        public int wave()
+                throws IOException
+            {
+            int cConns = connections;
+            try (Selector selector = Selector.open())
+                {
+                for (int i = 0; i < cConns; i++)
+                    {
+                    SocketChannel channel = SocketChannel.open();
+                    channel.configureBlocking(false);
+                    channel.connect(m_addr);
+                    channel.register(selector, SelectionKey.OP_CONNECT, new long[1]);
+                    }
+
+                ByteBuffer buffer = ByteBuffer.allocate(4096);
+                int        cDone  = 0;
+                while (cDone < cConns)
+                    {
+                    selector.select();
+                    Iterator<SelectionKey> iter = selector.selectedKeys().iterator();
+                    while (iter.hasNext())
+                        {
+                        SelectionKey  key     = iter.next();
+                        SocketChannel channel = (SocketChannel) key.channel();
+                        long[]        alStart = (long[]) key.attachment();
+                        iter.remove();
+
+                        try
+                            {
+                            if (key.isConnectable())
+                                {
+                                channel.finishConnect();
+                                alStart[0] = System.nanoTime();
+
+                                ByteBuffer request = m_request.duplicate();
+                                while (request.hasRemaining())
+                                    {
+                                    channel.write(request);
+                                    }
+                                key.interestOps(SelectionKey.OP_READ);
+                                }
+                            else if (key.isReadable())
+                                {
+                                buffer.clear();
+                                if (channel.read(buffer) < 0)
+                                    {
+                                    m_alLatency[m_cCompleted++] = System.nanoTime() - alStart[0];
+                                    channel.close();
+                                    cDone++;
+                                    }
+                                }
+                            }
+                        catch (IOException e)
+                            {
+                            // a refused or reset connection is counted as done, but not completed
+                            channel.close();
+                            cDone++;
+                            }
+                        }
+                    }
+                }
+            return m_cCompleted;
+            }
+
+        /**
+         * @return the peak resident memory of the JVM (Linux only)
+         */
+        private static String readPeakRss()
+            {
+            try
+                {
+                for (String sLine : Files.readAllLines(Path.of("/proc/self/status")))
+                    {
+                    if (sLine.startsWith("VmHWM:"))
+                        {
+                        long cKb = Long.parseLong(sLine.substring(6).trim().split("\\s+")[0]);
+                        return "peak RSS " + (cKb >> 10) + "MB";
+                        }
+                    }
+                }
+            catch (IOException | RuntimeException ignore) {}
+
+            return "peak RSS n/a";
+            }
+
+        private HttpServer        m_server;
+        private ExecutorService   m_executor;
+        private InetSocketAddress m_addr;
+        private ByteBuffer        m_request;
+
+        private int    m_cThreadsBase;
+        private long[] m_alLatency;
+        private int    m_cCompleted;
+        }
+    }
@@ -0,0 +1,102 @@
+package org.xvm.bench;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.xvm.runtime.ObjectHandle;
+
+
+/**
+ * Benchmarks of the interpreter hot paths. Every benchmark calls into the "Bench" module, which
+ * runs a loop of {@link #ITERATIONS} iterations; the reported time is per loop iteration.
+ * <p>
+ * The cost of the call into the container itself (posting the request to the main service and
+ * waiting for the response) is amortized across the iterations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class InterpreterBenchmark
+    {
+    /**
+     * The ServiceContext.execute(Frame) loop with the GP_* and IP_* arithmetic ops and
+     * Frame.assignValue.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public ObjectHandle opDispatch(XvmState state)
+        {
+        return state.call("arithmetic", ITERATIONS);
+        }
+
+    /**
+     * The CallChain.invoke for a monomorphic call site.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public ObjectHandle invokeMonomorphic(XvmState state)
+        {
+        return state.call("invokeMono", ITERATIONS);
+        }
+
+    /**
+     * The CallChain.invoke for a polymorphic call site.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public ObjectHandle invokePolymorphic(XvmState state)
+        {
+        return state.call("invokePoly", ITERATIONS);
+        }
+
+    /**
+     * The property access ops.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public ObjectHandle propertyAccess(XvmState state)
+        {
+        return state.call("properties", ITERATIONS);
+        }
+
+    /**
+     * The cross-service sendInvoke1Request round-trip.
+     */
+    @Benchmark
+    @OperationsPerInvocation(SERVICE_ITERATIONS)
+    public ObjectHandle serviceRoundTrip(XvmState state)
+        {
+        return state.call("services", SERVICE_ITERATIONS);
+        }
+
+    /**
+     * The array delegate element access.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public ObjectHandle arrayAccess(XvmState state)
+        {
+        return state.call("arrays", ITERATIONS);
+        }
+
+    /**
+     * The number of loop iterations per benchmark invocation.
+     */
+    public static final int ITERATIONS = 100_000;
+
+    /**
+     * The number of loop iterations per service round-trip benchmark invocation.
+     */
+    public static final int SERVICE_ITERATIONS = 10_000;
+    }
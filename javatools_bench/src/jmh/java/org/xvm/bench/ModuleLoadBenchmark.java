@@ -0,0 +1,156 @@
+package org.xvm.bench;
+
+
+import java.io.File;
+import java.io.IOException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.xvm.asm.FileStructure;
+
+
+/**
+ * Benchmarks of loading the XDK module files: eagerly, lazily from a stream, and lazily from a
+ * memory-mapped file (the "xvm.mmap" system property):
+ * <pre>
+ *     gradle :javatools_bench:jmh -Pbench=ModuleLoad
+ * </pre>
+ * Besides the JMH score (the time it takes to load all the modules), every iteration prints the
+ * heap retained by the loaded FileStructures, which is where the lazy and the mapped modes save
+ * memory compared to the eager loading.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class ModuleLoadBenchmark
+    {
+    /**
+     * All the components deserialized at load time.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.mmap=false"})
+    public int eager(LoadState state)
+            throws IOException
+        {
+        return state.load(false);
+        }
+
+    /**
+     * The child components deferred as byte arrays read from a stream.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.mmap=false"})
+    public int lazyStream(LoadState state)
+            throws IOException
+        {
+        return state.load(true);
+        }
+
+    /**
+     * The child components deferred as slices of the memory-mapped files.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.mmap=true"})
+    public int lazyMapped(LoadState state)
+            throws IOException
+        {
+        return state.load(true);
+        }
+
+
+    // ----- LoadState -----------------------------------------------------------------------------
+
+    /**
+     * The module files and the loaded structures.
+     */
+    @State(Scope.Benchmark)
+    public static class LoadState
+        {
+        @Setup(Level.Trial)
+        public void setup()
+            {
+            String sXdk = System.getProperty("xvm.bench.xdk", "../xdk/build/xdk");
+
+            List<File> listFiles = new ArrayList<>();
+            for (String sDir : new String[] {"lib", "javatools"})
+                {
+                File[] aFile = new File(sXdk, sDir).listFiles((dir, sName) -> sName.endsWith(".xtc"));
+                if (aFile != null)
+                    {
+                    listFiles.addAll(List.of(aFile));
+                    }
+                }
+
+            if (listFiles.isEmpty())
+                {
+                throw new IllegalStateException("No modules found in " + sXdk);
+                }
+            m_aFile      = listFiles.toArray(new File[0]);
+            m_cbBaseline = usedHeap();
+            }
+
+        @TearDown(Level.Iteration)
+        public void reportStats()
+            {
+            System.out.printf("%n  %d modules, retained heap %dKB%n",
+                    m_aStruct.length, (usedHeap() - m_cbBaseline) >> 10);
+            }
+
+        /**
+         * Load all the module files.
+         *
+         * @param fLazy  true to defer the deserialization of the child components
+         *
+         * @return the number of loaded modules
+         */
+        public int load(boolean fLazy)
+                throws IOException
+            {
+            File[]          aFile   = m_aFile;
+            FileStructure[] aStruct = new FileStructure[aFile.length];
+            for (int i = 0, c = aFile.length; i < c; i++)
+                {
+                aStruct[i] = new FileStructure(aFile[i], fLazy);
+                }
+            m_aStruct = aStruct;
+            return aStruct.length;
+            }
+
+        /**
+         * @return the heap used after a full collection
+         */
+        private static long usedHeap()
+            {
+            MemoryMXBean bean = ManagementFactory.getMemoryMXBean();
+            for (int i = 0; i < 3; i++)
+                {
+                System.gc();
+                }
+            return bean.getHeapMemoryUsage().getUsed();
+            }
+
+        private File[]          m_aFile;
+        private FileStructure[] m_aStruct;
+        private long            m_cbBaseline;
+        }
+    }
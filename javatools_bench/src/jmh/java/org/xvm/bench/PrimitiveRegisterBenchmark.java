@@ -0,0 +1,52 @@
+package org.xvm.bench;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.xvm.runtime.ObjectHandle;
+
+
+/**
+ * Benchmarks of the unboxed Int64 registers in the Frame. The same arithmetic loop runs with the
+ * primitive registers turned on and off (the "xvm.primitiveRegisters" system property):
+ * <pre>
+ *     gradle :javatools_bench:jmh -Pbench=PrimitiveRegister -Pprof=gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PrimitiveRegisterBenchmark
+    {
+    /**
+     * The GP_*, IP_* and compare-and-jump ops operating on the unboxed registers.
+     */
+    @Benchmark
+    @OperationsPerInvocation(InterpreterBenchmark.ITERATIONS)
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.primitiveRegisters=true"})
+    public ObjectHandle unboxed(XvmState state)
+        {
+        return state.call("arithmetic", InterpreterBenchmark.ITERATIONS);
+        }
+
+    /**
+     * The same ops allocating an Int64 handle for every result.
+     */
+    @Benchmark
+    @OperationsPerInvocation(InterpreterBenchmark.ITERATIONS)
+    @Fork(value = 1, jvmArgsPrepend = {"-Xms1g", "-Xmx1g", "-Dxvm.primitiveRegisters=false"})
+    public ObjectHandle boxed(XvmState state)
+        {
+        return state.call("arithmetic", InterpreterBenchmark.ITERATIONS);
+        }
+    }
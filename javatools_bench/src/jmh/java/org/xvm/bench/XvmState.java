@@ -0,0 +1,105 @@
+package org.xvm.bench;
+
+
+import java.io.File;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.xvm.api.Connector;
+
+import org.xvm.asm.DirRepository;
+import org.xvm.asm.FileRepository;
+import org.xvm.asm.LinkedRepository;
+import org.xvm.asm.ModuleRepository;
+
+import org.xvm.compiler.BuildRepository;
+
+import org.xvm.runtime.ObjectHandle;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * The shared JMH state: an XVM runtime with the "Bench" module loaded into the main container.
+ * <p>
+ * The location of the XDK and the compiled benchmark module are specified by the "xvm.bench.xdk"
+ * and "xvm.bench.modules" system properties (see build.gradle.kts).
+ */
+@State(Scope.Benchmark)
+public class XvmState
+    {
+    @Setup(Level.Trial)
+    public void setup()
+        {
+        String sXdk     = System.getProperty("xvm.bench.xdk",     "../xdk/build/xdk");
+        String sModules = System.getProperty("xvm.bench.modules", "build/xtc");
+
+        List<ModuleRepository> listRepo = new ArrayList<>();
+        listRepo.add(new BuildRepository());
+        listRepo.add(makeRepository(new File(sXdk, "lib")));
+        listRepo.add(makeRepository(new File(sXdk, "javatools/javatools_turtle.xtc")));
+        listRepo.add(makeRepository(new File(sXdk, "javatools/javatools_bridge.xtc")));
+        listRepo.add(makeRepository(new File(sModules)));
+
+        connector = new Connector(new LinkedRepository(true, listRepo.toArray(ModuleRepository.NO_REPOS)));
+        connector.loadModule(MODULE);
+        connector.start();
+        }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+        {
+        connector = null;
+        }
+
+    /**
+     * Synchronously call the specified "Bench" module method.
+     *
+     * @param sMethod  the method name
+     * @param cIters   the number of iterations to pass to the method
+     *
+     * @return the value returned by the method
+     */
+    public ObjectHandle call(String sMethod, long cIters)
+        {
+        try
+            {
+            return connector.invoke1(sMethod, xInt64.makeHandle(cIters)).get(1, TimeUnit.MINUTES);
+            }
+        catch (Exception e)
+            {
+            throw new IllegalStateException("Failed to call " + sMethod, e);
+            }
+        }
+
+    private static ModuleRepository makeRepository(File file)
+        {
+        if (!file.exists())
+            {
+            throw new IllegalStateException("Missing " + file.getAbsolutePath());
+            }
+
+        return file.isDirectory()
+                ? new DirRepository(file, true)
+                : new FileRepository(file, true);
+        }
+
+    /**
+     * The benchmark module name.
+     */
+    public static final String MODULE = "Bench";
+
+    /**
+     * The connector.
+     */
+    public Connector connector;
+    }
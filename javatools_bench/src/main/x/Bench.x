@@ -0,0 +1,197 @@
+/**
+ * The module used by the JMH interpreter benchmarks. Every entry point executes a loop of the
+ * specified number of iterations exercising one particular interpreter hot path, and returns a
+ * value that depends on every iteration, so none of the work could be skipped.
+ */
+module Bench {
+
+    // ----- op dispatch and arithmetic ------------------------------------------------------------
+
+    /**
+     * Exercise the GP_* and IP_* arithmetic ops, the compare-and-jump ops and the register
+     * assignments.
+     */
+    Int arithmetic(Int count) {
+        Int sum = 0;
+        for (Int i = 0; i < count; ++i) {
+            sum += i * 3;
+            sum -= i >> 1;
+            sum ^= i & 0xFF;
+        }
+        return sum;
+    }
+
+    /**
+     * Exercise the arithmetic ops that produce small Int and Char values, which use the canonical
+     * handles (unless the handle caches are turned off).
+     */
+    Int smallValues(Int count) {
+        Int  sum = 0;
+        Char ch  = 'a';
+        for (Int i = 0; i < count; ++i) {
+            Int small = i & 0x3FF;
+            sum += small % 7 + small / 100;
+            if (ch == 'z') {
+                ch = 'a';
+                ++sum;
+            } else {
+                ++ch;
+            }
+        }
+        return sum;
+    }
+
+    // ----- virtual invocation --------------------------------------------------------------------
+
+    interface Shape {
+        Int area();
+    }
+
+    const Square(Int side)
+            implements Shape {
+        @Override
+        Int area() = side * side;
+    }
+
+    const Rect(Int width, Int height)
+            implements Shape {
+        @Override
+        Int area() = width * height;
+    }
+
+    const Triangle(Int base, Int height)
+            implements Shape {
+        @Override
+        Int area() = base * height / 2;
+    }
+
+    /**
+     * Exercise a monomorphic virtual invocation (NVOK_01).
+     */
+    Int invokeMono(Int count) {
+        Shape shape = new Square(3);
+        Int   sum   = 0;
+        for (Int i = 0; i < count; ++i) {
+            sum += shape.area();
+        }
+        return sum;
+    }
+
+    /**
+     * Exercise a polymorphic virtual invocation (NVOK_01) with three different targets.
+     */
+    Int invokePoly(Int count) {
+        Shape[] shapes = [new Square(3), new Rect(2, 5), new Triangle(4, 6)];
+        Int     sum    = 0;
+        for (Int i = 0; i < count; ++i) {
+            sum += shapes[i % 3].area();
+        }
+        return sum;
+    }
+
+    // ----- property access -----------------------------------------------------------------------
+
+    class Counter {
+        Int value;
+        Int step = 1;
+    }
+
+    /**
+     * Exercise the P_Get, P_Set and in-place property ops.
+     */
+    Int properties(Int count) {
+        Counter counter = new Counter();
+        for (Int i = 0; i < count; ++i) {
+            counter.value = counter.value + counter.step;
+            counter.value++;
+        }
+        return counter.value;
+    }
+
+    // ----- cross-service invocation --------------------------------------------------------------
+
+    service Echo {
+        Int echo(Int n) = n;
+    }
+
+    /**
+     * Exercise the cross-service "sendInvoke1Request" round-trip.
+     */
+    Int services(Int count) {
+        Echo echo = new Echo();
+        Int  sum  = 0;
+        for (Int i = 0; i < count; ++i) {
+            sum += echo.echo(i);
+        }
+        return sum;
+    }
+
+    // ----- array access --------------------------------------------------------------------------
+
+    /**
+     * Exercise the array delegate element access (I_Get, I_Set).
+     */
+    Int arrays(Int count) {
+        Int[] array = new Int[64](i -> i);
+        Int   sum   = 0;
+        for (Int i = 0; i < count; ++i) {
+            Int index = i & 63;
+            array[index] = array[index] + 1;
+            sum += array[index];
+        }
+        return sum;
+    }
+
+    /**
+     * Exercise the array bulk operations (sort, indexOf, fill, equality, comparison, hashing
+     * and copying) on the Int and String arrays, which use the native delegates' bulk operations
+     * (unless they are turned off).
+     */
+    Int arrayBulk(Int count) {
+        Int[]    ints    = new Int[256](i -> (i * 7919) % 256);
+        String[] strings = new String[64](i -> $"s{(i * 31) % 64}");
+        Int      sum     = 0;
+        for (Int i = 0; i < count; ++i) {
+            Int[] copy = new Int[];
+            copy.addAll(ints);
+            copy.sort();
+            if (Int index := copy.indexOf(i & 255)) {
+                sum += index;
+            }
+            copy.fill(i);
+            sum += copy.hashCode() & 0xFF;
+            sum += copy == ints ? 1 : 0;
+
+            String[] names = new String[];
+            names.addAll(strings);
+            names.sort();
+            sum += (names <=> strings).ordinal;
+        }
+        return sum;
+    }
+
+    // ----- hash map access -----------------------------------------------------------------------
+
+    /**
+     * Exercise the HashMap look-ups and updates for String and Int keys, which use the native
+     * HashMap (unless it is turned off).
+     */
+    Int hashMaps(Int count) {
+        String[]             names   = new String[256](i -> $"key{i}");
+        HashMap<String, Int> byName  = new HashMap();
+        HashMap<Int, String> byIndex = new HashMap();
+        Int                  sum     = 0;
+        for (Int i = 0; i < count; ++i) {
+            Int    index = i & 255;
+            String name  = names[index];
+            byName.put(name, byName.getOrDefault(name, 0) + 1);
+            if (i & 1 == 0) {
+                byIndex.put(index, name);
+            } else {
+                byIndex.remove(index);
+            }
+            sum += byName.size + byIndex.size;
+        }
+        return sum;
+    }
+}
@@ -31,6 +31,30 @@ class RTDelegate<Element>
     @Override
     RTDelegate! reify(Mutability? mutability = Null);
 
+    @Override
+    conditional Int findElement(Element value, Int startAt);
+
+    @Override
+    Boolean fillElements(Element value, Int from, Int count);
+
+    @Override
+    Boolean sortElements();
+
+    @Override
+    conditional Boolean equalElements(ArrayDelegate<Element> that);
+
+    @Override
+    conditional Ordered compareElements(ArrayDelegate<Element> that);
+
+    @Override
+    conditional Int64 hashElements();
+
+    @Override
+    Boolean appendElements(ArrayDelegate<Element> that);
+
+    @Override
+    Boolean replaceElements(Int index, ArrayDelegate<Element> that);
+
     /**
      * Native constructor helper; fill the array from the Iterable source.
      */
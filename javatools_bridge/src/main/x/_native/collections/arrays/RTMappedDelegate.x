@@ -0,0 +1,6 @@
+/**
+ * The native ArrayDelegate class that is used to view a memory-mapped region of a file as an
+ * immutable `Byte[]`, without copying the bytes into the heap. The Element is always a Byte.
+ */
+class RTMappedDelegate<Element>
+        extends RTDelegate<Element> {}
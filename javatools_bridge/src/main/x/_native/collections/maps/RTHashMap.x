@@ -0,0 +1,316 @@
+import ecstasy.collections.Hasher;
+
+import ecstasy.collections.maps.KeyEntry;
+
+/**
+ * The native HashMap implementation for the keys that are hashed and compared natively by the
+ * runtime: String, Char, Boolean, the fixed-size Int and UInt types, and the Enum types. The
+ * runtime substitutes this class for the [HashMap] of such keys.
+ *
+ * The entries are held in a Java hash table in the order of their insertion. The iterators are
+ * stable in the presence of structural changes to the map, just like those of the [HasherMap].
+ *
+ * The substitution is not visible to the application: the type of an RTHashMap is reported as
+ * `HashMap<Key, Value>`, for example by `&map.actualType`.
+ */
+class RTHashMap<Key extends Hashable, Value>
+        extends HashMap<Key, Value> {
+
+    // ----- constructors --------------------------------------------------------------------------
+
+    @Override
+    construct(Int initCapacity = 0) {
+        construct HashMap();
+    } finally {
+        reserve(initCapacity);
+    }
+
+    construct(Map<Key, Value> that) {
+        construct HashMap();
+    } finally {
+        putAll(that);
+    }
+
+    @Override
+    construct(RTHashMap that) {
+        construct HashMap();
+    } finally {
+        putAll(that);
+    }
+
+    /**
+     * [HasherMap] virtual constructor; the hasher is always the natural hasher of the `Key` type.
+     */
+    @Override
+    construct(Hasher<Key> hasher, Int initCapacity = 0) {
+        super(hasher);
+    } finally {
+        reserve(initCapacity);
+    }
+
+
+    // ----- Map interface -------------------------------------------------------------------------
+
+    @Override
+    Boolean contains(Key key);
+
+    @Override
+    conditional Value get(Key key);
+
+    @Override
+    RTHashMap put(Key key, Value value);
+
+    @Override
+    conditional RTHashMap putIfAbsent(Key key, Value value);
+
+    @Override
+    RTHashMap putAll(Map<Key, Value> that) {
+        if (!putAllFrom(that)) {
+            reserve(size + that.size);
+            for ((Key key, Value value) : that) {
+                put(key, value);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    RTHashMap remove(Key key);
+
+    @Override
+    RTHashMap clear();
+
+
+    // ----- native helpers ------------------------------------------------------------------------
+
+    /**
+     * Make sure the map can hold the specified number of entries without growing.
+     */
+    protected void reserve(Int capacity);
+
+    /**
+     * Put all the entries of another map into this map, if that map is native as well.
+     *
+     * @return True iff the entries have been put; False if the other map is not native
+     */
+    protected Boolean putAllFrom(Map<Key, Value> that);
+
+    /**
+     * Find the entry that follows the specified entry in the insertion order.
+     *
+     * @param index  the storage index of the previous entry, or -1 to start from the first entry
+     * @param seq    the sequence number of the previous entry, or -1 to start from the first entry
+     *
+     * @return True iff there is a next entry
+     * @return (conditional) the storage index of the next entry
+     * @return (conditional) the sequence number of the next entry
+     * @return (conditional) the key of the next entry
+     */
+    protected conditional (Int, Int, Key) nextEntry(Int index, Int seq);
+
+    /**
+     * Obtain the value of the specified entry, which may have been moved or removed since it was
+     * returned by [nextEntry].
+     *
+     * @return True iff the entry for the key exists
+     * @return (conditional) the current value for the key
+     */
+    protected conditional Value entryValue(Int index, Int seq, Key key);
+
+
+    // ----- KeySet and EntrySet implementations --------------------------------------------------
+
+    @Override
+    protected class KeySet {
+        @Override
+        Iterator<Key> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        KeySet clear() {
+            this.RTHashMap.clear();
+            return this;
+        }
+    }
+
+    @Override
+    protected class EntrySet {
+        @Override
+        Iterator<Entry> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        (EntrySet, Int) removeAll(function Boolean (Entry) shouldRemove) {
+            // the iterator is stable in the presence of the removal
+            Int removed = 0;
+            for (Entry entry : this) {
+                if (shouldRemove(entry)) {
+                    entry.delete();
+                    ++removed;
+                }
+            }
+            return this, removed;
+        }
+
+        @Override
+        EntrySet clear() {
+            this.RTHashMap.clear();
+            return this;
+        }
+    }
+
+    /**
+     * The position of an iteration over the map's entries in the order of their insertion. The
+     * key and entry iterators (and so the value iterator, which is based on the entries) advance
+     * through the same native cursor, so they always iterate in the same order. An iteration
+     * **will not**: throw [ConcurrentModification], return duplicate or removed entries, or skip
+     * entries which remain present over the course of iteration. An iteration **will** return
+     * entries which were added _after_ the creation of the iterator.
+     */
+    protected @Abstract class Cursor<Element>
+            implements Iterator<Element> {
+
+        /**
+         * The storage index of the last returned entry, or -1 if none.
+         */
+        protected Int index = -1;
+
+        /**
+         * The sequence number of the last returned entry, or -1 if none.
+         */
+        protected Int seq = -1;
+
+        /**
+         * Advance the cursor to the next entry.
+         *
+         * @return True iff there is a next entry
+         * @return (conditional) the key of the next entry
+         */
+        protected conditional Key advance() {
+            if ((Int nextIndex, Int nextSeq, Key key) := nextEntry(index, seq)) {
+                index = nextIndex;
+                seq   = nextSeq;
+                return True, key;
+            }
+            return False;
+        }
+
+        @Override
+        Boolean knownDistinct() {
+            return True;
+        }
+    }
+
+    /**
+     * An iterator over the map's keys in the order of their insertion.
+     */
+    protected class KeyIterator
+            extends Cursor<Key> {
+
+        @Override
+        conditional Key next() {
+            return advance();
+        }
+
+        @Override
+        (KeyIterator, KeyIterator) bifurcate() {
+            KeyIterator that = new KeyIterator();
+            that.index = this.index;
+            that.seq   = this.seq;
+            return this, that;
+        }
+    }
+
+    /**
+     * An iterator over the map's entries in the order of their insertion.
+     */
+    protected class EntryIterator
+            extends Cursor<Entry> {
+
+        /**
+         * The fake entry that gets used over and over during iteration.
+         */
+        private EntryCursor entry = new EntryCursor();
+
+        @Override
+        conditional Entry next() {
+            if (Key key := advance()) {
+                return True, entry.advance(index, seq, key);
+            }
+            return False;
+        }
+
+        @Override
+        (EntryIterator, EntryIterator) bifurcate() {
+            EntryIterator that = new EntryIterator();
+            that.index = this.index;
+            that.seq   = this.seq;
+            return this, that;
+        }
+    }
+
+
+    // ----- Entry implementation ------------------------------------------------------------------
+
+    /**
+     * An implementation of Entry that can be used as a cursor over any number of keys, and
+     * delegates back to the map for its functionality.
+     */
+    protected class EntryCursor
+            implements Entry {
+
+        private Int index = -1;
+        private Int seq   = -1;
+
+        protected EntryCursor advance(Int index, Int seq, Key key) {
+            this.index = index;
+            this.seq   = seq;
+            this.key   = key;
+            return this;
+        }
+
+        @Override
+        @Unassigned public/private Key key;
+
+        @Override
+        public Boolean exists.get() {
+            return contains(key);
+        }
+
+        @Override
+        Value value {
+            @Override
+            Value get() {
+                if (Value value := entryValue(index, seq, key)) {
+                    return value;
+                }
+
+                throw new OutOfBounds($"entry does not exist for key=\"{key}\"");
+            }
+
+            @Override
+            void set(Value value) {
+                put(key, value);
+            }
+        }
+
+        @Override
+        void delete() {
+            remove(key);
+        }
+
+        @Override
+        Entry reify() {
+            return keyEntry(key);
+        }
+    }
+
+    /**
+     * Instantiate a reified entry, which must be a child of the map.
+     */
+    private Entry keyEntry(Key key) {
+        return new @KeyEntry(key) Entry() {};
+    }
+}
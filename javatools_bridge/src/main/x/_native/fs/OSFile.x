@@ -28,6 +28,14 @@ const OSFile
         return readImpl(range);
     }
 
+    @Override
+    immutable Byte[] map(Range<Int>? range = Null) {
+        if (!exists) {
+            throw new FileNotFound(path);
+        }
+        return mapImpl(range ?: (0 ..< size));
+    }
+
     @Override
     File truncate(Int newSize = 0) {
         if (!exists) {
@@ -78,7 +86,8 @@ const OSFile
 
     // ----- native --------------------------------------------------------------------------------
 
-    Byte[] readImpl(Range<Int> range) {TODO("native");}
-    void truncateImpl(Int newSize)    {TODO("native");}
-    void appendImpl(Byte[] contents)  {TODO("native");}
+    Byte[] readImpl(Range<Int> range)          {TODO("native");}
+    immutable Byte[] mapImpl(Range<Int> range) {TODO("native");}
+    void truncateImpl(Int newSize)             {TODO("native");}
+    void appendImpl(Byte[] contents)           {TODO("native");}
 }
\ No newline at end of file
@@ -12,16 +12,75 @@ service OSFileChannel(RawChannel rawChannel)
     // ----- FileChannel API -----------------------------------------------------------------------
 
     @Override
-    Int size.get() {TODO("native");}
+    Int size {
+        @Override
+        Int get() {
+            return fileChannel.size;
+        }
+
+        @Override
+        void set(Int newSize) {
+            assert:arg newSize >= 0;
+            discardLeftover();
+            fileChannel.size = newSize;
+        }
+    }
 
     @Override
-    Int position.get() {TODO("native");}
+    Int position {
+        @Override
+        Int get() {
+            // the bytes that have been read from the file, but not yet consumed, are ahead of the
+            // logical position
+            Int position = fileChannel.position;
+            if (val buffer ?= leftover) {
+                position -= buffer.size - buffer.offset;
+            }
+            return position;
+        }
+
+        @Override
+        void set(Int newPosition) {
+            assert:arg newPosition >= 0;
+            discardLeftover();
+            fileChannel.position = newPosition;
+        }
+    }
 
     @Override
-    void flush() {TODO("native");}
+    void flush() {
+        fileChannel.flush();
+    }
 
     @Override
     String toString() {
         return "FileChannel";
     }
-}
\ No newline at end of file
+
+
+    // ----- internal ------------------------------------------------------------------------------
+
+    @Override
+    protected void prepareWrite() {
+        discardLeftover();
+    }
+
+    /**
+     * Discard the bytes that have been read from the file, but not yet consumed, moving the file
+     * position back to the logical position of the channel.
+     */
+    private void discardLeftover() {
+        if (val buffer ?= leftover) {
+            leftover = Null;
+            fileChannel.position -= buffer.size - buffer.offset;
+            buffer.close();
+        }
+    }
+
+    /**
+     * The underlying raw channel, which is always an [OSRawChannel].
+     */
+    private OSRawChannel fileChannel.get() {
+        return rawChannel.as(OSRawChannel);
+    }
+}
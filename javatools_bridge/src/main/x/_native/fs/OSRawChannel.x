@@ -0,0 +1,97 @@
+import io.RawChannel;
+
+/**
+ * Native OS file implementation of the RawChannel. The bytes are read from and written to the
+ * file at the current position of the channel.
+ *
+ * The raw channel is always created together with the [OSFileChannel] that uses it, and runs on
+ * the same service context, so the buffers are passed between the two without being copied.
+ */
+service OSRawChannel
+        extends RawChannel {
+    // ----- read operations -----------------------------------------------------------------------
+
+    @Override
+    @RO Boolean readable.get() {TODO("Native");}
+
+    @Override
+    @RO Boolean eof.get() {TODO("Native");}
+
+    @Override
+    Byte[]|Int take() {TODO("Native");}
+
+
+    // ----- write operations ----------------------------------------------------------------------
+
+    @Override
+    @RO Boolean writable.get() {TODO("Native");}
+
+    @Override
+    Int submit(Byte[] buffer, Int start, Int end) {TODO("Native");}
+
+
+    // ----- buffer operations ---------------------------------------------------------------------
+
+    @Override
+    Byte[]|Int allocate(Boolean internal) {TODO("Native");}
+
+    @Override
+    void incRefCount(Byte[] buffer) {}
+
+    @Override
+    void decRefCount(Byte[] buffer) {}
+
+    @Override
+    @RO Int capacityLimit.get() {
+        return 0;
+    }
+
+    @Override
+    @RO Int fixedBufferSize.get() {TODO("Native");}
+
+    @Override
+    @RO Int totalBuffers.get() {TODO("Native");}
+
+    @Override
+    @RO Int totalBytes.get() {TODO("Native");}
+
+    @Override
+    @RO Int consumedBuffers.get() {TODO("Native");}
+
+    @Override
+    @RO Int consumedBytes.get() {TODO("Native");}
+
+
+    // ----- file operations -----------------------------------------------------------------------
+
+    /**
+     * The size of the file. Reducing this value truncates the file; increasing it extends the
+     * file with zero bytes.
+     */
+    Int size {
+        Int  get()             {TODO("Native");}
+        void set(Int newValue) {TODO("Native");}
+    }
+
+    /**
+     * The position in the file at which the next [take] reads and the next [submit] writes.
+     */
+    Int position {
+        Int  get()             {TODO("Native");}
+        void set(Int newValue) {TODO("Native");}
+    }
+
+    /**
+     * Force all the changes to the underlying storage medium.
+     */
+    void flush() {TODO("Native");}
+
+
+    // ----- lifecycle operations ------------------------------------------------------------------
+
+    @Override
+    void close() {TODO("Native");}
+
+    @Override
+    @RO Boolean closed.get() {TODO("Native");}
+}
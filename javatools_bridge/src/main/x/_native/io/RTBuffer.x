@@ -72,9 +72,7 @@ class RTBuffer(RawChannel rawChannel, Byte[] rawBytes, Int rawSize, Boolean read
         assert:bounds offset + count <= thatSize;
 
         Int copy = count.notGreaterThan(thisSize - thisOffset);
-        for (Int i = 0; i < copy; ++i) {
-            bytes[offset+i] = rawBytes[thisOffset+i];
-        }
+        bytes.replaceAll(offset, rawBytes[thisOffset ..< thisOffset + copy]);
 
         rawOffset = thisOffset + copy;
 
@@ -153,9 +151,7 @@ class RTBuffer(RawChannel rawChannel, Byte[] rawBytes, Int rawSize, Boolean read
         assert:bounds offset + count <= thatSize;
 
         Int copy = count.notGreaterThan(capacity - thisOffset);
-        for (Int i = 0; i < copy; ++i) {
-            rawBytes[thisOffset+i] = bytes[offset+i];
-        }
+        rawBytes.replaceAll(thisOffset, bytes[offset ..< offset + copy]);
 
         thisOffset += copy;
         if (thisOffset > rawSize) {
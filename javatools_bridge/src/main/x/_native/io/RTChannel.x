@@ -4,6 +4,7 @@ import ecstasy.io.EndOfFile;
 import ecstasy.io.IOException;
 import ecstasy.io.IOClosed;
 import ecstasy.io.ReadBuffer;
+import ecstasy.io.TransferableBuffer;
 import ecstasy.io.WriteBuffer;
 
 /**
@@ -22,7 +23,7 @@ service RTChannel(RawChannel rawChannel)
      * A residual amount of data that was previously read from the underlying channel, but has not
      * yet been requested by a client of this channel.
      */
-    protected ReadBuffer? leftover;
+    protected RTBuffer? leftover;
 
     /**
      * True iff a read operation is currently processing.
@@ -79,28 +80,17 @@ service RTChannel(RawChannel rawChannel)
         }
 
         try {
-            ReadBuffer? previous = leftover;
-            if (previous != Null) {
-                leftover = Null;
-                return previous;
-            }
-
-            Byte[]|Int result = rawChannel.take();
-            if (result.is(Byte[])) {
-                ReadBuffer buf = new RTBuffer(rawChannel, result, result.size, readOnly=True);
-                return &buf.maskAs(ReadBuffer);
-            }
-
-            switch (result) {
-            case -1:
-                return Null;
-            case -2:
-                throw new IOClosed("Input has been shut down");
-            case -3:
-                throw new IOClosed("The Channel was closed during the read operation");
-            default:
-                throw new IOException($"Unknown failure ({result})");
+            if (RTBuffer in ?= takeBuffer()) {
+                // the native buffer cannot leave this service; hand its content over to a buffer
+                // that can be passed to the caller
+                Int                size     = in.size - in.offset;
+                TransferableBuffer transfer = new TransferableBuffer(size);
+                WriteBuffer        out      = transfer.createWriteBuffer();
+                in.pipeTo(out, size);
+                in.close();
+                return out.toReadBuffer();
             }
+            return Null;
         } finally {
             finishRead(origin);
         }
@@ -119,7 +109,7 @@ service RTChannel(RawChannel rawChannel)
 
         try {
             Int copied = 0;
-            if (ReadBuffer in ?= read(Delegated)) {
+            if (RTBuffer in ?= takeBuffer()) {
                 Int space = buffer.capacity - buffer.offset;
                 do {
                     Int max  = in.remaining;
@@ -135,7 +125,7 @@ service RTChannel(RawChannel rawChannel)
                     } else {
                         in.close();
                     }
-                } while (copied < minBytes, in ?= read());
+                } while (copied < minBytes, in ?= takeBuffer());
             }
 
             return copied;
@@ -201,6 +191,8 @@ service RTChannel(RawChannel rawChannel)
         }
 
         try {
+            prepareWrite();
+
             Int start = buffer.offset;
             Int end   = buffer.size;
             Int size  = end - start;
@@ -395,6 +387,41 @@ service RTChannel(RawChannel rawChannel)
 
     // ----- internal ------------------------------------------------------------------------------
 
+    /**
+     * Called before any data is written to the underlying channel. A channel with a position (such
+     * as a file channel) can use it to account for the data that has been read ahead.
+     */
+    protected void prepareWrite() {}
+
+    /**
+     * Obtain the data left over from the previous read, or take the next buffer of data from the
+     * underlying channel. The returned buffer is a native buffer, which must not leave this service.
+     *
+     * @return the buffer, or Null if the end of the input has been reached
+     */
+    protected RTBuffer? takeBuffer() {
+        if (RTBuffer previous ?= leftover) {
+            leftover = Null;
+            return previous;
+        }
+
+        Byte[]|Int result = rawChannel.take();
+        if (result.is(Byte[])) {
+            return new RTBuffer(rawChannel, result, result.size, readOnly=True);
+        }
+
+        switch (result) {
+        case -1:
+            return Null;
+        case -2:
+            throw new IOClosed("Input has been shut down");
+        case -3:
+            throw new IOClosed("The Channel was closed during the read operation");
+        default:
+            throw new IOException($"Unknown failure ({result})");
+        }
+    }
+
     /**
      * Obtain the raw bytes of the buffer, if it happens to be an `RTBuffer`.
      *
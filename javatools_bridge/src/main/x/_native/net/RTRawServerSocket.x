@@ -0,0 +1,26 @@
+import libnet.Socket;
+
+/**
+ * The native listening socket behind an [RTServerSocket].
+ *
+ * The raw server socket is always created together with the [RTServerSocket] that uses it, and
+ * runs on the same service context.
+ */
+service RTRawServerSocket {
+    /**
+     * Wait for the next incoming connection.
+     *
+     * @return the connected socket; otherwise `-3` if the server socket has been closed
+     */
+    Socket|Int accept() {TODO("Native");}
+
+    /**
+     * Stop listening; any pending [accept] returns `-3`.
+     */
+    void close() {TODO("Native");}
+
+    /**
+     * `True` iff the server socket has been closed.
+     */
+    @RO Boolean closed.get() {TODO("Native");}
+}
@@ -0,0 +1,84 @@
+import io.RawChannel;
+
+/**
+ * Native TCP socket implementation of the RawChannel.
+ *
+ * The raw channel is always created together with the [RTSocket] that uses it, and runs on the
+ * same service context, so the buffers are passed between the two without being copied.
+ */
+service RTRawSocketChannel
+        extends RawChannel {
+    // ----- read operations -----------------------------------------------------------------------
+
+    @Override
+    @RO Boolean readable.get() {TODO("Native");}
+
+    @Override
+    @RO Boolean eof.get() {TODO("Native");}
+
+    @Override
+    Byte[]|Int take() {TODO("Native");}
+
+
+    // ----- write operations ----------------------------------------------------------------------
+
+    @Override
+    @RO Boolean writable.get() {TODO("Native");}
+
+    @Override
+    Int submit(Byte[] buffer, Int start, Int end) {TODO("Native");}
+
+
+    // ----- buffer operations ---------------------------------------------------------------------
+
+    @Override
+    Byte[]|Int allocate(Boolean internal) {TODO("Native");}
+
+    @Override
+    void incRefCount(Byte[] buffer) {}
+
+    @Override
+    void decRefCount(Byte[] buffer) {}
+
+    @Override
+    @RO Int capacityLimit.get() {
+        return 0;
+    }
+
+    @Override
+    @RO Int fixedBufferSize.get() {TODO("Native");}
+
+    @Override
+    @RO Int totalBuffers.get() {TODO("Native");}
+
+    @Override
+    @RO Int totalBytes.get() {TODO("Native");}
+
+    @Override
+    @RO Int consumedBuffers.get() {TODO("Native");}
+
+    @Override
+    @RO Int consumedBytes.get() {TODO("Native");}
+
+
+    // ----- socket operations ---------------------------------------------------------------------
+
+    /**
+     * Shut down the input side of the socket; the subsequent [take] calls return `-2`.
+     */
+    void shutdownInput() {TODO("Native");}
+
+    /**
+     * Shut down the output side of the socket; the subsequent [submit] calls return `-1`.
+     */
+    void shutdownOutput() {TODO("Native");}
+
+
+    // ----- lifecycle operations ------------------------------------------------------------------
+
+    @Override
+    void close() {TODO("Native");}
+
+    @Override
+    @RO Boolean closed.get() {TODO("Native");}
+}
@@ -1,5 +1,4 @@
 import ecstasy.io.IOClosed;
-import ecstasy.io.Channel;
 
 import libnet.IPAddress;
 import libnet.Socket;
@@ -9,36 +8,45 @@ import libnet.ServerSocket;
 /**
  * Implements a native [ServerSocket].
  */
-service RTServerSocket(SocketAddress localAddress)
+service RTServerSocket(SocketAddress localAddress, RTRawServerSocket rawSocket)
         implements ServerSocket {
     /**
      * Constructor from native land.
      *
-     * @param name            the name of this network interface
-     * @param addressesBytes  the byte array for each address of this network interface
+     * @param localAddressBytes  the bytes of the IP address the socket is bound to
+     * @param localPort          the port the socket is bound to
+     * @param rawSocket          the native listening socket
      */
-    construct(Byte[] localAddressBytes, UInt16 localPort) {
-        construct RTServerSocket((new IPAddress(localAddressBytes), localPort));
+    construct(Byte[] localAddressBytes, UInt16 localPort, RTRawServerSocket rawSocket) {
+        construct RTServerSocket((new IPAddress(localAddressBytes), localPort), rawSocket);
     }
 
+    /**
+     * The native listening socket.
+     */
+    private RTRawServerSocket rawSocket;
+
     // ----- Socket methods ------------------------------------------------------------------------
 
     @Override
     public/private SocketAddress localAddress;
 
     @Override
-    Socket accept() {TODO("Native");}
+    Socket accept() {
+        Socket|Int result = rawSocket.accept();
+        if (result.is(Int)) {
+            throw new IOClosed("The ServerSocket was closed");
+        }
+        return result;
+    }
 
     @Override
-    void close(Exception? cause = Null) {TODO("Native");}
+    void close(Exception? cause = Null) {
+        rawSocket.close();
+    }
 
     @Override
     String toString() {
-        return "ServerSocket";
+        return $"ServerSocket({localAddress[0]}:{localAddress[1]})";
     }
-
-
-    // ----- internal ------------------------------------------------------------------------------
-
-    // TODO
-}
\ No newline at end of file
+}
@@ -1,25 +1,39 @@
+import ecstasy.io.EndOfFile;
 import ecstasy.io.IOClosed;
-import ecstasy.io.Channel;
+import ecstasy.io.ReadBuffer;
+import ecstasy.io.TransferableBuffer;
+import ecstasy.io.WriteBuffer;
+
+import io.RawChannel;
+import io.RTChannel;
 
 import libnet.IPAddress;
 import libnet.Socket;
 import libnet.SocketAddress;
-import libnet.ServerSocket;
 
 /**
  * Implements a native [Socket].
+ *
+ * The socket is itself the [Socket.Channel]: the reads and the writes are performed by the
+ * [RTRawSocketChannel], which lives on the same service context. The blocking [in] and [out]
+ * streams are implemented on top of the same channel.
  */
-service RTSocket(SocketAddress localAddress, SocketAddress remoteAddress)
-        implements Socket {
+service RTSocket(SocketAddress localAddress, SocketAddress remoteAddress, RawChannel rawChannel)
+        extends RTChannel(rawChannel)
+        implements Socket, Socket.Channel {
     /**
      * Constructor from native land.
      *
-     * @param name            the name of this network interface
-     * @param addressesBytes  the byte array for each address of this network interface
+     * @param localAddressBytes   the bytes of the IP address the socket is bound to
+     * @param localPort           the port the socket is bound to
+     * @param remoteAddressBytes  the bytes of the IP address the socket is connected to
+     * @param remotePort          the port the socket is connected to
+     * @param rawChannel          the native socket channel
      */
-    construct(Byte[] localAddressBytes, UInt16 localPort, Byte[] remoteAddressBytes, UInt16 remotePort) {
+    construct(Byte[] localAddressBytes, UInt16 localPort, Byte[] remoteAddressBytes, UInt16 remotePort,
+              RawChannel rawChannel) {
         construct RTSocket((new IPAddress(localAddressBytes), localPort),
-                           (new IPAddress(remoteAddressBytes), remotePort));
+                           (new IPAddress(remoteAddressBytes), remotePort), rawChannel);
     }
 
     /**
@@ -36,12 +50,7 @@ service RTSocket(SocketAddress localAddress, SocketAddress remoteAddress)
      * The "IO mode" of the socket. Once the socket goes into sync or async mode, it's not supposed
      * switch to the other.
      */
-    private IO mode;
-
-    /**
-     * TODO
-     */
-    protected/private Channel rawChannel;
+    private IO mode = None;
 
 
     // ----- Socket methods ------------------------------------------------------------------------
@@ -53,13 +62,12 @@ service RTSocket(SocketAddress localAddress, SocketAddress remoteAddress)
     public/private SocketAddress remoteAddress;
 
     @Override
-    @Lazy public/private Channel channel.calc() {
+    @Lazy public/private Socket.Channel channel.calc() {
         switch (mode) {
         case None:
         case Async:
             mode = Async;
-            val channel = new SocketChannel(rawChannel);
-            return &channel.maskAs(Socket.Channel);
+            return this;
 
         case Sync:
             throw new IllegalState("The Socket is already in synchronous I/O mode");
@@ -75,8 +83,7 @@ service RTSocket(SocketAddress localAddress, SocketAddress remoteAddress)
         case None:
         case Sync:
             mode = Sync;
-            val stream = new SocketInput();
-            return &stream.maskAs(BinaryInput);
+            return new SocketInput(&this.maskAs(ecstasy.io.Channel));
 
         case Async:
             throw new IllegalState("The Socket is already in asynchronous I/O mode");
@@ -92,8 +99,7 @@ service RTSocket(SocketAddress localAddress, SocketAddress remoteAddress)
         case None:
         case Sync:
             mode = Sync;
-            val stream = new SocketOutput();
-            return &stream.maskAs(BinaryOutput);
+            return new SocketOutput(&this.maskAs(ecstasy.io.Channel));
 
         case Async:
             throw new IllegalState("The Socket is already in asynchronous I/O mode");
@@ -104,53 +110,116 @@ service RTSocket(SocketAddress localAddress, SocketAddress remoteAddress)
     }
 
     @Override
-    void shutdownInput() {TODO("Native");}
+    void shutdownInput() {
+        rawChannel.as(RTRawSocketChannel).shutdownInput();
+    }
 
     @Override
-    void shutdownOutput() {TODO("Native");}
+    void shutdownOutput() {
+        rawChannel.as(RTRawSocketChannel).shutdownOutput();
+    }
 
     @Override
-    void close(Exception? cause = Null) {TODO("Native");}
+    void close(Exception? cause = Null) {
+        mode = Closed;
+        super(cause);
+    }
 
     @Override
     String toString() {
-        return "Socket";
+        return $"Socket({localAddress[0]}:{localAddress[1]} -> {remoteAddress[0]}:{remoteAddress[1]})";
     }
 
 
-    // ----- SocketChannel class -------------------------------------------------------------------
+    // ----- SocketInput service -------------------------------------------------------------------
 
     /**
-     * TODO
+     * The blocking stream over the socket channel that is used for reading.
      */
-    class SocketChannel(Channel rawChannel)
-            delegates Channel(rawChannel) {
-        // TODO
-    }
+    static service SocketInput(ecstasy.io.Channel channel)
+            implements BinaryInput {
+        /**
+         * The buffer that was last read from the channel, and has not been fully consumed yet.
+         */
+        private ReadBuffer? buffer;
+
+        @Override
+        Byte readByte() {
+            return nextBuffer().readByte();
+        }
 
-    // ----- SocketInput class ---------------------------------------------------------------------
+        @Override
+        void readBytes(Byte[] bytes, Int offset, Int count) {
+            while (count > 0) {
+                ReadBuffer buffer = nextBuffer();
+                Int        copy   = count.notGreaterThan(buffer.remaining);
+                buffer.readBytes(bytes, offset, copy);
+                offset += copy;
+                count  -= copy;
+            }
+        }
 
-    /**
-     * TODO
-     */
-    class SocketInput
-            implements BinaryInput {
-        // TODO
+        @Override
+        Byte[] readBytes(Int count) {
+            // the result is passed to another service
+            return super(count).freeze(inPlace=True);
+        }
+
+        @Override
+        void close(Exception? cause = Null) {
+            buffer?.close();
+            buffer = Null;
+        }
+
+        /**
+         * @return a buffer with at least one byte to read
+         *
+         * @throws EndOfFile if the socket input has been exhausted
+         */
+        private ReadBuffer nextBuffer() {
+            if (ReadBuffer current ?= buffer, !current.eof) {
+                return current;
+            }
+
+            buffer?.close();
+            buffer = Null;
+
+            while (True) {
+                ReadBuffer? next = channel.read();
+                if (next == Null) {
+                    throw new EndOfFile();
+                }
+                if (!next.eof) {
+                    buffer = next;
+                    return next;
+                }
+                next.close();
+            }
+        }
     }
 
 
-    // ----- SocketInput class ---------------------------------------------------------------------
+    // ----- SocketOutput service ------------------------------------------------------------------
 
     /**
-     * TODO
+     * The blocking stream over the socket channel that is used for writing. Since the stream has
+     * no notion of flushing, every write call is passed to the channel as it comes.
      */
-    class SocketOutput
+    static service SocketOutput(ecstasy.io.Channel channel)
             implements BinaryOutput {
-        // TODO
-    }
-
-
-    // ----- internal ------------------------------------------------------------------------------
+        @Override
+        void writeByte(Byte value) {
+            writeBytes([value], 0, 1);
+        }
 
-    // TODO
-}
\ No newline at end of file
+        @Override
+        void writeBytes(Byte[] bytes, Int offset, Int count) {
+            if (count > 0) {
+                TransferableBuffer transfer = new TransferableBuffer(count);
+                WriteBuffer        out      = transfer.createWriteBuffer();
+                out.writeBytes(bytes, offset, count);
+                channel.write(out.toReadBuffer());
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.xvm.util;
+
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * A DataInputStream that reads from a ByteBuffer, for example from a memory-mapped file. In
+ * addition to the DataInput operations, it allows a section of the buffer to be taken as a slice
+ * without copying it, which allows a reader to defer the processing of that section.
+ * <p>
+ * The underlying buffer position always reflects the number of bytes read, since neither this
+ * class nor the DataInputStream read ahead.
+ */
+public class BufferDataInput
+        extends DataInputStream
+    {
+    /**
+     * Construct a BufferDataInput that reads the remaining bytes of the specified buffer.
+     *
+     * @param buf  the buffer to read from; the caller must not modify its position
+     */
+    public BufferDataInput(ByteBuffer buf)
+        {
+        super(new BufferInputStream(buf));
+
+        f_buf = buf;
+        }
+
+    /**
+     * Take the specified number of bytes as a read-only slice of the underlying buffer and advance
+     * past them.
+     *
+     * @param cb  the number of bytes
+     *
+     * @return a buffer containing the next {@code cb} bytes
+     *
+     * @throws EOFException  if there are fewer than {@code cb} bytes remaining
+     */
+    public ByteBuffer readSlice(int cb)
+            throws EOFException
+        {
+        ByteBuffer buf = f_buf;
+        if (cb < 0 || cb > buf.remaining())
+            {
+            throw new EOFException();
+            }
+
+        int        of    = buf.position();
+        ByteBuffer slice = buf.slice(of, cb).asReadOnlyBuffer();
+        buf.position(of + cb);
+        return slice;
+        }
+
+
+    // ----- BufferInputStream ---------------------------------------------------------------------
+
+    /**
+     * An InputStream over the remaining bytes of a ByteBuffer.
+     */
+    private static class BufferInputStream
+            extends InputStream
+        {
+        BufferInputStream(ByteBuffer buf)
+            {
+            f_buf = buf;
+            }
+
+        @Override
+        public int read()
+            {
+            ByteBuffer buf = f_buf;
+            return buf.hasRemaining() ? buf.get() & 0xFF : -1;
+            }
+
+        @Override
+        public int read(byte[] ab, int of, int cb)
+            {
+            ByteBuffer buf = f_buf;
+            if (cb == 0)
+                {
+                return 0;
+                }
+
+            int cbRemain = buf.remaining();
+            if (cbRemain == 0)
+                {
+                return -1;
+                }
+
+            cb = Math.min(cb, cbRemain);
+            buf.get(ab, of, cb);
+            return cb;
+            }
+
+        @Override
+        public long skip(long cb)
+            {
+            ByteBuffer buf = f_buf;
+            int        cbSkip = (int) Math.max(0, Math.min(cb, buf.remaining()));
+            buf.position(buf.position() + cbSkip);
+            return cbSkip;
+            }
+
+        @Override
+        public int available()
+            {
+            return f_buf.remaining();
+            }
+
+        private final ByteBuffer f_buf;
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The underlying buffer.
+     */
+    private final ByteBuffer f_buf;
+    }
@@ -0,0 +1,397 @@
+package org.xvm.util.concurrent;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * A hierarchical timing wheel with a millisecond resolution. Scheduling and cancelling a timer
+ * are O(1) operations; the expired timers are executed on a single daemon thread, which only
+ * wakes up when there is something to expire or a higher level wheel needs to be cascaded.
+ * <p>
+ * The wheel consists of {@link #LEVELS} levels of {@link #SLOTS} slots each; a slot at level N
+ * covers {@code SLOTS^N} milliseconds, so the four levels cover about 49 days. The timers beyond
+ * that range are parked at the top level and re-inserted every time their slot is cascaded.
+ * <p>
+ * The tasks are executed on the wheel's thread, so they must be short and must not block.
+ */
+public class TimerWheel
+    {
+    /**
+     * Construct a TimerWheel.
+     *
+     * @param sName  the name of the wheel's thread
+     */
+    public TimerWheel(String sName)
+        {
+        f_lStartNanos = System.nanoTime();
+
+        Thread thread = new Thread(this::run, sName);
+        thread.setDaemon(true);
+        thread.start();
+        }
+
+
+    // ----- public API ----------------------------------------------------------------------------
+
+    /**
+     * Schedule the specified task to run after the specified delay.
+     *
+     * @param task          the task to run
+     * @param cDelayMillis  the delay in milliseconds
+     *
+     * @return the Timer that could be used to cancel the task
+     */
+    public Timer schedule(Runnable task, long cDelayMillis)
+        {
+        Timer timer = new Timer(task);
+        synchronized (this)
+            {
+            // the timer expires at the first tick that is strictly after the delay has passed
+            timer.m_lTick = currentTick() + Math.max(1, cDelayMillis);
+            insert(timer);
+            m_cTimers++;
+
+            if (timer.m_lTick < m_lWakeTick)
+                {
+                notify();
+                }
+            }
+        return timer;
+        }
+
+    /**
+     * @return the number of scheduled timers
+     */
+    public synchronized int size()
+        {
+        return m_cTimers;
+        }
+
+    /**
+     * Stop the wheel's thread; all the scheduled timers are discarded.
+     */
+    public synchronized void shutdown()
+        {
+        m_fShutdown = true;
+        notify();
+        }
+
+
+    // ----- internal ------------------------------------------------------------------------------
+
+    /**
+     * @return the current tick
+     */
+    private long currentTick()
+        {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - f_lStartNanos);
+        }
+
+    /**
+     * Insert the timer into the slot that corresponds to its expiry tick (must be called while
+     * holding the wheel's monitor).
+     */
+    private void insert(Timer timer)
+        {
+        long lTick  = timer.m_lTick;
+        long lDelta = lTick - m_lTick;
+        int  nLevel = 0;
+
+        if (lDelta < 0)
+            {
+            // already due (this can only happen during a cascade); the lowest level slot for the
+            // current tick is about to be processed
+            lTick  = m_lTick;
+            lDelta = 0;
+            }
+
+        while (nLevel < LEVELS - 1 && lDelta >= 1L << (BITS * (nLevel + 1)))
+            {
+            nLevel++;
+            }
+
+        if (nLevel == LEVELS - 1 && lDelta >= 1L << (BITS * LEVELS))
+            {
+            // beyond the range of the wheel; park it in the last slot of the top level to be
+            // re-inserted when that slot is cascaded
+            lTick = m_lTick + (1L << (BITS * LEVELS)) - 1;
+            }
+
+        int  nSlot = (int) (lTick >>> (BITS * nLevel)) & MASK;
+        Timer head = f_aaSlot[nLevel][nSlot];
+
+        timer.m_nLevel = nLevel;
+        timer.m_nSlot  = nSlot;
+        timer.m_prev   = null;
+        timer.m_next   = head;
+        if (head != null)
+            {
+            head.m_prev = timer;
+            }
+        f_aaSlot[nLevel][nSlot] = timer;
+        }
+
+    /**
+     * Unlink the timer from its slot (must be called while holding the wheel's monitor).
+     */
+    private void unlink(Timer timer)
+        {
+        Timer prev = timer.m_prev;
+        Timer next = timer.m_next;
+        if (prev == null)
+            {
+            f_aaSlot[timer.m_nLevel][timer.m_nSlot] = next;
+            }
+        else
+            {
+            prev.m_next = next;
+            }
+        if (next != null)
+            {
+            next.m_prev = prev;
+            }
+        timer.m_prev   = null;
+        timer.m_next   = null;
+        timer.m_nLevel = -1;
+        }
+
+    /**
+     * Detach and return the list of timers at the specified slot (must be called while holding
+     * the wheel's monitor).
+     */
+    private Timer detach(int nLevel, int nSlot)
+        {
+        Timer head = f_aaSlot[nLevel][nSlot];
+        f_aaSlot[nLevel][nSlot] = null;
+        return head;
+        }
+
+    /**
+     * Advance the wheel by one tick, collecting the expired timers (must be called while holding
+     * the wheel's monitor).
+     */
+    private void advance(List<Timer> listExpired)
+        {
+        long lTick = ++m_lTick;
+
+        // cascade the higher levels whose slot index has just changed
+        for (int nLevel = 1; nLevel < LEVELS; nLevel++)
+            {
+            if ((lTick & ((1L << (BITS * nLevel)) - 1)) != 0)
+                {
+                break;
+                }
+
+            Timer timer = detach(nLevel, (int) (lTick >>> (BITS * nLevel)) & MASK);
+            while (timer != null)
+                {
+                Timer next = timer.m_next;
+                insert(timer);
+                timer = next;
+                }
+            }
+
+        Timer timer = detach(0, (int) lTick & MASK);
+        while (timer != null)
+            {
+            Timer next = timer.m_next;
+            timer.m_prev   = null;
+            timer.m_next   = null;
+            timer.m_nLevel = -1;
+            listExpired.add(timer);
+            m_cTimers--;
+            timer = next;
+            }
+        }
+
+    /**
+     * @return the next tick at which the wheel needs to do something (must be called while holding
+     *         the wheel's monitor)
+     */
+    private long computeWakeTick()
+        {
+        if (m_cTimers == 0)
+            {
+            return Long.MAX_VALUE;
+            }
+
+        // look for a non-empty slot at the lowest level until the next cascade
+        long lTick = m_lTick;
+        do
+            {
+            lTick++;
+            if (f_aaSlot[0][(int) lTick & MASK] != null)
+                {
+                return lTick;
+                }
+            }
+        while ((lTick & MASK) != 0);
+
+        return lTick;
+        }
+
+    /**
+     * The wheel's thread loop.
+     */
+    private void run()
+        {
+        List<Timer> listExpired = new ArrayList<>();
+        while (true)
+            {
+            synchronized (this)
+                {
+                while (true)
+                    {
+                    if (m_fShutdown)
+                        {
+                        return;
+                        }
+
+                    long lNow = currentTick();
+                    if (m_cTimers == 0)
+                        {
+                        // nothing to do; skip the idle ticks
+                        m_lTick = lNow;
+                        }
+
+                    while (m_lTick < lNow && listExpired.isEmpty())
+                        {
+                        advance(listExpired);
+                        }
+
+                    if (!listExpired.isEmpty())
+                        {
+                        break;
+                        }
+
+                    long lWake = m_lWakeTick = computeWakeTick();
+                    try
+                        {
+                        if (lWake == Long.MAX_VALUE)
+                            {
+                            wait();
+                            }
+                        else
+                            {
+                            wait(Math.max(1, lWake - lNow));
+                            }
+                        }
+                    catch (InterruptedException ignore) {}
+                    }
+                m_lWakeTick = Long.MAX_VALUE;
+                }
+
+            for (Timer timer : listExpired)
+                {
+                try
+                    {
+                    timer.f_task.run();
+                    }
+                catch (Throwable e)
+                    {
+                    e.printStackTrace();
+                    }
+                }
+            listExpired.clear();
+            }
+        }
+
+
+    // ----- inner class: Timer --------------------------------------------------------------------
+
+    /**
+     * A scheduled timer.
+     */
+    public class Timer
+        {
+        private Timer(Runnable task)
+            {
+            f_task = task;
+            }
+
+        /**
+         * Cancel this timer.
+         *
+         * @return true iff the timer was cancelled before it expired
+         */
+        public boolean cancel()
+            {
+            synchronized (TimerWheel.this)
+                {
+                if (m_nLevel < 0)
+                    {
+                    return false;
+                    }
+
+                unlink(this);
+                m_cTimers--;
+                return true;
+                }
+            }
+
+        private final Runnable f_task;
+
+        private long  m_lTick;
+        private int   m_nLevel;
+        private int   m_nSlot;
+        private Timer m_prev;
+        private Timer m_next;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The number of bits per level.
+     */
+    private static final int BITS = 8;
+
+    /**
+     * The number of slots per level.
+     */
+    private static final int SLOTS = 1 << BITS;
+
+    /**
+     * The slot mask.
+     */
+    private static final int MASK = SLOTS - 1;
+
+    /**
+     * The number of levels.
+     */
+    private static final int LEVELS = 4;
+
+    /**
+     * The start time.
+     */
+    private final long f_lStartNanos;
+
+    /**
+     * The slots; each slot holds a doubly linked list of timers.
+     */
+    private final Timer[][] f_aaSlot = new Timer[LEVELS][SLOTS];
+
+    /**
+     * The last processed tick.
+     */
+    private long m_lTick;
+
+    /**
+     * The tick the wheel's thread is planning to wake up at.
+     */
+    private long m_lWakeTick = Long.MAX_VALUE;
+
+    /**
+     * The number of scheduled timers.
+     */
+    private int m_cTimers;
+
+    /**
+     * The shutdown flag.
+     */
+    private boolean m_fShutdown;
+    }
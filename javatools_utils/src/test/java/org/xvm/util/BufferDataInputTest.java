@@ -0,0 +1,59 @@
+package org.xvm.util;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.xvm.util.Handy.readMagnitude;
+import static org.xvm.util.Handy.writePackedLong;
+
+
+/**
+ * Tests of the BufferDataInput class.
+ */
+public class BufferDataInputTest
+    {
+    @Test
+    public void testReadAndSlice()
+            throws IOException
+        {
+        ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        DataOutputStream      out      = new DataOutputStream(outBytes);
+        out.writeInt(0x58564D21);
+        writePackedLong(out, 3);
+        out.write(new byte[] {1, 2, 3});
+        out.writeUTF("done");
+
+        BufferDataInput in = new BufferDataInput(ByteBuffer.wrap(outBytes.toByteArray()));
+        assertEquals(0x58564D21, in.readInt());
+
+        ByteBuffer slice = in.readSlice(readMagnitude(in));
+        assertTrue(slice.isReadOnly());
+        assertEquals(3, slice.remaining());
+        assertEquals(2, slice.get(1));
+
+        // the slice is independent from the rest of the stream
+        assertEquals(3, new BufferDataInput(slice).readSlice(3).get(2));
+        assertEquals("done", in.readUTF());
+        assertEquals(-1, in.read());
+        }
+
+    @Test
+    public void testSliceBeyondEnd()
+            throws IOException
+        {
+        BufferDataInput in = new BufferDataInput(ByteBuffer.wrap(new byte[] {1, 2}));
+        assertEquals(1, in.readByte());
+        assertThrows(EOFException.class, () -> in.readSlice(2));
+        assertEquals(2, in.readByte());
+        }
+    }
@@ -0,0 +1,104 @@
+package org.xvm.util.concurrent;
+
+
+import java.util.List;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link TimerWheel}.
+ */
+public class TimerWheelTest
+    {
+    @Test
+    public void testExpiry()
+            throws InterruptedException
+        {
+        TimerWheel     wheel = new TimerWheel("test");
+        CountDownLatch latch = new CountDownLatch(1);
+
+        long lStart = System.nanoTime();
+        wheel.schedule(latch::countDown, 20);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - lStart >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(0, wheel.size());
+        wheel.shutdown();
+        }
+
+    @Test
+    public void testCancel()
+            throws InterruptedException
+        {
+        TimerWheel     wheel   = new TimerWheel("test");
+        AtomicInteger  counter = new AtomicInteger();
+        CountDownLatch latch   = new CountDownLatch(1);
+
+        TimerWheel.Timer timer = wheel.schedule(counter::incrementAndGet, 10);
+        assertEquals(1, wheel.size());
+        assertTrue(timer.cancel());
+        assertFalse(timer.cancel());
+        assertEquals(0, wheel.size());
+
+        wheel.schedule(latch::countDown, 50);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, counter.get());
+        assertFalse(timer.cancel());
+        wheel.shutdown();
+        }
+
+    @Test
+    public void testOrdering()
+            throws InterruptedException
+        {
+        TimerWheel     wheel = new TimerWheel("test");
+        List<Integer>  list  = new CopyOnWriteArrayList<>();
+        int[]          anMs  = {300, 5, 270, 40, 1, 120, 260};
+        CountDownLatch latch = new CountDownLatch(anMs.length);
+
+        for (int nMs : anMs)
+            {
+            wheel.schedule(() -> {list.add(nMs); latch.countDown();}, nMs);
+            }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 5, 40, 120, 260, 270, 300), list);
+        wheel.shutdown();
+        }
+
+    @Test
+    public void testMany()
+            throws InterruptedException
+        {
+        TimerWheel     wheel  = new TimerWheel("test");
+        int            cTimer = 10_000;
+        CountDownLatch latch  = new CountDownLatch(cTimer / 2);
+
+        TimerWheel.Timer[] aTimer = new TimerWheel.Timer[cTimer];
+        for (int i = 0; i < cTimer; i++)
+            {
+            aTimer[i] = wheel.schedule(latch::countDown, 200 + i % 500);
+            }
+
+        // cancel every other timer
+        for (int i = 0; i < cTimer; i += 2)
+            {
+            assertTrue(aTimer[i].cancel());
+            }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, wheel.size());
+        wheel.shutdown();
+        }
+    }
@@ -224,6 +224,111 @@ class Array<Element>
          *         represents
          */
         ArrayDelegate reify(Mutability? mutability = Null);
+
+        // ----- bulk operations -------------------------------------------------------------------
+
+        /*
+         * The bulk operations allow a delegate that holds its elements in a compact form (such as
+         * the runtime's delegates for the Int, Char and String elements) to process all of the
+         * elements at once, without producing an object for each one of them. A delegate that
+         * cannot perform an operation returns `False`, in which case the Array falls back to
+         * processing the elements one at a time.
+         */
+
+        /**
+         * Look for the specified value starting at the specified index.
+         *
+         * @param value    the value to search for
+         * @param startAt  the first index to search from
+         *
+         * @return True iff the search has been performed by the delegate
+         * @return (conditional) the index at which the value was found, or -1 if it was not found
+         */
+        conditional Int findElement(Element value, Int startAt) {
+            return False;
+        }
+
+        /**
+         * Replace the elements in the specified range of indexes with the specified value.
+         *
+         * @param value  the value to fill the range with
+         * @param from   the first index to fill
+         * @param count  the number of elements to fill
+         *
+         * @return True iff the elements have been replaced by the delegate
+         */
+        Boolean fillElements(Element value, Int from, Int count) {
+            return False;
+        }
+
+        /**
+         * Sort the elements in place, using the natural order of the Element type.
+         *
+         * @return True iff the elements have been sorted by the delegate
+         */
+        Boolean sortElements() {
+            return False;
+        }
+
+        /**
+         * Compare the elements of this delegate to the elements of another delegate for equality.
+         *
+         * @param that  the other delegate
+         *
+         * @return True iff the comparison has been performed by the delegate
+         * @return (conditional) True iff the delegates have the same size and equal elements
+         */
+        conditional Boolean equalElements(ArrayDelegate<Element> that) {
+            return False;
+        }
+
+        /**
+         * Compare the elements of this delegate to the elements of another delegate for order.
+         *
+         * @param that  the other delegate
+         *
+         * @return True iff the comparison has been performed by the delegate
+         * @return (conditional) the order of this delegate's elements relative to the other's
+         */
+        conditional Ordered compareElements(ArrayDelegate<Element> that) {
+            return False;
+        }
+
+        /**
+         * Calculate the hash code of the elements, which is the sum of the elements' hash codes.
+         *
+         * @return True iff the hash code has been calculated by the delegate
+         * @return (conditional) the hash code
+         */
+        conditional Int64 hashElements() {
+            return False;
+        }
+
+        /**
+         * Add all the elements of another delegate to the end of this delegate. This method can
+         * only be used if this delegate is mutable.
+         *
+         * @param that  the delegate to copy the elements from
+         *
+         * @return True iff the elements have been copied by the delegate
+         */
+        Boolean appendElements(ArrayDelegate<Element> that) {
+            return False;
+        }
+
+        /**
+         * Replace the elements of this delegate, starting at the specified index, with all the
+         * elements of another delegate. This method can only be used if this delegate is mutable
+         * or fixed size.
+         *
+         * @param index  the index of the first element to replace
+         * @param that   the delegate to copy the elements from
+         *
+         * @return True iff the elements have been copied by the delegate
+         */
+        Boolean replaceElements(Int index, ArrayDelegate<Element> that) {
+            return False;
+        }
     }
 
     /**
@@ -390,6 +495,12 @@ class Array<Element>
         }
 
         if (inPlace) {
+            Int from = interval.effectiveLowerBound;
+            Int to   = interval.effectiveUpperBound;
+            if (to < size && delegate.fillElements(value, from, to - from + 1)) {
+                return this;
+            }
+
             for (Int i : interval) {
                 this[i] = value;
             }
@@ -452,6 +563,21 @@ class Array<Element>
         return indexOf(value);
     }
 
+    @Override
+    conditional Int indexOf(Element value, Int startAt = 0) {
+        startAt = startAt.notLessThan(0);
+        if (Int index := delegate.findElement(value, startAt)) {
+            return index >= 0 ? (True, index) : False;
+        }
+
+        for (Int i = startAt, Int size = this.size; i < size; ++i) {
+            if (this[i] == value) {
+                return True, i;
+            }
+        }
+        return False;
+    }
+
     @Override
     @Op("+")
     Array add(Element element) {
@@ -477,6 +603,19 @@ class Array<Element>
     Array addAll(Iterable<Element> values) {
         switch (mutability) {
         case Mutable:
+            if (values.is(Array<Element>)) {
+                if (delegate.appendElements(values.delegate)) {
+                    return this;
+                }
+
+                // the values could be this array (or a slice of it), so only the elements that
+                // are there before the first one is added are copied
+                for (Int i = 0, Int c = values.size; i < c; ++i) {
+                    add(values[i]);
+                }
+                return this;
+            }
+
             for (Element value : values) {
                 add(value);
             }
@@ -624,6 +763,14 @@ class Array<Element>
         return super(inPlace).as(Array);
     }
 
+    @Override
+    Array sort(Orderer? order = Null) {
+        if (order == Null && inPlace && delegate.sortElements()) {
+            return this;
+        }
+        return super(order).as(Array);
+    }
+
     @Override
     Array replace(Int index, Element value) {
         if (inPlace) {
@@ -637,6 +784,14 @@ class Array<Element>
         }
     }
 
+    @Override
+    Array replaceAll(Int index, Iterable<Element> values) {
+        if (inPlace && values.is(Array<Element>) && delegate.replaceElements(index, values.delegate)) {
+            return this;
+        }
+        return super(index, values).as(Array);
+    }
+
     @Override
     Array insert(Int index, Element value) {
         if (index == size) {
@@ -928,6 +1083,10 @@ class Array<Element>
             return False;
         }
 
+        if (Boolean result := value1.delegate.equalElements(value2.delegate)) {
+            return result;
+        }
+
         for (Int i : 0 ..< size) {
             if (value1[i] != value2[i]) {
                 return False;
@@ -1108,6 +1267,10 @@ class Array<Element>
          */
         static <CompileType extends OrderableArray>
                 Ordered compare(CompileType array1, CompileType array2) {
+            if (Ordered order := array1.delegate.compareElements(array2.delegate)) {
+                return order;
+            }
+
             for (Int i = 0, Int c = Int.minOf(array1.size, array2.size); i < c; i++) {
                 Ordered order = array1[i] <=> array2[i];
                 if (order != Equal) {
@@ -1129,6 +1292,10 @@ class Array<Element>
          * Calculate a hash code for a given array.
          */
         static <CompileType extends HashableArray> Int64 hashCode(CompileType array) {
+            if (Int64 hash := array.delegate.hashElements()) {
+                return hash;
+            }
+
             Int64 hash = 0;
             for (CompileType.Element el : array) {
                 hash += CompileType.Element.hashCode(el);
@@ -30,6 +30,26 @@ interface File
      */
     Byte[] read(Range<Int> range);
 
+    /**
+     * Obtain a read-only view of the file contents (or a portion thereof) as an immutable Array of
+     * Byte. Unlike [contents] and [read], an implementation may map the file into memory instead
+     * of reading it, so that the cost of the returned array does not depend on the file size.
+     *
+     * The view of a mapped file reflects the contents of the file as it changes; a file must not
+     * be truncated while a view of it is in use.
+     *
+     * @param range  the Range describing the portion of the content to view; `Null` indicates the
+     *               entire file
+     *
+     * @throws FileNotFound  if the file does not exist
+     * @throws AccessDenied  if the necessary file permissions to read the content have not
+     *                       been granted
+     * @throws OutOfBounds   if the range is not within `0 ..< size`
+     */
+    immutable Byte[] map(Range<Int>? range = Null) {
+        return range == Null ? contents.freeze() : read(range).freeze(inPlace=True);
+    }
+
     /**
      * Modify the contents of the file so that it has the specified size.
      *
@@ -44,7 +44,7 @@ service TransferableBuffer(Int size) {
     /**
      * The buffer implementation.
      */
-    private ActualBuffer actual;
+    private @Unassigned ActualBuffer actual;
 
     /**
      * The configured buffer size.
@@ -358,6 +358,42 @@ service TransferableBuffer(Int size) {
                 size = offset;
             }
         }
+
+        /**
+         * Obtain the specified number of bytes starting at the current offset within the stream.
+         *
+         * @param ticket  the ticket that was provided to the ReadBuffer or WriteBuffer
+         * @param count   the number of bytes to read
+         *
+         * @return the bytes, as an immutable array that can be passed to the calling service
+         *
+         * @throws OutOfBounds  if fewer than `count` bytes remain in the buffer
+         */
+        Byte[] readBytes(Int ticket, Int count) {
+            checkValid(ticket);
+            assert:bounds 0 <= count <= size - offset;
+            Int from = offset;
+            offset = from + count;
+            return bytes[from ..< offset].reify(Constant);
+        }
+
+        /**
+         * Store the specified bytes starting at the current offset within the stream.
+         *
+         * @param ticket  the ticket that was provided to the WriteBuffer
+         * @param values  the immutable array of bytes to store
+         *
+         * @throws OutOfBounds  if there is not enough space left in the buffer
+         */
+        void writeBytes(Int ticket, Byte[] values) {
+            checkValid(ticket);
+            assert:bounds offset + values.size <= capacity;
+            bytes.replaceAll(offset, values);
+            offset += values.size;
+            if (offset > size) {
+                size = offset;
+            }
+        }
     }
 
 
@@ -464,20 +500,17 @@ service TransferableBuffer(Int size) {
             checkService();
             assert offset >= 0 && count >= 0;
 
-            Int last = offset + count;
-            assert last <= bytes.size;
-            while (offset < last) {
-                bytes[offset++] = actual.readByte(ticket);
-            }
+            assert offset + count <= bytes.size;
+
+            // the bytes are transferred from the buffer's service in bulk, rather than one by one
+            bytes.replaceAll(offset, actual.readBytes(ticket, count));
         }
 
         @Override
         void pipeTo(BinaryOutput out, Int count) {
             checkService();
             assert:bounds count >= 0;
-            while (count-- > 0) {
-                out.writeByte(actual.readByte(ticket));
-            }
+            out.writeBytes(actual.readBytes(ticket, count));
         }
 
         @Override
@@ -529,10 +562,7 @@ service TransferableBuffer(Int size) {
 
         @Override
         void writeBytes(Byte[] bytes) {
-            checkService();
-            for (Byte byte : bytes) {
-                actual.writeByte(ticket, byte);
-            }
+            writeBytes(bytes, 0, bytes.size);
         }
 
         @Override
@@ -540,10 +570,8 @@ service TransferableBuffer(Int size) {
             checkService();
             assert offset >= 0 && count >= 0;
 
-            Int last = offset + count;
-            while (offset < last) {
-                actual.writeByte(ticket, bytes[offset++]);
-            }
+            // only an immutable array can be passed to the buffer's service
+            actual.writeBytes(ticket, bytes[offset ..< offset + count].reify(Constant));
         }
 
         @Override
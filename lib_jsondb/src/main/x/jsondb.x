@@ -285,9 +285,36 @@ module jsondb.xtclang.org {
      * @param dbModuleName  the name of the database module
      * @param dataDir       the directory to use for the database data
      * @param buildDir      the directory to use for the auto-generated classes and modules
+     * @param user          (optional) the database user
+     * @param format        (optional) the storage format to use for the newly created storage
      */
     static oodb.Connection createConnection(String dbModuleName, Directory dataDir, Directory buildDir,
-                                            oodb.DBUser? user = Null) {
+                                            oodb.DBUser? user = Null,
+                                            storage.ObjectStore.StorageFormat format = Json) {
+        Catalog catalog = createCatalog(dbModuleName, dataDir, buildDir, format);
+
+        catalog.ensureOpenDB(dbModuleName);
+
+        user ?:= new oodb.model.User(1, "admin");
+
+        return catalog.createClient(user, autoShutdown=True).conn ?: assert;
+    }
+
+    /**
+     * Create a [Catalog] for the specified database module. The `Catalog` is returned in the
+     * `Closed` state; the caller is responsible for opening (or recovering) and closing it.
+     *
+     * This method is intended to be used by stand-alone database applications (command line
+     * utilities and tests) that need to manage the database lifecycle themselves; most callers
+     * should use [createConnection] instead.
+     *
+     * @param dbModuleName  the name of the database module
+     * @param dataDir       the directory to use for the database data
+     * @param buildDir      the directory to use for the auto-generated classes and modules
+     * @param format        (optional) the storage format to use for the newly created storage
+     */
+    static Catalog createCatalog(String dbModuleName, Directory dataDir, Directory buildDir,
+                                 storage.ObjectStore.StorageFormat format = Json) {
         import ecstasy.annotations.InjectedRef;
 
         import ecstasy.lang.src.Compiler;
@@ -320,13 +347,7 @@ module jsondb.xtclang.org {
 
         Container       container = new Container(dbTemplate, Lightweight, repo, new Injector(dataDir));
         CatalogMetadata meta      = container.innerTypeSystem.primaryModule.as(CatalogMetadata);
-        Catalog         catalog   = meta.createCatalog(dataDir);
-
-        catalog.ensureOpenDB(dbModuleName);
-
-        user ?:= new oodb.model.User(1, "admin");
-
-        return catalog.createClient(user, autoShutdown=True).conn ?: assert;
+        return meta.createCatalog(dataDir, format=format);
 
         /**
          * The Injector service that provides a minimum set of resources for Database modules and
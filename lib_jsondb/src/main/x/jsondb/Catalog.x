@@ -31,6 +31,7 @@ import storage.JsonLogStore;
 import storage.JsonProcessorStore;
 import storage.JsonValueStore;
 import storage.ObjectStore;
+import storage.ObjectStore.StorageFormat;
 import storage.SchemaStore;
 
 
@@ -76,17 +77,21 @@ service Catalog<Schema extends RootSchema>
      *                  provided, then the `Catalog` can only operate on the database as a raw JSON
      *                  data store
      * @param readOnly  (optional) pass `True` to access the catalog in a read-only manner
+     * @param format    (optional) the storage format for the data of the newly created database
+     *                  objects; the existing data is always accessed in the format it is stored in
      */
-    construct(Directory dir, CatalogMetadata<Schema>? metadata = Null, Boolean readOnly = False) {
+    construct(Directory dir, CatalogMetadata<Schema>? metadata = Null, Boolean readOnly = False,
+              StorageFormat format = Json) {
         assert:arg dir.exists && dir.readable && (readOnly || dir.writable);
         assert metadata != Null || Schema == RootSchema;
 
         this.timestamp   = clock.now;
-        this.dir         = dir;
-        this.metadata    = metadata;
-        this.version     = metadata?.version : Null;
-        this.readOnly    = readOnly;
-        this.status      = Closed;
+        this.dir           = dir;
+        this.metadata      = metadata;
+        this.version       = metadata?.version : Null;
+        this.readOnly      = readOnly;
+        this.storageFormat = format;
+        this.status        = Closed;
     }
 
 
@@ -277,6 +282,12 @@ service Catalog<Schema extends RootSchema>
     @Concurrent
     public/private Boolean readOnly;
 
+    /**
+     * The storage format for the data of the database objects that don't have any data yet.
+     */
+    @Concurrent
+    public/private StorageFormat storageFormat;
+
     /**
      * The version of the database represented by this `Catalog` object. The version may not be
      * available before the database is opened.
@@ -338,6 +349,14 @@ service Catalog<Schema extends RootSchema>
         return new Scheduler(this);
     }
 
+    /**
+     * The background compaction and checkpointing service for this `Catalog` object.
+     */
+    @Concurrent
+    @Lazy public/private Compactor compactor.calc() {
+        return new Compactor(this);
+    }
+
     /**
      * The existing client representations for this `Catalog` object. Each client may have a single
      * Connection representation, and each Connection may have a single Transaction representation.
@@ -477,6 +496,20 @@ service Catalog<Schema extends RootSchema>
         return current;
     }
 
+    /**
+     * Obtain the application ObjectStores that have been created so far.
+     *
+     * @return an array of the ObjectStores
+     */
+    @Concurrent
+    ObjectStore[] activeStores() {
+        ObjectStore[] stores = new ObjectStore[];
+        for (ObjectStore? store : appStores) {
+            stores += store?;
+        }
+        return stores.freeze(inPlace=True);
+    }
+
     /**
      * Obtain the ObjectStore for the specified id.
      *
@@ -755,6 +788,56 @@ service Catalog<Schema extends RootSchema>
         }
     }
 
+    /**
+     * For a `Closed` database, convert the data of all the database objects that support the binary
+     * storage format to the specified format. Converting to the `Json` format exports the data in a
+     * human-readable form, and converting back to the `Binary` format imports it.
+     *
+     * @param format  the storage format to convert to
+     *
+     * @throws IllegalState  if the Catalog is not `Closed`, or is read-only
+     */
+    @Synchronized
+    void convertStorage(StorageFormat format) {
+        if (status != Closed || readOnly) {
+            throw new IllegalState($|Illegal attempt to convert the storage while {status}\
+                                    |{readOnly ? " (read-only)" : ""}
+                                  );
+        }
+
+        using (lock(False)) {
+            for (DboInfo info : metadata?.dbObjectInfos : []) {
+                if (info.id > 0 && info.category != DBObject.DBCategory.DBSchema) {
+                    // the stores that were used before the database was closed are kept running
+                    // (the TxManager and the clients hold on to them), so they need to be closed
+                    // for the conversion and then reopened from the converted data
+                    ObjectStore store   = storeFor(info.id);
+                    Boolean     running = store.status == Running;
+                    if (running) {
+                        store.close();
+                    }
+
+                    store.convertTo(format);
+
+                    if (running && !store.open()) {
+                        throw new IllegalState($|Failed to open "{info.name}" store at {store.path}                                                | after the conversion
+                                              );
+                    }
+                }
+            }
+
+            // the stores that were created in the Closed state by the conversion have not been
+            // used by anyone; discard them so that they get opened when the database is opened
+            for (Int i : 0 ..< appStores.size) {
+                if (appStores[i]?.status == Closed) {
+                    appStores[i] = Null;
+                }
+            }
+        }
+
+        storageFormat = format;
+    }
+
     /**
      * For an existent database, if this `Catalog` is `Closed`, `Recovering`, or `Configuring`, then
      * transition to the `Running` state, allowing access and modification of the database contents.
@@ -796,6 +879,7 @@ service Catalog<Schema extends RootSchema>
         case Running:
             scheduler.disable();
             txManager.disable();
+            checkpointStores();
             continue;
         case Closed:
             transition(status, Closed, snapshot -> snapshot.owned, allowReadOnly = True);
@@ -806,6 +890,16 @@ service Catalog<Schema extends RootSchema>
         }
     }
 
+    /**
+     * Checkpoint all the application ObjectStores, which allows them to persist any state that
+     * speeds up the next open (such as the index files of the binary storage format).
+     */
+    protected void checkpointStores() {
+        for (ObjectStore? store : appStores) {
+            store?.checkpoint();
+        }
+    }
+
     /**
      * For a `Catalog` that is `Configuring` or `Closed`, remove the entirety of the database. When
      * complete, the status will be `Closed`.
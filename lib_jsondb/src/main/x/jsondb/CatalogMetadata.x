@@ -8,6 +8,8 @@ import oodb.DBUser;
 import oodb.RootSchema;
 import oodb.Transaction;
 
+import storage.ObjectStore.StorageFormat;
+
 
 /**
  * This mixin provides metadata about the catalog of a specific database to the `jsonDB` database
@@ -74,12 +76,15 @@ mixin CatalogMetadata<Schema extends RootSchema>
      * @param dir       the database directory, either within which to create a database, or where
      *                  the database described by this catalog metadata already exists
      * @param readOnly  (optional) pass true to open the database in a read-only manner
+     * @param format    (optional) the storage format for the data of the newly created database
+     *                  objects
      *
      * @return a new `Catalog` for accessing (or otherwise managing) the database located in the
      *         specified directory
      */
-    Catalog<Schema> createCatalog(Directory dir, Boolean readOnly = False) {
-        return new Catalog<Schema>(dir, this, readOnly);
+    Catalog<Schema> createCatalog(Directory dir, Boolean readOnly = False,
+                                  StorageFormat format = Json) {
+        return new Catalog<Schema>(dir, this, readOnly, format);
     }
 
     typedef (Connection<Schema>  + Schema) as ClientConnection;
@@ -0,0 +1,276 @@
+import oodb.RootSchema;
+
+import storage.ObjectStore;
+
+
+/**
+ * The `Compactor` service performs the background compaction and checkpointing of the database
+ * files. It is driven by the [Scheduler], which periodically asks it to [run] a cycle.
+ *
+ * Each cycle has two parts:
+ *
+ * * Compaction: The ObjectStores that have grown the most since they were last compacted are asked
+ *   to [compact](ObjectStore.compact) their storage, which rewrites their files to contain only the
+ *   live versions of the data, i.e. the latest committed version plus any version still visible
+ *   to a transaction that is in flight. The versions that are older than the oldest retained
+ *   transaction, including the deleted entries, are dropped.
+ *
+ * * Checkpointing: The [TxManager] records the current safepoint in the transaction log, rolls the
+ *   log over to a new file when it has grown sufficiently, and deletes the oldest log archives that
+ *   are no longer necessary for recovery. When the log rolls, the ObjectStores are also asked to
+ *   [checkpoint](ObjectStore.checkpoint) their state (such as the binary storage indexes), so that
+ *   the next database open does not depend on the archived portion of the log.
+ *
+ * Compaction competes with the application for the disk, so it is throttled: It only runs while the
+ * database appears to be idle (unless the disk usage exceeds [maxDiskUsage]), not more often than
+ * [minInterval], and it processes at most [maxBytesPerCycle] bytes of storage in a single cycle.
+ */
+@Concurrent
+service Compactor<Schema extends RootSchema>(Catalog<Schema> catalog) {
+
+    construct(Catalog<Schema> catalog) {
+        this.catalog = catalog;
+        this.clock   = catalog.clock;
+    }
+
+
+    // ----- configuration -------------------------------------------------------------------------
+
+    /**
+     * The clock shared by all of the services in the database.
+     */
+    Clock clock;
+
+    /**
+     * Set to `False` to turn off the background compaction and checkpointing.
+     *
+     * TODO this and the other throttling settings should be configurable via Prefs
+     */
+    Boolean enabled = True;
+
+    /**
+     * The minimum period of time between two compaction cycles.
+     */
+    Duration minInterval = Duration:30s;
+
+    /**
+     * The size, in bytes, below which an ObjectStore is never compacted.
+     */
+    Int minStoreSize = 64K;
+
+    /**
+     * The growth of an ObjectStore since it was last compacted, as a percentage of its size after
+     * that compaction, that makes it a candidate for another compaction.
+     */
+    Int growthPercent = 50;
+
+    /**
+     * The maximum amount of storage, in bytes, to compact in a single cycle. (The first candidate is
+     * always compacted, regardless of its size.)
+     */
+    Int maxBytesPerCycle = 16M;
+
+    /**
+     * The disk usage, in bytes, above which the compaction runs even if the database is busy.
+     */
+    Int maxDiskUsage = Int.MaxValue;
+
+    /**
+     * The size, in bytes, of the current transaction log that causes a checkpoint to roll the log.
+     */
+    Int checkpointLogSize = 64K;
+
+    /**
+     * The number of transaction log archives to keep.
+     */
+    Int maxLogArchives = 8;
+
+
+    // ----- metrics -------------------------------------------------------------------------------
+
+    /**
+     * A snapshot of the `Compactor` metrics.
+     *
+     * @param cycles               the number of cycles that have run
+     * @param compactions          the number of ObjectStore compactions
+     * @param bytesCompacted       the total size of the compacted ObjectStores, before compaction
+     * @param bytesReclaimed       the total number of bytes removed by the compactions
+     * @param checkpoints          the number of transaction log checkpoints
+     * @param logRolls             the number of times the transaction log was rolled
+     * @param archivesRemoved      the number of transaction log archives deleted
+     * @param archiveBytesRemoved  the total size of the deleted transaction log archives
+     * @param elapsed              the total time spent in the cycles
+     * @param diskUsage            the disk usage, in bytes, as of the end of the last cycle
+     * @param lastCycle            the time that the last cycle started, if any
+     */
+    static const Stats(Int      cycles,
+                       Int      compactions,
+                       Int      bytesCompacted,
+                       Int      bytesReclaimed,
+                       Int      checkpoints,
+                       Int      logRolls,
+                       Int      archivesRemoved,
+                       Int      archiveBytesRemoved,
+                       Duration elapsed,
+                       Int      diskUsage,
+                       Time?    lastCycle);
+
+    /**
+     * The current metrics.
+     */
+    Stats stats.get() {
+        return new Stats(cycles, compactions, bytesCompacted, bytesReclaimed, checkpoints, logRolls,
+                         archivesRemoved, archiveBytesRemoved, elapsed, diskUsage, lastCycle);
+    }
+
+    public/private Int      cycles;
+    public/private Int      compactions;
+    public/private Int      bytesCompacted;
+    public/private Int      bytesReclaimed;
+    public/private Int      checkpoints;
+    public/private Int      logRolls;
+    public/private Int      archivesRemoved;
+    public/private Int      archiveBytesRemoved;
+    public/private Duration elapsed = Duration.None;
+    public/private Int      diskUsage;
+    public/private Time?    lastCycle;
+
+
+    // ----- internal state ------------------------------------------------------------------------
+
+    /**
+     * Set to `True` while a cycle is running.
+     */
+    protected Boolean busy;
+
+    /**
+     * The size of each ObjectStore after it was last compacted, keyed by the ObjectStore id.
+     */
+    protected/private Map<Int, Int> compactedSizes = new HashMap();
+
+    /**
+     * An ObjectStore that is a candidate for compaction.
+     */
+    protected static const Candidate(ObjectStore store, Int size, Int growth);
+
+
+    // ----- compaction ----------------------------------------------------------------------------
+
+    /**
+     * Run a compaction and checkpoint cycle, if the throttling settings allow it.
+     *
+     * This method is intended to only be used by the [Scheduler].
+     *
+     * @param databaseIdle  True iff the database appears to be idle
+     */
+    void run(Boolean databaseIdle) {
+        if (!enabled || busy) {
+            return;
+        }
+
+        Time start = clock.now;
+        if (start - (lastCycle ?: Time.EPOCH) < minInterval) {
+            return;
+        }
+
+        busy = True;
+        try {
+            TxManager     txManager = catalog.txManager;
+            ObjectStore[] stores    = catalog.activeStores();
+
+            Int usage = txManager.logBytes;
+            for (ObjectStore store : stores) {
+                usage += store.bytesUsed;
+            }
+            if (!databaseIdle && usage <= maxDiskUsage) {
+                return;
+            }
+
+            lastCycle = start;
+            ++cycles;
+
+            usage -= compactStores(txManager, stores);
+            usage -= checkpointLog(txManager, stores);
+
+            diskUsage = usage;
+            elapsed  += clock.now - start;
+        } catch (Exception e) {
+            catalog.log^($"Exception occurred during the database compaction: {e}");
+        } finally {
+            busy = False;
+        }
+    }
+
+    /**
+     * Compact the ObjectStores that have grown the most since they were last compacted.
+     *
+     * @param txManager  the transaction manager
+     * @param stores     the active ObjectStores
+     *
+     * @return the number of bytes reclaimed
+     */
+    protected Int compactStores(TxManager txManager, ObjectStore[] stores) {
+        Candidate[] candidates = new Candidate[];
+        for (ObjectStore store : stores) {
+            Int size = store.bytesUsed;
+            if (size < minStoreSize) {
+                continue;
+            }
+
+            Int previous = compactedSizes.getOrDefault(store.id, 0);
+            Int growth   = size - previous;
+            if (growth * 100 >= previous * growthPercent) {
+                candidates += new Candidate(store, size, growth);
+            }
+        }
+
+        if (candidates.empty) {
+            return 0;
+        }
+
+        immutable OrderedSet<Int> inUseTxIds = txManager.retainedTxIds;
+        Int budget    = maxBytesPerCycle;
+        Int reclaimed = 0;
+        for (Candidate candidate : candidates.sorted((c1, c2) -> c2.growth <=> c1.growth)) {
+            if (budget <= 0) {
+                break;
+            }
+
+            ObjectStore store = candidate.store;
+            Int         bytes = store.compact(inUseTxIds);
+
+            compactedSizes.put(store.id, store.bytesUsed);
+            budget         -= candidate.size;
+            reclaimed      += bytes;
+            bytesCompacted += candidate.size;
+            ++compactions;
+        }
+
+        bytesReclaimed += reclaimed;
+        return reclaimed;
+    }
+
+    /**
+     * Checkpoint the transaction log and, if the log rolled, the ObjectStores.
+     *
+     * @param txManager  the transaction manager
+     * @param stores     the active ObjectStores
+     *
+     * @return the number of bytes reclaimed
+     */
+    protected Int checkpointLog(TxManager txManager, ObjectStore[] stores) {
+        (Boolean rolled, Int removed, Int removedBytes) =
+                txManager.checkpoint(checkpointLogSize, maxLogArchives);
+
+        ++checkpoints;
+        if (rolled) {
+            ++logRolls;
+            for (ObjectStore store : stores) {
+                store.checkpoint^();
+            }
+        }
+        archivesRemoved     += removed;
+        archiveBytesRemoved += removedBytes;
+        return removedBytes;
+    }
+}
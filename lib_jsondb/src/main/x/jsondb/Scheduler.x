@@ -106,6 +106,16 @@ service Scheduler<Schema extends RootSchema>(Catalog<Schema> catalog)
      */
     Cancellable? cancelWakeUp = Null;
 
+    /**
+     * The interval between the background maintenance (compaction and checkpoint) requests.
+     */
+    static Duration MaintenanceInterval = Duration:5s;
+
+    /**
+     * The next scheduled background maintenance request.
+     */
+    Cancellable? cancelMaintenance = Null;
+
     /**
      * Set to `True` while the Scheduler is busy processing messages.
      */
@@ -172,6 +182,7 @@ service Scheduler<Schema extends RootSchema>(Catalog<Schema> catalog)
             status       = Enabled;
             databaseIdle = False;
             scheduleAlarm();
+            scheduleMaintenance();
             return True;
 
         case Closed:
@@ -195,6 +206,8 @@ service Scheduler<Schema extends RootSchema>(Catalog<Schema> catalog)
 
         case Enabled:
             cancelAlarm();
+            cancelMaintenance?();
+            cancelMaintenance = Null;
             return True;
 
         case Disabled:
@@ -741,6 +754,26 @@ service Scheduler<Schema extends RootSchema>(Catalog<Schema> catalog)
         cancelWakeUp = Null;
     }
 
+    /**
+     * Set the alarm for the next background maintenance request.
+     */
+    void scheduleMaintenance() {
+        if (!disabled && cancelMaintenance == Null) {
+            cancelMaintenance = clock.schedule(clock.now + MaintenanceInterval, doMaintenance);
+        }
+    }
+
+    /**
+     * Ask the [Compactor] to do its work; it decides for itself whether there is anything to do.
+     */
+    void doMaintenance() {
+        cancelMaintenance = Null;
+        if (!disabled) {
+            catalog.compactor.run^(databaseIdle);
+            scheduleMaintenance();
+        }
+    }
+
     /**
      * Process the passed [Process] object.
      *
@@ -407,6 +407,12 @@ service TxManager<Schema extends RootSchema>(Catalog<Schema> catalog)
      */
     Int previousSafepoint = NO_TX;
 
+    /**
+     * The number of log updates in progress. The file I/O allows other fibers to run, so a
+     * [checkpoint] must not touch the log while a commit is in the middle of updating it.
+     */
+    protected Int logUpdatesInProgress = 0;
+
     /**
      * The transactions that have begun, but have not yet committed or rolled back. The key is the
      * client id. Each client may have up to one "in flight" transaction at any given time.
@@ -429,6 +435,14 @@ service TxManager<Schema extends RootSchema>(Catalog<Schema> catalog)
      */
     protected/private OrderedMap<Int, Int> byReadId = new SkiplistMap();
 
+    /**
+     * The read transaction ids that are currently in use, and must therefore be retained by the
+     * ObjectStore instances.
+     */
+    immutable OrderedSet<Int> retainedTxIds.get() {
+        return new ArrayOrderedSet<Int>(byReadId.keys.toArray(Constant)).freeze(inPlace=True);
+    }
+
     /**
      * The set of ids of DBObjects that have validators.
      */
@@ -2873,14 +2887,19 @@ service TxManager<Schema extends RootSchema>(Catalog<Schema> catalog)
     protected void appendLog(String s, Int? safepoint=Null) {
         validateLog();
 
-        File file   = logFile;
-        Int  length = file.size;
-        assert length >= 20;        // log file is never empty!
+        ++logUpdatesInProgress;
+        try {
+            File file   = logFile;
+            Int  length = file.size;
+            assert length >= 20;        // log file is never empty!
 
-        file.truncate(length-2)
-            .append(s.utf8());
+            file.truncate(length-2)
+                .append(s.utf8());
 
-        logUpdated(safepoint);
+            logUpdated(safepoint);
+        } finally {
+            --logUpdatesInProgress;
+        }
     }
 
     /**
@@ -2909,25 +2928,30 @@ service TxManager<Schema extends RootSchema>(Catalog<Schema> catalog)
     protected void rotateLog() {
         assert !logInfos.empty;
 
-        String timestamp = clock.now.toString(True);
-        Int    safepoint = this.safepoint;
-        addLogEntry($|\{"_op":"archived", "_ts":"{timestamp}", "safepoint":{safepoint}}
-                   );
+        ++logUpdatesInProgress;
+        try {
+            String timestamp = clock.now.toString(True);
+            Int    safepoint = this.safepoint;
+            addLogEntry($|\{"_op":"archived", "_ts":"{timestamp}", "safepoint":{safepoint}}
+                       );
 
-        String rotatedName = $"txlog_{timestamp}.json";
-        assert File rotatedFile := logFile.renameTo(rotatedName);
+            String rotatedName = $"txlog_{timestamp}.json";
+            assert File rotatedFile := logFile.renameTo(rotatedName);
 
-        LogFileInfo previousInfo = logInfos[logInfos.size-1];
-        LogFileInfo rotatedInfo  = new LogFileInfo(rotatedName, previousInfo.txIds.first .. lastCommitted,
-                safepoint, rotatedFile.size, rotatedFile.modified);
+            LogFileInfo previousInfo = logInfos[logInfos.size-1];
+            LogFileInfo rotatedInfo  = new LogFileInfo(rotatedName, previousInfo.txIds.first .. lastCommitted,
+                    safepoint, rotatedFile.size, rotatedFile.modified);
 
-        initLogFile();
-        LogFileInfo currentInfo = new LogFileInfo(logFile.name, lastCommitted+1 ..< lastCommitted+1,
-                safepoint, logFile.size, logFile.modified);
+            initLogFile();
+            LogFileInfo currentInfo = new LogFileInfo(logFile.name, lastCommitted+1 ..< lastCommitted+1,
+                    safepoint, logFile.size, logFile.modified);
 
-        logInfos[logInfos.size-1] = rotatedInfo;
-        logInfos += currentInfo;
-        writeStatus();
+            logInfos[logInfos.size-1] = rotatedInfo;
+            logInfos += currentInfo;
+            writeStatus();
+        } finally {
+            --logUpdatesInProgress;
+        }
     }
 
     /**
@@ -2958,6 +2982,95 @@ service TxManager<Schema extends RootSchema>(Catalog<Schema> catalog)
     }
 
 
+    // ----- checkpoints ---------------------------------------------------------------------------
+
+    /**
+     * The total size, in bytes, of the transaction log, including all of its archives.
+     */
+    Int logBytes.get() {
+        Int bytes = 0;
+        LogFileInfo[] logInfos = logInfos;
+        for (Int i : 0 ..< logInfos.size-1) {
+            bytes += logInfos[i].size;
+        }
+        return bytes + logFile.size;
+    }
+
+    /**
+     * Record a checkpoint of the transaction log. If the current log has grown past the specified
+     * size, it is archived (rolled) and a new log is started; otherwise, if the safepoint has
+     * advanced since it was last recorded, a `safepoint` entry is appended to the log. Then the
+     * oldest archives are removed, as long as there are more than `maxArchives` of them and all of
+     * their transactions are already known to be at or behind the safepoint, i.e. they are no
+     * longer needed to recover the ObjectStores.
+     *
+     * This method is intended to only be used by the [Compactor].
+     *
+     * @param rollSize     the size of the current log, in bytes, that causes the log to roll
+     * @param maxArchives  the number of log archives to keep
+     *
+     * @return rolled               True iff the log was archived and a new log was started
+     * @return archivesRemoved      the number of log archives that were deleted
+     * @return archiveBytesRemoved  the total size of the deleted log archives
+     */
+    (Boolean rolled, Int archivesRemoved, Int archiveBytesRemoved) checkpoint(Int rollSize,
+                                                                              Int maxArchives) {
+        if (status != Enabled || logInfos.empty) {
+            return False, 0, 0;
+        }
+
+        using (new SynchronizedSection()) {
+            if (logUpdatesInProgress > 0) {
+                // a commit is updating the log; try again next time
+                return False, 0, 0;
+            }
+
+            Boolean rolled    = False;
+            Boolean changed   = False;
+            Int     safepoint = this.safepoint;
+            if (logFile.size > rollSize) {
+                rotateLog();
+                rolled = True;
+            } else if (safepoint != previousSafepoint) {
+                addLogEntry($|\{"_op":"safepoint", "_ts":"{clock.now.toString(True)}",\
+                             | "safepoint":{safepoint}}
+                           , safepoint);
+
+                Int         last = logInfos.size-1;
+                LogFileInfo info = logInfos[last];
+                Range<Int>  txIds = info.txIds;
+                if (lastCommitted > txIds.effectiveUpperBound) {
+                    txIds = txIds.effectiveLowerBound .. lastCommitted;
+                }
+                logInfos[last] = info.with(txIds=txIds, safepoint=safepoint, size=logFile.size,
+                                           timestamp=logFile.modified);
+                changed = True;
+            }
+
+            Int archivesRemoved     = 0;
+            Int archiveBytesRemoved = 0;
+            while (logInfos.size-1 > maxArchives) {
+                LogFileInfo oldest = logInfos[0];
+                if (oldest.txIds.effectiveUpperBound > safepoint) {
+                    break;
+                }
+
+                if (File archive := sysDir.findFile(oldest.name)) {
+                    archive.delete();
+                }
+                logInfos.delete(0);
+                ++archivesRemoved;
+                archiveBytesRemoved += oldest.size;
+            }
+
+            if (changed || archivesRemoved > 0) {
+                writeStatus();
+            }
+            return rolled, archivesRemoved, archiveBytesRemoved;
+        }
+    }
+
+
     // ----- background maintenance ----------------------------------------------------------------
 
     /**
@@ -3043,8 +3156,7 @@ service TxManager<Schema extends RootSchema>(Catalog<Schema> catalog)
     protected void cleanUpStorages() {
         Set<Int> cleanupRetained = byReadId.keys;
         if (cleanupRetained != lastCleanupRetained) {
-            immutable ArrayOrderedSet<Int> txSet = new ArrayOrderedSet<Int>(
-                    cleanupRetained.toArray(Constant)).freeze(inPlace=True);
+            immutable OrderedSet<Int> txSet = retainedTxIds;
             lastCleanupRetained = txSet;
 
             for (ObjectStore? store : appStores) {
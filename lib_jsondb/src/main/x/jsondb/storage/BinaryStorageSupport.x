@@ -0,0 +1,444 @@
+import json.Lexer.Token;
+import json.Parser;
+
+
+/**
+ * A helper class that encapsulates the binary storage format, which is an alternative to the JSON
+ * text format for the data files of the [JsonMapStore], [JsonValueStore] and [JsonProcessorStore].
+ *
+ * A binary data file is a sequence of records that are only ever appended to the file:
+ *
+ *     [size:4][crc:4][tx:8][keySize:4][key:keySize][value]
+ *
+ * where "size" is the size of the entire record in bytes, "crc" is the CRC-32 of all the bytes
+ * that follow it, and the "key" and the "value" are the UTF-8 encoded JSON text that the JSON
+ * format holds for the corresponding members of a transaction record; an empty "value" indicates
+ * a deletion. Since each record carries its size and checksum, the records can be located without
+ * lexing the JSON text, and a torn write at the end of a file is detected by a size or checksum
+ * mismatch.
+ *
+ * The sidecar index file "{name}.idx" holds the locations of the latest record for each live key,
+ * as of the time that the index was written, and the size of the data file that it covers:
+ *
+ *     [magic:4][dataSize:8][count:4]{[offset:8][size:4]}*[crc:4]
+ *
+ * Records appended after the index was written are found by scanning the data file from the
+ * "dataSize" position, so opening a store is proportional to the size of the index and the recent
+ * appends instead of the size of the data. A missing, stale or corrupted index is simply ignored,
+ * and the entire data file is scanned instead.
+ *
+ * The JSON format remains the export and import format: [toJson] and [fromJson] convert the
+ * contents of a data file between the two formats.
+ */
+const BinaryStorageSupport {
+    /**
+     * @param keyName    the name of the JSON member that holds the key, or Null if the records
+     *                   have no key
+     * @param valueName  the name of the JSON member that holds the value, or Null if the value is
+     *                   the entire (name and value) JSON member
+     */
+    construct(String? keyName, String? valueName) {
+        this.keyName   = keyName;
+        this.valueName = valueName;
+    }
+
+    /**
+     * The name of the JSON member that holds the key.
+     */
+    public/private String? keyName;
+
+    /**
+     * The name of the JSON member that holds the value.
+     */
+    public/private String? valueName;
+
+    /**
+     * A decoded binary record.
+     *
+     * @param txId      the transaction id
+     * @param key       the JSON text of the key (an empty string if the records have no key)
+     * @param value     the UTF-8 encoded JSON text of the value (empty for a deletion)
+     * @param location  the location of the record in the data file
+     */
+    static const Record(Int txId, String key, Byte[] value, Range<Int> location) {
+        /**
+         * True iff the record represents a deletion.
+         */
+        Boolean deletion.get() {
+            return value.empty;
+        }
+
+        /**
+         * The JSON text of the value.
+         */
+        String json.get() {
+            return value.unpackUtf8();
+        }
+    }
+
+    /**
+     * The size of the fixed part of a record.
+     */
+    static Int HeaderSize = 20;
+
+    /**
+     * The magic number at the start of an index file.
+     */
+    static Int IndexMagic = 0x4A444249; // "JDBI"
+
+
+    // ----- records -------------------------------------------------------------------------------
+
+    /**
+     * Append a record to the specified buffer.
+     *
+     * @param buf    the buffer to append to
+     * @param txId   the transaction id
+     * @param key    the JSON text of the key
+     * @param value  the JSON text of the value, or an empty string for a deletion
+     *
+     * @return the range of the record within the buffer
+     */
+    static Range<Int> append(Byte[] buf, Int txId, String key, String value) {
+        Byte[] keyBytes   = key.utf8();
+        Byte[] valueBytes = value.utf8();
+        Int    start      = buf.size;
+        Int    size       = HeaderSize + keyBytes.size + valueBytes.size;
+
+        writeInt(buf, size, 4);
+        writeInt(buf, 0, 4); // placeholder for the checksum
+        writeInt(buf, txId, 8);
+        writeInt(buf, keyBytes.size, 4);
+        buf.addAll(keyBytes)
+           .addAll(valueBytes);
+
+        Int crc = crc32(buf, start + 8, start + size);
+        for (Int i : 0 ..< 4) {
+            buf[start + 4 + i] = (crc >>> (24 - i * 8) & 0xFF).toUInt8();
+        }
+        return start ..< start + size;
+    }
+
+    /**
+     * Decode the record that starts at the specified offset.
+     *
+     * @param bytes   the bytes that contain the record
+     * @param offset  the offset of the record within the bytes
+     * @param base    the position of the first byte within the data file
+     *
+     * @return True iff there is a complete record with a valid checksum at the offset
+     * @return (conditional) the record
+     */
+    static conditional Record decode(Byte[] bytes, Int offset = 0, Int base = 0) {
+        Int available = bytes.size - offset;
+        if (available < HeaderSize) {
+            return False;
+        }
+
+        Int size = readInt(bytes, offset, 4);
+        if (size < HeaderSize || size > available) {
+            return False;
+        }
+
+        Int end     = offset + size;
+        Int keySize = readInt(bytes, offset + 16, 4);
+        if (keySize > size - HeaderSize || readInt(bytes, offset + 4, 4) != crc32(bytes, offset + 8, end)) {
+            return False;
+        }
+
+        Int    txId   = readInt(bytes, offset + 8, 8);
+        Int    keyEnd = offset + HeaderSize + keySize;
+        String key    = bytes[offset + HeaderSize ..< keyEnd].unpackUtf8();
+
+        return True, new Record(txId, key, bytes[keyEnd ..< end], base + offset ..< base + end);
+    }
+
+    /**
+     * Decode all the valid records, stopping at the first incomplete or corrupted one.
+     *
+     * @param bytes  the contents of the data file, or a tail part of it
+     * @param base   the position of the first byte within the data file
+     *
+     * @return the records
+     * @return the position within the data file that follows the last valid record
+     */
+    static (Record[] records, Int validSize) scan(Byte[] bytes, Int base = 0) {
+        Record[] records = new Record[];
+        Int      offset  = 0;
+        while (Record record := decode(bytes, offset, base)) {
+            records += record;
+            offset  += record.location.size;
+        }
+        return records, base + offset;
+    }
+
+    /**
+     * Find the latest record for each key in the specified data file. The records are located using
+     * the index, if there is a valid one, and a scan of the records appended after the index was
+     * written.
+     *
+     * @param dataFile  the data file
+     * @param maxTxId   the last committed transaction id; any later records are ignored
+     *
+     * @return the latest record for each key (including the deletions), keyed by the key JSON text
+     * @return False iff the file has a torn or corrupted tail, or records that are beyond the
+     *         `maxTxId`, which indicates that the file needs to be rebuilt
+     */
+    static (Map<String, Record> latest, Boolean intact) loadLatest(File dataFile, Int maxTxId) {
+        Map<String, Record> latest   = new HashMap();
+        Int                 fileSize = dataFile.size;
+        Int                 scanFrom = 0;
+
+        if ((Int dataSize, Range<Int>[] locations) := readIndex(dataFile)) {
+            scanFrom = dataSize;
+            for (Range<Int> location : locations) {
+                if (Record record := decode(dataFile.read(location), 0, location.effectiveLowerBound),
+                        record.txId <= maxTxId) {
+                    latest.put(record.key, record);
+                } else {
+                    // the index does not match the data; ignore it
+                    latest.clear();
+                    scanFrom = 0;
+                    break;
+                }
+            }
+        }
+
+        Boolean intact = True;
+        if (scanFrom < fileSize) {
+            (Record[] records, Int validSize) = scan(dataFile.read(scanFrom ..< fileSize), scanFrom);
+
+            intact = validSize == fileSize;
+            for (Record record : records) {
+                if (record.txId > maxTxId) {
+                    intact = False;
+                } else {
+                    latest.put(record.key, record);
+                }
+            }
+        }
+        return latest, intact;
+    }
+
+
+    // ----- index ---------------------------------------------------------------------------------
+
+    /**
+     * Obtain the index file for the specified data file.
+     */
+    static File indexFor(File dataFile) {
+        String    name = dataFile.name;
+        Directory dir  = dataFile.parent ?: assert;
+        if (Int dot := name.lastIndexOf('.')) {
+            name = name[0 ..< dot];
+        }
+        return dir.fileFor($"{name}.idx");
+    }
+
+    /**
+     * Read the index for the specified data file.
+     *
+     * @param dataFile  the data file
+     *
+     * @return True iff the index exists, is intact and is not stale
+     * @return (conditional) the size of the data file that the index covers
+     * @return (conditional) the locations of the indexed records
+     */
+    static conditional (Int dataSize, Range<Int>[] locations) readIndex(File dataFile) {
+        File index = indexFor(dataFile);
+        if (!index.exists) {
+            return False;
+        }
+
+        Byte[] bytes = index.contents;
+        Int    size  = bytes.size;
+        if (size < 20 || readInt(bytes, 0, 4) != IndexMagic
+                || readInt(bytes, size - 4, 4) != crc32(bytes, 0, size - 4)) {
+            return False;
+        }
+
+        Int dataSize = readInt(bytes, 4, 8);
+        Int count    = readInt(bytes, 12, 4);
+        if (dataSize > dataFile.size || size != 20 + count * 12) {
+            return False;
+        }
+
+        Range<Int>[] locations = new Range<Int>[](count);
+        for (Int i : 0 ..< count) {
+            Int at     = 16 + i * 12;
+            Int offset = readInt(bytes, at, 8);
+            locations += offset ..< offset + readInt(bytes, at + 8, 4);
+        }
+        return True, dataSize, locations;
+    }
+
+    /**
+     * Write the index for the specified data file.
+     *
+     * @param dataFile   the data file
+     * @param dataSize   the size of the data file that the index covers
+     * @param locations  the locations of the latest record for each live key
+     */
+    static void writeIndex(File dataFile, Int dataSize, Iterable<Range<Int>> locations) {
+        Byte[] buf = new Byte[](20 + locations.size * 12);
+        writeInt(buf, IndexMagic, 4);
+        writeInt(buf, dataSize, 8);
+        writeInt(buf, locations.size, 4);
+        for (Range<Int> location : locations) {
+            writeInt(buf, location.effectiveLowerBound, 8);
+            writeInt(buf, location.size, 4);
+        }
+        writeInt(buf, crc32(buf, 0, buf.size), 4);
+
+        indexFor(dataFile).contents = buf;
+    }
+
+    /**
+     * Delete the index for the specified data file, which is necessary whenever the data file is
+     * rewritten.
+     */
+    static void deleteIndex(File dataFile) {
+        File index = indexFor(dataFile);
+        if (index.exists) {
+            index.delete();
+        }
+    }
+
+
+    // ----- JSON conversion -----------------------------------------------------------------------
+
+    /**
+     * Convert the contents of a binary data file to the JSON format.
+     *
+     * @param bytes  the contents of the binary data file
+     *
+     * @return the JSON text
+     */
+    String toJson(Byte[] bytes) {
+        (Record[] records, _) = scan(bytes);
+        if (records.empty) {
+            return "[]";
+        }
+
+        StringBuffer buf = new StringBuffer(bytes.size + records.size * 16);
+        buf.add('[');
+        for (Record record : records) {
+            buf.append("\n{\"tx\":")
+               .append(record.txId);
+
+            if (String keyName ?= this.keyName) {
+                buf.append(", \"")
+                   .append(keyName)
+                   .append("\":")
+                   .append(record.key);
+            }
+
+            if (!record.deletion) {
+                buf.add(',').add(' ');
+                if (String valueName ?= this.valueName) {
+                    buf.add('"')
+                       .append(valueName)
+                       .add('"').add(':');
+                }
+                buf.append(record.json);
+            }
+            buf.add('}').add(',');
+        }
+        return buf.truncate(-1).add('\n').add(']').toString();
+    }
+
+    /**
+     * Convert the contents of a JSON data file to the binary format.
+     *
+     * @param jsonStr  the JSON text
+     *
+     * @return the contents of the binary data file
+     */
+    Byte[] fromJson(String jsonStr) {
+        Byte[] buf = new Byte[](jsonStr.size);
+        using (Parser fileParser = new Parser(jsonStr.toReader())) {
+            using (val arrayParser = fileParser.expectArray()) {
+                while (!arrayParser.eof) {
+                    using (val changeParser = arrayParser.expectObject()) {
+                        changeParser.expectKey("tx");
+                        Int txId = changeParser.expectInt();
+
+                        String key = "";
+                        if (String keyName ?= this.keyName) {
+                            changeParser.expectKey(keyName);
+                            key = toText(changeParser.skip(new Token[]));
+                        }
+
+                        String value = "";
+                        if (String valueName ?= this.valueName) {
+                            if (changeParser.matchKey(valueName)) {
+                                value = toText(changeParser.skip(new Token[]));
+                            }
+                        } else if (Token nameToken := changeParser.matchKey()) {
+                            value = $"{nameToken}:{toText(changeParser.skip(new Token[]))}";
+                        }
+
+                        append(buf, txId, key, value);
+                    }
+                }
+            }
+        }
+        return buf;
+    }
+
+    /**
+     * Render the specified tokens as JSON text.
+     */
+    static String toText(Token[] tokens) {
+        StringBuffer buf = new StringBuffer();
+        for (Token token : tokens) {
+            token.appendTo(buf);
+        }
+        return buf.toString();
+    }
+
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * Append the specified number of the low order bytes of the value in the big-endian order.
+     */
+    static void writeInt(Byte[] buf, Int value, Int count) {
+        for (Int shift = (count - 1) * 8; shift >= 0; shift -= 8) {
+            buf.add((value >>> shift & 0xFF).toUInt8());
+        }
+    }
+
+    /**
+     * Read an unsigned big-endian value of the specified number of bytes.
+     */
+    static Int readInt(Byte[] bytes, Int offset, Int count) {
+        Int value = 0;
+        for (Int i : offset ..< offset + count) {
+            value = value << 8 | bytes[i].toInt64();
+        }
+        return value;
+    }
+
+    /**
+     * The CRC-32 lookup table.
+     */
+    static Int[] CrcTable = new Int[256](n -> {
+        Int c = n;
+        for (Int k : 0 ..< 8) {
+            c = c & 1 == 1 ? 0xEDB88320 ^ (c >>> 1) : c >>> 1;
+        }
+        return c;
+    }).freeze(True);
+
+    /**
+     * Compute the CRC-32 of the specified part of the bytes.
+     */
+    static Int crc32(Byte[] bytes, Int from, Int to) {
+        Int crc = 0xFFFFFFFF;
+        for (Int i : from ..< to) {
+            crc = CrcTable[(crc ^ bytes[i].toInt64()) & 0xFF] ^ (crc >>> 8);
+        }
+        return crc ^ 0xFFFFFFFF;
+    }
+}
\ No newline at end of file
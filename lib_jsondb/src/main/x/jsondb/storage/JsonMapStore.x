@@ -6,6 +6,8 @@ import json.Parser;
 
 import model.DboInfo;
 
+import storage.BinaryStorageSupport.Record;
+
 import TxManager.NO_TX;
 
 
@@ -23,6 +25,9 @@ import TxManager.NO_TX;
  *
  * where a "k" (key) without a corresponding "v" (value) indicates a deletion and the "[...]" part
  * is what sealPrepare() will have returned.
+ *
+ * When the [binary format](BinaryStorageSupport) is used, each record holds the "k" and "v" JSON
+ * text, and an empty value indicates a deletion.
  */
 @Concurrent
 service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
@@ -61,6 +66,16 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
      */
     public/protected Mapping<Value> valueMapping;
 
+    /**
+     * The binary format support for the map data files.
+     */
+    private static BinaryStorageSupport BinarySupport = new BinaryStorageSupport("k", "v");
+
+    @Override
+    protected BinaryStorageSupport? binarySupport.get() {
+        return BinarySupport;
+    }
+
     /**
      * Used internally within the in-memory MapStore data structures to represent a deleted
      * key/value pair.
@@ -110,6 +125,11 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
          * changes in the transaction are rendered for the transaction log, and for storage on disk.
          */
         Map<Key, String>? jsonEntries;
+
+        /**
+         * The binary records for the changes in the transaction; only used by the binary format.
+         */
+        Map<Key, Byte[]>? binaryEntries;
     }
 
     @Override
@@ -580,26 +600,36 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
 
         assert Map<Key, Value|Deletion> mods := modsByTx.get(tx.readId);
 
-        HashMap<Key, String> jsonEntries = new HashMap();
-        val                  worker      = tx.worker;
+        HashMap<Key, String>  jsonEntries   = new HashMap();
+        HashMap<Key, Byte[]>? binaryEntries = format == Binary ? new HashMap() : Null;
+        val                   worker        = tx.worker;
 
         for ((Key key, Value|Deletion value) : mods) {
             StringBuffer buf = new StringBuffer();
 
             String jsonK = worker.writeUsing(keyMapping, key);
+            String jsonV = "";
 
             buf.append("\"k\":").append(jsonK);
 
             if (!value.is(Deletion)) {
+                jsonV = worker.writeUsing(valueMapping, value);
                 buf.append(", \"v\":")
-                   .append(worker.writeUsing(valueMapping, value));
+                   .append(jsonV);
             }
 
             jsonEntries.put(key, buf.toString());
+
+            if (binaryEntries != Null) {
+                Byte[] record = new Byte[];
+                BinaryStorageSupport.append(record, tx.readId, jsonK, jsonV);
+                binaryEntries.put(key, record);
+            }
         }
 
-        tx.jsonEntries = jsonEntries;
-        tx.sealed      = True;
+        tx.jsonEntries   = jsonEntries;
+        tx.binaryEntries = binaryEntries;
+        tx.sealed        = True;
 
         return buildJsonTx(jsonEntries);
     }
@@ -609,6 +639,11 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
     void commit(Int[] writeIds) {
         assert !writeIds.empty;
 
+        if (format == Binary) {
+            commitBinary(writeIds);
+            return;
+        }
+
         Boolean cleanup      = !cleanupPending.empty;
         Int     lastCommitId = NO_TX;
 
@@ -731,13 +766,12 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
 
     @Override
     void retainTx(OrderedSet<Int> inUseTxIds, Boolean force = False) {
+        Int   oldestInUse = inUseTxIds.first() ?: lastCommit;
+        Key[] deadKeys    = new Key[];
         for ((Key key, History valueHistory) : history) {
             String fileName = nameForKey(key);
 
-            function void (Int) discard = txId -> {
-                valueHistory.remove(txId);
-                sizeByTx    .remove(txId);
-
+            function void (Int) forget = txId -> {
                 if (FileLayout  fileLayout  := storageLayout.get(txId),
                     EntryLayout entryLayout := fileLayout.get(fileName)) {
                     entryLayout.remove(key);
@@ -752,7 +786,26 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
                 }
             };
 
+            function void (Int) discard = txId -> {
+                valueHistory.remove(txId);
+                sizeByTx    .remove(txId);
+                forget(txId);
+            };
+
             processDiscarded(lastCommit, valueHistory.keys.iterator(), inUseTxIds.iterator(), discard);
+
+            // once a deletion is the only remaining version of the key, and all the in-use
+            // transactions can see it, the key itself can be discarded from the storage
+            if (valueHistory.size == 1, Int txId := valueHistory.first(), txId <= oldestInUse,
+                    Value|Deletion value := valueHistory.get(txId), value.is(Deletion)) {
+                deadKeys += key;
+                forget(txId);
+            }
+        }
+
+        for (Key key : deadKeys) {
+            history.remove(key);
+            fileNames.remove(key);
         }
 
         if (force && !cleanupPending.empty) {
@@ -842,6 +895,11 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
         Int desired = txManager.lastCommitted;
         assert desired != NO_TX && desired > 0;
 
+        if (format == Binary) {
+            loadBinary(desired);
+            return;
+        }
+
         private function Int (Map<Object, Int>.Entry) incrementCount(Int delta) {
             return entry -> {
                 Int newValue = entry.exists ? delta + entry.value : delta;
@@ -1007,6 +1065,10 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
     @Override
     @Synchronized
     Boolean recover(SkiplistMap<Int, Token[]> sealsByTxId) {
+        if (format == Binary) {
+            return recoverBinary(sealsByTxId);
+        }
+
         Map<String, StringBuffer> recoveredContents;
         Map<String, Int>          lastTxInFile;
 
@@ -1073,8 +1135,17 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
         }
     }
 
+    @Override
+    void checkpoint() {
+        if (format == Binary && writeable && loaded) {
+            writeIndexes();
+        }
+    }
+
     @Override
     void unload() {
+        checkpoint();
+
         inFlight.clear();
         modsByTx.clear();
         history.clear();
@@ -1091,6 +1162,11 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
      * Rebuild the content of the specified file.
      */
     private void rebuildFile(String fileName) {
+        if (format == Binary) {
+            rebuildBinaryFile(fileName);
+            return;
+        }
+
         StringBuffer buf  = new StringBuffer();
         File         file = dataDir.fileFor(fileName);
 
@@ -1112,6 +1188,12 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
             }
         }
 
+        if (buf.size == 0) {
+            // all the keys were removed; remove the storage
+            removeFile(file, oldBytes.size);
+            return;
+        }
+
         Int fileOffset = buf.size;
         storageOffset.put(fileName, fileOffset);
 
@@ -1124,4 +1206,291 @@ service JsonMapStore<Key extends immutable Const, Value extends immutable Const>
         bytesUsed   += newBytes.size - oldBytes.size;
         lastModified = file.modified;
     }
+
+    // ----- binary format -------------------------------------------------------------------------
+
+    /**
+     * The [commit] implementation for the binary format.
+     */
+    private void commitBinary(Int[] writeIds) {
+        Boolean cleanup      = !cleanupPending.empty;
+        Int     lastCommitId = NO_TX;
+
+        Map<String, Byte[]> buffers = new HashMap();
+        for (Int writeId : writeIds) {
+            if (Changes tx := peekTx(writeId)) {
+                assert tx.prepared, tx.sealed, Map<Key, Byte[]> binaryEntries ?= tx.binaryEntries;
+
+                Int prepareId = tx.readId;
+
+                for ((Key key, Byte[] record) : binaryEntries) {
+                    String fileName = nameForKey(key);
+
+                    if (cleanup && cleanupPending.contains(fileName)) {
+                        rebuildFile(fileName);
+
+                        cleanupPending.remove(fileName);
+                        cleanup = !cleanupPending.empty;
+                    }
+
+                    Byte[] buf         = buffers.computeIfAbsent(fileName, () -> new Byte[]);
+                    Int    startOffset = storageOffset.getOrDefault(fileName, 0) + buf.size;
+
+                    buf.addAll(record);
+
+                    // remember the transaction location
+                    FileLayout  fileLayout  = storageLayout.computeIfAbsent(prepareId, () -> new HashMap());
+                    EntryLayout entryLayout = fileLayout.computeIfAbsent(fileName, () -> new HashMap());
+
+                    entryLayout.put(key, startOffset ..< startOffset + record.size);
+                }
+
+                modsByTx.remove(prepareId);
+
+                lastCommitId = prepareId;
+            }
+        }
+
+        if (lastCommitId != NO_TX) {
+            for ((String fileName, Byte[] buf) : buffers) {
+                storageOffset.process(fileName, e -> {
+                    e.value = (e.exists ? e.value : 0) + buf.size;
+                });
+
+                File file = dataDir.fileFor(fileName);
+                if (file.exists) {
+                    file.append(buf);
+                } else {
+                    file.contents = buf;
+                    filesUsed++;
+                }
+
+                bytesUsed   += buf.size;
+                lastModified = file.modified;
+            }
+
+            lastCommit = lastCommitId;
+        }
+
+        for (Int writeId : writeIds) {
+            inFlight.remove(writeId);
+        }
+    }
+
+    /**
+     * The [loadInitial] implementation for the binary format. Only the latest record of each key is
+     * read and deserialized; the records are located using the sidecar index and a scan of the
+     * records appended after the index was written.
+     */
+    private void loadBinary(Int desired) {
+        Int totalBytes = 0;
+        Int totalFiles = 0;
+        Int totalKeys  = 0;
+
+        for (File file : findFiles()) {
+            String fileName = file.name;
+
+            (Map<String, Record> latest, Boolean intact) = BinaryStorageSupport.loadLatest(file, desired);
+
+            Record[] live = latest.values.filter(r -> !r.deletion).toArray()
+                    .sorted((r1, r2) -> r1.location.effectiveLowerBound <=> r2.location.effectiveLowerBound);
+            if (live.empty) {
+                // all the keys were removed; remove the storage
+                file.delete();
+                BinaryStorageSupport.deleteIndex(file);
+                continue;
+            }
+
+            // a torn tail or records beyond the last commit require the file to be rebuilt
+            Byte[] rebuilt = new Byte[];
+            for (Record record : live) {
+                Key   key;
+                Value value;
+                using (ObjectInputStream stream = new ObjectInputStream(jsonSchema, record.key.toReader())) {
+                    key = keyMapping.read(stream.ensureElementInput());
+                }
+                using (ObjectInputStream stream = new ObjectInputStream(jsonSchema, record.json.toReader())) {
+                    value = valueMapping.read(stream.ensureElementInput());
+                }
+
+                fileNames.putIfAbsent(key, fileName);
+
+                Range<Int> location = intact
+                        ? record.location
+                        : BinaryStorageSupport.append(rebuilt, record.txId, record.key, record.json);
+
+                History valueHistory = new SkiplistMap();
+                valueHistory.put(record.txId, value);
+                history.put(key, valueHistory);
+
+                FileLayout  fileLayout  = storageLayout.computeIfAbsent(record.txId, () -> new HashMap());
+                EntryLayout entryLayout = fileLayout.computeIfAbsent(fileName, () -> new HashMap());
+                entryLayout.put(key, location);
+            }
+
+            Int fileSize;
+            if (intact) {
+                fileSize = file.size;
+            } else {
+                file.contents = rebuilt;
+                BinaryStorageSupport.deleteIndex(file);
+                fileSize = rebuilt.size;
+            }
+
+            storageOffset.put(fileName, fileSize);
+
+            totalFiles++;
+            totalBytes += fileSize;
+            totalKeys  += live.size;
+        }
+
+        sizeByTx.put(desired, totalKeys);
+
+        filesUsed  = totalFiles;
+        bytesUsed  = totalBytes;
+        lastCommit = desired;
+    }
+
+    /**
+     * The [recover] implementation for the binary format.
+     */
+    private Boolean recoverBinary(SkiplistMap<Int, Token[]> sealsByTxId) {
+        Map<String, Byte[]> recoveredContents;
+        Map<String, Int>    lastTxInFile;
+
+        if (!((recoveredContents, lastTxInFile) :=
+                recoverBinaryContents(sealsByTxId, "k", keyMapping, jsonSchema))) {
+            return False;
+        }
+
+        for ((Int txId, Token[] tokens) : sealsByTxId) {
+            using (val sealParser = new Parser(tokens.iterator())) {
+                using (val changeArrayParser = sealParser.expectArray()) {
+                    while (!changeArrayParser.eof) {
+                        using (val changeParser = changeArrayParser.expectObject()) {
+                            String fileName;
+
+                            changeParser.expectKey("k");
+
+                            Token[] keyTokens = changeParser.skip(new Token[]);
+                            using (ObjectInputStream stream =
+                                    new ObjectInputStream(jsonSchema, keyTokens.iterator())) {
+                                Key key = keyMapping.read(stream.ensureElementInput());
+
+                                fileName = nameForKey(key);
+                            }
+
+                            // apply just the missing transactions
+                            if (Int lastInFile := lastTxInFile.get(fileName),
+                                    lastInFile < txId || lastInFile == NO_TX) {
+                                assert Byte[] buf := recoveredContents.get(fileName);
+
+                                BinaryStorageSupport.append(buf, txId,
+                                        BinaryStorageSupport.toText(keyTokens),
+                                        changeParser.matchKey("v")
+                                            ? BinaryStorageSupport.toText(changeParser.skip(new Token[]))
+                                            : "");
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        for ((String fileName, Byte[] buf) : recoveredContents) {
+            File file = dataDir.fileFor(fileName);
+            file.contents = buf;
+            BinaryStorageSupport.deleteIndex(file);
+        }
+
+        return True;
+    }
+
+    /**
+     * Rebuild the content of the specified binary file.
+     */
+    private void rebuildBinaryFile(String fileName) {
+        File file = dataDir.fileFor(fileName);
+
+        assert file.exists;
+
+        Byte[] oldBytes = file.contents;
+        Byte[] newBytes = new Byte[](oldBytes.size);
+
+        for ((Int txId, FileLayout fileLayout) : storageLayout) {
+            if (EntryLayout entryLayout := fileLayout.get(fileName)) {
+                for ((Key key, Range<Int> entryRange) : entryLayout) {
+                    Int startPos = newBytes.size;
+
+                    newBytes.addAll(oldBytes[entryRange]);
+
+                    entryLayout.put(key, startPos ..< newBytes.size);
+                }
+            }
+        }
+
+        if (newBytes.empty) {
+            // all the keys were removed; remove the storage
+            removeFile(file, oldBytes.size);
+            return;
+        }
+
+        storageOffset.put(fileName, newBytes.size);
+
+        file.contents = newBytes;
+        BinaryStorageSupport.deleteIndex(file);
+
+        bytesUsed   += newBytes.size - oldBytes.size;
+        lastModified = file.modified;
+    }
+
+    /**
+     * Remove a data file that no longer holds any entries.
+     *
+     * @param file  the data file
+     * @param size  the size of the file
+     */
+    private void removeFile(File file, Int size) {
+        @Inject Clock clock;
+
+        file.delete();
+        BinaryStorageSupport.deleteIndex(file);
+        storageOffset.remove(file.name);
+
+        filesUsed--;
+        bytesUsed   -= size;
+        lastModified = clock.now;
+    }
+
+    /**
+     * Write the sidecar index for each binary data file, so that the next [loadInitial] only needs
+     * to read the latest record of each key.
+     */
+    private void writeIndexes() {
+        Map<String, Range<Int>[]> locationsByFile = new HashMap();
+        Set<String>               incomplete      = new HashSet();
+
+        for ((Key key, History valueHistory) : history) {
+            if (Int txId := valueHistory.floor(lastCommit),
+                    Value|Deletion value := valueHistory.get(txId), !value.is(Deletion)) {
+                String fileName = nameForKey(key);
+                if (FileLayout  fileLayout  := storageLayout.get(txId),
+                    EntryLayout entryLayout := fileLayout.get(fileName),
+                    Range<Int>  location    := entryLayout.get(key)) {
+                    locationsByFile.computeIfAbsent(fileName, () -> new Range<Int>[]).add(location);
+                } else {
+                    incomplete.add(fileName);
+                }
+            }
+        }
+
+        for ((String fileName, Int fileSize) : storageOffset) {
+            File file = dataDir.fileFor(fileName);
+            if (incomplete.contains(fileName)) {
+                BinaryStorageSupport.deleteIndex(file);
+            } else if (file.exists) {
+                BinaryStorageSupport.writeIndex(file, fileSize, locationsByFile.getOrDefault(fileName, []));
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -32,6 +32,10 @@ import TxManager.NO_TX;
  *
  * where a "s" (schedule) indicates a scheduling request (empty pids array means "unschedule")
  * and "p" (process) indicates an executed * processor action.
+ *
+ * When the [binary format](BinaryStorageSupport) is used, each record holds the "m" JSON text as
+ * its key and the "p" or "s" member as its value. Since the pending schedules are computed from
+ * all the records in a file, there is no sidecar index.
  */
 @Concurrent
 service JsonProcessorStore<Message extends immutable Const>
@@ -76,6 +80,16 @@ service JsonProcessorStore<Message extends immutable Const>
      */
     public/protected Mapping<Message> messageMapping;
 
+    /**
+     * The binary format support for the processor data files.
+     */
+    private static BinaryStorageSupport BinarySupport = new BinaryStorageSupport("m", Null);
+
+    @Override
+    protected BinaryStorageSupport? binarySupport.get() {
+        return BinarySupport;
+    }
+
     /**
      * The maximum size of queue data to store in any one chunk file of the processor data.
      * TODO this setting should be configurable (need a "Prefs" API)
@@ -455,7 +469,8 @@ service JsonProcessorStore<Message extends immutable Const>
 
         Int lastCommitId = NO_TX;
 
-        Map<String, StringBuffer> buffers = new HashMap();
+        Map<String, StringBuffer> buffers       = new HashMap();
+        Map<String, Byte[]>       binaryBuffers = new HashMap();
         for (Int writeId : writeIds) {
             // because the same array of writeIds are sent to all of the potentially enlisted
             // ObjectStore instances, it is possible that this ObjectStore has no changes for this
@@ -469,13 +484,18 @@ service JsonProcessorStore<Message extends immutable Const>
                 Int prepareId = tx.readId;
 
                 for ((Message message, String jsonEntry) : jsonProcessedEntries) {
-                    StringBuffer buf = buffers.computeIfAbsent(nameForKey(message),
-                            () -> new StringBuffer());
+                    String fileName = nameForKey(message);
 
                     // build the String that will be appended to the disk file; format is
                     //      {"tx":14, "m":{...}, "p":[...]}
                     assert String jsonMsg := jsonMessages.get(message);
-                    appendJsonEntry(buf, prepareId, jsonMsg, jsonEntry);
+                    if (format == Binary) {
+                        Byte[] buf = binaryBuffers.computeIfAbsent(fileName, () -> new Byte[]);
+                        BinaryStorageSupport.append(buf, prepareId, jsonMsg, jsonEntry);
+                    } else {
+                        StringBuffer buf = buffers.computeIfAbsent(fileName, () -> new StringBuffer());
+                        appendJsonEntry(buf, prepareId, jsonMsg, jsonEntry);
+                    }
                 }
 
                  // clean up processed schedules (they are no longer "pending")
@@ -486,13 +506,18 @@ service JsonProcessorStore<Message extends immutable Const>
                 }
 
                 for ((Message message, String jsonEntry) : jsonScheduledEntries) {
-                    StringBuffer buf = buffers.computeIfAbsent(nameForKey(message),
-                            () -> new StringBuffer());
+                    String fileName = nameForKey(message);
 
                     // build the String that will be appended to the disk file; format is
                     //      {"tx":14, "m":{...}, "s":[...]}
                     assert String jsonMsg := jsonMessages.get(message);
-                    appendJsonEntry(buf, prepareId, jsonMsg, jsonEntry);
+                    if (format == Binary) {
+                        Byte[] buf = binaryBuffers.computeIfAbsent(fileName, () -> new Byte[]);
+                        BinaryStorageSupport.append(buf, prepareId, jsonMsg, jsonEntry);
+                    } else {
+                        StringBuffer buf = buffers.computeIfAbsent(fileName, () -> new StringBuffer());
+                        appendJsonEntry(buf, prepareId, jsonMsg, jsonEntry);
+                    }
 
                     // register/unregister requests with the scheduler
                     if (Map<Message, PidSet> scheduleMods := scheduleModsByTx.get(prepareId)) {
@@ -531,6 +556,22 @@ service JsonProcessorStore<Message extends immutable Const>
         }
 
         if (lastCommitId != NO_TX || cleanupPending) {
+            for ((String fileName, Byte[] buf) : binaryBuffers) {
+                File file = dataDir.fileFor(fileName);
+
+                // binary records are simply appended to the disk file
+                if (file.exists && !cleanupPending) {
+                    file.append(buf);
+                } else {
+                    file.contents = buf;
+                    filesUsed++;
+                }
+
+                // update the stats
+                bytesUsed    += buf.size;
+                lastModified = file.modified;
+            }
+
             // the "for" loop below is an exact copy of the corresponding part from JsonMapStore
             for ((String fileName, StringBuffer buf) : buffers) {
                 // the JSON for entries data is inside an array, so "close" the array
@@ -616,10 +657,10 @@ service JsonProcessorStore<Message extends immutable Const>
         Int totalBytes = 0;
         Int totalFiles = 0;
 
-        for (File file : dataDir.files()) {
+        for (File file : findFiles()) {
             String  fileName   = file.name;
             Byte[]  bytes      = file.contents;
-            String  jsonStr    = bytes.unpackUtf8();
+            String  jsonStr    = format == Binary ? BinarySupport.toJson(bytes) : bytes.unpackUtf8();
             Boolean rebuild    = False;
             Parser  fileParser = new Parser(jsonStr.toReader());
 
@@ -785,7 +826,7 @@ service JsonProcessorStore<Message extends immutable Const>
                 buf[0] = '[';
 
                 String jsonNew  = buf.add('\n').add(']').toString();
-                Byte[] bytesNew = jsonNew.utf8();
+                Byte[] bytesNew = format == Binary ? BinarySupport.fromJson(jsonNew) : jsonNew.utf8();
 
                 file.contents = bytesNew;
 
@@ -800,6 +841,10 @@ service JsonProcessorStore<Message extends immutable Const>
     @Override
     @Synchronized
     Boolean recover(SkiplistMap<Int, Token[]> sealsByTxId) {
+        if (format == Binary) {
+            return recoverBinary(sealsByTxId);
+        }
+
         Map<String, StringBuffer> recoveredContents;
         Map<String, Int>          lastTxInFile;
 
@@ -998,6 +1043,61 @@ service JsonProcessorStore<Message extends immutable Const>
            .add('}');
     }
 
+    /**
+     * The [recover] implementation for the binary format.
+     */
+    private Boolean recoverBinary(SkiplistMap<Int, Token[]> sealsByTxId) {
+        Map<String, Byte[]> recoveredContents;
+        Map<String, Int>    lastTxInFile;
+
+        if (!((recoveredContents, lastTxInFile) :=
+                recoverBinaryContents(sealsByTxId, "m", messageMapping, jsonSchema))) {
+            return False;
+        }
+
+        for ((Int txId, Token[] tokens) : sealsByTxId) {
+            using (val sealParser = new Parser(tokens.iterator())) {
+                using (val changeArrayParser = sealParser.expectArray()) {
+                    while (!changeArrayParser.eof) {
+                        using (val changeParser = changeArrayParser.expectObject()) {
+                            String fileName;
+
+                            changeParser.expectKey("m");
+
+                            Token[] messageTokens = changeParser.skip(new Token[]);
+                            using (ObjectInputStream stream =
+                                    new ObjectInputStream(jsonSchema, messageTokens.iterator())) {
+                                Message message = messageMapping.read(stream.ensureElementInput());
+
+                                fileName = nameForKey(message);
+                            }
+
+                            // apply just the missing transactions
+                            if (Int lastInFile := lastTxInFile.get(fileName),
+                                    lastInFile < txId || lastInFile == NO_TX) {
+                                assert Byte[] buf := recoveredContents.get(fileName);
+
+                                String jsonMsg = BinaryStorageSupport.toText(messageTokens);
+                                for (String name : ["p", "s"]) {
+                                    if (changeParser.matchKey(name)) {
+                                        BinaryStorageSupport.append(buf, txId, jsonMsg,
+                                                $"\"{name}\":{BinaryStorageSupport.toText(changeParser.skip(new Token[]))}");
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        for ((String fileName, Byte[] buf) : recoveredContents) {
+            dataDir.fileFor(fileName).contents = buf;
+        }
+
+        return True;
+    }
+
     protected void rotateLog() {
         // TODO
 //        String timestamp   = clock.now.toString(True);
@@ -7,6 +7,8 @@ import json.Parser;
 
 import model.DboInfo;
 
+import storage.BinaryStorageSupport.Record;
+
 import TxManager.NO_TX;
 
 
@@ -22,6 +24,10 @@ import TxManager.NO_TX;
  *     ]
  *
  * where the "{...}" part is also what sealPrepare() will have returned.
+ *
+ * When the [binary format](BinaryStorageSupport) is used, the "value.bin" file holds one record
+ * per transaction with the "value" JSON text, and the sidecar index holds the location of the
+ * latest record.
  */
 @Concurrent
 service JsonValueStore<Value extends immutable Const>
@@ -60,11 +66,21 @@ service JsonValueStore<Value extends immutable Const>
      */
     public/protected Value initial;
 
+    /**
+     * The binary format support for the value data file.
+     */
+    private static BinaryStorageSupport BinarySupport = new BinaryStorageSupport(Null, "value");
+
+    @Override
+    protected BinaryStorageSupport? binarySupport.get() {
+        return BinarySupport;
+    }
+
     /**
      * The file used to store the data for the DBValue.
      */
-    @Lazy File dataFile.calc() {
-        return dataDir.fileFor("value.json");
+    File dataFile.get() {
+        return dataDir.fileFor($"value.{format.extension}");
     }
 
     @Concurrent
@@ -252,6 +268,11 @@ service JsonValueStore<Value extends immutable Const>
     void commit(Int[] writeIds) {
         assert !writeIds.empty;
 
+        if (format == Binary) {
+            commitBinary(writeIds);
+            return;
+        }
+
         if (cleanupPending) {
             // rebuild the contents of the file, keeping only the transactions that we need
             (String json, storageLayout) = rebuildJson(dataFile.contents.unpackUtf8(), storageLayout);
@@ -360,14 +381,20 @@ service JsonValueStore<Value extends immutable Const>
             storageLayout.remove(txId);
         };
 
-        if (processDiscarded(lastCommit, history.keys.iterator(), inUseTxIds.iterator(), discard)) {
+        // a forced clean-up also takes care of the transactions discarded by the previous calls
+        if (processDiscarded(lastCommit, history.keys.iterator(), inUseTxIds.iterator(), discard)
+                || cleanupPending) {
             if (force) {
                 using (new SynchronizedSection()) {
-                    (String json, storageLayout) =
-                        rebuildJson(dataFile.contents.unpackUtf8(), storageLayout);
-
-                    storageOffset += json.size - 2; // appends will occur before the closing "\n]"
-                    dataFile.contents = json.utf8();
+                    if (format == Binary) {
+                        rebuildBinaryFile();
+                    } else {
+                        (String json, storageLayout) =
+                            rebuildJson(dataFile.contents.unpackUtf8(), storageLayout);
+
+                        storageOffset = json.size - 2; // appends will occur before the closing "\n]"
+                        dataFile.contents = json.utf8();
+                    }
                 }
                 cleanupPending = False;
 
@@ -443,6 +470,11 @@ service JsonValueStore<Value extends immutable Const>
         Int     desired     = txManager.lastCommitted;
         assert desired != NO_TX && desired > 0;
 
+        if (format == Binary) {
+            loadBinary(desired);
+            return;
+        }
+
         Byte[] bytes      = file.contents;
         String jsonStr    = bytes.unpackUtf8();
         Parser fileParser = new Parser(jsonStr.toReader());
@@ -506,6 +538,10 @@ service JsonValueStore<Value extends immutable Const>
             return True;
         }
 
+        if (format == Binary) {
+            return deepScanBinary(fix);
+        }
+
         Boolean intact = False;
         val     byTx   = new SkiplistMap<Int, Range<Int>>();
         String jsonStr = "";
@@ -590,7 +626,14 @@ service JsonValueStore<Value extends immutable Const>
         assert Int     latest      := sealsByTxId.last();
         assert Token[] valueTokens := sealsByTxId.get(latest);
 
-        dataFile.contents = rebuildJson(latest, valueTokens).utf8();
+        if (format == Binary) {
+            Byte[] buf = new Byte[];
+            BinaryStorageSupport.append(buf, latest, "", BinaryStorageSupport.toText(valueTokens));
+            dataFile.contents = buf;
+            BinaryStorageSupport.deleteIndex(dataFile);
+        } else {
+            dataFile.contents = rebuildJson(latest, valueTokens).utf8();
+        }
         return True;
     }
 
@@ -660,10 +703,206 @@ service JsonValueStore<Value extends immutable Const>
         }
     }
 
+    @Override
+    void checkpoint() {
+        if (format == Binary && writeable && loaded && dataFile.exists) {
+            // the index allows the next load to skip over all the older records
+            if (Range<Int> location := storageLayout.get(lastCommit)) {
+                BinaryStorageSupport.writeIndex(dataFile, storageOffset, [location]);
+            } else {
+                BinaryStorageSupport.deleteIndex(dataFile);
+            }
+        }
+    }
+
     @Override
     void unload() {
+        checkpoint();
+
         inFlight.clear();
         history.clear();
         storageLayout.clear();
     }
+
+
+    // ----- binary format -------------------------------------------------------------------------
+
+    /**
+     * The [commit] implementation for the binary format.
+     */
+    private void commitBinary(Int[] writeIds) {
+        if (cleanupPending) {
+            rebuildBinaryFile();
+            cleanupPending = False;
+        }
+
+        Byte[] buf          = new Byte[];
+        Int    lastCommitId = NO_TX;
+        for (Int writeId : writeIds) {
+            if (Changes tx := peekTx(writeId)) {
+                assert tx.prepared, tx.sealed, String json ?= tx.json;
+
+                Int prepareId = tx.readId;
+                Int startPos  = storageOffset + buf.size;
+
+                BinaryStorageSupport.append(buf, prepareId, "", json);
+
+                // remember the transaction location
+                storageLayout.put(prepareId, startPos ..< storageOffset + buf.size);
+                lastCommitId = prepareId;
+            }
+        }
+
+        if (lastCommitId != NO_TX) {
+            File file = dataFile;
+            if (file.exists) {
+                file.append(buf);
+            } else {
+                file.contents = buf;
+            }
+            storageOffset += buf.size;
+
+            lastCommit = lastCommitId;
+
+            for (Int writeId : writeIds) {
+                inFlight.remove(writeId);
+            }
+
+            updateWriteStats();
+        }
+    }
+
+    /**
+     * The [loadInitial] implementation for the binary format. Only the latest record is read and
+     * deserialized; it is located using the sidecar index and a scan of the records appended after
+     * the index was written.
+     */
+    private void loadBinary(Int desired) {
+        File file = dataFile;
+
+        (Map<String, Record> latest, Boolean intact) = BinaryStorageSupport.loadLatest(file, desired);
+
+        Record record;
+        if (!(record := latest.get(""))) {
+            // the store doesn't have any valid data; nuke the file
+            file.delete();
+            BinaryStorageSupport.deleteIndex(file);
+            model = Empty;
+            initializeEmpty();
+            return;
+        }
+
+        Value value;
+        using (ObjectInputStream stream = new ObjectInputStream(jsonSchema, record.json.toReader())) {
+            value = valueMapping.read(stream.ensureElementInput());
+        }
+
+        // unlike the JSON format, the older records are left in place for the next cleanup, unless
+        // the file has a torn tail or records beyond the last commit
+        Range<Int> txLoc = record.location;
+        Int        size  = file.size;
+        if (!intact) {
+            Byte[] buf = new Byte[];
+            txLoc = BinaryStorageSupport.append(buf, record.txId, "", record.json);
+            size  = buf.size;
+
+            file.contents = buf;
+            BinaryStorageSupport.deleteIndex(file);
+            updateWriteStats();
+        }
+
+        history.put(record.txId, value);
+        storageLayout.put(record.txId, txLoc);
+        storageOffset = size;
+        lastCommit    = record.txId;
+    }
+
+    /**
+     * The [deepScan] implementation for the binary format.
+     */
+    private Boolean deepScanBinary(Boolean fix) {
+        File     file    = dataFile;
+        Byte[]   bytes   = file.contents;
+        Boolean  intact  = True;
+        Record[] records = new Record[];
+        Int      prevId  = -1;
+
+        (Record[] scanned, Int validSize) = BinaryStorageSupport.scan(bytes);
+        if (validSize < bytes.size) {
+            log($|During deepScan() of DBValue "{info.path}", encountered a corrupted record at\
+                 | offset {validSize}
+                 );
+            intact = False;
+        }
+
+        for (Record record : scanned) {
+            Int txId = record.txId;
+            if (!isReadTx(txId)) {
+                log($|During deepScan() of DBValue "{info.path}", encountered the\
+                     | illegal transaction ID {txId}
+                     );
+                intact = False;
+            } else if (txId <= prevId) {
+                log($|During deepScan() of DBValue "{info.path}", encountered an\
+                     | out-of-order transaction ID {txId}
+                     );
+                intact = False;
+            } else {
+                prevId   = txId;
+                records += record;
+            }
+        }
+
+        if (!intact && fix) {
+            try {
+                createBackup(file, move=True);
+                BinaryStorageSupport.deleteIndex(file);
+
+                if (records.empty) {
+                    log($|During deepScan() of DBValue "{info.path}", no data could be recovered,\
+                         | and the data file was deleted.
+                         );
+                } else {
+                    Byte[] buf = new Byte[](validSize);
+                    for (Record record : records) {
+                        buf.addAll(bytes[record.location]);
+                    }
+                    file.contents = buf;
+                    log($|During deepScan() of DBValue "{info.path}", {records.size} transactions were\
+                         | recovered.
+                         );
+                }
+
+                updateWriteStats();
+                return True;
+            } catch (Exception e) {
+                log($"During deepScan() of DBValue \"{info.path}\", encountered exception: {e}");
+            }
+        }
+
+        return intact;
+    }
+
+    /**
+     * Rebuild the binary data file, keeping only the transactions that are still in the
+     * [storageLayout].
+     */
+    private void rebuildBinaryFile() {
+        File   file     = dataFile;
+        Byte[] oldBytes = file.contents;
+        Byte[] newBytes = new Byte[](oldBytes.size);
+
+        SkiplistMap<Int, Range<Int>> newLayout = new SkiplistMap();
+        for ((Int txId, Range<Int> txLoc) : storageLayout) {
+            Int startPos = newBytes.size;
+            newBytes.addAll(oldBytes[txLoc]);
+            newLayout.put(txId, startPos ..< newBytes.size);
+        }
+
+        file.contents = newBytes;
+        BinaryStorageSupport.deleteIndex(file);
+
+        storageLayout = newLayout;
+        storageOffset = newBytes.size;
+    }
 }
\ No newline at end of file
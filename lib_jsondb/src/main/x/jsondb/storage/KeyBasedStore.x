@@ -23,7 +23,7 @@ mixin KeyBasedStore<Key extends Hashable>
      */
     protected String nameForKey(Key key) {
         return fileNames.computeIfAbsent(key, () -> {
-            return $"{computeURI(key)}.json";
+            return $"{computeURI(key)}.{format.extension}";
         });
 
         private String computeURI(Key key) {
@@ -53,29 +53,7 @@ mixin KeyBasedStore<Key extends Hashable>
             SkiplistMap<Int, Token[]> sealsByTxId,
             String keyName, Mapping<Key> keyMapping, json.Schema jsonSchema
             ) {
-        // first, collect all file name that are affected by the specifies seals.
-        Map<String, Int> lastSealByFile = new HashMap();
-
-        for ((Int txId, Token[] sealTokens) : sealsByTxId) {
-            using (val sealParser = new Parser(sealTokens.iterator())) {
-                using (val changeArrayParser = sealParser.expectArray()) {
-                    while (!changeArrayParser.eof) {
-                        using (val changeParser = changeArrayParser.expectObject()) {
-                            Key key;
-
-                            changeParser.expectKey(keyName);
-
-                            using (ObjectInputStream stream =
-                                    new ObjectInputStream(jsonSchema, changeParser)) {
-                                key = keyMapping.read(stream.ensureElementInput());
-                            }
-
-                            lastSealByFile.put(nameForKey(key), txId);
-                        }
-                    }
-                }
-            }
-        }
+        Map<String, Int> lastSealByFile = collectSealedFiles(sealsByTxId, keyName, keyMapping, jsonSchema);
 
         assert Int firstSeal := sealsByTxId.first();
 
@@ -154,6 +132,105 @@ mixin KeyBasedStore<Key extends Hashable>
         return True, recoveredContents, lastTxInFile;
     }
 
+    /**
+     * Analyze all binary store files for provided seals and find their valid contents, which is
+     * everything up to the first torn or corrupted record.
+     *
+     * @param sealsByTxId  a Map, keyed and ordered by transaction id, with the seal information
+     * @param keyName      the name of the key in the json docs used by this store
+     *
+     * @return True iff recovery was successful
+     * @return (conditional) a map of the valid contents per file name
+     * @return (conditional) a map of last transaction id per file name
+     */
+    conditional (Map<String, Byte[]>, Map<String, Int>) recoverBinaryContents(
+            SkiplistMap<Int, Token[]> sealsByTxId,
+            String keyName, Mapping<Key> keyMapping, json.Schema jsonSchema
+            ) {
+        Map<String, Int> lastSealByFile = collectSealedFiles(sealsByTxId, keyName, keyMapping, jsonSchema);
+
+        assert Int firstSeal := sealsByTxId.first();
+
+        Map<String, Byte[]> recoveredContents = new HashMap();
+        Map<String, Int>    lastTxInFile      = new HashMap();
+
+        for ((String fileName, Int lastSeal) : lastSealByFile) {
+            File   file       = dataDir.fileFor(fileName);
+            Byte[] buf        = new Byte[];
+            Int    lastInFile = NO_TX;
+
+            if (file.exists) {
+                Byte[] bytes = file.contents;
+
+                (BinaryStorageSupport.Record[] records, Int validSize) = BinaryStorageSupport.scan(bytes);
+                if (!records.empty) {
+                    lastInFile = records[records.size-1].txId;
+                }
+
+                if (lastInFile > lastSeal) {
+                    catalog.log($|File {fileName} contains transaction {lastInFile},\
+                                 | which is beyond the latest recovered transaction {lastSeal}
+                               );
+                    return False;
+                }
+
+                if (lastInFile == lastSeal) {
+                    continue;
+                }
+
+                if (validSize < bytes.size && lastInFile < firstSeal) {
+                    catalog.log($|File {fileName} is corrupted beyond transaction {lastInFile} and\
+                                 | may contain transaction data preceeding the earliest recovered\
+                                 | transaction {firstSeal}
+                               );
+                    return False;
+                }
+
+                buf.addAll(bytes[0 ..< validSize]);
+            }
+
+            recoveredContents.put(fileName, buf);
+            lastTxInFile     .put(fileName, lastInFile);
+        }
+
+        return True, recoveredContents, lastTxInFile;
+    }
+
+    /**
+     * Collect the names of all the files that are affected by the specified seals.
+     *
+     * @return a map of the last sealed transaction id per file name
+     */
+    private Map<String, Int> collectSealedFiles(
+            SkiplistMap<Int, Token[]> sealsByTxId,
+            String keyName, Mapping<Key> keyMapping, json.Schema jsonSchema
+            ) {
+        Map<String, Int> lastSealByFile = new HashMap();
+
+        for ((Int txId, Token[] sealTokens) : sealsByTxId) {
+            using (val sealParser = new Parser(sealTokens.iterator())) {
+                using (val changeArrayParser = sealParser.expectArray()) {
+                    while (!changeArrayParser.eof) {
+                        using (val changeParser = changeArrayParser.expectObject()) {
+                            Key key;
+
+                            changeParser.expectKey(keyName);
+
+                            using (ObjectInputStream stream =
+                                    new ObjectInputStream(jsonSchema, changeParser)) {
+                                key = keyMapping.read(stream.ensureElementInput());
+                            }
+
+                            lastSealByFile.put(nameForKey(key), txId);
+                        }
+                    }
+                }
+            }
+        }
+
+        return lastSealByFile;
+    }
+
     /**
      * Append a json record to the specified StringBuffer.
      */
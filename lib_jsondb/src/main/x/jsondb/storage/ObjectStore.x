@@ -85,7 +85,7 @@ service ObjectStore(Catalog catalog, DboInfo info)
     /**
      * True iff the ObjectStore is in a running state and has performed its initial load of data.
      */
-    private Boolean loaded = False;
+    protected Boolean loaded = False;
 
     /**
      * True iff the ObjectStore is permitted to write to persistent storage. Implementations of
@@ -158,6 +158,29 @@ service ObjectStore(Catalog catalog, DboInfo info)
      */
     public/protected StorageModel model = Empty;
 
+    /**
+     * * Json - The data files are JSON documents, which is the only format supported by all
+     *   ObjectStore implementations, and which also serves as the export and import format.
+     * * Binary - The data files are sequences of length-prefixed, checksummed records with a
+     *   sidecar index; see [BinaryStorageSupport].
+     */
+    enum StorageFormat(String extension) {Json("json"), Binary("bin")}
+
+    /**
+     * The format of the data files of this ObjectStore. It is determined when the storage is opened
+     * or recovered: the format of the existing data files takes precedence over the format
+     * preferred by the [Catalog].
+     */
+    public/protected StorageFormat format = Json;
+
+    /**
+     * The binary format support for this ObjectStore, or Null if the ObjectStore only supports the
+     * JSON format.
+     */
+    protected BinaryStorageSupport? binarySupport.get() {
+        return Null;
+    }
+
     /**
      * Statistics: The last time that the storage was accessed. Null indicates no record of access.
      *
@@ -334,12 +357,54 @@ service ObjectStore(Catalog catalog, DboInfo info)
     void close(Exception? cause = Null) {
         if (status == Running) {
             unload();
+            loaded = False;
         }
 
         status    = Closed;
         writeable = False;
     }
 
+    /**
+     * Convert the persistent data of this closed ObjectStore to the specified format; converting to
+     * the `Json` format exports the data in a human-readable form, and converting back to the
+     * `Binary` format imports it.
+     *
+     * @param newFormat  the format to convert to
+     *
+     * @return True iff the data is now stored in the specified format
+     *
+     * @throws IllegalState  if the ObjectStore is not `Closed`
+     */
+    @Synchronized
+    Boolean convertTo(StorageFormat newFormat) {
+        assert status == Closed as $"Illegal attempt to convert {info.name.quoted()} storage while {status}";
+
+        BinaryStorageSupport support;
+        if (!(support ?= binarySupport)) {
+            return newFormat == Json;
+        }
+
+        format = detectFormat();
+        if (format != newFormat) {
+            Directory dir = dataDir;
+            for (File file : findFiles()) {
+                String name   = file.name;
+                String prefix = name[0 ..< name.size - format.extension.size];
+                File   target = dir.fileFor(prefix + newFormat.extension);
+
+                if (format == Binary) {
+                    target.contents = support.toJson(file.contents).utf8();
+                    BinaryStorageSupport.deleteIndex(file);
+                } else {
+                    target.contents = support.fromJson(file.contents.unpackUtf8());
+                }
+                file.delete();
+            }
+            format = newFormat;
+        }
+        return True;
+    }
+
     /**
      * Delete the contents of the ObjectStore's persistent data.
      */
@@ -642,6 +707,36 @@ service ObjectStore(Catalog catalog, DboInfo info)
         TODO
     }
 
+    /**
+     * Compact the persistent storage of this ObjectStore, by rewriting its data files to only hold
+     * the transactions that are still in use, and the latest version of the data.
+     *
+     * @param inUseTxIds  an ordered set of read transaction ids whose information needs to be
+     *                    retained by the `ObjectStore`
+     *
+     * @return the number of bytes reclaimed
+     */
+    @Synchronized
+    Int compact(OrderedSet<Int> inUseTxIds) {
+        if (status != Running || !writeable || !loaded) {
+            return 0;
+        }
+
+        Int bytesBefore = bytesUsed;
+        retainTx(inUseTxIds, force=True);
+        checkpoint();
+        return (bytesBefore - bytesUsed).notLessThan(0);
+    }
+
+    /**
+     * Persist any state that would speed up the next load of this ObjectStore, such as the index
+     * files of the binary storage format. This is called periodically by the [Compactor], and when
+     * the database is closed.
+     */
+    @Synchronized
+    void checkpoint() {
+    }
+
 
     // ----- IO handling ---------------------------------------------------------------------------
 
@@ -652,7 +747,32 @@ service ObjectStore(Catalog catalog, DboInfo info)
      */
     @Synchronized
     Iterator<File> findFiles() {
-        return dataDir.files().filter(f -> f.name.endsWith(".json")).toArray().iterator();
+        String extension = $".{format.extension}";
+        return dataDir.files().filter(f -> f.name.endsWith(extension)).toArray().iterator();
+    }
+
+    /**
+     * Determine the format of the persistent data: the format of any existing data files, or the
+     * format preferred by the Catalog for a storage that has no data yet.
+     *
+     * @return the storage format to use
+     */
+    @Synchronized
+    protected StorageFormat detectFormat() {
+        if (binarySupport == Null) {
+            return Json;
+        }
+
+        for (File file : dataDir.files()) {
+            String name = file.name;
+            if (name.endsWith(".bin")) {
+                return Binary;
+            }
+            if (name.endsWith(".json")) {
+                return Json;
+            }
+        }
+        return catalog.storageFormat;
     }
 
     /**
@@ -664,6 +784,7 @@ service ObjectStore(Catalog catalog, DboInfo info)
      */
     @Synchronized
     Boolean quickScan() {
+        format       = detectFormat();
         model        = Empty;
         filesUsed    = 0;
         bytesUsed    = 0;
@@ -903,7 +1024,12 @@ service ObjectStore(Catalog catalog, DboInfo info)
             if (loadNextPresent) {
                 if (presentId := eachPresent.next()) {
                     if (presentId >= lastCommit) {
-                        // we need to keep this one (it's our "current" history), so we're done
+                        // we need to keep this one (it's our "current" history), so we're done;
+                        // the previous one is only still needed if a transaction in use reads it
+                        if (discardCandidate >= 0 && presentId == inUseId) {
+                            discard(discardCandidate);
+                            discarded = True;
+                        }
                         return discarded;
                     }
                 } else {
@@ -924,7 +1050,8 @@ service ObjectStore(Catalog catalog, DboInfo info)
                         inUseId = lastCommit;
                     }
                 } else {
-                    return discarded;
+                    // the rest of the history is only visible as of the last commit
+                    inUseId = lastCommit;
                 }
             }
         }
@@ -102,4 +102,38 @@ interface Body
     void streamBodyFrom(InputStream source) {
         bytes = source.readBytes(source.size);
     }
+
+    /**
+     * In order to _send_ the body as a stream of bytes, the sender can use this method to pull the
+     * body in chunks, instead of obtaining all of the [bytes] at once.
+     *
+     * By using this method, it may be possible for the body to be streamed without having to buffer
+     * the entire body in memory; a Body implementation that doesn't hold its contents in memory
+     * (for example, the contents of a file) should override this method to produce each chunk only
+     * as it is requested.
+     *
+     * @param chunkSize  the maximum size of each chunk
+     *
+     * @return an Iterator of the non-empty chunks that comprise the body
+     */
+    Iterator<Byte[]> chunks(Int chunkSize) {
+        assert:arg chunkSize > 0;
+
+        Byte[] bytes = this.bytes;
+        Int    size  = bytes.size;
+        return new Iterator<Byte[]>() {
+            Int offset = 0;
+
+            @Override conditional Byte[] next() {
+                if (offset >= size) {
+                    return False;
+                }
+
+                Int end = (offset + chunkSize).notGreaterThan(size);
+                Byte[] chunk = bytes[offset ..< end];
+                offset = end;
+                return True, chunk;
+            }
+        };
+    }
 }
\ No newline at end of file
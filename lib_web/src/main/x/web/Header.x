@@ -35,6 +35,7 @@ interface Header
     static String IfUnmodifiedSince      = "If-Unmodified-Since";
     static String LastModified           = "Last-Modified";
     static String Location               = "Location";
+    static String TransferEncoding       = "Transfer-Encoding";
     static String UserAgent              = "User-Agent";
     static String Vary                   = "Vary";
     static String WWWAuthenticate        = "WWW-Authenticate";
@@ -1,6 +1,6 @@
 import ecstasy.fs.FileNode;
 
-import responses.SimpleResponse;
+import responses.FileResponse;
 
 
 /**
@@ -20,7 +20,7 @@ mixin StaticContent(String path, FileNode fileNode, MediaType? mediaType=Null,
     conditional ResponseOut getResource(String path) {
         ResponseOut createResponse(File file) {
             if (MediaType mediaType := webApp.registry_.findMediaType(file.name)) {
-                return new SimpleResponse(OK, mediaType, file.contents);
+                return new FileResponse(file, mediaType);
             }
             throw new RequestAborted(NoContent, $"Unknown media type for {file.name}");
         }
@@ -0,0 +1,56 @@
+/**
+ * The representation of an HTTP response containing the contents of a file. The contents are read
+ * from the file one chunk at a time as the response is being sent, so that sending a large file
+ * does not require holding all of it in memory.
+ */
+@AutoFreezable
+class FileResponse
+        extends SimpleResponse {
+
+    construct(File file, MediaType mediaType, HttpStatus status = OK) {
+        construct SimpleResponse(status, mediaType);
+
+        this.file = file;
+    }
+
+    /**
+     * The file that holds the body.
+     */
+    File file;
+
+
+    // ----- Body interface ------------------------------------------------------------------------
+
+    @Override
+    conditional Int knownSize() {
+        return True, file.size;
+    }
+
+    @Override
+    Byte[] bytes.get() {
+        // note: this reads the entire file into memory; use the chunks() method to avoid that
+        return file.contents;
+    }
+
+    @Override
+    Iterator<Byte[]> chunks(Int chunkSize) {
+        assert:arg chunkSize > 0;
+
+        File file = this.file;
+        Int  size = file.size;
+        return new Iterator<Byte[]>() {
+            Int offset = 0;
+
+            @Override conditional Byte[] next() {
+                if (offset >= size) {
+                    return False;
+                }
+
+                Int end = (offset + chunkSize).notGreaterThan(size);
+                Byte[] chunk = file.read(offset ..< end);
+                offset = end;
+                return True, chunk;
+            }
+        };
+    }
+}
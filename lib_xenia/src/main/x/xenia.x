@@ -87,18 +87,21 @@ module xenia.xtclang.org {
      * @param httpPort   the port for plain text (insecure) communications
      * @param httpsPort  the port for encrypted (tls) communications
      * @param keystore   the keystore to use for tls certificates and encryption
+     * @param sessions   (optional) the store to keep the sessions in across server restarts, such
+     *                   as a [FileSessionStore]; by default, the sessions are only kept in memory
      *
      * @return a function that allows to shutdown the server
      */
     function void () createServer(WebApp webApp,
                                   String hostName, String bindAddr,
                                   UInt16 httpPort, UInt16 httpsPort,
-                                  KeyStore keystore) {
+                                  KeyStore keystore,
+                                  SessionStore? sessions = Null) {
         @Inject HttpServer server;
 
         server.configure(hostName, bindAddr, httpPort, httpsPort, keystore);
 
-        HttpHandler handler = new HttpHandler(server, webApp);
+        HttpHandler handler = new HttpHandler(server, webApp, sessions);
 
         server.start(handler);
 
@@ -27,7 +27,8 @@ import net.UriTemplate;
 /**
  * The catalog of WebApp endpoints.
  */
-const Catalog(WebApp webApp, String systemPath, WebServiceInfo[] services, Class[] sessionMixins) {
+const Catalog(WebApp webApp, String systemPath, WebServiceInfo[] services, Class[] sessionMixins,
+              Router router) {
     /**
      * The list of [WebServiceInfo] objects describing the [WebService] classes discovered within
      * the application.
@@ -39,6 +40,11 @@ const Catalog(WebApp webApp, String systemPath, WebServiceInfo[] services, Class
      */
     Class[] sessionMixins;
 
+    /**
+     * The [Router] precompiled from the service paths and endpoint templates.
+     */
+    Router router;
+
     /**
      * The total number of WebServices.
      */
@@ -261,7 +267,8 @@ const Catalog(WebApp webApp, String systemPath, WebServiceInfo[] services, Class
         WebServiceInfo[] webServiceInfos = collectEndpoints(app, classInfos);
         assert webServiceInfos[0].path == systemPath;
 
-        return new Catalog(app, systemPath, webServiceInfos, sessionMixins);
+        return new Catalog(app, systemPath, webServiceInfos, sessionMixins,
+                           new Router(webServiceInfos));
     }
 
     /**
@@ -424,11 +431,12 @@ const Catalog(WebApp webApp, String systemPath, WebServiceInfo[] services, Class
                                         serviceTls, serviceTrust,
                                         serviceProduces, serviceConsumes, serviceSubjects,
                                         serviceStreamRequest, serviceStreamResponse);
-                    if (templates.addIfAbsent(info.template.toString())) {
+                    if (templates.addIfAbsent($"{info.httpMethod.name} {info.template}")) {
                         endpoints.add(info);
                     } else {
                         throw new IllegalState($|WebService "{clz}": a duplicate use of template \
-                                                |"{info.template}" by the endpoint "{method}"
+                                                |"{info.template}" by the {info.httpMethod.name} \
+                                                |endpoint "{method}"
                                                 );
                     }
                     break;
@@ -34,6 +34,7 @@ service Dispatcher {
         this.catalog             = catalog;
         this.bundlePool          = bundlePool;
         this.sessionManager      = sessionManager;
+        this.sessionShards       = sessionManager.shards;
         this.plainTextCookieName = sessionManager.plainTextCookieName;
         this.encryptedCookieName = sessionManager.encryptedCookieName;
         this.consentCookieName   = sessionManager.consentCookieName;
@@ -55,6 +56,12 @@ service Dispatcher {
      */
     protected @Final SessionManager sessionManager;
 
+    /**
+     * The session shards (copied from the session manager), which allow the session cookies to be
+     * looked up without going through the session manager.
+     */
+    protected @Final SessionShard[] sessionShards;
+
     /**
      * The name of the session cookie for non-TLS traffic (copied from the session manager).
      */
@@ -91,33 +98,12 @@ service Dispatcher {
                  ) {
 
         FromTheTop: while (True) {
-            // select the service to delegate request processing to; the service infos are sorted
-            // with the most specific path first (so the first path match wins)
-            Int             uriSize     = uriString.size;
+            // select the service to delegate request processing to; the router picks the most
+            // specific service path and strips it from the URI
             WebServiceInfo? serviceInfo = Null;
-            for (WebServiceInfo info : catalog.services) {
-                // the info.path, which represents a "directory", never ends with '/' (see Catalog),
-                // but a legitimately matching uriString may or may not have '/' at the end; for
-                // example: if the path is "test", then uri values such as "test/s", "test/" and
-                // "test" should all match (the last two would be treated as equivalent), but
-                // "tests" should not
-
-                String path     = info.path;
-                Int    pathSize = path.size;
-                if (uriSize == pathSize) {
-                    if (uriString == path) {
-                        serviceInfo = info;
-                        uriString   = "";
-                        break;
-                    }
-                } else if (pathSize == 1) { // root path ("/") matches everything
-                    serviceInfo = info;
-                    uriString   = uriString.substring(1);
-                } else if (uriSize > pathSize && uriString[pathSize] == '/' && uriString.startsWith(path)) {
-                    serviceInfo = info;
-                    uriString   = uriString.substring(pathSize + 1);
-                    break;
-                }
+            if ((WebServiceInfo info, String remainder) := catalog.router.findService(uriString)) {
+                serviceInfo = info;
+                uriString   = remainder;
             }
 
             RequestInfo         requestInfo = new RequestInfo(httpServer, context, tls);
@@ -177,12 +163,8 @@ service Dispatcher {
                         break ProcessRequest;
                     }
 
-                    for (EndpointInfo eachEndpoint : serviceInfo.endpoints) {
-                        if (eachEndpoint.httpMethod.name == methodName,
-                                uriParams := eachEndpoint.template.matches(uri)) {
-                            endpoint = eachEndpoint;
-                            break FindEndpoint;
-                        }
+                    if ((endpoint, uriParams) := catalog.router.findEndpoint(wsid, methodName, uri)) {
+                        break FindEndpoint;
                     }
 
                     if (EndpointInfo defaultEndpoint ?= serviceInfo.defaultEndpoint) {
@@ -335,10 +317,7 @@ service Dispatcher {
 
                     httpServer.send(context, HttpStatus.InternalServerError.code, [], [], []);
                 } else {
-                    (Int status, String[] names, String[] values, Byte[] body) =
-                        Http1Response.prepare(r);
-
-                    httpServer.send(context, status, names, values, body);
+                    Http1Response.send(httpServer, context, r);
                 }
             });
 
@@ -362,7 +341,7 @@ service Dispatcher {
                 for (String cookie : cookieHeader.split(';')) {
                     if (Int      delim    := cookie.indexOf('='),
                         CookieId cookieId := lookupCookie(cookie[0 ..< delim].trim())) {
-                        if (SessionImpl session := sessionManager.getSessionByCookie(
+                        if (SessionImpl session := getSessionByCookie(
                                 cookie.substring(delim+1).trim())) {
                             return session;
                         } else {
@@ -442,7 +421,7 @@ service Dispatcher {
             // session, but the only obvious thing to do at this point is to delete the unacceptable
             // cookies and start over
             SessionImpl? sessionNoTls = Null;
-            sessionNoTls := sessionManager.getSessionByCookie(txtTemp?);
+            sessionNoTls := getSessionByCookie(txtTemp?);
 
             for (CookieId cookieId : CookieId.from(illegal)) {
                 String cookie = switch (cookieId) {
@@ -451,7 +430,7 @@ service Dispatcher {
                     case Consent:   consent;
                 } ?: assert as $"missing {cookieId} cookie";
 
-                if (SessionImpl session := sessionManager.getSessionByCookie(cookie)) {
+                if (SessionImpl session := getSessionByCookie(cookie)) {
                     if (sessionNoTls?.internalId_ != session.internalId_) {
                         // the sessions are different, so report to both sessions that the other
                         // cookie was for the wrong session
@@ -493,9 +472,9 @@ service Dispatcher {
         }
 
         // look up the session by each of the available cookies
-        SessionImpl? txtSession = sessionManager.getSessionByCookie(txtTemp?)? : Null;
-        SessionImpl? tlsSession = sessionManager.getSessionByCookie(tlsTemp?)? : Null;
-        SessionImpl? conSession = sessionManager.getSessionByCookie(consent?)? : Null;
+        SessionImpl? txtSession = getSessionByCookie(txtTemp?)? : Null;
+        SessionImpl? tlsSession = getSessionByCookie(tlsTemp?)? : Null;
+        SessionImpl? conSession = getSessionByCookie(consent?)? : Null;
 
         // common case: there's a persistent session that we found, but there was already a
         // temporary session created with a plain text cookie before the user agent connected over
@@ -756,7 +735,7 @@ service Dispatcher {
                 continue;
             }
 
-            if (SessionImpl current := sessionManager.getSessionByCookie(cookieText)) {
+            if (SessionImpl current := getSessionByCookie(cookieText)) {
                 if (session == Null) {
                     session = current;
                 } else if (session.internalId_ != current.internalId_) {
@@ -795,6 +774,20 @@ service Dispatcher {
                 : (True, session, redirect);
     }
 
+    /**
+     * Look up the session by the specified cookie, using the shard that indexes the cookie.
+     *
+     * @param cookieText  the cookie value's text from the header
+     *
+     * @return `True` iff the session exists
+     * @return (conditional) the session
+     */
+    private conditional SessionImpl getSessionByCookie(String cookieText) {
+        SessionShard[] shards = sessionShards;
+        return shards[SessionManager.cookieShardIndex(cookieText, shards.size)]
+                .getSessionByCookie(cookieText);
+    }
+
     /**
      * Using the request information, create a new session object.
      *
@@ -0,0 +1,296 @@
+import json.Doc;
+import json.Parser;
+import json.Printer;
+
+import net.IPAddress;
+
+import web.CookieConsent;
+import web.TrustLevel;
+
+import SessionStore.IOResult;
+
+
+/**
+ * A [SessionStore] that keeps each session as a JSON file in the specified directory.
+ *
+ * The store is write-behind: the [store] and [erase] operations only record the change, and the
+ * changes are written to disk in a batch once the `writeDelay` passes, so that neither the request
+ * processing nor the [SessionManager] ever wait for the disk; repeated changes to the same session
+ * within that period result in a single write. Pending changes are visible to [exists] and [load]
+ * immediately, and the [flush] method writes them out without waiting for the delay. A change that
+ * fails to be written is kept, and the write is retried once the delay passes again.
+ *
+ * @param dir         the directory to keep the session files in
+ * @param writeDelay  how long to hold the changes before writing them to disk
+ */
+service FileSessionStore(Directory dir, Duration writeDelay = Duration:5s)
+        extends SessionStore {
+    // ----- properties ----------------------------------------------------------------------------
+
+    @Inject Timer timer;
+
+    /**
+     * The changes that have not been written yet, keyed by the session id; a `Null` value
+     * indicates an erased session.
+     */
+    protected/private Map<Int, SessionData?> pending = new HashMap();
+
+    /**
+     * The timer-cancel for the scheduled flush.
+     */
+    protected/private Timer.Cancellable? cancelFlush;
+
+    @Override
+    Boolean persistent.get() = True;
+
+
+    // ----- session persistence -------------------------------------------------------------------
+
+    @Override
+    Boolean exists(Int id) {
+        if (SessionData? data := pending.get(id)) {
+            return data != Null;
+        }
+        return fileFor(id).exists;
+    }
+
+    @Override
+    SessionData|IOResult load(Int id) {
+        if (SessionData? data := pending.get(id)) {
+            return data ?: NoSuchSession;
+        }
+
+        File file = fileFor(id);
+        if (!file.exists) {
+            return NoSuchSession;
+        }
+
+        String text;
+        try {
+            text = file.contents.unpackUtf8();
+        } catch (Exception e) {
+            log($"Failed to read session {id}: {e}");
+            return IOFailure;
+        }
+
+        try {
+            using (Parser parser = new Parser(text.toReader())) {
+                return fromDoc(parser.parseDoc());
+            }
+        } catch (Exception e) {
+            log($"Failed to parse session {id}: {e}");
+            return SerializationFailure;
+        }
+    }
+
+    @Override
+    IOResult store(SessionData session) {
+        pending.put(session.id, session);
+        scheduleFlush();
+        return Success;
+    }
+
+    @Override
+    IOResult erase(Int id) {
+        pending.put(id, Null);
+        scheduleFlush();
+        return Success;
+    }
+
+    @Override
+    IOResult flush() {
+        cancelFlush?();
+        cancelFlush = Null;
+
+        if (pending.empty) {
+            return Success;
+        }
+
+        Map<Int, SessionData?> writes = pending;
+        pending = new HashMap();
+
+        try {
+            dir.ensure();
+        } catch (Exception e) {
+            log($"Failed to create the session directory {dir}: {e}");
+            for ((Int id, SessionData? data) : writes) {
+                requeue(id, data);
+            }
+            return IOFailure;
+        }
+
+        IOResult result = Success;
+        for ((Int id, SessionData? data) : writes) {
+            File file = fileFor(id);
+            try {
+                if (data == Null) {
+                    if (file.exists) {
+                        file.delete();
+                    }
+                } else {
+                    file.contents = Printer.DEFAULT.render(toDoc(data)).utf8();
+                }
+            } catch (Exception e) {
+                log($"Failed to write session {id}: {e}");
+                requeue(id, data);
+                result = IOFailure;
+            }
+        }
+        return result;
+    }
+
+
+    // ----- internal ------------------------------------------------------------------------------
+
+    /**
+     * Make sure that the pending changes are written once the `writeDelay` passes.
+     */
+    protected void scheduleFlush() {
+        if (cancelFlush == Null) {
+            cancelFlush = timer.schedule(writeDelay, () -> {
+                cancelFlush = Null;
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Put back a change that failed to be written, so that the write is retried once the
+     * `writeDelay` passes; a change that has been made to the same session since then supersedes
+     * the failed one.
+     *
+     * @param id    the session id
+     * @param data  the session data, or `Null` for an erased session
+     */
+    protected void requeue(Int id, SessionData? data) {
+        pending.putIfAbsent(id, data);
+        scheduleFlush();
+    }
+
+    /**
+     * @param id  the session id
+     *
+     * @return the file that holds the specified session
+     */
+    protected File fileFor(Int id) {
+        return dir.fileFor($"{id}.json");
+    }
+
+    /**
+     * Convert the session data to a JSON document.
+     */
+    static Doc toDoc(SessionData data) {
+        return Map<String, Doc>:[
+            "id"                = data.id.toIntLiteral(),
+            "created"           = data.created.toString(True),
+            "lastUse"           = data.lastUse.toString(True),
+            "requestCount"      = data.requestCount.toIntLiteral(),
+            "version"           = data.version.toIntLiteral(),
+            "versionChanged"    = data.versionChanged.toString(True),
+            "knownCookies"      = data.knownCookies.toIntLiteral(),
+            "cookies"           = new Doc[data.cookies.size](i -> data.cookies[i]),
+            "cookiesSent"       = toDocs(data.cookiesSent),
+            "cookiesVerified"   = toDocs(data.cookiesVerified),
+            "prevTLS"           = data.prevTLS,
+            "abandoned"         = data.abandoned,
+            "ipAddress"         = data.ipAddress.toString(),
+            "userAgent"         = data.userAgent,
+            "exclusiveAgent"    = data.exclusiveAgent,
+            "cookieConsent"     = data.cookieConsent.toString(),
+            "trustLevel"        = data.trustLevel.name,
+            "userId"            = data.userId,
+            "lastAuthenticated" = data.lastAuthenticated?.toString(True) : Null,
+            "roles"             = new Doc[data.roles.size](i -> data.roles[i]),
+            "complete"          = data.complete,
+        ];
+    }
+
+    /**
+     * Convert the optional times to a JSON array.
+     */
+    static Doc[] toDocs(Time?[] times) {
+        return new Doc[times.size](i -> times[i]?.toString(True) : Null);
+    }
+
+    /**
+     * Convert a JSON document produced by [toDoc] back to the session data.
+     */
+    static SessionData fromDoc(Doc doc) {
+        assert doc.is(Map<String, Doc>);
+        Map<String, Doc> fields = doc;
+
+        function Doc(String) docOf = name -> {
+            assert Doc value := fields.get(name) as $"Missing {name.quoted()}";
+            return value;
+        };
+
+        function Int(String) intOf = name -> {
+            Doc value = docOf(name);
+            assert value.is(IntLiteral);
+            return value.toInt64();
+        };
+
+        function String(String) stringOf = name -> {
+            Doc value = docOf(name);
+            assert value.is(String);
+            return value;
+        };
+
+        function String?(String) nullableOf = name -> {
+            // the null values are not written out
+            Doc value = fields.getOrNull(name);
+            return value.is(String) ? value : Null;
+        };
+
+        function Boolean(String) booleanOf = name -> {
+            Doc value = docOf(name);
+            assert value.is(Boolean);
+            return value;
+        };
+
+        function String?[](String) stringsOf = name -> {
+            Doc values = docOf(name);
+            assert values.is(Doc[]);
+            return new String?[values.size](i -> {
+                Doc value = values[i];
+                return value.is(String) ? value : Null;
+            });
+        };
+
+        function Time?[](String) timesOf = name -> {
+            String?[] values = stringsOf(name);
+            return new Time?[values.size](i -> {
+                String? value = values[i];
+                return value == Null ? Null : new Time(value);
+            });
+        };
+
+        assert TrustLevel trustLevel := TrustLevel.byName.get(stringOf("trustLevel"));
+        String?[] roles = stringsOf("roles");
+
+        String? lastAuthenticated = nullableOf("lastAuthenticated");
+        return new SessionData(
+                id                = intOf("id"),
+                created           = new Time(stringOf("created")),
+                lastUse           = new Time(stringOf("lastUse")),
+                requestCount      = intOf("requestCount"),
+                version           = intOf("version"),
+                versionChanged    = new Time(stringOf("versionChanged")),
+                knownCookies      = intOf("knownCookies"),
+                cookies           = stringsOf("cookies"),
+                cookiesSent       = timesOf("cookiesSent"),
+                cookiesVerified   = timesOf("cookiesVerified"),
+                prevTLS           = booleanOf("prevTLS"),
+                abandoned         = booleanOf("abandoned"),
+                ipAddress         = new IPAddress(stringOf("ipAddress")),
+                userAgent         = stringOf("userAgent"),
+                exclusiveAgent    = booleanOf("exclusiveAgent"),
+                cookieConsent     = new CookieConsent(stringOf("cookieConsent")),
+                trustLevel        = trustLevel,
+                userId            = nullableOf("userId"),
+                lastAuthenticated = lastAuthenticated == Null ? Null : new Time(lastAuthenticated),
+                roles             = new String[roles.size](i -> roles[i] ?: assert),
+                complete          = booleanOf("complete"),
+        );
+    }
+}
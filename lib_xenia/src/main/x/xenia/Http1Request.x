@@ -1,5 +1,7 @@
 import ecstasy.collections.CaseInsensitive;
 
+import ecstasy.io.EndOfFile;
+
 import net.UriTemplate;
 import net.UriTemplate.UriParameters;
 
@@ -25,17 +27,27 @@ const Http1Request(RequestInfo info, UriParameters matchResult)
         implements Body {
 
     assert() {
-        // TODO handle non-simple bodies e.g. multi-part, streaming
+        // TODO handle non-simple bodies e.g. multi-part
         assert !info.containsNestedBodies();
-        if (Byte[] bytes := info.getBodyBytes()) {
-            this.hasBody = True;
-            this.bytes   = bytes;
 
+        // the presence of the body is determined by the headers, so the body itself is not read
+        // until it's asked for, which allows it to be streamed
+        Int     size    = 0;
+        Boolean hasBody = False;
+        if (String[] lengths := info.getHeaderValuesForName(Header.ContentLength)) {
+            size    = new Int(lengths[0].trim());
+            hasBody = size > 0;
+        } else if (info.getHeaderValuesForName(Header.TransferEncoding)) {
+            size    = -1;
+            hasBody = True;
+        }
+
+        this.hasBody  = hasBody;
+        this.bodySize = size;
+        if (hasBody) {
             assert String[] contentTypes := info.getHeaderValuesForName(Header.ContentType);
             assert mediaType := MediaType.of(contentTypes[0]);
         } else {
-            this.hasBody   = False;
-            this.bytes     = [];
             this.mediaType = Text;  // whatever
         }
     }
@@ -45,6 +57,16 @@ const Http1Request(RequestInfo info, UriParameters matchResult)
      */
     protected Boolean hasBody;
 
+    /**
+     * The body size as specified by the `Content-Length` header, or `-1` if it's not known.
+     */
+    protected Int bodySize;
+
+    /**
+     * The size of the chunks the body is streamed in.
+     */
+    static Int ChunkSize = 64K;
+
 
     // ----- HttpMessage interface -----------------------------------------------------------------
 
@@ -270,11 +292,105 @@ const Http1Request(RequestInfo info, UriParameters matchResult)
     @Override
     MediaType mediaType;
 
+    /**
+     * The body bytes are read when first asked for; note that once any part of the body has been
+     * streamed using [bodyReader] or [streamBodyTo], only the rest of it is available.
+     */
     @Override
-    Byte[] bytes;
+    @Lazy Byte[] bytes.calc() {
+        if (hasBody, Byte[] bytes := info.getBodyBytes()) {
+            return bytes;
+        }
+        return [];
+    }
+
+    @Override
+    conditional Int knownSize() {
+        return bodySize >= 0 ? (True, bodySize) : False;
+    }
 
     @Override
     Body from(Object content) {
         throw new ReadOnly();
     }
+
+    @Override
+    BinaryInput bodyReader() {
+        return hasBody ? new BodyInput(info) : new ecstasy.io.ByteArrayInputStream([]);
+    }
+
+    @Override
+    void streamBodyTo(BinaryOutput receiver) {
+        if (hasBody) {
+            while (Byte[] chunk := info.readBodyChunk(ChunkSize)) {
+                receiver.writeBytes(chunk);
+            }
+        }
+    }
+
+
+    // ----- BodyInput -----------------------------------------------------------------------------
+
+    /**
+     * A [BinaryInput] that reads the request body from the server one chunk at a time.
+     */
+    protected static class BodyInput(RequestInfo info)
+            implements BinaryInput {
+        /**
+         * The current chunk.
+         */
+        private Byte[] chunk = [];
+
+        /**
+         * The offset of the next byte in the current chunk.
+         */
+        private Int offset;
+
+        /**
+         * True once the entire body has been read.
+         */
+        private Boolean eof;
+
+        @Override
+        Byte readByte() {
+            if (offset >= chunk.size && !nextChunk()) {
+                throw new EndOfFile();
+            }
+            return chunk[offset++];
+        }
+
+        @Override
+        void readBytes(Byte[] bytes, Int offset, Int count) {
+            assert:arg offset >= 0 && count >= 0 && offset + count <= bytes.size;
+
+            Int last = offset + count;
+            while (offset < last) {
+                if (this.offset >= chunk.size && !nextChunk()) {
+                    throw new EndOfFile();
+                }
+
+                Int copy = (last - offset).notGreaterThan(chunk.size - this.offset);
+                for (Int i = 0; i < copy; ++i) {
+                    bytes[offset++] = chunk[this.offset++];
+                }
+            }
+        }
+
+        /**
+         * Read the next chunk of the body.
+         *
+         * @return False iff the entire body has already been read
+         */
+        private Boolean nextChunk() {
+            if (!eof) {
+                if (Byte[] next := info.readBodyChunk(ChunkSize)) {
+                    chunk  = next;
+                    offset = 0;
+                    return True;
+                }
+                eof = True;
+            }
+            return False;
+        }
+    }
 }
\ No newline at end of file
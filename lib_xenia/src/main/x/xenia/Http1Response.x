@@ -1,6 +1,8 @@
 import web.Body;
 import web.Header;
 
+import HttpServer.RequestContext;
+
 /**
  * An implementation of an HTTP/1 (i.e. 0.9, 1.0, 1.1) response, as sent by a server or received by
  * a client.
@@ -8,6 +10,43 @@ import web.Header;
 const Http1Response {
     // TODO
 
+    /**
+     * The body size above which a response body is passed to the server in chunks.
+     */
+    static Int StreamingThreshold = 256K;
+
+    /**
+     * The size of the chunks a large response body is passed in.
+     */
+    static Int ChunkSize = 64K;
+
+    /**
+     * Send the specified response for a request received by the specified server. A large body,
+     * or a body of an unknown size, is pulled from the [Body.chunks] iterator and passed to the
+     * server one chunk at a time, which allows the body to be sent without holding all of it in
+     * memory at once.
+     */
+    static void send(HttpServer server, RequestContext context, ResponseOut response) {
+        Body? body = response.body;
+        Int   size = 0;
+        if (body != Null) {
+            size = body.knownSize() ?: -1;
+        }
+
+        if (body == Null || 0 <= size <= StreamingThreshold) {
+            (Int status, String[] names, String[] values, Byte[] bytes) = prepare(response);
+            server.send(context, status, names, values, bytes);
+            return;
+        }
+
+        (Int status, String[] names, String[] values) = prepareHeaders(response, size);
+        server.sendHeaders(context, status, names, values, size);
+        for (Byte[] chunk : body.chunks(ChunkSize)) {
+            server.writeBodyChunk(context, chunk);
+        }
+        server.writeBodyChunk(context, []);
+    }
+
     /**
      * Helper to transform a [Response] object into the constituent pieces used to send a response
      * via the HTTP/1-based prototype.
@@ -17,10 +56,27 @@ const Http1Response {
             String[] headerValues,
             Byte[]   body)
         prepare(ResponseOut response) {
+        Byte[] bytes = response.body?.bytes : [];
+
+        (Int status, String[] headerNames, String[] headerValues) =
+                prepareHeaders(response, bytes.size);
+        return status, headerNames, headerValues, bytes;
+    }
+
+    /**
+     * Helper to transform a [Response] object into the status and headers used to send a response
+     * via the HTTP/1-based prototype.
+     *
+     * @param response  the response
+     * @param size      the body size in bytes, or `-1` if it's not known
+     */
+    static (Int      status,
+            String[] headerNames,
+            String[] headerValues)
+        prepareHeaders(ResponseOut response, Int size) {
         Int      status       = response.status.code;
         String[] headerNames  = new String[];
         String[] headerValues = new String[];
-        Byte[]   bytes        = [];
 
         for (val kv : response.header.entries) {
             headerNames  += kv[0];
@@ -28,16 +84,16 @@ const Http1Response {
         }
 
         if (Body body ?= response.body) {
-            bytes = body.bytes;
             headerNames  += Header.ContentType;
             headerValues += body.mediaType.text;
-            headerNames  += Header.ContentLength;
-            headerValues += bytes.size.toString();
+            if (size >= 0) {
+                headerNames  += Header.ContentLength;
+                headerValues += size.toString();
+            }
         }
 
         return status,
                headerNames .freeze(inPlace=True),
-               headerValues.freeze(inPlace=True),
-               bytes;
+               headerValues.freeze(inPlace=True);
     }
 }
\ No newline at end of file
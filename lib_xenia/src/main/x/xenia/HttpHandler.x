@@ -18,10 +18,11 @@ service HttpHandler
     /**
      * Construct an HttpHandler for a specific application using a provided HttpServer.
      *
-     * @param httpServer  the HttpServer
-     * @param app         the application
+     * @param httpServer    the HttpServer
+     * @param app           the application
+     * @param sessionStore  (optional) the means to persistently store sessions
      */
-    construct(HttpServer httpServer, WebApp app) {
+    construct(HttpServer httpServer, WebApp app, SessionStore? sessionStore = Null) {
         Catalog catalog = buildCatalog(app);
 
         this.httpServer     = httpServer;
@@ -29,7 +30,8 @@ service HttpHandler
         this.dispatchers    = new Dispatcher[];
         this.busy           = new Boolean[];
         this.bundlePool     = new BundlePool(catalog);
-        this.sessionManager = createSessionManager(httpServer, catalog);
+        this.sessionManager = createSessionManager(httpServer, catalog,
+                                                   sessionStore ?: new SessionStore());
         this.authenticator  = app.authenticator;
 
         Registry registry = app.registry_;
@@ -120,6 +122,8 @@ service HttpHandler
     void shutdown() {
         closing = True;
 
+        sessionManager.shutdown();
+
         if (pendingRequests == 0) {
             httpServer.close();
         } else {
@@ -185,8 +189,11 @@ service HttpHandler
      *
      * @param httpServer  the HttpServer
      * @param catalog     the application's Catalog
+     * @param store       the means to persistently store sessions
      */
-    private static SessionManager createSessionManager(HttpServer httpServer, Catalog catalog) {
+    private static SessionManager createSessionManager(HttpServer   httpServer,
+                                                       Catalog      catalog,
+                                                       SessionStore store) {
         import ecstasy.reflect.Annotation;
         import SessionManager.SessionProducer;
 
@@ -211,7 +218,10 @@ service HttpHandler
             };
         }
 
-        SessionManager mgr = new SessionManager(new SessionStore(), sessionProducer, httpServer.plainPort, httpServer.tlsPort);
+        // the state of the session mixins is not a part of the SessionData, so such sessions have
+        // to stay in memory
+        SessionManager mgr = new SessionManager(store, sessionProducer, httpServer.plainPort,
+                httpServer.tlsPort, evictIdle = mixinCount == 0);
         httpServer.configureService(mgr);
         return mgr;
     }
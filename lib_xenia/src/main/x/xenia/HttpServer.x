@@ -70,6 +70,29 @@ interface HttpServer
      */
     void send(RequestContext context, Int status, String[] headerNames, String[] headerValues, Byte[] body);
 
+    /**
+     * Send the response status and headers without the body; the body must then be sent by one
+     * or more calls to [writeBodyChunk], the last of which passes an empty chunk.
+     *
+     * @param context        the context that was passed to a `Handler` for a request
+     * @param status         the response status code
+     * @param headerNames    the response header names
+     * @param headerValues   the response header values
+     * @param contentLength  the body size in bytes, or `-1` if it's not known, in which case the
+     *                       body is sent using the chunked transfer encoding
+     */
+    void sendHeaders(RequestContext context, Int status, String[] headerNames, String[] headerValues,
+                     Int contentLength);
+
+    /**
+     * Send the next part of the response body. This call may wait until the previously sent parts
+     * have been consumed by the client.
+     *
+     * @param context  the context that was passed to a `Handler` for a request
+     * @param chunk    the next part of the body; an empty chunk completes the response
+     */
+    void writeBodyChunk(RequestContext context, Byte[] chunk);
+
 
     // ----- context attributes --------------------------------------------------------------------
 
@@ -168,6 +191,19 @@ interface HttpServer
      */
     conditional Byte[] getBodyBytes(RequestContext context);
 
+    /**
+     * Read the next part of the request body. Reading the body in parts allows it to be processed
+     * without holding the entire body in memory. This call may wait until more of the body is
+     * received; once any part of the body has been read, [getBodyBytes] only returns the rest of it.
+     *
+     * @param context  the context that was passed to a `Handler` for a request
+     * @param maxSize  the maximum number of bytes to return
+     *
+     * @return True if there is more of the body
+     * @return (conditional) the next part of the body
+     */
+    conditional Byte[] readBodyChunk(RequestContext context, Int maxSize);
+
     /**
      * Determine if the body contains nested information (e.g. multi-part) with its own headers, etc.
      *
@@ -295,6 +331,18 @@ interface HttpServer
             return server.getBodyBytes(context);
         }
 
+        /**
+         * Read the next part of the request body.
+         *
+         * @param maxSize  the maximum number of bytes to return
+         *
+         * @return True if there is more of the body
+         * @return (conditional) the next part of the body
+         */
+        conditional Byte[] readBodyChunk(Int maxSize) {
+            return server.readBodyChunk(context, maxSize);
+        }
+
         /**
          * Determine if the body contains nested information (e.g. multi-part) with its own headers,
          * etc.
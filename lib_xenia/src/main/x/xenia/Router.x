@@ -0,0 +1,415 @@
+import Catalog.EndpointInfo;
+import Catalog.WebServiceInfo;
+
+import net.UriTemplate;
+import net.UriTemplate.UriParameters;
+
+
+/**
+ * The Router is the precompiled form of the [Catalog] paths: a trie of the [WebService] paths and,
+ * for each WebService, a trie of its endpoint [UriTemplate]s keyed by the path segments. Routing a
+ * request walks the segments of the request path once, selecting the endpoint by the HTTP method
+ * and capturing the template variables along the way.
+ *
+ * The endpoint trie holds the templates that consist of literal segments and of variables that
+ * occupy an entire segment, such as "users/{id}/items". A literal segment takes precedence over a
+ * variable, and a variable at the end of a template matches the rest of the path, including any
+ * '/' characters (as in "{path}"). The templates that don't have that form (such as "{id}.json" or
+ * "search{?q}") are matched by their [UriTemplate] instead, in the order of the endpoints.
+ */
+const Router {
+    /**
+     * Construct the Router for the specified services.
+     *
+     * @param services  the WebService infos, as collected by the [Catalog]
+     */
+    construct(WebServiceInfo[] services) {
+        WebServiceInfo? rootService = Null;
+        ServicePath[]   paths       = new ServicePath[];
+        for (WebServiceInfo info : services) {
+            if (info.path == "/") {
+                rootService = info;
+            } else {
+                // the service path always starts with '/' and never ends with it (see Catalog)
+                String[] segments = info.path.split('/');
+                paths += new ServicePath(segments[1 ..< segments.size], info);
+            }
+        }
+
+        EndpointRoutes[] endpointRoutes = new EndpointRoutes[];
+        for (WebServiceInfo info : services) {
+            Route[] routes    = new Route[];
+            Route[] fallbacks = new Route[];
+            for (EndpointInfo endpoint : info.endpoints) {
+                Int index = routes.size + fallbacks.size;
+                if ((String?[] segments, Boolean tail, String[] names) := compile(endpoint.template)) {
+                    routes += new Route(endpoint, index, segments, tail, names);
+                } else {
+                    fallbacks += new Route(endpoint, index, [], False, []);
+                }
+            }
+            endpointRoutes += new EndpointRoutes(buildEndpoints(routes, 0), fallbacks);
+        }
+
+        this.rootService    = rootService;
+        this.serviceRoot    = buildServices(paths, 0);
+        this.endpointRoutes = endpointRoutes;
+    }
+
+
+    // ----- properties ----------------------------------------------------------------------------
+
+    /**
+     * The service with the root path ("/"), which handles everything that other services don't.
+     */
+    WebServiceInfo? rootService;
+
+    /**
+     * The root of the service trie.
+     */
+    ServiceNode serviceRoot;
+
+    /**
+     * The endpoint routes, indexed by the WebService id.
+     */
+    EndpointRoutes[] endpointRoutes;
+
+
+    // ----- routing -------------------------------------------------------------------------------
+
+    /**
+     * Find the WebService for the specified request URI. The service with the longest path that
+     * matches the leading segments of the URI wins; for example, if the path is "test", then uri
+     * values such as "test/s", "test/" and "test" all match (the last two being equivalent), but
+     * "tests" does not.
+     *
+     * @param uriString  the request URI string
+     *
+     * @return True iff a service has been found
+     * @return (conditional) the service info
+     * @return (conditional) the remainder of the URI (relative to the service path)
+     */
+    conditional (WebServiceInfo info, String remainder) findService(String uriString) {
+        Int             size    = uriString.size;
+        WebServiceInfo? found = Null;
+        Int             end   = 0;
+
+        if (size > 1 && uriString[0] == '/') {
+            ServiceNode node   = serviceRoot;
+            Int         offset = 1;
+            while (True) {
+                Int next = size;
+                next := uriString.indexOf('/', offset);
+
+                if (!(node := node.children.get(uriString[offset ..< next]))) {
+                    break;
+                }
+
+                if (WebServiceInfo info ?= node.info) {
+                    found = info;
+                    end   = next;
+                }
+
+                if (next == size) {
+                    break;
+                }
+                offset = next + 1;
+            }
+        }
+
+        if (found != Null) {
+            return True, found, end == size ? "" : uriString.substring(end + 1);
+        }
+
+        if (WebServiceInfo info ?= rootService) {
+            // the root path ("/") matches everything
+            return True, info, uriString == "/" ? "" : uriString.substring(1);
+        }
+        return False;
+    }
+
+    /**
+     * Find the endpoint of the specified WebService for a request.
+     *
+     * @param wsid        the WebService id
+     * @param httpMethod  the HTTP method name
+     * @param uri         the request URI relative to the service path
+     *
+     * @return True iff a matching endpoint has been found
+     * @return (conditional) the endpoint info
+     * @return (conditional) the values of the template variables
+     */
+    conditional (EndpointInfo endpoint, UriParameters uriParams) findEndpoint(
+            Int wsid, String httpMethod, Uri uri) {
+        EndpointRoutes routes = endpointRoutes[wsid];
+        String         path   = uri.path ?: "/";
+        String[]       values = new String[];
+
+        Route? route = Null;
+        if (path == "/") {
+            // the root path is not a segment: it only matches the root template, or a template
+            // that matches the rest of the path (which is then "/" itself)
+            if (Route found := routes.root.routes.get(httpMethod)) {
+                route = found;
+            } else if (Route tail := routes.root.tails.get(httpMethod)) {
+                route = tail;
+                values.add(path);
+            }
+        } else if (Route found := find(routes.root, httpMethod, path, 0, values)) {
+            route = found;
+        }
+
+        // a template that is not in the trie, but comes before the found route, has a priority
+        Int limit = route?.index : Int.MaxValue;
+        for (Route fallback : routes.fallbacks) {
+            if (fallback.index > limit) {
+                break;
+            }
+
+            EndpointInfo endpoint = fallback.endpoint;
+            if (endpoint.httpMethod.name == httpMethod,
+                    UriParameters uriParams := endpoint.template.matches(uri)) {
+                return True, endpoint, uriParams;
+            }
+        }
+
+        if (route == Null) {
+            return False;
+        }
+
+        if (values.empty) {
+            return True, route.endpoint, [];
+        }
+
+        HashMap<String, UriTemplate.Value> bindings = new HashMap();
+        String[]                           names    = route.names;
+        for (Int i : 0 ..< names.size) {
+            // an empty segment does not bind the variable
+            String value = values[i];
+            if (value.size > 0) {
+                String name = names[i];
+                if (UriTemplate.Value prev := bindings.get(name), !(prev.is(String) && prev == value)) {
+                    return False;
+                }
+                bindings.put(name, value);
+            }
+        }
+        return True, route.endpoint, bindings.makeImmutable();
+    }
+
+    /**
+     * Walk the endpoint trie from the specified node.
+     *
+     * @param node        the current node
+     * @param httpMethod  the HTTP method name
+     * @param path        the request path
+     * @param offset      the offset of the next path segment; past the end of the path if all the
+     *                    segments have been matched
+     * @param values      the values of the variables captured so far
+     *
+     * @return True iff a matching route has been found
+     * @return (conditional) the route (the values hold the captured variables)
+     */
+    private conditional Route find(EndpointNode node, String httpMethod, String path, Int offset,
+                                   String[] values) {
+        Int size = path.size;
+        if (offset > size) {
+            return node.routes.get(httpMethod);
+        }
+
+        Int next = size;
+        next := path.indexOf('/', offset);
+
+        String segment = path[offset ..< next];
+        if (EndpointNode child := node.literals.get(segment),
+                Route route := find(child, httpMethod, path, next + 1, values)) {
+            return True, route;
+        }
+
+        if (EndpointNode child ?= node.variable) {
+            values.add(segment);
+            if (Route route := find(child, httpMethod, path, next + 1, values)) {
+                return True, route;
+            }
+            values.delete(values.size - 1);
+        }
+
+        if (Route route := node.tails.get(httpMethod)) {
+            values.add(path.substring(offset));
+            return True, route;
+        }
+        return False;
+    }
+
+
+    // ----- trie building -------------------------------------------------------------------------
+
+    /**
+     * Split the specified template into path segments.
+     *
+     * @param template  the endpoint template
+     *
+     * @return True iff the template can be represented by the endpoint trie
+     * @return (conditional) the segments; Null for a variable
+     * @return (conditional) True iff the template ends with a variable that matches the rest of
+     *         the path
+     * @return (conditional) the variable names, in the order of the variable segments
+     */
+    static conditional (String?[] segments, Boolean tail, String[] names) compile(UriTemplate template) {
+        String?[]    segments = new String?[];
+        String[]     names    = new String[];
+        StringBuffer literal  = new StringBuffer();
+        Boolean      variable = False;
+        for (String|UriTemplate.Expression part : template.parts) {
+            if (part.is(String)) {
+                for (Char ch : part) {
+                    switch (ch) {
+                    case '/':
+                        segments += variable ? Null : literal.toString();
+                        literal   = new StringBuffer();
+                        variable  = False;
+                        break;
+
+                    case '?', '#':
+                        // the template reaches past the path
+                        return False;
+
+                    default:
+                        if (variable) {
+                            // a variable that only occupies a part of a segment
+                            return False;
+                        }
+                        literal.add(ch);
+                        break;
+                    }
+                }
+            } else {
+                if (!part.is(UriTemplate.SimpleString) || part.vars.size != 1 || variable
+                        || literal.size > 0) {
+                    return False;
+                }
+
+                UriTemplate.Variable var = part.vars[0];
+                if (var.explode || var.maxLength != Null) {
+                    return False;
+                }
+                names   += var.name;
+                variable = True;
+            }
+        }
+
+        // a template that ends with a variable matches the rest of the path; the root template
+        // has no segments at all
+        if (!variable && !template.parts.empty) {
+            segments += literal.toString();
+        }
+        return True, segments, variable, names;
+    }
+
+    /**
+     * Build the service trie node for the specified paths.
+     *
+     * @param paths  the service paths that share the first `depth` segments
+     * @param depth  the number of segments that lead to the node
+     */
+    private static ServiceNode buildServices(ServicePath[] paths, Int depth) {
+        WebServiceInfo?            info   = Null;
+        Map<String, ServicePath[]> groups = new HashMap();
+        for (ServicePath path : paths) {
+            if (path.segments.size == depth) {
+                info = path.info;
+            } else {
+                (ServicePath[] group, _) = groups.computeIfAbsent(path.segments[depth],
+                        () -> new ServicePath[]);
+                group.add(path);
+            }
+        }
+
+        HashMap<String, ServiceNode> children = new HashMap();
+        for ((String segment, ServicePath[] group) : groups) {
+            children.put(segment, buildServices(group, depth + 1));
+        }
+        return new ServiceNode(children.freeze(inPlace=True), info);
+    }
+
+    /**
+     * Build the endpoint trie node for the specified routes.
+     *
+     * @param routes  the routes that share the first `depth` segments, in the endpoint order
+     * @param depth   the number of segments that lead to the node
+     */
+    private static EndpointNode buildEndpoints(Route[] routes, Int depth) {
+        HashMap<String, Route>   ending   = new HashMap();
+        HashMap<String, Route>   tails    = new HashMap();
+        HashMap<String, Route[]> groups   = new HashMap();
+        Route[]                  variable = new Route[];
+        for (Route route : routes) {
+            String?[] segments = route.segments;
+            if (segments.size == depth) {
+                // the first endpoint in the order wins
+                (route.tail ? tails : ending).putIfAbsent(route.endpoint.httpMethod.name, route);
+            } else if (String segment ?= segments[depth]) {
+                (Route[] group, _) = groups.computeIfAbsent(segment, () -> new Route[]);
+                group.add(route);
+            } else {
+                variable += route;
+            }
+        }
+
+        HashMap<String, EndpointNode> literals = new HashMap();
+        for ((String segment, Route[] group) : groups) {
+            literals.put(segment, buildEndpoints(group, depth + 1));
+        }
+
+        return new EndpointNode(literals.freeze(inPlace=True),
+                                variable.empty ? Null : buildEndpoints(variable, depth + 1),
+                                tails.freeze(inPlace=True), ending.freeze(inPlace=True));
+    }
+
+
+    // ----- trie structures -----------------------------------------------------------------------
+
+    /**
+     * A service path split into segments.
+     */
+    private static const ServicePath(String[] segments, WebServiceInfo info);
+
+    /**
+     * A node of the service trie.
+     *
+     * @param children  the child nodes keyed by the next path segment
+     * @param info      the service whose path ends at this node, if any
+     */
+    static const ServiceNode(Map<String, ServiceNode> children, WebServiceInfo? info);
+
+    /**
+     * An endpoint template split into segments.
+     *
+     * @param endpoint  the endpoint
+     * @param index     the position of the endpoint in the WebService's endpoint order
+     * @param segments  the template segments; Null for a variable
+     * @param tail      True iff the template ends with a variable that matches the rest of the path
+     * @param names     the variable names, in the order of the variable segments
+     */
+    static const Route(EndpointInfo endpoint, Int index, String?[] segments, Boolean tail,
+                       String[] names);
+
+    /**
+     * A node of the endpoint trie.
+     *
+     * @param literals  the child nodes keyed by the next path segment
+     * @param variable  the child node for a variable segment, if any
+     * @param tails     the routes that match the rest of the path, keyed by the HTTP method name
+     * @param routes    the routes that end at this node, keyed by the HTTP method name
+     */
+    static const EndpointNode(Map<String, EndpointNode> literals, EndpointNode? variable,
+                              Map<String, Route> tails, Map<String, Route> routes);
+
+    /**
+     * The endpoint routes of a WebService.
+     *
+     * @param root       the root of the endpoint trie
+     * @param fallbacks  the routes for the templates that are matched by the [UriTemplate]
+     */
+    static const EndpointRoutes(EndpointNode root, Route[] fallbacks);
+}
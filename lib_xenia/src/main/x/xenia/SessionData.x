@@ -0,0 +1,83 @@
+import net.IPAddress;
+
+import web.CookieConsent;
+import web.TrustLevel;
+
+
+/**
+ * A snapshot of the state of a [SessionImpl] that is held in a [SessionStore], and from which the
+ * session can be re-instantiated, for example after the server restarts, or after the session was
+ * evicted from memory for being idle.
+ *
+ * The snapshot includes the session identity, its cookies, and the information about the user
+ * agent and the authenticated user; the session attributes and the state of any session mixins
+ * declared by the application are not a part of the snapshot, which is indicated by the [complete]
+ * flag being `False`.
+ *
+ * @param id                 the internal session identity
+ * @param created            the time at which the session was created
+ * @param lastUse            the time at which the session was last used
+ * @param requestCount       the number of requests processed within the session
+ * @param version            the current version of the session
+ * @param versionChanged     the time at which the version was last incremented
+ * @param knownCookies       a bitset of the `CookieId`s that have been created for the session
+ * @param cookies            the text of each session cookie, indexed by the `CookieId.ordinal`
+ * @param cookiesSent        the time that each session cookie was sent to the user agent
+ * @param cookiesVerified    the time that each session cookie was verified as received
+ * @param prevTLS            `True` if the session has been accessed via a TLS connection
+ * @param abandoned          `True` if the session has been split and abandoned
+ * @param ipAddress          the last known IP address of the user agent
+ * @param userAgent          the last known user agent string
+ * @param exclusiveAgent     `True` if the user agent is not shared with other users
+ * @param cookieConsent      the cookie consent of the user
+ * @param trustLevel         the trust level of the session
+ * @param userId             the id of the authenticated user, if any
+ * @param lastAuthenticated  the time at which the user was last authenticated, if any
+ * @param roles              the roles of the authenticated user
+ * @param complete           `False` if the session holds state that the snapshot does not contain
+ */
+const SessionData(Int64         id,
+                  Time          created,
+                  Time          lastUse,
+                  Int           requestCount,
+                  Int           version,
+                  Time          versionChanged,
+                  Int           knownCookies,
+                  String?[]     cookies,
+                  Time?[]       cookiesSent,
+                  Time?[]       cookiesVerified,
+                  Boolean       prevTLS,
+                  Boolean       abandoned,
+                  IPAddress     ipAddress,
+                  String        userAgent,
+                  Boolean       exclusiveAgent,
+                  CookieConsent cookieConsent,
+                  TrustLevel    trustLevel,
+                  String?       userId,
+                  Time?         lastAuthenticated,
+                  String[]      roles,
+                  Boolean       complete,
+                 ) {
+    /**
+     * Determine if the session has been idle long enough to be expired.
+     *
+     * @param now              the current time
+     * @param untrustedExpiry  how long a session of a shared device may remain idle
+     * @param trustedExpiry    how long a session of a device that the user explicitly indicated as
+     *                         trusted may remain idle
+     *
+     * @return True iff the session has expired
+     */
+    Boolean expired(Time now, Duration untrustedExpiry, Duration trustedExpiry) {
+        return idle(now) > (exclusiveAgent ? trustedExpiry : untrustedExpiry);
+    }
+
+    /**
+     * @param now  the current time
+     *
+     * @return how long the session has been idle
+     */
+    Duration idle(Time now) {
+        return now > lastUse ? now - lastUse : Duration.None;
+    }
+}
@@ -34,30 +34,40 @@ service SessionImpl
     /**
      * Construct a SessionImpl instance.
      *
-     * @param manager      the SessionManager
-     * @param sessionId    the internal session identifier
-     * @param requestInfo  the request information
+     * @param manager    the SessionManager
+     * @param sessionId  the internal session identifier
+     * @param source     the request information for a new session, or the data of a session
+     *                   loaded from the [SessionStore]
      */
-    construct(SessionManager manager, Int64 sessionId, RequestInfo requestInfo) {
-        initialize(this, manager, sessionId, requestInfo);
+    construct(SessionManager manager, Int64 sessionId, RequestInfo|SessionData source) {
+        initialize(this, manager, sessionId, source);
     }
 
     /**
      * Construction helper, used directly by the constructor, but also via reflection.
      *
-     * @param structure    the structure of the SessionImpl being constructed
-     * @param manager      the SessionManager
-     * @param sessionId    the internal session identifier
-     * @param requestInfo  the request information
-     * @param tls          True if the request was received over a TLS connection
-     */
-    static void initialize((struct SessionImpl) structure,
-                           SessionManager       manager,
-                           Int64                sessionId,
-                           RequestInfo          requestInfo) {
-        Time now = clock.now;
+     * @param structure  the structure of the SessionImpl being constructed
+     * @param manager    the SessionManager
+     * @param sessionId  the internal session identifier
+     * @param source     the request information for a new session, or the data of a session
+     *                   loaded from the [SessionStore]
+     */
+    static void initialize((struct SessionImpl)    structure,
+                           SessionManager          manager,
+                           Int64                   sessionId,
+                           RequestInfo|SessionData source) {
+        structure.manager_    = manager;
+        structure.internalId_ = sessionId;
+        structure.sessionId   = idToString_(sessionId);
+
+        if (source.is(SessionData)) {
+            restore_(structure, source);
+            return;
+        }
+
+        RequestInfo requestInfo = source;
+        Time        now         = clock.now;
 
-        structure.manager_        = manager;
         structure.created         = now;
         structure.lastUse         = now;
         structure.versionChanged_ = now;
@@ -66,11 +76,45 @@ service SessionImpl
         structure.cookieConsent   = None;
         structure.trustLevel      = None;
         structure.roles           = [];
-        structure.internalId_     = sessionId;
-        structure.sessionId       = idToString_(sessionId);
         structure.prevTLS_        = requestInfo.tls;
     }
 
+    /**
+     * Construction helper that restores the session state from the data loaded from the
+     * [SessionStore].
+     *
+     * @param structure  the structure of the SessionImpl being constructed
+     * @param data       the session data
+     */
+    static void restore_((struct SessionImpl) structure, SessionData data) {
+        SessionManager manager = structure.manager_;
+
+        structure.created           = data.created;
+        structure.lastUse           = data.lastUse;
+        structure.requestCount      = data.requestCount;
+        structure.version_          = data.version;
+        structure.versionChanged_   = data.versionChanged;
+        structure.knownCookies_     = data.knownCookies;
+        structure.prevTLS_          = data.prevTLS;
+        structure.abandoned_        = data.abandoned;
+        structure.ipAddress         = data.ipAddress;
+        structure.userAgent         = data.userAgent;
+        structure.exclusiveAgent    = data.exclusiveAgent;
+        structure.cookieConsent     = data.cookieConsent;
+        structure.trustLevel        = data.trustLevel;
+        structure.userId            = data.userId;
+        structure.lastAuthenticated = data.lastAuthenticated;
+        structure.roles             = new HashSet<String>(data.roles).freeze(True);
+
+        structure.sessionCookieInfos_ = new SessionCookieInfo_?[CookieId.count](i -> {
+            if (String text ?= data.cookies[i]) {
+                return new SessionCookieInfo_(new SessionCookie(manager, text),
+                                              data.cookiesSent[i], data.cookiesVerified[i]);
+            }
+            return Null;
+        });
+    }
+
 
     // ----- session implementation properties -----------------------------------------------------
 
@@ -278,6 +322,8 @@ service SessionImpl
 
     void requestBegin_(RequestIn request) {
         assert requests_.addIfAbsent(request);
+        lastUse = clock.now;
+        ++requestCount;
     }
 
     void requestEnd_(RequestIn request) {
@@ -573,6 +619,50 @@ service SessionImpl
         };
     }
 
+    /**
+     * Take a snapshot of the state of this session that can be written to the [SessionStore].
+     *
+     * @return the session data
+     */
+    SessionData snapshot_() {
+        SessionCookieInfo_?[] infos = sessionCookieInfos_;
+        return new SessionData(
+                id                = internalId_,
+                created           = created,
+                lastUse           = lastUse,
+                requestCount      = requestCount,
+                version           = version_,
+                versionChanged    = versionChanged_,
+                knownCookies      = knownCookies_,
+                cookies           = new String?[infos.size](i -> infos[i]?.cookie.text : Null),
+                cookiesSent       = new Time?[infos.size](i -> infos[i]?.sent : Null),
+                cookiesVerified   = new Time?[infos.size](i -> infos[i]?.verified : Null),
+                prevTLS           = prevTLS_,
+                abandoned         = abandoned_,
+                ipAddress         = ipAddress,
+                userAgent         = userAgent,
+                exclusiveAgent    = exclusiveAgent,
+                cookieConsent     = cookieConsent,
+                trustLevel        = trustLevel,
+                userId            = userId,
+                lastAuthenticated = lastAuthenticated,
+                roles             = roles.toArray(),
+                complete          = !&attributes_.assigned || attributes_.empty,
+        );
+    }
+
+    /**
+     * Register the cookies of a session that was restored from the [SessionStore] with the
+     * SessionManager.
+     */
+    void registerCookies_() {
+        for (SessionCookieInfo_? info : sessionCookieInfos_) {
+            if (info != Null) {
+                manager_.addSessionCookie(this, info.cookie);
+            }
+        }
+    }
+
     /**
      * Indicates whether the persistent cookie should be used for this session.
      */
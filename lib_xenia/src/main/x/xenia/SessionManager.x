@@ -6,7 +6,7 @@ import web.codecs.Base64Format;
 import HttpServer.RequestInfo;
 import SessionCookie.CookieId;
 import SessionImpl.Event_;
-import SessionStore.IOResult;
+import SessionShard.SessionStatus;
 
 
 /**
@@ -42,18 +42,50 @@ import SessionStore.IOResult;
  * in which the end users are employees or partners, and there is a reasonable expectation of
  * certain functionality being provided automatically, and there is no reasonable expectation of
  * either anonymity or privacy.
+ *
+ * The sessions themselves are tracked by a number of [SessionShard] services, so that the request
+ * processing does not serialize on a single service; the `SessionManager` holds the configuration
+ * that is shared by the shards, and routes the session operations to the corresponding shard.
+ * The sessions that have been idle for a while are periodically written to the [SessionStore] and
+ * evicted from memory (see [idleEvictionTimeout]), and the expired sessions are destroyed.
  */
 @Concurrent
 service SessionManager {
     // ----- constructors --------------------------------------------------------------------------
 
-    construct(SessionStore store, SessionProducer instantiateSession, UInt16 plainPort=80, UInt16 tlsPort=443) {
+    /**
+     * Construct a SessionManager.
+     *
+     * @param store               the means to persistently store sessions
+     * @param instantiateSession  the means to instantiate sessions
+     * @param plainPort           the port for plain text (insecure) communications
+     * @param tlsPort             the port for encrypted (tls) communications
+     * @param shardCount          the number of [SessionShard] services to partition the sessions
+     *                            across
+     * @param evictIdle           pass `False` if the sessions hold state that the [SessionData]
+     *                            cannot represent (such as the state of session mixins), so they
+     *                            must stay in memory until they expire
+     */
+    construct(SessionStore    store,
+              SessionProducer instantiateSession,
+              UInt16          plainPort  = 80,
+              UInt16          tlsPort    = 443,
+              Int             shardCount = DefaultShardCount,
+              Boolean         evictIdle  = True,
+             ) {
+        assert shardCount > 0;
+
         this.store              = store;
         this.instantiateSession = instantiateSession;
+        this.shardCount         = shardCount;
 
         plainTextCookieName = plainPort == 80  ? CookieId.PlainText.cookieName : $"{CookieId.PlainText.cookieName}_{plainPort}";
         encryptedCookieName = tlsPort   == 443 ? CookieId.Encrypted.cookieName : $"{CookieId.Encrypted.cookieName}_{tlsPort}";
         consentCookieName   = tlsPort   == 443 ? CookieId.Consent.cookieName   : $"{CookieId.Consent.cookieName}_{tlsPort}";
+
+        if (!evictIdle) {
+            idleEvictionTimeout = Null;
+        }
     }
 
 
@@ -65,9 +97,10 @@ service SessionManager {
     protected/private @Final SessionStore store;
 
     /**
-     * The means to instantiate sessions.
+     * The means to instantiate sessions, either for a request that arrived without a session, or
+     * from the session data that was loaded from the [SessionStore].
      */
-    typedef function SessionImpl(SessionManager, Int64, RequestInfo) as SessionProducer;
+    typedef function SessionImpl(SessionManager, Int64, RequestInfo|SessionData) as SessionProducer;
     protected/private @Final SessionProducer instantiateSession;
 
     /**
@@ -86,68 +119,48 @@ service SessionManager {
     public/private @Final String consentCookieName;
 
     /**
-     * Increment the session identifier "counter" by a large prime number.
-     */
-    private static Int64 ID_GAP = 0x0030_8DC2_CBEE_2A75;        // a fun prime: 13666666666666613
-
-    /**
-     * Wrap the session identifier counter around before it reaches the integer limit.
+     * The default number of shards.
      */
-    protected static Int64 ID_LIMIT = 0x0FFF_FFFF_FFFF_FFFF;    // don't use the entire 64-bit range
+    static Int DefaultShardCount = 4;
 
     /**
-     * The most recently generated session id.
+     * The number of shards.
      */
-    protected/private Int64 previousId = {
-        // initialize to a random session id
-        @Inject Random rnd;
-        return rnd.int64() & ID_LIMIT;
-    };
+    public/private @Final Int shardCount;
 
     /**
-     * The total number of sessions created.
+     * The shards that the sessions are partitioned across; a session belongs to the shard at the
+     * [shardIndex] of its id, and a session cookie is indexed by the shard at the
+     * [cookieShardIndex] of its text.
      */
-    public/private Int createdCount = 0;
+    @Lazy
+    public/private SessionShard[] shards.calc() {
+        SessionShard[] shards = new SessionShard[shardCount](i ->
+                new SessionShard(this, store, instantiateSession, i, shardCount));
+        purger.start^();
+        return shards.freeze(inPlace=True);
+    }
 
     /**
-     * The total number of sessions destroyed.
+     * The shard that is used next to create a session.
      */
-    public/private Int deletedCount = 0;
+    private Int nextShard = 0;
 
     /**
-     * For each session, the status of the session may be known or unknown. This allows the bulk of
-     * the session information to remain in persistent storage until it is explicitly requested.
-     *
-     * * `Unknown` - the session is not cached in memory, and it may or may not exist in persistent
-     *    storage
-     * * `Nonexistent` - the session is known to not exist
-     * * `OnDisk` - the session is not cached in memory, but it is known to exist in persistent
-     *   storage
-     * * `InMemory` - the session is cached in memory
-     */
-    protected enum SessionStatus {
-        Unknown,
-        Nonexistent,
-        OnDisk,
-        InMemory,
-    }
-
-    /**
-     * [Session] by id, or the [SessionStatus] if the `Session` is not `InMemory` but the status is
-     * known.
+     * The total number of sessions created.
      */
-    protected/private Map<Int, SessionImpl|SessionStatus> sessions = new HashMap();
+    Int createdCount.get() = shards.map(SessionShard.createdCount).reduce(new aggregate.Sum<Int>());
 
     /**
-     * [Session] by cookie, or the [SessionStatus] if the `Session` is not `InMemory` but the status
-     * is known.
+     * The total number of sessions destroyed.
      */
-    protected/private Map<String, SessionImpl|SessionStatus> sessionByCookie = new HashMap();
+    Int deletedCount.get() = shards.map(SessionShard.deletedCount).reduce(new aggregate.Sum<Int>());
 
     /**
      * The daemon responsible for cleaning up expired session data.
      */
-    protected/private SessionPurger purger = new SessionPurger();
+    @Lazy
+    protected/private SessionPurger purger.calc() = new SessionPurger(this);
 
     /**
      * When a user has **not** explicitly indicated that their device is trusted, the session
@@ -166,6 +179,13 @@ service SessionManager {
      */
     public/private Duration persistentCookieDuration = Duration:760D;  // default: 2 years + 1 month
 
+    /**
+     * When a session has not been used for this long, it is written to a persistent
+     * [SessionStore] and evicted from memory; it is loaded back when it is used again. `Null`
+     * indicates that the sessions stay in memory until they expire.
+     */
+    public/private Duration? idleEvictionTimeout = Duration:10M;
+
     /**
      * The encryptor/decryptor used for session cookie values.
      */
@@ -222,6 +242,30 @@ service SessionManager {
 
     // ----- session control -----------------------------------------------------------------------
 
+    /**
+     * Determine the shard that the specified session belongs to.
+     *
+     * @param id     the session id
+     * @param count  the number of shards
+     *
+     * @return the index of the shard
+     */
+    static Int shardIndex(Int id, Int count) {
+        return (id % count).abs();
+    }
+
+    /**
+     * Determine the shard that indexes the specified session cookie.
+     *
+     * @param cookieText  the cookie value's text from the header
+     * @param count       the number of shards
+     *
+     * @return the index of the shard
+     */
+    static Int cookieShardIndex(String cookieText, Int count) {
+        return (SessionCookie.textFromCookie(cookieText).hashCode() % count).abs();
+    }
+
     /**
      * Obtain the session status for the specified session id.
      *
@@ -230,13 +274,7 @@ service SessionManager {
      * @return the session status
      */
     SessionStatus getStatusById(Int id) {
-        if (SessionImpl|SessionStatus status := sessions.get(id)) {
-            return status.is(SessionImpl)
-                    ? InMemory
-                    : status;
-        } else {
-            return Unknown;
-        }
+        return shards[shardIndex(id, shardCount)].getStatusById(id);
     }
 
     /**
@@ -246,7 +284,7 @@ service SessionManager {
      * @param cookie   the `SessionCookie` to use to look up the `Session`
      */
     void addSessionCookie(SessionImpl session, SessionCookie cookie) {
-        assert sessionByCookie.putIfAbsent(cookie.text, session);
+        shards[cookieShardIndex(cookie.text, shardCount)].addSessionCookie(session, cookie);
     }
 
     /**
@@ -256,7 +294,16 @@ service SessionManager {
      * @param cookie   the previously registered `SessionCookie`
      */
     void removeSessionCookie(SessionImpl session, SessionCookie cookie) {
-        assert sessionByCookie.remove(cookie.text, session);
+        shards[cookieShardIndex(cookie.text, shardCount)].removeSessionCookie(session, cookie);
+    }
+
+    /**
+     * Remove the specified cookie text from the quick lookup by cookie.
+     *
+     * @param cookieText  the text of a previously registered `SessionCookie`
+     */
+    void forgetSessionCookie(String cookieText) {
+        shards[cookieShardIndex(cookieText, shardCount)].forgetSessionCookie(cookieText);
     }
 
     /**
@@ -270,25 +317,7 @@ service SessionManager {
      * @return (conditional) the session
      */
     conditional SessionImpl getSessionByCookie(String cookieText) {
-        if (SessionImpl|SessionStatus session := sessionByCookie.get(
-                SessionCookie.textFromCookie(cookieText))) {
-            if (session.is(SessionImpl)) {
-                return True, session;
-            }
-
-            if (session == Nonexistent) {
-                return False;
-            }
-
-            // fall through to default handling
-        }
-
-        try {
-            SessionCookie cookie = new SessionCookie(this, cookieText);
-            return getSessionById(cookie.sessionId);
-        } catch (Exception e) {
-            return False;
-        }
+        return shards[cookieShardIndex(cookieText, shardCount)].getSessionByCookie(cookieText);
     }
 
     /**
@@ -300,44 +329,7 @@ service SessionManager {
      * @return (conditional) the session
      */
     conditional SessionImpl getSessionById(Int id) {
-        if (SessionImpl|SessionStatus session := sessions.get(id)) {
-            if (session.is(SessionImpl)) {
-                return True, session;
-            }
-
-            switch (session) {
-            case Nonexistent:
-                return False;
-
-            case Unknown:
-            case OnDisk:
-                SessionImpl|IOResult result = store.load(id);
-                if (result.is(SessionImpl)) {
-                    return True, result;
-                } else {
-                    switch (result) {
-                    case Success:
-                    case SerializationIncomplete:
-                        // TODO how would this information be reported? incomplete would have to return the session
-                        assert;
-
-                    case NoSuchSession:
-                        sessions.put(id, Nonexistent);
-                        return False;
-
-                    case SerializationFailure:
-                    case IOFailure:
-                        // TODO should there be an "error" placed in the session cache?
-                        return False;
-                    }
-                }
-
-            case InMemory:
-                assert;
-            }
-        }
-
-        return False;
+        return shards[shardIndex(id, shardCount)].getSessionById(id);
     }
 
     /**
@@ -348,8 +340,7 @@ service SessionManager {
      * @return True iff the specified id has session data in persistent storage
      */
     Boolean sessionExistsInStorage(Int id) {
-        // TODO check sessions, and add flag to SessionImpl as well "on disk" vs. not and "up to date" vs not
-        return False;
+        return store.exists(id);
     }
 
     /**
@@ -362,13 +353,9 @@ service SessionManager {
      *         [HttpStatus] describing why the session could not be created
      */
     HttpStatus|SessionImpl createSession(RequestInfo requestInfo) {
-        Int64       id      = generateId();
-        SessionImpl session = instantiateSession(this, id, requestInfo);
-        sessions.put(id, session);
-
-        purger.track^(id);
-
-        return session;
+        Int index = nextShard;
+        nextShard = (index + 1) % shardCount;
+        return shards[index].createSession(requestInfo);
     }
 
     /**
@@ -391,40 +378,6 @@ service SessionManager {
         return newSession;
     }
 
-    /**
-     * Generate a session ID.
-     *
-     * @return an unused session ID
-     */
-    Int64 generateId() {
-        while (True) {
-            Int64 id = previousId + ID_GAP & ID_LIMIT;
-            previousId = id;
-
-            switch (getStatusById(id)) {
-            case Nonexistent:
-                return id;
-
-            case Unknown:
-                if (!sessionExistsInStorage(id)) {
-                    return id;
-                }
-                continue;
-            case OnDisk:
-            case InMemory:
-                // strange but not impossible: we have collided with an existing session; to
-                // compensate, increment the base by a different prime value than the gap; note
-                // that we have to assume that this method is concurrent, i.e. not running all
-                // at once (so the previousId may have already been changed by someone else,
-                // after we changed it above)
-                @Inject Random rnd;
-                Int64 adjust = HashMap.PRIMES[rnd.int(HashMap.PRIMES.size)];
-                previousId = previousId + adjust & ID_LIMIT;
-                break;
-            }
-        }
-    }
-
     /**
      * Explicitly destroy the specified session.
      *
@@ -446,11 +399,35 @@ service SessionManager {
                            SessionCookie? tlsCookie,
                            SessionCookie? consentCookie,
                           ) {
-        sessions.put(id, Nonexistent);
-        sessionByCookie.remove(txtCookie?.text);
-        sessionByCookie.remove(tlsCookie?.text);
-        sessionByCookie.remove(consentCookie?.text);
-        store.erase^(id);
+        shards[shardIndex(id, shardCount)].unregisterSession(id);
+        forgetSessionCookie(txtCookie?.text);
+        forgetSessionCookie(tlsCookie?.text);
+        forgetSessionCookie(consentCookie?.text);
+    }
+
+    /**
+     * Write the changed sessions to the store, destroy the expired sessions, and evict the idle
+     * sessions from memory. This is called periodically by the [SessionPurger].
+     */
+    void purgeSessions() {
+        for (SessionShard shard : shards) {
+            shard.purge^(untrustedDeviceTimeout, trustedDeviceTimeout, idleEvictionTimeout);
+        }
+    }
+
+    /**
+     * Stop purging, and write all of the in-memory sessions to the store.
+     */
+    void shutdown() {
+        if (!&shards.assigned) {
+            return;
+        }
+
+        purger.stopPurging();
+        for (SessionShard shard : shards) {
+            shard.persistAll();
+        }
+        store.flush();
     }
 
 
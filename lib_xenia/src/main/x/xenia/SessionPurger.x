@@ -1,13 +1,20 @@
 /**
- * A service that cleans out old `Session` objects from memory.
+ * A service that periodically asks the [SessionManager] to persist the changed sessions, to evict
+ * the idle sessions from memory, and to clean out the expired sessions.
  *
- * TODO explain why NOT concurrent
+ * The purger is not concurrent, because its only job is to run the scans one after another; the
+ * scanning itself is performed concurrently by the [SessionShard]s.
  */
-service SessionPurger(Duration cycleTime=Duration:1M) {
+service SessionPurger(SessionManager manager, Duration cycleTime=Duration:1M) {
     // ----- properties ----------------------------------------------------------------------------
 
     @Inject Timer timer;
 
+    /**
+     * The SessionManager.
+     */
+    SessionManager manager;
+
     /**
      * How often to scan.
      */
@@ -18,11 +25,6 @@ service SessionPurger(Duration cycleTime=Duration:1M) {
      */
     Timer.Cancellable? cancelNextScan;
 
-    /**
-     * Session ids that have been added since the last scan began.
-     */
-    Int[] newIds = new Int[];
-
     /**
      * Set to `True` when the `SessionPurger` is supposed to stop its work.
      */
@@ -32,13 +34,10 @@ service SessionPurger(Duration cycleTime=Duration:1M) {
     // ----- session control -----------------------------------------------------------------------
 
     /**
-     * This is a notification from the SessionManager that the specified session ID needs to be
-     * tracked (managed) by the purger.
+     * Start the periodic scans, unless they have already been started.
      */
-    void track(Int id) {
-        newIds.add(id);
-
-        if (cancelNextScan == Null) {
+    void start() {
+        if (cancelNextScan == Null && !stopping) {
             cancelNextScan = timer.schedule(cycleTime, scan);
         }
     }
@@ -49,6 +48,7 @@ service SessionPurger(Duration cycleTime=Duration:1M) {
     void stopPurging() {
         if (!stopping) {
             cancelNextScan?();
+            cancelNextScan = Null;
             stopping = True;
         }
     }
@@ -57,12 +57,14 @@ service SessionPurger(Duration cycleTime=Duration:1M) {
     // ----- internal -----------------------------------------------------------------------
 
     void scan() {
-        Time scanStart = clock.now;
+        cancelNextScan = Null;
         try {
-            // TODO
+            manager.purgeSessions();
+        } catch (Exception e) {
+            log($"Session purge failed: {e}");
         } finally {
             // schedule the next time to run the purge processing
-            // TODO
+            start();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,453 @@
+import web.HttpStatus;
+
+import HttpServer.RequestInfo;
+import SessionManager.SessionProducer;
+import SessionStore.IOResult;
+
+
+/**
+ * A service that keeps track of a partition of the `Session` objects on behalf of the
+ * [SessionManager].
+ *
+ * The sessions are partitioned among the shards in two ways: each session belongs to the shard
+ * selected by its id, and each session cookie is indexed by the shard selected by the hash of the
+ * cookie text. As a result, the validation of the session cookies that arrive with each request,
+ * and the creation of new sessions, proceed concurrently across the shards instead of being
+ * serialized through a single service.
+ */
+@Concurrent
+service SessionShard {
+    // ----- constructors --------------------------------------------------------------------------
+
+    /**
+     * Construct a SessionShard.
+     *
+     * @param manager             the SessionManager
+     * @param store               the means to persistently store sessions
+     * @param instantiateSession  the means to instantiate sessions
+     * @param index               the index of this shard
+     * @param count               the total number of shards
+     */
+    construct(SessionManager  manager,
+              SessionStore    store,
+              SessionProducer instantiateSession,
+              Int             index,
+              Int             count,
+             ) {
+        assert 0 <= index < count;
+
+        this.manager            = manager;
+        this.store              = store;
+        this.instantiateSession = instantiateSession;
+        this.index              = index;
+        this.count              = count;
+    }
+
+
+    // ----- properties ----------------------------------------------------------------------------
+
+    /**
+     * The SessionManager.
+     */
+    protected/private @Final SessionManager manager;
+
+    /**
+     * The means to persistently store sessions.
+     */
+    protected/private @Final SessionStore store;
+
+    /**
+     * The means to instantiate sessions.
+     */
+    protected/private @Final SessionProducer instantiateSession;
+
+    /**
+     * The index of this shard; the ids of the sessions owned by this shard are congruent to the
+     * index modulo the shard count.
+     */
+    public/private @Final Int index;
+
+    /**
+     * The total number of shards.
+     */
+    public/private @Final Int count;
+
+    /**
+     * Increment the session identifier "counter" by a large prime number.
+     */
+    private static Int64 ID_GAP = 0x0030_8DC2_CBEE_2A75;        // a fun prime: 13666666666666613
+
+    /**
+     * Wrap the session identifier counter around before it reaches the integer limit.
+     */
+    protected static Int64 ID_LIMIT = 0x0FFF_FFFF_FFFF_FFFF;    // don't use the entire 64-bit range
+
+    /**
+     * The most recently generated session id.
+     */
+    protected/private Int64 previousId = {
+        // initialize to a random session id
+        @Inject Random rnd;
+        return rnd.int64() & ID_LIMIT;
+    };
+
+    /**
+     * The total number of sessions created by this shard.
+     */
+    public/private Int createdCount = 0;
+
+    /**
+     * The total number of sessions destroyed by this shard.
+     */
+    public/private Int deletedCount = 0;
+
+    /**
+     * For each session, the status of the session may be known or unknown. This allows the bulk of
+     * the session information to remain in persistent storage until it is explicitly requested.
+     *
+     * * `Unknown` - the session is not cached in memory, and it may or may not exist in persistent
+     *    storage
+     * * `Nonexistent` - the session is known to not exist
+     * * `OnDisk` - the session is not cached in memory, but it is known to exist in persistent
+     *   storage
+     * * `InMemory` - the session is cached in memory
+     */
+    enum SessionStatus {
+        Unknown,
+        Nonexistent,
+        OnDisk,
+        InMemory,
+    }
+
+    /**
+     * [Session] by id, or the [SessionStatus] if the `Session` is not `InMemory` but the status is
+     * known.
+     */
+    protected/private Map<Int, SessionImpl|SessionStatus> sessions = new HashMap();
+
+    /**
+     * [Session] by the text of its cookie.
+     */
+    protected/private Map<String, SessionImpl> sessionByCookie = new HashMap();
+
+    /**
+     * The last snapshot of each in-memory session that was written to the store.
+     */
+    protected/private Map<Int, SessionData> storedSessions = new HashMap();
+
+
+    // ----- session control -----------------------------------------------------------------------
+
+    /**
+     * Obtain the session status for the specified session id.
+     *
+     * @param id  the session id
+     *
+     * @return the session status
+     */
+    SessionStatus getStatusById(Int id) {
+        if (SessionImpl|SessionStatus status := sessions.get(id)) {
+            return status.is(SessionImpl)
+                    ? InMemory
+                    : status;
+        } else {
+            return Unknown;
+        }
+    }
+
+    /**
+     * Add the session to the quick lookup by cookie.
+     *
+     * @param session  the `Session`
+     * @param cookie   the `SessionCookie` to use to look up the `Session`
+     */
+    void addSessionCookie(SessionImpl session, SessionCookie cookie) {
+        assert sessionByCookie.putIfAbsent(cookie.text, session);
+    }
+
+    /**
+     * Remove the session from the quick lookup by cookie.
+     *
+     * @param session  the `Session`
+     * @param cookie   the previously registered `SessionCookie`
+     */
+    void removeSessionCookie(SessionImpl session, SessionCookie cookie) {
+        assert sessionByCookie.remove(cookie.text, session);
+    }
+
+    /**
+     * Remove the specified cookie text from the quick lookup by cookie.
+     *
+     * @param cookieText  the text of a previously registered `SessionCookie`
+     */
+    void forgetSessionCookie(String cookieText) {
+        sessionByCookie.remove(cookieText);
+    }
+
+    /**
+     * Quick lookup of a session based on an opaque cookie value, or a slightly slower lookup based
+     * on the decrypted form of the cookie value. This is just a lookup; it doesn't validate,
+     * create, or destroy cookies or sessions.
+     *
+     * Note: the cookie is expected to belong to this shard, as determined by
+     * [SessionManager.cookieShardIndex].
+     *
+     * @param cookieText  the cookie value's text from the header
+     *
+     * @return `True` iff the session exists
+     * @return (conditional) the session
+     */
+    conditional SessionImpl getSessionByCookie(String cookieText) {
+        if (SessionImpl session := sessionByCookie.get(SessionCookie.textFromCookie(cookieText))) {
+            return True, session;
+        }
+
+        try {
+            SessionCookie cookie = new SessionCookie(manager, cookieText);
+            return manager.getSessionById(cookie.sessionId);
+        } catch (Exception e) {
+            return False;
+        }
+    }
+
+    /**
+     * Obtain the session for the specified session id.
+     *
+     * Note: the session id is expected to belong to this shard, as determined by
+     * [SessionManager.shardIndex].
+     *
+     * @param id  the session id
+     *
+     * @return `True` iff the session exists
+     * @return (conditional) the session
+     */
+    conditional SessionImpl getSessionById(Int id) {
+        SessionImpl|SessionStatus session = sessions.getOrDefault(id, Unknown);
+        if (session.is(SessionImpl)) {
+            return True, session;
+        }
+
+        switch (session) {
+        case Nonexistent:
+            return False;
+
+        case Unknown:
+        case OnDisk:
+            if (!store.persistent) {
+                return False;
+            }
+
+            SessionData|IOResult result = store.load(id);
+            if (result.is(SessionData)) {
+                return restoreSession(result);
+            }
+
+            switch (result) {
+            case Success:
+            case SerializationIncomplete:
+                assert;
+
+            case NoSuchSession:
+            case SerializationFailure:
+                // the session data that cannot be deserialized is as good as lost
+                sessions.put(id, Nonexistent);
+                return False;
+
+            case IOFailure:
+                // the failure may be transient; retry on the next request
+                return False;
+            }
+
+        case InMemory:
+            assert;
+        }
+    }
+
+    /**
+     * Instantiate a new [SessionImpl] object, including any [Session] mix-ins that the [WebApp]
+     * contains.
+     *
+     * @param requestInfo  the request information
+     *
+     * @return a new [SessionImpl] object, including any mixins declared by the application, or the
+     *         [HttpStatus] describing why the session could not be created
+     */
+    HttpStatus|SessionImpl createSession(RequestInfo requestInfo) {
+        Int64       id      = generateId();
+        SessionImpl session = instantiateSession(manager, id, requestInfo);
+        sessions.put(id, session);
+        ++createdCount;
+        return session;
+    }
+
+    /**
+     * Generate a session ID that belongs to this shard.
+     *
+     * @return an unused session ID
+     */
+    Int64 generateId() {
+        while (True) {
+            Int64 id = previousId + ID_GAP & ID_LIMIT;
+            previousId = id;
+
+            // move the id into the residue class of this shard
+            id = id - id % count + index;
+            if (id > ID_LIMIT) {
+                id -= count;
+            }
+
+            switch (getStatusById(id)) {
+            case Nonexistent:
+                return id;
+
+            case Unknown:
+                if (!store.exists(id)) {
+                    return id;
+                }
+                continue;
+
+            case OnDisk:
+            case InMemory:
+                // strange but not impossible: we have collided with an existing session; to
+                // compensate, increment the base by a different prime value than the gap; note
+                // that we have to assume that this method is concurrent, i.e. not running all
+                // at once (so the previousId may have already been changed by someone else,
+                // after we changed it above)
+                @Inject Random rnd;
+                Int64 adjust = HashMap.PRIMES[rnd.int(HashMap.PRIMES.size)];
+                previousId = previousId + adjust & ID_LIMIT;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Unregister the specified session, which belongs to this shard.
+     *
+     * @param id  the session id
+     */
+    void unregisterSession(Int id) {
+        if (getStatusById(id) == InMemory) {
+            ++deletedCount;
+        }
+        sessions.put(id, Nonexistent);
+        storedSessions.remove(id);
+        store.erase^(id);
+    }
+
+
+    // ----- purging -------------------------------------------------------------------------------
+
+    /**
+     * Write the changed sessions to the store, destroy the expired sessions, and evict the
+     * sessions that have been idle for longer than the `evictAfter` duration from memory.
+     *
+     * @param untrustedExpiry  how long a session of a shared device may remain idle
+     * @param trustedExpiry    how long a session of a trusted device may remain idle
+     * @param evictAfter       how long a session may remain idle in memory, or `Null` to keep
+     *                         the sessions in memory until they expire
+     */
+    void purge(Duration untrustedExpiry, Duration trustedExpiry, Duration? evictAfter) {
+        Time    now     = clock.now;
+        Boolean persist = store.persistent;
+
+        // the session calls below allow other requests to be processed by this shard, so iterate
+        // over a copy of the keys
+        for (Int id : sessions.keys.toArray()) {
+            SessionImpl|SessionStatus entry = sessions.getOrDefault(id, Unknown);
+            if (entry.is(SessionStatus)) {
+                if (entry == Nonexistent) {
+                    // the erase of a destroyed session has been handed to the store by now
+                    sessions.remove(id);
+                }
+                continue;
+            }
+
+            SessionImpl session = entry;
+            SessionData data    = session.snapshot_();
+            if (session.activeRequests > 0) {
+                // the session is in use
+            } else if (data.expired(now, untrustedExpiry, trustedExpiry)) {
+                session.destroy^();
+                continue;
+            } else if (persist && data.complete && data.idle(now) > evictAfter?) {
+                if (storedSessions.getOrNull(id) != data) {
+                    store.store^(data);
+                }
+                storedSessions.remove(id);
+                for (String? cookieText : data.cookies) {
+                    if (cookieText != Null) {
+                        manager.forgetSessionCookie(cookieText);
+                    }
+                }
+                sessions.put(id, OnDisk);
+                continue;
+            }
+
+            if (persist && storedSessions.getOrNull(id) != data) {
+                store.store^(data);
+                storedSessions.put(id, data);
+            }
+        }
+    }
+
+    /**
+     * Write all of the changed in-memory sessions to the store.
+     */
+    void persistAll() {
+        if (!store.persistent) {
+            return;
+        }
+
+        for (Int id : sessions.keys.toArray()) {
+            if (SessionImpl|SessionStatus entry := sessions.get(id), entry.is(SessionImpl)) {
+                SessionData data = entry.snapshot_();
+                if (storedSessions.getOrNull(id) != data) {
+                    store.store(data);
+                    storedSessions.put(id, data);
+                }
+            }
+        }
+    }
+
+
+    // ----- internal ------------------------------------------------------------------------------
+
+    /**
+     * Re-instantiate a session from the data loaded from the store.
+     *
+     * @param data  the session data
+     *
+     * @return `True` iff the session has been restored
+     * @return (conditional) the session
+     */
+    protected conditional SessionImpl restoreSession(SessionData data) {
+        Int id = data.id;
+        if (data.expired(clock.now, manager.untrustedDeviceTimeout, manager.trustedDeviceTimeout)) {
+            sessions.put(id, Nonexistent);
+            store.erase^(id);
+            return False;
+        }
+
+        // another request for the same session may have restored it while this one was loading
+        if (SessionImpl|SessionStatus entry := sessions.get(id), entry.is(SessionImpl)) {
+            return True, entry;
+        }
+
+        SessionImpl session;
+        try {
+            session = instantiateSession(manager, id, data);
+        } catch (Exception e) {
+            // e.g. the cookies cannot be decrypted after the cookie key has changed
+            log($"Failed to restore session {id}: {e}");
+            sessions.put(id, Nonexistent);
+            store.erase^(id);
+            return False;
+        }
+
+        sessions.put(id, session);
+        storedSessions.put(id, data);
+        session.registerCookies_();
+        return True, session;
+    }
+}
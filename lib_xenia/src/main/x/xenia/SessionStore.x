@@ -1,7 +1,8 @@
 /**
  * A service that provides support for [Session] objects in persistent storage.
  *
- * TODO concurrent or not?
+ * This implementation does not persist anything, so the sessions only exist for as long as they are
+ * held in memory by the [SessionManager]; see [FileSessionStore] for a persistent implementation.
  */
 service SessionStore {
     /**
@@ -26,8 +27,11 @@ service SessionStore {
 
     // ----- properties ----------------------------------------------------------------------------
 
-
-    // ----- session control -----------------------------------------------------------------------
+    /**
+     * `True` iff the sessions written to this store survive both the eviction from memory and the
+     * restart of the server.
+     */
+    @RO Boolean persistent.get() = False;
 
 
     // ----- session persistence -------------------------------------------------------------------
@@ -40,7 +44,6 @@ service SessionStore {
      * @return True iff the specified id has session data in persistent storage
      */
     Boolean exists(Int id) {
-        // TODO check sessions, and add flag to SessionImpl as well "on disk" vs. not and "up to date" vs not
         return False;
     }
 
@@ -49,23 +52,22 @@ service SessionStore {
      *
      * @param id  the session id
      *
-     * @return either the session, or an indicator of the reason why the specified session could
-     *         not be loaded
+     * @return either the session data, or an indicator of the reason why the specified session
+     *         could not be loaded
      */
-    SessionImpl|IOResult load(Int id) {
-        // TODO
+    SessionData|IOResult load(Int id) {
         return NoSuchSession;
     }
 
     /**
-     * Write the specified session to persistent storage.
+     * Write the specified session to persistent storage. The write is not necessarily completed
+     * by the time that this method returns; see [flush].
      *
-     * @param session  the session to store in persistent storage
+     * @param session  the snapshot of the session to store in persistent storage
      *
      * @return an indicator of the success or failure of the store operation
      */
-    IOResult store(SessionImpl session) {
-        // TODO
+    IOResult store(SessionData session) {
         return IOFailure;
     }
 
@@ -77,11 +79,15 @@ service SessionStore {
      * @return an indicator of the success or failure of the erase operation
      */
     IOResult erase(Int id) {
-        // TODO
         return NoSuchSession;
     }
 
-
-    // ----- internal -----------------------------------------------------------------------
-
+    /**
+     * Complete any pending writes.
+     *
+     * @return an indicator of the success or failure of the pending writes
+     */
+    IOResult flush() {
+        return Success;
+    }
 }
@@ -9,6 +9,7 @@ val javatoolsJar = "${javatools.buildDir}/libs/javatools.jar"
 val tests = listOf<String>(
     "src/main/x/annos.x",
     "src/main/x/array.x",
+    "src/main/x/arrayBulk.x",
     "src/main/x/collections.x",
     "src/main/x/defasn.x",
     "src/main/x/exceptions.x",
@@ -28,12 +29,14 @@ val tests = listOf<String>(
     "src/main/x/services.x",
     "src/main/x/reflect.x",
     "src/main/x/regex.x",
+    "src/main/x/registers.x",
     "src/main/x/runner.x",
     "src/main/x/tuple.x")
 
 val testModules = listOf<String>(
     "TestAnnotations",
     "TestArray",
+    "TestArrayBulk",
     "TestCollections",
     "TestDefAsn",
     "TestTry",
@@ -53,6 +56,7 @@ val testModules = listOf<String>(
     "TestServices",
     "TestReflection",
     "TestRegularExpressions",
+    "TestRegisters",
     "TestTuples")
 
 tasks.register("clean") {
@@ -160,4 +164,23 @@ tasks.register<JavaExec>("runOne") {
 
     args(opts + "src/main/x/$name.x")
     mainClass.set("org.xvm.tool.Runner")
-}
\ No newline at end of file
+}
+tasks.register<JavaExec>("runRegistersBoxed") {
+    group       = "Test"
+    description = "Run the register tests with the unboxed Int64 registers turned off"
+
+    dependsOn(compileAll)
+
+    jvmArgs("-Xms1024m", "-Xmx1024m", "-ea", "-Dxvm.primitiveRegisters=false")
+
+    classpath(javatoolsJar)
+
+    val opts = listOf<String>(
+        "-L", "${xdk.buildDir}/xdk/lib",
+        "-L", "${xdk.buildDir}/xdk/javatools/javatools_turtle.xtc",
+        "-L", "${xdk.buildDir}/xdk/javatools/javatools_bridge.xtc",
+        "-L", "$buildDir")
+
+    args(opts + "TestRegisters")
+    mainClass.set("org.xvm.tool.Runner")
+}
@@ -0,0 +1,337 @@
+/**
+ * Tests for the native bulk operations of the array delegates. Every result of a bulk operation is
+ * checked against the element-by-element implementation; the module should produce the same output
+ * when run with "-Dxvm.arrayBulkOps=false".
+ */
+module TestArrayBulk {
+    @Inject ecstasy.io.Console console;
+
+    void run() {
+        testIndexOf();
+        testFill();
+        testSort();
+        testEquals();
+        testCompare();
+        testHashCode();
+        testAddAll();
+        testCharHash();
+    }
+
+    void testIndexOf() {
+        console.print("\n** testIndexOf()");
+
+        Int[]    ints    = [5, -1, 7, 5, Int.MaxValue, -1, 0, 7];
+        UInt64[] ulongs  = [0, UInt64.MaxValue, 1, 0x8000_0000_0000_0000, UInt64.MaxValue];
+        Int32[]  int32s  = [3, -3, 3, Int32.MinValue, -3];
+        Char[]   chars   = ['a', 'b', '\u00E4', 'a', '\u20AC', 'b'];
+        String[] strings = ["a", "bb", "", "a", "bb"];
+
+        checkIndexOf(ints,    [5, -1, 7, Int.MaxValue, 0, 42]);
+        checkIndexOf(ulongs,  [0, 1, UInt64.MaxValue, 0x8000_0000_0000_0000, 2]);
+        checkIndexOf(int32s,  [3, -3, Int32.MinValue, 4]);
+        checkIndexOf(chars,   ['a', 'b', '\u00E4', '\u20AC', 'z']);
+        checkIndexOf(strings, ["a", "bb", "", "ccc"]);
+
+        // forward slices with a non-zero offset, both of a constant and of a mutable array
+        checkIndexOf(ints[2..6], [5, -1, 7, 0]);
+        checkIndexOf(new Array<Int>(Mutable, ints)[1..5], [5, -1, 7, 0]);
+        checkIndexOf(ulongs[1..3], [0, 1, UInt64.MaxValue]);
+        checkIndexOf(chars[2..4], ['a', '\u00E4', '\u20AC']);
+        checkIndexOf(strings[1..4], ["a", "bb", ""]);
+
+        // a reversed slice always takes the element-by-element path
+        checkIndexOf(ints[6..1], [5, -1, 7, 0]);
+
+        assert ints.contains(Int.MaxValue) && !ints.contains(42);
+        assert Int index := ints[2..6].indexOf(5), index == 1;
+        console.print($"ints[2..6].indexOf(5)={index}");
+    }
+
+    <Element> void checkIndexOf(Element[] array, Element[] values) {
+        for (Element value : values) {
+            for (Int startAt : [-1, 0, 1, 2, array.size - 1, array.size, array.size + 1]) {
+                Int bulk = -1;
+                if (Int index := array.indexOf(value, startAt)) {
+                    bulk = index;
+                }
+
+                Int slow = -1;
+                for (Int i = startAt.notLessThan(0); i < array.size; ++i) {
+                    if (array[i] == value) {
+                        slow = i;
+                        break;
+                    }
+                }
+                assert bulk == slow as $"indexOf({value}, {startAt}) in {array}";
+            }
+        }
+    }
+
+    void testFill() {
+        console.print("\n** testFill()");
+
+        Int[] ints = new Array<Int>(Mutable, [0, 1, 2, 3, 4, 5, 6, 7, 8, 9]);
+        ints.fill(-7, range(2, 5));
+        assert ints == [0, 1, -7, -7, -7, -7, 6, 7, 8, 9];
+
+        Int[] fixed = new Int[6](i -> i);
+        fixed.fill(Int.MinValue);
+        for (Int i : 0 ..< fixed.size) {
+            assert fixed[i] == Int.MinValue;
+        }
+
+        UInt64[] ulongs = new UInt64[5](i -> i.toUInt64());
+        ulongs.fill(UInt64.MaxValue, range(1, 2));
+        assert ulongs[0] == 0 && ulongs[1] == UInt64.MaxValue && ulongs[2] == UInt64.MaxValue
+                && ulongs[3] == 3;
+
+        // a fill through a forward slice changes the underlying array at the slice offset
+        Int[] base = new Array<Int>(Mutable, [0, 1, 2, 3, 4, 5, 6, 7]);
+        Int[] tail = base[3..6];
+        tail.fill(42, range(1, 2));
+        assert base == [0, 1, 2, 3, 42, 42, 6, 7];
+
+        Char[] chars = new Char[4](i -> 'a');
+        chars.fill('\u00DF', range(1, 2));
+        assert chars == ['a', '\u00DF', '\u00DF', 'a'];
+
+        String[] strings = new String[3](i -> "x");
+        strings.fill("y", range(2, 2));
+        assert strings == ["x", "x", "y"];
+
+        // a fill of a constant array produces a new array
+        Int[] constInts = [1, 2, 3];
+        Int[] filled    = constInts.fill(0, range(1, 1));
+        assert constInts == [1, 2, 3] && filled == [1, 0, 3];
+        console.print($"ints={ints}, base={base}");
+    }
+
+    static Interval<Int> range(Int from, Int to) = from..to;
+
+    void testSort() {
+        console.print("\n** testSort()");
+
+        checkSort(new Array<Int>(Mutable,
+                [5, -1, Int.MaxValue, 0, Int.MinValue, -1, 3]));
+        checkSort(new Array<UInt64>(Mutable,
+                [0x8000_0000_0000_0000, 1, UInt64.MaxValue, 0, 0x7FFF_FFFF_FFFF_FFFF]));
+        checkSort(new Array<Int32>(Mutable, [3, Int32.MinValue, -3, Int32.MaxValue, 0]));
+        checkSort(new Array<UInt32>(Mutable, [0x8000_0000, 1, UInt32.MaxValue, 0]));
+        checkSort(new Array<Int16>(Mutable, [3, Int16.MinValue, -3, Int16.MaxValue]));
+        checkSort(new Array<UInt16>(Mutable, [0x8000, 1, UInt16.MaxValue, 0]));
+        checkSort(new Array<Char>(Mutable, ['z', 'a', '\u20AC', '\u00E4', 'A']));
+        checkSort(new Array<String>(Mutable, ["pear", "", "apple", "Apple", "\u00E4", "app"]));
+
+        UInt64[] ulongs = new Array<UInt64>(Mutable, [UInt64.MaxValue, 1, 0x8000_0000_0000_0000]);
+        ulongs.sort();
+        assert ulongs[0] == 1 && ulongs[1] == 0x8000_0000_0000_0000 && ulongs[2] == UInt64.MaxValue;
+
+        // sorting a forward slice only sorts the elements within the slice
+        Int[] base = new Array<Int>(Mutable, [9, 8, 7, 6, 5, 4, 3]);
+        base[2..5].sort();
+        assert base == [9, 8, 4, 5, 6, 7, 3];
+        console.print($"ulongs={ulongs}, base={base}");
+    }
+
+    <Element extends Orderable> void checkSort(Element[] array) {
+        Element[] bulk = new Array<Element>(Mutable, array).sort();
+        Element[] slow = new Array<Element>(Mutable, array).sort((e1, e2) -> e1 <=> e2);
+        assert bulk == slow as $"sort {array}: {bulk} vs. {slow}";
+    }
+
+    void testEquals() {
+        console.print("\n** testEquals()");
+
+        Int[] ints    = [1, 2, 3, 4, 5];
+        Int[] mutable = new Array<Int>(Mutable, ints);
+        assert ints == mutable;
+        assert ints[1..3] == mutable[1..3];
+        assert ints[1..3] == [2, 3, 4];
+        assert ints[0..1] != ints[1..2];
+        assert ints[1..3] != ints[1..4];
+
+        mutable[4] = 6;
+        assert ints != mutable;
+
+        // mixed delegates: a reversed slice and a view take the element-by-element path
+        Int[] reversed = ints[3..1];
+        Int[] expected = [4, 3, 2];
+        assert reversed == expected && expected == reversed;
+
+        Byte[]  bytes = #0000000000000001_FFFFFFFFFFFFFFFF;
+        Int64[] view  = bytes.asInt64Array();
+        Int64[] longs = [1, -1];
+        assert view == longs && longs == view;
+        assert view != longs.reversed();
+
+        UInt64[] ulongs = [UInt64.MaxValue, 0];
+        assert ulongs == new Array<UInt64>(Mutable, ulongs);
+
+        String[] strings = ["a", "b", "c"];
+        String[] tail    = ["b", "c"];
+        assert strings[1..2] == tail && strings[2..1] == tail.reversed();
+
+        Char[] chars = ['x', 'y', 'z'];
+        assert chars == "xyz".toCharArray();
+        assert chars[1..2] == "yz".toCharArray();
+        console.print($"view={view}, longs={longs}");
+    }
+
+    void testCompare() {
+        console.print("\n** testCompare()");
+
+        Int[] ints = [1, 2, 3, 4, 5];
+        checkCompare(ints, ints);
+        checkCompare(ints[0..2], ints[0..3]);
+        checkCompare(ints[0..2], ints[1..3]);
+        checkCompare(ints[1..3], ints[0..1]);
+        checkCompare(ints[3..1], ints[1..3]);
+
+        Int[] signed = [-1, Int.MinValue, Int.MaxValue, 0];
+        checkCompare(signed[0..0], signed[3..3]);
+        checkCompare(signed[1..2], signed[2..3]);
+
+        UInt64[] big   = [0x8000_0000_0000_0000];
+        UInt64[] small = [1];
+        checkCompare(big, small);
+        assert big <=> small == Greater;
+
+        UInt64[] max0 = [UInt64.MaxValue, 0];
+        UInt64[] max1 = [UInt64.MaxValue, 1];
+        checkCompare(max0, max1);
+
+        UInt32[] ubig   = [0x8000_0000];
+        UInt32[] usmall = [1];
+        checkCompare(ubig, usmall);
+        assert ubig <=> usmall == Greater;
+
+        Int32[] ineg = [-1];
+        Int32[] ipos = [1];
+        checkCompare(ineg, ipos);
+        assert ineg <=> ipos == Lesser;
+
+        Char[] chars1 = ['a', 'b'];
+        Char[] chars2 = ['a', '\u00E4'];
+        checkCompare(chars1, chars2);
+
+        String[] strings1 = ["apple"];
+        String[] strings2 = ["Apple", "pear"];
+        checkCompare(strings1, strings2);
+        checkCompare(strings2, strings2[0..0]);
+
+        // mixed delegates: a view compared with a plain array
+        Byte[]  bytes = #0000000000000001_FFFFFFFFFFFFFFFF;
+        Int64[] view  = bytes.asInt64Array();
+        Int64[] longs = [1, 0];
+        checkCompare(view, longs);
+        checkCompare(longs, view);
+        console.print($"big <=> small={big <=> small}, ineg <=> ipos={ineg <=> ipos}");
+    }
+
+    <Element extends Orderable> void checkCompare(Element[] array1, Element[] array2) {
+        Ordered bulk = array1 <=> array2;
+        Ordered slow = array1.size <=> array2.size;
+        for (Int i = 0, Int c = array1.size.notGreaterThan(array2.size); i < c; ++i) {
+            Ordered order = array1[i] <=> array2[i];
+            if (order != Equal) {
+                slow = order;
+                break;
+            }
+        }
+        assert bulk == slow as $"{array1} <=> {array2}: {bulk} vs. {slow}";
+        assert array2 <=> array1 == slow.reversed;
+    }
+
+    void testHashCode() {
+        console.print("\n** testHashCode()");
+
+        Int[]    ints    = [1, -2, Int.MaxValue, Int.MinValue, 5];
+        UInt64[] ulongs  = [UInt64.MaxValue, 0x8000_0000_0000_0000, 7];
+        Int32[]  int32s  = [Int32.MinValue, -1, 3];
+        UInt16[] uint16s = [UInt16.MaxValue, 1];
+        Char[]   chars   = ['a', '\u00E4', '\u20AC'];
+        String[] strings = ["a", "bb", "", "ccc"];
+
+        checkHash(ints);
+        checkHash(ints[1..3]);
+        checkHash(ints[3..1]);
+        checkHash(ulongs);
+        checkHash(int32s);
+        checkHash(uint16s);
+        checkHash(chars);
+        checkHash(strings);
+        checkHash(strings[1..2]);
+
+        Int[] copy = new Array<Int>(Mutable, ints);
+        assert Array<Int>.hashCode(ints[1..2]) == Array<Int>.hashCode(copy[1..2]);
+        assert Array<Int>.hashCode(ints[2..1]) == Array<Int>.hashCode(ints[1..2]);
+        console.print($"hash={Array<Int>.hashCode(ints)}");
+    }
+
+    <Element extends Hashable> void checkHash(Element[] array) {
+        Int64 bulk = Array<Element>.hashCode(array);
+        Int64 slow = 0;
+        for (Element e : array) {
+            slow += Element.hashCode(e);
+        }
+        assert bulk == slow as $"hashCode({array}): {bulk} vs. {slow}";
+    }
+
+    void testAddAll() {
+        console.print("\n** testAddAll()");
+
+        Int[] ints = new Array<Int>(Mutable, [1, 2, 3]);
+        ints.addAll(ints);
+        assert ints == [1, 2, 3, 1, 2, 3];
+
+        ints.addAll(ints[1..2]);
+        assert ints == [1, 2, 3, 1, 2, 3, 2, 3];
+
+        ints.addAll(ints[2..0]);
+        assert ints == [1, 2, 3, 1, 2, 3, 2, 3, 3, 2, 1];
+
+        ints.addAll([]);
+        assert ints.size == 11;
+
+        UInt64[] ulongs = new Array<UInt64>(Mutable, [UInt64.MaxValue]);
+        ulongs.addAll(ulongs);
+        ulongs.addAll([0x8000_0000_0000_0000]);
+        assert ulongs.size == 3 && ulongs[1] == UInt64.MaxValue
+                && ulongs[2] == 0x8000_0000_0000_0000;
+
+        Char[] chars = new Array<Char>(Mutable, ['a', 'b']);
+        chars.addAll(chars);
+        chars.addAll("cd".toCharArray());
+        assert chars == ['a', 'b', 'a', 'b', 'c', 'd'];
+
+        String[] strings = new Array<String>(Mutable, ["x"]);
+        for (Int i : 0 ..< 4) {
+            strings.addAll(strings);
+        }
+        assert strings.size == 16 && strings.all(s -> s == "x");
+
+        // a view is added element by element
+        Int64[] longs = new Int64[];
+        longs.addAll(#0000000000000001_FFFFFFFFFFFFFFFF.asInt64Array());
+        assert longs == [1, -1];
+        console.print($"ints={ints}, chars={chars}");
+    }
+
+    void testCharHash() {
+        console.print("\n** testCharHash()");
+
+        for (Char ch : ['a', 'Z', '\u00E4', '\u20AC', '\0']) {
+            assert ch.hashCode() == ch.codepoint.toInt64();
+            assert Char.hashCode(ch) == ch.hashCode();
+        }
+
+        // equal chars from different sources have equal hashes
+        Char a1 = 'a';
+        Char a2 = "abc"[0];
+        assert a1 == a2 && a1.hashCode() == a2.hashCode();
+
+        HashSet<Char> set = new HashSet(['a', 'b', 'a', '\u00E4']);
+        assert set.size == 3 && set.contains("xa"[1]);
+        console.print($"'a'.hashCode()={'a'.hashCode()}");
+    }
+}
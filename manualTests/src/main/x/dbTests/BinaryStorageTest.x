@@ -0,0 +1,312 @@
+/**
+ * A stand-alone test for the binary storage format of jsondb.
+ *
+ * To run:
+ *      gradle compileOne -PtestName=dbTests/StoreDB
+ *      gradle runOne -PtestName=dbTests/BinaryStorageTest
+ */
+module BinaryStorageTest {
+    package oodb   import oodb.xtclang.org;
+    package jsondb import jsondb.xtclang.org;
+
+    package storeDB import StoreDB;
+
+    import jsondb.Catalog;
+    import jsondb.storage.BinaryStorageSupport;
+    import jsondb.storage.BinaryStorageSupport.Record;
+
+    import storeDB.StoreSchema;
+
+    typedef (oodb.Connection<StoreSchema> + StoreSchema) as Connection;
+
+    @Inject Console console;
+
+    void run() {
+        @Inject Directory homeDir;
+
+        Directory testDir  = homeDir.dirFor("Development/xvm/manualTests/data/binaryStorage");
+        Directory buildDir = homeDir.dirFor("Development/xvm/manualTests/build").ensure();
+        if (testDir.exists) {
+            testDir.deleteRecursively();
+        }
+        testDir.ensure();
+
+        testJsonRoundTrip();
+        testTornTail(testDir.dirFor("torn").ensure());
+        testIndexRejection(testDir.dirFor("index").ensure());
+        testIndexAndTailScan(testDir.dirFor("scan").ensure());
+        testReopen(testDir.dirFor("db").ensure(), buildDir);
+    }
+
+    /**
+     * The JSON to binary conversion and back must preserve every record, including the deletions.
+     */
+    void testJsonRoundTrip() {
+        console.print("*** testJsonRoundTrip");
+
+        BinaryStorageSupport mapSupport = new BinaryStorageSupport("k", "v");
+        String mapJson = \|[
+                          |{"tx":1, "k":"a", "v":1},
+                          |{"tx":2, "k":"b", "v":{"x":[1,2,3],"y":"text"}},
+                          |{"tx":3, "k":"a"},
+                          |{"tx":4, "k":"b", "v":"two"}
+                          |]
+                          ;
+        Byte[] mapBytes = mapSupport.fromJson(mapJson);
+        assert mapSupport.toJson(mapBytes) == mapJson;
+        assert mapSupport.fromJson(mapSupport.toJson(mapBytes)) == mapBytes;
+
+        (Record[] records, Int validSize) = BinaryStorageSupport.scan(mapBytes);
+        assert records.size == 4 && validSize == mapBytes.size;
+        assert records[2].deletion && records[2].key == "\"a\"" && records[2].txId == 3;
+        assert records[1].json == "{\"x\":[1,2,3],\"y\":\"text\"}";
+
+        BinaryStorageSupport valueSupport = new BinaryStorageSupport(Null, "value");
+        String valueJson = \|[
+                            |{"tx":1, "value":"first"},
+                            |{"tx":7, "value":"second"}
+                            |]
+                            ;
+        assert valueSupport.toJson(valueSupport.fromJson(valueJson)) == valueJson;
+
+        // no records at all
+        assert mapSupport.toJson([]) == "[]";
+        assert mapSupport.fromJson("[]").empty;
+    }
+
+    /**
+     * A torn or corrupted tail must stop the scan at the last intact record, and must be reported
+     * by loadLatest().
+     */
+    void testTornTail(Directory dir) {
+        console.print("*** testTornTail");
+
+        Byte[] buf = new Byte[];
+        BinaryStorageSupport.append(buf, 1, "\"a\"", "1");
+        Range<Int> last = BinaryStorageSupport.append(buf, 2, "\"b\"", "2");
+        Int intactSize = buf.size;
+        BinaryStorageSupport.append(buf, 3, "\"a\"", "3");
+
+        // a torn write: the last record is incomplete
+        Byte[] torn = buf[0 ..< buf.size - 2].reify();
+        (Record[] records, Int validSize) = BinaryStorageSupport.scan(torn);
+        assert records.size == 2 && validSize == intactSize;
+
+        // a corrupted write: the last record is complete, but its checksum doesn't match
+        Byte[] corrupt = new Byte[buf.size](i -> buf[i]);
+        corrupt[corrupt.size - 1] ^= 0xFF;
+        (records, validSize) = BinaryStorageSupport.scan(corrupt);
+        assert records.size == 2 && validSize == intactSize;
+        assert !BinaryStorageSupport.decode(corrupt, intactSize);
+
+        File file = dir.fileFor("torn.bin");
+        file.contents = torn;
+        (Map<String, Record> latest, Boolean intact) = BinaryStorageSupport.loadLatest(file, 10);
+        assert !intact;
+        assert latest.size == 2 && latest["\"a\""]?.json == "1" : assert;
+
+        file.contents = buf;
+        (latest, intact) = BinaryStorageSupport.loadLatest(file, 10);
+        assert intact;
+        assert latest["\"a\""]?.json == "3" : assert;
+
+        // the records beyond the last committed transaction are not a part of the data
+        (latest, intact) = BinaryStorageSupport.loadLatest(file, 2);
+        assert !intact;
+        assert latest["\"a\""]?.json == "1" : assert;
+        assert latest["\"b\""]?.location == last : assert;
+    }
+
+    /**
+     * A stale or corrupted index must be rejected by readIndex().
+     */
+    void testIndexRejection(Directory dir) {
+        console.print("*** testIndexRejection");
+
+        File   file = dir.fileFor("data.bin");
+        Byte[] buf  = new Byte[];
+        Range<Int> a = BinaryStorageSupport.append(buf, 1, "\"a\"", "1");
+        Range<Int> b = BinaryStorageSupport.append(buf, 2, "\"b\"", "2");
+        file.contents = buf;
+
+        File index = BinaryStorageSupport.indexFor(file);
+        assert index.name == "data.idx";
+        assert !BinaryStorageSupport.readIndex(file);
+
+        BinaryStorageSupport.writeIndex(file, buf.size, [a, b]);
+        assert (Int dataSize, Range<Int>[] locations) := BinaryStorageSupport.readIndex(file);
+        assert dataSize == buf.size && locations == [a, b];
+
+        Byte[] good = index.contents;
+
+        // a corrupted checksum
+        Byte[] bad = good.toArray(Mutable);
+        bad[bad.size - 1] ^= 0x01;
+        index.contents = bad;
+        assert !BinaryStorageSupport.readIndex(file);
+
+        // a corrupted location (the checksum covers it)
+        bad = good.toArray(Mutable);
+        bad[17] ^= 0x01;
+        index.contents = bad;
+        assert !BinaryStorageSupport.readIndex(file);
+
+        // a wrong magic number
+        bad = good.toArray(Mutable);
+        bad[0] = 0;
+        index.contents = bad;
+        assert !BinaryStorageSupport.readIndex(file);
+
+        // a truncated index
+        index.contents = good[0 ..< good.size - 12].reify();
+        assert !BinaryStorageSupport.readIndex(file);
+
+        // a stale index: it covers more data than the file holds (the file has been rewritten)
+        BinaryStorageSupport.writeIndex(file, buf.size + 1, [a, b]);
+        assert !BinaryStorageSupport.readIndex(file);
+
+        // an index that doesn't match the data must not be trusted by loadLatest()
+        BinaryStorageSupport.writeIndex(file, buf.size, [a, a.effectiveLowerBound + 1 ..< b.effectiveUpperBound + 1]);
+        assert BinaryStorageSupport.readIndex(file);
+        (Map<String, Record> latest, Boolean intact) = BinaryStorageSupport.loadLatest(file, 10);
+        assert intact && latest.size == 2 && latest["\"b\""]?.json == "2" : assert;
+
+        BinaryStorageSupport.deleteIndex(file);
+        assert !index.exists;
+    }
+
+    /**
+     * The latest records must be found from the index plus a scan of the records appended after
+     * the index was written.
+     */
+    void testIndexAndTailScan(Directory dir) {
+        console.print("*** testIndexAndTailScan");
+
+        File   file = dir.fileFor("data.bin");
+        Byte[] buf  = new Byte[];
+        BinaryStorageSupport.append(buf, 1, "\"a\"", "1");
+        Range<Int> b = BinaryStorageSupport.append(buf, 2, "\"b\"", "2");
+        Range<Int> a = BinaryStorageSupport.append(buf, 3, "\"a\"", "3");
+        Int indexed = buf.size;
+
+        // the index only holds the latest location of each key
+        file.contents = buf;
+        BinaryStorageSupport.writeIndex(file, indexed, [a, b]);
+
+        // the appends after the index was written: an update, a deletion and a new key
+        BinaryStorageSupport.append(buf, 4, "\"b\"", "4");
+        BinaryStorageSupport.append(buf, 5, "\"a\"", "");
+        BinaryStorageSupport.append(buf, 6, "\"c\"", "6");
+        file.contents = buf;
+
+        (Map<String, Record> latest, Boolean intact) = BinaryStorageSupport.loadLatest(file, 6);
+        assert intact;
+        assert latest.size == 3;
+        assert latest["\"a\""]?.deletion : assert;
+        assert latest["\"b\""]?.json == "4" : assert;
+        assert latest["\"c\""]?.json == "6" : assert;
+
+        // the index alone (with nothing appended) gives the same answer as a full scan
+        file.contents = buf[0 ..< indexed].reify();
+        (latest, intact) = BinaryStorageSupport.loadLatest(file, 6);
+        assert intact && latest.size == 2;
+        assert latest["\"a\""]?.location == a : assert;
+        assert latest["\"b\""]?.location == b : assert;
+    }
+
+    /**
+     * A database stored in the binary format must reopen with the same contents, both from the
+     * indexes written on close and with the indexes missing, and must convert to JSON and back.
+     */
+    void testReopen(Directory dataDir, Directory buildDir) {
+        console.print("*** testReopen");
+
+        Catalog catalog = jsondb.createCatalog("StoreDB", dataDir, buildDir, Binary);
+        catalog.ensureOpenDB("StoreDB");
+        using (Connection conn = catalog.createConnection().as(Connection)) {
+            for (Int i : 0 ..< 100) {
+                conn.values.put($"k{i % 10}", i);
+            }
+            conn.values.remove("k3");
+            conn.total.set(4950);
+        }
+        catalog.close();
+
+        File[] indexes = findFiles(dataDir, ".idx");
+        assert !indexes.empty;
+        assert !findFiles(dataDir, ".bin").empty && findFiles(dataDir, ".json").empty;
+
+        // reopen using the indexes; then append more, and close without writing the indexes
+        catalog.open();
+        using (Connection conn = catalog.createConnection().as(Connection)) {
+            verify(conn, 90);
+            conn.values.put("k0", 100);
+        }
+        catalog.close();
+
+        for (File index : findFiles(dataDir, ".idx")) {
+            index.delete();
+        }
+        catalog.open();
+        using (Connection conn = catalog.createConnection().as(Connection)) {
+            assert conn.values["k0"] == 100;
+            conn.values.put("k0", 90);
+        }
+        catalog.close();
+
+        // the indexes are written again on close; reopen from a stale index plus the tail
+        catalog.open();
+        using (Connection conn = catalog.createConnection().as(Connection)) {
+            verify(conn, 90);
+        }
+        catalog.close();
+
+        // export to JSON and import back
+        catalog.convertStorage(Json);
+        assert findFiles(dataDir, ".bin").empty && findFiles(dataDir, ".idx").empty;
+        catalog.open();
+        using (Connection conn = catalog.createConnection().as(Connection)) {
+            verify(conn, 90);
+        }
+        catalog.close();
+
+        catalog.convertStorage(Binary);
+        assert findFiles(dataDir, ".json").empty;
+        catalog.open();
+        using (Connection conn = catalog.createConnection().as(Connection)) {
+            verify(conn, 90);
+        }
+        catalog.close();
+    }
+
+    /**
+     * Verify the contents of the database created by testReopen().
+     */
+    void verify(Connection conn, Int base) {
+        assert conn.values.size == 9 && !conn.values.contains("k3");
+        for (Int i : 0 ..< 10) {
+            if (i != 3) {
+                assert conn.values[$"k{i}"] == base + i;
+            }
+        }
+        assert conn.total.get() == 4950;
+    }
+
+    /**
+     * Find all the data files with the specified extension in the directories of the database
+     * objects; the system files are excluded.
+     */
+    File[] findFiles(Directory dataDir, String ext) {
+        File[] files = new File[];
+        for (Directory dir : dataDir.dirs()) {
+            if (dir.name != "sys") {
+                for (File file : dir.files()) {
+                    if (file.name.endsWith(ext)) {
+                        files += file;
+                    }
+                }
+            }
+        }
+        return files;
+    }
+}
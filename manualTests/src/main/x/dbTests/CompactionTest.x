@@ -0,0 +1,209 @@
+/**
+ * A stand-alone test for the background compaction and checkpointing of jsondb.
+ *
+ * To run:
+ *      gradle compileOne -PtestName=dbTests/StoreDB
+ *      gradle runOne -PtestName=dbTests/CompactionTest
+ */
+module CompactionTest {
+    package oodb   import oodb.xtclang.org;
+    package jsondb import jsondb.xtclang.org;
+
+    package storeDB import StoreDB;
+
+    import jsondb.Catalog;
+    import jsondb.Compactor;
+    import jsondb.storage.ObjectStore.StorageFormat;
+
+    import storeDB.StoreSchema;
+
+    typedef (oodb.Connection<StoreSchema> + StoreSchema) as Connection;
+
+    @Inject Console console;
+
+    void run() {
+        @Inject Directory homeDir;
+
+        Directory testDir  = homeDir.dirFor("Development/xvm/manualTests/data/compaction");
+        Directory buildDir = homeDir.dirFor("Development/xvm/manualTests/build").ensure();
+        if (testDir.exists) {
+            testDir.deleteRecursively();
+        }
+        testDir.ensure();
+
+        for (StorageFormat format : StorageFormat.values) {
+            testRetainedVersions(testDir.dirFor($"retain-{format}").ensure(), buildDir, format);
+        }
+        testLogRoll(testDir.dirFor("roll").ensure(), testDir.dirFor("copy").ensure(), buildDir);
+    }
+
+    /**
+     * Compaction must preserve every version that is visible to a retained read transaction, and
+     * must only drop a deleted key once all the readers can see the deletion.
+     */
+    void testRetainedVersions(Directory dataDir, Directory buildDir, StorageFormat format) {
+        console.print($"*** testRetainedVersions({format})");
+
+        Catalog   catalog   = openCatalog(dataDir, buildDir, format);
+        Compactor compactor = catalog.compactor;
+
+        Connection writer = catalog.createConnection().as(Connection);
+        Connection reader = catalog.createConnection().as(Connection);
+        for (Int i : 0 ..< 50) {
+            writer.values.put($"k{i % 5}", i);
+        }
+
+        using (reader.createTransaction()) {
+            // the first read fixes the version of the data that the transaction sees
+            assert reader.values["k0"] == 45;
+
+            for (Int i : 50 ..< 100) {
+                writer.values.put($"k{i % 5}", i);
+            }
+            writer.values.remove("k1");
+
+            compactor.run(True);
+            Compactor.Stats stats = compactor.stats;
+            assert stats.compactions > 0 && stats.bytesReclaimed > 0;
+
+            // the versions that the reader sees survive the compaction
+            for (Int i : 0 ..< 5) {
+                assert reader.values[$"k{i}"] == 45 + i;
+            }
+
+            // so does the deleted key, since the reader can still see it
+            assert dataContains(dataDir, "\"k1\"");
+        }
+
+        assert writer.values["k0"] == 95 && !writer.values.contains("k1");
+
+        // now all the readers see the deletion, so the next compaction drops the key entirely
+        compactor.run(True);
+        assert !dataContains(dataDir, "\"k1\"");
+
+        writer.close();
+        reader.close();
+        catalog.close();
+
+        // the compacted data reopens intact
+        catalog.open();
+        using (Connection conn = catalog.createConnection().as(Connection)) {
+            verify(conn, 95);
+        }
+        catalog.close();
+    }
+
+    /**
+     * Rolling the transaction log and deleting its archives must leave a database that can be
+     * both reopened and recovered.
+     */
+    void testLogRoll(Directory dataDir, Directory copyDir, Directory buildDir) {
+        console.print("*** testLogRoll");
+
+        Catalog   catalog   = openCatalog(dataDir, buildDir, Json);
+        Compactor compactor = catalog.compactor;
+        compactor.checkpointLogSize = 1K;
+        compactor.maxLogArchives    = 1;
+
+        Connection writer = catalog.createConnection().as(Connection);
+        for (Int round : 0 ..< 5) {
+            for (Int i : 0 ..< 20) {
+                writer.values.put($"k{i % 5}", round * 100 + i);
+            }
+            compactor.run(True);
+        }
+        writer.values.remove("k1");
+
+        Compactor.Stats stats = compactor.stats;
+        assert stats.logRolls >= 4 && stats.archivesRemoved > 0;
+
+        Directory sysDir   = dataDir.dirFor("sys");
+        Int       archives = 0;
+        for (File file : sysDir.files()) {
+            if (file.name.startsWith("txlog_")) {
+                ++archives;
+            }
+        }
+        assert 0 < archives <= compactor.maxLogArchives + 1;
+
+        writer.close();
+        catalog.close();
+
+        // keep a copy of the files to recover from
+        copy(dataDir, copyDir);
+
+        // a clean reopen after the checkpoints
+        catalog.open();
+        using (Connection conn = catalog.createConnection().as(Connection)) {
+            verify(conn, 415);
+        }
+        catalog.close();
+
+        // a recovery that reads the log that has been rolled and partially deleted
+        Catalog recovered = jsondb.createCatalog("StoreDB", copyDir, buildDir);
+        recovered.recover();
+        using (Connection conn = recovered.createConnection().as(Connection)) {
+            verify(conn, 415);
+        }
+        recovered.close();
+    }
+
+    /**
+     * Create and open a Catalog for the StoreDB, and configure its Compactor to run whenever
+     * asked to, and to compact all the stores.
+     */
+    Catalog openCatalog(Directory dataDir, Directory buildDir, StorageFormat format) {
+        Catalog catalog = jsondb.createCatalog("StoreDB", dataDir, buildDir, format);
+        catalog.ensureOpenDB("StoreDB");
+
+        Compactor compactor = catalog.compactor;
+        compactor.minInterval   = Duration.None;
+        compactor.minStoreSize  = 0;
+        compactor.growthPercent = 0;
+        return catalog;
+    }
+
+    /**
+     * Verify that the database holds "k0", "k2", "k3" and "k4" with the values that start at the
+     * specified one, and that "k1" has been deleted.
+     */
+    void verify(Connection conn, Int base) {
+        assert conn.values.size == 4 && !conn.values.contains("k1");
+        for (Int i : [0, 2, 3, 4]) {
+            assert conn.values[$"k{i}"] == base + i;
+        }
+    }
+
+    /**
+     * @return True iff any of the data files of the "values" map contain the specified text; the
+     *         files are searched as bytes, since the binary format is not a text
+     */
+    Boolean dataContains(Directory dataDir, String text) {
+        Byte[] find = text.utf8();
+        for (File file : dataDir.dirFor("values").files()) {
+            Byte[] bytes = file.contents;
+            NextOffset: for (Int offset : 0 ..< bytes.size - find.size + 1) {
+                for (Int i : 0 ..< find.size) {
+                    if (bytes[offset + i] != find[i]) {
+                        continue NextOffset;
+                    }
+                }
+                return True;
+            }
+        }
+        return False;
+    }
+
+    /**
+     * Copy the contents of a directory.
+     */
+    void copy(Directory from, Directory to) {
+        to.ensure();
+        for (File file : from.files()) {
+            to.fileFor(file.name).contents = file.contents;
+        }
+        for (Directory dir : from.dirs()) {
+            copy(dir, to.dirFor(dir.name));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+@Database
+module StoreDB {
+    package oodb import oodb.xtclang.org;
+
+    import oodb.Database;
+    import oodb.DBMap;
+    import oodb.DBValue;
+    import oodb.RootSchema;
+
+    interface StoreSchema
+            extends RootSchema {
+        @RO DBMap<String, Int> values;
+        @RO DBValue<Int> total;
+    }
+}
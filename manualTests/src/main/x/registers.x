@@ -0,0 +1,235 @@
+/**
+ * Tests for the Int64 values that the runtime keeps unboxed in the frame registers. Every test
+ * should produce the same output when run with "-Dxvm.primitiveRegisters=false".
+ */
+module TestRegisters
+    {
+    @Inject Console console;
+
+    void run()
+        {
+        console.print("Register tests:");
+
+        testEscapeRef();
+        testEscapeLambda();
+        testEscapeReturn();
+        testScopeReuse();
+        testExceptions();
+        testCompare();
+        }
+
+    void testEscapeRef()
+        {
+        console.print("\n** testEscapeRef()");
+
+        Int sum = 0;
+        for (Int i = 0; i < 10; ++i)
+            {
+            sum += i;
+            }
+
+        Var<Int> ref = &sum;
+        assert ref.get() == 45;
+
+        ref.set(7);
+        assert sum == 7;
+
+        sum += 1;
+        assert ref.get() == 8;
+
+        ++sum;
+        assert ref.get() == 9 && sum == 9;
+        console.print($"sum={sum}");
+        }
+
+    void testEscapeLambda()
+        {
+        console.print("\n** testEscapeLambda()");
+
+        Int n = 0;
+        for (Int i = 1; i <= 10; ++i)
+            {
+            n += i;
+            }
+
+        function Int() get = () -> n;
+        assert get() == 55;
+
+        n *= 2;
+        assert get() == 55 && n == 110;
+
+        @Volatile Int m = n;
+        function void() inc = () -> {++m;};
+        inc();
+        m += 2;
+        assert m == 113;
+        console.print($"n={n}, m={m}");
+        }
+
+    void testEscapeReturn()
+        {
+        console.print("\n** testEscapeReturn()");
+
+        assert sumTo(100) == 5050;
+        assert Int r := findSquare(49), r == 7;
+        assert !findSquare(50);
+
+        (Int a, Int b) = divMod(17, 5);
+        assert a == 3 && b == 2;
+        console.print($"sumTo(100)={sumTo(100)}");
+        }
+
+    Int sumTo(Int n)
+        {
+        Int s = 0;
+        for (Int i = 1; i <= n; ++i)
+            {
+            s += i;
+            }
+        return s;
+        }
+
+    conditional Int findSquare(Int n)
+        {
+        for (Int i = 0; i * i <= n; ++i)
+            {
+            if (i * i == n)
+                {
+                return True, i;
+                }
+            }
+        return False;
+        }
+
+    (Int, Int) divMod(Int n, Int d)
+        {
+        Int q = 0;
+        Int r = n;
+        while (r >= d)
+            {
+            r -= d;
+            ++q;
+            }
+        return q, r;
+        }
+
+    void testScopeReuse()
+        {
+        console.print("\n** testScopeReuse()");
+
+        Int total = 0;
+        for (Int i = 0; i < 3; ++i)
+            {
+                {
+                Int a = i;
+                a += 100;
+                total += a;
+                }
+                {
+                String s = $"s{i}";
+                assert s.size == 2;
+                }
+                {
+                Int b;
+                b = total;
+                b -= i;
+                assert b >= 0;
+                }
+            }
+        assert total == 303;
+
+        if (total > 0)
+            {
+            Int x = total;
+            x <<= 1;
+            assert x == 606;
+            }
+        else
+            {
+            Object o = "unreachable";
+            assert o.is(String);
+            }
+        console.print($"total={total}");
+        }
+
+    void testExceptions()
+        {
+        console.print("\n** testExceptions()");
+
+        Int count = 0;
+        try
+            {
+            count += 5;
+            throw new Exception("test");
+            }
+        catch (Exception e)
+            {
+            count += 1;
+            }
+        finally
+            {
+            ++count;
+            }
+        assert count == 7;
+
+        Int zero = count - 7;
+        Int before = count;
+        try
+            {
+            count = count / zero;
+            assert;
+            }
+        catch (Exception e)
+            {
+            assert count == before;
+            }
+
+        assert tryAdd(40) == 42;
+        try
+            {
+            tryAdd(-1);
+            assert;
+            }
+        catch (IllegalArgument e)
+            {
+            }
+        console.print($"count={count}");
+        }
+
+    Int tryAdd(Int n)
+        {
+        Int v = n;
+        v += 2;
+        if (v < 2)
+            {
+            throw new IllegalArgument($"v={v}");
+            }
+        return v;
+        }
+
+    void testCompare()
+        {
+        console.print("\n** testCompare()");
+
+        Int  a = 0;
+        Int  b = 0;
+        for (Int i = 0; i < 5; ++i)
+            {
+            a += i;
+            b += 4 - i;
+            }
+        assert a == b && a <= b && !(a < b) && a >= b;
+
+        Int? c = a > 5 ? a : Null;
+        assert c == 10;
+
+        Int8 small = 3;
+        small += 1;
+        assert small == 4;
+
+        UInt64 u = 1;
+        u <<= 63;
+        assert u > 0;
+        console.print($"a={a}, b={b}");
+        }
+    }
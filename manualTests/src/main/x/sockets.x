@@ -0,0 +1,222 @@
+/**
+ * The loopback socket test and benchmark. The command example:
+ *
+ *    xec build/TestSockets.xtc 8090 64 10000
+ *
+ * where the arguments are the port to listen on, the number of megabytes to send in the throughput
+ * test, and the number of round trips in the latency test.
+ */
+module TestSockets {
+    package net import net.xtclang.org;
+
+    import ecstasy.io.ReadBuffer;
+    import ecstasy.io.TransferableBuffer;
+    import ecstasy.io.WriteBuffer;
+
+    import net.IPAddress;
+    import net.Network;
+    import net.ServerSocket;
+    import net.Socket;
+    import net.SocketAddress;
+
+    @Inject Console console;
+    @Inject Network network;
+    @Inject Timer   timer;
+
+    void run(String[] args = ["8090", "64", "10000"]) {
+        SocketAddress address    = (new IPAddress("127.0.0.1"), new UInt16(args[0]));
+        Int           megabytes  = new Int(args[1]);
+        Int           roundTrips = new Int(args[2]);
+
+        assert ServerSocket server := network.listen(address);
+        console.print($"listening on {server.localAddress}");
+
+        new Acceptor().serve^(server);
+
+        testStreams(address);
+        testThroughput(address, megabytes);
+        testLatency(address, roundTrips);
+
+        server.close();
+        console.print("done");
+    }
+
+    /**
+     * Exchange the data using the blocking `in` and `out` streams.
+     */
+    void testStreams(SocketAddress address) {
+        console.print("\n** testStreams()");
+
+        assert Socket socket := network.connect(address);
+        console.print($"connected {socket}");
+
+        BinaryOutput out = socket.out;
+        BinaryInput  in  = socket.in;
+
+        Byte[] message = "Hello, sockets!".utf8();
+        out.writeByte(Command.Echo.ordinal.toByte());
+        out.writeBytes(message);
+
+        Byte[] echo = in.readBytes(message.size);
+        assert echo == message;
+        console.print($"echoed {new String(echo.unpackUtf8())}");
+
+        socket.close();
+    }
+
+    /**
+     * Send a number of megabytes in one direction and wait for the peer to acknowledge them.
+     */
+    void testThroughput(SocketAddress address, Int megabytes) {
+        console.print("\n** testThroughput()");
+
+        assert Socket socket := network.connect(address);
+        Socket.Channel channel = socket.channel;
+
+        Int    chunk = 64 * 1024;
+        Int    total = megabytes * 1024 * 1024;
+        Byte[] bytes = new Byte[chunk](i -> i.toByte());
+
+        timer.reset();
+        timer.start();
+
+        channel.write(wrap([Command.Sink.ordinal.toByte()]));
+        for (Int sent = 0; sent < total; sent += chunk) {
+            channel.write(wrap(bytes));
+        }
+        socket.shutdownOutput();
+
+        assert ReadBuffer ack ?= channel.read();
+        Int received = new Int(ack.readBytes(ack.remaining));
+
+        Duration elapsed = timer.elapsed;
+        timer.stop();
+
+        assert received == total;
+        Int millis = elapsed.milliseconds.notLessThan(1);
+        console.print($|sent {megabytes}MB in {millis}ms: {megabytes * 1000 / millis}MB/s
+                     );
+        socket.close();
+    }
+
+    /**
+     * Measure the round trip time for small messages.
+     */
+    void testLatency(SocketAddress address, Int roundTrips) {
+        console.print("\n** testLatency()");
+
+        assert Socket socket := network.connect(address);
+        Socket.Channel channel = socket.channel;
+
+        channel.write(wrap([Command.Echo.ordinal.toByte()]));
+
+        Byte[] ping  = new Byte[64](i -> i.toByte());
+        Int[]  times = new Int[](roundTrips);
+
+        timer.reset();
+        timer.start();
+        for (Int i = 0; i < roundTrips; ++i) {
+            Int start = timer.elapsed.nanoseconds;
+
+            channel.write(wrap(ping));
+            for (Int received = 0; received < ping.size;) {
+                assert ReadBuffer pong ?= channel.read();
+                received += pong.remaining;
+                pong.close();
+            }
+
+            times += timer.elapsed.nanoseconds - start;
+        }
+        timer.stop();
+
+        times = times.sorted(inPlace=True);
+        Int p50 = times[roundTrips / 2];
+        Int p99 = times[roundTrips * 99 / 100];
+        console.print($|{roundTrips} round trips: p50={p50 / 1000}us p99={p99 / 1000}us\
+                       | max={times[roundTrips - 1] / 1000}us
+                     );
+        socket.close();
+    }
+
+    /**
+     * The command sent as the first byte of a connection: `Echo` asks the server to echo the data
+     * back, `Sink` to count the data until the end of the input and reply with the count.
+     */
+    enum Command {Echo, Sink}
+
+    /**
+     * @return a ReadBuffer that can be passed to a channel of another service
+     */
+    static ReadBuffer wrap(Byte[] bytes) {
+        TransferableBuffer transfer = new TransferableBuffer(bytes.size);
+        WriteBuffer        out      = transfer.createWriteBuffer();
+        out.writeBytes(bytes);
+        return out.toReadBuffer();
+    }
+
+    /**
+     * Accepts the connections and handles each of them on its own service.
+     */
+    service Acceptor {
+        void serve(ServerSocket server) {
+            try {
+                while (True) {
+                    Socket socket = server.accept();
+                    new Handler(socket).handle^();
+                }
+            } catch (ecstasy.io.IOClosed e) {}
+        }
+    }
+
+    /**
+     * Handles a single connection.
+     */
+    service Handler(Socket socket) {
+        void handle() {
+            Socket.Channel channel = socket.channel;
+            try {
+                // the first byte is the command
+                if (ReadBuffer buffer := next(channel)) {
+                    switch (Command.values[buffer.readByte()]) {
+                    case Echo:
+                        do {
+                            // the buffer has been used by this service, so it cannot be passed
+                            // back to the socket; copy the bytes instead
+                            if (!buffer.eof) {
+                                channel.write(wrap(buffer.readBytes(buffer.remaining)));
+                            }
+                            buffer.close();
+                        } while (buffer := next(channel));
+                        break;
+
+                    case Sink:
+                        Int count = 0;
+                        do {
+                            count += buffer.remaining;
+                            buffer.close();
+                        } while (buffer := next(channel));
+
+                        channel.write(wrap(count.toByteArray()));
+                        break;
+                    }
+                }
+            } finally {
+                socket.close();
+            }
+        }
+
+        /**
+         * @return True iff there is more data to read
+         * @return (conditional) the next non-empty buffer
+         */
+        static conditional ReadBuffer next(Socket.Channel channel) {
+            while (ReadBuffer buffer ?= channel.read()) {
+                if (!buffer.eof) {
+                    return True, buffer;
+                }
+                buffer.close();
+            }
+            return False;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * A stand-alone test for the routing of the requests to the endpoints of a WebApp by the xenia
+ * Router.
+ *
+ * To run:
+ *      gradle runOne -PtestName=webTests/RouterTest
+ */
+module RouterTest
+        incorporates WebApp {
+    package net   import net.xtclang.org;
+    package web   import web.xtclang.org;
+    package xenia import xenia.xtclang.org;
+
+    import net.Uri;
+    import net.UriTemplate.UriParameters;
+
+    import web.*;
+
+    import xenia.Catalog;
+    import xenia.Catalog.EndpointInfo;
+    import xenia.Catalog.WebServiceInfo;
+
+    @Inject Console console;
+
+    void run() {
+        Catalog catalog = Catalog.buildCatalog(this);
+
+        testServices(catalog);
+        testLiteralBeatsVariable(catalog);
+        testSingleSegment(catalog);
+        testMethods(catalog);
+        testFallbackOrder(catalog);
+    }
+
+    /**
+     * The longest WebService path that matches the leading segments of the URI wins.
+     */
+    void testServices(Catalog catalog) {
+        console.print("*** testServices");
+
+        assertRoute(catalog, "GET", "/api/v2/x/y", "/api/v2", "{path}", ["path"="x/y"]);
+        assertRoute(catalog, "GET", "/api/users/42", "/api", "users/{id}", ["id"="42"]);
+        assertRoute(catalog, "GET", "/apis", "/", "{path}", ["path"="apis"]);
+        assertRoute(catalog, "GET", "/other/thing", "/", "other/thing", []);
+    }
+
+    /**
+     * A literal segment beats a variable, regardless of the order of the endpoints.
+     */
+    void testLiteralBeatsVariable(Catalog catalog) {
+        console.print("*** testLiteralBeatsVariable");
+
+        // "users/{id}" is declared before "users/me"
+        assertRoute(catalog, "GET", "/api/users/me", "/api", "users/me", []);
+        assertRoute(catalog, "GET", "/api/users/you", "/api", "users/{id}", ["id"="you"]);
+
+        // "{path}" is declared before "other/thing"
+        assertRoute(catalog, "GET", "/other/thing", "/", "other/thing", []);
+        assertRoute(catalog, "GET", "/other/things", "/", "{path}", ["path"="other/things"]);
+    }
+
+    /**
+     * A variable in the middle of a template matches a single segment; the more specific template
+     * wins over the one with a trailing variable.
+     */
+    void testSingleSegment(Catalog catalog) {
+        console.print("*** testSingleSegment");
+
+        assertRoute(catalog, "GET", "/api/users/42/items", "/api", "users/{id}/items", ["id"="42"]);
+        assertRoute(catalog, "GET", "/api/users/42/items/7", "/api", "users/{id}/items/{itemId}",
+                ["id"="42", "itemId"="7"]);
+        assertRoute(catalog, "GET", "/api/users/42/merge", "/api", "users/{id}/merge", ["id"="42"]);
+
+        // "a/b" cannot be the value of the {id} in the middle, so only the trailing {id} matches
+        assertRoute(catalog, "GET", "/api/users/a/b/items", "/api", "users/{id}", ["id"="a/b/items"]);
+        assertNoRoute(catalog, "GET", "/api/x/y/z");
+    }
+
+    /**
+     * The endpoints with the same template are selected by the HTTP method.
+     */
+    void testMethods(Catalog catalog) {
+        console.print("*** testMethods");
+
+        assertRoute(catalog, "GET",    "/api/users/42", "/api", "users/{id}", ["id"="42"], "user");
+        assertRoute(catalog, "DELETE", "/api/users/42", "/api", "users/{id}", ["id"="42"], "del");
+        assertNoRoute(catalog, "POST", "/api/users/42");
+
+        assertRoute(catalog, "POST", "/api/login", "/api", "login", []);
+        assertNoRoute(catalog, "GET", "/api/login");
+    }
+
+    /**
+     * The templates that the trie cannot express are matched by the [UriTemplate], and win only
+     * if they come before the trie's match in the order of the endpoints; the Catalog orders the
+     * endpoints by their literal prefix, the longest first.
+     */
+    void testFallbackOrder(Catalog catalog) {
+        console.print("*** testFallbackOrder");
+
+        // no trie match
+        assertRoute(catalog, "GET", "/api/files/a.json", "/api", "files/{name}.json", ["name"="a"]);
+        assertNoRoute(catalog, "GET", "/api/files/b");
+
+        // "reports/{id}" comes before "r{name}", which would match as well
+        assertRoute(catalog, "GET", "/docs/reports/7", "/docs", "reports/{id}", ["id"="7"]);
+
+        // "r{name}" comes before "{file}"
+        assertRoute(catalog, "GET", "/docs/rx", "/docs", "r{name}", ["name"="x"]);
+        assertRoute(catalog, "GET", "/docs/x", "/docs", "{file}", ["file"="x"]);
+    }
+
+    /**
+     * Assert that the request is routed to the specified endpoint.
+     */
+    void assertRoute(Catalog catalog, String method, String uriString, String servicePath,
+                     String template, Map<String, String> params, String? methodName = Null) {
+        assert (WebServiceInfo serviceInfo, EndpointInfo endpoint, UriParameters uriParams)
+                := route(catalog, method, uriString) as $"No route for {method} {uriString}";
+
+        assert serviceInfo.path == servicePath && endpoint.template.toString() == template
+                as $"{method} {uriString} is routed to {serviceInfo.path} {endpoint.template}";
+
+        assert uriParams.size == params.size as $"{method} {uriString}: {uriParams}";
+        for ((String name, String value) : params) {
+            assert uriParams.getOrNull(name)?.toString() == value : False
+                    as $"{method} {uriString}: {uriParams}";
+        }
+
+        if (methodName != Null) {
+            assert endpoint.method.name == methodName;
+        }
+    }
+
+    /**
+     * Assert that the request is not routed to any endpoint.
+     */
+    void assertNoRoute(Catalog catalog, String method, String uriString) {
+        if ((_, EndpointInfo endpoint, _) := route(catalog, method, uriString)) {
+            assert as $"{method} {uriString} is routed to {endpoint.template}";
+        }
+    }
+
+    /**
+     * Route the request the same way the Dispatcher does.
+     */
+    conditional (WebServiceInfo, EndpointInfo, UriParameters) route(
+            Catalog catalog, String method, String uriString) {
+        assert (WebServiceInfo serviceInfo, String remainder) :=
+                catalog.router.findService(uriString);
+
+        String? query = Null;
+        if (Int queryOffset := remainder.indexOf('?')) {
+            query     = remainder.substring(queryOffset + 1);
+            remainder = remainder[0 ..< queryOffset];
+        }
+
+        Uri uri = new Uri(path=remainder == "" ? "/" : remainder, query=query);
+        if ((EndpointInfo endpoint, UriParameters uriParams) :=
+                catalog.router.findEndpoint(serviceInfo.id, method, uri)) {
+            return True, serviceInfo, endpoint, uriParams;
+        }
+        return False;
+    }
+
+    @WebService("/api")
+    service Api {
+        @Get("users/{id}") String user(String id) = id;
+        @Delete("users/{id}") String del(String id) = id;
+        @Get("/users/me") String me() = "me";
+        @Get("users/{id}/items") String items(String id) = id;
+        @Get("users/{id}/items/{itemId}") String item(String id, String itemId) = itemId;
+        @Get("users/{id}/merge") String merge(String id) = id;
+        @Get("files/{name}.json") String json(String name) = name;
+        @Post("login") String login() = "";
+    }
+
+    @WebService("/api/v2")
+    service Api2 {
+        @Get("{path}") String any(String path) = path;
+    }
+
+    @WebService("/docs")
+    service Docs {
+        @Get("{file}") String file(String file) = file;
+        @Get("r{name}") String r(String name) = name;
+        @Get("reports/{id}") String report(String id) = id;
+    }
+
+    @WebService("/")
+    service Root {
+        @Get("{path}") String any(String path) = path;
+        @Get("other/thing") String thing() = "";
+    }
+}
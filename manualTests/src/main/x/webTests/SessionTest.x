@@ -0,0 +1,259 @@
+/**
+ * A stand-alone test for the session persistence of xenia: the [FileSessionStore], the
+ * partitioning of the sessions across the shards of the `SessionManager`, and the eviction of the
+ * idle sessions to the store and their reload.
+ *
+ * To run:
+ *      gradle runOne -PtestName=webTests/SessionTest
+ */
+module SessionTest {
+    package net   import net.xtclang.org;
+    package web   import web.xtclang.org;
+    package xenia import xenia.xtclang.org;
+
+    import net.IPAddress;
+
+    import web.CookieConsent;
+
+    import xenia.FileSessionStore;
+    import xenia.SessionData;
+    import xenia.SessionImpl;
+    import xenia.SessionManager;
+    import xenia.SessionShard;
+    import xenia.SessionStore;
+
+    @Inject Console console;
+    @Inject Clock   clock;
+
+    void run() {
+        @Inject Directory homeDir;
+
+        Directory testDir = homeDir.dirFor("Development/xvm/manualTests/data/sessions");
+        if (testDir.exists) {
+            testDir.deleteRecursively();
+        }
+        testDir.ensure();
+
+        testStore(testDir.dirFor("store"));
+        testRetry(testDir);
+        testSharding(testDir.dirFor("shards"));
+        testEviction(testDir.dirFor("eviction"));
+    }
+
+    /**
+     * The changes must be visible before they are written, and must survive the round trip
+     * through the session files.
+     */
+    void testStore(Directory dir) {
+        console.print("*** testStore");
+
+        FileSessionStore store = new FileSessionStore(dir, Duration:1H);
+        SessionData      data  = makeData(17);
+        File             file  = dir.fileFor("17.json");
+
+        assert store.store(data) == Success;
+        assert store.exists(17) && loads(store, 17, data);
+        assert !file.exists;
+
+        assert store.flush() == Success;
+        assert file.exists;
+        assert loads(new FileSessionStore(dir), 17, data);
+
+        assert store.erase(17) == Success;
+        assert !store.exists(17) && store.load(17) == NoSuchSession;
+        assert file.exists;
+
+        assert store.flush() == Success;
+        assert !file.exists;
+        assert new FileSessionStore(dir).load(17) == NoSuchSession;
+    }
+
+    /**
+     * The changes that fail to be written must be kept, superseded by the later changes to the
+     * same session, and written by the flush that is rescheduled after the failure.
+     */
+    void testRetry(Directory testDir) {
+        console.print("*** testRetry");
+
+        // a file in place of the directory makes the writes fail
+        File blocker = testDir.fileFor("retry");
+        blocker.contents = [0];
+
+        Directory        dir   = testDir.dirFor("retry");
+        FileSessionStore store = new FileSessionStore(dir, Duration:0.2S);
+        SessionData      data  = makeData(5);
+
+        store.store(data);
+        store.store(makeData(6));
+        assert store.flush() == IOFailure;
+        assert loads(store, 5, data) && store.exists(6);
+
+        // a later change supersedes the failed one
+        SessionData newer = makeData(5, version=2);
+        store.store(newer);
+        store.erase(6);
+        assert store.flush() == IOFailure;
+        assert loads(store, 5, newer) && !store.exists(6);
+
+        // once the writes can succeed, the rescheduled flush writes the changes without being
+        // asked to
+        blocker.delete();
+        wait(Duration:1S);
+        assert dir.fileFor("5.json").exists && !dir.fileFor("6.json").exists;
+        assert loads(new FileSessionStore(dir), 5, newer);
+    }
+
+    /**
+     * Each session must belong to the shard selected by its id, both when the shard generates
+     * the id and when the session is loaded from the store.
+     */
+    void testSharding(Directory dir) {
+        console.print("*** testSharding");
+
+        Int              count   = 3;
+        FileSessionStore store   = new FileSessionStore(dir);
+        SessionManager   manager = createManager(store, count);
+
+        SessionShard[] shards = manager.shards;
+        assert shards.size == count;
+        for (SessionShard shard : shards) {
+            for (Int i : 0 ..< 10) {
+                Int id = shard.generateId();
+                assert id >= 0 && id % count == shard.index;
+                assert SessionManager.shardIndex(id, count) == shard.index;
+            }
+        }
+
+        Int[] ids = [100, 101, 102, 103, 104, 105];
+        for (Int id : ids) {
+            store.store(makeData(id));
+        }
+        store.flush();
+
+        for (Int id : ids) {
+            assert manager.getStatusById(id) == Unknown;
+            assert SessionImpl session := manager.getSessionById(id);
+            assert session.internalId_ == id;
+
+            Int owner = SessionManager.shardIndex(id, count);
+            for (SessionShard shard : shards) {
+                assert shard.getStatusById(id) == (shard.index == owner ? InMemory : Unknown);
+            }
+        }
+
+        // the same session is returned by the shard that owns it
+        assert SessionImpl session1 := manager.getSessionById(104);
+        assert SessionImpl session2 := shards[SessionManager.shardIndex(104, count)].getSessionById(104);
+        assert &session1 == &session2;
+
+        assert !manager.getSessionById(999);
+        assert manager.getStatusById(999) == Nonexistent;
+
+        for (String text : ["a", "bb", "some-cookie-text"]) {
+            assert 0 <= SessionManager.cookieShardIndex(text, count) < count;
+        }
+
+        manager.shutdown();
+    }
+
+    /**
+     * The idle sessions must be written to the store and evicted from memory, the evicted
+     * sessions must reload with the same data, and the expired sessions must be destroyed and
+     * erased from the store.
+     */
+    void testEviction(Directory dir) {
+        console.print("*** testEviction");
+
+        FileSessionStore store   = new FileSessionStore(dir, Duration:1H);
+        SessionManager   manager = createManager(store, 2);
+
+        SessionData idle    = makeData(20);
+        SessionData expired = makeData(21, idle=Duration:20M);
+        store.store(idle);
+        store.store(expired);
+        store.flush();
+
+        assert SessionImpl session := manager.getSessionById(20);
+        assert session.snapshot_() == idle;
+        assert manager.getSessionById(21);
+
+        // evict anything that is idle at all; nothing has expired yet
+        manager.shards.forEach(shard -> shard.purge(Duration:3H, Duration:3H, Duration.None));
+        assert manager.getStatusById(20) == OnDisk;
+        assert manager.getStatusById(21) == OnDisk;
+
+        assert session := manager.getSessionById(20);
+        assert manager.getStatusById(20) == InMemory;
+        assert session.snapshot_() == idle;
+
+        // the session that has been idle for twenty minutes expires; the other one stays in memory
+        assert manager.getSessionById(21);
+        manager.shards.forEach(shard -> shard.purge(Duration:10M, Duration:10M, Null));
+        wait(Duration:0.2S);
+        assert manager.getStatusById(20) == InMemory;
+        assert manager.getStatusById(21) == Nonexistent;
+        assert !store.exists(21);
+
+        store.flush();
+        assert !dir.fileFor("21.json").exists;
+
+        manager.shutdown();
+        assert loads(new FileSessionStore(dir), 20, idle);
+    }
+
+    /**
+     * @return True iff the store loads the specified data for the session id
+     */
+    Boolean loads(SessionStore store, Int id, SessionData data) {
+        SessionData|SessionStore.IOResult result = store.load(id);
+        return result.is(SessionData) && result == data;
+    }
+
+    /**
+     * Create a SessionManager that restores the sessions from the store.
+     */
+    SessionManager createManager(SessionStore store, Int shardCount) {
+        return new SessionManager(store, (mgr, id, source) -> new SessionImpl(mgr, id, source),
+                                  shardCount=shardCount);
+    }
+
+    /**
+     * Create the data of a session without cookies, which has been idle for the specified time.
+     */
+    SessionData makeData(Int id, Int version = 1, Duration idle = Duration:1M) {
+        Time now = clock.now;
+        return new SessionData(
+                id                = id,
+                created           = now - idle - Duration:1M,
+                lastUse           = now - idle,
+                requestCount      = 3,
+                version           = version,
+                versionChanged    = now - idle,
+                knownCookies      = 0,
+                cookies           = [Null, Null, Null],
+                cookiesSent       = [Null, Null, Null],
+                cookiesVerified   = [Null, Null, Null],
+                prevTLS           = False,
+                abandoned         = False,
+                ipAddress         = new IPAddress("127.0.0.1"),
+                userAgent         = "SessionTest",
+                exclusiveAgent    = False,
+                cookieConsent     = CookieConsent.None,
+                trustLevel        = None,
+                userId            = Null,
+                lastAuthenticated = Null,
+                roles             = [],
+                complete          = True,
+        );
+    }
+
+    /**
+     * Wait for the specified duration, allowing the timers to fire.
+     */
+    void wait(Duration duration) {
+        @Inject Timer timer;
+        @Future Boolean done;
+        timer.schedule(duration, () -> {done = True;});
+        assert done;
+    }
+}
@@ -6,6 +6,7 @@ include(":javatools")           // produces javatools.jar
 include(":javatools_turtle")    // produces *only* a source zip file (no .xtc), and only on request
 include(":javatools_bridge")    // produces *only* a source zip file (no .xtc), and only on request
 include(":javatools_launcher")  // produces native executables (Win, Mac, Linux), only on request
+include(":javatools_bench")     // runs JMH benchmarks for the interpreter, only on request
 include(":lib_ecstasy")         // produces *only* a source zip file (no .xtc), and only on request
 include(":lib_aggregate")       // produces aggregate.xtc
 include(":lib_collections")     // produces collections.xtc